@@ -43,4 +43,14 @@ public interface Observer<T> {
     default void setCancelHandler(Runnable cancelHandler) {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Returns an implementation of the given optional interface if this observer supports it, or null otherwise.
+     * <p>
+     * This allows the producer to emit the messages in a more efficient way than through {@link #next(Object)}, when
+     * the observer offers one.
+     */
+    default <C> C getCapability(Class<C> capability) {
+        return null;
+    }
 }
@@ -0,0 +1,144 @@
+package org.yamcs.benchmarks;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.yamcs.ConfigurationException;
+import org.yamcs.YConfiguration;
+import org.yamcs.xtce.Comparison;
+import org.yamcs.xtce.DatabaseLoadException;
+import org.yamcs.xtce.FloatDataEncoding;
+import org.yamcs.xtce.FloatParameterType;
+import org.yamcs.xtce.IntegerDataEncoding;
+import org.yamcs.xtce.IntegerParameterType;
+import org.yamcs.xtce.OperatorType;
+import org.yamcs.xtce.Parameter;
+import org.yamcs.xtce.ParameterEntry;
+import org.yamcs.xtce.ParameterInstanceRef;
+import org.yamcs.xtce.ParameterType;
+import org.yamcs.xtce.SequenceContainer;
+import org.yamcs.xtce.SequenceEntry.ReferenceLocationType;
+import org.yamcs.xtce.SpaceSystem;
+import org.yamcs.xtce.SpaceSystemLoader;
+
+/**
+ * Generates the MDB used by the benchmarks.
+ * <p>
+ * All packets inherit from the <code>header</code> container which contains a 16 bit packet id. Each packet contains
+ * <code>numParameters</code> parameters cycling through 32 bit unsigned integers, 32 bit IEEE754 floats and 12 bit
+ * unsigned integers such that both byte aligned and unaligned extractions are exercised.
+ */
+public class BenchmarkMdbLoader implements SpaceSystemLoader {
+    static final String SPACE_SYSTEM_NAME = "bench";
+    static final String HEADER_CONTAINER = "header";
+    static final int HEADER_SIZE_IN_BITS = 16;
+    static final int[] PARAMETER_SIZE_IN_BITS = { 32, 32, 12 };
+    // index in the PARAMETER_SIZE_IN_BITS of the float parameters
+    static final int FLOAT_PARAMETER_IDX = 1;
+
+    final int numPackets;
+    final int numParameters;
+
+    public BenchmarkMdbLoader(YConfiguration config) {
+        numPackets = config.getInt("numPackets", 10);
+        numParameters = config.getInt("numParameters", 100);
+        if (numPackets < 1 || numPackets > 0xFFFF) {
+            throw new ConfigurationException("numPackets has to be between 1 and 65535");
+        }
+    }
+
+    /**
+     * The generated MDB depends only on the configuration which is part of the config name, so the serialized MDB is
+     * up to date if it has been saved with the same config name.
+     */
+    @Override
+    public boolean needsUpdate(RandomAccessFile consistencyDateFile) throws IOException, ConfigurationException {
+        String line;
+        while ((line = consistencyDateFile.readLine()) != null) {
+            if (line.equals(getConfigName())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String getConfigName() {
+        return "benchmark-" + numPackets + "-" + numParameters;
+    }
+
+    @Override
+    public void writeConsistencyDate(FileWriter consistencyDateFile) throws IOException {
+        consistencyDateFile.write(getConfigName() + "\n");
+    }
+
+    @Override
+    public SpaceSystem load() throws ConfigurationException, DatabaseLoadException {
+        SpaceSystem ss = new SpaceSystem(SPACE_SYSTEM_NAME);
+
+        IntegerParameterType uint16 = intType("uint16", 16);
+        ParameterType[] ptypes = new ParameterType[PARAMETER_SIZE_IN_BITS.length];
+        for (int k = 0; k < ptypes.length; k++) {
+            int sizeInBits = PARAMETER_SIZE_IN_BITS[k];
+            ptypes[k] = k == FLOAT_PARAMETER_IDX ? floatType("float" + sizeInBits, sizeInBits)
+                    : intType("uint" + sizeInBits, sizeInBits);
+        }
+        ss.addParameterType(uint16);
+        for (ParameterType ptype : ptypes) {
+            ss.addParameterType(ptype);
+        }
+
+        SequenceContainer header = new SequenceContainer(HEADER_CONTAINER);
+        Parameter packetId = new Parameter("packet_id");
+        packetId.setParameterType(uint16);
+        header.addEntry(new ParameterEntry(0, ReferenceLocationType.CONTAINER_START, packetId));
+        ss.addParameter(packetId);
+        ss.addSequenceContainer(header);
+
+        for (int j = 0; j < numPackets; j++) {
+            SequenceContainer sc = new SequenceContainer("pkt_" + j);
+            sc.setBaseContainer(header);
+            sc.setRestrictionCriteria(new Comparison(new ParameterInstanceRef(packetId), j, OperatorType.EQUALITY));
+            int location = HEADER_SIZE_IN_BITS;
+            for (int i = 0; i < numParameters; i++) {
+                int k = i % ptypes.length;
+                Parameter p = new Parameter("p_" + j + "_" + i);
+                p.setParameterType(ptypes[k]);
+                sc.addEntry(new ParameterEntry(location, ReferenceLocationType.CONTAINER_START, p));
+                ss.addParameter(p);
+                location += PARAMETER_SIZE_IN_BITS[k];
+            }
+            ss.addSequenceContainer(sc);
+        }
+        return ss;
+    }
+
+    /**
+     *
+     * @return the size in bytes of the packets generated by the MDB
+     */
+    static int getPacketSize(int numParameters) {
+        int sizeInBits = HEADER_SIZE_IN_BITS;
+        for (int i = 0; i < numParameters; i++) {
+            sizeInBits += PARAMETER_SIZE_IN_BITS[i % PARAMETER_SIZE_IN_BITS.length];
+        }
+        return (sizeInBits + 7) / 8;
+    }
+
+    private static IntegerParameterType intType(String name, int sizeInBits) {
+        IntegerParameterType.Builder ptypeb = new IntegerParameterType.Builder().setName(name);
+        ptypeb.setSizeInBits(sizeInBits);
+        ptypeb.setSigned(false);
+        ptypeb.setEncoding(new IntegerDataEncoding.Builder().setSizeInBits(sizeInBits));
+        return ptypeb.build();
+    }
+
+    private static FloatParameterType floatType(String name, int sizeInBits) {
+        FloatParameterType.Builder ptypeb = new FloatParameterType.Builder().setName(name);
+        ptypeb.setSizeInBits(sizeInBits);
+        ptypeb.setEncoding(new FloatDataEncoding.Builder().setSizeInBits(sizeInBits)
+                .setFloatEncoding(FloatDataEncoding.Encoding.IEEE754_1985));
+        return ptypeb.build();
+    }
+}
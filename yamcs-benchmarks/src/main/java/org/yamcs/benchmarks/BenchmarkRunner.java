@@ -0,0 +1,30 @@
+package org.yamcs.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+/**
+ * Runs the benchmarks with the JMH command line options given as arguments.
+ * <p>
+ * Unless specified otherwise with the <code>-rf</code> and <code>-rff</code> options, the results are written in JSON
+ * format to <code>jmh-result.json</code> such that they can be compared between releases.
+ */
+public class BenchmarkRunner {
+    static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        List<String> l = new ArrayList<>(Arrays.asList(args));
+        if (!l.contains("-rf")) {
+            l.add(0, "-rf");
+            l.add(1, "json");
+        }
+        if (!l.contains("-rff")) {
+            l.add(0, "-rff");
+            l.add(1, DEFAULT_RESULT_FILE);
+        }
+        Main.main(l.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,58 @@
+package org.yamcs.benchmarks;
+
+import static org.yamcs.benchmarks.BenchmarkMdbLoader.FLOAT_PARAMETER_IDX;
+import static org.yamcs.benchmarks.BenchmarkMdbLoader.PARAMETER_SIZE_IN_BITS;
+
+import java.util.Random;
+
+import org.yamcs.YConfiguration;
+import org.yamcs.utils.BitBuffer;
+import org.yamcs.xtce.SequenceContainer;
+import org.yamcs.xtce.XtceDb;
+import org.yamcs.xtceproc.XtceDbFactory;
+
+/**
+ * Configuration and data shared by the benchmarks.
+ * <p>
+ * The configuration files are loaded from the <code>benchmark</code> directory of the classpath.
+ */
+public class BenchmarkSetup {
+    static final String INSTANCE = "benchmark";
+
+    static void setupConfiguration() {
+        YConfiguration.setupTest(INSTANCE);
+    }
+
+    static XtceDb setupMdb() {
+        setupConfiguration();
+        return XtceDbFactory.getInstance(INSTANCE);
+    }
+
+    static SequenceContainer getPacketContainer(XtceDb xtcedb, int packetId) {
+        return xtcedb.getSequenceContainer(
+                "/" + BenchmarkMdbLoader.SPACE_SYSTEM_NAME + "/pkt_" + packetId);
+    }
+
+    static SequenceContainer getHeaderContainer(XtceDb xtcedb) {
+        return xtcedb.getSequenceContainer(
+                "/" + BenchmarkMdbLoader.SPACE_SYSTEM_NAME + "/" + BenchmarkMdbLoader.HEADER_CONTAINER);
+    }
+
+    /**
+     * Generates a packet matching the container <code>pkt_&lt;packetId&gt;</code> with random parameter values.
+     */
+    static byte[] generatePacket(int packetId, int numParameters, Random random) {
+        byte[] b = new byte[BenchmarkMdbLoader.getPacketSize(numParameters)];
+        BitBuffer bitbuf = new BitBuffer(b);
+        bitbuf.putBits(packetId, BenchmarkMdbLoader.HEADER_SIZE_IN_BITS);
+        for (int i = 0; i < numParameters; i++) {
+            int k = i % PARAMETER_SIZE_IN_BITS.length;
+            if (k == FLOAT_PARAMETER_IDX) {
+                bitbuf.putBits(Float.floatToIntBits(random.nextFloat() * 1000), PARAMETER_SIZE_IN_BITS[k]);
+            } else {
+                bitbuf.putBits(random.nextInt(), PARAMETER_SIZE_IN_BITS[k]);
+            }
+        }
+        return b;
+    }
+}
@@ -0,0 +1,59 @@
+package org.yamcs.benchmarks;
+
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yamcs.utils.BitBuffer;
+
+/**
+ * Measures reading a 64 KB buffer with {@link BitBuffer#getBits(int)}, for different value sizes and byte orders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BitBufferBenchmark {
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    @Param({ "7", "16", "32", "64" })
+    int numBits;
+
+    @Param({ "BIG_ENDIAN", "LITTLE_ENDIAN" })
+    String byteOrder;
+
+    BitBuffer bitbuf;
+    int numValues;
+
+    @Setup
+    public void setup() {
+        byte[] b = new byte[BUFFER_SIZE];
+        new Random(0).nextBytes(b);
+        bitbuf = new BitBuffer(b);
+        bitbuf.setByteOrder("BIG_ENDIAN".equals(byteOrder) ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+        numValues = BUFFER_SIZE * 8 / numBits;
+    }
+
+    @Benchmark
+    public long getBits() {
+        bitbuf.setPosition(0);
+        long sum = 0;
+        for (int i = 0; i < numValues; i++) {
+            sum += bitbuf.getBits(numBits);
+        }
+        return sum;
+    }
+}
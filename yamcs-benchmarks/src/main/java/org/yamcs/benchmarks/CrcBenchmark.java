@@ -0,0 +1,157 @@
+package org.yamcs.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yamcs.cfdp.ChecksumCalculator;
+import org.yamcs.tctm.Iso16CrcCalculator;
+import org.yamcs.tctm.ccsds.error.CrcCciitCalculator;
+import org.yamcs.tctm.ccsds.error.ProximityCrc32;
+
+/**
+ * Compares the table driven CRC and checksum calculators with the byte by byte algorithms they replaced (copied
+ * below), for a TM frame and for a 64 KB block of data.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrcBenchmark {
+
+    @Param({ "1115", "65536" })
+    int size;
+
+    byte[] data;
+    ByteBuffer directBuf;
+
+    CrcCciitCalculator crc16 = new CrcCciitCalculator();
+    ProximityCrc32 crc32 = new ProximityCrc32();
+    Iso16CrcCalculator iso16 = new Iso16CrcCalculator();
+
+    short[] crc16Table = legacyCrc16Table(0x1021);
+    int[] crc32Table = legacyCrc32Table(0xA00805);
+
+    @Setup
+    public void setup() {
+        data = new byte[size];
+        new Random(0).nextBytes(data);
+        directBuf = ByteBuffer.allocateDirect(size);
+        directBuf.put(data);
+        directBuf.flip();
+    }
+
+    @Benchmark
+    public int crc16Legacy() {
+        int crc = 0xFFFF;
+        for (int i = 0; i < data.length; i++) {
+            int idx = (data[i] ^ (crc >> 8)) & 0xff;
+            crc = crc16Table[idx] ^ (crc << 8);
+        }
+        return crc & 0xFFFF;
+    }
+
+    @Benchmark
+    public int crc16() {
+        return crc16.compute(data, 0, data.length);
+    }
+
+    @Benchmark
+    public int crc16Direct() {
+        return crc16.compute(directBuf);
+    }
+
+    @Benchmark
+    public int crc32Legacy() {
+        int crc = 0;
+        for (int i = 0; i < data.length; i++) {
+            int idx = (data[i] ^ (crc >> 24)) & 0xff;
+            crc = crc32Table[idx] ^ (crc << 8);
+        }
+        return crc;
+    }
+
+    @Benchmark
+    public int crc32() {
+        return crc32.compute(data, 0, data.length);
+    }
+
+    @Benchmark
+    public int iso16Legacy() {
+        long c0 = 0;
+        long c1 = 0;
+        for (int i = 0; i < data.length; i++) {
+            c0 = c0 + (data[i] & 0xFF);
+            c1 = c1 + c0;
+        }
+        c0 = c0 % 255;
+        c1 = c1 % 255;
+        return (int) (((~((c0 + c1) % 255) & 0xFF) << 8) + (c1 & 0xFF));
+    }
+
+    @Benchmark
+    public int iso16() {
+        return iso16.compute(data, 0, data.length);
+    }
+
+    @Benchmark
+    public long cfdpChecksumLegacy() {
+        int k = 0;
+        long checksum = 0;
+        long x = 0;
+        for (int i = 0; i < data.length; i++) {
+            x = (x << 8) + (data[i] & 0xFF);
+            k++;
+            if (k == 4) {
+                checksum += x;
+                x = 0;
+                k = 0;
+            }
+        }
+        x = x << ((4 - k) << 3);
+        checksum += x;
+        return checksum & 0xFFFFFFFFL;
+    }
+
+    @Benchmark
+    public long cfdpChecksum() {
+        return ChecksumCalculator.calculateChecksum(data);
+    }
+
+    static short[] legacyCrc16Table(int polynomial) {
+        short[] r = new short[256];
+        for (int dividend = 0; dividend < 256; dividend++) {
+            int remainder = dividend << 8;
+            for (int j = 0; j < 8; j++) {
+                remainder = (remainder & 0x8000) == 0 ? remainder << 1 : (remainder << 1) ^ polynomial;
+            }
+            r[dividend] = (short) remainder;
+        }
+        return r;
+    }
+
+    static int[] legacyCrc32Table(int polynomial) {
+        int[] r = new int[256];
+        for (int dividend = 0; dividend < 256; dividend++) {
+            int remainder = dividend << 24;
+            for (int j = 0; j < 8; j++) {
+                remainder = (remainder & 0x80000000) == 0 ? remainder << 1 : (remainder << 1) ^ polynomial;
+            }
+            r[dividend] = remainder;
+        }
+        return r;
+    }
+}
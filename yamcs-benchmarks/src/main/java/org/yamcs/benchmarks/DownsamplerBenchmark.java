@@ -0,0 +1,94 @@
+package org.yamcs.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yamcs.http.api.Downsampler;
+import org.yamcs.http.api.Downsampler.Sample;
+
+/**
+ * Measures the {@link Downsampler} reducing one day of 1 Hz values, either from the values themselves or from
+ * pre-aggregated buckets of 16 values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DownsamplerBenchmark {
+    static final int NUM_VALUES = 86400;
+    static final int BUCKET_SIZE = 16;
+
+    @Param({ "500", "5000" })
+    int sampleCount;
+
+    long start;
+    long stop;
+    double[] values;
+
+    // values aggregated in buckets of BUCKET_SIZE
+    int[] bucketCount;
+    double[] bucketMin;
+    double[] bucketMax;
+    double[] bucketSum;
+
+    @Setup
+    public void setup() {
+        start = 0;
+        stop = NUM_VALUES * 1000L;
+        Random random = new Random(0);
+        values = new double[NUM_VALUES];
+        for (int i = 0; i < NUM_VALUES; i++) {
+            values[i] = 100 * Math.sin(i / 1000.0) + random.nextGaussian();
+        }
+
+        int numBuckets = (NUM_VALUES + BUCKET_SIZE - 1) / BUCKET_SIZE;
+        bucketCount = new int[numBuckets];
+        bucketMin = new double[numBuckets];
+        bucketMax = new double[numBuckets];
+        bucketSum = new double[numBuckets];
+        for (int k = 0; k < numBuckets; k++) {
+            bucketMin[k] = Double.POSITIVE_INFINITY;
+            bucketMax[k] = Double.NEGATIVE_INFINITY;
+        }
+        for (int i = 0; i < NUM_VALUES; i++) {
+            int k = i / BUCKET_SIZE;
+            bucketCount[k]++;
+            bucketMin[k] = Math.min(bucketMin[k], values[i]);
+            bucketMax[k] = Math.max(bucketMax[k], values[i]);
+            bucketSum[k] += values[i];
+        }
+    }
+
+    @Benchmark
+    public List<Sample> processValues() {
+        Downsampler sampler = new Downsampler(start, stop, sampleCount);
+        for (int i = 0; i < NUM_VALUES; i++) {
+            sampler.process(start + i * 1000L, values[i], -1);
+        }
+        return sampler.collect();
+    }
+
+    @Benchmark
+    public List<Sample> processAggregated() {
+        Downsampler sampler = new Downsampler(start, stop, sampleCount);
+        for (int k = 0; k < bucketCount.length; k++) {
+            sampler.process(start + k * BUCKET_SIZE * 1000L, bucketCount[k], bucketMin[k], bucketMax[k],
+                    bucketSum[k], -1);
+        }
+        return sampler.collect();
+    }
+}
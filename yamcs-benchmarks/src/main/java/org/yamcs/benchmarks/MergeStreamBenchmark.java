@@ -0,0 +1,107 @@
+package org.yamcs.benchmarks;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yamcs.yarch.DataType;
+import org.yamcs.yarch.MergeStream;
+import org.yamcs.yarch.Stream;
+import org.yamcs.yarch.StreamSubscriber;
+import org.yamcs.yarch.Tuple;
+import org.yamcs.yarch.TupleDefinition;
+import org.yamcs.yarch.YarchDatabase;
+import org.yamcs.yarch.YarchDatabaseInstance;
+
+/**
+ * Measures the merging by generation time of several streams, each of them produced by its own thread (as it is the
+ * case for the table reader streams of a replay).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MergeStreamBenchmark {
+    static final int NUM_TUPLES = 100_000;
+
+    @Param({ "2", "4" })
+    int numStreams;
+
+    YarchDatabaseInstance ydb;
+    TupleDefinition tdef;
+
+    @Setup
+    public void setup() {
+        BenchmarkSetup.setupConfiguration();
+        ydb = YarchDatabase.getInstance(BenchmarkSetup.INSTANCE);
+        tdef = new TupleDefinition();
+        tdef.addColumn("gentime", DataType.TIMESTAMP);
+        tdef.addColumn("seqNum", DataType.INT);
+    }
+
+    @Benchmark
+    public long merge() throws Exception {
+        Stream[] streams = new Stream[numStreams];
+        for (int i = 0; i < numStreams; i++) {
+            streams[i] = new GeneratorStream(ydb, "gen" + i, tdef, i, numStreams);
+        }
+        MergeStream ms = new MergeStream(ydb, streams, "gentime", true);
+        CountDownLatch latch = new CountDownLatch(1);
+        long[] count = new long[1];
+        ms.addSubscriber(new StreamSubscriber() {
+            @Override
+            public void onTuple(Stream s, Tuple tuple) {
+                count[0]++;
+            }
+
+            @Override
+            public void streamClosed(Stream s) {
+                latch.countDown();
+            }
+        });
+        ms.start();
+        latch.await();
+        return count[0];
+    }
+
+    static class GeneratorStream extends Stream implements Runnable {
+        final int offset;
+        final int step;
+
+        GeneratorStream(YarchDatabaseInstance ydb, String name, TupleDefinition tdef, int offset, int step) {
+            super(ydb, name, tdef);
+            this.offset = offset;
+            this.step = step;
+        }
+
+        @Override
+        public void doStart() {
+            new Thread(this).start();
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < NUM_TUPLES && !isClosed(); i++) {
+                long gentime = (long) i * step + offset;
+                emitTuple(new Tuple(getDefinition(), new Object[] { gentime, i }));
+            }
+            close();
+        }
+
+        @Override
+        protected void doClose() {
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.yamcs.benchmarks;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yamcs.YConfiguration;
+import org.yamcs.parameter.BasicParameterValue;
+import org.yamcs.parameter.ParameterValue;
+import org.yamcs.parameterarchive.MultiParameterDataRetrieval;
+import org.yamcs.parameterarchive.MultipleParameterValueRequest;
+import org.yamcs.parameterarchive.PGSegment;
+import org.yamcs.parameterarchive.ParameterArchive;
+import org.yamcs.protobuf.Yamcs.Value.Type;
+import org.yamcs.utils.IntArray;
+import org.yamcs.utils.TimeEncoding;
+import org.yamcs.utils.ValueUtility;
+import org.yamcs.xtce.Parameter;
+import org.yamcs.yarch.rocksdb.RdbStorageEngine;
+
+/**
+ * Measures the retrieval of several parameters from the parameter archive with different numbers of decoding threads
+ * (0 means that the segments are decoded by the retrieving thread).
+ * <p>
+ * The segment cache is disabled such that each retrieval decodes all the segments. The speedup depends on the number
+ * of available processors; on a single processor machine the parallel retrieval is slightly slower than the sequential
+ * one due to the thread hand-over.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MultiParameterRetrievalBenchmark {
+    static final int NUM_PARAMETERS = 20;
+    static final int NUM_INTERVALS = 50;
+    static final int SEGMENT_SIZE = 5000;
+
+    @Param({ "0", "1", "2", "4" })
+    int threads;
+
+    ParameterArchive parchive;
+    ExecutorService executor;
+    String[] pnames;
+    int[] pids;
+    int[] pgids;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkSetup.setupConfiguration();
+        TimeEncoding.setUp();
+        RdbStorageEngine rse = RdbStorageEngine.getInstance();
+        if (rse.getTablespace(BenchmarkSetup.INSTANCE) != null) {
+            rse.dropTablespace(BenchmarkSetup.INSTANCE);
+        }
+        rse.createTablespace(BenchmarkSetup.INSTANCE);
+
+        parchive = new ParameterArchive();
+        Map<String, Object> conf = new HashMap<>();
+        conf.put("retrievalThreads", 0);
+        conf.put("segmentCacheSize", 0);
+        YConfiguration config = parchive.getSpec().validate(YConfiguration.wrap(conf));
+        parchive.init(BenchmarkSetup.INSTANCE, "benchmark", config);
+
+        pnames = new String[NUM_PARAMETERS];
+        pids = new int[NUM_PARAMETERS];
+        pgids = new int[NUM_PARAMETERS];
+        Parameter[] params = new Parameter[NUM_PARAMETERS];
+        for (int i = 0; i < NUM_PARAMETERS; i++) {
+            pnames[i] = "/benchmark/p" + i;
+            params[i] = new Parameter("p" + i);
+            params[i].setQualifiedName(pnames[i]);
+            pids[i] = parchive.getParameterIdDb().createAndGet(pnames[i], Type.FLOAT);
+        }
+        int pgid = parchive.getParameterGroupIdDb().createAndGet(IntArray.wrap(pids));
+        for (int i = 0; i < NUM_PARAMETERS; i++) {
+            pgids[i] = pgid;
+        }
+
+        Random random = new Random(0);
+        long t0 = TimeEncoding.parse("2020-01-01T00:00:00");
+        long dt = ParameterArchive.getIntervalDuration() / SEGMENT_SIZE;
+        for (int k = 0; k < NUM_INTERVALS; k++) {
+            long segStart = ParameterArchive.getIntervalStart(t0 + k * ParameterArchive.getIntervalDuration());
+            PGSegment pgs = new PGSegment(pgid, segStart, IntArray.wrap(pids));
+            for (int j = 0; j < SEGMENT_SIZE; j++) {
+                long t = segStart + j * dt;
+                List<BasicParameterValue> l = new ArrayList<>(NUM_PARAMETERS);
+                for (int i = 0; i < NUM_PARAMETERS; i++) {
+                    ParameterValue pv = new ParameterValue(params[i]);
+                    pv.setGenerationTime(t);
+                    pv.setEngineeringValue(ValueUtility.getFloatValue(random.nextFloat()));
+                    l.add(pv);
+                }
+                pgs.addRecord(t, l);
+            }
+            parchive.writeToArchive(pgs);
+        }
+
+        executor = threads == 0 ? null : Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (executor != null) {
+            executor.shutdown();
+        }
+        RdbStorageEngine.getInstance().dropTablespace(BenchmarkSetup.INSTANCE);
+    }
+
+    @Benchmark
+    public long retrieve() throws Exception {
+        MultipleParameterValueRequest mpvr = new MultipleParameterValueRequest(0, TimeEncoding.MAX_INSTANT,
+                pnames, pids, pgids, new BitSet(), true);
+        MultiParameterDataRetrieval mpdr = new MultiParameterDataRetrieval(parchive, mpvr, executor, 16);
+        long[] count = new long[1];
+        mpdr.retrieve(pivl -> count[0] += pivl.size());
+        return count[0];
+    }
+}
@@ -0,0 +1,90 @@
+package org.yamcs.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.yamcs.Processor;
+import org.yamcs.ProcessorFactory;
+import org.yamcs.ProcessorService;
+import org.yamcs.parameter.ParameterConsumer;
+import org.yamcs.parameter.ParameterRequestManager;
+import org.yamcs.parameter.ParameterValue;
+import org.yamcs.utils.TimeEncoding;
+import org.yamcs.utils.ValueUtility;
+import org.yamcs.xtce.Parameter;
+import org.yamcs.xtce.ParameterEntry;
+import org.yamcs.xtce.SequenceContainer;
+import org.yamcs.xtce.SequenceEntry;
+import org.yamcs.xtce.XtceDb;
+
+/**
+ * Measures the delivery by the {@link ParameterRequestManager} of the parameters of one packet to a number of
+ * subscribers, each of them subscribed to all the parameters of the packet.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParameterRequestManagerBenchmark {
+    @Param({ "1", "10", "100" })
+    int numSubscribers;
+
+    Processor processor;
+    ParameterRequestManager prm;
+    List<ParameterValue> pvList;
+    Blackhole blackhole;
+
+    @Setup
+    public void setup(Blackhole bh) throws Exception {
+        this.blackhole = bh;
+        XtceDb xtcedb = BenchmarkSetup.setupMdb();
+        processor = ProcessorFactory.create(BenchmarkSetup.INSTANCE, "prm-benchmark",
+                new ProcessorService[0]);
+        prm = processor.getParameterRequestManager();
+
+        SequenceContainer sc = BenchmarkSetup.getPacketContainer(xtcedb, 0);
+        List<Parameter> plist = new ArrayList<>();
+        for (SequenceEntry se : sc.getEntryList()) {
+            plist.add(((ParameterEntry) se).getParameter());
+        }
+        for (int i = 0; i < numSubscribers; i++) {
+            prm.addRequest(plist, (ParameterConsumer) (subscriptionId, items) -> blackhole.consume(items));
+        }
+
+        long now = TimeEncoding.getWallclockTime();
+        pvList = new ArrayList<>();
+        for (Parameter p : plist) {
+            ParameterValue pv = new ParameterValue(p);
+            pv.setGenerationTime(now);
+            pv.setAcquisitionTime(now);
+            pv.setEngValue(ValueUtility.getUint32Value(pvList.size()));
+            pvList.add(pv);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        processor.quit();
+    }
+
+    @Benchmark
+    public void update() {
+        prm.update(pvList);
+    }
+}
@@ -0,0 +1,124 @@
+package org.yamcs.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yamcs.parameter.Value;
+import org.yamcs.parameterarchive.BaseSegment;
+import org.yamcs.parameterarchive.FloatCompressor;
+import org.yamcs.parameterarchive.IntValueSegment;
+import org.yamcs.parameterarchive.ParameterArchive;
+import org.yamcs.parameterarchive.SegmentEncoderDecoder;
+import org.yamcs.parameterarchive.SortedTimeSegment;
+import org.yamcs.utils.DecodingException;
+import org.yamcs.utils.TimeEncoding;
+import org.yamcs.utils.ValueUtility;
+
+/**
+ * Measures the encoding and decoding of the parameter archive segments.
+ * <p>
+ * The data is generated to resemble typical telemetry: timestamps at approximately 1 second interval, slowly varying
+ * integer counters and noisy sine wave float values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SegmentBenchmark {
+    @Param({ "1000", "4000" })
+    int numValues;
+
+    SegmentEncoderDecoder encoder = new SegmentEncoderDecoder();
+    long segmentStart;
+
+    SortedTimeSegment timeSegment;
+    byte[] encodedTimeSegment;
+
+    IntValueSegment intSegment;
+    byte[] encodedIntSegment;
+
+    float[] floats;
+    ByteBuffer floatBuffer;
+    int compressedFloatsSize;
+
+    @Setup
+    public void setup() {
+        BenchmarkSetup.setupConfiguration();
+        Random random = new Random(0);
+        segmentStart = ParameterArchive.getIntervalStart(TimeEncoding.getWallclockTime());
+
+        timeSegment = new SortedTimeSegment(segmentStart);
+        long t = segmentStart;
+        for (int i = 0; i < numValues; i++) {
+            t += 1000 + random.nextInt(5) - 2;
+            timeSegment.add(t);
+        }
+        encodedTimeSegment = encoder.encode(timeSegment);
+
+        List<Value> values = new ArrayList<>(numValues);
+        int v = 0;
+        for (int i = 0; i < numValues; i++) {
+            v += random.nextInt(3);
+            values.add(ValueUtility.getUint32Value(v));
+        }
+        intSegment = IntValueSegment.consolidate(values, false);
+        encodedIntSegment = encoder.encode(intSegment);
+
+        floats = new float[numValues];
+        for (int i = 0; i < numValues; i++) {
+            floats[i] = (float) (100 * Math.sin(i / 100.0) + random.nextGaussian());
+        }
+        floatBuffer = ByteBuffer.allocate(8 * numValues + 8);
+        FloatCompressor.compress(floats, floatBuffer);
+        compressedFloatsSize = floatBuffer.position();
+    }
+
+    @Benchmark
+    public byte[] encodeTimeSegment() {
+        return encoder.encode(timeSegment);
+    }
+
+    @Benchmark
+    public BaseSegment decodeTimeSegment() throws DecodingException {
+        return encoder.decode(encodedTimeSegment, segmentStart);
+    }
+
+    @Benchmark
+    public byte[] encodeIntSegment() {
+        return encoder.encode(intSegment);
+    }
+
+    @Benchmark
+    public BaseSegment decodeIntSegment() throws DecodingException {
+        return encoder.decode(encodedIntSegment, segmentStart);
+    }
+
+    @Benchmark
+    public int compressFloats() {
+        floatBuffer.clear();
+        FloatCompressor.compress(floats, floatBuffer);
+        return floatBuffer.position();
+    }
+
+    @Benchmark
+    public float[] decompressFloats() {
+        ByteBuffer bb = ByteBuffer.wrap(floatBuffer.array(), 0, compressedFloatsSize);
+        return FloatCompressor.decompress(bb, numValues);
+    }
+}
@@ -0,0 +1,95 @@
+package org.yamcs.benchmarks;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.yamcs.utils.TimeEncoding;
+import org.yamcs.yarch.ColumnSerializerV3;
+import org.yamcs.yarch.DataType;
+import org.yamcs.yarch.Row;
+import org.yamcs.yarch.TableDefinition;
+import org.yamcs.yarch.Tuple;
+import org.yamcs.yarch.TupleDefinition;
+
+/**
+ * Measures the serialization and deserialization of a tuple similar to the ones stored in the tm table, using the
+ * column serializers of the current table format ({@link ColumnSerializerV3}).
+ * <p>
+ * The value is encoded either with the row format (version 3) or with the columnar format (version 4); the
+ * deserializeProjected benchmark retrieves only two columns as done for a query like
+ * {@code select gentime, pname from tm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TupleSerializationBenchmark {
+    @Param({ "3", "4" })
+    int formatVersion;
+
+    TableDefinition tableDefinition;
+    Tuple tuple;
+    Set<String> projection = new HashSet<>(Arrays.asList("gentime", "pname"));
+    byte[] key;
+    byte[] value;
+
+    @Setup
+    public void setup() throws Exception {
+        BenchmarkSetup.setupConfiguration();
+        TupleDefinition tdef = new TupleDefinition();
+        tdef.addColumn("gentime", DataType.TIMESTAMP);
+        tdef.addColumn("seqNum", DataType.INT);
+        tdef.addColumn("rectime", DataType.TIMESTAMP);
+        tdef.addColumn("pname", DataType.STRING);
+        tdef.addColumn("value", DataType.DOUBLE);
+        tdef.addColumn("packet", DataType.BINARY);
+        tableDefinition = new TableDefinition("bench", tdef, Arrays.asList("gentime", "seqNum"));
+        if (formatVersion != TableDefinition.CURRENT_FORMAT_VERSION) {
+            tableDefinition = new TableDefinition(formatVersion, tableDefinition.getKeyDefinition(),
+                    tableDefinition.getValueDefinition());
+        }
+
+        byte[] packet = new byte[1024];
+        new Random(0).nextBytes(packet);
+        long now = TimeEncoding.getWallclockTime();
+        tuple = new Tuple(tdef, new Object[] { now, 1234, now + 1000, "/bench/pkt_0", 3.14, packet });
+
+        Row row = tableDefinition.generateRow(tuple);
+        key = row.getKey();
+        value = tableDefinition.serializeValue(tuple, row);
+    }
+
+    @Benchmark
+    public void serialize(Blackhole bh) {
+        Row row = tableDefinition.generateRow(tuple);
+        bh.consume(row.getKey());
+        bh.consume(tableDefinition.serializeValue(tuple, row));
+    }
+
+    @Benchmark
+    public Tuple deserialize() {
+        return tableDefinition.deserialize(key, value);
+    }
+
+    @Benchmark
+    public Tuple deserializeProjected() {
+        return tableDefinition.deserialize(key, value, projection);
+    }
+}
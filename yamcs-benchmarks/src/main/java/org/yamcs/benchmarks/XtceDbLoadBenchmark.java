@@ -0,0 +1,62 @@
+package org.yamcs.benchmarks;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yamcs.YConfiguration;
+import org.yamcs.xtce.XtceDb;
+import org.yamcs.xtceproc.XtceDbFactory;
+
+/**
+ * Measures the time to create a synthetic MDB of 100k parameters (100 packets of 1000 parameters) either by running
+ * the loader or by deserializing the MDB cached in the cache directory.
+ * <p>
+ * Run with <code>-prof gc</code> to see the heap allocated during the loading.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class XtceDbLoadBenchmark {
+
+    @Param({ "loader", "cache" })
+    String source;
+
+    List<YConfiguration> mdbConfig;
+
+    @Setup
+    public void setup() {
+        BenchmarkSetup.setupConfiguration();
+        Map<String, Object> args = new HashMap<>();
+        args.put("numPackets", 100);
+        args.put("numParameters", 1000);
+        Map<String, Object> m = new HashMap<>();
+        m.put("type", BenchmarkMdbLoader.class.getName());
+        m.put("args", args);
+        mdbConfig = Arrays.asList(YConfiguration.wrap(m));
+        if ("cache".equals(source)) {
+            XtceDbFactory.createInstance(mdbConfig, false, true);
+        }
+    }
+
+    @Benchmark
+    public XtceDb load() {
+        return XtceDbFactory.createInstance(mdbConfig, "cache".equals(source), false);
+    }
+}
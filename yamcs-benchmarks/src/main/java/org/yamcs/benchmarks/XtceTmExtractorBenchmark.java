@@ -0,0 +1,82 @@
+package org.yamcs.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yamcs.ProcessorConfig;
+import org.yamcs.utils.TimeEncoding;
+import org.yamcs.xtce.Parameter;
+import org.yamcs.xtce.ParameterEntry;
+import org.yamcs.xtce.SequenceContainer;
+import org.yamcs.xtce.XtceDb;
+import org.yamcs.xtceproc.ContainerProcessingResult;
+import org.yamcs.xtceproc.ProcessorData;
+import org.yamcs.xtceproc.XtceTmExtractor;
+
+/**
+ * Measures the extraction of one packet with all parameters subscribed or with only one parameter subscribed, using
+ * either the interpreted processing of the container hierarchy or the compiled extraction plans.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XtceTmExtractorBenchmark {
+    static final int NUM_DISTINCT_PACKETS = 16;
+
+    @Param({ "all", "one" })
+    String subscription;
+
+    @Param({ "false", "true" })
+    boolean compiled;
+
+    XtceTmExtractor tmExtractor;
+    SequenceContainer rootContainer;
+    byte[][] packets;
+    int idx;
+
+    @Setup
+    public void setup() {
+        XtceDb xtcedb = BenchmarkSetup.setupMdb();
+        ProcessorConfig pconfig = new ProcessorConfig();
+        pconfig.getContainerProcessingOptions().setCompiledExtractionPlans(compiled);
+        tmExtractor = new XtceTmExtractor(xtcedb,
+                new ProcessorData(null, "XTCEPROC", xtcedb, pconfig));
+        rootContainer = BenchmarkSetup.getHeaderContainer(xtcedb);
+        SequenceContainer sc = BenchmarkSetup.getPacketContainer(xtcedb, 0);
+        int numParameters = sc.getEntryList().size();
+        if ("all".equals(subscription)) {
+            tmExtractor.provideAll();
+        } else {
+            // the last parameter of the packet
+            Parameter p = ((ParameterEntry) sc.getEntryList().get(numParameters - 1)).getParameter();
+            tmExtractor.startProviding(p);
+        }
+
+        Random random = new Random(0);
+        packets = new byte[NUM_DISTINCT_PACKETS][];
+        for (int i = 0; i < packets.length; i++) {
+            packets[i] = BenchmarkSetup.generatePacket(0, numParameters, random);
+        }
+    }
+
+    @Benchmark
+    public ContainerProcessingResult processPacket() {
+        byte[] packet = packets[idx++ & (NUM_DISTINCT_PACKETS - 1)];
+        long now = TimeEncoding.getWallclockTime();
+        return tmExtractor.processPacket(packet, now, now, rootContainer);
+    }
+}
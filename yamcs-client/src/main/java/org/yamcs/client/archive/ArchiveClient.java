@@ -18,6 +18,7 @@ import org.yamcs.client.archive.ArchiveClient.IndexOptions.FilterOption;
 import org.yamcs.client.archive.ArchiveClient.IndexOptions.IndexOption;
 import org.yamcs.client.archive.ArchiveClient.IndexOptions.PacketOption;
 import org.yamcs.client.archive.ArchiveClient.ListOptions.AscendingOption;
+import org.yamcs.client.archive.ArchiveClient.ListOptions.CommandsOption;
 import org.yamcs.client.archive.ArchiveClient.ListOptions.LimitOption;
 import org.yamcs.client.archive.ArchiveClient.ListOptions.ListOption;
 import org.yamcs.client.archive.ArchiveClient.ListOptions.NoRealtimeOption;
@@ -424,7 +425,7 @@ public class ArchiveClient {
         return listCommands(null, null);
     }
 
-    public CompletableFuture<Page<Command>> listCommands(Instant start, Instant stop) {
+    public CompletableFuture<Page<Command>> listCommands(Instant start, Instant stop, ListOption... options) {
         ListCommandsRequest.Builder requestb = ListCommandsRequest.newBuilder()
                 .setInstance(instance);
         if (start != null) {
@@ -433,6 +434,19 @@ public class ArchiveClient {
         if (stop != null) {
             requestb.setStop(Timestamp.newBuilder().setSeconds(stop.getEpochSecond()).setNanos(stop.getNano()));
         }
+        for (ListOption option : options) {
+            if (option instanceof AscendingOption) {
+                requestb.setOrder(((AscendingOption) option).ascending ? "asc" : "desc");
+            } else if (option instanceof LimitOption) {
+                requestb.setLimit(((LimitOption) option).limit);
+            } else if (option instanceof CommandsOption) {
+                for (String command : ((CommandsOption) option).commands) {
+                    requestb.addName(command);
+                }
+            } else {
+                throw new IllegalArgumentException("Usupported option " + option.getClass());
+            }
+        }
         return new CommandPage(requestb.build()).future();
     }
 
@@ -939,6 +953,10 @@ public class ArchiveClient {
             return new SourceOption(source);
         }
 
+        public static ListOption commands(String... commands) {
+            return new CommandsOption(commands);
+        }
+
         static final class AscendingOption implements ListOption {
             final boolean ascending;
 
@@ -978,6 +996,14 @@ public class ArchiveClient {
                 this.source = source;
             }
         }
+
+        static final class CommandsOption implements ListOption {
+            final String[] commands;
+
+            public CommandsOption(String... commands) {
+                this.commands = commands;
+            }
+        }
     }
 
     public static final class RangeOptions {
@@ -15,9 +15,12 @@ import org.yamcs.protobuf.CreateTransferRequest;
 import org.yamcs.protobuf.GetTransferRequest;
 import org.yamcs.protobuf.ListTransfersRequest;
 import org.yamcs.protobuf.ListTransfersResponse;
+import org.yamcs.protobuf.SetUplinkRateRequest;
 import org.yamcs.protobuf.TransferDirection;
 import org.yamcs.protobuf.TransferInfo;
 
+import com.google.protobuf.Empty;
+
 public class FileTransferClient {
 
     private String instance;
@@ -82,6 +85,20 @@ public class FileTransferClient {
         return f;
     }
 
+    /**
+     * Sets the maximum uplink data rate towards a remote entity, in bytes/second. A rate of 0 removes the limitation.
+     */
+    public CompletableFuture<Void> setUplinkRate(String entity, double rate) {
+        SetUplinkRateRequest.Builder requestb = SetUplinkRateRequest.newBuilder()
+                .setInstance(instance)
+                .setServiceName(serviceName)
+                .setEntity(entity)
+                .setRate(rate);
+        CompletableFuture<Empty> f = new CompletableFuture<>();
+        ftService.setUplinkRate(null, requestb.build(), new ResponseObserver<>(f));
+        return f.thenApply(response -> null);
+    }
+
     public CompletableFuture<TransferInfo> download(String remotePath, ObjectId target) {
         CreateTransferRequest.Builder requestb = CreateTransferRequest.newBuilder()
                 .setInstance(instance)
@@ -1,5 +1,7 @@
 package org.yamcs;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.yamcs.security.User;
 import org.yamcs.utils.TimeEncoding;
 
@@ -18,6 +20,9 @@ public class ConnectedClient {
     private long loginTime;
     private Processor processor;
 
+    private final AtomicLong droppedMessages = new AtomicLong();
+    private final AtomicLong conflatedValues = new AtomicLong();
+
     public ConnectedClient(User user, String applicationName, String address) {
         this(user, applicationName, address, null);
     }
@@ -85,4 +90,27 @@ public class ConnectedClient {
     public Processor getProcessor() {
         return processor;
     }
+
+    /**
+     * Number of messages not sent to the client because the connection could not keep up
+     */
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+
+    public void incrementDroppedMessages() {
+        droppedMessages.incrementAndGet();
+    }
+
+    /**
+     * Number of parameter values not sent to the client because they have been replaced by a newer value of the same
+     * parameter while the connection could not keep up
+     */
+    public long getConflatedValues() {
+        return conflatedValues.get();
+    }
+
+    public void addConflatedValues(int n) {
+        conflatedValues.addAndGet(n);
+    }
 }
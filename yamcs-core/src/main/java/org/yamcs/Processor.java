@@ -90,6 +90,8 @@ public class Processor extends AbstractService {
     private boolean quitting;
     // a synchronous processor waits for all the clients to deliver tm packets and parameters
     private boolean synchronous = false;
+    // the services of a processor allowing early termination may terminate before the processor has started
+    private boolean earlyTerminationAllowed = false;
 
     XtceTmProcessor tmProcessor;
 
@@ -255,7 +257,7 @@ public class Processor extends AbstractService {
                 startIfNecessary(swc.service);
             }
 
-            tmProcessor.awaitRunning();
+            awaitIfNecessary(tmProcessor);
 
             awaitIfNecessary(commandHistoryRequestManager);
             awaitIfNecessary(commandHistoryProvider);
@@ -265,12 +267,16 @@ public class Processor extends AbstractService {
             awaitIfNecessary(eventAlarmServer);
 
             for (ProcessorServiceWithConfig swc : serviceList) {
-                swc.service.awaitRunning();
+                awaitIfNecessary(swc.service);
             }
 
             notifyStarted();
         } catch (Exception e) {
-            notifyFailed(e.getCause());
+            if (earlyTerminationAllowed && e.getCause() == null) {
+                notifyFailed(e);
+            } else {
+                notifyFailed(e.getCause());
+            }
         }
         propagateProcessorStateChange();
     }
@@ -293,7 +299,13 @@ public class Processor extends AbstractService {
 
     private void awaitIfNecessary(Service service) {
         if (service != null) {
-            service.awaitRunning();
+            try {
+                service.awaitRunning();
+            } catch (IllegalStateException e) {
+                if (!earlyTerminationAllowed || service.state() != State.TERMINATED) {
+                    throw e;
+                }
+            }
         }
     }
 
@@ -473,6 +485,17 @@ public class Processor extends AbstractService {
         this.synchronous = synchronous;
     }
 
+    /**
+     * Allows the services to terminate before the processor has finished starting, which happens when a short replay
+     * has nothing to do (e.g. the replay of an empty interval by the parameter archive back filler). The processor then
+     * starts and terminates normally instead of failing.
+     * <p>
+     * Has to be called before starting the processor.
+     */
+    public void setEarlyTerminationAllowed(boolean earlyTerminationAllowed) {
+        this.earlyTerminationAllowed = earlyTerminationAllowed;
+    }
+
     public boolean isReplay() {
         if (tmPacketProvider == null) {
             return false;
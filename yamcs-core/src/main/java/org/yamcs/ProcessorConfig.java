@@ -25,6 +25,7 @@ public class ProcessorConfig {
     private static final String CONFIG_KEY_CHECK_COMMAND_CLEARANCE = "checkCommandClearance";
     private static final String CONFIG_KEY_CHECK_PARAMETER_VALIDITY_RANGES = "checkParameterValidityRanges";
     private static final String CONFIG_KEY_SUBSCRIBE_CONTAINER_ARCHPART = "subscribeContainerArchivePartitions";
+    private static final String CONFIG_KEY_LAST_VALUE_CACHE = "lastValueCache";
 
     boolean checkParameterAlarms = true;
     boolean parameterAlarmServerEnabled = false;
@@ -53,6 +54,12 @@ public class ProcessorConfig {
      */
     boolean allowContainerlessCommands = false;
 
+    /**
+     * If this is set to true, the last value cache stores the parameter values outside the java heap.
+     */
+    boolean offHeapLastValueCache = false;
+    int lastValueCacheSlotSize = 256;
+
     final ContainerProcessingOptions containerProcOptions;
     final ParameterCacheConfig parameterCacheConfig;
     static Log log = new Log(ProcessorConfig.class);
@@ -88,6 +95,8 @@ public class ProcessorConfig {
                     checkParameterValidityRanges = config.getBoolean(key);
                 } else if (CONFIG_KEY_SUBSCRIBE_CONTAINER_ARCHPART.equals(key)) {
                     subscribeContainerArchivePartitions = config.getBoolean(key);
+                } else if (CONFIG_KEY_LAST_VALUE_CACHE.equals(key)) {
+                    parseLastValueCacheConfig(config.getConfig(key));
                 } else {
                     log.warn("Ignoring unknown config key '{}'", key);
                 }
@@ -130,6 +139,14 @@ public class ProcessorConfig {
         eventAlarmMinViolations = alarmConfig.getInt("eventAlarmMinViolations", eventAlarmMinViolations);
     }
 
+    private void parseLastValueCacheConfig(YConfiguration lvcConfig) {
+        offHeapLastValueCache = lvcConfig.getBoolean("offHeap", offHeapLastValueCache);
+        lastValueCacheSlotSize = lvcConfig.getInt("slotSize", lastValueCacheSlotSize);
+        if (lastValueCacheSlotSize < 8 || lastValueCacheSlotSize > 0xFFFF) {
+            throw new ConfigurationException("The lastValueCache slotSize has to be between 8 and 65535 bytes");
+        }
+    }
+
     public int getMaxCommandSize() {
         return maxTcSize;
     }
@@ -166,6 +183,22 @@ public class ProcessorConfig {
         this.subscribeContainerArchivePartitions = b;
     }
 
+    public boolean useOffHeapLastValueCache() {
+        return offHeapLastValueCache;
+    }
+
+    public void setOffHeapLastValueCache(boolean offHeapLastValueCache) {
+        this.offHeapLastValueCache = offHeapLastValueCache;
+    }
+
+    public int getLastValueCacheSlotSize() {
+        return lastValueCacheSlotSize;
+    }
+
+    public void setLastValueCacheSlotSize(int slotSize) {
+        this.lastValueCacheSlotSize = slotSize;
+    }
+
     @Override
     public String toString() {
         return "ProcessorConfig [checkParameterAlarms=" + checkParameterAlarms + ", parameterAlarmServerEnabled="
@@ -173,6 +206,7 @@ public class ProcessorConfig {
                 + maxTcSize + ", recordInitialValues=" + recordInitialValues + ", recordLocalValues="
                 + recordLocalValues + ", eventAlarmMinViolations=" + eventAlarmMinViolations + ", subscribeAll="
                 + subscribeAll + ", generateEvents=" + generateEvents + ", containerProcOptions=" + containerProcOptions
-                + ", parameterCacheConfig=" + parameterCacheConfig + "]";
+                + ", parameterCacheConfig=" + parameterCacheConfig + ", offHeapLastValueCache=" + offHeapLastValueCache
+                + ", lastValueCacheSlotSize=" + lastValueCacheSlotSize + "]";
     }
 }
@@ -12,6 +12,7 @@ import org.slf4j.LoggerFactory;
 import org.yamcs.xtce.SequenceContainer;
 import org.yamcs.xtce.XtceDb;
 import org.yamcs.xtceproc.XtceDbFactory;
+import org.yamcs.yarch.AsyncSubscriber;
 
 /**
  * Stores the value of the streamConfiguration parameter from yamcs.instance.yaml Used to create the streams at Yamcs
@@ -132,6 +133,9 @@ public class StreamConfig {
         } else {
             entry = new StreamConfigEntry(type, streamName, processor);
         }
+        if (streamConf.containsKey("asyncDispatch")) {
+            entry.asyncDispatch = AsyncSubscriber.Config.fromConfig(streamConf.getConfig("asyncDispatch"));
+        }
         entries.add(entry);
     }
 
@@ -192,6 +196,11 @@ public class StreamConfig {
          */
         String processor;
 
+        /**
+         * if not null, the subscribers of the stream receive the tuples from their own thread
+         */
+        AsyncSubscriber.Config asyncDispatch;
+
         public StreamConfigEntry(StandardStreamType type, String name, String processor) {
             super();
             this.type = type;
@@ -221,6 +230,14 @@ public class StreamConfig {
         public String getProcessor() {
             return processor;
         }
+
+        /**
+         * Return the configuration of the asynchronous dispatching of tuples to the stream subscribers or null if the
+         * tuples are dispatched synchronously
+         */
+        public AsyncSubscriber.Config getAsyncDispatch() {
+            return asyncDispatch;
+        }
     }
 
     public TmStreamConfigEntry getTmEntry(String streamName) {
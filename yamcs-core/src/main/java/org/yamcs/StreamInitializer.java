@@ -74,6 +74,9 @@ public class StreamInitializer {
             } else {
                 throw new IllegalArgumentException("Unknown stream type " + sce.type);
             }
+            if (sce.getAsyncDispatch() != null) {
+                ydb.getStream(sce.name).setAsyncDispatch(sce.getAsyncDispatch());
+            }
         }
     }
 
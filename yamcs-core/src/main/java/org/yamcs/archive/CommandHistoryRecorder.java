@@ -1,5 +1,6 @@
 package org.yamcs.archive;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -11,6 +12,7 @@ import org.yamcs.StreamConfig;
 import org.yamcs.Spec.OptionType;
 import org.yamcs.StreamConfig.StandardStreamType;
 import org.yamcs.yarch.Stream;
+import org.yamcs.yarch.TableDefinition;
 import org.yamcs.yarch.TupleDefinition;
 import org.yamcs.yarch.YarchDatabase;
 import org.yamcs.yarch.YarchDatabaseInstance;
@@ -43,10 +45,13 @@ public class CommandHistoryRecorder extends AbstractYamcsService {
 
         String keycols = StandardTupleDefinitions.TC.getStringDefinition1();
         try {
-            if (ydb.getTable(TABLE_NAME) == null) {
+            TableDefinition tblDef = ydb.getTable(TABLE_NAME);
+            if (tblDef == null) {
                 String q = "create table "+TABLE_NAME+" (" + keycols
-                        + ", PRIMARY KEY(gentime, origin, seqNum)) histogram(cmdName) table_format=compressed";
+                        + ", PRIMARY KEY(gentime, origin, seqNum), INDEX(cmdName)) histogram(cmdName) table_format=compressed";
                 ydb.execute(q);
+            } else if (!tblDef.hasSecondaryIndex()) { // table created by an older version
+                ydb.createSecondaryIndex(TABLE_NAME, Arrays.asList("cmdName"));
             }
             if (config.containsKey("streams")) {
                 streamNames = config.getList("streams");
@@ -1,5 +1,6 @@
 package org.yamcs.archive;
 
+import java.util.Arrays;
 import java.util.stream.Collectors;
 
 import org.yamcs.AbstractYamcsService;
@@ -8,6 +9,7 @@ import org.yamcs.StreamConfig;
 import org.yamcs.StreamConfig.StreamConfigEntry;
 import org.yamcs.YConfiguration;
 import org.yamcs.utils.parser.ParseException;
+import org.yamcs.yarch.TableDefinition;
 import org.yamcs.yarch.YarchDatabase;
 import org.yamcs.yarch.YarchDatabaseInstance;
 import org.yamcs.yarch.protobuf.Db.Event;
@@ -31,10 +33,13 @@ public class EventRecorder extends AbstractYamcsService {
         YarchDatabaseInstance ydb = YarchDatabase.getInstance(yamcsInstance);
 
         try {
-            if (ydb.getTable(TABLE_NAME) == null) {
+            TableDefinition tblDef = ydb.getTable(TABLE_NAME);
+            if (tblDef == null) {
                 ydb.execute("create table " + TABLE_NAME
-                        + "(gentime timestamp, source enum, seqNum int, body PROTOBUF('"+Event.class.getName()+"'), primary key(gentime, source, seqNum)) histogram(source)"
+                        + "(gentime timestamp, source enum, seqNum int, body PROTOBUF('"+Event.class.getName()+"'), primary key(gentime, source, seqNum), index(source)) histogram(source)"
                         + " table_format=compressed");
+            } else if (!tblDef.hasSecondaryIndex()) { // table created by an older version
+                ydb.createSecondaryIndex(TABLE_NAME, Arrays.asList("source"));
             }
 
             StreamConfig sc = StreamConfig.getInstance(yamcsInstance);
@@ -3,6 +3,9 @@ package org.yamcs.cfdp;
 import static org.yamcs.cfdp.CfdpService.*;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -62,7 +65,7 @@ public class CfdpIncomingTransfer extends OngoingCfdpTransfer {
     private Bucket incomingBucket = null;
     private String objectName;
 
-    private DataFile incomingDataFile;
+    private MappedDataFile incomingDataFile;
     MetadataPacket metadataPacket;
     EofPacket eofPacket;
     final Timer finTimer;
@@ -150,7 +153,10 @@ public class CfdpIncomingTransfer extends OngoingCfdpTransfer {
                 hdr.getSequenceNumber());
 
         needsFinish = acknowledged;
-        incomingDataFile = new DataFile(-1);
+        Path reassemblyDir = config.containsKey("reassemblyDirectory")
+                ? Paths.get(config.getString("reassemblyDirectory"))
+                : null;
+        incomingDataFile = new MappedDataFile(reassemblyDir, -1);
     }
 
     @Override
@@ -211,6 +217,7 @@ public class CfdpIncomingTransfer extends OngoingCfdpTransfer {
     }
 
     private void doProcessPacket(CfdpPacket packet) {
+        pdusReceived++;
         if (log.isDebugEnabled()) {
             log.debug("TXID{} received PDU: {}", cfdpTransactionId, packet);
             log.trace("{}", StringConverter.arrayToHexString(packet.toByteArray(), true));
@@ -339,16 +346,24 @@ public class CfdpIncomingTransfer extends OngoingCfdpTransfer {
                 log.warn("TXID{} received data file whose end offset {} is larger than the file size {}",
                         cfdpTransactionId, dfs.getEndOffset(), fileSize);
                 handleFault(ConditionCode.FILE_SIZE_ERROR);
+                return;
             }
         } else {
             if (dfs.getEndOffset() > maxFileSize) {
                 log.warn("TXID{} received data file whose end offset {} is larger than the maximum file size {}",
                         cfdpTransactionId, dfs.getEndOffset(), maxFileSize);
                 handleFault(ConditionCode.FILESTORE_REJECTION);
+                return;
             }
         }
 
-        incomingDataFile.addSegment(dfs);
+        try {
+            incomingDataFile.addSegment(dfs);
+        } catch (IOException e) {
+            log.error("TXID{} cannot store the received data", cfdpTransactionId, e);
+            handleFault(ConditionCode.FILESTORE_REJECTION);
+            return;
+        }
         monitor.stateChanged(this);
         checkFileComplete();
     }
@@ -358,12 +373,13 @@ public class CfdpIncomingTransfer extends OngoingCfdpTransfer {
         long expectedChecksum = eofPacket.getFileChecksum();
         if (expectedChecksum == incomingDataFile.getChecksum()) {
             log.info("TXID{} file completed, checksum OK", cfdpTransactionId);
+            // save the file before completing the transfer because complete() removes the temporary file
+            saveFileInBucket(false, Collections.emptyList());
             if (needsFinish) {
                 finish(ConditionCode.NO_ERROR);
             } else {
                 complete(ConditionCode.NO_ERROR);
             }
-            saveFileInBucket(false, Collections.emptyList());
             sendInfoEvent(ETYPE_TRANSFER_FINISHED,
                     " downlink finished and saved in " + incomingBucket.getName() + "/" + getObjectName());
         } else {
@@ -419,6 +435,11 @@ public class CfdpIncomingTransfer extends OngoingCfdpTransfer {
         if (!acknowledged) {
             checkTimer.cancel();
         }
+        try {
+            incomingDataFile.close();
+        } catch (IOException e) {
+            log.warn("TXID{} failed to remove the temporary file", cfdpTransactionId, e);
+        }
 
         if (conditionCode == ConditionCode.NO_ERROR) {
             changeState(TransferState.COMPLETED);
@@ -534,7 +555,9 @@ public class CfdpIncomingTransfer extends OngoingCfdpTransfer {
                 metadata.put("checksumError", "true");
             }
             objectName = getFileName(objectName);
-            incomingBucket.putObject(objectName, null, metadata, incomingDataFile.getData());
+            try (InputStream in = incomingDataFile.getInputStream()) {
+                incomingBucket.putObject(objectName, null, metadata, in);
+            }
         } catch (IOException e) {
             throw new RuntimeException("cannot save incoming file in bucket " + incomingBucket.getName(), e);
         }
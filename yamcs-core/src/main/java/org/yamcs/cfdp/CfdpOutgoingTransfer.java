@@ -2,16 +2,17 @@ package org.yamcs.cfdp;
 
 import static org.yamcs.cfdp.CfdpService.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
 
 import org.yamcs.YConfiguration;
 import org.yamcs.cfdp.pdu.AckPacket;
@@ -37,6 +38,9 @@ import org.yamcs.protobuf.TransferDirection;
 import org.yamcs.protobuf.TransferState;
 import org.yamcs.utils.StringConverter;
 import org.yamcs.yarch.Stream;
+import org.yamcs.yarch.rocksdb.protobuf.Tablespace.ObjectProperties;
+
+import com.google.common.io.ByteStreams;
 
 public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
 
@@ -63,6 +67,8 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
         COMPLETED,
     }
 
+    static final long PROGRESS_UPDATE_MILLIS = 500;
+
     private final boolean withCrc = false; // no CRCs are used
     private final CfdpHeader directiveHeader, dataHeader;
     private final Timer eofTimer;
@@ -71,8 +77,19 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
     private final int maxDataSize;
     private final int sleepBetweenPdus;
     private final boolean closureRequested;
-    private final List<FileDataPacket> sentFileDataPackets = new ArrayList<>();
-    private Queue<FileDataPacket> toResend;
+    private Deque<SegmentRequest> toResend;
+    // limits the data rate towards the destination entity, if enabled
+    private final TokenBucket rateLimiter;
+    // reads the file sequentially for the first transmission of the data
+    private InputStream dataStream;
+    // properties of the object when the transfer started, to verify that it has not been replaced before resending
+    private ObjectProperties objectProperties;
+    // reads the data to be resent for the last NAK received, from the start of the first segment onwards
+    private InputStream resendStream;
+    private long resendStreamPosition;
+    // checksum of the data sent in the first transmission
+    private long checksum;
+    private long lastProgressUpdate;
 
     private OutTxState outTxState;
     private long transferred;
@@ -97,11 +114,12 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
 
     public CfdpOutgoingTransfer(String yamcsInstance, long id, long creationTime, ScheduledThreadPoolExecutor executor, PutRequest request,
             Stream cfdpOut, YConfiguration config, EventProducer eventProducer, TransferMonitor monitor,
-            Map<ConditionCode, FaultHandlingAction> faultHandlerActions) {
+            Map<ConditionCode, FaultHandlingAction> faultHandlerActions, TokenBucket rateLimiter) {
         super(yamcsInstance, id, creationTime, executor, config, makeTransactionId(request.getSourceId(), config, id),
                 request.getDestinationId(), cfdpOut,
                 eventProducer, monitor, faultHandlerActions);
         this.request = request;
+        this.rateLimiter = rateLimiter;
         entityIdLength = config.getInt("entityIdLength");
         seqNrSize = config.getInt("sequenceNrLength");
         int maxPduSize = config.getInt("maxPduSize", 512);
@@ -149,53 +167,130 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
     }
 
     public void start() {
-        pduSendingSchedule = executor.scheduleAtFixedRate(() -> sendPDU(), 0, sleepBetweenPdus, TimeUnit.MILLISECONDS);
+        scheduleSending(0);
     }
 
-    private void sendPDU() {
-        if (suspended) {
-            return;
+    private void scheduleSending(long delayNanos) {
+        pduSendingSchedule = executor.schedule(() -> sendPDUs(), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sends PDUs and schedules the next call.
+     * <p>
+     * If the rate limiter of the destination entity is enabled, the PDUs are sent as long as the limiter allows it;
+     * otherwise one PDU is sent every sleepBetweenPdus milliseconds.
+     */
+    private void sendPDUs() {
+        long sleepNanos = TimeUnit.MILLISECONDS.toNanos(sleepBetweenPdus);
+        while (!suspended && isSending()) {
+            if (rateLimiter == null || !rateLimiter.isEnabled()) {
+                sendPDU();
+                if (isSending()) {
+                    scheduleSending(sleepNanos);
+                }
+                return;
+            }
+            long waitNanos = rateLimiter.getWaitNanos();
+            if (waitNanos > 0) {
+                scheduleSending(waitNanos);
+                return;
+            }
+            int size = sendPDU();
+            if (size == 0) {
+                // nothing to send, waiting for the remote peer
+                scheduleSending(sleepNanos);
+                return;
+            }
+            rateLimiter.consume(size);
+        }
+        if (outTxState == OutTxState.COMPLETED) {
+            cancelInactivityTimer();
         }
+    }
 
-        switch (outTxState) {
-        case START:
-            metadata = getMetadataPacket();
-            sendInfoEvent(ETYPE_TRANSFER_META, "Sending metadata: "+toEventMsg(metadata));
-            sendPacket(metadata);
-            this.outTxState = OutTxState.SENDING_DATA;
-            offset = 0; // first file data packet starts at the start of the data
-            end = Math.min(maxDataSize, request.getFileLength());
-            monitor.stateChanged(this);
-            break;
-        case SENDING_DATA:
-            if (resendMetadata) {
+    private boolean isSending() {
+        return outTxState == OutTxState.START || outTxState == OutTxState.SENDING_DATA;
+    }
+
+    /**
+     * Sends the next PDU, if there is something to send.
+     *
+     * @return the size of the PDU sent or 0 if nothing has been sent
+     */
+    private int sendPDU() {
+        CfdpPacket packet = null;
+        try {
+            switch (outTxState) {
+            case START:
+                objectProperties = request.getBucket().findObject(request.getObjectName());
+                if (objectProperties == null) {
+                    throw new IOException("Object " + request.getObjectName() + " not found");
+                }
+                if (objectProperties.getSize() != request.getFileLength()) {
+                    throw new IOException("Object " + request.getObjectName() + " has been modified");
+                }
+                dataStream = request.getBucket().getObjectStream(request.getObjectName());
+                if (dataStream == null) {
+                    throw new IOException("Object " + request.getObjectName() + " not found");
+                }
+                metadata = getMetadataPacket();
+                sendInfoEvent(ETYPE_TRANSFER_META, "Sending metadata: " + toEventMsg(metadata));
+                packet = metadata;
                 sendPacket(metadata);
-                resendMetadata = false;
-            } else {
-                if (offset == request.getFileLength()) {
-                    if (toResend != null && !toResend.isEmpty()) {
-                        FileDataPacket fdp = toResend.poll();
-                        sendPacket(fdp);
-                    } else if (!eofSent) {
-                        sendEof(ConditionCode.NO_ERROR);
-                    }
+                this.outTxState = OutTxState.SENDING_DATA;
+                offset = 0; // first file data packet starts at the start of the data
+                end = Math.min(maxDataSize, request.getFileLength());
+                monitor.stateChanged(this);
+                break;
+            case SENDING_DATA:
+                if (resendMetadata) {
+                    packet = metadata;
+                    sendPacket(metadata);
+                    resendMetadata = false;
                 } else {
-                    end = Math.min(offset + maxDataSize, request.getFileLength());
-                    FileDataPacket nextPacket = getNextFileDataPacket();
-                    sentFileDataPackets.add(nextPacket);
-                    sendPacket(nextPacket);
-                    transferred += (end - offset);
-                    offset = end;
+                    if (offset == request.getFileLength()) {
+                        if (toResend != null && !toResend.isEmpty()) {
+                            if (resendStream == null && isObjectModified()) {
+                                sendWarnEvent(ETYPE_TRANSFER_FINISHED, "Object " + request.getObjectName()
+                                        + " has been modified, the requested data cannot be resent");
+                                cancel(ConditionCode.FILESTORE_REJECTION);
+                                packet = eofPacket;
+                                break;
+                            }
+                            packet = getResendFileDataPacket();
+                            sendPacket(packet);
+                        } else if (!eofSent) {
+                            sendEof(ConditionCode.NO_ERROR);
+                            packet = eofPacket;
+                        }
+                    } else {
+                        end = Math.min(offset + maxDataSize, request.getFileLength());
+                        packet = getNextFileDataPacket();
+                        sendPacket(packet);
+                        transferred += (end - offset);
+                        offset = end;
+                    }
                 }
+                updateProgress();
+                break;
+            default:
+                break;
             }
+        } catch (IOException e) {
+            log.warn("TXID{} cannot read the data of {}: {}", cfdpTransactionId, request.getObjectName(),
+                    e.toString());
+            complete(ConditionCode.FILESTORE_REJECTION);
+            return 0;
+        }
+        return packet == null ? 0 : packet.getHeader().getLength() + packet.getDataFieldLength();
+    }
+
+    // the progress is notified at most every PROGRESS_UPDATE_MILLIS, the state changes are notified immediately
+    private void updateProgress() {
+        long now = System.currentTimeMillis();
+        if (now - lastProgressUpdate >= PROGRESS_UPDATE_MILLIS) {
+            lastProgressUpdate = now;
             monitor.stateChanged(this);
-            break;
-        case COMPLETED:
-            pduSendingSchedule.cancel(true);
-            cancelInactivityTimer();
-            break;
-        default:
-            throw new IllegalStateException("unknown/illegal state");
         }
     }
 
@@ -227,6 +322,7 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
     }
 
     private void doProcessPacket(CfdpPacket packet) {
+        pdusReceived++;
         if (log.isDebugEnabled()) {
             log.debug("TXID{} received PDU: {}", cfdpTransactionId, packet);
             log.trace("{}", StringConverter.arrayToHexString(packet.toByteArray(), true));
@@ -243,14 +339,20 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
         } else if (packet instanceof FinishedPacket) {
             processFinishedPacket((FinishedPacket) packet);
         } else if (packet instanceof NakPacket) {
-            toResend = new LinkedList<>();
-            for (SegmentRequest segment : ((NakPacket) packet).getSegmentRequests()) {
+            // the data of each NAK is read with one stream, in the order of the file
+            closeResendStream();
+            List<SegmentRequest> segments = new ArrayList<>(((NakPacket) packet).getSegmentRequests());
+            segments.sort(Comparator.comparingLong(SegmentRequest::getSegmentStart));
+            toResend = new ArrayDeque<>();
+            for (SegmentRequest segment : segments) {
                 if (segment.isMetadata()) {
                     resendMetadata = true;
                 } else {
-                    toResend.addAll(sentFileDataPackets.stream()
-                            .filter(x -> segment.isInRange(x.getOffset()))
-                            .collect(Collectors.toList()));
+                    // the data not yet sent will be sent anyway
+                    long segEnd = Math.min(segment.getSegmentEnd(), offset);
+                    if (segment.getSegmentStart() < segEnd) {
+                        toResend.add(new SegmentRequest(segment.getSegmentStart(), segEnd));
+                    }
                 }
             }
         } else {
@@ -318,7 +420,9 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
         log.info("TXID{} suspending transfer", cfdpTransactionId);
 
         eofTimer.cancel();
-        pduSendingSchedule.cancel(true);
+        if (pduSendingSchedule != null) {
+            pduSendingSchedule.cancel(false);
+        }
         cancelInactivityTimer();
 
         suspended = true;
@@ -338,7 +442,8 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
         }
         log.info("TXID{} resuming transfer", cfdpTransactionId);
         sendInfoEvent(ETYPE_TRANSFER_RESUMED, "transfer resumed");
-        pduSendingSchedule = executor.scheduleAtFixedRate(() -> sendPDU(), 0, sleepBetweenPdus, TimeUnit.MILLISECONDS);
+        suspended = false;
+        scheduleSending(0);
         if (expectingAck()) {
             sendEof();
         }
@@ -347,7 +452,6 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
         }
 
         changeState(TransferState.RUNNING);
-        suspended = false;
     }
 
     private boolean expectingAck() {
@@ -366,6 +470,8 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
             return;
         }
         outTxState = OutTxState.COMPLETED;
+        closeDataStream();
+        closeResendStream();
 
         long duration = (System.currentTimeMillis() - wallclockStartTime) / 1000;
 
@@ -381,10 +487,42 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
                     "transfer finished with error in " + duration + " seconds: "
                             + request.getObjectName()
                             + " -> "
-                            + request.getTargetPath() + " error: " + finishedPacket.getConditionCode());
+                            + request.getTargetPath() + " error: " + conditionCode);
+        }
+    }
+
+    private void closeDataStream() {
+        if (dataStream != null) {
+            try {
+                dataStream.close();
+            } catch (IOException e) {
+                log.warn("TXID{} error closing the data stream", cfdpTransactionId, e);
+            }
+            dataStream = null;
         }
     }
 
+    private void closeResendStream() {
+        if (resendStream != null) {
+            try {
+                resendStream.close();
+            } catch (IOException e) {
+                log.warn("TXID{} error closing the resend stream", cfdpTransactionId, e);
+            }
+            resendStream = null;
+        }
+    }
+
+    /**
+     * The data is resent from the bucket; the object must be the same as the one whose data has been sent the first
+     * time, otherwise the receiver would assemble a file mixing the two.
+     */
+    private boolean isObjectModified() throws IOException {
+        ObjectProperties props = request.getBucket().findObject(request.getObjectName());
+        return props == null || props.getSize() != objectProperties.getSize()
+                || props.getCreated() != objectProperties.getCreated();
+    }
+
     @Override
     protected void cancel(ConditionCode conditionCode) {
         switch (outTxState) {
@@ -393,6 +531,8 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
             reasonForCancellation = conditionCode;
             suspended = false; // wake up if sleeping
             outTxState = OutTxState.CANCELING;
+            closeDataStream();
+            closeResendStream();
 			changeState(TransferState.CANCELLING);
             sendEof(conditionCode);
             break;
@@ -455,17 +595,16 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
         long filesize;
         TLV tlv;
 
+        // the checksum is computed on the data sent for the first time, which is the whole file if no error
         if (code == ConditionCode.NO_ERROR) {
-            checksum = request.getChecksum();
+            checksum = this.checksum;
             filesize = request.getFileLength();
             tlv = null;
-        } else if (code == ConditionCode.CANCEL_REQUEST_RECEIVED) {
+        } else {
+            // cancelled, either on request or because of a fault detected by this entity
             filesize = getTransferredSize();
-            checksum = ChecksumCalculator.calculateChecksum(request.getFileData(), 0l, filesize);
+            checksum = this.checksum;
             tlv = TLV.getEntityIdTLV(cfdpTransactionId.getInitiatorEntity(), entityIdLength);
-        } else {
-            throw new java.lang.UnsupportedOperationException(
-                    "CFDP ConditionCode " + code + " not supported for EOF packets");
         }
 
         return new EofPacket(code, checksum, filesize, tlv, directiveHeader);
@@ -484,12 +623,36 @@ public class CfdpOutgoingTransfer extends OngoingCfdpTransfer {
                 directiveHeader);
     }
 
-    private FileDataPacket getNextFileDataPacket() {
-        FileDataPacket filedata = new FileDataPacket(
-                Arrays.copyOfRange(request.getFileData(), (int) offset, (int) end),
-                offset,
-                dataHeader);
-        return filedata;
+    // reads the data between offset and end from the data stream
+    private FileDataPacket getNextFileDataPacket() throws IOException {
+        byte[] data = new byte[(int) (end - offset)];
+        ByteStreams.readFully(dataStream, data);
+        checksum = (checksum + ChecksumCalculator.calculateChecksum(data, offset, data.length)) & 0xFFFFFFFFL;
+        return new FileDataPacket(data, offset, dataHeader);
+    }
+
+    // reads the next piece of the first segment to be resent, skipping the data between the segments
+    private FileDataPacket getResendFileDataPacket() throws IOException {
+        SegmentRequest segment = toResend.poll();
+        long start = segment.getSegmentStart();
+        int length = (int) Math.min(maxDataSize, segment.getSegmentEnd() - start);
+        if (start + length < segment.getSegmentEnd()) {
+            toResend.addFirst(new SegmentRequest(start + length, segment.getSegmentEnd()));
+        }
+        if (resendStream == null || start < resendStreamPosition) {
+            closeResendStream();
+            resendStream = request.getBucket().getObjectStream(request.getObjectName(), start,
+                    request.getFileLength() - start);
+            if (resendStream == null) {
+                throw new IOException("Object " + request.getObjectName() + " not found");
+            }
+            resendStreamPosition = start;
+        }
+        ByteStreams.skipFully(resendStream, start - resendStreamPosition);
+        byte[] data = new byte[length];
+        ByteStreams.readFully(resendStream, data);
+        resendStreamPosition = start + length;
+        return new FileDataPacket(data, start, dataHeader);
     }
 
     private AckPacket getAckPacket(ConditionCode code) {
@@ -3,6 +3,9 @@ package org.yamcs.cfdp;
 import static org.yamcs.cfdp.CompletedTransfer.TDEF;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -54,10 +57,12 @@ import org.yamcs.yarch.StreamSubscriber;
 import org.yamcs.yarch.Tuple;
 import org.yamcs.yarch.YarchDatabase;
 import org.yamcs.yarch.YarchDatabaseInstance;
+import org.yamcs.yarch.rocksdb.protobuf.Tablespace.ObjectProperties;
 import org.yamcs.yarch.streamsql.StreamSqlException;
 import org.yamcs.yarch.streamsql.StreamSqlResult;
 
 import com.google.common.collect.Streams;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * Implements CCSDS File Delivery Protocol (CFDP) in Yamcs.
@@ -88,7 +93,10 @@ public class CfdpService extends AbstractYamcsService
     Map<CfdpTransactionId, OngoingCfdpTransfer> pendingTransfers = new ConcurrentHashMap<>();
     Queue<QueuedCfdpTransfer> queuedTransfers = new ConcurrentLinkedQueue<>();
 
-    ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+    // used for the service tasks (starting queued transfers, removing finished ones, recording)
+    ScheduledThreadPoolExecutor executor;
+    // each transaction is assigned to one of these single thread executors such that its processing is serialized
+    ScheduledThreadPoolExecutor[] transferExecutors;
     Map<ConditionCode, FaultHandlingAction> receiverFaultHandlers;
     Map<ConditionCode, FaultHandlingAction> senderFaultHandlers;
     Stream cfdpIn;
@@ -136,6 +144,7 @@ public class CfdpService extends AbstractYamcsService
         entitySpec.addOption("name", OptionType.STRING);
         entitySpec.addOption("id", OptionType.INTEGER);
         entitySpec.addOption("bucket", OptionType.STRING).withDefault(null);
+        entitySpec.addOption("uplinkRate", OptionType.FLOAT);
 
         Spec spec = new Spec();
         spec.addOption("inStream", OptionType.STRING).withDefault("cfdp_in");
@@ -168,6 +177,8 @@ public class CfdpService extends AbstractYamcsService
         spec.addOption("maxNumPendingDownloads", OptionType.INTEGER).withDefault(100);
         spec.addOption("maxNumPendingUploads", OptionType.INTEGER).withDefault(10);
         spec.addOption("inactivityTimeout", OptionType.INTEGER).withDefault(10000);
+        spec.addOption("reassemblyDirectory", OptionType.STRING);
+        spec.addOption("numThreads", OptionType.INTEGER);
 
         return spec;
     }
@@ -199,6 +210,26 @@ public class CfdpService extends AbstractYamcsService
         queueConcurrentUploads = config.getBoolean("queueConcurrentUploads");
         allowConcurrentFileOverwrites = config.getBoolean("allowConcurrentFileOverwrites");
         directoryTerminators = config.getList("directoryTerminators");
+        if (config.containsKey("reassemblyDirectory")) {
+            Path reassemblyDir = Paths.get(config.getString("reassemblyDirectory"));
+            try {
+                Files.createDirectories(reassemblyDir);
+            } catch (IOException e) {
+                throw new InitException("Cannot create the reassembly directory " + reassemblyDir, e);
+            }
+        }
+
+        int numThreads = config.getInt("numThreads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        if (numThreads < 1) {
+            throw new ConfigurationException("numThreads has to be at least 1");
+        }
+        executor = new ScheduledThreadPoolExecutor(1,
+                new ThreadFactoryBuilder().setNameFormat("CfdpService-" + yamcsInstance).build());
+        transferExecutors = new ScheduledThreadPoolExecutor[numThreads];
+        for (int i = 0; i < numThreads; i++) {
+            transferExecutors[i] = new ScheduledThreadPoolExecutor(1,
+                    new ThreadFactoryBuilder().setNameFormat("CfdpService-" + yamcsInstance + "-" + i).build());
+        }
 
         initSrcDst(config);
         eventProducer = EventProducerFactory.getEventProducer(yamcsInstance, "CfdpService", 10000);
@@ -271,6 +302,9 @@ public class CfdpService extends AbstractYamcsService
                     bucket = getBucket(c.getString("bucket"), c.getBoolean("global", true));
                 }
                 EntityConf ent = new EntityConf(id, name, bucket);
+                if (c.containsKey("uplinkRate")) {
+                    ent.uplinkRateLimiter.setRate(c.getDouble("uplinkRate"));
+                }
                 remoteEntities.put(name, ent);
             }
         }
@@ -373,11 +407,26 @@ public class CfdpService extends AbstractYamcsService
         return r;
     }
 
+    /**
+     * Returns the executor used by the transaction with the given (unique) id.
+     */
+    private ScheduledThreadPoolExecutor getTransferExecutor(long id) {
+        return transferExecutors[(int) Long.remainderUnsigned(id, transferExecutors.length)];
+    }
+
+    private void saveTransferTuple(Tuple t) {
+        synchronized (dbStream) {
+            dbStream.emitTuple(t);
+        }
+    }
+
     private CfdpFileTransfer processPutRequest(long id, long creationTime, PutRequest request) {
-        CfdpOutgoingTransfer transfer = new CfdpOutgoingTransfer(yamcsInstance, id, creationTime, executor, request,
-                cfdpOut, config, eventProducer, this, senderFaultHandlers);
+        EntityConf remoteEntity = getRemoteEntity(request.getDestinationId());
+        CfdpOutgoingTransfer transfer = new CfdpOutgoingTransfer(yamcsInstance, id, creationTime,
+                getTransferExecutor(id), request, cfdpOut, config, eventProducer, this, senderFaultHandlers,
+                remoteEntity == null ? null : remoteEntity.uplinkRateLimiter);
 
-        dbStream.emitTuple(CompletedTransfer.toInitialTuple(transfer));
+        saveTransferTuple(CompletedTransfer.toInitialTuple(transfer));
 
         stateChanged(transfer);
         pendingTransfers.put(transfer.getTransactionId(), transfer);
@@ -390,7 +439,7 @@ public class CfdpService extends AbstractYamcsService
     }
 
     // called when queueConcurrentUploads = true, will start a queued transfer if no other transfer is running
-    private void tryStartQueuedTransfer() {
+    private synchronized void tryStartQueuedTransfer() {
         if (numPendingUploads() >= maxNumPendingUploads) {
             return;
         }
@@ -468,7 +517,7 @@ public class CfdpService extends AbstractYamcsService
             if (packet instanceof MetadataPacket) {
                 OngoingCfdpTransfer t1 = transfer;
                 executor.submit(() -> {
-                    dbStream.emitTuple(CompletedTransfer.toInitialTuple(t1));
+                    saveTransferTuple(CompletedTransfer.toInitialTuple(t1));
                 });
             }
         }
@@ -512,9 +561,11 @@ public class CfdpService extends AbstractYamcsService
                         : incomingBucket;
 
         long creationTime = YamcsServer.getTimeService(yamcsInstance).getMissionTime();
+        long id = idSeq.next();
 
-        OngoingCfdpTransfer transfer = new CfdpIncomingTransfer(yamcsInstance, idSeq.next(), creationTime, executor,
-                config, packet.getHeader(), cfdpOut, bucket, eventProducer, this, receiverFaultHandlers);
+        OngoingCfdpTransfer transfer = new CfdpIncomingTransfer(yamcsInstance, id, creationTime,
+                getTransferExecutor(id), config, packet.getHeader(), cfdpOut, bucket, eventProducer, this,
+                receiverFaultHandlers);
         return transfer;
     }
 
@@ -559,6 +610,9 @@ public class CfdpService extends AbstractYamcsService
             }
         }
         executor.shutdown();
+        for (ScheduledThreadPoolExecutor e : transferExecutors) {
+            e.shutdown();
+        }
         notifyStopped();
     }
 
@@ -573,7 +627,7 @@ public class CfdpService extends AbstractYamcsService
     @Override
     public void stateChanged(FileTransfer ft) {
         CfdpFileTransfer cfdpTransfer = (CfdpFileTransfer) ft;
-        dbStream.emitTuple(CompletedTransfer.toUpdateTuple(cfdpTransfer));
+        saveTransferTuple(CompletedTransfer.toUpdateTuple(cfdpTransfer));
         // Notify downstream listeners
         transferListeners.forEach(l -> l.stateChanged(cfdpTransfer));
 
@@ -600,22 +654,60 @@ public class CfdpService extends AbstractYamcsService
     @Override
     public List<EntityInfo> getRemoteEntities() {
         return remoteEntities.values().stream()
-                .map(c -> EntityInfo.newBuilder().setName(c.name).setId(c.id).build())
+                .map(c -> {
+                    EntityInfo.Builder eib = EntityInfo.newBuilder().setName(c.name).setId(c.id);
+                    if (c.uplinkRateLimiter.isEnabled()) {
+                        eib.setUplinkRate(c.uplinkRateLimiter.getRate());
+                    }
+                    return eib.build();
+                })
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Changes the maximum data rate of the uploads towards the given remote entity. The new rate applies also to the
+     * ongoing transfers.
+     *
+     * @param destination
+     *            - the name of the remote entity.
+     * @param rate
+     *            - maximum number of bytes per second; 0 or negative means that the transfers are not limited by a
+     *            rate but paced by the {@code sleepBetweenPdus} option.
+     */
+    @Override
+    public void setUplinkRate(String destination, double rate) {
+        EntityConf entity = remoteEntities.get(destination);
+        if (entity == null) {
+            throw new InvalidRequestException("Invalid destination '" + destination + "'");
+        }
+        log.info("Setting the uplink rate for {} to {} bytes/second", entity, rate);
+        entity.uplinkRateLimiter.setRate(rate);
+    }
+
     public OngoingCfdpTransfer getOngoingCfdpTransfer(long id) {
         return pendingTransfers.values().stream().filter(c -> c.getId() == id).findAny().orElse(null);
     }
 
     @Override
-    public synchronized CfdpFileTransfer startUpload(String source, Bucket bucket, String objectName,
+    public CfdpFileTransfer startUpload(String source, Bucket bucket, String objectName,
             String destination, final String destinationPath, TransferOptions options) throws IOException {
-        byte[] objData;
-        objData = bucket.getObject(objectName);
-        if (objData == null) {
+        // retrieve the object properties outside of the lock, the rest is quick
+        ObjectProperties objProps = bucket.findObject(objectName);
+        if (objProps == null) {
             throw new InvalidRequestException("No object named '" + objectName + "' in bucket " + bucket.getName());
         }
+        if (objProps.getSize() > 0xFFFFFFFFL) {
+            // the large file flag is not supported
+            throw new InvalidRequestException("Object '" + objectName + "' is too large to be sent");
+        }
+        synchronized (this) {
+            return startUpload(source, bucket, objectName, destination, destinationPath, options,
+                    objProps.getSize());
+        }
+    }
+
+    private CfdpFileTransfer startUpload(String source, Bucket bucket, String objectName,
+            String destination, final String destinationPath, TransferOptions options, long objSize) {
         String absoluteDestinationPath = getAbsoluteDestinationPath(destinationPath, objectName);
         if (!allowConcurrentFileOverwrites) {
             if (pendingTransfers.values().stream()
@@ -656,14 +748,14 @@ public class CfdpService extends AbstractYamcsService
 
         PutRequest request = new PutRequest(sourceId, destinationId, objectName, absoluteDestinationPath,
                 options.isOverwrite(), options.isReliable(), options.isClosureRequested(), options.isCreatePath(),
-                bucket, objData);
+                bucket, objSize);
         long creationTime = YamcsServer.getTimeService(yamcsInstance).getMissionTime();
 
         if (numPendingUploads() < maxNumPendingUploads) {
             return processPutRequest(idSeq.next(), creationTime, request);
         } else {
             QueuedCfdpTransfer transfer = new QueuedCfdpTransfer(idSeq.next(), creationTime, request);
-            dbStream.emitTuple(CompletedTransfer.toInitialTuple(transfer));
+            saveTransferTuple(CompletedTransfer.toInitialTuple(transfer));
             queuedTransfers.add(transfer);
             transferListeners.forEach(l -> l.stateChanged(transfer));
 
@@ -19,22 +19,40 @@ public class ChecksumCalculator {
      * 
      */
     static long calculateChecksum(byte[] data, long fileOffset, long length) {
-        int k = (int) (fileOffset & 3);
+        return calculateChecksum(data, 0, fileOffset, (int) length);
+    }
+
+    /**
+     * Same as {@link #calculateChecksum(byte[], long, long)} but for the length bytes starting at dataOffset in the
+     * data buffer.
+     */
+    static long calculateChecksum(byte[] data, int dataOffset, long fileOffset, int length) {
         long checksum = 0;
-        int i = 0;
-        long x = 0;
-        while (i < length) {
-            x = (x << 8) + (data[i] & 0xFF);
-            i++;
-            k++;
-            if (k == 4) {
-                checksum += x;
-                x = 0;
-                k = 0;
+        int i = dataOffset;
+        int end = dataOffset + length;
+
+        // bytes before the first 4 bytes boundary in the file
+        int k = (int) (fileOffset & 3);
+        if (k != 0) {
+            long x = 0;
+            for (; k < 4 && i < end; k++, i++) {
+                x |= (long) (data[i] & 0xFF) << ((3 - k) << 3);
             }
+            checksum += x;
+        }
+
+        // aligned words
+        int wordsEnd = i + ((end - i) & ~3);
+        for (; i < wordsEnd; i += 4) {
+            checksum += (((data[i] & 0xFF) << 24) | ((data[i + 1] & 0xFF) << 16) | ((data[i + 2] & 0xFF) << 8)
+                    | (data[i + 3] & 0xFF)) & 0xFFFFFFFFL;
         }
 
-        x = x << ((4 - k)<<3);
+        // remaining bytes padded with 0
+        long x = 0;
+        for (int shift = 24; i < end; i++, shift -= 8) {
+            x |= (long) (data[i] & 0xFF) << shift;
+        }
         checksum += x;
 
         return checksum & 0xFFFFFFFFl;
@@ -6,6 +6,8 @@ public class EntityConf {
     final long id;
     final Bucket bucket;
     final String name;
+    // limits the data rate of the uploads towards this entity (only used for remote entities)
+    final TokenBucket uplinkRateLimiter = new TokenBucket(0);
 
     public EntityConf(long id, String name, Bucket bucket) {
         this.id = id;
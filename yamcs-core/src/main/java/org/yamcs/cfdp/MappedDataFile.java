@@ -0,0 +1,258 @@
+package org.yamcs.cfdp;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.yamcs.cfdp.pdu.SegmentRequest;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Reassembles an incoming file in a temporary file, instead of keeping the received segments in memory as
+ * {@link DataFile} does.
+ * <p>
+ * The data is written in the temporary file at its offset as it arrives, such that the parts of the file not yet
+ * received do not take disk space (on file systems supporting sparse files). The file is not memory mapped; the only
+ * resource held is the file channel which is released by {@link #close()}.
+ * <p>
+ * The received ranges are kept in a sorted map of disjoint intervals; when a segment overlaps data already received,
+ * only the new parts are written. The checksum is computed on the new parts as they arrive, so it is available
+ * without reading back the file.
+ * <p>
+ * The temporary file is created with the first segment received and removed by {@link #close()}.
+ * <p>
+ * The class is not thread safe.
+ */
+public class MappedDataFile implements Closeable {
+    final Path dir;
+    private Path file;
+    private FileChannel channel;
+
+    // start offset -> end offset of the received data
+    private final TreeMap<Long, Long> received = new TreeMap<>();
+
+    // -1 means size unknown or unbounded
+    private long size = -1;
+    private long receivedSize = 0;
+    private long checksum = 0;
+    private boolean closed = false;
+
+    /**
+     *
+     * @param dir
+     *            - directory where the temporary file is created; if null, the default temporary-file directory is
+     *            used.
+     * @param size
+     *            - the size of the file or -1 if not known.
+     */
+    public MappedDataFile(Path dir, long size) {
+        this.dir = dir;
+        this.size = size;
+    }
+
+    public void addSegment(DataFileSegment segment) throws IOException {
+        addSegment(segment.getOffset(), segment.getData());
+    }
+
+    /**
+     * Stores the data received at the given offset in the file. The parts of the data which have already been received
+     * are ignored.
+     *
+     * @throws IllegalArgumentException
+     *             if the segment falls beyond the end of the file
+     * @throws IOException
+     *             if the data cannot be written to the temporary file
+     */
+    public void addSegment(long offset, byte[] data) throws IOException {
+        long end = offset + data.length;
+        if (size != -1 && end > size) {
+            throw new IllegalArgumentException("Segment falls beyond the end of the file");
+        }
+        if (data.length == 0) {
+            return;
+        }
+
+        long newStart = offset;
+        long newEnd = end;
+        long pos = offset;
+
+        Map.Entry<Long, Long> prev = received.floorEntry(offset);
+        if (prev != null && prev.getValue() >= offset) {
+            newStart = prev.getKey();
+            newEnd = Math.max(newEnd, prev.getValue());
+            pos = Math.max(pos, prev.getValue());
+        }
+        NavigableMap<Long, Long> overlapping = received.subMap(offset, false, end, true);
+        for (Map.Entry<Long, Long> me : overlapping.entrySet()) {
+            write(data, offset, pos, me.getKey());
+            pos = Math.max(pos, me.getValue());
+            newEnd = Math.max(newEnd, me.getValue());
+        }
+        write(data, offset, pos, end);
+
+        overlapping.clear();
+        received.put(newStart, newEnd);
+    }
+
+    // writes the data between the file offsets start and end (if end > start); dataOffset is the file offset of the
+    // data[0]
+    private void write(byte[] data, long dataOffset, long start, long end) throws IOException {
+        if (end <= start) {
+            return;
+        }
+        int from = (int) (start - dataOffset);
+        int length = (int) (end - start);
+        checksum = (checksum + ChecksumCalculator.calculateChecksum(data, from, start, length)) & 0xFFFFFFFFL;
+        receivedSize += length;
+
+        FileChannel fc = getChannel();
+        ByteBuffer buf = ByteBuffer.wrap(data, from, length);
+        long fileOffset = start;
+        while (buf.hasRemaining()) {
+            fileOffset += fc.write(buf, fileOffset);
+        }
+    }
+
+    private FileChannel getChannel() throws IOException {
+        if (closed) {
+            throw new IOException("File closed");
+        }
+        if (channel == null) {
+            file = dir == null ? Files.createTempFile("cfdp", ".tmp") : Files.createTempFile(dir, "cfdp", ".tmp");
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        return channel;
+    }
+
+    public List<SegmentRequest> getMissingChunks() {
+        return getMissingChunks(true);
+    }
+
+    /**
+     * Returns the missing data segments.
+     * <p>
+     * includeEnd = false is used when the file has been partially transfer to not return a segment covering the end of
+     * the file
+     *
+     * @param includeEnd
+     * @return
+     */
+    public List<SegmentRequest> getMissingChunks(boolean includeEnd) {
+        if (includeEnd && size < 0) {
+            throw new IllegalArgumentException("Size is not known, cannot pass includeEnd=true");
+        }
+        List<SegmentRequest> toReturn = new ArrayList<>();
+        long startOffset = 0;
+        for (Map.Entry<Long, Long> me : received.entrySet()) {
+            if (me.getKey() != startOffset) {
+                toReturn.add(new SegmentRequest(startOffset, me.getKey()));
+            }
+            startOffset = me.getValue();
+        }
+        if (startOffset != size && includeEnd) {
+            toReturn.add(new SegmentRequest(startOffset, size));
+        }
+        return toReturn;
+    }
+
+    /**
+     *
+     * @return the number of bytes received; the overlapping parts of the segments are counted only once.
+     */
+    public long getReceivedSize() {
+        return receivedSize;
+    }
+
+    /**
+     *
+     * @return true if all the data has been received. If size is not known return false.
+     */
+    public boolean isComplete() {
+        if (size < 0) {
+            return false;
+        }
+        return receivedSize == size;
+    }
+
+    /**
+     *
+     * @return the checksum of the data received so far
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * return end of the last segment or -1 if not known
+     *
+     * @return
+     */
+    public long endOfFileOffset() {
+        return received.isEmpty() ? -1 : received.lastEntry().getValue();
+    }
+
+    public void setSize(long size) {
+        long eof = endOfFileOffset();
+        if (size < 0 || size < eof) {
+            throw new IllegalArgumentException("Invalid size");
+        }
+        this.size = size;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns a stream reading the file from the beginning until the size (or the end of the last segment if the size
+     * is not known). The parts not received read as zeros.
+     * <p>
+     * The stream has to be closed before closing this object.
+     */
+    public InputStream getInputStream() throws IOException {
+        if (channel == null) {
+            return new ByteArrayInputStream(new byte[0]);
+        }
+        long length = size >= 0 ? size : endOfFileOffset();
+        if (channel.size() < length) {
+            // the end of the file has not been received, extend the file such that it reads as zeros
+            channel.write(ByteBuffer.allocate(1), length - 1);
+        }
+        FileChannel fc = FileChannel.open(file, StandardOpenOption.READ);
+        return ByteStreams.limit(Channels.newInputStream(fc), length);
+    }
+
+    /**
+     * Closes and removes the temporary file.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (channel != null) {
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MappedDataFile [size=" + size + ", receivedSize=" + receivedSize + ", segments=" + received.size()
+                + "]";
+    }
+}
@@ -20,6 +20,7 @@ import org.yamcs.logging.Log;
 import org.yamcs.protobuf.TransferState;
 import org.yamcs.utils.StringConverter;
 import org.yamcs.yarch.Stream;
+import org.yamcs.yarch.Tuple;
 
 public abstract class OngoingCfdpTransfer implements CfdpFileTransfer {
     protected final CfdpTransactionId cfdpTransactionId;
@@ -48,6 +49,11 @@ public abstract class OngoingCfdpTransfer implements CfdpFileTransfer {
     long lastAckSentTime;
     boolean logAckDrop = true;
 
+    // statistics; written only from the executor of the transaction
+    protected volatile long pdusSent;
+    protected volatile long pdusReceived;
+    protected volatile long wallclockEndTime;
+
     enum FaultHandlingAction {
         SUSPEND, CANCEL, ABANDON;
 
@@ -115,7 +121,12 @@ public abstract class OngoingCfdpTransfer implements CfdpFileTransfer {
             log.debug("TXID{} sending PDU: {}", cfdpTransactionId, packet);
             log.trace("{}", StringConverter.arrayToHexString(packet.toByteArray(), true));
         }
-        cfdpOut.emitTuple(packet.toTuple(this));
+        Tuple t = packet.toTuple(this);
+        // the transactions run on different threads and the subscribers of the stream are not necessarily thread safe
+        synchronized (cfdpOut) {
+            cfdpOut.emitTuple(t);
+        }
+        pdusSent++;
     }
 
     public final boolean isOngoing() {
@@ -201,6 +212,9 @@ public abstract class OngoingCfdpTransfer implements CfdpFileTransfer {
         if (state != TransferState.RUNNING) {
             cancelInactivityTimer();
         }
+        if (!isOngoing() && wallclockEndTime == 0) {
+            wallclockEndTime = System.currentTimeMillis();
+        }
         monitor.stateChanged(this);
     }
 
@@ -256,4 +270,39 @@ public abstract class OngoingCfdpTransfer implements CfdpFileTransfer {
     public long getCreationTime() {
         return creationTime;
     }
+
+    /**
+     * @return the number of PDUs sent for this transaction
+     */
+    public long getPdusSent() {
+        return pdusSent;
+    }
+
+    /**
+     * @return the number of PDUs received for this transaction
+     */
+    public long getPdusReceived() {
+        return pdusReceived;
+    }
+
+    /**
+     * @return the average number of bytes per second transferred since the start of the transaction until now or until
+     *         the transaction has finished
+     */
+    public double getThroughput() {
+        return getTransferredSize() / getElapsedSeconds();
+    }
+
+    /**
+     * @return the average number of PDUs per second sent and received since the start of the transaction until now or
+     *         until the transaction has finished
+     */
+    public double getPduRate() {
+        return (pdusSent + pdusReceived) / getElapsedSeconds();
+    }
+
+    private double getElapsedSeconds() {
+        long end = wallclockEndTime == 0 ? System.currentTimeMillis() : wallclockEndTime;
+        return Math.max(1, end - wallclockStartTime) / 1000.0;
+    }
 }
@@ -4,6 +4,8 @@ import org.yamcs.yarch.Bucket;
 
 /**
  * A Put.request is a primitive that requests data delivery from a source to a destination
+ * <p>
+ * The file data is not part of the request, it is read from the bucket while the file is sent.
  * 
  * @author ddw
  *
@@ -13,17 +15,16 @@ public class PutRequest extends CfdpRequest {
     private long sourceId;
     private long destinationId;
     private String targetPath;
-    private byte[] fileData;
+    private long fileLength;
     private String objectName;
     private Bucket bucket;
     private boolean overwrite;
     private boolean createpath;
-    private long checksum;
     private boolean acknowledged;
     private boolean closureRequested = false;
 
     public PutRequest(long sourceId, long destinationId, String objectName, String targetPath, boolean overwrite,
-            boolean acknowledged, boolean closureRequested, boolean createpath, Bucket b, byte[] data) {
+            boolean acknowledged, boolean closureRequested, boolean createpath, Bucket b, long fileLength) {
         super(CfdpRequestType.PUT);
         this.sourceId = sourceId;
         this.destinationId = destinationId;
@@ -32,10 +33,9 @@ public class PutRequest extends CfdpRequest {
         this.overwrite = overwrite;
         this.createpath = createpath;
         this.bucket = b;
-        this.fileData = data;
+        this.fileLength = fileLength;
         this.acknowledged = acknowledged;
         this.closureRequested = closureRequested;
-        this.checksum = ChecksumCalculator.calculateChecksum(data);
     }
 
     public long getSourceId() {
@@ -54,16 +54,8 @@ public class PutRequest extends CfdpRequest {
         return targetPath;
     }
 
-    public int getFileLength() {
-        return fileData.length;
-    }
-
-    public long getChecksum() {
-        return this.checksum;
-    }
-
-    public byte[] getFileData() {
-        return fileData;
+    public long getFileLength() {
+        return fileLength;
     }
 
     public Bucket getBucket() {
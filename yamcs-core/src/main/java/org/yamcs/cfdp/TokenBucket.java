@@ -0,0 +1,100 @@
+package org.yamcs.cfdp;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the rate of the data sent towards a remote entity.
+ * <p>
+ * The tokens are bytes; they accumulate at the configured rate up to a maximum corresponding to
+ * {@value #BURST_MILLIS} milliseconds worth of data. A sender may consume more tokens than available, leaving a
+ * negative balance; it has then to wait until the balance becomes positive before sending again. This allows sending
+ * PDUs larger than the maximum number of tokens.
+ * <p>
+ * One object is shared by all the transfers towards the same entity, possibly running on different threads. The rate
+ * can be changed at any time; a rate smaller or equal to 0 means that the limiter is disabled.
+ */
+public class TokenBucket {
+    static final long BURST_MILLIS = 100;
+
+    // bytes per second
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double rate) {
+        this(rate, System.nanoTime());
+    }
+
+    TokenBucket(double rate, long now) {
+        setRate(rate, now);
+    }
+
+    public void setRate(double rate) {
+        setRate(rate, System.nanoTime());
+    }
+
+    synchronized void setRate(double rate, long now) {
+        refill(now);
+        this.rate = rate > 0 ? rate : 0;
+        tokens = Math.min(tokens, getCapacity());
+        lastRefill = now;
+    }
+
+    public synchronized double getRate() {
+        return rate;
+    }
+
+    public synchronized boolean isEnabled() {
+        return rate > 0;
+    }
+
+    /**
+     * @return the number of nanoseconds to wait before being allowed to send; 0 means that the data can be sent
+     *         immediately.
+     */
+    public long getWaitNanos() {
+        return getWaitNanos(System.nanoTime());
+    }
+
+    synchronized long getWaitNanos(long now) {
+        if (rate <= 0) {
+            return 0;
+        }
+        refill(now);
+        if (tokens >= 0) {
+            return 0;
+        }
+        return 1 + (long) (-tokens * TimeUnit.SECONDS.toNanos(1) / rate);
+    }
+
+    /**
+     * Registers that size bytes have been sent.
+     */
+    public void consume(int size) {
+        consume(size, System.nanoTime());
+    }
+
+    synchronized void consume(int size, long now) {
+        if (rate <= 0) {
+            return;
+        }
+        refill(now);
+        tokens -= size;
+    }
+
+    private void refill(long now) {
+        if (rate > 0) {
+            tokens = Math.min(getCapacity(), tokens + rate * (now - lastRefill) / TimeUnit.SECONDS.toNanos(1));
+        }
+        lastRefill = now;
+    }
+
+    private double getCapacity() {
+        return rate * BURST_MILLIS / 1000;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "TokenBucket [rate=" + rate + ", tokens=" + tokens + "]";
+    }
+}
@@ -18,7 +18,7 @@ public class MetadataPacket extends CfdpPacket implements FileDirective {
     private boolean closureRequested;
     private byte checksumType;
 
-    public MetadataPacket(boolean closureRequested, byte checksumType, int fileSize,
+    public MetadataPacket(boolean closureRequested, byte checksumType, long fileSize,
             String source, String destination, List<FileStoreRequest> fsrs, List<MessageToUser> mtus,
             List<FaultHandlerOverride> fhos, TLV flowLabel, CfdpHeader header) {
         super(header);
@@ -167,6 +167,22 @@ public interface FileTransferService extends YamcsService {
      */
     void cancel(FileTransfer transfer);
 
+    /**
+     * Changes the maximum data rate of the uploads towards a remote entity.
+     *
+     * @param destinationEntity
+     *            the destination (remote) entity.
+     * @param rate
+     *            the maximum number of bytes per second; 0 or negative removes the limit.
+     * @throws InvalidRequestException
+     *             if the entity is not valid.
+     * @throws UnsupportedOperationException
+     *             if the service does not support changing the rate.
+     */
+    default void setUplinkRate(String destinationEntity, double rate) {
+        throw new UnsupportedOperationException("Setting the uplink rate is not supported by this service");
+    }
+
     /**
      * Register a monitor to be called each time a file transfer is started or changes state.
      * 
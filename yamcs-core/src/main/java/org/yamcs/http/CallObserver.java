@@ -4,6 +4,7 @@ import static io.netty.handler.codec.http.HttpResponseStatus.OK;
 import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
 import org.yamcs.NotThreadSafe;
@@ -24,7 +25,9 @@ import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelFuture;
 import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpResponse;
 import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.codec.http.HttpResponseStatus;
@@ -33,7 +36,7 @@ import io.netty.handler.codec.http.HttpResponseStatus;
  * Observes the state of a single RPC call where both request and response are non-streaming.
  */
 @NotThreadSafe
-public class CallObserver implements Observer<Message> {
+public class CallObserver implements Observer<Message>, StreamingHttpBodyObserver {
 
     private static final Log log = new Log(CallObserver.class);
 
@@ -102,6 +105,67 @@ public class CallObserver implements Observer<Message> {
         completed = true;
     }
 
+    /**
+     * Sends the body read from the stream, or only the part requested with the Range header.
+     * <p>
+     * The Content-Encoding is set to identity such that the {@link io.netty.handler.codec.http.HttpContentCompressor}
+     * leaves the body as it is; the Content-Length and Content-Range headers refer to the unencoded data.
+     */
+    @Override
+    public void completeWithStream(String contentType, long size, BodySource source) {
+        if (completed) {
+            throw new IllegalStateException("Observer already completed");
+        }
+
+        InputStream in;
+        HttpResponse response;
+        long length;
+        try {
+            HttpRange range = HttpRange.parse(ctx.nettyRequest.headers().get(HttpHeaderNames.RANGE), size);
+            if (range == null) {
+                response = new DefaultHttpResponse(HTTP_1_1, OK);
+                in = source.open(0, size);
+                length = size;
+            } else {
+                response = new DefaultHttpResponse(HTTP_1_1, HttpResponseStatus.PARTIAL_CONTENT);
+                response.headers().set(HttpHeaderNames.CONTENT_RANGE, range.toContentRange(size));
+                in = source.open(range.getStart(), range.getLength());
+                length = range.getLength();
+            }
+            if (in == null) { // deleted in the meanwhile
+                throw new NotFoundException();
+            }
+        } catch (HttpException | IOException e) {
+            completeExceptionally(e);
+            return;
+        }
+        completed = true;
+
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+        response.headers().set(HttpHeaderNames.CONTENT_ENCODING, HttpHeaderValues.IDENTITY);
+        response.headers().set(HttpHeaderNames.ACCEPT_RANGES, HttpHeaderValues.BYTES);
+        try {
+            StreamedResponse.send(ctx, response, in, length);
+        } catch (IOException e) {
+            // the channel has been closed and the request completed
+            log.warn("Error sending {}: {}", ctx.nettyRequest.uri(), e.getMessage());
+        } finally {
+            try {
+                in.close();
+            } catch (IOException e) {
+                log.warn("Error closing the stream", e);
+            }
+        }
+    }
+
+    @Override
+    public <C> C getCapability(Class<C> capability) {
+        if (capability == StreamingHttpBodyObserver.class) {
+            return capability.cast(this);
+        }
+        return null;
+    }
+
     private void completeRequest(HttpResponse httpResponse) {
         ChannelFuture cf = HttpRequestHandler.sendResponse(ctx.nettyContext,
                 ctx.nettyRequest, httpResponse);
@@ -1,5 +1,7 @@
 package org.yamcs.http;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.InetSocketAddress;
 import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
@@ -117,6 +119,16 @@ public abstract class Context {
         return fieldMask;
     }
 
+    /**
+     * For the routes with the stream_body option, returns a stream for reading the data of the HttpBody instead of
+     * the data field of the request message.
+     * 
+     * @return the stream or null if the body of the call is not streamed
+     */
+    public InputStream getStreamedBodyData() throws IOException {
+        return null;
+    }
+
     /**
      * Get the number of bytes transferred as the result of this call. It should not include the http headers. Note that
      * the number might be increased before the data is sent so it will be wrong if there was an error sending data.
@@ -0,0 +1,98 @@
+package org.yamcs.http;
+
+/**
+ * Byte range requested with the HTTP Range header.
+ * <p>
+ * Only single ranges are supported; a request for multiple ranges is answered with the full content, as allowed by
+ * RFC 7233.
+ */
+public class HttpRange {
+    private static final String BYTES_UNIT = "bytes=";
+
+    final long start;
+    final long end;
+
+    /**
+     * @param start
+     *            first byte position
+     * @param end
+     *            last byte position (inclusive)
+     */
+    public HttpRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Parses the value of a Range header for a resource of the given size.
+     * <p>
+     * The returned range is limited to the size of the resource.
+     * 
+     * @param header
+     *            value of the Range header, can be null
+     * @param size
+     *            size of the resource
+     * @return the range or null if the header is not present, is malformed or it specifies multiple ranges; in all
+     *         these cases the full resource should be sent.
+     * @throws RangeNotSatisfiableException
+     *             if the range does not overlap the resource
+     */
+    public static HttpRange parse(String header, long size) throws RangeNotSatisfiableException {
+        if (header == null || !header.startsWith(BYTES_UNIT) || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int idx = spec.indexOf('-');
+        if (idx < 0) {
+            return null;
+        }
+        try {
+            long start, end;
+            if (idx == 0) { // suffix range: the last n bytes
+                long n = Long.parseLong(spec.substring(1));
+                if (n == 0) {
+                    throw new RangeNotSatisfiableException("Empty suffix range");
+                }
+                start = Math.max(0, size - n);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, idx));
+                end = idx == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(idx + 1));
+                if (end < start) {
+                    return null;
+                }
+                end = Math.min(end, size - 1);
+            }
+            if (start >= size) {
+                throw new RangeNotSatisfiableException("Range " + spec + " not satisfiable for size " + size);
+            }
+            return new HttpRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * @return the value of the Content-Range header for the response
+     */
+    public String toContentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    @Override
+    public String toString() {
+        return start + "-" + end;
+    }
+}
@@ -327,6 +327,14 @@ public class HttpRequestHandler extends ChannelInboundHandlerAdapter {
             if (HttpUtil.is100ContinueExpected(nettyRequest)) {
                 nettyContext.writeAndFlush(HttpUtils.CONTINUE_RESPONSE.retainedDuplicate());
             }
+        } else if (ctx.isStreamBody()) {
+            pipeline.addLast(new HttpContentCompressor());
+
+            // the body is stored (in memory or on disk depending on its size) while it is received, then the
+            // routeHandler is called with a request without content
+            pipeline.addLast(new StreamingBodyHandler(ctx));
+            pipeline.addLast(routeHandler);
+            nettyContext.fireChannelRead(nettyRequest);
         } else {
             pipeline.addLast(new HttpContentCompressor());
 
@@ -91,7 +91,8 @@ public class HttpTranscoder {
             if (contentType != null) {
                 bodyb.setContentType(contentType);
             }
-            if (ctx.hasBody()) {
+            // with stream_body the data is read by the route from the context
+            if (!ctx.isStreamBody() && ctx.hasBody()) {
                 try (InputStream bufOut = ctx.getBodyAsInputStream()) {
                     ByteString data = ByteString.readFrom(bufOut);
                     bodyb.setData(data);
@@ -104,7 +105,10 @@ public class HttpTranscoder {
     }
 
     private static HttpBody readMultipartFormData(RouteContext ctx) throws HttpTranscodeException {
-        HttpPostMultipartRequestDecoder decoder = new HttpPostMultipartRequestDecoder(ctx.fullNettyRequest);
+        HttpPostMultipartRequestDecoder decoder = ctx.getMultipartDecoder();
+        if (decoder == null) {
+            decoder = new HttpPostMultipartRequestDecoder(ctx.fullNettyRequest);
+        }
 
         HttpBody.Builder bodyb = HttpBody.newBuilder();
         FileUpload fup = null;
@@ -137,11 +141,15 @@ public class HttpTranscoder {
             throw new HttpTranscodeException("No file upload was found in multipart/form data");
         }
 
-        try (InputStream bufOut = new ByteBufInputStream(fup.content())) {
-            ByteString data = ByteString.readFrom(bufOut);
-            bodyb.setData(data);
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+        if (ctx.isStreamBody()) {
+            ctx.setBodyData(fup);
+        } else {
+            try (InputStream bufOut = new ByteBufInputStream(fup.content())) {
+                ByteString data = ByteString.readFrom(bufOut);
+                bodyb.setData(data);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
         }
         if (fup.getContentType() != null) {
             bodyb.setContentType(fup.getContentType());
@@ -21,6 +21,7 @@ public class Route implements Comparable<Route> {
     private final String uriTemplate;
     private final HttpMethod httpMethod;
     private final boolean offloaded;
+    private final boolean streamBody;
     private final boolean deprecated;
     private final String body;
     private final String fieldMaskRoot;
@@ -42,6 +43,7 @@ public class Route implements Comparable<Route> {
                 "yamcs.api.errors.total.%s.%s", descriptor.getService(), descriptor.getMethod()));
 
         offloaded = httpOptions.getOffloaded();
+        streamBody = httpOptions.getStreamBody();
         deprecated = httpOptions.getDeprecated();
 
         switch (httpOptions.getPatternCase()) {
@@ -137,6 +139,10 @@ public class Route implements Comparable<Route> {
         return offloaded;
     }
 
+    public boolean isStreamBody() {
+        return streamBody;
+    }
+
     public String getUriTemplate() {
         return uriTemplate;
     }
@@ -1,5 +1,6 @@
 package org.yamcs.http;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
@@ -25,6 +26,8 @@ import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.QueryStringDecoder;
+import io.netty.handler.codec.http.multipart.HttpData;
+import io.netty.handler.codec.http.multipart.HttpPostMultipartRequestDecoder;
 
 public class RouteContext extends Context {
 
@@ -42,6 +45,10 @@ public class RouteContext extends Context {
     private int maxBodySize;
     private String fieldMaskRoot;
 
+    // for the routes with the stream_body option
+    private HttpData bodyData;
+    private HttpPostMultipartRequestDecoder multipartDecoder;
+
     RouteContext(HttpServer httpServer, ChannelHandlerContext nettyContext, User user, HttpRequest nettyRequest,
             Route route, Matcher regexMatch) {
         super(httpServer, nettyContext, user, route.getApi());
@@ -154,6 +161,43 @@ public class RouteContext extends Context {
         return route.isOffloaded();
     }
 
+    public boolean isStreamBody() {
+        return route.isStreamBody();
+    }
+
+    void setStreamedBody(HttpData bodyData, HttpPostMultipartRequestDecoder multipartDecoder) {
+        this.bodyData = bodyData;
+        this.multipartDecoder = multipartDecoder;
+    }
+
+    void setBodyData(HttpData bodyData) {
+        this.bodyData = bodyData;
+    }
+
+    /**
+     * The decoder which has received the body of a multipart request for a route with the stream_body option.
+     */
+    HttpPostMultipartRequestDecoder getMultipartDecoder() {
+        return multipartDecoder;
+    }
+
+    /**
+     * For the routes with the stream_body option, returns a stream for reading the data of the HttpBody (the request
+     * body or the file part of a multipart request).
+     * 
+     * @return the stream or null if the route does not have the stream_body option
+     */
+    @Override
+    public InputStream getStreamedBodyData() throws IOException {
+        if (bodyData == null) {
+            return null;
+        } else if (bodyData.isInMemory()) {
+            return new ByteBufInputStream(bodyData.getByteBuf().duplicate());
+        } else {
+            return new FileInputStream(bodyData.getFile());
+        }
+    }
+
     /**
      * Deserializes the incoming message extracted from the body. This does not care about what the HTTP method is. Any
      * required checks should be done elsewhere.
@@ -0,0 +1,107 @@
+package org.yamcs.http;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.yamcs.parameter.ParameterValue;
+import org.yamcs.protobuf.ServerMessage;
+import org.yamcs.protobuf.SubscribeParametersData;
+
+import com.google.protobuf.Any;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+
+/**
+ * Encoded form of a parameter value, shared between all the WebSocket subscribers receiving the same value.
+ * <p>
+ * The processor delivers the same {@link ParameterValue} objects to all the subscriptions so the conversion to
+ * protobuf (including the UTC time formatting) and the serialization to bytes is performed once for each value
+ * instead of once for each subscriber. The encoded value does not contain the numeric id; that is specific to each
+ * subscription and is appended when writing the frame.
+ * <p>
+ * The instances are obtained from the {@link SharedParameterValueCache} of the processor.
+ */
+public class SharedParameterValue {
+
+    private static final String TYPE_URL = HttpServer.TYPE_URL_PREFIX + "/"
+            + SubscribeParametersData.getDescriptor().getFullName();
+    private static final int NUMERIC_ID_FIELD = org.yamcs.protobuf.Pvalue.ParameterValue.NUMERICID_FIELD_NUMBER;
+
+    private final org.yamcs.protobuf.Pvalue.ParameterValue gpb;
+    private volatile byte[] protobuf;
+
+    SharedParameterValue(org.yamcs.protobuf.Pvalue.ParameterValue gpb) {
+        this.gpb = gpb;
+    }
+
+    /**
+     * Returns the protobuf parameter value with the numeric id set.
+     */
+    public org.yamcs.protobuf.Pvalue.ParameterValue toGpb(int numericId) {
+        return gpb.toBuilder().setNumericId(numericId).build();
+    }
+
+    byte[] getProtobuf() {
+        byte[] b = protobuf;
+        if (b == null) {
+            b = gpb.toByteArray();
+            protobuf = b;
+        }
+        return b;
+    }
+
+    /**
+     * Writes a {@link ServerMessage} containing a {@link SubscribeParametersData} with the given values. The output is
+     * equivalent to the serialization of the message built with the protobuf builders but the values are copied from
+     * their shared encoding instead of being serialized again.
+     */
+    static void writeServerMessage(OutputStream os, String type, int call, int seq, int[] numericIds,
+            SharedParameterValue[] values) throws IOException {
+        int dataSize = 0;
+        for (int i = 0; i < values.length; i++) {
+            int valueSize = values[i].getValueSize(numericIds[i]);
+            dataSize += CodedOutputStream.computeTagSize(SubscribeParametersData.VALUES_FIELD_NUMBER)
+                    + CodedOutputStream.computeUInt32SizeNoTag(valueSize) + valueSize;
+        }
+        int anySize = CodedOutputStream.computeStringSize(Any.TYPE_URL_FIELD_NUMBER, TYPE_URL)
+                + CodedOutputStream.computeTagSize(Any.VALUE_FIELD_NUMBER)
+                + CodedOutputStream.computeUInt32SizeNoTag(dataSize) + dataSize;
+        int size = CodedOutputStream.computeStringSize(ServerMessage.TYPE_FIELD_NUMBER, type)
+                + CodedOutputStream.computeInt32Size(ServerMessage.CALL_FIELD_NUMBER, call)
+                + CodedOutputStream.computeInt32Size(ServerMessage.SEQ_FIELD_NUMBER, seq)
+                + CodedOutputStream.computeTagSize(ServerMessage.DATA_FIELD_NUMBER)
+                + CodedOutputStream.computeUInt32SizeNoTag(anySize) + anySize;
+
+        CodedOutputStream out = CodedOutputStream.newInstance(os, Math.min(size, 4096));
+        out.writeString(ServerMessage.TYPE_FIELD_NUMBER, type);
+        out.writeInt32(ServerMessage.CALL_FIELD_NUMBER, call);
+        out.writeInt32(ServerMessage.SEQ_FIELD_NUMBER, seq);
+        out.writeTag(ServerMessage.DATA_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(anySize);
+        out.writeString(Any.TYPE_URL_FIELD_NUMBER, TYPE_URL);
+        out.writeTag(Any.VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        out.writeUInt32NoTag(dataSize);
+        for (int i = 0; i < values.length; i++) {
+            out.writeTag(SubscribeParametersData.VALUES_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(values[i].getValueSize(numericIds[i]));
+            out.writeRawBytes(values[i].getProtobuf());
+            out.writeUInt32(NUMERIC_ID_FIELD, numericIds[i]);
+        }
+        out.flush();
+    }
+
+    /**
+     * Returns a {@link SubscribeParametersData} containing the given values.
+     */
+    public static SubscribeParametersData toParameterData(int[] numericIds, SharedParameterValue[] values) {
+        SubscribeParametersData.Builder datab = SubscribeParametersData.newBuilder();
+        for (int i = 0; i < values.length; i++) {
+            datab.addValues(values[i].toGpb(numericIds[i]));
+        }
+        return datab.build();
+    }
+
+    private int getValueSize(int numericId) {
+        return getProtobuf().length + CodedOutputStream.computeUInt32Size(NUMERIC_ID_FIELD, numericId);
+    }
+}
@@ -0,0 +1,36 @@
+package org.yamcs.http;
+
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import org.yamcs.parameter.ParameterValue;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Holds the {@link SharedParameterValue}s of the values delivered by one processor.
+ * <p>
+ * The values are cached by identity (the keys are weak references) which relies on the parameter values not being
+ * modified after having been delivered.
+ */
+public class SharedParameterValueCache {
+    static final int MAX_SIZE = 100_000;
+
+    private final Cache<ParameterValue, SharedParameterValue> cache = CacheBuilder.newBuilder()
+            .weakKeys()
+            .maximumSize(MAX_SIZE)
+            .build();
+
+    /**
+     * Returns the shared encoding of the parameter value, creating it if this is the first subscriber asking for it.
+     */
+    public SharedParameterValue get(ParameterValue pv) {
+        SharedParameterValue spv = cache.getIfPresent(pv);
+        if (spv == null) {
+            spv = new SharedParameterValue(pv.toProtobufParameterValue(Optional.empty(), OptionalInt.empty(), true));
+            cache.put(pv, spv);
+        }
+        return spv;
+    }
+}
@@ -0,0 +1,18 @@
+package org.yamcs.http;
+
+import org.yamcs.api.Observer;
+import org.yamcs.protobuf.SubscribeParametersData;
+
+/**
+ * Capability of an observer of {@link SubscribeParametersData} messages to receive the parameter values in their
+ * encoding shared with the other subscribers.
+ *
+ * @see Observer#getCapability(Class)
+ */
+public interface SharedParameterValueObserver {
+
+    /**
+     * Same as emitting a {@link SubscribeParametersData} containing only the given values.
+     */
+    void nextParameterValues(int[] numericIds, SharedParameterValue[] values);
+}
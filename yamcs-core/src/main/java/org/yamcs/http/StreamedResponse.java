@@ -0,0 +1,108 @@
+package org.yamcs.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.TimeUnit;
+
+import org.yamcs.logging.Log;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * Sends the response of a call with a body read from an {@link InputStream}, without having the full body in memory.
+ * <p>
+ * The data is read and written from the calling thread, waiting for the channel to become writable; it should be used
+ * only by offloaded routes.
+ */
+public class StreamedResponse {
+
+    private static final Log log = new Log(StreamedResponse.class);
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Sends the response header followed by length bytes read from the stream. The Content-Length header is set by
+     * this method.
+     * <p>
+     * The stream is not closed.
+     *
+     * @throws IOException
+     *             if the data could not be read or sent; the channel is closed in this case.
+     */
+    public static void send(RouteContext ctx, HttpResponse response, InputStream in, long length)
+            throws IOException {
+        HttpUtil.setContentLength(response, length);
+        Channel ch = ctx.nettyContext.channel();
+        log.info("{} {} {} {}", ch.id().asShortText(), ctx.nettyRequest.method(), ctx.nettyRequest.uri(),
+                response.status().code());
+        ctx.reportStatusCode(response.status().code());
+        ctx.nettyContext.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+
+        try {
+            long remaining = length;
+            while (remaining > 0) {
+                ByteBuf buf = ctx.nettyContext.alloc().buffer((int) Math.min(CHUNK_SIZE, remaining));
+                int n;
+                try {
+                    n = buf.writeBytes(in, buf.writableBytes());
+                } catch (IOException e) {
+                    buf.release();
+                    throw e;
+                }
+                if (n < 0) {
+                    buf.release();
+                    throw new IOException("Unexpected end of data, " + remaining + " bytes missing");
+                }
+                remaining -= n;
+                ctx.addTransferredSize(n);
+                writeChunk(ctx, buf);
+            }
+        } catch (IOException e) {
+            if (ch.isOpen()) {
+                log.warn("Closing channel because transfer failed: {}", e.getMessage());
+                ch.close();
+            }
+            ctx.requestFuture.completeExceptionally(e);
+            throw e;
+        }
+
+        ChannelFuture cf = ctx.nettyContext.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        if (!HttpUtil.isKeepAlive(ctx.nettyRequest)) {
+            cf.addListener(ChannelFutureListener.CLOSE);
+        }
+        cf.addListener(l -> {
+            if (l.isSuccess()) {
+                ctx.requestFuture.complete(null);
+            } else {
+                ctx.requestFuture.completeExceptionally(l.cause());
+            }
+        });
+    }
+
+    private static void writeChunk(RouteContext ctx, ByteBuf buf) throws IOException {
+        Channel ch = ctx.nettyContext.channel();
+        if (!ch.isOpen()) {
+            buf.release();
+            throw new ClosedChannelException();
+        }
+        ChannelFuture writeFuture = ctx.nettyContext.writeAndFlush(new DefaultHttpContent(buf));
+        try {
+            if (!ch.isWritable()) {
+                boolean writeCompleted = writeFuture.await(10, TimeUnit.SECONDS);
+                if (!writeCompleted) {
+                    throw new IOException("Channel did not become writable in 10 seconds");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sending data");
+        }
+    }
+}
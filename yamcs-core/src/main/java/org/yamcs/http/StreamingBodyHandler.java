@@ -0,0 +1,147 @@
+package org.yamcs.http;
+
+import java.io.IOException;
+
+import org.yamcs.logging.Log;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpObject;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.handler.codec.http.multipart.DefaultHttpDataFactory;
+import io.netty.handler.codec.http.multipart.HttpData;
+import io.netty.handler.codec.http.multipart.HttpDataFactory;
+import io.netty.handler.codec.http.multipart.HttpPostMultipartRequestDecoder;
+import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder;
+import io.netty.handler.codec.http.multipart.HttpPostRequestDecoder.ErrorDataDecoderException;
+
+/**
+ * Receives the body of a request for a route with the {@code stream_body} option, instead of the
+ * {@link io.netty.handler.codec.http.HttpObjectAggregator}.
+ * <p>
+ * The content is added as it arrives to a netty {@link HttpData} which keeps small bodies in memory and writes the
+ * larger ones to a temporary file. Multipart form data is decoded incrementally using the same kind of storage for
+ * the file upload.
+ * <p>
+ * When the request is complete, a {@link FullHttpRequest} without content is passed to the next handler (the
+ * {@link RouteHandler}) and the data is made available through the {@link RouteContext}. The temporary files are
+ * removed when the call has finished.
+ */
+public class StreamingBodyHandler extends SimpleChannelInboundHandler<HttpObject> {
+
+    private static final Log log = new Log(StreamingBodyHandler.class);
+    static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+    private final RouteContext ctx;
+    private final HttpDataFactory factory = new DefaultHttpDataFactory(DefaultHttpDataFactory.MINSIZE);
+
+    private HttpRequest request;
+    private HttpData bodyData;
+    private HttpPostMultipartRequestDecoder multipartDecoder;
+    private long size = 0;
+
+    private boolean failed = false;
+    private boolean dispatched = false;
+    private boolean cleaned = false;
+
+    public StreamingBodyHandler(RouteContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext nettyContext, HttpObject msg) throws Exception {
+        if (msg instanceof HttpRequest) {
+            request = (HttpRequest) msg;
+            if (HttpUtil.getContentLength(request, -1L) > ctx.getMaxBodySize()) {
+                fail(new BadRequestException("Request body exceeds the maximum size of " + ctx.getMaxBodySize()));
+                return;
+            }
+            if (HttpPostRequestDecoder.isMultipart(request)) {
+                multipartDecoder = new HttpPostMultipartRequestDecoder(factory, request);
+            } else {
+                String contentType = request.headers().get(HttpHeaderNames.CONTENT_TYPE, DEFAULT_CONTENT_TYPE);
+                bodyData = factory.createFileUpload(request, "body", "body", contentType, null, null, 0);
+            }
+            if (HttpUtil.is100ContinueExpected(request)) {
+                nettyContext.writeAndFlush(HttpUtils.CONTINUE_RESPONSE.retainedDuplicate());
+            }
+        }
+        if (msg instanceof HttpContent && !failed) {
+            HttpContent content = (HttpContent) msg;
+            boolean last = msg instanceof LastHttpContent;
+            size += content.content().readableBytes();
+            if (size > ctx.getMaxBodySize()) {
+                fail(new BadRequestException("Request body exceeds the maximum size of " + ctx.getMaxBodySize()));
+                return;
+            }
+            try {
+                if (multipartDecoder != null) {
+                    multipartDecoder.offer(content);
+                } else {
+                    bodyData.addContent(content.content().retain(), last);
+                }
+            } catch (IOException e) {
+                fail(new InternalServerErrorException("Error storing the request body: " + e.getMessage(), e));
+                return;
+            } catch (ErrorDataDecoderException e) {
+                fail(new BadRequestException(e));
+                return;
+            }
+            if (last) {
+                dispatch(nettyContext);
+            }
+        }
+    }
+
+    private void dispatch(ChannelHandlerContext nettyContext) {
+        dispatched = true;
+        ctx.setStreamedBody(bodyData, multipartDecoder);
+        ctx.requestFuture.whenComplete((r, e) -> cleanup());
+
+        FullHttpRequest fullRequest = new DefaultFullHttpRequest(request.protocolVersion(), request.method(),
+                request.uri(), Unpooled.EMPTY_BUFFER, request.headers(), EmptyHttpHeaders.INSTANCE);
+        nettyContext.fireChannelRead(fullRequest);
+    }
+
+    private void fail(HttpException e) {
+        log.warn("{}: {}", ctx, e.getMessage());
+        failed = true;
+        CallObserver.sendError(ctx, e);
+        ctx.requestFuture.completeExceptionally(e);
+        cleanup();
+    }
+
+    private synchronized void cleanup() {
+        if (cleaned) {
+            return;
+        }
+        cleaned = true;
+        if (multipartDecoder != null) {
+            multipartDecoder.destroy();
+        }
+        factory.cleanAllHttpData();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext nettyContext) throws Exception {
+        if (!dispatched) {
+            cleanup();
+        }
+        super.channelInactive(nettyContext);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext nettyContext) throws Exception {
+        if (!dispatched) {
+            cleanup();
+        }
+    }
+}
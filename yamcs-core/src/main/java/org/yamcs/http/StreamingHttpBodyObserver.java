@@ -0,0 +1,41 @@
+package org.yamcs.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.yamcs.api.HttpBody;
+import org.yamcs.api.Observer;
+
+/**
+ * Capability of an observer of {@link HttpBody} messages to send the body read from a stream, without having the full
+ * body in memory.
+ * <p>
+ * The observer honours the Range header of the request if there is one; the body is sent without content encoding.
+ *
+ * @see Observer#getCapability(Class)
+ */
+public interface StreamingHttpBodyObserver {
+
+    /**
+     * Sends the body and completes the observer.
+     * <p>
+     * The data is read and written from the calling thread; it should be used only by offloaded routes. If the data
+     * cannot be read or sent after the response header has been sent, the connection is closed.
+     *
+     * @param contentType
+     *            the content type of the body
+     * @param size
+     *            the total size of the body
+     * @param source
+     *            opens a stream on the part of the body to be sent
+     */
+    void completeWithStream(String contentType, long size, BodySource source);
+
+    @FunctionalInterface
+    public interface BodySource {
+        /**
+         * @return a stream on the length bytes starting at offset or null if the data does not exist anymore
+         */
+        InputStream open(long offset, long length) throws IOException;
+    }
+}
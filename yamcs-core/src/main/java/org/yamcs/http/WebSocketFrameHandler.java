@@ -2,6 +2,7 @@ package org.yamcs.http;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -9,8 +10,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.yamcs.ConnectedClient;
 import org.yamcs.api.Observer;
 import org.yamcs.logging.Log;
+import org.yamcs.management.ManagementService;
 import org.yamcs.protobuf.CancelOptions;
 import org.yamcs.protobuf.ClientMessage;
 import org.yamcs.protobuf.Reply;
@@ -31,6 +34,7 @@ import io.netty.buffer.ByteBufOutputStream;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.WriteBufferWaterMark;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
@@ -55,8 +59,14 @@ public class WebSocketFrameHandler extends SimpleChannelInboundHandler<WebSocket
     private WriteBufferWaterMark writeBufferWaterMark;
 
     private List<TopicContext> contexts = new ArrayList<>();
+    private List<WebSocketObserver> observers = new ArrayList<>();
     private Map<Integer, Observer<Message>> clientObserversByCall = new HashMap<>();
 
+    // holds the counters of the messages not sent and parameter values replaced by newer ones because the channel
+    // was not writable; registered with the ManagementService once the WebSocket handshake is complete
+    private ConnectedClient client;
+    private boolean registered;
+
     public WebSocketFrameHandler(HttpServer httpServer, HttpRequest req, User user, int maxDrops,
             WriteBufferWaterMark writeBufferWaterMark) {
         this.httpServer = httpServer;
@@ -72,6 +82,15 @@ public class WebSocketFrameHandler extends SimpleChannelInboundHandler<WebSocket
 
         // Store this information, because it will be null when the channel is disconnected
         remoteAddress = nettyContext.channel().remoteAddress();
+
+        String applicationName = nettyRequest.headers().get(HttpHeaderNames.USER_AGENT);
+        if (applicationName == null) {
+            applicationName = "Unknown (" + remoteAddress + ")";
+        }
+        String address = remoteAddress instanceof InetSocketAddress
+                ? ((InetSocketAddress) remoteAddress).getAddress().getHostAddress()
+                : String.valueOf(remoteAddress);
+        client = new ConnectedClient(user, applicationName, address);
     }
 
     @Override
@@ -91,11 +110,43 @@ public class WebSocketFrameHandler extends SimpleChannelInboundHandler<WebSocket
 
             // After upgrade, no further HTTP messages will be received
             nettyContext.pipeline().remove(HttpRequestHandler.class);
+
+            ManagementService.getInstance().registerClient(client);
+            registered = true;
         } else {
             super.userEventTriggered(nettyContext, evt);
         }
     }
 
+    ConnectedClient getClient() {
+        return client;
+    }
+
+    void incrementDroppedMessages() {
+        client.incrementDroppedMessages();
+    }
+
+    void addConflatedValues(int n) {
+        client.addConflatedValues(n);
+    }
+
+    void addObserver(WebSocketObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Sends the parameter values accumulated by the observers while the channel was not writable.
+     */
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext nettyContext) throws Exception {
+        if (nettyContext.channel().isWritable()) {
+            for (WebSocketObserver observer : observers) {
+                observer.flushConflatedValues();
+            }
+        }
+        super.channelWritabilityChanged(nettyContext);
+    }
+
     @Override
     protected void channelRead0(ChannelHandlerContext nettyContext, WebSocketFrame frame) throws Exception {
         ClientMessage message;
@@ -200,6 +251,7 @@ public class WebSocketFrameHandler extends SimpleChannelInboundHandler<WebSocket
                 if (ctx.getId() == callId) {
                     ctx.close();
                     clientObserversByCall.remove(callId);
+                    observers.removeIf(o -> o.getContext() == ctx);
                 }
             }
         }
@@ -222,6 +274,7 @@ public class WebSocketFrameHandler extends SimpleChannelInboundHandler<WebSocket
         });
 
         contexts.add(ctx);
+        addObserver(observer);
 
         if (ctx.isClientStreaming()) {
             Observer<Message> clientObserver = topic.callMethod(ctx, observer);
@@ -263,6 +316,32 @@ public class WebSocketFrameHandler extends SimpleChannelInboundHandler<WebSocket
         }
     }
 
+    /**
+     * Writes a {@link SubscribeParametersData} message containing only values, using the encoding shared with the
+     * other subscribers for each value. The result is the same as writing the message through
+     * {@link #writeMessage(ChannelHandlerContext, ServerMessage)} but in protobuf mode the values are not serialized
+     * again.
+     */
+    void writeParameterValues(ChannelHandlerContext nettyContext, String type, int call, int seq, int[] numericIds,
+            SharedParameterValue[] values) throws IOException {
+        if (protobuf) {
+            ByteBuf buf = nettyContext.alloc().buffer();
+            try (ByteBufOutputStream bufOut = new ByteBufOutputStream(buf)) {
+                SharedParameterValue.writeServerMessage(bufOut, type, call, seq, numericIds, values);
+            }
+            nettyContext.channel().writeAndFlush(new BinaryWebSocketFrame(buf));
+        } else {
+            ServerMessage serverMessage = ServerMessage.newBuilder()
+                    .setType(type)
+                    .setCall(call)
+                    .setSeq(seq)
+                    .setData(Any.pack(SharedParameterValue.toParameterData(numericIds, values),
+                            HttpServer.TYPE_URL_PREFIX))
+                    .build();
+            writeMessage(nettyContext, serverMessage);
+        }
+    }
+
     /**
      * Called when the client abruptly closes the connection
      */
@@ -275,8 +354,17 @@ public class WebSocketFrameHandler extends SimpleChannelInboundHandler<WebSocket
     @Override
     public void channelInactive(ChannelHandlerContext nettyContext) throws Exception {
         log.info("Channel {} closed", remoteAddress);
+        if (client.getDroppedMessages() > 0 || client.getConflatedValues() > 0) {
+            log.info("Channel {}: {} messages dropped and {} parameter values conflated while not writable",
+                    remoteAddress, client.getDroppedMessages(), client.getConflatedValues());
+        }
         contexts.forEach(TopicContext::close);
         contexts.clear();
+        observers.clear();
+        if (registered) {
+            ManagementService.getInstance().unregisterClient(client.getId());
+            registered = false;
+        }
     }
 
     private Topic matchTopic(String topicName) {
@@ -3,17 +3,21 @@ package org.yamcs.http;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.yamcs.api.Observer;
 import org.yamcs.logging.Log;
+import org.yamcs.protobuf.Pvalue.ParameterValue;
 import org.yamcs.protobuf.Reply;
 import org.yamcs.protobuf.ServerMessage;
+import org.yamcs.protobuf.SubscribeParametersData;
 
 import com.google.protobuf.Any;
 import com.google.protobuf.Message;
 
-public class WebSocketObserver implements Observer<Message> {
+public class WebSocketObserver implements Observer<Message>, SharedParameterValueObserver {
 
     private Log log;
 
@@ -28,6 +32,10 @@ public class WebSocketObserver implements Observer<Message> {
     private boolean replied;
     private List<Message> pendingMessages = new ArrayList<>(); // Messages received while not yet replied
 
+    // Parameter values received while the channel is not writable, by numeric id. Only the latest value of each
+    // parameter is kept. Guarded by 'this'.
+    private Map<Integer, ParameterValue> conflatedValues = new LinkedHashMap<>();
+
     public WebSocketObserver(TopicContext ctx, WebSocketFrameHandler frameHandler) {
         this.ctx = ctx;
         this.frameHandler = frameHandler;
@@ -37,6 +45,10 @@ public class WebSocketObserver implements Observer<Message> {
         log.info("Subscribe {}", ctx.getTopic().getName());
     }
 
+    TopicContext getContext() {
+        return ctx;
+    }
+
     void sendReply(Reply reply) {
         synchronized (this) { // Guard 'replied' and 'pendingMessages'
             try {
@@ -63,24 +75,130 @@ public class WebSocketObserver implements Observer<Message> {
             }
         }
 
-        // Increase even if it not sent.
-        // TODO this was originally designed for some calls (like parameter subscription)
-        // which do not guarantee all messages to arrive (e.g. because the channel is
-        // temporarily not writable). But this is perhaps a property that should be made
-        // specific to the call. It may cause problems for other calls that require all
-        // messages to arrive.
-        messageCount++;
-
         if (!ctx.nettyContext.channel().isOpen()) {
             log.warn("Skipping frame because channel is not open");
             return;
         }
+        if (message instanceof SubscribeParametersData) {
+            nextParameterData((SubscribeParametersData) message);
+            return;
+        }
         if (!ctx.nettyContext.channel().isWritable()) {
             log.warn("Skipping frame because channel is not writable");
+            frameHandler.incrementDroppedMessages();
+            // the dropped message takes a sequence number, such that the client sees the gap
+            synchronized (this) {
+                messageCount++;
+            }
+            return;
+        }
+
+        sendData(message);
+    }
+
+    /**
+     * The parameter values are not dropped when the channel is not writable but kept in a buffer holding the latest
+     * value for each parameter. The buffer is sent when the channel becomes writable again.
+     * <p>
+     * The messages containing a mapping or invalid identifiers are always sent because the client cannot interpret
+     * the following values without them.
+     */
+    private synchronized void nextParameterData(SubscribeParametersData data) {
+        boolean writable = ctx.nettyContext.channel().isWritable();
+        if (writable && conflatedValues.isEmpty()) {
+            sendData(data);
+        } else if (data.getMappingCount() > 0 || data.getInvalidCount() > 0) {
+            // the values in this message are newer than the ones in the buffer
+            int n = 0;
+            for (ParameterValue pv : data.getValuesList()) {
+                if (conflatedValues.remove(pv.getNumericId()) != null) {
+                    n++;
+                }
+            }
+            frameHandler.addConflatedValues(n);
+            sendData(data);
+            if (writable) {
+                flushConflatedValues();
+            }
+        } else {
+            int n = 0;
+            for (ParameterValue pv : data.getValuesList()) {
+                if (conflatedValues.put(pv.getNumericId(), pv) != null) {
+                    n++;
+                }
+            }
+            frameHandler.addConflatedValues(n);
+            if (writable) {
+                flushConflatedValues();
+            }
+        }
+    }
+
+    /**
+     * Same as sending a {@link SubscribeParametersData} containing only values but the values are written using the
+     * encoding shared with the other subscribers.
+     */
+    @Override
+    public void nextParameterValues(int[] numericIds, SharedParameterValue[] values) {
+        synchronized (this) {
+            if (!replied) {
+                pendingMessages.add(SharedParameterValue.toParameterData(numericIds, values));
+                return;
+            }
+        }
+
+        if (!ctx.nettyContext.channel().isOpen()) {
+            log.warn("Skipping frame because channel is not open");
+            return;
+        }
+        synchronized (this) {
+            boolean writable = ctx.nettyContext.channel().isWritable();
+            if (writable && conflatedValues.isEmpty()) {
+                try {
+                    frameHandler.writeParameterValues(ctx.nettyContext, ctx.getTopic().getName(), ctx.getId(),
+                            ++messageCount, numericIds, values);
+                } catch (IOException e) {
+                    cancelCall(e.getMessage());
+                    throw new UncheckedIOException(e);
+                }
+            } else {
+                int n = 0;
+                for (int i = 0; i < values.length; i++) {
+                    if (conflatedValues.put(numericIds[i], values[i].toGpb(numericIds[i])) != null) {
+                        n++;
+                    }
+                }
+                frameHandler.addConflatedValues(n);
+                if (writable) {
+                    flushConflatedValues();
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends the parameter values accumulated while the channel was not writable.
+     * <p>
+     * Called when the writability of the channel changes.
+     */
+    synchronized void flushConflatedValues() {
+        if (conflatedValues.isEmpty() || cancelled || !ctx.nettyContext.channel().isWritable()) {
             return;
         }
+        SubscribeParametersData data = SubscribeParametersData.newBuilder()
+                .addAllValues(conflatedValues.values())
+                .build();
+        conflatedValues.clear();
+        sendData(data);
+    }
 
-        sendMessage(ctx.getTopic().getName(), message);
+    /**
+     * Sends a message of the call. The sequence number counts the messages written to the channel and the messages
+     * dropped because the channel was not writable, but not the conflated parameter values which are sent later.
+     */
+    private synchronized void sendData(Message data) {
+        messageCount++;
+        sendMessage(ctx.getTopic().getName(), data);
     }
 
     private void sendMessage(String type, Message data) {
@@ -142,4 +260,12 @@ public class WebSocketObserver implements Observer<Message> {
     public void setCancelHandler(Runnable cancelHandler) {
         this.cancelHandler = cancelHandler;
     }
+
+    @Override
+    public <C> C getCapability(Class<C> capability) {
+        if (capability == SharedParameterValueObserver.class) {
+            return capability.cast(this);
+        }
+        return null;
+    }
 }
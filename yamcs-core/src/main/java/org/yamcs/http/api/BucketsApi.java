@@ -1,6 +1,7 @@
 package org.yamcs.http.api;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -14,6 +15,7 @@ import org.yamcs.http.ForbiddenException;
 import org.yamcs.http.HttpException;
 import org.yamcs.http.InternalServerErrorException;
 import org.yamcs.http.NotFoundException;
+import org.yamcs.http.StreamingHttpBodyObserver;
 import org.yamcs.logging.Log;
 import org.yamcs.protobuf.AbstractBucketsApi;
 import org.yamcs.protobuf.BucketInfo;
@@ -44,9 +46,6 @@ public class BucketsApi extends AbstractBucketsApi<Context> {
 
     private static final Log log = new Log(BucketsApi.class);
 
-    // max body size used for upload object (this includes both data and metadata).
-    static final int MAX_BODY_SIZE = 5 * 1024 * 1024;
-
     static final Pattern BUCKET_NAME_REGEXP = Pattern.compile("\\w+");
     static final Pattern OBJ_NAME_REGEXP = Pattern.compile("[ \\w\\s\\-\\./]+");
 
@@ -122,8 +121,14 @@ public class BucketsApi extends AbstractBucketsApi<Context> {
             if (props == null) {
                 throw new NotFoundException();
             }
-            byte[] objData = bucket.getObject(objName);
             String contentType = props.hasContentType() ? props.getContentType() : "application/octet-stream";
+            StreamingHttpBodyObserver streamingObserver = observer.getCapability(StreamingHttpBodyObserver.class);
+            if (streamingObserver != null) {
+                streamingObserver.completeWithStream(contentType, props.getSize(),
+                        (offset, length) -> bucket.getObjectStream(objName, offset, length));
+                return;
+            }
+            byte[] objData = bucket.getObject(objName);
 
             HttpBody body = HttpBody.newBuilder()
                     .setContentType(contentType)
@@ -156,8 +161,7 @@ public class BucketsApi extends AbstractBucketsApi<Context> {
         verifyObjectName(objectName);
 
         String contentType = body.hasContentType() ? body.getContentType() : null;
-        byte[] objectData = body.getData().toByteArray();
-        try {
+        try (InputStream objectData = getBodyData(ctx, body)) {
             bucket.putObject(objectName, contentType, body.getMetadataMap(), objectData);
         } catch (IOException e) {
             throw new InternalServerErrorException("Error when uploading object to bucket: " + e.getMessage(), e);
@@ -239,6 +243,11 @@ public class BucketsApi extends AbstractBucketsApi<Context> {
         }
     }
 
+    private static InputStream getBodyData(Context ctx, HttpBody body) throws IOException {
+        InputStream in = ctx.getStreamedBodyData();
+        return in != null ? in : body.getData().newInput();
+    }
+
     static void checkReadBucketPrivilege(String bucketName, User user) throws HttpException {
         if (bucketName.equals(getUserBucketName(user))) {
             return; // user can do whatever to its own bucket (but not to increase quota!! currently not possible
@@ -55,6 +55,9 @@ public class ClientsApi extends AbstractClientsApi<Context> {
         if (request.hasInstance() || request.hasProcessor()) {
             String newInstance;
             Processor newProcessor;
+            if (!request.hasInstance() && client.getProcessor() == null) {
+                throw new BadRequestException("The client is not connected to a processor; specify the instance");
+            }
             newInstance = (request.hasInstance()) ? request.getInstance() : client.getProcessor().getInstance();
 
             YamcsServerInstance ysi = YamcsServer.getServer().getInstance(newInstance);
@@ -137,7 +140,9 @@ public class ClientsApi extends AbstractClientsApi<Context> {
                 .setUsername(client.getUser().getName())
                 .setId(client.getId())
                 .setState(state)
-                .setLoginTime(TimeEncoding.toProtobufTimestamp(client.getLoginTime()));
+                .setLoginTime(TimeEncoding.toProtobufTimestamp(client.getLoginTime()))
+                .setDroppedMessages(client.getDroppedMessages())
+                .setConflatedValues(client.getConflatedValues());
 
         Processor processor = client.getProcessor();
         if (processor != null) {
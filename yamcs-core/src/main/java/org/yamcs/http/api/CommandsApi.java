@@ -300,6 +300,10 @@ public class CommandsApi extends AbstractCommandsApi<Context> {
             sqlb.whereColBefore("gentime", request.getStop());
         }
 
+        if (request.getNameCount() > 0) {
+            // looked up through the cmdName index
+            sqlb.whereColIn("cmdName", request.getNameList());
+        }
         if (request.hasQ()) {
             sqlb.where("cmdName like ?", "%" + request.getQ() + "%");
         }
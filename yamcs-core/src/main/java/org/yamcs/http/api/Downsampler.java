@@ -10,6 +10,7 @@ import java.util.function.Consumer;
 import org.yamcs.logging.Log;
 import org.yamcs.parameter.ValueArray;
 import org.yamcs.parameterarchive.ParameterValueArray;
+import org.yamcs.parameterarchive.RollupSegment;
 import org.yamcs.protobuf.Pvalue.ParameterStatus;
 import org.yamcs.protobuf.Yamcs.Value.Type;
 import org.yamcs.utils.UnsignedLong;
@@ -162,6 +163,43 @@ public class Downsampler implements Consumer<ParameterValueArray> {
         }
     }
 
+    /**
+     * Processes the pre-aggregated buckets of a rollup segment.
+     * <p>
+     * The values inside a bucket cannot be separated, so each bucket is assigned as a whole to the sample containing
+     * its start. A bucket crossing a sample boundary contributes to the first sample the values which belong to the
+     * next one: the min, max and average of a sample may include values up to one bucket size after the sample end
+     * and miss the values in the bucket crossing its start. The buckets should therefore not be larger than the sample
+     * interval (see {@link RollupSegment#getLevel(long)}), which bounds the time error of each value to less than one
+     * sample.
+     */
+    public void process(RollupSegment rs) {
+        for (int i = 0; i < rs.size(); i++) {
+            long t = Math.min(Math.max(rs.getBucketStart(i), start), stop);
+            process(t, rs.getCount(i), rs.getMin(i), rs.getMax(i), rs.getSum(i), rs.getExpireMillis(i));
+        }
+    }
+
+    public void process(long time, int count, double min, double max, double sum, long expireMillis) {
+        if (time > stop || time < start) {
+            return;
+        }
+
+        Entry<Long, Sample> entry = samplesByTime.floorEntry(time);
+        if (entry == null) {
+            log.warn("No interval for time {}", time);
+            return;
+        }
+
+        lastSampleTime = entry.getKey();
+        Sample sample = entry.getValue();
+        if (sample == null) {
+            samplesByTime.put(entry.getKey(), new Sample(entry.getKey(), count, min, max, sum, expireMillis));
+        } else {
+            sample.process(count, min, max, sum, expireMillis);
+        }
+    }
+
     public List<Sample> collect() {
         if (samplesByTime == null) {
             return Collections.emptyList();
@@ -218,6 +256,28 @@ public class Downsampler implements Consumer<ParameterValueArray> {
             n = 1;
         }
 
+        // sample from pre-aggregated values
+        Sample(long t, int count, double min, double max, double sum, long expireMillis) {
+            this.t = t;
+            this.min = min;
+            this.max = max;
+            this.avg = sum / count;
+            this.n = count;
+            this.expireMillis = expireMillis;
+        }
+
+        public void process(int count, double min, double max, double sum, long expireMillis) {
+            this.expireMillis = expireMillis;
+            if (min < this.min) {
+                this.min = min;
+            }
+            if (max > this.max) {
+                this.max = max;
+            }
+            avg = (avg * n + sum) / (n + count);
+            n += count;
+        }
+
         public void process(double value, long expireMillis) {
             this.expireMillis = expireMillis;
             if (value < min) {
@@ -15,6 +15,7 @@ import org.yamcs.YamcsServerInstance;
 import org.yamcs.api.Observer;
 import org.yamcs.cfdp.CfdpFileTransfer;
 import org.yamcs.cfdp.CfdpTransactionId;
+import org.yamcs.cfdp.OngoingCfdpTransfer;
 import org.yamcs.filetransfer.FileTransfer;
 import org.yamcs.filetransfer.TransferMonitor;
 import org.yamcs.filetransfer.TransferOptions;
@@ -34,6 +35,7 @@ import org.yamcs.protobuf.ListTransfersRequest;
 import org.yamcs.protobuf.ListTransfersResponse;
 import org.yamcs.protobuf.PauseTransferRequest;
 import org.yamcs.protobuf.ResumeTransferRequest;
+import org.yamcs.protobuf.SetUplinkRateRequest;
 import org.yamcs.protobuf.SubscribeTransfersRequest;
 import org.yamcs.protobuf.TransactionId;
 import org.yamcs.protobuf.TransferDirection;
@@ -220,6 +222,23 @@ public class FileTransferApi extends AbstractFileTransferApi<Context> {
         observer.complete(Empty.getDefaultInstance());
     }
 
+    @Override
+    public void setUplinkRate(Context ctx, SetUplinkRateRequest request, Observer<Empty> observer) {
+        FileTransferService ftService = verifyService(request.getInstance(),
+                request.hasServiceName() ? request.getServiceName() : null);
+        if (request.getRate() < 0) {
+            throw new BadRequestException("Invalid rate " + request.getRate());
+        }
+        try {
+            ftService.setUplinkRate(request.getEntity(), request.getRate());
+        } catch (InvalidRequestException e) {
+            throw new BadRequestException(e.getMessage());
+        } catch (UnsupportedOperationException e) {
+            throw new BadRequestException("The service does not support setting the uplink rate");
+        }
+        observer.complete(Empty.getDefaultInstance());
+    }
+
     @Override
     public void subscribeTransfers(Context ctx, SubscribeTransfersRequest request, Observer<TransferInfo> observer) {
         FileTransferService ftService = verifyService(request.getInstance(),
@@ -271,6 +290,13 @@ public class FileTransferApi extends AbstractFileTransferApi<Context> {
                 tib.setTransactionId(toTransactionId(txid));
             }
         }
+        if (transfer instanceof OngoingCfdpTransfer) {
+            OngoingCfdpTransfer ongoing = (OngoingCfdpTransfer) transfer;
+            tib.setPdusSent(ongoing.getPdusSent())
+                    .setPdusReceived(ongoing.getPdusReceived())
+                    .setThroughput(ongoing.getThroughput())
+                    .setPduRate(ongoing.getPduRate());
+        }
 
         if (transfer.getStartTime() != TimeEncoding.INVALID_INSTANT) {
             tib.setStartTime(TimeEncoding.toProtobufTimestamp(transfer.getStartTime()));
@@ -1,6 +1,7 @@
 package org.yamcs.http.api;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
@@ -9,6 +10,7 @@ import java.util.function.Consumer;
 import org.rocksdb.RocksDBException;
 import org.yamcs.Processor;
 import org.yamcs.YamcsServerInstance;
+import org.yamcs.api.HttpBody;
 import org.yamcs.api.Observer;
 import org.yamcs.http.BadRequestException;
 import org.yamcs.http.Context;
@@ -34,11 +36,14 @@ import org.yamcs.parameterarchive.ParameterId;
 import org.yamcs.parameterarchive.ParameterIdDb;
 import org.yamcs.parameterarchive.ParameterIdValueList;
 import org.yamcs.parameterarchive.ParameterRequest;
+import org.yamcs.parameterarchive.RollupSegment;
+import org.yamcs.parameterarchive.SingleParameterArchiveRetrieval;
 import org.yamcs.protobuf.AbstractParameterArchiveApi;
 import org.yamcs.protobuf.Archive.GetParameterSamplesRequest;
 import org.yamcs.protobuf.Archive.ListParameterHistoryRequest;
 import org.yamcs.protobuf.Archive.ListParameterHistoryResponse;
 import org.yamcs.protobuf.DeletePartitionsRequest;
+import org.yamcs.protobuf.ExportParameterArchiveRequest;
 import org.yamcs.protobuf.GetArchivedParameterInfoRequest;
 import org.yamcs.protobuf.GetParameterRangesRequest;
 import org.yamcs.protobuf.Pvalue.Ranges;
@@ -47,6 +52,7 @@ import org.yamcs.protobuf.RebuildRangeRequest;
 import org.yamcs.protobuf.Yamcs;
 import org.yamcs.protobuf.Yamcs.NamedObjectId;
 import org.yamcs.protobuf.Yamcs.StringMessage;
+import org.yamcs.security.ObjectPrivilegeType;
 import org.yamcs.security.SystemPrivilege;
 import org.yamcs.utils.AggregateUtil;
 import org.yamcs.utils.DecodingException;
@@ -192,8 +198,18 @@ public class ParameterArchiveApi extends AbstractParameterArchiveApi<Context> {
 
         ParameterRequest pr = new ParameterRequest(start, stop, true, true, false, true);
         SingleParameterRetriever spdr = new SingleParameterRetriever(parchive, pcache, pid, pr);
+        // use the coarsest pre-aggregated level having buckets not larger than the samples; without stored rollups
+        // the values are decoded anyway and the downsampler is more accurate
+        int rollupLevel = -1;
+        if (parchive.isRollupsEnabled()) {
+            rollupLevel = RollupSegment.getLevel((stop - start) / Math.max(1, sampleCount));
+        }
         try {
-            spdr.retrieve(sampler);
+            if (rollupLevel >= 0) {
+                spdr.retrieveRollups(rollupLevel, sampler::process, sampler);
+            } else {
+                spdr.retrieve(sampler);
+            }
         } catch (IOException e) {
             log.warn("Received exception during parameter retrieval", e);
             throw new InternalServerErrorException(e.getMessage());
@@ -372,6 +388,74 @@ public class ParameterArchiveApi extends AbstractParameterArchiveApi<Context> {
         observer.complete(resultb.build());
     }
 
+    @Override
+    public void exportParameterArchive(Context ctx, ExportParameterArchiveRequest request,
+            Observer<HttpBody> observer) {
+        YamcsServerInstance ysi = ManagementApi.verifyInstanceObj(request.getInstance());
+        XtceDb mdb = XtceDbFactory.getInstance(ysi.getName());
+        ParameterArchive parchive = getParameterArchive(ysi);
+
+        long start = 0;
+        if (request.hasStart()) {
+            start = TimeEncoding.fromProtobufTimestamp(request.getStart());
+        }
+        long stop = TimeEncoding.getWallclockTime();
+        if (request.hasStop()) {
+            stop = TimeEncoding.fromProtobufTimestamp(request.getStop());
+        }
+
+        List<String> names = new ArrayList<>();
+        for (String name : request.getParametersList()) {
+            names.add(MdbApi.verifyParameterWithId(ctx, mdb, name).getQualifiedName());
+        }
+        ParameterIdDb piddb = parchive.getParameterIdDb();
+        if (names.isEmpty()) {
+            // only the parameters having values in the archive, instead of one retrieval for each MDB parameter
+            for (String qn : piddb.getParameterFqns()) {
+                if (ctx.user.hasObjectPrivilege(ObjectPrivilegeType.ReadParameter, qn)) {
+                    names.add(qn);
+                }
+            }
+        }
+
+        ParameterArchiveExporter.Format format = ParameterArchiveExporter.Format.CSV;
+        if (request.hasFormat()) {
+            try {
+                format = ParameterArchiveExporter.Format.valueOf(request.getFormat().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unexpected value for parameter 'format': " + request.getFormat());
+            }
+        }
+        boolean addRaw = false;
+        for (String extra : request.getExtraList()) {
+            if (extra.equals("raw")) {
+                addRaw = true;
+            } else {
+                throw new BadRequestException("Unexpected option for parameter 'extra': " + extra);
+            }
+        }
+
+        String filename = format == ParameterArchiveExporter.Format.CSV ? "parameter-data.csv" : "parameter-data.pb";
+        ParameterArchiveExporter exporter = new ParameterArchiveExporter(observer, format, addRaw, filename);
+        ParameterRequest pr = new ParameterRequest(start, stop, true, true, addRaw, false);
+        try {
+            for (String qn : names) {
+                if (piddb.get(qn) == null) {
+                    continue;
+                }
+                exporter.setParameter(qn);
+                new SingleParameterArchiveRetrieval(parchive, qn, pr).retrieve(exporter);
+            }
+        } catch (ConsumerAbortException e) {
+            log.debug("Parameter archive export cancelled");
+        } catch (RocksDBException | IOException e) {
+            log.warn("Received exception during parameter archive export", e);
+            observer.completeExceptionally(e);
+            return;
+        }
+        observer.complete();
+    }
+
     private ParameterArchive getParameterArchive(YamcsServerInstance ysi) throws BadRequestException {
         List<ParameterArchive> l = ysi.getServices(ParameterArchive.class);
 
@@ -0,0 +1,433 @@
+package org.yamcs.http.api;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.yamcs.api.HttpBody;
+import org.yamcs.api.Observer;
+import org.yamcs.http.MediaType;
+import org.yamcs.parameter.ValueArray;
+import org.yamcs.parameterarchive.ConsumerAbortException;
+import org.yamcs.parameterarchive.ParameterValueArray;
+import org.yamcs.protobuf.ParameterColumn;
+import org.yamcs.utils.TimeEncoding;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.UnsafeByteOperations;
+import com.google.protobuf.WireFormat;
+
+/**
+ * Writes the value arrays retrieved from the parameter archive to a stream of {@link HttpBody} messages, either as CSV
+ * or as length-delimited {@link ParameterColumn} messages.
+ * <p>
+ * The values are encoded directly from the primitive, string and byte arrays, without creating an object for each
+ * value. In CSV the date and time of day are formatted once for each second of data. Each array is encoded into one
+ * byte array which is passed to the observer without copying. The HTTP observer copies it into a
+ * pooled buffer and blocks while the channel is not writable, so the memory usage does not depend on the size of the
+ * export.
+ */
+public class ParameterArchiveExporter implements Consumer<ParameterValueArray> {
+
+    public enum Format {
+        CSV, PROTOBUF
+    }
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final Observer<HttpBody> observer;
+    private final Format format;
+    private final boolean addRaw;
+    private final TimeFormatter timeFormatter = new TimeFormatter();
+    private final TimeFormatter valueTimeFormatter = new TimeFormatter();
+    private String parameterName;
+
+    public ParameterArchiveExporter(Observer<HttpBody> observer, Format format, boolean addRaw, String filename) {
+        this.observer = observer;
+        this.format = format;
+        this.addRaw = addRaw;
+
+        HttpBody.Builder metadata = HttpBody.newBuilder().setFilename(filename);
+        if (format == Format.CSV) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Parameter\tGeneration Time\tEngineering Value");
+            if (addRaw) {
+                sb.append("\tRaw Value");
+            }
+            sb.append("\n");
+            metadata.setContentType(MediaType.CSV.toString())
+                    .setData(UnsafeByteOperations.unsafeWrap(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } else {
+            metadata.setContentType(MediaType.PROTOBUF.toString());
+        }
+        observer.next(metadata.build());
+    }
+
+    /**
+     * Sets the name of the parameter for which the next arrays are retrieved.
+     */
+    public void setParameter(String parameterName) {
+        this.parameterName = parameterName;
+    }
+
+    @Override
+    public void accept(ParameterValueArray pva) {
+        if (observer.isCancelled()) {
+            throw new ConsumerAbortException();
+        }
+        if (pva.size() == 0) {
+            return;
+        }
+        byte[] data;
+        if (format == Format.CSV) {
+            data = toCsv(pva);
+        } else {
+            try {
+                data = toProtobuf(pva);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        observer.next(HttpBody.newBuilder().setData(UnsafeByteOperations.unsafeWrap(data)).build());
+    }
+
+    private byte[] toCsv(ParameterValueArray pva) {
+        long[] timestamps = pva.getTimestamps();
+        ValueArray engValues = pva.getEngValues();
+        ValueArray rawValues = addRaw ? pva.getRawValues() : null;
+
+        StringBuilder sb = new StringBuilder(timestamps.length * (parameterName.length() + 48));
+        for (int i = 0; i < timestamps.length; i++) {
+            sb.append(parameterName).append('\t');
+            timeFormatter.append(sb, timestamps[i]);
+            sb.append('\t');
+            if (engValues != null) {
+                appendValue(sb, engValues, i);
+            }
+            if (addRaw) {
+                sb.append('\t');
+                if (rawValues != null) {
+                    appendValue(sb, rawValues, i);
+                }
+            }
+            sb.append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void appendValue(StringBuilder sb, ValueArray values, int idx) {
+        switch (values.getType()) {
+        case DOUBLE:
+            sb.append(values.getDoubleArray()[idx]);
+            break;
+        case FLOAT:
+            sb.append(values.getFloatArray()[idx]);
+            break;
+        case SINT32:
+            sb.append(values.getIntArray()[idx]);
+            break;
+        case UINT32:
+            sb.append(Integer.toUnsignedLong(values.getIntArray()[idx]));
+            break;
+        case SINT64:
+            sb.append(values.getLongArray()[idx]);
+            break;
+        case UINT64:
+            appendUnsigned(sb, values.getLongArray()[idx]);
+            break;
+        case TIMESTAMP:
+            valueTimeFormatter.append(sb, values.getLongArray()[idx]);
+            break;
+        case BOOLEAN:
+            sb.append(values.getBoolean(idx));
+            break;
+        case STRING:
+        case ENUMERATED:
+            sb.append(values.getString(idx));
+            break;
+        case BINARY:
+            appendHex(sb, values.getBinary(idx));
+            break;
+        default:
+            throw new IllegalStateException("Unexpected type " + values.getType());
+        }
+    }
+
+    private static void appendUnsigned(StringBuilder sb, long x) {
+        if (x >= 0) {
+            sb.append(x);
+        } else {
+            long q = (x >>> 1) / 5;
+            sb.append(q).append(x - q * 10);
+        }
+    }
+
+    private static void appendHex(StringBuilder sb, byte[] b) {
+        for (byte x : b) {
+            sb.append(HEX_DIGITS[(x >> 4) & 0xF]).append(HEX_DIGITS[x & 0xF]);
+        }
+    }
+
+    private byte[] toProtobuf(ParameterValueArray pva) throws IOException {
+        long[] timestamps = pva.getTimestamps();
+        long[] times = new long[timestamps.length];
+        for (int i = 0; i < timestamps.length; i++) {
+            times[i] = TimeEncoding.toUnixMillisec(timestamps[i]);
+        }
+        ValueArray engValues = pva.getEngValues();
+        ValueArray rawValues = addRaw ? pva.getRawValues() : null;
+
+        int engSize = engValues == null ? 0 : getColumnSize(times, engValues, false);
+        int rawSize = rawValues == null ? 0 : getColumnSize(times, rawValues, true);
+        int size = 0;
+        if (engValues != null) {
+            size += CodedOutputStream.computeUInt32SizeNoTag(engSize) + engSize;
+        }
+        if (rawValues != null) {
+            size += CodedOutputStream.computeUInt32SizeNoTag(rawSize) + rawSize;
+        }
+        byte[] data = new byte[size];
+        CodedOutputStream out = CodedOutputStream.newInstance(data);
+        if (engValues != null) {
+            out.writeUInt32NoTag(engSize);
+            writeColumn(out, times, engValues, false);
+        }
+        if (rawValues != null) {
+            out.writeUInt32NoTag(rawSize);
+            writeColumn(out, times, rawValues, true);
+        }
+        out.checkNoSpaceLeft();
+        return data;
+    }
+
+    private int getColumnSize(long[] times, ValueArray values, boolean raw) {
+        int size = CodedOutputStream.computeStringSize(ParameterColumn.PARAMETER_FIELD_NUMBER, parameterName)
+                + CodedOutputStream.computeEnumSize(ParameterColumn.TYPE_FIELD_NUMBER, values.getType().getNumber());
+        int timesSize = 0;
+        for (long t : times) {
+            timesSize += CodedOutputStream.computeInt64SizeNoTag(t);
+        }
+        size += getPackedSize(ParameterColumn.TIME_FIELD_NUMBER, timesSize);
+
+        int n = values.size();
+        switch (values.getType()) {
+        case DOUBLE:
+        case FLOAT:
+            size += getPackedSize(ParameterColumn.DOUBLEVALUE_FIELD_NUMBER, 8 * n);
+            break;
+        case SINT32:
+            int[] ia = values.getIntArray();
+            int s = 0;
+            for (int i = 0; i < n; i++) {
+                s += CodedOutputStream.computeSInt64SizeNoTag(ia[i]);
+            }
+            size += getPackedSize(ParameterColumn.SINT64VALUE_FIELD_NUMBER, s);
+            break;
+        case UINT32:
+            ia = values.getIntArray();
+            s = 0;
+            for (int i = 0; i < n; i++) {
+                s += CodedOutputStream.computeUInt64SizeNoTag(Integer.toUnsignedLong(ia[i]));
+            }
+            size += getPackedSize(ParameterColumn.UINT64VALUE_FIELD_NUMBER, s);
+            break;
+        case SINT64:
+            long[] la = values.getLongArray();
+            s = 0;
+            for (int i = 0; i < n; i++) {
+                s += CodedOutputStream.computeSInt64SizeNoTag(la[i]);
+            }
+            size += getPackedSize(ParameterColumn.SINT64VALUE_FIELD_NUMBER, s);
+            break;
+        case UINT64:
+            la = values.getLongArray();
+            s = 0;
+            for (int i = 0; i < n; i++) {
+                s += CodedOutputStream.computeUInt64SizeNoTag(la[i]);
+            }
+            size += getPackedSize(ParameterColumn.UINT64VALUE_FIELD_NUMBER, s);
+            break;
+        case TIMESTAMP:
+            la = values.getLongArray();
+            s = 0;
+            for (int i = 0; i < n; i++) {
+                s += CodedOutputStream.computeInt64SizeNoTag(TimeEncoding.toUnixMillisec(la[i]));
+            }
+            size += getPackedSize(ParameterColumn.TIMESTAMPVALUE_FIELD_NUMBER, s);
+            break;
+        case BOOLEAN:
+            size += getPackedSize(ParameterColumn.BOOLEANVALUE_FIELD_NUMBER, n);
+            break;
+        case STRING:
+        case ENUMERATED:
+            for (int i = 0; i < n; i++) {
+                size += CodedOutputStream.computeStringSize(ParameterColumn.STRINGVALUE_FIELD_NUMBER,
+                        values.getString(i));
+            }
+            break;
+        case BINARY:
+            for (int i = 0; i < n; i++) {
+                size += CodedOutputStream.computeByteArraySize(ParameterColumn.BINARYVALUE_FIELD_NUMBER,
+                        values.getBinary(i));
+            }
+            break;
+        default:
+            throw new IllegalStateException("Unexpected type " + values.getType());
+        }
+        if (raw) {
+            size += CodedOutputStream.computeBoolSize(ParameterColumn.RAW_FIELD_NUMBER, true);
+        }
+        return size;
+    }
+
+    private void writeColumn(CodedOutputStream out, long[] times, ValueArray values, boolean raw) throws IOException {
+        out.writeString(ParameterColumn.PARAMETER_FIELD_NUMBER, parameterName);
+        out.writeEnum(ParameterColumn.TYPE_FIELD_NUMBER, values.getType().getNumber());
+        int timesSize = 0;
+        for (long t : times) {
+            timesSize += CodedOutputStream.computeInt64SizeNoTag(t);
+        }
+        writePackedHeader(out, ParameterColumn.TIME_FIELD_NUMBER, timesSize);
+        for (long t : times) {
+            out.writeInt64NoTag(t);
+        }
+
+        int n = values.size();
+        switch (values.getType()) {
+        case DOUBLE:
+            writePackedHeader(out, ParameterColumn.DOUBLEVALUE_FIELD_NUMBER, 8 * n);
+            double[] da = values.getDoubleArray();
+            for (int i = 0; i < n; i++) {
+                out.writeDoubleNoTag(da[i]);
+            }
+            break;
+        case FLOAT:
+            writePackedHeader(out, ParameterColumn.DOUBLEVALUE_FIELD_NUMBER, 8 * n);
+            float[] fa = values.getFloatArray();
+            for (int i = 0; i < n; i++) {
+                out.writeDoubleNoTag(fa[i]);
+            }
+            break;
+        case SINT32:
+            int[] ia = values.getIntArray();
+            int s = 0;
+            for (int i = 0; i < n; i++) {
+                s += CodedOutputStream.computeSInt64SizeNoTag(ia[i]);
+            }
+            writePackedHeader(out, ParameterColumn.SINT64VALUE_FIELD_NUMBER, s);
+            for (int i = 0; i < n; i++) {
+                out.writeSInt64NoTag(ia[i]);
+            }
+            break;
+        case UINT32:
+            ia = values.getIntArray();
+            s = 0;
+            for (int i = 0; i < n; i++) {
+                s += CodedOutputStream.computeUInt64SizeNoTag(Integer.toUnsignedLong(ia[i]));
+            }
+            writePackedHeader(out, ParameterColumn.UINT64VALUE_FIELD_NUMBER, s);
+            for (int i = 0; i < n; i++) {
+                out.writeUInt64NoTag(Integer.toUnsignedLong(ia[i]));
+            }
+            break;
+        case SINT64:
+            long[] la = values.getLongArray();
+            s = 0;
+            for (int i = 0; i < n; i++) {
+                s += CodedOutputStream.computeSInt64SizeNoTag(la[i]);
+            }
+            writePackedHeader(out, ParameterColumn.SINT64VALUE_FIELD_NUMBER, s);
+            for (int i = 0; i < n; i++) {
+                out.writeSInt64NoTag(la[i]);
+            }
+            break;
+        case UINT64:
+            la = values.getLongArray();
+            s = 0;
+            for (int i = 0; i < n; i++) {
+                s += CodedOutputStream.computeUInt64SizeNoTag(la[i]);
+            }
+            writePackedHeader(out, ParameterColumn.UINT64VALUE_FIELD_NUMBER, s);
+            for (int i = 0; i < n; i++) {
+                out.writeUInt64NoTag(la[i]);
+            }
+            break;
+        case TIMESTAMP:
+            la = values.getLongArray();
+            s = 0;
+            for (int i = 0; i < n; i++) {
+                s += CodedOutputStream.computeInt64SizeNoTag(TimeEncoding.toUnixMillisec(la[i]));
+            }
+            writePackedHeader(out, ParameterColumn.TIMESTAMPVALUE_FIELD_NUMBER, s);
+            for (int i = 0; i < n; i++) {
+                out.writeInt64NoTag(TimeEncoding.toUnixMillisec(la[i]));
+            }
+            break;
+        case BOOLEAN:
+            writePackedHeader(out, ParameterColumn.BOOLEANVALUE_FIELD_NUMBER, n);
+            for (int i = 0; i < n; i++) {
+                out.writeBoolNoTag(values.getBoolean(i));
+            }
+            break;
+        case STRING:
+        case ENUMERATED:
+            for (int i = 0; i < n; i++) {
+                out.writeString(ParameterColumn.STRINGVALUE_FIELD_NUMBER, values.getString(i));
+            }
+            break;
+        case BINARY:
+            for (int i = 0; i < n; i++) {
+                out.writeByteArray(ParameterColumn.BINARYVALUE_FIELD_NUMBER, values.getBinary(i));
+            }
+            break;
+        default:
+            throw new IllegalStateException("Unexpected type " + values.getType());
+        }
+        if (raw) {
+            out.writeBool(ParameterColumn.RAW_FIELD_NUMBER, true);
+        }
+    }
+
+    private static int getPackedSize(int fieldNumber, int dataSize) {
+        if (dataSize == 0) {
+            return 0;
+        }
+        return CodedOutputStream.computeTagSize(fieldNumber) + CodedOutputStream.computeUInt32SizeNoTag(dataSize)
+                + dataSize;
+    }
+
+    private static void writePackedHeader(CodedOutputStream out, int fieldNumber, int dataSize) throws IOException {
+        if (dataSize > 0) {
+            out.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeUInt32NoTag(dataSize);
+        }
+    }
+
+    /**
+     * Formats the times like {@link TimeEncoding#toString(long)}, reusing the date and time of day of the previous
+     * time if it is in the same second.
+     */
+    static class TimeFormatter {
+        private long second = Long.MIN_VALUE;
+        private String prefix;
+
+        void append(StringBuilder sb, long instant) {
+            long s = Math.floorDiv(instant, 1000);
+            if (s != second) {
+                String str = TimeEncoding.toString(s * 1000);
+                prefix = str.substring(0, str.length() - 4); // without the "000Z"
+                second = s;
+            }
+            int millis = (int) Math.floorMod(instant, 1000L);
+            sb.append(prefix);
+            if (millis < 100) {
+                sb.append('0');
+            }
+            if (millis < 10) {
+                sb.append('0');
+            }
+            sb.append(millis).append('Z');
+        }
+    }
+}
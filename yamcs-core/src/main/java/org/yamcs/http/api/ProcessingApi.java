@@ -29,6 +29,7 @@ import org.yamcs.http.ForbiddenException;
 import org.yamcs.http.HttpException;
 import org.yamcs.http.InternalServerErrorException;
 import org.yamcs.http.NotFoundException;
+import org.yamcs.http.SharedParameterValueCache;
 import org.yamcs.management.ManagementGpbHelper;
 import org.yamcs.management.ManagementListener;
 import org.yamcs.management.ManagementService;
@@ -74,10 +75,17 @@ import org.yamcs.xtce.Parameter;
 import org.yamcs.xtce.XtceDb;
 import org.yamcs.xtceproc.XtceDbFactory;
 
+import com.google.common.cache.CacheBuilder;
 import com.google.protobuf.Empty;
 
 public class ProcessingApi extends AbstractProcessingApi<Context> {
 
+    // the encodings of the parameter values shared between the subscribers of each processor
+    private final Map<Processor, SharedParameterValueCache> sharedValueCaches = CacheBuilder.newBuilder()
+            .weakKeys()
+            .<Processor, SharedParameterValueCache> build()
+            .asMap();
+
     @Override
     public void listProcessorTypes(Context ctx, Empty request, Observer<ListProcessorTypesResponse> observer) {
         ListProcessorTypesResponse.Builder response = ListProcessorTypesResponse.newBuilder();
@@ -281,7 +289,8 @@ public class ProcessingApi extends AbstractProcessingApi<Context> {
     @Override
     public Observer<SubscribeParametersRequest> subscribeParameters(Context ctx,
             Observer<SubscribeParametersData> observer) {
-        SubscribeParameterObserver clientObserver = new SubscribeParameterObserver(ctx.user, observer);
+        SubscribeParameterObserver clientObserver = new SubscribeParameterObserver(ctx.user, observer,
+                processor -> sharedValueCaches.computeIfAbsent(processor, p -> new SharedParameterValueCache()));
         observer.setCancelHandler(() -> clientObserver.complete());
         return clientObserver;
     }
@@ -22,6 +22,8 @@ import org.yamcs.replication.ReplicationMaster;
 import org.yamcs.replication.ReplicationMaster.SlaveServer;
 import org.yamcs.replication.ReplicationServer;
 import org.yamcs.replication.ReplicationSlave;
+import org.yamcs.replication.ReplicationSlave.SlaveChannelHandler;
+import org.yamcs.replication.ReplicationStats;
 
 import com.google.protobuf.Empty;
 
@@ -90,10 +92,12 @@ public class ReplicationApi extends AbstractReplicationApi<Context> {
                     if (ch != null && ch.isActive()) {
                         InetSocketAddress address = (InetSocketAddress) ch.localAddress();
                         masterb.setLocalAddress(address.getAddress().getHostAddress() + ":" + address.getPort());
-                    }
-                    MasterChannelHandler handler = ch.pipeline().get(MasterChannelHandler.class);
-                    if (handler != null) {
-                        masterb.setNextTx(handler.getNextTxId());
+                        MasterChannelHandler handler = ch.pipeline().get(MasterChannelHandler.class);
+                        if (handler != null) {
+                            masterb.setNextTx(handler.getNextTxId());
+                            masterb.setLag(handler.getLag());
+                            addStats(masterb, handler.getStats());
+                        }
                     }
                 }
 
@@ -119,6 +123,8 @@ public class ReplicationApi extends AbstractReplicationApi<Context> {
                     MasterChannelHandler handler = ch.pipeline().get(MasterChannelHandler.class);
                     if (handler != null) {
                         masterb.setNextTx(handler.getNextTxId());
+                        masterb.setLag(handler.getLag());
+                        addStats(masterb, handler.getStats());
                     }
 
                     result.add(masterb.build());
@@ -151,6 +157,10 @@ public class ReplicationApi extends AbstractReplicationApi<Context> {
                 if (ch != null && ch.isActive()) {
                     InetSocketAddress address = (InetSocketAddress) ch.localAddress();
                     slaveb.setLocalAddress(address.getAddress().getHostAddress() + ":" + address.getPort());
+                    SlaveChannelHandler handler = ch.pipeline().get(SlaveChannelHandler.class);
+                    if (handler != null) {
+                        addStats(slaveb, handler.getStats());
+                    }
                 }
             }
 
@@ -172,6 +182,11 @@ public class ReplicationApi extends AbstractReplicationApi<Context> {
                     address = (InetSocketAddress) ch.remoteAddress();
                     slaveb.setRemoteAddress(address.getAddress().getHostAddress() + ":" + address.getPort());
 
+                    SlaveChannelHandler handler = ch.pipeline().get(SlaveChannelHandler.class);
+                    if (handler != null) {
+                        addStats(slaveb, handler.getStats());
+                    }
+
                     result.add(slaveb.build());
                 }
             }
@@ -180,6 +195,22 @@ public class ReplicationApi extends AbstractReplicationApi<Context> {
         return result;
     }
 
+    private static void addStats(ReplicationMasterInfo.Builder masterb, ReplicationStats stats) {
+        masterb.setCompression(stats.getCompression().name())
+                .setRawBytes(stats.getRawBytes())
+                .setWireBytes(stats.getWireBytes())
+                .setCompressionRatio(stats.getCompressionRatio())
+                .setThroughput(stats.getThroughput());
+    }
+
+    private static void addStats(ReplicationSlaveInfo.Builder slaveb, ReplicationStats stats) {
+        slaveb.setCompression(stats.getCompression().name())
+                .setRawBytes(stats.getRawBytes())
+                .setWireBytes(stats.getWireBytes())
+                .setCompressionRatio(stats.getCompressionRatio())
+                .setThroughput(stats.getThroughput());
+    }
+
     private static ReplicationServer getReplicationServer() {
         YamcsServer yamcs = YamcsServer.getServer();
         List<ReplicationServer> replicationServers = yamcs.getGlobalServices(ReplicationServer.class);
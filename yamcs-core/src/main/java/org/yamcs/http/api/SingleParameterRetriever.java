@@ -14,6 +14,8 @@ import org.yamcs.parameter.ValueArray;
 import org.yamcs.parameterarchive.ParameterArchive;
 import org.yamcs.parameterarchive.ParameterRequest;
 import org.yamcs.parameterarchive.ParameterValueArray;
+import org.yamcs.parameterarchive.RollupRetrieval;
+import org.yamcs.parameterarchive.RollupSegment;
 import org.yamcs.parameterarchive.SingleParameterArchiveRetrieval;
 import org.yamcs.protobuf.Pvalue.ParameterStatus;
 import org.yamcs.utils.AggregateUtil;
@@ -81,15 +83,56 @@ public class SingleParameterRetriever {
             if(lastTime.getLong()!=Long.MAX_VALUE) {
                 start = lastTime.getLong();
             }
-            
-            List<ParameterValue> pvlist = cache.getAllValues(pid.getParameter(), start, spvr1.getStop());
-            if (pvlist != null) {
-                if(pid.getPath()!=null) {
-                    pvlist = extractMembers(pvlist, pid.getPath());
+            sendFromCache(start, spvr1.getStop(), consumer);
+        }
+    }
+
+    /**
+     * Retrieves the pre-aggregated values at the given rollup level from the parameter archive followed (in ascending
+     * order) by the values from the cache newer than the last value in the archive.
+     * 
+     * @param level
+     *            - the rollup level, see {@link RollupSegment#getLevel(long)}
+     * @param rollupConsumer
+     *            - receives the pre-aggregated values from the archive
+     * @param consumer
+     *            - receives the values from the cache
+     * @throws IOException
+     */
+    public void retrieveRollups(int level, Consumer<RollupSegment> rollupConsumer,
+            Consumer<ParameterValueArray> consumer) throws IOException {
+        RollupRetrieval rr = new RollupRetrieval(parchive, pid.getQualifiedName(), spvr.getStart(), spvr.getStop(),
+                level);
+        MutableLong lastTime = new MutableLong(Long.MIN_VALUE);
+        try {
+            rr.retrieve(rs -> {
+                if (rs.getLastTime() > lastTime.getLong()) {
+                    lastTime.setLong(rs.getLastTime());
                 }
-                pvlist = Lists.reverse(pvlist);
-                splitAndSend(pvlist, consumer);
+                rollupConsumer.accept(rs);
+            });
+        } catch (RocksDBException e) {
+            throw new IOException(e);
+        }
+        if (cache != null) {
+            long start = spvr.getStart();
+            if (lastTime.getLong() != Long.MIN_VALUE) {
+                start = lastTime.getLong();
+            }
+            if (start < spvr.getStop()) {
+                sendFromCache(start, spvr.getStop(), consumer);
+            }
+        }
+    }
+
+    private void sendFromCache(long start, long stop, Consumer<ParameterValueArray> consumer) {
+        List<ParameterValue> pvlist = cache.getAllValues(pid.getParameter(), start, stop);
+        if (pvlist != null) {
+            if(pid.getPath()!=null) {
+                pvlist = extractMembers(pvlist, pid.getPath());
             }
+            pvlist = Lists.reverse(pvlist);
+            splitAndSend(pvlist, consumer);
         }
     }
 
@@ -1,6 +1,7 @@
 package org.yamcs.http.api;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -10,12 +11,16 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import org.yamcs.InvalidIdentification;
 import org.yamcs.NoPermissionException;
 import org.yamcs.Processor;
 import org.yamcs.api.Observer;
 import org.yamcs.http.BadRequestException;
+import org.yamcs.http.SharedParameterValue;
+import org.yamcs.http.SharedParameterValueCache;
+import org.yamcs.http.SharedParameterValueObserver;
 import org.yamcs.logging.Log;
 import org.yamcs.parameter.ParameterRequestManager;
 import org.yamcs.parameter.ParameterValue;
@@ -35,6 +40,9 @@ public class SubscribeParameterObserver implements Observer<SubscribeParametersR
 
     private User user;
     private Observer<SubscribeParametersData> responseObserver;
+    // set if the response observer can receive the values in their encoding shared with the other subscribers
+    private SharedParameterValueObserver sharedValueObserver;
+    private Function<Processor, SharedParameterValueCache> sharedValueCacheProvider;
 
     private int subscriptionId = -1;
     private ParameterWithIdRequestHelper pidrm;
@@ -42,9 +50,12 @@ public class SubscribeParameterObserver implements Observer<SubscribeParametersR
     private ConcurrentMap<NamedObjectId, Integer> numericIdMap = new ConcurrentHashMap<>();
     private AtomicInteger numericIdGenerator = new AtomicInteger();
 
-    public SubscribeParameterObserver(User user, Observer<SubscribeParametersData> responseObserver) {
+    public SubscribeParameterObserver(User user, Observer<SubscribeParametersData> responseObserver,
+            Function<Processor, SharedParameterValueCache> sharedValueCacheProvider) {
         this.user = user;
         this.responseObserver = responseObserver;
+        this.sharedValueCacheProvider = sharedValueCacheProvider;
+        sharedValueObserver = responseObserver.getCapability(SharedParameterValueObserver.class);
     }
 
     @Override
@@ -52,19 +63,31 @@ public class SubscribeParameterObserver implements Observer<SubscribeParametersR
         if (pidrm == null) {
             Processor processor = ProcessingApi.verifyProcessor(request.getInstance(), request.getProcessor());
             ParameterRequestManager requestManager = processor.getParameterRequestManager();
+            SharedParameterValueCache sharedValueCache = sharedValueCacheProvider.apply(processor);
             pidrm = new ParameterWithIdRequestHelper(requestManager, (subscriptionId, params) -> {
                 if (params.isEmpty()) {
                     return;
                 }
-                SubscribeParametersData.Builder datab = SubscribeParametersData.newBuilder();
+                int[] numericIds = new int[params.size()];
+                SharedParameterValue[] values = new SharedParameterValue[params.size()];
+                int n = 0;
                 for (ParameterValueWithId pvwi : params) {
-                    ParameterValue pval = pvwi.getParameterValue();
                     Integer numericId = numericIdMap.get(pvwi.getId());
                     if (numericId != null) {
-                        datab.addValues(pval.toGpb(numericId));
+                        numericIds[n] = numericId;
+                        values[n] = sharedValueCache.get(pvwi.getParameterValue());
+                        n++;
                     }
                 }
-                responseObserver.next(datab.build());
+                if (n < numericIds.length) {
+                    numericIds = Arrays.copyOf(numericIds, n);
+                    values = Arrays.copyOf(values, n);
+                }
+                if (sharedValueObserver != null) {
+                    sharedValueObserver.nextParameterValues(numericIds, values);
+                } else {
+                    responseObserver.next(SharedParameterValue.toParameterData(numericIds, values));
+                }
             });
         }
 
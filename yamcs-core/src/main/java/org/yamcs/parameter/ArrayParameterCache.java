@@ -1,16 +1,14 @@
 package org.yamcs.parameter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
 
 import org.yamcs.logging.Log;
 import org.yamcs.protobuf.Pvalue.AcquisitionStatus;
@@ -25,16 +23,28 @@ import org.yamcs.xtce.Parameter;
  * {@link Value}).
  * <p>
  * It should consume less memory than {@link ParameterCacheImpl} in case of large number of parameter values.
+ * <p>
+ * The parameters delivered together (with the same generation time) are stored in the same
+ * {@link ParameterValueTable}. Each parameter id keeps a reference to the tables containing it and to the table
+ * containing its most recent value, such that the last value is found without looking at the other tables.
+ * <p>
+ * The updates are serialized; they do not allocate memory unless a new parameter or a new group of parameters is
+ * seen. The readers do not take any lock, they retry if the table has been modified while reading.
  *
  */
 public class ArrayParameterCache implements ParameterCache {
-    SimpleParameterIdMap pidMap = new SimpleParameterIdMap();
+    volatile SimpleParameterIdMap pidMap = new SimpleParameterIdMap();
     final Log log;
     long cacheStartTime = 0;
-    ConcurrentHashMap<SortedIntArray, ParameterValueTable> tables = new ConcurrentHashMap<>();
     final ConcurrentHashMap<Parameter, Boolean> parametersToCache;
     final ParameterCacheConfig cacheConfig;
 
+    // work arrays used by the update
+    private ParameterValue[] updatePvs = new ParameterValue[0];
+    private ParameterId[] updateIds = new ParameterId[0];
+    private int[] updateOrder = new int[0];
+    private int[] updateTmp = new int[0];
+
     ArrayParameterCache(String instance, ParameterCacheConfig cacheConfig) {
         log = new Log(this.getClass(), instance);
         this.cacheConfig = cacheConfig;
@@ -42,8 +52,10 @@ public class ArrayParameterCache implements ParameterCache {
     }
 
     @Override
-    public void update(Collection<ParameterValue> pvs) {
-        Map<Long, SortedParameterList> m = new HashMap<>();
+    public synchronized void update(Collection<ParameterValue> pvs) {
+        SimpleParameterIdMap idMap = pidMap;
+        ensureUpdateCapacity(pvs.size());
+        int n = 0;
         for (ParameterValue pv : pvs) {
             long t = pv.getGenerationTime();
             if (t < cacheStartTime) {
@@ -52,56 +64,174 @@ public class ArrayParameterCache implements ParameterCache {
             if (!(cacheConfig.cacheAll || parametersToCache.containsKey(pv.getParameter()))) {
                 continue;
             }
-            SortedParameterList l = m.get(t);
-            if (l == null) {
-                l = new SortedParameterList(pidMap);
-                m.put(t, l);
+            Value engValue = pv.getEngValue();
+            Value rawValue = pv.getRawValue();
+            Type engType = (engValue == null) ? null : engValue.getType();
+            Type rawType = (rawValue == null) ? null : rawValue.getType();
+
+            updatePvs[n] = pv;
+            updateIds[n] = idMap.createAndGet(pv.getParameter(), engType, rawType);
+            updateOrder[n] = n;
+            n++;
+        }
+        if (n == 0) {
+            return;
+        }
+        sortUpdate(n);
+
+        int from = 0;
+        while (from < n) {
+            long t = updatePvs[updateOrder[from]].getGenerationTime();
+            int to = from + 1;
+            while (to < n && updatePvs[updateOrder[to]].getGenerationTime() == t) {
+                to++;
             }
-            l.add(pv);
+            addToCache(t, from, removeDuplicates(from, to));
+            from = to;
         }
-        long maxTimestamp = -1;
-        for (Map.Entry<Long, SortedParameterList> entry : m.entrySet()) {
-            long t = entry.getKey();
-            SortedParameterList pvList = entry.getValue();
-            addToCache(t, pvList);
-            if (t > maxTimestamp) {
-                maxTimestamp = t;
+        // do not keep references to the values
+        Arrays.fill(updatePvs, 0, n, null);
+    }
+
+    private void ensureUpdateCapacity(int n) {
+        if (updatePvs.length < n) {
+            updatePvs = new ParameterValue[n];
+            updateIds = new ParameterId[n];
+            updateOrder = new int[n];
+            updateTmp = new int[n];
+        }
+    }
+
+    /**
+     * sorts the first n elements of the updateOrder by generation time and parameter id, keeping the order of the
+     * elements which are equal
+     */
+    private void sortUpdate(int n) {
+        boolean sorted = true;
+        for (int i = 1; i < n; i++) {
+            if (compareUpdate(updateOrder[i - 1], updateOrder[i]) > 0) {
+                sorted = false;
+                break;
             }
         }
+        if (sorted) {
+            return;
+        }
+        // bottom-up merge sort
+        int[] src = updateOrder;
+        int[] dst = updateTmp;
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + 2 * width, n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi) {
+                    dst[k++] = compareUpdate(src[j], src[i]) < 0 ? src[j++] : src[i++];
+                }
+                while (i < mid) {
+                    dst[k++] = src[i++];
+                }
+                while (j < hi) {
+                    dst[k++] = src[j++];
+                }
+            }
+            int[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        if (src != updateOrder) {
+            System.arraycopy(src, 0, updateOrder, 0, n);
+        }
+    }
+
+    private int compareUpdate(int i, int j) {
+        int c = Long.compare(updatePvs[i].getGenerationTime(), updatePvs[j].getGenerationTime());
+        if (c == 0) {
+            c = Integer.compare(updateIds[i].id, updateIds[j].id);
+        }
+        return c;
+    }
+
+    /**
+     * if the same parameter appears multiple times with the same generation time, keep only the last value
+     * 
+     * @return the new end of the range
+     */
+    private int removeDuplicates(int from, int to) {
+        int w = from;
+        for (int k = from; k < to; k++) {
+            if (k + 1 < to && updateIds[updateOrder[k]] == updateIds[updateOrder[k + 1]]) {
+                continue;
+            }
+            updateOrder[w++] = updateOrder[k];
+        }
+        return w;
     }
 
-    private void addToCache(long t, SortedParameterList pvList) {
-        SortedIntArray sia = pvList.getParameterIdArray();
-        ParameterValueTable table = tables.get(sia);
+    private void addToCache(long t, int from, int to) {
+        ParameterValueTable table = findTable(from, to);
+        boolean newTable = false;
         if (table == null) {
-            table = new ParameterValueTable(sia, cacheConfig.maxDuration, cacheConfig.maxNumEntries);
-            ParameterValueTable table1 = tables.putIfAbsent(sia, table);
-            if (table1 != null) {
-                table = table1;
+            int[] a = new int[to - from];
+            for (int k = from; k < to; k++) {
+                a[k - from] = updateIds[updateOrder[k]].id;
             }
+            table = new ParameterValueTable(new SortedIntArray(a), cacheConfig.maxDuration,
+                    cacheConfig.maxNumEntries);
+            newTable = true;
         }
+        table.add(t, updatePvs, updateOrder, from, to);
 
-        table.add(t, pvList.getParameterValueList());
+        for (int k = from; k < to; k++) {
+            ParameterId pid = updateIds[updateOrder[k]];
+            if (newTable) {
+                pid.addTable(table);
+            }
+            pid.updateLatestTable(table);
+        }
+    }
+
+    /**
+     * finds the table containing exactly the parameters in the update range
+     */
+    private ParameterValueTable findTable(int from, int to) {
+        int n = to - from;
+        for (ParameterValueTable table : updateIds[updateOrder[from]].tables) {
+            if (table.numParams != n) {
+                continue;
+            }
+            boolean match = true;
+            for (int k = 0; k < n; k++) {
+                if (table.pids.get(k) != updateIds[updateOrder[from + k]].id) {
+                    match = false;
+                    break;
+                }
+            }
+            if (match) {
+                return table;
+            }
+        }
+        return null;
     }
 
     @Override
     public ParameterValue getLastValue(Parameter pdef) {
-        List<ParameterId> pidlist = getParameterIds(pdef);
+        ParameterId[] pids = getParameterIds(pdef);
+        if (pids == null) {
+            return null;
+        }
         ParameterValue result = null;
         long tmax = Long.MIN_VALUE;
-        for (ParameterId p : pidlist) {
-            SortedIntArray sia = findLatestTableContaining(p.id);
-            if (sia == null) {
+        for (ParameterId p : pids) {
+            ParameterValueTable table = p.latestTable;
+            if (table == null) {
                 continue;
             }
-
-            ParameterValueTable table = tables.get(sia);
-            long t = table.getLastTime();
+            ParameterValue pv = table.getLastValue(p);
+            long t = pv.getGenerationTime();
             if (t < tmax) {
                 continue;
             }
-
-            ParameterValue pv = table.getLastValue(p);
             if (t == tmax) {
                 if (result != null && result.getAcquisitionTime() < pv.getAcquisitionTime()) {
                     result = pv;
@@ -109,71 +239,41 @@ public class ArrayParameterCache implements ParameterCache {
             } else {
                 result = pv;
             }
-
             tmax = t;
         }
 
         return result;
-
-    }
-
-    public ParameterValue getLastValue1(Parameter p) {
-        Map<Integer, Integer> m = pidMap.get(p);
-        if (m == null) {
-            return null;
-        }
-        ParameterValue pvr = null;
-        for (Map.Entry<Integer, Integer> me : m.entrySet()) {
-            int type = me.getKey();
-            int pid = me.getValue();
-
-            for (Map.Entry<SortedIntArray, ParameterValueTable> me1 : tables.entrySet()) {
-                SortedIntArray sai = me1.getKey();
-                int pos = sai.search(pid);
-                if (pos < 0) {
-                    continue;
-                }
-                ParameterValueTable table = me1.getValue();
-                long t = table.getLastTime();
-                if (pvr != null && pvr.getGenerationTime() >= t) {
-                    continue;
-                }
-                pvr = table.getLastValue(new ParameterId(p, pid,
-                        SimpleParameterIdMap.getRawType(type), SimpleParameterIdMap.getEngType(type)));
-            }
-        }
-
-        return pvr;
     }
 
     @Override
     public List<ParameterValue> getValues(List<Parameter> plist) {
-        List<ParameterId> pidlist = getParameterIds(plist);
+        List<ParameterId> pidlist = new ArrayList<>(plist.size());
+        for (Parameter pdef : plist) {
+            ParameterId[] pids = getParameterIds(pdef);
+            if (pids != null) {
+                Collections.addAll(pidlist, pids);
+            }
+        }
 
         List<ParameterValue> result = new ArrayList<>(plist.size());
-
+        // the parameters contained in the same table are retrieved from the same row
+        boolean[] retrieved = new boolean[pidlist.size()];
         for (int i = 0; i < pidlist.size(); i++) {
-            ParameterId p = pidlist.get(i);
-            if (p == null) {
+            if (retrieved[i]) {
                 continue;
             }
-            pidlist.set(i, null);
-
-            SortedIntArray sai = findLatestTableContaining(p.id);
-            if (sai == null) {
+            ParameterId p = pidlist.get(i);
+            ParameterValueTable table = p.latestTable;
+            if (table == null) {
                 continue;
             }
-            ParameterValueTable table = tables.get(sai);
             List<ParameterId> sublist = new ArrayList<>();
             sublist.add(p);
             for (int j = i + 1; j < pidlist.size(); j++) {
                 ParameterId p1 = pidlist.get(j);
-                if (p1 == null) {
-                    continue;
-                }
-                if (sai.contains(p1.id)) {
+                if (!retrieved[j] && table.pids.contains(p1.id)) {
                     sublist.add(p1);
-                    pidlist.set(j, null);
+                    retrieved[j] = true;
                 }
             }
             table.retrieveLastValues(sublist, result);
@@ -190,20 +290,6 @@ public class ArrayParameterCache implements ParameterCache {
         return result;
     }
 
-    private SortedIntArray findLatestTableContaining(int pid) {
-        long tmax = Long.MIN_VALUE;
-        SortedIntArray result = null;
-        for (Map.Entry<SortedIntArray, ParameterValueTable> me : tables.entrySet()) {
-            SortedIntArray sai = me.getKey();
-            long t = me.getValue().getLastTime();
-            if (sai.contains(pid) && t > tmax) {
-                result = sai;
-                tmax = t;
-            }
-        }
-        return result;
-    }
-
     @Override
     public List<ParameterValue> getAllValues(Parameter pdef) {
         return getAllValues(pdef, Long.MIN_VALUE, Long.MAX_VALUE);
@@ -211,21 +297,24 @@ public class ArrayParameterCache implements ParameterCache {
 
     @Override
     public List<ParameterValue> getAllValues(Parameter pdef, long start, long stop) {
-        List<ParameterId> pidlist = getParameterIds(pdef);
+        ParameterId[] pids = getParameterIds(pdef);
+        if (pids == null) {
+            return null;
+        }
         List<ParameterValue> result = new ArrayList<>();
-        boolean needsSorting = false;
-        for (ParameterId p : pidlist) {
-            for (Map.Entry<SortedIntArray, ParameterValueTable> me : tables.entrySet()) {
-                SortedIntArray sia = me.getKey();
-                if (sia.contains(p.id)) {
-                    needsSorting = true;
-                    me.getValue().retrieveAll(p, start, stop, result);
+        int numTables = 0;
+        for (ParameterId p : pids) {
+            for (ParameterValueTable table : p.tables) {
+                int n = result.size();
+                table.retrieveAll(p, start, stop, result);
+                if (result.size() > n) {
+                    numTables++;
                 }
             }
         }
         // if values are retrieved from multiple tables, we need to sort them by generation time
         // (in reverse order such that the newest is first)
-        if (needsSorting) {
+        if (numTables > 1) {
             Collections.sort(result, (pv1, pv2) -> Long.compare(pv2.getGenerationTime(), pv1.getGenerationTime()));
         }
         if (result.isEmpty()) {
@@ -234,50 +323,25 @@ public class ArrayParameterCache implements ParameterCache {
         return result;
     }
 
-    private List<ParameterId> getParameterIds(List<Parameter> pdefList) {
-        List<ParameterId> result = new ArrayList<>();
-        for (Parameter pdef : pdefList) {
-            Map<Integer, Integer> m = pidMap.get(pdef);
-            if (m == null) {
-                if (!cacheConfig.cacheAll) {
-                    parametersToCache.put(pdef, Boolean.TRUE);
-                }
-            } else {
-                for (Map.Entry<Integer, Integer> me : m.entrySet()) {
-                    int pid = me.getValue();
-                    int type = me.getKey();
-                    result.add(new ParameterId(pdef, pid, SimpleParameterIdMap.getRawType(type),
-                            SimpleParameterIdMap.getEngType(type)));
-                }
-            }
+    private ParameterId[] getParameterIds(Parameter pdef) {
+        ParameterId[] pids = pidMap.get(pdef);
+        if (pids == null && !cacheConfig.cacheAll) {
+            parametersToCache.put(pdef, Boolean.TRUE);
         }
-
-        return result;
+        return pids;
     }
 
-    private List<ParameterId> getParameterIds(Parameter pdef) {
-        List<ParameterId> result = new ArrayList<>();
-        Map<Integer, Integer> m = pidMap.get(pdef);
-        if (m == null) {
-            if (!cacheConfig.cacheAll) {
-                parametersToCache.put(pdef, Boolean.TRUE);
-            }
-        } else {
-            for (Map.Entry<Integer, Integer> me : m.entrySet()) {
-                int pid = me.getValue();
-                int type = me.getKey();
-                result.add(new ParameterId(pdef, pid, SimpleParameterIdMap.getRawType(type),
-                        SimpleParameterIdMap.getEngType(type)));
-            }
-        }
-        return result;
-    }
+    static final ParameterValueTable[] NO_TABLES = new ParameterValueTable[0];
 
     static class ParameterId {
-        Parameter pdef;
-        int id;
-        Type engType;
-        Type rawType;
+        final Parameter pdef;
+        final int id;
+        final Type engType;
+        final Type rawType;
+        // all the tables containing this parameter; modified only by the update
+        volatile ParameterValueTable[] tables = NO_TABLES;
+        // the table containing the most recent value of this parameter
+        volatile ParameterValueTable latestTable;
 
         public ParameterId(Parameter p, int pid, Type rawType, Type engType) {
             this.pdef = p;
@@ -286,103 +350,61 @@ public class ArrayParameterCache implements ParameterCache {
             this.engType = engType;
         }
 
+        void addTable(ParameterValueTable table) {
+            ParameterValueTable[] a = Arrays.copyOf(tables, tables.length + 1);
+            a[a.length - 1] = table;
+            tables = a;
+        }
+
+        void updateLatestTable(ParameterValueTable table) {
+            ParameterValueTable lt = latestTable;
+            if (lt == null || lt == table || lt.getLastTime() <= table.getLastTime()) {
+                latestTable = table;
+            }
+        }
     }
 
     static class SimpleParameterIdMap {
-        // parameter fqn -> parameter type -> parameter id
-        Map<Parameter, Map<Integer, Integer>> p2pidCache = new HashMap<>();
-        AtomicInteger pidGenerator = new AtomicInteger();
-
-        public synchronized int createAndGet(Parameter param, Type engType, Type rawType) {
-            int type = numericType(engType, rawType);
-
-            Map<Integer, Integer> m = p2pidCache.get(param);
-            if (m == null) {
-                m = new HashMap<>();
-                p2pidCache.put(param, m);
-            }
-            Integer pid = m.get(type);
-            if (pid == null) {
-                pid = pidGenerator.incrementAndGet();
-                m.put(type, pid);
+        // parameter -> parameter ids, one for each combination of engineering and raw types
+        final ConcurrentHashMap<Parameter, ParameterId[]> p2pidCache = new ConcurrentHashMap<>();
+        final AtomicInteger pidGenerator = new AtomicInteger();
+
+        public ParameterId createAndGet(Parameter param, Type engType, Type rawType) {
+            ParameterId pid = find(p2pidCache.get(param), engType, rawType);
+            if (pid != null) {
+                return pid;
+            }
+            synchronized (this) {
+                ParameterId[] pids = p2pidCache.get(param);
+                pid = find(pids, engType, rawType);
+                if (pid == null) {
+                    pid = new ParameterId(param, pidGenerator.incrementAndGet(), rawType, engType);
+                    if (pids == null) {
+                        pids = new ParameterId[] { pid };
+                    } else {
+                        pids = Arrays.copyOf(pids, pids.length + 1);
+                        pids[pids.length - 1] = pid;
+                    }
+                    p2pidCache.put(param, pids);
+                }
+                return pid;
             }
-            return pid;
         }
 
-        Parameter getParameterForPid(int x) {
-            for (Map.Entry<Parameter, Map<Integer, Integer>> me : p2pidCache.entrySet()) {
-                for (Map.Entry<Integer, Integer> me1 : me.getValue().entrySet()) {
-                    if (x == me1.getValue()) {
-                        return me.getKey();
+        private static ParameterId find(ParameterId[] pids, Type engType, Type rawType) {
+            if (pids != null) {
+                for (ParameterId pid : pids) {
+                    if (pid.engType == engType && pid.rawType == rawType) {
+                        return pid;
                     }
                 }
             }
             return null;
         }
 
-        public Map<Integer, Integer> get(Parameter p) {
+        public ParameterId[] get(Parameter p) {
             return p2pidCache.get(p);
         }
-
-        // compose a numeric type from engType and rawType (we assume that no more than 2^15 types will ever exist)
-        static int numericType(Type engType, Type rawType) {
-            int et = (engType == null) ? 0xFFFF : engType.getNumber();
-            int rt = (rawType == null) ? 0xFFFF : rawType.getNumber();
-            return et << 16 | rt;
-        }
-
-        static Type getEngType(int numericType) {
-            int et = numericType >> 16;
-            if (et == 0xFFFF) {
-                return null;
-            } else {
-                return Type.forNumber(et);
-            }
-        }
-
-        static Type getRawType(int numericType) {
-            int rt = numericType & 0xFFFF;
-            if (rt == 0xFFFF) {
-                return null;
-            } else {
-                return Type.forNumber(rt);
-            }
-
-        }
-    }
-
-    static class SortedParameterList {
-        final SimpleParameterIdMap parameterIdMap;
-        final SortedIntArray parameterIdArray = new SortedIntArray();
-        final List<ParameterValue> sortedPvList = new ArrayList<>();
-
-        public SortedParameterList(SimpleParameterIdMap paraId) {
-            this.parameterIdMap = paraId;
-        }
-
-        public void add(ParameterValue pv) {
-            Value engValue = pv.getEngValue();
-            Value rawValue = pv.getRawValue();
-
-            Type engType = (engValue == null) ? null : engValue.getType();
-            Type rawType = (rawValue == null) ? null : rawValue.getType();
-            int parameterId = parameterIdMap.createAndGet(pv.getParameter(), engType, rawType);
-
-            int pos = parameterIdArray.insert(parameterId);
-            sortedPvList.add(pos, pv);
-        }
-
-        public int size() {
-            return parameterIdArray.size();
-        }
-
-        public SortedIntArray getParameterIdArray() {
-            return parameterIdArray;
-        }
-
-        public List<ParameterValue> getParameterValueList() {
-            return sortedPvList;
-        }
     }
 
     /**
@@ -393,8 +415,11 @@ public class ArrayParameterCache implements ParameterCache {
      * where: t = timestamp ev = engineering value rv = raw value ps = parameter status
      *
      * Each column is stored as an array of different type (depending on the parameter type). The array works as a
-     * circular list
-     * 
+     * circular list. The rows are kept sorted by generation time such that the time ranges can be found by binary
+     * search.
+     * <p>
+     * The table is modified under the write lock; the readers use optimistic reads and retry if the table has been
+     * modified in the meanwhile.
      */
     static class ParameterValueTable {
         static final int MAX_NUM_ENTRIES = 1024;
@@ -411,7 +436,7 @@ public class ArrayParameterCache implements ParameterCache {
         int maxNumEntries = MAX_NUM_ENTRIES;
         final SortedIntArray pids;
 
-        ReadWriteLock lock = new ReentrantReadWriteLock();
+        final StampedLock lock = new StampedLock();
 
         ParameterValueTable(SortedIntArray pids, long timeToCache, int maxNumEntries) {
             this.numParams = pids.size();
@@ -424,10 +449,10 @@ public class ArrayParameterCache implements ParameterCache {
             this.maxNumEntries = maxNumEntries;
         }
 
-        private void init(List<ParameterValue> sortedPvList) {
+        private void init(ParameterValue[] pvs, int[] order, int from) {
             this.generationTimeColumn = new long[INITIAL_CAPACITY];
-            for (int i = 0; i < sortedPvList.size(); i++) {
-                ParameterValue pv = sortedPvList.get(i);
+            for (int i = 0; i < numParams; i++) {
+                ParameterValue pv = pvs[order[from + i]];
                 Value v = pv.getEngValue();
                 if (v != null) {
                     engValueColumns[i] = getNewColumn(v.getType());
@@ -441,17 +466,20 @@ public class ArrayParameterCache implements ParameterCache {
             }
         }
 
-        public void add(long t, List<ParameterValue> sortedPvList) {
-            lock.writeLock().lock();
+        /**
+         * Adds a row with the values pvs[order[from]], pvs[order[from+1]], ... pvs[order[to-1]] which have to be
+         * sorted by parameter id.
+         */
+        public void add(long t, ParameterValue[] pvs, int[] order, int from, int to) {
+            long stamp = lock.writeLock();
             try {
-                if (numParams != sortedPvList.size()) {
-                    throw new IllegalArgumentException("Invalid number of parameters, expected " + sortedPvList.size());
+                if (numParams != to - from) {
+                    throw new IllegalArgumentException("Invalid number of parameters, expected " + numParams);
                 }
-                int _head = head;
                 if (generationTimeColumn == null) {
-                    init(sortedPvList);
-                } else if (_head == tail) {
-                    long t0 = generationTimeColumn[_head];
+                    init(pvs, order, from);
+                } else if (head == tail) {
+                    long t0 = generationTimeColumn[tail];
                     if (t < t0) {
                         // parameter older than the last one in the queue -> ignore
                         return;
@@ -459,70 +487,136 @@ public class ArrayParameterCache implements ParameterCache {
                     boolean doubled = false;
                     if (t - t0 < timeToCache) {
                         doubled = doubleCapacity();
-                        _head = head;
                     }
                     if (!doubled) {
                         tail = (tail + 1) & (generationTimeColumn.length - 1);
                     }
                 }
-                generationTimeColumn[_head] = t;
+                int mask = generationTimeColumn.length - 1;
+                int _head = head;
+                // number of rows already in the table
+                int n = (_head - tail) & mask;
+                int row = _head;
+                if (n > 0 && generationTimeColumn[(_head - 1) & mask] > t) {
+                    // older than the last row, shift the newer rows to keep the table sorted
+                    int k = upperBound(generationTimeColumn, tail, n, t);
+                    for (int j = n; j > k; j--) {
+                        moveRow((tail + j - 1) & mask, (tail + j) & mask);
+                    }
+                    row = (tail + k) & mask;
+                }
+                generationTimeColumn[row] = t;
 
                 for (int i = 0; i < numParams; i++) {
-                    storeParameter(i, _head, sortedPvList.get(i));
+                    storeParameter(i, row, pvs[order[from + i]]);
                 }
-                head = (_head + 1) & (generationTimeColumn.length - 1);
+                head = (_head + 1) & mask;
             } finally {
-                lock.writeLock().unlock();
+                lock.unlockWrite(stamp);
             }
         }
 
         public void retrieveLastValues(List<ParameterId> sublist, List<ParameterValue> result) {
-            lock.readLock().lock();
-            try {
-                int row = (head - 1) & (generationTimeColumn.length - 1);
-                for (ParameterId p : sublist) {
-                    result.add(getParameterValue(row, p));
+            int[] cols = new int[sublist.size()];
+            for (int i = 0; i < cols.length; i++) {
+                cols[i] = pids.search(sublist.get(i).id);
+            }
+            List<ParameterValue> tmp = new ArrayList<>(cols.length);
+            while (true) {
+                long stamp = lock.tryOptimisticRead();
+                try {
+                    long[] gtc = generationTimeColumn;
+                    int row = (head - 1) & (gtc.length - 1);
+                    for (int i = 0; i < cols.length; i++) {
+                        tmp.add(getParameterValue(gtc, row, cols[i], sublist.get(i)));
+                    }
+                    if (lock.validate(stamp)) {
+                        result.addAll(tmp);
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
                 }
-            } finally {
-                lock.readLock().unlock();
+                tmp.clear();
             }
         }
 
         public ParameterValue getLastValue(ParameterId p) {
-            lock.readLock().lock();
-            try {
-                int row = (head - 1) & (generationTimeColumn.length - 1);
-                return getParameterValue(row, p);
-            } finally {
-                lock.readLock().unlock();
+            int col = pids.search(p.id);
+            while (true) {
+                long stamp = lock.tryOptimisticRead();
+                try {
+                    long[] gtc = generationTimeColumn;
+                    int row = (head - 1) & (gtc.length - 1);
+                    ParameterValue pv = getParameterValue(gtc, row, col, p);
+                    if (lock.validate(stamp)) {
+                        return pv;
+                    }
+                } catch (RuntimeException e) {
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
+                }
             }
         }
 
+        /**
+         * Adds to the result the values with the generation time in the (start, stop] interval, newest first.
+         */
         public void retrieveAll(ParameterId p, long start, long stop, List<ParameterValue> result) {
-            lock.readLock().lock();
-            try {
-                int col = pids.search(p.id);
-                int _tail = tail;
-                int _head = head;
-                int n = generationTimeColumn.length - 1;
-                int row = _head;
-                do {
-                    row = (row - 1) & n;
-                    if (generationTimeColumn[row] > start && generationTimeColumn[row] <= stop) {
-                        result.add(getParameterValue(row, col, p));
+            int col = pids.search(p.id);
+            List<ParameterValue> tmp = new ArrayList<>();
+            while (true) {
+                long stamp = lock.tryOptimisticRead();
+                try {
+                    long[] gtc = generationTimeColumn;
+                    int mask = gtc.length - 1;
+                    int _tail = tail;
+                    int n = (head - _tail) & mask;
+                    if (n == 0) { // full
+                        n = gtc.length;
                     }
-                } while (row != _tail);
-            } finally {
-                lock.readLock().unlock();
+                    int lo = upperBound(gtc, _tail, n, start);
+                    int hi = upperBound(gtc, _tail, n, stop);
+                    for (int k = hi - 1; k >= lo; k--) {
+                        tmp.add(getParameterValue(gtc, (_tail + k) & mask, col, p));
+                    }
+                    if (lock.validate(stamp)) {
+                        result.addAll(tmp);
+                        return;
+                    }
+                } catch (RuntimeException e) {
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+                tmp.clear();
+            }
+        }
+
+        /**
+         * 
+         * @return the first index k in [0, n) such that the generation time of the row (tail + k) is greater than t or
+         *         n if there is no such row
+         */
+        static int upperBound(long[] gtc, int tail, int n, long t) {
+            int mask = gtc.length - 1;
+            int lo = 0;
+            int hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (gtc[(tail + mid) & mask] > t) {
+                    hi = mid;
+                } else {
+                    lo = mid + 1;
+                }
             }
+            return lo;
         }
 
-        private ParameterValue getParameterValue(int row, ParameterId p) {
-            int col = pids.search(p.id);
-            return getParameterValue(row, col, p);
-        }
-
-        private ParameterValue getParameterValue(int row, int col, ParameterId p) {
+        private ParameterValue getParameterValue(long[] gtc, int row, int col, ParameterId p) {
             ParameterValue pv = new ParameterValue(p.pdef);
             if (p.rawType != null) {
                 pv.setRawValue(getValue(rawValueColumns[col], p.rawType, row));
@@ -531,7 +625,7 @@ public class ArrayParameterCache implements ParameterCache {
             if (p.engType != null) {
                 pv.setEngValue(getValue(engValueColumns[col], p.engType, row));
             }
-            pv.setGenerationTime(generationTimeColumn[row]);
+            pv.setGenerationTime(gtc[row]);
             pv.setAcquisitionTime(acquisitionTimeColumns[col][row]);
 
             pv.setStatus((ParameterStatus) ((Object[]) statusColumns[col])[row]);
@@ -570,12 +664,38 @@ public class ArrayParameterCache implements ParameterCache {
         }
 
         public long getLastTime() {
-            lock.readLock().lock();
-            try {
-                int row = (head - 1) & (generationTimeColumn.length - 1);
-                return generationTimeColumn[row];
-            } finally {
-                lock.readLock().unlock();
+            while (true) {
+                long stamp = lock.tryOptimisticRead();
+                try {
+                    long[] gtc = generationTimeColumn;
+                    long t = gtc[(head - 1) & (gtc.length - 1)];
+                    if (lock.validate(stamp)) {
+                        return t;
+                    }
+                } catch (RuntimeException e) {
+                    if (lock.validate(stamp)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        private void moveRow(int src, int dst) {
+            generationTimeColumn[dst] = generationTimeColumn[src];
+            for (int i = 0; i < numParams; i++) {
+                moveCell(engValueColumns[i], src, dst);
+                moveCell(rawValueColumns[i], src, dst);
+                moveCell(statusColumns[i], src, dst);
+                moveCell(acquisitionTimeColumns[i], src, dst);
+            }
+        }
+
+        private static void moveCell(Object o, int src, int dst) {
+            if (o instanceof BitSet) {
+                BitSet bs = (BitSet) o;
+                bs.set(dst, bs.get(src));
+            } else if (o != null) {
+                System.arraycopy(o, src, o, dst, 1);
             }
         }
 
@@ -738,7 +858,13 @@ public class ArrayParameterCache implements ParameterCache {
                 System.arraycopy(o1, 0, o2, o1.length - head, head);
                 return o2;
             } else if (o instanceof BitSet) {
-                return o;
+                BitSet o1 = (BitSet) o;
+                int capacity = newCapacity / 2;
+                BitSet o2 = new BitSet(newCapacity);
+                for (int i = 0; i < capacity; i++) {
+                    o2.set(i, o1.get((head + i) & (capacity - 1)));
+                }
+                return o2;
             } else {
                 throw new IllegalArgumentException("Cannot double objects of type " + o.getClass());
             }
@@ -746,7 +872,7 @@ public class ArrayParameterCache implements ParameterCache {
     }
 
     @Override
-    public void clear() {
-        tables.clear();
+    public synchronized void clear() {
+        pidMap = new SimpleParameterIdMap();
     }
 }
@@ -0,0 +1,525 @@
+package org.yamcs.parameter;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.yamcs.protobuf.Pvalue.AcquisitionStatus;
+import org.yamcs.protobuf.Pvalue.MonitoringResult;
+import org.yamcs.protobuf.Pvalue.RangeCondition;
+import org.yamcs.protobuf.Yamcs.Value.Type;
+import org.yamcs.xtce.Parameter;
+import org.yamcs.xtce.XtceDb;
+import org.yamcs.xtce.util.DoubleRange;
+import org.yamcs.xtce.util.ParameterIds;
+
+/**
+ * Last value cache storing the values outside the java heap.
+ * <p>
+ * The parameters existing in the MDB are identified by the ids returned by {@link XtceDb#getParameterIds()}, shared by
+ * all the processors using the same MDB. Each id indexes a fixed size slot in a direct byte buffer, where the value is
+ * stored in a fixed binary layout (times, status, alarm ranges, engineering and raw value) which is read back without
+ * any intermediate representation. Values which do not fit into a slot (e.g. long strings, aggregates or arrays) are
+ * kept on the heap.
+ * <p>
+ * The parameters added to the MDB after the creation of the ids (e.g. system parameters) are stored in the on-heap map
+ * of the parent class.
+ * <p>
+ * The cache is designed for one writer thread and multiple reader threads and does not use locks: each slot has a
+ * sequence number which is odd while the slot is being written. The readers retry if the sequence number was odd or
+ * has changed during the read.
+ */
+public class OffHeapLastValueCache extends LastValueCache {
+    // number of slots in one buffer; the buffers are allocated when the first value of one of their slots is written
+    static final int SLOTS_PER_BUFFER = 4096;
+
+    // state of the slot stored in its first 4 bytes
+    static final int EMPTY = 0;
+    static final int STORED = 1;
+    static final int ON_HEAP = -1;
+
+    // layout of a stored value, relative to the slot start
+    static final int GENERATION_TIME_OFFSET = 4;
+    static final int ACQUISITION_TIME_OFFSET = 12;
+    static final int EXPIRE_MILLIS_OFFSET = 20;
+    static final int ACQUISITION_STATUS_OFFSET = 28;
+    static final int PROCESSING_STATUS_OFFSET = 29;
+    static final int MONITORING_RESULT_OFFSET = 30;
+    static final int DELTA_MONITORING_RESULT_OFFSET = 31;
+    static final int RANGE_CONDITION_OFFSET = 32;
+    // one bit for each of the watch, warning, distress, critical and severe ranges present after the header
+    static final int RANGES_OFFSET = 33;
+    // the engineering value follows the ranges; the raw value is at the position stored here
+    static final int RAW_VALUE_POS_OFFSET = 34;
+    static final int HEADER_SIZE = 36;
+    static final int RANGE_SIZE = 17;
+    static final int NUM_RANGES = 5;
+
+    // type of the value stored when the value is null
+    static final byte NULL_VALUE = -1;
+
+    static final AcquisitionStatus[] ACQUISITION_STATUS_VALUES = AcquisitionStatus.values();
+    static final MonitoringResult[] MONITORING_RESULT_VALUES = MonitoringResult.values();
+    static final RangeCondition[] RANGE_CONDITION_VALUES = RangeCondition.values();
+    static final Type[] TYPE_VALUES = Type.values();
+
+    final int slotSize;
+    final ParameterIds parameterIds;
+    final AtomicReferenceArray<ByteBuffer> buffers;
+    // sequence number of each slot, odd while the slot is being written
+    final AtomicIntegerArray seqs;
+    // values not fitting into their slot
+    final Map<Integer, ParameterValue> overflow = new ConcurrentHashMap<>();
+    final AtomicInteger count = new AtomicInteger();
+
+    /**
+     *
+     * @param xtcedb
+     *            - the MDB providing the parameter ids
+     * @param slotSize
+     *            - the size in bytes of the space allocated to each parameter
+     */
+    public OffHeapLastValueCache(XtceDb xtcedb, int slotSize) {
+        if (slotSize < 8 || slotSize > 0xFFFF) {
+            throw new IllegalArgumentException("The slot size has to be between 8 and 65535 bytes");
+        }
+        this.slotSize = slotSize;
+        this.parameterIds = xtcedb.getParameterIds();
+        int n = parameterIds.size();
+        buffers = new AtomicReferenceArray<>((n + SLOTS_PER_BUFFER - 1) / SLOTS_PER_BUFFER);
+        seqs = new AtomicIntegerArray(n);
+    }
+
+    @Override
+    public ParameterValue getValue(Parameter p) {
+        int id = parameterIds.getId(p);
+        if (id < 0) {
+            return super.getValue(p);
+        }
+        return read(id);
+    }
+
+    /**
+     * Puts a new value in the cache.
+     *
+     * @return null for the parameters stored off-heap (the previous value is not read back) or the previous value for
+     *         the other parameters
+     */
+    @Override
+    public ParameterValue put(Parameter p, ParameterValue pv) {
+        int id = parameterIds.getId(p);
+        if (id < 0) {
+            return super.put(p, pv);
+        }
+        write(id, pv);
+        return null;
+    }
+
+    @Override
+    public void update(Collection<ParameterValue> params) {
+        for (ParameterValue pv : params) {
+            Parameter p = pv.getParameter();
+            if (p == null) {
+                continue;
+            }
+            int id = parameterIds.getId(p);
+            if (id < 0) {
+                super.put(p, pv);
+            } else {
+                write(id, pv);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return count.get() + super.size();
+    }
+
+    @Override
+    public Collection<ParameterValue> getValues() {
+        List<ParameterValue> l = new ArrayList<>(size());
+        for (int i = 0; i < parameterIds.size(); i++) {
+            ParameterValue pv = read(i);
+            if (pv != null) {
+                l.add(pv);
+            }
+        }
+        l.addAll(super.getValues());
+        return l;
+    }
+
+    private void write(int id, ParameterValue pv) {
+        ByteBuffer buf = getBuffer(id);
+        int offset = (id % SLOTS_PER_BUFFER) * slotSize;
+
+        int seq = seqs.get(id);
+        // the compareAndSet fails only if another thread writes the same parameter at the same time
+        while ((seq & 1) != 0 || !seqs.compareAndSet(id, seq, seq + 1)) {
+            Thread.yield();
+            seq = seqs.get(id);
+        }
+        try {
+            int prevState = buf.getInt(offset);
+            if (encode(buf, offset, pv)) {
+                buf.putInt(offset, STORED);
+                if (prevState == ON_HEAP) {
+                    overflow.remove(id);
+                }
+            } else {
+                overflow.put(id, pv);
+                buf.putInt(offset, ON_HEAP);
+            }
+            if (prevState == EMPTY) {
+                count.incrementAndGet();
+            }
+        } finally {
+            seqs.set(id, seq + 2);
+        }
+    }
+
+    private ParameterValue read(int id) {
+        ByteBuffer buf = buffers.get(id / SLOTS_PER_BUFFER);
+        if (buf == null) {
+            return null;
+        }
+        int offset = (id % SLOTS_PER_BUFFER) * slotSize;
+        Parameter p = parameterIds.getParameter(id);
+        while (true) {
+            int seq = seqs.get(id);
+            if ((seq & 1) != 0) {
+                Thread.yield();
+                continue;
+            }
+            int state = buf.getInt(offset);
+            ParameterValue pv;
+            if (state == ON_HEAP) {
+                pv = overflow.get(id);
+            } else if (state == STORED) {
+                pv = decode(p, buf, offset);
+            } else {
+                pv = null;
+            }
+            // the read-modify-write orders the reads of the slot before the check of the sequence number
+            if (seqs.getAndAdd(id, 0) == seq) {
+                if (pv == INCONSISTENT) {
+                    throw new IllegalStateException("Corrupted slot for parameter " + p.getQualifiedName());
+                }
+                return pv;
+            }
+        }
+    }
+
+    /**
+     * writes the value into the slot
+     *
+     * @return false if the value does not fit into the slot
+     */
+    private boolean encode(ByteBuffer buf, int offset, ParameterValue pv) {
+        int end = offset + slotSize;
+        if (HEADER_SIZE > slotSize) {
+            return false;
+        }
+        buf.putLong(offset + GENERATION_TIME_OFFSET, pv.getGenerationTime());
+        buf.putLong(offset + ACQUISITION_TIME_OFFSET, pv.getAcquisitionTime());
+        ParameterStatus status = pv.getStatus();
+        buf.putLong(offset + EXPIRE_MILLIS_OFFSET, status.getExpireMills());
+        buf.put(offset + ACQUISITION_STATUS_OFFSET, (byte) status.getAcquisitionStatus().ordinal());
+        buf.put(offset + PROCESSING_STATUS_OFFSET, (byte) (status.getProcessingStatus() ? 1 : 0));
+        buf.put(offset + MONITORING_RESULT_OFFSET, ordinalOrNull(status.getMonitoringResult()));
+        buf.put(offset + DELTA_MONITORING_RESULT_OFFSET, ordinalOrNull(status.getDeltaMonitoringResult()));
+        buf.put(offset + RANGE_CONDITION_OFFSET, ordinalOrNull(status.getRangeCondition()));
+
+        int pos = offset + HEADER_SIZE;
+        int rangeMask = 0;
+        for (int i = 0; i < NUM_RANGES; i++) {
+            DoubleRange r = getRange(status, i);
+            if (r == null) {
+                continue;
+            }
+            if (pos + RANGE_SIZE > end) {
+                return false;
+            }
+            rangeMask |= 1 << i;
+            buf.putDouble(pos, r.getMin());
+            buf.putDouble(pos + 8, r.getMax());
+            buf.put(pos + 16, (byte) ((r.isMinInclusive() ? 1 : 0) | (r.isMaxInclusive() ? 2 : 0)));
+            pos += RANGE_SIZE;
+        }
+        buf.put(offset + RANGES_OFFSET, (byte) rangeMask);
+
+        pos = encodeValue(buf, pos, end, pv.getEngValue());
+        if (pos < 0) {
+            return false;
+        }
+        buf.putShort(offset + RAW_VALUE_POS_OFFSET, (short) (pos - offset));
+        return encodeValue(buf, pos, end, pv.getRawValue()) >= 0;
+    }
+
+    private static DoubleRange getRange(ParameterStatus status, int i) {
+        switch (i) {
+        case 0:
+            return status.getWatchRange();
+        case 1:
+            return status.getWarningRange();
+        case 2:
+            return status.getDistressRange();
+        case 3:
+            return status.getCriticalRange();
+        default:
+            return status.getSevereRange();
+        }
+    }
+
+    /**
+     *
+     * @return the position after the value or -1 if the value does not fit or cannot be stored off-heap
+     */
+    private static int encodeValue(ByteBuffer buf, int pos, int end, Value v) {
+        if (pos + 1 > end) {
+            return -1;
+        }
+        if (v == null) {
+            buf.put(pos, NULL_VALUE);
+            return pos + 1;
+        }
+        Type type = v.getType();
+        buf.put(pos++, (byte) type.ordinal());
+        switch (type) {
+        case FLOAT:
+            if (pos + 4 > end) {
+                return -1;
+            }
+            buf.putFloat(pos, v.getFloatValue());
+            return pos + 4;
+        case UINT32:
+        case SINT32:
+            if (pos + 4 > end) {
+                return -1;
+            }
+            buf.putInt(pos, type == Type.UINT32 ? v.getUint32Value() : v.getSint32Value());
+            return pos + 4;
+        case DOUBLE:
+            if (pos + 8 > end) {
+                return -1;
+            }
+            buf.putDouble(pos, v.getDoubleValue());
+            return pos + 8;
+        case UINT64:
+        case SINT64:
+        case TIMESTAMP:
+            if (pos + 8 > end) {
+                return -1;
+            }
+            long x = type == Type.UINT64 ? v.getUint64Value()
+                    : type == Type.SINT64 ? v.getSint64Value() : v.getTimestampValue();
+            buf.putLong(pos, x);
+            return pos + 8;
+        case BOOLEAN:
+            if (pos + 1 > end) {
+                return -1;
+            }
+            buf.put(pos, (byte) (v.getBooleanValue() ? 1 : 0));
+            return pos + 1;
+        case STRING:
+            return putBytes(buf, pos, end, v.getStringValue().getBytes(StandardCharsets.UTF_8));
+        case BINARY:
+            return putBytes(buf, pos, end, v.getBinaryValue());
+        case ENUMERATED:
+            if (pos + 8 > end) {
+                return -1;
+            }
+            buf.putLong(pos, v.getSint64Value());
+            return putBytes(buf, pos + 8, end, v.getStringValue().getBytes(StandardCharsets.UTF_8));
+        default:
+            return -1;
+        }
+    }
+
+    private static int putBytes(ByteBuffer buf, int pos, int end, byte[] b) {
+        if (pos + 4 + b.length > end) {
+            return -1;
+        }
+        buf.putInt(pos, b.length);
+        pos += 4;
+        for (int i = 0; i < b.length; i++) {
+            buf.put(pos + i, b[i]);
+        }
+        return pos + b.length;
+    }
+
+    // returned by the decoding methods when they find invalid data; this can only happen if the slot is modified
+    // during the read
+    static final ParameterValue INCONSISTENT = new ParameterValue("inconsistent");
+    static final Value INVALID_VALUE = new StringValue("invalid");
+
+    private ParameterValue decode(Parameter p, ByteBuffer buf, int offset) {
+        int end = offset + slotSize;
+        int acqStatus = buf.get(offset + ACQUISITION_STATUS_OFFSET);
+        int mr = buf.get(offset + MONITORING_RESULT_OFFSET);
+        int dmr = buf.get(offset + DELTA_MONITORING_RESULT_OFFSET);
+        int rc = buf.get(offset + RANGE_CONDITION_OFFSET);
+        int rangeMask = buf.get(offset + RANGES_OFFSET);
+        if (acqStatus < 0 || acqStatus >= ACQUISITION_STATUS_VALUES.length || mr >= MONITORING_RESULT_VALUES.length
+                || dmr >= MONITORING_RESULT_VALUES.length || rc >= RANGE_CONDITION_VALUES.length) {
+            return INCONSISTENT;
+        }
+        ParameterValue pv = new ParameterValue(p);
+        pv.setGenerationTime(buf.getLong(offset + GENERATION_TIME_OFFSET));
+        pv.setAcquisitionTime(buf.getLong(offset + ACQUISITION_TIME_OFFSET));
+
+        long expireMillis = buf.getLong(offset + EXPIRE_MILLIS_OFFSET);
+        boolean processingStatus = buf.get(offset + PROCESSING_STATUS_OFFSET) != 0;
+        if (acqStatus != AcquisitionStatus.ACQUIRED.ordinal() || !processingStatus || mr >= 0 || dmr >= 0
+                || rc >= 0 || rangeMask != 0 || expireMillis != -1) {
+            // the status is shared with the nominal singleton if nothing is set
+            ParameterStatus status = new ParameterStatus();
+            status.setAcquisitionStatus(ACQUISITION_STATUS_VALUES[acqStatus]);
+            status.setProcessingStatus(processingStatus);
+            status.setExpireMillis(expireMillis);
+            if (mr >= 0) {
+                status.setMonitoringResult(MONITORING_RESULT_VALUES[mr]);
+            }
+            if (dmr >= 0) {
+                status.setDeltaMonitoringResult(MONITORING_RESULT_VALUES[dmr]);
+            }
+            if (rc >= 0) {
+                status.setRangeCondition(RANGE_CONDITION_VALUES[rc]);
+            }
+            pv.setStatus(status);
+        }
+
+        int pos = offset + HEADER_SIZE;
+        for (int i = 0; i < NUM_RANGES; i++) {
+            if ((rangeMask & (1 << i)) == 0) {
+                continue;
+            }
+            if (pos + RANGE_SIZE > end) {
+                return INCONSISTENT;
+            }
+            byte incl = buf.get(pos + 16);
+            DoubleRange r = new DoubleRange(buf.getDouble(pos), buf.getDouble(pos + 8), (incl & 1) != 0,
+                    (incl & 2) != 0);
+            pos += RANGE_SIZE;
+            switch (i) {
+            case 0:
+                pv.setWatchRange(r);
+                break;
+            case 1:
+                pv.setWarningRange(r);
+                break;
+            case 2:
+                pv.setDistressRange(r);
+                break;
+            case 3:
+                pv.setCriticalRange(r);
+                break;
+            default:
+                pv.setSevereRange(r);
+            }
+        }
+
+        Value ev = decodeValue(buf, pos, end);
+        Value rv = decodeValue(buf, offset + (buf.getShort(offset + RAW_VALUE_POS_OFFSET) & 0xFFFF), end);
+        if (ev == INVALID_VALUE || rv == INVALID_VALUE) {
+            return INCONSISTENT;
+        }
+        pv.setEngineeringValue(ev);
+        pv.setRawValue(rv);
+        return pv;
+    }
+
+    /**
+     * reads a value written by {@link #encodeValue(ByteBuffer, int, int, Value)}
+     *
+     * @return the value (possibly null) or {@link #INVALID_VALUE} if the data is not valid
+     */
+    private static Value decodeValue(ByteBuffer buf, int pos, int end) {
+        if (pos + 1 > end) {
+            return INVALID_VALUE;
+        }
+        int t = buf.get(pos++);
+        if (t == NULL_VALUE) {
+            return null;
+        }
+        if (t < 0 || t >= TYPE_VALUES.length) {
+            return INVALID_VALUE;
+        }
+        Type type = TYPE_VALUES[t];
+        switch (type) {
+        case FLOAT:
+            return pos + 4 > end ? INVALID_VALUE : new FloatValue(buf.getFloat(pos));
+        case UINT32:
+            return pos + 4 > end ? INVALID_VALUE : new UInt32Value(buf.getInt(pos));
+        case SINT32:
+            return pos + 4 > end ? INVALID_VALUE : new SInt32Value(buf.getInt(pos));
+        case DOUBLE:
+            return pos + 8 > end ? INVALID_VALUE : new DoubleValue(buf.getDouble(pos));
+        case UINT64:
+            return pos + 8 > end ? INVALID_VALUE : new UInt64Value(buf.getLong(pos));
+        case SINT64:
+            return pos + 8 > end ? INVALID_VALUE : new SInt64Value(buf.getLong(pos));
+        case TIMESTAMP:
+            return pos + 8 > end ? INVALID_VALUE : new TimestampValue(buf.getLong(pos));
+        case BOOLEAN:
+            return pos + 1 > end ? INVALID_VALUE : new BooleanValue(buf.get(pos) != 0);
+        case STRING: {
+            byte[] b = getBytes(buf, pos, end);
+            return b == null ? INVALID_VALUE : new StringValue(new String(b, StandardCharsets.UTF_8));
+        }
+        case BINARY: {
+            byte[] b = getBytes(buf, pos, end);
+            return b == null ? INVALID_VALUE : new BinaryValue(b);
+        }
+        case ENUMERATED: {
+            if (pos + 8 > end) {
+                return INVALID_VALUE;
+            }
+            byte[] b = getBytes(buf, pos + 8, end);
+            return b == null ? INVALID_VALUE
+                    : new EnumeratedValue(buf.getLong(pos), new String(b, StandardCharsets.UTF_8));
+        }
+        default:
+            return INVALID_VALUE;
+        }
+    }
+
+    private static byte[] getBytes(ByteBuffer buf, int pos, int end) {
+        if (pos + 4 > end) {
+            return null;
+        }
+        int n = buf.getInt(pos);
+        if (n < 0 || n > end - pos - 4) {
+            return null;
+        }
+        byte[] b = new byte[n];
+        for (int i = 0; i < n; i++) {
+            b[i] = buf.get(pos + 4 + i);
+        }
+        return b;
+    }
+
+    private static byte ordinalOrNull(Enum<?> e) {
+        return e == null ? -1 : (byte) e.ordinal();
+    }
+
+    private ByteBuffer getBuffer(int id) {
+        int idx = id / SLOTS_PER_BUFFER;
+        ByteBuffer buf = buffers.get(idx);
+        if (buf == null) {
+            int n = Math.min(SLOTS_PER_BUFFER, parameterIds.size() - idx * SLOTS_PER_BUFFER);
+            buf = ByteBuffer.allocateDirect(n * slotSize);
+            if (!buffers.compareAndSet(idx, null, buf)) {
+                buf = buffers.get(idx);
+            }
+        }
+        return buf;
+    }
+}
@@ -36,6 +36,19 @@ public class ParameterValueList implements Collection<ParameterValue> {
         initHead();
     }
 
+    /**
+     * Creates an empty list able to hold the given number of values without resizing.
+     * 
+     * @param expectedSize
+     */
+    public ParameterValueList(int expectedSize) {
+        int len = roundUpToPowerOfTwo((int) (expectedSize / loadFactor) + 1);
+        table = new Entry[len];
+        threshold = (int) (len * loadFactor);
+        size = 0;
+        initHead();
+    }
+
     /**
      * @param pvs
      */
@@ -9,6 +9,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
@@ -27,12 +28,17 @@ import org.yamcs.time.TimeService;
 import org.yamcs.utils.ValueUtility;
 import org.yamcs.xtce.NameDescription;
 import org.yamcs.xtce.XtceDb;
+import org.yamcs.yarch.AsyncSubscriber;
 import org.yamcs.yarch.DataType;
 import org.yamcs.yarch.Stream;
+import org.yamcs.yarch.StreamSubscriber;
 import org.yamcs.yarch.Tuple;
 import org.yamcs.yarch.TupleDefinition;
 import org.yamcs.yarch.YarchDatabase;
 import org.yamcs.yarch.YarchDatabaseInstance;
+import org.yamcs.yarch.rocksdb.RdbTableWriter;
+
+import com.codahale.metrics.Snapshot;
 
 /**
  * Collects each second system processed parameters from whomever registers and sends them on the sys_var stream
@@ -64,6 +70,7 @@ public class SystemParametersCollector extends AbstractYamcsService implements R
     static final List<String> FILE_SYSTEM_TYPES = Arrays.asList("ext4", "ext3", "xfs");
 
     Stream stream;
+    YarchDatabaseInstance ydb;
 
     int seqCount = 0;
 
@@ -89,7 +96,7 @@ public class SystemParametersCollector extends AbstractYamcsService implements R
         provideJvmVariables = config.getBoolean("provideJvmVariables");
         provideFsVariables = config.getBoolean("provideFsVariables");
 
-        YarchDatabaseInstance ydb = YarchDatabase.getInstance(yamcsInstance);
+        ydb = YarchDatabase.getInstance(yamcsInstance);
         stream = ydb.getStream(STREAM_NAME);
         if (stream == null) {
             throw new ConfigurationException("Stream '" + STREAM_NAME + "' does not exist");
@@ -182,6 +189,13 @@ public class SystemParametersCollector extends AbstractYamcsService implements R
             }
         }
 
+        List<Stream> streams;
+        synchronized (ydb) {
+            streams = new ArrayList<>(ydb.getStreams());
+        }
+        collectStreamParameters(params, gentime, streams);
+        collectTableWriterParameters(params, gentime, streams);
+
         for (SystemParametersProducer p : providers) {
             try {
                 Collection<ParameterValue> pvc = p.getSystemParameters();
@@ -232,6 +246,76 @@ public class SystemParametersCollector extends AbstractYamcsService implements R
         params.add(jvmThreadCount);
     }
 
+    /**
+     * Collects the queue statistics of the streams with asynchronous dispatching, aggregated over the subscribers of
+     * each stream: the current and the maximum lag are the largest ones, the dropped and spilled tuples are summed.
+     */
+    private void collectStreamParameters(List<ParameterValue> params, long gentime, List<Stream> streams) {
+        for (Stream s : streams) {
+            if (!s.isAsyncDispatch()) {
+                continue;
+            }
+            int lag = 0;
+            int maxLag = 0;
+            long dropped = 0;
+            long spilled = 0;
+            for (AsyncSubscriber as : s.getAsyncSubscribers()) {
+                lag = Math.max(lag, as.getLag());
+                maxLag = Math.max(maxLag, as.getMaxLag());
+                dropped += as.getDroppedCount();
+                spilled += as.getSpilledCount();
+            }
+            String prefix = namespace + "/streams/" + s.getName() + "/";
+            params.add(SystemParametersCollector.getUnsignedIntPV(prefix + "lag", gentime, lag));
+            params.add(SystemParametersCollector.getUnsignedIntPV(prefix + "maxLag", gentime, maxLag));
+            params.add(SystemParametersCollector.getPV(prefix + "droppedTuples", gentime, dropped));
+            params.add(SystemParametersCollector.getPV(prefix + "spilledTuples", gentime, spilled));
+        }
+    }
+
+    /**
+     * Collects the statistics of the table writers accumulating the records into batches, aggregated over the writers
+     * of each table: the number of batches is summed, the mean batch size and write time are weighted by the number
+     * of batches of each writer and the maximums are the largest ones. The sizes and times are computed over the recent
+     * batches and the times are converted to milliseconds.
+     */
+    private void collectTableWriterParameters(List<ParameterValue> params, long gentime, List<Stream> streams) {
+        Map<String, List<RdbTableWriter>> writers = new TreeMap<>();
+        for (Stream s : streams) {
+            for (StreamSubscriber ss : s.getSubscribers()) {
+                if (ss instanceof RdbTableWriter && ((RdbTableWriter) ss).isBatching()) {
+                    RdbTableWriter tw = (RdbTableWriter) ss;
+                    writers.computeIfAbsent(tw.getTable().getName(), k -> new ArrayList<>()).add(tw);
+                }
+            }
+        }
+        for (Map.Entry<String, List<RdbTableWriter>> me : writers.entrySet()) {
+            long batches = 0;
+            double sizeSum = 0;
+            long maxSize = 0;
+            double timeSum = 0;
+            long maxTime = 0;
+            for (RdbTableWriter tw : me.getValue()) {
+                long n = tw.getFlushTimer().getCount();
+                Snapshot sizes = tw.getBatchSizeHistogram().getSnapshot();
+                Snapshot times = tw.getFlushTimer().getSnapshot();
+                batches += n;
+                sizeSum += n * sizes.getMean();
+                maxSize = Math.max(maxSize, sizes.getMax());
+                timeSum += n * times.getMean();
+                maxTime = Math.max(maxTime, times.getMax());
+            }
+            String prefix = namespace + "/tables/" + me.getKey() + "/";
+            params.add(SystemParametersCollector.getPV(prefix + "writeBatches", gentime, batches));
+            params.add(SystemParametersCollector.getPV(prefix + "writeBatchSizeMean", gentime,
+                    batches == 0 ? 0 : sizeSum / batches));
+            params.add(SystemParametersCollector.getPV(prefix + "writeBatchSizeMax", gentime, maxSize));
+            params.add(SystemParametersCollector.getPV(prefix + "writeBatchTimeMean", gentime,
+                    batches == 0 ? 0 : timeSum / batches / 1e6));
+            params.add(SystemParametersCollector.getPV(prefix + "writeBatchTimeMax", gentime, maxTime / 1e6));
+        }
+    }
+
     private void collectFsParameters(List<ParameterValue> params, long gentime) {
         try {
             for (FileStore store : fileStores) {
@@ -219,6 +219,30 @@ public class ValueArray {
         return (double[])obj;
     }
     
+    /**
+     * get the element at the given index of a {@link Type#BOOLEAN} array.
+     * Throws a {@link ClassCastException} if the array is not of {@link Type#BOOLEAN} type
+     */
+    public boolean getBoolean(int idx) {
+        return ((BitSet) obj).get(idx);
+    }
+
+    /**
+     * get the element at the given index of a {@link Type#STRING} or {@link Type#ENUMERATED} array.
+     * Throws a {@link ClassCastException} if the array is not of one of these types
+     */
+    public String getString(int idx) {
+        return (String) ((Object[]) obj)[idx];
+    }
+
+    /**
+     * get the element at the given index of a {@link Type#BINARY} array.
+     * Throws a {@link ClassCastException} if the array is not of {@link Type#BINARY} type
+     */
+    public byte[] getBinary(int idx) {
+        return (byte[]) ((Object[]) obj)[idx];
+    }
+
     public int size() {
         return size;
     }
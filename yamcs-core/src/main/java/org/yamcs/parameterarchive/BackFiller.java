@@ -5,10 +5,15 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.yamcs.ConfigurationException;
 import org.yamcs.Processor;
@@ -33,7 +38,9 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 /**
  * Back-fills the parameter archive by triggering replays: - either regularly scheduled replays - or monitor data
  * streams (tm, param) and keep track of which segments have to be rebuild
- * 
+ * <p>
+ * The time range of a filling task is split into parameter archive intervals which are independent of each other;
+ * each interval is filled by its own replay processor. Up to {@code numThreads} intervals are processed in parallel.
  * 
  * @author nm
  *
@@ -50,6 +57,15 @@ public class BackFiller implements StreamSubscriber {
     static AtomicInteger count = new AtomicInteger();
     private final Log log;
     final ScheduledThreadPoolExecutor executor;
+    // runs the replays of the individual intervals
+    final ThreadPoolExecutor workerPool;
+    private int numThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    // statistics published as system parameters
+    private final AtomicInteger pendingIntervals = new AtomicInteger();
+    private final AtomicInteger runningIntervals = new AtomicInteger();
+    private final AtomicLong completedIntervals = new AtomicLong();
+    private final AtomicLong processedSamples = new AtomicLong();
 
     // set of segments that have to be rebuilt following monitoring of streams
     private Set<Long> streamUpdates;
@@ -70,6 +86,10 @@ public class BackFiller implements StreamSubscriber {
         timeService = YamcsServer.getTimeService(parchive.getYamcsInstance());
         executor = new ScheduledThreadPoolExecutor(1,
                 new ThreadFactoryBuilder().setNameFormat("ParameterArchive-BackFiller-"+parchive.getYamcsInstance()).build());
+        workerPool = new ThreadPoolExecutor(numThreads, numThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("ParameterArchive-BackFiller-" + parchive.getYamcsInstance() + "-%d").build());
+        workerPool.allowCoreThreadTimeOut(true);
 
     }
 
@@ -105,6 +125,10 @@ public class BackFiller implements StreamSubscriber {
     private void parseConfig(YConfiguration config) {
         warmupTime = 1000L * config.getInt("warmupTime", 60);
         maxSegmentSize = config.getInt("maxSegmentSize", ArchiveFillerTask.DEFAULT_MAX_SEGMENT_SIZE);
+        numThreads = config.getInt("numThreads", numThreads);
+        if (numThreads < 1) {
+            throw new ConfigurationException("numThreads has to be at least 1");
+        }
 
         if (config.containsKey("schedule")) {
             List<YConfiguration> l = config.getConfigList("schedule");
@@ -149,14 +173,74 @@ public class BackFiller implements StreamSubscriber {
     }
 
     private void runTask(long start, long stop) {
+        start = ParameterArchive.getIntervalStart(start);
+        stop = ParameterArchive.getIntervalEnd(stop) + 1;
+        List<Long> intervals = new ArrayList<>();
+        for (long t = start; t < stop; t = ParameterArchive.getIntervalEnd(t) + 1) {
+            intervals.add(t);
+        }
+        runIntervals(intervals);
+    }
+
+    /**
+     * Fills the given intervals in parallel and waits for all of them to finish.
+     * 
+     * @param intervals
+     *            - start of the parameter archive intervals to be filled
+     */
+    private void runIntervals(List<Long> intervals) {
+        if (intervals.isEmpty()) {
+            return;
+        }
+        long start = intervals.get(0);
+        long stop = ParameterArchive.getIntervalEnd(intervals.get(intervals.size() - 1)) + 1;
+        String timePeriod = '[' + TimeEncoding.toString(start) + "-" + TimeEncoding.toString(stop) + ')';
+        log.info("Starting parameter archive fillup for interval {} ({} segments, {} in parallel)", timePeriod,
+                intervals.size(), numThreads);
+
+        long t0 = System.currentTimeMillis();
+        long samples0 = processedSamples.get();
+        List<Future<?>> futures = new ArrayList<>(intervals.size());
+        for (long intervalStart : intervals) {
+            pendingIntervals.incrementAndGet();
+            futures.add(workerPool.submit(() -> {
+                pendingIntervals.decrementAndGet();
+                runningIntervals.incrementAndGet();
+                try {
+                    runInterval(intervalStart, ParameterArchive.getIntervalEnd(intervalStart) + 1);
+                } finally {
+                    runningIntervals.decrementAndGet();
+                    completedIntervals.incrementAndGet();
+                }
+            }));
+        }
         try {
-            start = ParameterArchive.getIntervalStart(start);
-            stop = ParameterArchive.getIntervalEnd(stop) + 1;
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            for (Future<?> f : futures) {
+                if (f.cancel(false)) {
+                    pendingIntervals.decrementAndGet();
+                }
+            }
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException | CancellationException e) {
+            log.error("Error when running the archive filler task", e);
+        }
+        long samples = processedSamples.get() - samples0;
+        long duration = Math.max(1, System.currentTimeMillis() - t0);
+        log.info("Parameter archive fillup for interval {} finished in {} seconds, processed samples: {} ({}/sec)",
+                timePeriod, duration / 1000, samples, 1000 * samples / duration);
+    }
 
+    private void runInterval(long start, long stop) {
+        try {
             ArchiveFillerTask aft = new ArchiveFillerTask(parchive, maxSegmentSize);
             aft.setCollectionSegmentStart(start);
             String timePeriod = '[' + TimeEncoding.toString(start) + "-" + TimeEncoding.toString(stop) + ')';
-            log.info("Starting parameter archive fillup for interval {}", timePeriod);
+            log.debug("Starting parameter archive fillup for segment {}", timePeriod);
 
             ReplayOptions rrb = ReplayOptions.getAfapReplay(start - warmupTime, stop);
             Processor proc = ProcessorFactory.create(parchive.getYamcsInstance(),
@@ -165,13 +249,16 @@ public class BackFiller implements StreamSubscriber {
             aft.setProcessor(proc);
             proc.getParameterRequestManager().subscribeAll(aft);
 
-            proc.start();
+            // short replays may terminate before awaitRunning would return, so only wait for the termination
+            proc.setEarlyTerminationAllowed(true);
+            proc.startAsync();
             proc.awaitTerminated();
             if (aft.aborted) {
-                log.warn("Parameter archive fillup for interval {} aborted", timePeriod);
+                log.warn("Parameter archive fillup for segment {} aborted", timePeriod);
             } else {
                 aft.flush();
-                log.info("Parameter archive fillup for interval {} finished, processed samples: {}",
+                processedSamples.addAndGet(aft.getNumProcessedParameters());
+                log.debug("Parameter archive fillup for segment {} finished, processed samples: {}",
                         timePeriod, aft.getNumProcessedParameters());
             }
         } catch (Exception e) {
@@ -207,16 +294,11 @@ public class BackFiller implements StreamSubscriber {
             streamUpdates.clear();
         }
         Arrays.sort(a);
-        for (int i = 0; i < a.length; i++) {
-            int j;
-            for (j = i; j < a.length - 1; j++) {
-                if (ParameterArchive.getIntervalStart(a[j]) != a[j + 1]) {
-                    break;
-                }
-            }
-            runTask(a[i], a[j]);
-            i = j;
+        List<Long> intervals = new ArrayList<>(a.length);
+        for (long t : a) {
+            intervals.add(t);
         }
+        runIntervals(intervals);
     }
 
     // runs all schedules with interval -1
@@ -248,6 +330,35 @@ public class BackFiller implements StreamSubscriber {
             }
         }
         executor.shutdownNow();
+        workerPool.shutdownNow();
+    }
+
+    /**
+     * @return the number of intervals waiting to be filled
+     */
+    public int getPendingIntervals() {
+        return pendingIntervals.get();
+    }
+
+    /**
+     * @return the number of intervals being filled
+     */
+    public int getRunningIntervals() {
+        return runningIntervals.get();
+    }
+
+    /**
+     * @return the number of intervals filled since the start
+     */
+    public long getCompletedIntervals() {
+        return completedIntervals.get();
+    }
+
+    /**
+     * @return the number of parameter values written to the archive since the start
+     */
+    public long getProcessedSamples() {
+        return processedSamples.get();
     }
 
     @Override
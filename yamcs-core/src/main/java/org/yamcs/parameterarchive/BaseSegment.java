@@ -23,6 +23,7 @@ public abstract class BaseSegment {
     public static final byte FORMAT_ID_LongValueSegment = 18;
     public static final byte FORMAT_ID_BinaryValueSegment = 19;
     public static final byte FORMAT_ID_BooleanValueSegment = 20;
+    public static final byte FORMAT_ID_RollupSegment = 21;
 
     protected byte formatId;
 
@@ -66,6 +67,8 @@ public abstract class BaseSegment {
             return LongValueSegment.parseFrom(bb);
         case FORMAT_ID_BinaryValueSegment:
             return BinaryValueSegment.parseFrom(bb);
+        case FORMAT_ID_RollupSegment:
+            return RollupSegment.parseFrom(bb, segmentStart);
         default:
           throw new DecodingException("Invalid format id "+formatId);
         }
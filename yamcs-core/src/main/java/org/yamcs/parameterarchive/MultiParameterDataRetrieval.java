@@ -1,13 +1,19 @@
 package org.yamcs.parameterarchive;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
 import org.rocksdb.RocksDBException;
@@ -22,17 +28,46 @@ import org.yamcs.utils.TimeEncoding;
 import static org.yamcs.parameterarchive.ParameterArchive.getIntervalStart;
 import static org.yamcs.parameterarchive.ParameterArchive.getIntervalEnd;
 
+/**
+ * Retrieves the values of multiple parameters merging them by time (and by parameter group).
+ * <p>
+ * The partitions are walked in the calling thread; the segments of all parameters having the same segment start are
+ * grouped together and decoded and merged into a {@link SegmentMerger}. If a retrieval executor is available, this
+ * work is done in parallel for up to readAhead groups while the calling thread continues walking the partitions. The
+ * results are sent to the consumer in the order of the groups such that the output is the same as the one of the
+ * sequential retrieval.
+ */
 public class MultiParameterDataRetrieval {
     final ParameterArchive parchive;
     final MultipleParameterValueRequest mpvr;
 
-    SegmentEncoderDecoder vsEncoder = new SegmentEncoderDecoder();
     private final Logger log = LoggerFactory.getLogger(MultiParameterDataRetrieval.class);
     private int count;
 
+    final ExecutorService executor;
+    final int readAhead;
+    final Deque<Future<SegmentMerger>> pending = new ArrayDeque<>();
+
     public MultiParameterDataRetrieval(ParameterArchive parchive, MultipleParameterValueRequest mpvr) {
+        this(parchive, mpvr, parchive.getRetrievalExecutor(), parchive.getRetrievalReadAhead());
+    }
+
+    /**
+     * 
+     * @param parchive
+     * @param mpvr
+     * @param executor
+     *            - executor used to decode the segments; if null, everything is done in the thread calling
+     *            {@link #retrieve(Consumer)}
+     * @param readAhead
+     *            - maximum number of segment groups decoded in advance
+     */
+    public MultiParameterDataRetrieval(ParameterArchive parchive, MultipleParameterValueRequest mpvr,
+            ExecutorService executor, int readAhead) {
         this.parchive = parchive;
         this.mpvr = mpvr;
+        this.executor = executor;
+        this.readAhead = readAhead;
     }
 
     public void retrieve(Consumer<ParameterIdValueList> consumer) throws RocksDBException, DecodingException, IOException {
@@ -42,8 +77,16 @@ public class MultiParameterDataRetrieval {
             for (Partition p : parts) {
                 retrieveFromPartition(p, consumer);
             }
+            while (!pending.isEmpty() && !limitReached()) {
+                sendNext(consumer);
+            }
         } catch (ConsumerAbortException e) {
             log.debug("Stoped early due to receiving ConsumerAbortException");
+        } finally {
+            for (Future<SegmentMerger> f : pending) {
+                f.cancel(true);
+            }
+            pending.clear();
         }
     }
 
@@ -52,8 +95,9 @@ public class MultiParameterDataRetrieval {
         RocksIterator[] its = new RocksIterator[mpvr.parameterIds.length];
         Map<PartitionIterator, String> partition2ParameterName = new HashMap<>();
         PriorityQueue<PartitionIterator> queue = new PriorityQueue<>(new PartitionIteratorComparator(mpvr.ascending));
-        SegmentMerger merger = null;
-      
+        SegmentGroup group = null;
+        long cacheGeneration = parchive.getSegmentCache().getGeneration();
+
         for (int i = 0; i < mpvr.parameterIds.length; i++) {
             boolean retrieveEng = mpvr.retrieveEngValues || mpvr.retrieveRawValues.get(i);
             its[i] = parchive.getIterator(p);
@@ -72,80 +116,30 @@ public class MultiParameterDataRetrieval {
 
         try {
             while (!queue.isEmpty()) {
-                if ((mpvr.limit > 0) && (count >= mpvr.limit)) {
+                if (limitReached()) {
                     break;
                 }
 
                 PartitionIterator pit = queue.poll();
                 SegmentKey key = pit.key();
-                if (merger == null) {
-                    merger = new SegmentMerger(key, mpvr);
+                if (group == null) {
+                    group = new SegmentGroup(p, key, cacheGeneration);
                 } else {
-                    if (key.segmentStart != merger.key.segmentStart) {
-                        sendAllData(merger, consumer);
-                        merger = new SegmentMerger(key, mpvr);
+                    if (key.segmentStart != group.key.segmentStart) {
+                        submit(group, consumer);
+                        group = new SegmentGroup(p, key, cacheGeneration);
                     }
                 }
+                group.add(pit, partition2ParameterName.get(pit), mpvr);
 
-                SortedTimeSegment timeSegment = parchive.getTimeSegment(p, key.segmentStart, pit.getParameterGroupId());
-                if (timeSegment == null) {
-                    String msg = "Cannot find a time segment for parameterGroupId=" + pit.getParameterGroupId()
-                            + " segmentStart = " + key.segmentStart
-                            + " despite having a value segment for parameterId: " + pit.getParameterId();
-                    log.error(msg);
-                    throw new IOException(msg);
-                }
-                ValueSegment engValueSegment = mpvr.retrieveEngValues ? pit.engValue() : null;
-                ParameterStatusSegment paramStatuSegment = mpvr.retrieveParamStatus ? pit.parameterStatus() : null;
-
-                ValueSegment rawValueSegment = null;
-                if (pit.retrieveRawValue) {
-                    rawValueSegment = pit.rawValue();
-                    if (rawValueSegment == null) {
-                        rawValueSegment = pit.engValue();
-                    }
-                }
-                // do some sanity checks
-                long numRecords = timeSegment.size();
-                if (engValueSegment != null && engValueSegment.size() != numRecords) {
-                    throw new DecodingException("EngValueSegment has a different number of records than timeSegment: "
-                            + engValueSegment.size() + " vs " + timeSegment.size() + " for segment: ["
-                            + TimeEncoding.toString(timeSegment.getSegmentStart()) + " - "
-                            + TimeEncoding.toString(timeSegment.getSegmentEnd()) + "]" + " offending key: "
-                            + pit.key());
-                }
-
-                if (rawValueSegment != null && rawValueSegment.size() != numRecords) {
-                    throw new DecodingException("RawValueSegment has a different number of records than timeSegment: "
-                            + rawValueSegment.size() + " vs " + timeSegment.size() + " for segment: ["
-                            + TimeEncoding.toString(timeSegment.getSegmentStart()) + " - "
-                            + TimeEncoding.toString(timeSegment.getSegmentEnd()) + "]" + " offending key: "
-                            + pit.key());
-                }
-
-                if (paramStatuSegment != null && paramStatuSegment.size() != numRecords) {
-                    throw new DecodingException(
-                            "ParmaeterStatusSegment has a different number of records than timeSegment: "
-                                    + paramStatuSegment.size() + " vs " + timeSegment.size() + " for segment: ["
-                                    + TimeEncoding.toString(timeSegment.getSegmentStart()) + " - "
-                                    + TimeEncoding.toString(timeSegment.getSegmentEnd()) + "]" + " offending key: "
-                                    + pit.key());
-                }
-
-                merger.currentParameterGroupId = pit.getParameterGroupId();
-                merger.currentParameterId = pit.getParameterId();
-                merger.currentParameterName = partition2ParameterName.get(pit);
-                new SegmentIterator(timeSegment, (ValueSegment) engValueSegment, (ValueSegment) rawValueSegment,
-                        paramStatuSegment, mpvr.start, mpvr.stop, mpvr.ascending).forEachRemaining(merger);
                 pit.next();
                 if (pit.isValid()) {
                     queue.add(pit);
                 }
             }
-            if (merger != null) {
-                sendAllData(merger, consumer);
+            if (group != null && !limitReached()) {
+                submit(group, consumer);
             }
-
         } finally {
             for (int i = 0; i < mpvr.parameterIds.length; i++) {
                 if (its[i] != null) {
@@ -155,6 +149,117 @@ public class MultiParameterDataRetrieval {
         }
     }
 
+    private boolean limitReached() {
+        return (mpvr.limit > 0) && (count >= mpvr.limit);
+    }
+
+    /**
+     * process the group in the current thread if there is no executor, otherwise submit it to the executor and send
+     * the data from the oldest groups until there are at most readAhead groups pending
+     */
+    private void submit(SegmentGroup group, Consumer<ParameterIdValueList> consumer)
+            throws DecodingException, IOException, RocksDBException {
+        if (executor == null) {
+            sendAllData(processGroup(group), consumer);
+            return;
+        }
+        pending.add(executor.submit(() -> processGroup(group)));
+        while (pending.size() > readAhead && !limitReached()) {
+            sendNext(consumer);
+        }
+    }
+
+    private void sendNext(Consumer<ParameterIdValueList> consumer)
+            throws DecodingException, IOException, RocksDBException {
+        Future<SegmentMerger> f = pending.poll();
+        try {
+            sendAllData(f.get(), consumer);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ParameterArchiveException("Interrupted while waiting for the segments to be decoded", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DecodingException) {
+                throw (DecodingException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RocksDBException) {
+                throw (RocksDBException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else {
+                throw new ParameterArchiveException("Error retrieving parameter data", cause);
+            }
+        }
+    }
+
+    /**
+     * decodes all segments from the group and merges their values
+     */
+    private SegmentMerger processGroup(SegmentGroup group) throws DecodingException, IOException, RocksDBException {
+        SegmentMerger merger = new SegmentMerger(group.key, mpvr);
+        Partition p = group.partition;
+        long segmentStart = group.key.segmentStart;
+        SortedTimeSegment timeSegment = null;
+
+        for (ParameterSegments ps : group.segments) {
+            // reuse the time segment if the previous parameter was from the same group
+            if (timeSegment == null || merger.currentParameterGroupId != ps.parameterGroupId) {
+                timeSegment = parchive.getTimeSegment(p, segmentStart, ps.parameterGroupId);
+            }
+            if (timeSegment == null) {
+                String msg = "Cannot find a time segment for parameterGroupId=" + ps.parameterGroupId
+                        + " segmentStart = " + segmentStart
+                        + " despite having a value segment for parameterId: " + ps.parameterId;
+                log.error(msg);
+                throw new IOException(msg);
+            }
+            ValueSegment engValueSegment = (ValueSegment) decode(group, ps, ps.engValue, SegmentKey.TYPE_ENG_VALUE);
+            ParameterStatusSegment paramStatuSegment = (ParameterStatusSegment) decode(group, ps, ps.paramStatus,
+                    SegmentKey.TYPE_PARAMETER_STATUS);
+            ValueSegment rawValueSegment = (ValueSegment) decode(group, ps, ps.rawValue, ps.rawValueType);
+
+            // do some sanity checks
+            long numRecords = timeSegment.size();
+            if (engValueSegment != null && engValueSegment.size() != numRecords) {
+                throw new DecodingException("EngValueSegment has a different number of records than timeSegment: "
+                        + engValueSegment.size() + " vs " + timeSegment.size() + " for segment: ["
+                        + TimeEncoding.toString(timeSegment.getSegmentStart()) + " - "
+                        + TimeEncoding.toString(timeSegment.getSegmentEnd()) + "]" + " offending key: "
+                        + ps.key);
+            }
+
+            if (rawValueSegment != null && rawValueSegment.size() != numRecords) {
+                throw new DecodingException("RawValueSegment has a different number of records than timeSegment: "
+                        + rawValueSegment.size() + " vs " + timeSegment.size() + " for segment: ["
+                        + TimeEncoding.toString(timeSegment.getSegmentStart()) + " - "
+                        + TimeEncoding.toString(timeSegment.getSegmentEnd()) + "]" + " offending key: "
+                        + ps.key);
+            }
+
+            if (paramStatuSegment != null && paramStatuSegment.size() != numRecords) {
+                throw new DecodingException(
+                        "ParmaeterStatusSegment has a different number of records than timeSegment: "
+                                + paramStatuSegment.size() + " vs " + timeSegment.size() + " for segment: ["
+                                + TimeEncoding.toString(timeSegment.getSegmentStart()) + " - "
+                                + TimeEncoding.toString(timeSegment.getSegmentEnd()) + "]" + " offending key: "
+                                + ps.key);
+            }
+
+            merger.currentParameterGroupId = ps.parameterGroupId;
+            merger.currentParameterId = ps.parameterId;
+            merger.currentParameterName = ps.parameterName;
+            new SegmentIterator(timeSegment, engValueSegment, rawValueSegment,
+                    paramStatuSegment, mpvr.start, mpvr.stop, mpvr.ascending).forEachRemaining(merger);
+        }
+        return merger;
+    }
+
+    private BaseSegment decode(SegmentGroup group, ParameterSegments ps, byte[] segment, byte type) {
+        SegmentKey key = new SegmentKey(ps.parameterId, ps.parameterGroupId, group.key.segmentStart, type);
+        return parchive.getSegmentCache().get(group.partition.getPartitionDir(), key, group.cacheGeneration, segment);
+    }
+
     private void sendAllData(SegmentMerger merger, Consumer<ParameterIdValueList> consumer) {
         Collection<ParameterIdValueList> c = merger.values.values();
         if (mpvr.limit < 0) {
@@ -243,6 +348,63 @@ public class MultiParameterDataRetrieval {
 
     }
 
+    /**
+     * The undecoded segments of all parameters having the same segment start
+     */
+    static class SegmentGroup {
+        final Partition partition;
+        final SegmentKey key;
+        // segment cache generation obtained before reading the segments
+        final long cacheGeneration;
+        final List<ParameterSegments> segments = new ArrayList<>();
+
+        SegmentGroup(Partition partition, SegmentKey key, long cacheGeneration) {
+            this.partition = partition;
+            this.key = key;
+            this.cacheGeneration = cacheGeneration;
+        }
+
+        void add(PartitionIterator pit, String parameterName, MultipleParameterValueRequest mpvr) {
+            byte[] engValue = mpvr.retrieveEngValues ? pit.engValueBytes() : null;
+            byte[] paramStatus = mpvr.retrieveParamStatus ? pit.parameterStatusBytes() : null;
+            byte[] rawValue = null;
+            byte rawValueType = SegmentKey.TYPE_RAW_VALUE;
+            if (pit.retrieveRawValue) {
+                rawValue = pit.rawValueBytes();
+                if (rawValue == null) {
+                    rawValue = pit.engValueBytes();
+                    rawValueType = SegmentKey.TYPE_ENG_VALUE;
+                }
+            }
+            segments.add(new ParameterSegments(pit.key(), pit.getParameterId(), pit.getParameterGroupId(),
+                    parameterName, engValue, rawValue, rawValueType, paramStatus));
+        }
+    }
+
+    static class ParameterSegments {
+        final SegmentKey key;
+        final int parameterId;
+        final int parameterGroupId;
+        final String parameterName;
+        final byte[] engValue;
+        final byte[] rawValue;
+        // the raw values are stored in the engineering value segment if they are the same
+        final byte rawValueType;
+        final byte[] paramStatus;
+
+        ParameterSegments(SegmentKey key, int parameterId, int parameterGroupId, String parameterName,
+                byte[] engValue, byte[] rawValue, byte rawValueType, byte[] paramStatus) {
+            this.key = key;
+            this.parameterId = parameterId;
+            this.parameterGroupId = parameterGroupId;
+            this.parameterName = parameterName;
+            this.engValue = engValue;
+            this.rawValue = rawValue;
+            this.rawValueType = rawValueType;
+            this.paramStatus = paramStatus;
+        }
+    }
+
     static class PartitionIteratorComparator implements Comparator<PartitionIterator> {
         final boolean ascending;
 
@@ -8,7 +8,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
@@ -21,6 +25,9 @@ import org.yamcs.Spec;
 import org.yamcs.Spec.OptionType;
 import org.yamcs.YConfiguration;
 import org.yamcs.YamcsServer;
+import org.yamcs.parameter.ParameterValue;
+import org.yamcs.parameter.SystemParametersCollector;
+import org.yamcs.parameter.SystemParametersProducer;
 import org.yamcs.time.TimeService;
 import org.yamcs.utils.ByteArrayUtils;
 import org.yamcs.utils.DatabaseCorruptionException;
@@ -40,6 +47,8 @@ import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TablespaceRecord;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TablespaceRecord.Type;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TimeBasedPartition;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * 
  * The parameter archive stores data in partitions -> intervals -> segments. A partition covers one year and each
@@ -54,7 +63,7 @@ import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TimeBasedPartition;
  * @author nm
  *
  */
-public class ParameterArchive extends AbstractYamcsService {
+public class ParameterArchive extends AbstractYamcsService implements SystemParametersProducer {
 
     public static final boolean STORE_RAW_VALUES = true;
 
@@ -82,6 +91,23 @@ public class ParameterArchive extends AbstractYamcsService {
     boolean realtimeFillerEnabled;
     boolean backFillerEnabled;
 
+    // used to decode the segments in parallel during the multi-parameter retrievals
+    private ThreadPoolExecutor retrievalExecutor;
+    private int retrievalReadAhead;
+
+    // decoded segments shared between retrievals
+    private SegmentCache segmentCache;
+    // if true, the rollup segments are written together with the numeric value segments
+    private boolean rollupsEnabled;
+    // if true, the archive may contain rollup segments (it has been started with the rollups enabled)
+    private boolean rollupsWritten;
+    private String spSegmentCacheHitsId, spSegmentCacheMissesId, spSegmentCacheEvictionsId, spSegmentCacheSizeId;
+    private String spBackFillerPendingId, spBackFillerRunningId, spBackFillerCompletedId, spBackFillerSamplesId,
+            spBackFillerThroughputId;
+    // used to compute the back filler throughput between two collections of the system parameters
+    private long lastCollectionTime = TimeEncoding.INVALID_INSTANT;
+    private long lastProcessedSamples;
+
     @Override
     public Spec getSpec() {
         Spec spec = new Spec();
@@ -89,6 +115,19 @@ public class ParameterArchive extends AbstractYamcsService {
         spec.addOption("realtimeFiller", OptionType.ANY);
         spec.addOption("partitioningSchema", OptionType.STRING).withDefault("YYYY")
                 .withChoices("YYYY/DOY", "YYYY/MM", "YYYY", "none");
+        spec.addOption("retrievalThreads", OptionType.INTEGER)
+                .withDescription("Number of threads used to decode the segments when retrieving multiple parameters.",
+                        "If 0, the segments are decoded in the thread performing the retrieval.",
+                        "The number is limited to the number of available processors; on single processor machines",
+                        "the retrieval is always sequential. Default: the number of available processors.");
+        spec.addOption("retrievalReadAhead", OptionType.INTEGER).withDefault(16)
+                .withDescription("Maximum number of segment groups decoded in advance of the retrieval consumer.");
+        spec.addOption("segmentCacheSize", OptionType.INTEGER).withDefault(32768)
+                .withDescription("Maximum memory in KB taken by the decoded segments kept in the cache.",
+                        "If 0, the cache is disabled.");
+        spec.addOption("rollups", OptionType.BOOLEAN).withDefault(false)
+                .withDescription("Maintain pre-aggregated (count/min/max/sum) segments for the numeric parameters.",
+                        "They are used to retrieve samples over long time intervals.");
 
         return spec;
     }
@@ -121,6 +160,28 @@ public class ParameterArchive extends AbstractYamcsService {
             backFiller = new BackFiller(this, null);
         }
 
+        int numProcessors = Runtime.getRuntime().availableProcessors();
+        int retrievalThreads = config.getInt("retrievalThreads", numProcessors);
+        // the parallel decoding is slower than the sequential one if there is only one processor
+        if (retrievalThreads > numProcessors || numProcessors == 1) {
+            int n = numProcessors == 1 ? 0 : numProcessors;
+            if (retrievalThreads != n) {
+                log.info("Using {} retrieval threads instead of {} on {} processor(s)", n, retrievalThreads,
+                        numProcessors);
+            }
+            retrievalThreads = n;
+        }
+        retrievalReadAhead = config.getInt("retrievalReadAhead");
+        if (retrievalThreads > 0) {
+            retrievalExecutor = new ThreadPoolExecutor(retrievalThreads, retrievalThreads, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), new ThreadFactoryBuilder().setDaemon(true)
+                            .setNameFormat("ParameterArchive-Retrieval-" + yamcsInstance + "-%d").build());
+            retrievalExecutor.allowCoreThreadTimeOut(true);
+        }
+
+        segmentCache = new SegmentCache(1024L * config.getInt("segmentCacheSize"));
+        rollupsEnabled = config.getBoolean("rollups");
+
         try {
             TablespaceRecord.Type trType = TablespaceRecord.Type.PARCHIVE_PINFO;
             List<TablespaceRecord> trl = tablespace.filter(trType, yamcsInstance, trb -> true);
@@ -133,7 +194,7 @@ public class ParameterArchive extends AbstractYamcsService {
 
             TablespaceRecord tr;
             if (trl.isEmpty()) { // new database
-                initializeDb();
+                tr = initializeDb();
             } else {// existing database
                 tr = trl.get(0);
                 partitionTbsIndex = tr.getTbsIndex();
@@ -142,6 +203,11 @@ public class ParameterArchive extends AbstractYamcsService {
                 }
                 readPartitions();
             }
+            rollupsWritten = tr.getRollups();
+            if (rollupsEnabled && !rollupsWritten) {
+                tablespace.updateRecord(yamcsInstance, tr.toBuilder().setRollups(true));
+                rollupsWritten = true;
+            }
             if (partitioningSchema == null) {
                 partitions.insert(new Partition());
             }
@@ -150,7 +216,7 @@ public class ParameterArchive extends AbstractYamcsService {
         }
     }
 
-    private void initializeDb() throws RocksDBException {
+    private TablespaceRecord initializeDb() throws RocksDBException {
         log.debug("initializing db");
 
         TablespaceRecord.Builder trb = TablespaceRecord.newBuilder().setType(Type.PARCHIVE_PINFO);
@@ -160,6 +226,7 @@ public class ParameterArchive extends AbstractYamcsService {
 
         TablespaceRecord tr = tablespace.createMetadataRecord(yamcsInstance, trb);
         partitionTbsIndex = tr.getTbsIndex();
+        return tr;
     }
 
     public TimePartitionSchema getPartitioningSchema() {
@@ -192,6 +259,23 @@ public class ParameterArchive extends AbstractYamcsService {
         }
     }
 
+    /**
+     * 
+     * @return true if the rollup segments are written together with the numeric value segments
+     */
+    public boolean isRollupsEnabled() {
+        return rollupsEnabled;
+    }
+
+    /**
+     * 
+     * @return true if the archive has been started at least once with the rollups enabled; the rollups are then
+     *         deleted when their value segments are rewritten with the rollups disabled
+     */
+    public boolean hasRollupsWritten() {
+        return rollupsWritten;
+    }
+
     public ParameterIdDb getParameterIdDb() {
         return parameterIdMap;
     }
@@ -203,32 +287,42 @@ public class ParameterArchive extends AbstractYamcsService {
     public void writeToArchive(PGSegment pgs) throws RocksDBException, IOException {
         pgs.consolidate();
         Partition p = createAndGetPartition(pgs.getSegmentStart());
+        List<SegmentKey> written = new ArrayList<>();
         try (WriteBatch writeBatch = new WriteBatch(); WriteOptions wo = new WriteOptions()) {
-            writeToBatch(writeBatch, p, pgs);
+            writeToBatch(writeBatch, p, pgs, written);
             tablespace.getRdb(p.partitionDir, false).getDb().write(wo, writeBatch);
         }
+        segmentCache.invalidate(p.partitionDir, written);
     }
 
     public void writeToArchive(long segStart, Collection<PGSegment> pgList) throws RocksDBException, IOException {
         Partition p = createAndGetPartition(segStart);
+        List<SegmentKey> written = new ArrayList<>();
         try (WriteBatch writeBatch = new WriteBatch(); WriteOptions wo = new WriteOptions()) {
 
             for (PGSegment pgs : pgList) {
                 pgs.consolidate();
                 assert (segStart == pgs.getSegmentStart());
-                writeToBatch(writeBatch, p, pgs);
+                writeToBatch(writeBatch, p, pgs, written);
             }
             tablespace.getRdb(p.partitionDir, false).getDb().write(wo, writeBatch);
         }
+        segmentCache.invalidate(p.partitionDir, written);
     }
 
-    private void writeToBatch(WriteBatch writeBatch, Partition p, PGSegment pgs) throws RocksDBException {
+    /**
+     * adds the segments of the pgs to the write batch and their keys to the written list such that they can be
+     * invalidated in the segment cache once the batch has been written
+     */
+    private void writeToBatch(WriteBatch writeBatch, Partition p, PGSegment pgs, List<SegmentKey> written)
+            throws RocksDBException {
         // write the time segment
         SortedTimeSegment timeSegment = pgs.getTimeSegment();
-        byte[] timeKey = new SegmentKey(parameterIdMap.timeParameterId, pgs.getParameterGroupId(),
-                pgs.getSegmentStart(), SegmentKey.TYPE_ENG_VALUE).encode();
+        SegmentKey timeSegKey = new SegmentKey(parameterIdMap.timeParameterId, pgs.getParameterGroupId(),
+                pgs.getSegmentStart(), SegmentKey.TYPE_ENG_VALUE);
         byte[] timeValue = vsEncoder.encode(timeSegment);
-        writeBatch.put(timeKey, timeValue);
+        writeBatch.put(timeSegKey.encode(), timeValue);
+        written.add(timeSegKey);
 
         // and then the consolidated value segments
         List<BaseSegment> consolidated = pgs.getConsolidatedValueSegments();
@@ -247,10 +341,18 @@ public class ParameterArchive extends AbstractYamcsService {
                                 + TimeEncoding.toString(timeSegment.getSegmentStart()) + " - "
                                 + TimeEncoding.toString(timeSegment.getSegmentEnd()) + "]");
             }
-            byte[] engKey = new SegmentKey(parameterId, pgs.getParameterGroupId(), pgs.getSegmentStart(),
-                    SegmentKey.TYPE_ENG_VALUE).encode();
+            SegmentKey engKey = new SegmentKey(parameterId, pgs.getParameterGroupId(), pgs.getSegmentStart(),
+                    SegmentKey.TYPE_ENG_VALUE);
             byte[] engValue = vsEncoder.encode(vs);
-            writeBatch.put(engKey, engValue);
+            writeBatch.put(engKey.encode(), engValue);
+            written.add(engKey);
+
+            if (rollupsEnabled) {
+                writeRollups(writeBatch, pgs, parameterId, timeSegment, (ValueSegment) vs, satusSegments.get(i),
+                        written);
+            } else if (rollupsWritten) {
+                deleteRollups(writeBatch, pgs, parameterId, written);
+            }
 
             if (STORE_RAW_VALUES && consolidatedRawValues != null) {
                 BaseSegment rvs = consolidatedRawValues.get(i);
@@ -263,10 +365,11 @@ public class ParameterArchive extends AbstractYamcsService {
                                         + TimeEncoding.toString(timeSegment.getSegmentStart()) + " - "
                                         + TimeEncoding.toString(timeSegment.getSegmentEnd()) + "]");
                     }
-                    byte[] rawKey = new SegmentKey(parameterId, pgs.getParameterGroupId(), pgs.getSegmentStart(),
-                            SegmentKey.TYPE_RAW_VALUE).encode();
+                    SegmentKey rawKey = new SegmentKey(parameterId, pgs.getParameterGroupId(),
+                            pgs.getSegmentStart(), SegmentKey.TYPE_RAW_VALUE);
                     byte[] rawValue = vsEncoder.encode(rvs);
-                    writeBatch.put(rawKey, rawValue);
+                    writeBatch.put(rawKey.encode(), rawValue);
+                    written.add(rawKey);
 
                 }
             }
@@ -278,10 +381,48 @@ public class ParameterArchive extends AbstractYamcsService {
                         + TimeEncoding.toString(timeSegment.getSegmentStart()) + " - "
                         + TimeEncoding.toString(timeSegment.getSegmentEnd()) + "]");
             }
-            byte[] pssKey = new SegmentKey(parameterId, pgs.getParameterGroupId(), pgs.getSegmentStart(),
-                    SegmentKey.TYPE_PARAMETER_STATUS).encode();
+            SegmentKey pssKey = new SegmentKey(parameterId, pgs.getParameterGroupId(), pgs.getSegmentStart(),
+                    SegmentKey.TYPE_PARAMETER_STATUS);
             byte[] pssValue = vsEncoder.encode(pss);
-            writeBatch.put(pssKey, pssValue);
+            writeBatch.put(pssKey.encode(), pssValue);
+            written.add(pssKey);
+        }
+    }
+
+    /**
+     * writes the rollup segments at all levels if the values are numeric, otherwise deletes them
+     */
+    private void writeRollups(WriteBatch writeBatch, PGSegment pgs, int parameterId, SortedTimeSegment timeSegment,
+            ValueSegment vs, ParameterStatusSegment pss, List<SegmentKey> written) throws RocksDBException {
+        double[] values = RollupSegment.getNumericValues(vs);
+        if (values == null) {
+            deleteRollups(writeBatch, pgs, parameterId, written);
+            return;
+        }
+        for (int level = 0; level < RollupSegment.LEVEL_BUCKET_BITS.length; level++) {
+            RollupSegment rs = RollupSegment.build(level, timeSegment, values, pss, Long.MIN_VALUE,
+                    Long.MAX_VALUE);
+            SegmentKey rollupKey = new SegmentKey(parameterId, pgs.getParameterGroupId(), pgs.getSegmentStart(),
+                    SegmentKey.rollupType(level));
+            writeBatch.put(rollupKey.encode(), vsEncoder.encode(rs));
+            written.add(rollupKey);
+        }
+    }
+
+    /**
+     * deletes the rollup segments at all levels, in the same batch as the value segment they summarise.
+     * <p>
+     * The segment may have been written before with rollups; deleting them ensures that a stored rollup always
+     * summarises the current value segment. If the archive has never been started with the rollups enabled, there is
+     * nothing to delete and this method is not called.
+     */
+    private void deleteRollups(WriteBatch writeBatch, PGSegment pgs, int parameterId, List<SegmentKey> written)
+            throws RocksDBException {
+        for (int level = 0; level < RollupSegment.LEVEL_BUCKET_BITS.length; level++) {
+            SegmentKey rollupKey = new SegmentKey(parameterId, pgs.getParameterGroupId(), pgs.getSegmentStart(),
+                    SegmentKey.rollupType(level));
+            writeBatch.delete(rollupKey.encode());
+            written.add(rollupKey);
         }
     }
 
@@ -351,12 +492,17 @@ public class ParameterArchive extends AbstractYamcsService {
             realtimeFiller = new RealtimeArchiveFiller(this, realtimeFillerConfig);
             realtimeFiller.startAsync();
         }
+        setupSystemParameters();
         notifyStarted();
     }
 
     @Override
     protected void doStop() {
         log.debug("Stopping ParameterArchive service for instance {}", yamcsInstance);
+        SystemParametersCollector collector = SystemParametersCollector.getInstance(yamcsInstance);
+        if (collector != null) {
+            collector.unregisterProducer(this);
+        }
 
         if (backFiller != null) {
             backFiller.stop();
@@ -366,9 +512,64 @@ public class ParameterArchive extends AbstractYamcsService {
             realtimeFiller.stopAsync();
             realtimeFiller.awaitTerminated();
         }
+        if (retrievalExecutor != null) {
+            retrievalExecutor.shutdownNow();
+        }
         notifyStopped();
     }
 
+    private void setupSystemParameters() {
+        SystemParametersCollector collector = SystemParametersCollector.getInstance(yamcsInstance);
+        if (collector == null || (!segmentCache.isEnabled() && backFiller == null)) {
+            return;
+        }
+        if (segmentCache.isEnabled()) {
+            String prefix = collector.getNamespace() + "/" + serviceName + "/segmentCache/";
+            spSegmentCacheHitsId = prefix + "hits";
+            spSegmentCacheMissesId = prefix + "misses";
+            spSegmentCacheEvictionsId = prefix + "evictions";
+            spSegmentCacheSizeId = prefix + "size";
+        }
+        if (backFiller != null) {
+            String prefix = collector.getNamespace() + "/" + serviceName + "/backFiller/";
+            spBackFillerPendingId = prefix + "pendingSegments";
+            spBackFillerRunningId = prefix + "runningSegments";
+            spBackFillerCompletedId = prefix + "completedSegments";
+            spBackFillerSamplesId = prefix + "processedSamples";
+            spBackFillerThroughputId = prefix + "throughput";
+        }
+        collector.registerProducer(this);
+    }
+
+    @Override
+    public Collection<ParameterValue> getSystemParameters() {
+        long time = timeService.getMissionTime();
+        List<ParameterValue> pvlist = new ArrayList<>(9);
+        if (spSegmentCacheHitsId != null) {
+            pvlist.add(SystemParametersCollector.getPV(spSegmentCacheHitsId, time, segmentCache.getHitCount()));
+            pvlist.add(SystemParametersCollector.getPV(spSegmentCacheMissesId, time, segmentCache.getMissCount()));
+            pvlist.add(SystemParametersCollector.getPV(spSegmentCacheEvictionsId, time,
+                    segmentCache.getEvictionCount()));
+            pvlist.add(SystemParametersCollector.getPV(spSegmentCacheSizeId, time, segmentCache.size()));
+        }
+        if (spBackFillerPendingId != null) {
+            long samples = backFiller.getProcessedSamples();
+            double throughput = 0;
+            if (lastCollectionTime != TimeEncoding.INVALID_INSTANT && time > lastCollectionTime) {
+                throughput = 1000.0 * (samples - lastProcessedSamples) / (time - lastCollectionTime);
+            }
+            lastCollectionTime = time;
+            lastProcessedSamples = samples;
+            pvlist.add(SystemParametersCollector.getPV(spBackFillerPendingId, time, backFiller.getPendingIntervals()));
+            pvlist.add(SystemParametersCollector.getPV(spBackFillerRunningId, time, backFiller.getRunningIntervals()));
+            pvlist.add(SystemParametersCollector.getPV(spBackFillerCompletedId, time,
+                    backFiller.getCompletedIntervals()));
+            pvlist.add(SystemParametersCollector.getPV(spBackFillerSamplesId, time, samples));
+            pvlist.add(SystemParametersCollector.getPV(spBackFillerThroughputId, time, throughput));
+        }
+        return pvlist;
+    }
+
     public void printKeys(PrintStream out) throws DecodingException, RocksDBException, IOException {
         out.println("pid\t pgid\t type\tSegmentStart\tcount\tsize\tstype");
         SegmentEncoderDecoder decoder = new SegmentEncoderDecoder();
@@ -408,17 +609,17 @@ public class ParameterArchive extends AbstractYamcsService {
 
     public SortedTimeSegment getTimeSegment(Partition p, long segmentStart, int parameterGroupId)
             throws RocksDBException, IOException {
-        byte[] timeKey = new SegmentKey(parameterIdMap.timeParameterId, parameterGroupId, segmentStart,
-                SegmentKey.TYPE_ENG_VALUE).encode();
-        byte[] tv = tablespace.getRdb(p.partitionDir, false).get(timeKey);
-        if (tv == null) {
-            return null;
-        }
-        try {
-            return (SortedTimeSegment) vsEncoder.decode(tv, segmentStart);
-        } catch (DecodingException e) {
-            throw new DatabaseCorruptionException(e);
-        }
+        SegmentKey timeKey = new SegmentKey(parameterIdMap.timeParameterId, parameterGroupId, segmentStart,
+                SegmentKey.TYPE_ENG_VALUE);
+        return (SortedTimeSegment) getSegment(p, timeKey);
+    }
+
+    /**
+     * 
+     * @return the decoded segment from the given partition or null if it does not exist
+     */
+    BaseSegment getSegment(Partition p, SegmentKey key) throws RocksDBException, IOException {
+        return segmentCache.get(p.partitionDir, key, () -> tablespace.getRdb(p.partitionDir, false).get(key.encode()));
     }
 
     Partition getPartitions(long instant) {
@@ -460,6 +661,31 @@ public class ParameterArchive extends AbstractYamcsService {
         return tablespace;
     }
 
+    /**
+     * 
+     * @return the executor used to decode segments in parallel during retrievals or null if the retrievals should be
+     *         performed in the calling thread
+     */
+    public ExecutorService getRetrievalExecutor() {
+        return retrievalExecutor;
+    }
+
+    /**
+     * 
+     * @return the maximum number of segment groups decoded in advance by the retrieval executor
+     */
+    public int getRetrievalReadAhead() {
+        return retrievalReadAhead;
+    }
+
+    /**
+     * 
+     * @return the cache of decoded segments
+     */
+    public SegmentCache getSegmentCache() {
+        return segmentCache;
+    }
+
     public static class Partition extends TimeInterval {
         final String partitionDir;
 
@@ -2,6 +2,8 @@ package org.yamcs.parameterarchive;
 
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -167,6 +169,16 @@ public class ParameterIdDb {
         return p2pidCache.size();
     }
 
+    /**
+     * Returns the sorted list of the qualified names of the parameters which have an id in the archive. The time
+     * parameter is not included.
+     */
+    public synchronized List<String> getParameterFqns() {
+        List<String> r = new ArrayList<>(p2pidCache.keySet());
+        Collections.sort(r);
+        return r;
+    }
+
     /**
      * Get all parameters ids for a given qualified name
      * 
@@ -28,6 +28,9 @@ public class PartitionIterator {
     final boolean retrieveParameterStatus;
     DbIterator dbIterator;
     boolean valid;
+    SegmentCache segmentCache;
+    String partitionDir;
+    long cacheGeneration;
 
     public PartitionIterator(RocksIterator iterator, int parameterId, int parameterGroupId, long start, long stop,
             boolean ascending, boolean retrieveEngValue, boolean retrieveRawValue, boolean retrieveParameterStatus) {
@@ -51,6 +54,21 @@ public class PartitionIterator {
         next();
     }
 
+    /**
+     * Decode the segments through the cache.
+     * 
+     * @param segmentCache
+     * @param partitionDir
+     *            - the partition the RocksDB iterator is reading from
+     * @param cacheGeneration
+     *            - the cache generation obtained before the RocksDB iterator has been created
+     */
+    void setSegmentCache(SegmentCache segmentCache, String partitionDir, long cacheGeneration) {
+        this.segmentCache = segmentCache;
+        this.partitionDir = partitionDir;
+        this.cacheGeneration = cacheGeneration;
+    }
+
     public void next() {
         if (!dbIterator.isValid()) {
             valid = false;
@@ -65,6 +83,9 @@ public class PartitionIterator {
 
     void nextAscending() {
         currentKey = SegmentKey.decode(dbIterator.key());
+        currentEngValueSegment = null;
+        currentRawValueSegment = null;
+        currentStatusSegment = null;
         valid = true;
 
         SegmentKey key = currentKey;
@@ -81,6 +102,9 @@ public class PartitionIterator {
 
     void nextDescending() {
         currentKey = SegmentKey.decode(dbIterator.key());
+        currentEngValueSegment = null;
+        currentRawValueSegment = null;
+        currentStatusSegment = null;
         valid = true;
         SegmentKey key = currentKey;
 
@@ -112,33 +136,27 @@ public class PartitionIterator {
     }
 
     ValueSegment engValue() {
-        if (currentEngValueSegment == null) {
-            return null;
-        }
-        try {
-            return (ValueSegment) segmentEncoder.decode(currentEngValueSegment, currentKey.segmentStart);
-        } catch (DecodingException e) {
-            throw new DatabaseCorruptionException(e);
-        }
+        return (ValueSegment) decode(currentEngValueSegment, SegmentKey.TYPE_ENG_VALUE);
     }
 
     ValueSegment rawValue() {
-        if (currentRawValueSegment == null) {
-            return null;
-        }
-        try {
-            return (ValueSegment) segmentEncoder.decode(currentRawValueSegment, currentKey.segmentStart);
-        } catch (DecodingException e) {
-            throw new DatabaseCorruptionException(e);
-        }
+        return (ValueSegment) decode(currentRawValueSegment, SegmentKey.TYPE_RAW_VALUE);
     }
 
     ParameterStatusSegment parameterStatus() {
-        if (currentStatusSegment == null) {
+        return (ParameterStatusSegment) decode(currentStatusSegment, SegmentKey.TYPE_PARAMETER_STATUS);
+    }
+
+    private BaseSegment decode(byte[] segment, byte type) {
+        if (segment == null) {
             return null;
         }
+        if (segmentCache != null) {
+            SegmentKey key = new SegmentKey(parameterId, parameterGroupId, currentKey.segmentStart, type);
+            return segmentCache.get(partitionDir, key, cacheGeneration, segment);
+        }
         try {
-            return (ParameterStatusSegment) segmentEncoder.decode(currentStatusSegment, currentKey.segmentStart);
+            return segmentEncoder.decode(segment, currentKey.segmentStart);
         } catch (DecodingException e) {
             throw new DatabaseCorruptionException(e);
         }
@@ -148,6 +166,27 @@ public class PartitionIterator {
         return valid;
     }
 
+    /**
+     * the undecoded engineering value segment corresponding to the current key
+     */
+    byte[] engValueBytes() {
+        return currentEngValueSegment;
+    }
+
+    /**
+     * the undecoded raw value segment corresponding to the current key
+     */
+    byte[] rawValueBytes() {
+        return currentRawValueSegment;
+    }
+
+    /**
+     * the undecoded parameter status segment corresponding to the current key
+     */
+    byte[] parameterStatusBytes() {
+        return currentStatusSegment;
+    }
+
     public int getParameterGroupId() {
         return parameterGroupId;
     }
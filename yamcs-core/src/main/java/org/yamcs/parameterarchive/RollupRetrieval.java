@@ -0,0 +1,145 @@
+package org.yamcs.parameterarchive;
+
+import static org.yamcs.parameterarchive.ParameterArchive.getIntervalEnd;
+import static org.yamcs.parameterarchive.ParameterArchive.getIntervalStart;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yamcs.parameterarchive.ParameterArchive.Partition;
+import org.yamcs.utils.DatabaseCorruptionException;
+import org.yamcs.yarch.rocksdb.AscendingRangeIterator;
+
+/**
+ * Retrieves the pre-aggregated values of one parameter at a given rollup level.
+ * <p>
+ * The rollup segments stored in the archive are used for the segments fully included in the [start, stop] interval.
+ * For the segments at the edges of the interval and for the segments written without rollups, the rollup is computed
+ * from the engineering values and the parameter status.
+ * <p>
+ * The archive deletes the rollups in the same batch when rewriting a segment without them, so a stored rollup always
+ * summarises the current value segment.
+ * <p>
+ * The segments are sent to the consumer in ascending order for each parameter group; if the parameter is part of
+ * multiple groups, the segments of different groups may overlap in time.
+ */
+public class RollupRetrieval {
+    private final Logger log = LoggerFactory.getLogger(RollupRetrieval.class);
+    final ParameterArchive parchive;
+    final String parameterFqn;
+    final long start;
+    final long stop;
+    final int level;
+
+    public RollupRetrieval(ParameterArchive parchive, String parameterFqn, long start, long stop, int level) {
+        if (level < 0 || level >= RollupSegment.LEVEL_BUCKET_BITS.length) {
+            throw new IllegalArgumentException("Invalid rollup level " + level);
+        }
+        this.parchive = parchive;
+        this.parameterFqn = parameterFqn;
+        this.start = start;
+        this.stop = stop;
+        this.level = level;
+    }
+
+    public void retrieve(Consumer<RollupSegment> consumer) throws RocksDBException, IOException {
+        ParameterId[] pids = parchive.getParameterIdDb().get(parameterFqn);
+        if (pids == null) {
+            log.debug("No parameter id found in the parameter archive for {}", parameterFqn);
+            return;
+        }
+        List<Partition> parts = parchive.getPartitions(getIntervalStart(start), getIntervalEnd(stop), true);
+        for (ParameterId pid : pids) {
+            int[] pgids = parchive.getParameterGroupIdDb().getAllGroups(pid.pid);
+            for (int pgid : pgids) {
+                for (Partition p : parts) {
+                    retrieveFromPartition(p, pid.pid, pgid, consumer);
+                }
+            }
+        }
+    }
+
+    private void retrieveFromPartition(Partition p, int parameterId, int parameterGroupId,
+            Consumer<RollupSegment> consumer) throws RocksDBException, IOException {
+        byte rollupType = SegmentKey.rollupType(level);
+        byte[] rangeStart = new SegmentKey(parameterId, parameterGroupId, getIntervalStart(start), (byte) 0).encode();
+        byte[] rangeStop = new SegmentKey(parameterId, parameterGroupId, stop, Byte.MAX_VALUE).encode();
+
+        long cacheGeneration = parchive.getSegmentCache().getGeneration();
+        try (RocksIterator it = parchive.getIterator(p)) {
+            AscendingRangeIterator ari = new AscendingRangeIterator(it, rangeStart, rangeStop);
+            SegmentKey current = null;
+            byte[] rollup = null;
+            boolean hasValues = false;
+            while (ari.isValid()) {
+                SegmentKey key = SegmentKey.decode(ari.key());
+                if (current != null && key.segmentStart != current.segmentStart) {
+                    sendSegment(p, current, rollup, hasValues, cacheGeneration, consumer);
+                    rollup = null;
+                    hasValues = false;
+                }
+                current = key;
+                if (key.type == rollupType) {
+                    rollup = ari.value();
+                } else if (key.type == SegmentKey.TYPE_ENG_VALUE) {
+                    hasValues = true;
+                }
+                ari.next();
+            }
+            if (current != null) {
+                sendSegment(p, current, rollup, hasValues, cacheGeneration, consumer);
+            }
+        }
+    }
+
+    private void sendSegment(Partition p, SegmentKey key, byte[] rollup, boolean hasValues, long cacheGeneration,
+            Consumer<RollupSegment> consumer) throws RocksDBException, IOException {
+        if (rollup != null) {
+            SegmentKey rollupKey = new SegmentKey(key.parameterId, key.parameterGroupId, key.segmentStart,
+                    SegmentKey.rollupType(level));
+            RollupSegment rs = (RollupSegment) parchive.getSegmentCache().get(p.getPartitionDir(), rollupKey,
+                    cacheGeneration, rollup);
+            if (rs.getSegmentStart() >= start && rs.getLastTime() <= stop) {
+                if (rs.size() > 0) {
+                    consumer.accept(rs);
+                }
+                return;
+            }
+        }
+        if (!hasValues) {
+            return;
+        }
+        // compute the rollup from the values
+        SegmentKey engKey = new SegmentKey(key.parameterId, key.parameterGroupId, key.segmentStart,
+                SegmentKey.TYPE_ENG_VALUE);
+        ValueSegment vs = (ValueSegment) parchive.getSegment(p, engKey);
+        double[] values = vs == null ? null : RollupSegment.getNumericValues(vs);
+        if (values == null) {
+            return;
+        }
+        SortedTimeSegment timeSegment = parchive.getTimeSegment(p, key.segmentStart, key.parameterGroupId);
+        if (timeSegment == null) {
+            String msg = "Cannot find a time segment for parameterGroupId=" + key.parameterGroupId
+                    + " segmentStart = " + key.segmentStart
+                    + " despite having a value segment for parameterId: " + key.parameterId;
+            log.error(msg);
+            throw new DatabaseCorruptionException(msg);
+        }
+        if (timeSegment.size() != values.length) {
+            throw new DatabaseCorruptionException("Value segment has a different number of records than timeSegment: "
+                    + values.length + " vs " + timeSegment.size() + " for key " + engKey);
+        }
+        SegmentKey statusKey = new SegmentKey(key.parameterId, key.parameterGroupId, key.segmentStart,
+                SegmentKey.TYPE_PARAMETER_STATUS);
+        ParameterStatusSegment pss = (ParameterStatusSegment) parchive.getSegment(p, statusKey);
+        RollupSegment rs = RollupSegment.build(level, timeSegment, values, pss, start, stop);
+        if (rs.size() > 0) {
+            consumer.accept(rs);
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package org.yamcs.parameterarchive;
+
+import java.nio.ByteBuffer;
+
+import org.yamcs.parameter.ValueArray;
+import org.yamcs.protobuf.Pvalue.ParameterStatus;
+import org.yamcs.utils.DecodingException;
+import org.yamcs.utils.DoubleArray;
+import org.yamcs.utils.IntArray;
+import org.yamcs.utils.LongArray;
+import org.yamcs.utils.UnsignedLong;
+import org.yamcs.utils.VarIntUtil;
+
+/**
+ * Pre-aggregated values of one numeric parameter in one segment.
+ * <p>
+ * The values are grouped in buckets of 2^bucketBits milliseconds aligned to the time origin; for each bucket
+ * containing values the count, min, max, sum and the expiration of the last value are stored. Only the non-empty
+ * buckets are stored.
+ * <p>
+ * The parameter archive maintains one rollup segment for each of the {@link #LEVEL_BUCKET_BITS} levels next to the
+ * engineering value segment; they are used to retrieve samples over long time intervals without decoding all the
+ * values.
+ */
+public class RollupSegment extends BaseSegment {
+    static final byte SUBFORMAT_ID_RAW = 0;
+
+    /**
+     * bucket sizes for the rollup levels: 2^14 ms =~ 16 seconds, 2^18 ms =~ 4.4 minutes and 2^23 ms = one interval
+     */
+    public static final int[] LEVEL_BUCKET_BITS = { 14, 18, ParameterArchive.NUMBITS_MASK };
+
+    final int bucketBits;
+    final long segmentStart;
+    long lastTime;
+    LongArray bucketStart;
+    IntArray count;
+    DoubleArray min;
+    DoubleArray max;
+    DoubleArray sum;
+    LongArray expireMillis;
+
+    RollupSegment(int bucketBits, long segmentStart) {
+        super(FORMAT_ID_RollupSegment);
+        this.bucketBits = bucketBits;
+        this.segmentStart = segmentStart;
+        this.lastTime = segmentStart;
+        bucketStart = new LongArray();
+        count = new IntArray();
+        min = new DoubleArray();
+        max = new DoubleArray();
+        sum = new DoubleArray();
+        expireMillis = new LongArray();
+    }
+
+    /**
+     * add a value; the values have to be added in ascending time order
+     *
+     * @param expire
+     *            - the expiration in milliseconds of the value or -1 if not known
+     */
+    void add(long time, double value, long expire) {
+        long bs = time & (-1L << bucketBits);
+        int n = bucketStart.size();
+        if (n == 0 || bucketStart.get(n - 1) != bs) {
+            bucketStart.add(bs);
+            count.add(1);
+            min.add(value);
+            max.add(value);
+            sum.add(value);
+            expireMillis.add(expire);
+        } else {
+            int i = n - 1;
+            count.set(i, count.get(i) + 1);
+            if (value < min.get(i)) {
+                min.set(i, value);
+            }
+            if (value > max.get(i)) {
+                max.set(i, value);
+            }
+            sum.set(i, sum.get(i) + value);
+            expireMillis.set(i, expire);
+        }
+        lastTime = time;
+    }
+
+    /**
+     * Builds the rollup segment from the values with the timestamps in the [start, stop] range.
+     *
+     * @param level
+     *            - the rollup level
+     * @param timeSegment
+     * @param values
+     *            - numeric values as returned by {@link #getNumericValues(ValueSegment)}
+     * @param statusSegment
+     *            - the status segment used to retrieve the expiration of the values; can be null
+     * @param start
+     * @param stop
+     * @return the rollup segment
+     */
+    static RollupSegment build(int level, SortedTimeSegment timeSegment, double[] values,
+            ParameterStatusSegment statusSegment, long start, long stop) {
+        RollupSegment rs = new RollupSegment(LEVEL_BUCKET_BITS[level], timeSegment.getSegmentStart());
+        for (int i = 0; i < values.length; i++) {
+            long t = timeSegment.getTime(i);
+            if (t >= start && t <= stop) {
+                rs.add(t, values[i], getExpireMillis(statusSegment, i));
+            }
+        }
+        return rs;
+    }
+
+    private static long getExpireMillis(ParameterStatusSegment statusSegment, int idx) {
+        if (statusSegment == null || idx >= statusSegment.size()) {
+            return -1;
+        }
+        ParameterStatus status = statusSegment.get(idx);
+        return status.hasExpireMillis() ? status.getExpireMillis() : -1;
+    }
+
+    /**
+     *
+     * @return the values of the segment converted to double or null if the values are not numeric
+     */
+    static double[] getNumericValues(ValueSegment vs) {
+        if (!(vs instanceof IntValueSegment || vs instanceof FloatValueSegment || vs instanceof DoubleValueSegment
+                || vs instanceof LongValueSegment)) {
+            return null;
+        }
+        int n = vs.size();
+        if (n == 0) {
+            return null;
+        }
+        ValueArray va = vs.getRange(0, n, true);
+        double[] r = new double[n];
+        switch (va.getType()) {
+        case FLOAT:
+            float[] fv = va.getFloatArray();
+            for (int i = 0; i < n; i++) {
+                r[i] = fv[i];
+            }
+            break;
+        case DOUBLE:
+            System.arraycopy(va.getDoubleArray(), 0, r, 0, n);
+            break;
+        case UINT32:
+            int[] iv = va.getIntArray();
+            for (int i = 0; i < n; i++) {
+                r[i] = iv[i] & 0xFFFFFFFFL;
+            }
+            break;
+        case SINT32:
+            iv = va.getIntArray();
+            for (int i = 0; i < n; i++) {
+                r[i] = iv[i];
+            }
+            break;
+        case UINT64:
+            long[] lv = va.getLongArray();
+            for (int i = 0; i < n; i++) {
+                r[i] = UnsignedLong.toDouble(lv[i]);
+            }
+            break;
+        case SINT64:
+            lv = va.getLongArray();
+            for (int i = 0; i < n; i++) {
+                r[i] = lv[i];
+            }
+            break;
+        default:
+            return null;
+        }
+        return r;
+    }
+
+    /**
+     *
+     * @param sampleInterval
+     *            - the duration in milliseconds of one requested sample
+     * @return the coarsest level having buckets not larger than the sampleInterval or -1 if all levels are too coarse
+     */
+    public static int getLevel(long sampleInterval) {
+        for (int level = LEVEL_BUCKET_BITS.length - 1; level >= 0; level--) {
+            if ((1L << LEVEL_BUCKET_BITS[level]) <= sampleInterval) {
+                return level;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void writeTo(ByteBuffer bb) {
+        bb.put(SUBFORMAT_ID_RAW);
+        bb.put((byte) bucketBits);
+        int n = bucketStart.size();
+        VarIntUtil.writeVarInt32(bb, n);
+        VarIntUtil.writeVarInt64(bb, lastTime - segmentStart);
+        long prev = segmentStart >> bucketBits;
+        for (int i = 0; i < n; i++) {
+            long b = bucketStart.get(i) >> bucketBits;
+            VarIntUtil.writeVarInt64(bb, b - prev);
+            prev = b;
+            VarIntUtil.writeVarInt32(bb, count.get(i));
+            bb.putDouble(min.get(i));
+            bb.putDouble(max.get(i));
+            bb.putDouble(sum.get(i));
+            VarIntUtil.writeVarInt64(bb, expireMillis.get(i) + 1);
+        }
+    }
+
+    public static RollupSegment parseFrom(ByteBuffer bb, long segmentStart) throws DecodingException {
+        byte fid = bb.get();
+        if (fid != SUBFORMAT_ID_RAW) {
+            throw new DecodingException("Uknown sub format id: " + fid);
+        }
+        RollupSegment rs = new RollupSegment(bb.get(), segmentStart);
+        int n = VarIntUtil.readVarInt32(bb);
+        rs.lastTime = segmentStart + VarIntUtil.readVarInt64(bb);
+        rs.bucketStart = new LongArray(n);
+        rs.count = new IntArray(n);
+        rs.min = new DoubleArray(n);
+        rs.max = new DoubleArray(n);
+        rs.sum = new DoubleArray(n);
+        rs.expireMillis = new LongArray(n);
+        long b = segmentStart >> rs.bucketBits;
+        for (int i = 0; i < n; i++) {
+            b += VarIntUtil.readVarInt64(bb);
+            rs.bucketStart.add(b << rs.bucketBits);
+            rs.count.add(VarIntUtil.readVarInt32(bb));
+            rs.min.add(bb.getDouble());
+            rs.max.add(bb.getDouble());
+            rs.sum.add(bb.getDouble());
+            rs.expireMillis.add(VarIntUtil.readVarInt64(bb) - 1);
+        }
+        return rs;
+    }
+
+    @Override
+    public int getMaxSerializedSize() {
+        return 2 + 5 + 10 + bucketStart.size() * (10 + 5 + 24 + 10);
+    }
+
+    /**
+     *
+     * @return the number of buckets
+     */
+    @Override
+    public int size() {
+        return bucketStart.size();
+    }
+
+    public int getBucketBits() {
+        return bucketBits;
+    }
+
+    public long getSegmentStart() {
+        return segmentStart;
+    }
+
+    /**
+     *
+     * @return the timestamp of the last value included in the rollup
+     */
+    public long getLastTime() {
+        return lastTime;
+    }
+
+    /**
+     *
+     * @return the number of values included in the rollup
+     */
+    public int getTotalCount() {
+        int n = 0;
+        for (int i = 0; i < count.size(); i++) {
+            n += count.get(i);
+        }
+        return n;
+    }
+
+    public long getBucketStart(int idx) {
+        return bucketStart.get(idx);
+    }
+
+    public int getCount(int idx) {
+        return count.get(idx);
+    }
+
+    public double getMin(int idx) {
+        return min.get(idx);
+    }
+
+    public double getMax(int idx) {
+        return max.get(idx);
+    }
+
+    public double getSum(int idx) {
+        return sum.get(idx);
+    }
+
+    /**
+     *
+     * @return the expiration in milliseconds of the last value in the bucket or -1 if not known
+     */
+    public long getExpireMillis(int idx) {
+        return expireMillis.get(idx);
+    }
+
+    @Override
+    public String toString() {
+        return "RollupSegment [bucketBits=" + bucketBits + ", numBuckets=" + bucketStart.size() + "]";
+    }
+}
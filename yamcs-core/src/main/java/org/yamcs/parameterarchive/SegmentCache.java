@@ -0,0 +1,257 @@
+package org.yamcs.parameterarchive;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Objects;
+
+import org.rocksdb.RocksDBException;
+import org.yamcs.utils.DatabaseCorruptionException;
+import org.yamcs.utils.DecodingException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Read-through cache of decoded segments.
+ * <p>
+ * The segments are identified by the partition directory and the {@link SegmentKey}. The cache is bounded by the
+ * estimated memory occupied by the decoded segments; the least recently used segments are evicted first.
+ * <p>
+ * The segments rewritten in the archive (including when the archive is rebuilt by the back filler) have to be
+ * invalidated after they have been written to the database; the parameter archive does it for all its writes. In order
+ * to not populate the cache with data read from the database before a write but decoded after the corresponding
+ * invalidation, the cache maintains a generation counter incremented at each invalidation. The callers reading the
+ * data from a RocksDB iterator have to obtain the generation before creating the iterator; the decoded segments are
+ * added to the cache only if there was no invalidation in the meanwhile.
+ * <p>
+ * The cached segments are shared between retrievals and must not be modified.
+ */
+public class SegmentCache {
+    // approximate memory taken by the cache entry, the key and the segment object
+    static final int ENTRY_OVERHEAD = 200;
+
+    final Cache<CacheKey, BaseSegment> cache;
+    final SegmentEncoderDecoder segmentEncoder = new SegmentEncoderDecoder();
+    private volatile long generation;
+
+    /**
+     *
+     * @param maxSize
+     *            - maximum size in bytes of the decoded segments kept in the cache. If 0, the cache is disabled and
+     *            all segments are decoded each time they are requested.
+     */
+    public SegmentCache(long maxSize) {
+        if (maxSize > 0) {
+            cache = CacheBuilder.newBuilder().maximumWeight(maxSize)
+                    .weigher((CacheKey k, BaseSegment s) -> k.weight)
+                    .recordStats().build();
+        } else {
+            cache = null;
+        }
+    }
+
+    /**
+     *
+     * @return the current generation; it has to be obtained before reading the data which is passed to
+     *         {@link #get(String, SegmentKey, long, byte[])}
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the cached segment or decodes and caches the segment read by the loader.
+     *
+     * @param partitionDir
+     * @param key
+     * @param loader
+     *            - used to read the encoded segment from the database if it is not in the cache
+     * @return the decoded segment or null if the loader returns null
+     * @throws RocksDBException
+     * @throws IOException
+     */
+    public BaseSegment get(String partitionDir, SegmentKey key, SegmentLoader loader)
+            throws RocksDBException, IOException {
+        long gen = generation;
+        BaseSegment segment = getIfPresent(partitionDir, key);
+        if (segment != null) {
+            return segment;
+        }
+        byte[] encoded = loader.load();
+        if (encoded == null) {
+            return null;
+        }
+        return decodeAndCache(partitionDir, key, gen, encoded);
+    }
+
+    /**
+     * Returns the cached segment or decodes and caches the encoded segment.
+     *
+     * @param partitionDir
+     * @param key
+     * @param gen
+     *            - the generation obtained with {@link #getGeneration()} before reading the encoded segment
+     * @param encoded
+     *            - the encoded segment as read from the database
+     * @return the decoded segment or null if the encoded segment is null
+     */
+    public BaseSegment get(String partitionDir, SegmentKey key, long gen, byte[] encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        BaseSegment segment = getIfPresent(partitionDir, key);
+        if (segment != null) {
+            return segment;
+        }
+        return decodeAndCache(partitionDir, key, gen, encoded);
+    }
+
+    private BaseSegment getIfPresent(String partitionDir, SegmentKey key) {
+        if (cache == null) {
+            return null;
+        }
+        return cache.getIfPresent(new CacheKey(partitionDir, key, 0));
+    }
+
+    private BaseSegment decodeAndCache(String partitionDir, SegmentKey key, long gen, byte[] encoded) {
+        BaseSegment segment;
+        try {
+            segment = segmentEncoder.decode(encoded, key.segmentStart);
+        } catch (DecodingException e) {
+            throw new DatabaseCorruptionException(e);
+        }
+        if (cache != null) {
+            CacheKey ck = new CacheKey(partitionDir, key, estimateSize(segment, encoded.length));
+            synchronized (this) {
+                if (gen == generation) {
+                    cache.put(ck, segment);
+                }
+            }
+        }
+        return segment;
+    }
+
+    /**
+     * Removes the segments from the cache. Has to be called after the segments have been written in the database.
+     *
+     * @param partitionDir
+     * @param keys
+     */
+    public void invalidate(String partitionDir, Collection<SegmentKey> keys) {
+        if (cache == null) {
+            return;
+        }
+        synchronized (this) {
+            generation++;
+            for (SegmentKey key : keys) {
+                cache.invalidate(new CacheKey(partitionDir, key, 0));
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    /**
+     *
+     * @return the number of segments in the cache
+     */
+    public long size() {
+        return cache == null ? 0 : cache.size();
+    }
+
+    public long getHitCount() {
+        return stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return stats().evictionCount();
+    }
+
+    private CacheStats stats() {
+        return cache == null ? new CacheStats(0, 0, 0, 0, 0, 0) : cache.stats();
+    }
+
+    /**
+     * Estimates the memory occupied by the decoded segment.
+     * <p>
+     * The primitive arrays are counted based on the number of values; for the segments containing objects, the
+     * references are counted plus the encoded size as an approximation of the size of the distinct objects.
+     */
+    static int estimateSize(BaseSegment segment, int encodedSize) {
+        int n = segment.size();
+        switch (segment.getFormatId()) {
+        case BaseSegment.FORMAT_ID_SortedTimeValueSegment:
+        case BaseSegment.FORMAT_ID_IntValueSegment:
+        case BaseSegment.FORMAT_ID_FloatValueSegment:
+            return ENTRY_OVERHEAD + 4 * n;
+        case BaseSegment.FORMAT_ID_DoubleValueSegment:
+        case BaseSegment.FORMAT_ID_LongValueSegment:
+            return ENTRY_OVERHEAD + 8 * n;
+        case BaseSegment.FORMAT_ID_BooleanValueSegment:
+            return ENTRY_OVERHEAD + n / 8;
+        default:
+            return ENTRY_OVERHEAD + 8 * n + encodedSize;
+        }
+    }
+
+    /**
+     * Reads an encoded segment from the database
+     */
+    @FunctionalInterface
+    public interface SegmentLoader {
+        /**
+         * @return the encoded segment or null if it does not exist
+         */
+        byte[] load() throws RocksDBException, IOException;
+    }
+
+    static final class CacheKey {
+        final String partitionDir;
+        final int parameterId;
+        final int parameterGroupId;
+        final long segmentStart;
+        final byte type;
+        // not part of the identity, used by the cache weigher
+        final int weight;
+
+        CacheKey(String partitionDir, SegmentKey key, int weight) {
+            this.partitionDir = partitionDir;
+            this.parameterId = key.parameterId;
+            this.parameterGroupId = key.parameterGroupId;
+            this.segmentStart = key.segmentStart;
+            this.type = key.type;
+            this.weight = weight;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Objects.hashCode(partitionDir);
+            result = 31 * result + parameterId;
+            result = 31 * result + parameterGroupId;
+            result = 31 * result + Long.hashCode(segmentStart);
+            result = 31 * result + type;
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return parameterId == other.parameterId && parameterGroupId == other.parameterGroupId
+                    && segmentStart == other.segmentStart && type == other.type
+                    && Objects.equals(partitionDir, other.partitionDir);
+        }
+    }
+}
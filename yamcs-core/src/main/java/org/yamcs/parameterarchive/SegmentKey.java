@@ -18,6 +18,8 @@ public class SegmentKey {
     public static final byte TYPE_ENG_VALUE = 0;
     public static final byte TYPE_RAW_VALUE = 1;
     public static final byte TYPE_PARAMETER_STATUS = 2;
+    // the rollup segments are stored with the types TYPE_ROLLUP + level
+    public static final byte TYPE_ROLLUP = 3;
     
     public SegmentKey(int parameterId, int parameterGroupId, long segmentStart, byte type) {
         this.parameterId = parameterId;
@@ -27,6 +29,15 @@ public class SegmentKey {
     }
     
 
+    /**
+     * 
+     * @param level
+     * @return the key type used for the rollup segment of the given level
+     */
+    public static byte rollupType(int level) {
+        return (byte) (TYPE_ROLLUP + level);
+    }
+
     public byte[] encode() {
         ByteBuffer bb = ByteBuffer.allocate(17);
         bb.putInt(parameterId);
@@ -5,9 +5,11 @@ import static org.yamcs.replication.ReplicationServer.workerGroup;
 import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
 
 import org.yamcs.logging.Log;
 import org.yamcs.replication.ReplicationMaster.SlaveServer;
+import org.yamcs.replication.protobuf.Compression;
 import org.yamcs.replication.protobuf.Request;
 import org.yamcs.replication.protobuf.Response;
 import org.yamcs.replication.protobuf.Wakeup;
@@ -35,6 +37,11 @@ public class MasterChannelHandler extends ChannelInboundHandlerAdapter {
     ReplicationTail fileTail;
     final Log log;
     SlaveServer slaveServer;
+    final ReplicationStats stats = new ReplicationStats();
+    Compression compression = Compression.NONE;
+    Deflater deflater;
+    byte[] batchIn;
+    byte[] batchOut;
 
     // called when we are TCP client, we first send a wakeup message and then we receive the request
     public MasterChannelHandler(ReplicationMaster master, SlaveServer slaveServer) {
@@ -113,6 +120,20 @@ public class MasterChannelHandler extends ChannelInboundHandlerAdapter {
             log.info("The slave did not provide a startTxId, starting from 0");
             nextTxToSend = 0;
         }
+        Compression c = replMaster.compression;
+        if (c != Compression.NONE && req.getSupportedCompressionList().contains(c)) {
+            if (deflater == null) {
+                deflater = new Deflater(replMaster.compressionLevel);
+            }
+            compression = c;
+        } else {
+            compression = Compression.NONE;
+        }
+        stats.setCompression(compression);
+        Response resp = Response.newBuilder().setRequestSeq(req.getRequestSeq()).setResult(0)
+                .setCompression(compression).build();
+        channelHandlerContext.writeAndFlush(Unpooled.wrappedBuffer(Message.get(resp).encode()));
+
         goToNextFile();
 
     }
@@ -140,6 +161,7 @@ public class MasterChannelHandler extends ChannelInboundHandlerAdapter {
                     break;
                 }
                 log.debug("Sending metadata TX{} length: {} ", txId, buf.remaining());
+                stats.add(buf.remaining(), buf.remaining());
                 ByteBuf bb = Unpooled.wrappedBuffer(buf);
                 channelHandlerContext.writeAndFlush(bb);
             }
@@ -150,6 +172,10 @@ public class MasterChannelHandler extends ChannelInboundHandlerAdapter {
 
     void sendMoreData() {
         if (!channelHandlerContext.channel().isActive()) {
+            if (deflater != null) {
+                deflater.end();
+                deflater = null;
+            }
             return;
         }
         if (fileTail == null) {
@@ -166,8 +192,14 @@ public class MasterChannelHandler extends ChannelInboundHandlerAdapter {
                 workerGroup.schedule(() -> sendMoreData(), 200, TimeUnit.MILLISECONDS);
             }
         } else {// got some data, send it and check back for more once the data has been sent
-            ByteBuf buf = Unpooled.wrappedBuffer(fileTail.buf);
-            dataHandlingFuture = channelHandlerContext.writeAndFlush(buf).addListener(a -> {
+            if (compression == Compression.NONE) {
+                int n = fileTail.buf.remaining();
+                stats.add(n, n);
+                dataHandlingFuture = channelHandlerContext.writeAndFlush(Unpooled.wrappedBuffer(fileTail.buf));
+            } else {
+                dataHandlingFuture = sendBatches(fileTail.buf);
+            }
+            dataHandlingFuture.addListener(a -> {
                 fileTail.buf.position(fileTail.buf.limit());
                 nextTxToSend = fileTail.nextTxId;
                 sendMoreData();
@@ -175,10 +207,80 @@ public class MasterChannelHandler extends ChannelInboundHandlerAdapter {
         }
     }
 
+    /**
+     * Splits the data into batches of consecutive transactions of at most maxBatchSize bytes and sends them
+     * compressed.
+     * 
+     * @return the future of the last batch written
+     */
+    private ChannelFuture sendBatches(ByteBuffer data) {
+        ByteBuffer buf = data.duplicate();
+        int maxBatchSize = replMaster.maxBatchSize;
+        ChannelFuture future = null;
+        while (buf.hasRemaining()) {
+            int start = buf.position();
+            int end = start;
+            while (end < buf.limit()) {
+                int msgLength = 4 + (buf.getInt(end) & 0xFFFFFF);
+                if (end > start && end + msgLength - start > maxBatchSize) {
+                    break;
+                }
+                end += msgLength;
+            }
+            ByteBuffer batch = buf.duplicate();
+            batch.limit(end);
+            buf.position(end);
+            future = channelHandlerContext.write(compress(batch));
+        }
+        channelHandlerContext.flush();
+        return future;
+    }
+
+    /**
+     * Compresses the transactions into a BATCH message. If the compression does not reduce the size (or the result
+     * would not fit into a frame), the transactions are sent as they are.
+     */
+    private ByteBuf compress(ByteBuffer batch) {
+        int n = batch.remaining();
+        if (n > Message.MAX_BATCH_LENGTH) {// a single transaction larger than the batch
+            stats.add(n, n);
+            return Unpooled.wrappedBuffer(batch);
+        }
+        if (batchIn == null || batchIn.length < n) {
+            batchIn = new byte[n];
+            batchOut = new byte[n];
+        }
+        batch.duplicate().get(batchIn, 0, n);
+        deflater.reset();
+        deflater.setInput(batchIn, 0, n);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished() && length < batchOut.length) {
+            length += deflater.deflate(batchOut, length, batchOut.length - length);
+        }
+        if (!deflater.finished() || length + 12 >= n) {// not compressible
+            stats.add(n, n);
+            return Unpooled.wrappedBuffer(batch);
+        }
+        stats.add(n, length + 12);
+        return Unpooled.wrappedBuffer(Message.encodeBatch(n, batchOut, length));
+    }
+
     public long getNextTxId() {
         return nextTxToSend;
     }
 
+    /**
+     * @return the number of transactions available in the master but not yet sent to the slave
+     */
+    public long getLag() {
+        return Math.max(0, replMaster.getTxId() - nextTxToSend);
+    }
+
+    public ReplicationStats getStats() {
+        return stats;
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
         cause.printStackTrace();
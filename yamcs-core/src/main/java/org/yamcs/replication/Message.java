@@ -3,6 +3,8 @@ package org.yamcs.replication;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 import org.yamcs.replication.protobuf.Request;
 import org.yamcs.replication.protobuf.Response;
@@ -28,6 +30,10 @@ import com.google.protobuf.MessageLite;
  * This is the same structure used in the replication file to be able to play it directly over the network.
  * <p>
  * The replication file contains only STREAM_INFO and DATA messages (and we call them transactions)
+ * <p>
+ * If compression has been negotiated, the master groups consecutive transactions into BATCH messages. The data of a
+ * BATCH message is made of 4 bytes containing the uncompressed length followed by the deflate compressed
+ * transactions, each of them in the format above.
  */
 public class Message {
     public final static byte WAKEUP = 1;
@@ -35,6 +41,16 @@ public class Message {
     public final static byte RESPONSE = 3;
     public final static byte STREAM_INFO = 4;
     public final static byte DATA = 5;
+    public final static byte BATCH = 6;
+
+    /**
+     * Maximum size of a message including the header and the CRC.
+     */
+    public final static int MAX_FRAME_LENGTH = 1024 * 1024;
+    /**
+     * Maximum size of the uncompressed data of a batch
+     */
+    public final static int MAX_BATCH_LENGTH = MAX_FRAME_LENGTH / 2;
 
     final byte type;
     MessageLite protoMsg;
@@ -79,6 +95,13 @@ public class Message {
                 buf.getInt();//pointer to next metadata
                 msg.protoMsg = decodeProto(buf, StreamInfo.newBuilder()).build();
                 break;
+            case BATCH:
+                int rawLength = buf.getInt();
+                if (rawLength < 0 || rawLength > MAX_BATCH_LENGTH) {
+                    throw new DecodingException("Invalid batch length " + rawLength);
+                }
+                msg = new BatchMessage(rawLength, buf);
+                break;
             default:
                 throw new DecodingException("unknown message type " + type);
 
@@ -140,6 +163,30 @@ public class Message {
         return msg;
     }
 
+    /**
+     * Encodes a BATCH message.
+     * 
+     * @param rawLength
+     *            - the length of the uncompressed data
+     * @param compressed
+     *            - array containing the compressed data
+     * @param length
+     *            - length of the compressed data
+     */
+    static ByteBuffer encodeBatch(int rawLength, byte[] compressed, int length) {
+        ByteBuffer buf = ByteBuffer.allocate(length + 12);
+        buf.putInt((BATCH << 24) | (length + 8));
+        buf.putInt(rawLength);
+        buf.put(compressed, 0, length);
+        CRC32 crc = new CRC32();
+        buf.flip();
+        crc.update(buf);
+        buf.limit(length + 12);
+        buf.putInt((int) crc.getValue());
+        buf.position(0);
+        return buf;
+    }
+
     public ByteBuffer encode() {
         byte[] b = protoMsg.toByteArray();
         ByteBuffer buf = ByteBuffer.allocate(b.length + 8);
@@ -175,3 +222,46 @@ class TransactionMessage extends Message {
         throw new UnsupportedOperationException();
     }
 }
+
+// a batch of transactions compressed together
+class BatchMessage extends Message {
+    final int rawLength;
+    final ByteBuffer buf;
+
+    BatchMessage(int rawLength, ByteBuffer buf) {
+        super(BATCH);
+        this.rawLength = rawLength;
+        this.buf = buf;
+    }
+
+    /**
+     * Decompresses the data; the result contains the messages one after the other.
+     */
+    ByteBuffer inflate(Inflater inflater) throws DecodingException {
+        byte[] in = new byte[buf.remaining()];
+        buf.get(in);
+        byte[] out = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(in);
+        try {
+            int n = 0;
+            while (n < rawLength && !inflater.finished()) {
+                int k = inflater.inflate(out, n, rawLength - n);
+                if (k == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                n += k;
+            }
+            if (n != rawLength || !inflater.finished()) {
+                throw new DecodingException("Batch decompressed to " + n + " bytes, expected " + rawLength);
+            }
+        } catch (DataFormatException e) {
+            throw new DecodingException(e);
+        }
+        return ByteBuffer.wrap(out);
+    }
+
+    public ByteBuffer encode() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -56,7 +56,7 @@ public class ReplicationClient {
                         if (sslCtx != null) {
                             ch.pipeline().addLast(sslCtx.newHandler(ch.alloc()));
                         }
-                        ch.pipeline().addLast(new LengthFieldBasedFrameDecoder(8192, 1, 3));
+                        ch.pipeline().addLast(new LengthFieldBasedFrameDecoder(Message.MAX_FRAME_LENGTH, 1, 3));
                         ch.pipeline().addLast(channelHandlerSupplier.get());
                     }
                 });
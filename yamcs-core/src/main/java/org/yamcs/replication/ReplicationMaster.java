@@ -32,6 +32,7 @@ import org.yamcs.YConfiguration;
 import org.yamcs.YamcsServer;
 import org.yamcs.Spec.OptionType;
 import org.yamcs.replication.protobuf.ColumnInfo;
+import org.yamcs.replication.protobuf.Compression;
 import org.yamcs.replication.protobuf.Request;
 import org.yamcs.replication.protobuf.StreamInfo;
 import org.yamcs.yarch.ColumnDefinition;
@@ -83,6 +84,9 @@ public class ReplicationMaster extends AbstractYamcsService {
     // files not accessed longer than this will be closed
     private long fileCloseTime;
     Pattern filePattern;
+    Compression compression;
+    int compressionLevel;
+    int maxBatchSize;
 
     @Override
     public void init(String yamcsInstance, String serviceName, YConfiguration config) throws InitException {
@@ -100,6 +104,15 @@ public class ReplicationMaster extends AbstractYamcsService {
             throw new InitException(
                     "maxFileSize has to be higher than header size which for maxPages=" + maxPages + " is " + hdrSize);
         }
+        compression = config.getEnum("compression", Compression.class, Compression.NONE);
+        compressionLevel = config.getInt("compressionLevel", 6);
+        if (compressionLevel < 1 || compressionLevel > 9) {
+            throw new InitException("compressionLevel has to be between 1 and 9");
+        }
+        maxBatchSize = 1024 * config.getInt("maxBatchSizeKB", 64);
+        if (maxBatchSize <= 0 || maxBatchSize > Message.MAX_BATCH_LENGTH) {
+            throw new InitException("maxBatchSizeKB has to be between 1 and " + (Message.MAX_BATCH_LENGTH / 1024));
+        }
         this.filePattern = Pattern.compile(Pattern.quote(serviceName) + "_([0-9A-Fa-f]{16})\\.dat");
 
         fileCloseTime = config.getLong("fileCloseTimeSec", 300) * 1000;
@@ -176,6 +189,9 @@ public class ReplicationMaster extends AbstractYamcsService {
         spec.addOption("maxFileSizeKB", OptionType.INTEGER);
         spec.addOption("fileCloseTimeSec", OptionType.INTEGER);
         spec.addOption("reconnectionIntervalSec", OptionType.INTEGER);
+        spec.addOption("compression", OptionType.STRING);
+        spec.addOption("compressionLevel", OptionType.INTEGER);
+        spec.addOption("maxBatchSizeKB", OptionType.INTEGER);
         spec.addOption("slaves", OptionType.LIST).withElementType(OptionType.MAP).withSpec(slaveSpec);
 
         return spec;
@@ -87,7 +87,7 @@ public class ReplicationServer extends AbstractYamcsService {
                         if (sslCtx != null) {
                             ch.pipeline().addLast(sslCtx.newHandler(ch.alloc()));
                         }
-                        ch.pipeline().addLast(new LengthFieldBasedFrameDecoder(8192, 1, 3));
+                        ch.pipeline().addLast(new LengthFieldBasedFrameDecoder(Message.MAX_FRAME_LENGTH, 1, 3));
                         ch.pipeline().addLast(new MyChannelHandler());
                     }
                 })
@@ -10,6 +10,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.Inflater;
 
 import javax.net.ssl.SSLException;
 
@@ -21,6 +22,7 @@ import org.yamcs.YamcsException;
 import org.yamcs.YamcsServer;
 import org.yamcs.Spec.OptionType;
 import org.yamcs.replication.protobuf.ColumnInfo;
+import org.yamcs.replication.protobuf.Compression;
 import org.yamcs.replication.protobuf.Request;
 import org.yamcs.replication.protobuf.Response;
 import org.yamcs.replication.protobuf.StreamInfo;
@@ -221,6 +223,8 @@ public class ReplicationSlave extends AbstractYamcsService {
         ReplicationSlave replSlave;
         private ChannelHandlerContext channelHandlerContext;
         Map<Integer, ByteBufToStream> streamWriters = new HashMap<>();
+        final ReplicationStats stats = new ReplicationStats();
+        Inflater inflater;
 
         public SlaveChannelHandler(ReplicationSlave slave) {
             this.replSlave = slave;
@@ -253,6 +257,39 @@ public class ReplicationSlave extends AbstractYamcsService {
                 return;
             }
 
+            if (msg.type == Message.BATCH) {
+                if (inflater == null) {
+                    inflater = new Inflater();
+                }
+                ByteBuffer batch;
+                try {
+                    batch = ((BatchMessage) msg).inflate(inflater);
+                } catch (DecodingException e) {
+                    log.warn("TX{} Failed to decompress batch; closing connection", lastTxId, e);
+                    ctx.close();
+                    return;
+                }
+                stats.add(batch.remaining(), nettybuf.readableBytes());
+                while (batch.hasRemaining() && state() == State.RUNNING) {
+                    ByteBuffer msgBuf = batch.slice();
+                    msgBuf.limit(4 + (msgBuf.getInt(0) & 0xFFFFFF));
+                    batch.position(batch.position() + msgBuf.limit());
+                    try {
+                        msg = Message.decode(msgBuf);
+                    } catch (DecodingException e) {
+                        log.warn("TX{} Failed to decode message from batch; closing connection", lastTxId, e);
+                        ctx.close();
+                        return;
+                    }
+                    processMessage(msg);
+                }
+            } else {
+                stats.add(nettybuf.readableBytes(), nettybuf.readableBytes());
+                processMessage(msg);
+            }
+        }
+
+        private void processMessage(Message msg) {
             if (msg.type == Message.DATA) {
                 TransactionMessage tmsg = (TransactionMessage) msg;
 
@@ -310,7 +347,10 @@ public class ReplicationSlave extends AbstractYamcsService {
                     failService("Received negative response: " + resp.getErrorMsg());
                     return;
                 } else {
-                    log.info("Received response {}", resp);
+                    log.info("Received response {}", TextFormat.shortDebugString(resp));
+                    if (resp.hasCompression()) {
+                        stats.setCompression(resp.getCompression());
+                    }
                 }
             } else {
                 failService("Unexpected message type " + msg.type + " received from the master");
@@ -344,7 +384,8 @@ public class ReplicationSlave extends AbstractYamcsService {
         }
 
         private void sendRequest() {
-            Request.Builder reqb = Request.newBuilder().setRequestSeq(1).setYamcsInstance(masterInstance);
+            Request.Builder reqb = Request.newBuilder().setRequestSeq(1).setYamcsInstance(masterInstance)
+                    .addSupportedCompression(Compression.DEFLATE);
             if (lastTxId >= 0) {
                 reqb.setStartTxId(lastTxId + 1);
             }
@@ -375,6 +416,14 @@ public class ReplicationSlave extends AbstractYamcsService {
             log.debug("Connection {} closed", ctx.channel().remoteAddress());
             super.channelInactive(ctx);
             slaveChannelHandler = null;
+            if (inflater != null) {
+                inflater.end();
+                inflater = null;
+            }
+        }
+
+        public ReplicationStats getStats() {
+            return stats;
         }
 
         class ByteBufToStream {
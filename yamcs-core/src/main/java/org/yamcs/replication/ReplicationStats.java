@@ -0,0 +1,65 @@
+package org.yamcs.replication;
+
+import org.yamcs.replication.protobuf.Compression;
+
+/**
+ * Keeps track of the data transferred on one replication connection.
+ * <p>
+ * The counters are updated from the netty event loop of the connection and read from the API threads.
+ */
+public class ReplicationStats {
+    private volatile Compression compression = Compression.NONE;
+    private volatile long rawBytes;
+    private volatile long wireBytes;
+
+    private long sampleTime = System.currentTimeMillis();
+    private long sampleWireBytes;
+    private double throughput;
+
+    void add(long raw, long wire) {
+        rawBytes += raw;
+        wireBytes += wire;
+    }
+
+    void setCompression(Compression compression) {
+        this.compression = compression;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * Size of the transactions transferred, before compression
+     */
+    public long getRawBytes() {
+        return rawBytes;
+    }
+
+    /**
+     * Number of bytes transferred on the connection
+     */
+    public long getWireBytes() {
+        return wireBytes;
+    }
+
+    public double getCompressionRatio() {
+        long wb = wireBytes;
+        return wb == 0 ? 1 : rawBytes / (double) wb;
+    }
+
+    /**
+     * Returns the number of bytes per second transferred on the connection, computed since the previous call but over
+     * at least one second.
+     */
+    public synchronized double getThroughput() {
+        long now = System.currentTimeMillis();
+        if (now - sampleTime >= 1000) {
+            long wb = wireBytes;
+            throughput = (wb - sampleWireBytes) * 1000.0 / (now - sampleTime);
+            sampleTime = now;
+            sampleWireBytes = wb;
+        }
+        return throughput;
+    }
+}
@@ -1,5 +1,7 @@
 package org.yamcs.tctm;
 
+import java.nio.ByteBuffer;
+
 /**
  * Computes the checksum inside the CCSDS packet
  * @author nm
@@ -14,6 +16,21 @@ public interface ErrorDetectionWordCalculator {
      * @return
      */
     public int compute(byte[] data, int offset, int length);
+
+    /**
+     * Compute the checksum on the remaining bytes of the buffer. The position of the buffer is not changed.
+     * <p>
+     * The default implementation copies the data if the buffer is not backed by an array.
+     */
+    public default int compute(ByteBuffer buf) {
+        if (buf.hasArray()) {
+            return compute(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining());
+        }
+        byte[] data = new byte[buf.remaining()];
+        buf.duplicate().get(data);
+        return compute(data, 0, data.length);
+    }
+
     /**
      * 
      * @return size in bits of the calculated checksum (max 32)
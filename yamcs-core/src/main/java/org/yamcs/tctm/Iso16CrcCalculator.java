@@ -9,18 +9,17 @@ package org.yamcs.tctm;
  *
  */
 public class Iso16CrcCalculator implements ErrorDetectionWordCalculator {
+    // c1 grows with the square of the number of bytes; the sums are reduced modulo 255 after each block
+    static final int BLOCK_SIZE = 1 << 24;
 
     @Override
     public int compute(byte[] data, int offset, int length) {
         long c0 = 0;
         long c1 = 0;
         int i = offset;
-        while (i < length) {
-            //compute in blocks to not overflow c1
-            int n = length;
-            if (n - i > 268961283) {
-                n -= 268961283;
-            }
+        int end = offset + length;
+        while (i < end) {
+            int n = end - i > BLOCK_SIZE ? i + BLOCK_SIZE : end;
 
             for (; i < n; i++) {
                 c0 = c0 + (data[i] & 0xFF);
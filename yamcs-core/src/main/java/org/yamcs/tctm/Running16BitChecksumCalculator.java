@@ -1,7 +1,5 @@
 package org.yamcs.tctm;
 
-import java.nio.ByteBuffer;
-
 public class Running16BitChecksumCalculator implements ErrorDetectionWordCalculator {
 
     @Override
@@ -9,10 +7,11 @@ public class Running16BitChecksumCalculator implements ErrorDetectionWordCalcula
         if((length&1) != 0) {
             throw new IllegalArgumentException("Cannot compute checksum on a odd number of bytes");
         }
-        ByteBuffer bb = ByteBuffer.wrap(data, offset, length);
         int checksum = 0;
-        while(bb.hasRemaining()) {
-            checksum+=bb.getShort();
+        int end = offset + length;
+        // the 16 bits sum modulo 2^16 is the same for signed or unsigned words
+        for (int i = offset; i < end; i += 2) {
+            checksum += ((data[i] & 0xFF) << 8) | (data[i + 1] & 0xFF);
         }
         return checksum & 0xFFFF;
     }
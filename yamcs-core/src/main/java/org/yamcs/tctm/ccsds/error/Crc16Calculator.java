@@ -1,8 +1,17 @@
 package org.yamcs.tctm.ccsds.error;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Table driven computation of 16 bits CRCs (most significant bit first, not reflected).
+ * <p>
+ * The data is processed 8 bytes at a time using the slicing-by-8 algorithm: r[k][b] is the CRC contribution of the
+ * byte b followed by k zero bytes.
+ */
 public class Crc16Calculator {
     final int polynomial;
-    short r[] = new short[256];
+    final int r[][] = new int[8][256];
 
     public Crc16Calculator(int polynomial) {
         this.polynomial = polynomial;
@@ -22,19 +31,58 @@ public class Crc16Calculator {
                 }
             }
 
-            r[dividend] = (short) remainder;
+            r[0][dividend] = remainder & 0xFFFF;
+        }
+        for (int k = 1; k < 8; k++) {
+            for (int dividend = 0; dividend < 256; dividend++) {
+                int x = r[k - 1][dividend];
+                r[k][dividend] = ((x << 8) ^ r[0][x >>> 8]) & 0xFFFF;
+            }
         }
     }
 
     public int compute(byte[] data, int offset, int length, int initialValue) {
-        int crc = initialValue;
+        int crc = initialValue & 0xFFFF;
+        int i = offset;
+        int end = offset + length;
+
+        for (; i <= end - 8; i += 8) {
+            crc = r[7][(data[i] ^ (crc >>> 8)) & 0xFF] ^ r[6][(data[i + 1] ^ crc) & 0xFF]
+                    ^ r[5][data[i + 2] & 0xFF] ^ r[4][data[i + 3] & 0xFF]
+                    ^ r[3][data[i + 4] & 0xFF] ^ r[2][data[i + 5] & 0xFF]
+                    ^ r[1][data[i + 6] & 0xFF] ^ r[0][data[i + 7] & 0xFF];
+        }
+        for (; i < end; i++) {
+            crc = (r[0][(data[i] ^ (crc >>> 8)) & 0xFF] ^ (crc << 8)) & 0xFFFF;
+        }
+
+        return crc;
+    }
 
-        for (int i = offset; i < offset + length; i++) {
-            int idx = (data[i] ^ (crc >> 8)) & 0xff;
-            crc = r[idx] ^ (crc << 8);
+    /**
+     * Computes the CRC of the remaining bytes of the buffer. The position of the buffer is not changed.
+     */
+    public int compute(ByteBuffer buf, int initialValue) {
+        if (buf.hasArray()) {
+            return compute(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining(), initialValue);
         }
+        int crc = initialValue & 0xFFFF;
+        int i = buf.position();
+        int end = buf.limit();
+        boolean bigEndian = buf.order() == ByteOrder.BIG_ENDIAN;
 
-        return crc & 0xFFFF;
+        for (; i <= end - 8; i += 8) {
+            long x = bigEndian ? buf.getLong(i) : Long.reverseBytes(buf.getLong(i));
+            int hi = (int) (x >>> 48) ^ crc;
+            crc = r[7][hi >>> 8] ^ r[6][hi & 0xFF]
+                    ^ r[5][(int) (x >>> 40) & 0xFF] ^ r[4][(int) (x >>> 32) & 0xFF]
+                    ^ r[3][(int) (x >>> 24) & 0xFF] ^ r[2][(int) (x >>> 16) & 0xFF]
+                    ^ r[1][(int) (x >>> 8) & 0xFF] ^ r[0][(int) x & 0xFF];
+        }
+        for (; i < end; i++) {
+            crc = (r[0][(buf.get(i) ^ (crc >>> 8)) & 0xFF] ^ (crc << 8)) & 0xFFFF;
+        }
 
+        return crc;
     }
 }
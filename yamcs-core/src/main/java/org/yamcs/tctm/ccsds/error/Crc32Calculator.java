@@ -1,8 +1,19 @@
 package org.yamcs.tctm.ccsds.error;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Table driven computation of 32 bits CRCs (most significant bit first, not reflected).
+ * <p>
+ * The data is processed 8 bytes at a time using the slicing-by-8 algorithm: r[k][b] is the CRC contribution of the
+ * byte b followed by k zero bytes.
+ * <p>
+ * {@link java.util.zip.CRC32} cannot be used because it implements only the reflected 0x04C11DB7 polynomial.
+ */
 public class Crc32Calculator {
-    final long polynomial;
-    int r[] = new int[256];
+    final int polynomial;
+    final int r[][] = new int[8][256];
 
     public Crc32Calculator(int polynomial) {
         this.polynomial = polynomial;
@@ -10,32 +21,70 @@ public class Crc32Calculator {
     }
 
     void init() {
-        long remainder;
+        int remainder;
         for (int dividend = 0; dividend < 256; dividend++) {
             remainder = dividend << 24;
 
             for (int j = 0; j < 8; j++) {
-                if ((remainder & 0x80000000L) == 0) {
+                if ((remainder & 0x80000000) == 0) {
                     remainder = (remainder << 1);
                 } else {
                     remainder = (remainder << 1) ^ polynomial;
                 }
-                
             }
-            
-            r[dividend] = (int) remainder;
+
+            r[0][dividend] = remainder;
+        }
+        for (int k = 1; k < 8; k++) {
+            for (int dividend = 0; dividend < 256; dividend++) {
+                int x = r[k - 1][dividend];
+                r[k][dividend] = (x << 8) ^ r[0][x >>> 24];
+            }
         }
     }
 
     public int compute(byte[] data, int offset, int length, int initialValue) {
         int crc = initialValue;
+        int i = offset;
+        int end = offset + length;
 
-        for (int i = offset; i < offset + length; i++) {
-            int idx = (data[i] ^ (crc >> 24)) & 0xff;
-            crc = r[idx] ^ (crc << 8);
+        for (; i <= end - 8; i += 8) {
+            int x = crc ^ ((data[i] << 24) | ((data[i + 1] & 0xFF) << 16) | ((data[i + 2] & 0xFF) << 8)
+                    | (data[i + 3] & 0xFF));
+            crc = r[7][x >>> 24] ^ r[6][(x >>> 16) & 0xFF] ^ r[5][(x >>> 8) & 0xFF] ^ r[4][x & 0xFF]
+                    ^ r[3][data[i + 4] & 0xFF] ^ r[2][data[i + 5] & 0xFF]
+                    ^ r[1][data[i + 6] & 0xFF] ^ r[0][data[i + 7] & 0xFF];
+        }
+        for (; i < end; i++) {
+            crc = r[0][(data[i] ^ (crc >>> 24)) & 0xFF] ^ (crc << 8);
         }
 
         return crc;
+    }
 
+    /**
+     * Computes the CRC of the remaining bytes of the buffer. The position of the buffer is not changed.
+     */
+    public int compute(ByteBuffer buf, int initialValue) {
+        if (buf.hasArray()) {
+            return compute(buf.array(), buf.arrayOffset() + buf.position(), buf.remaining(), initialValue);
+        }
+        int crc = initialValue;
+        int i = buf.position();
+        int end = buf.limit();
+        boolean bigEndian = buf.order() == ByteOrder.BIG_ENDIAN;
+
+        for (; i <= end - 8; i += 8) {
+            long x = bigEndian ? buf.getLong(i) : Long.reverseBytes(buf.getLong(i));
+            int hi = (int) (x >>> 32) ^ crc;
+            crc = r[7][hi >>> 24] ^ r[6][(hi >>> 16) & 0xFF] ^ r[5][(hi >>> 8) & 0xFF] ^ r[4][hi & 0xFF]
+                    ^ r[3][(int) (x >>> 24) & 0xFF] ^ r[2][(int) (x >>> 16) & 0xFF]
+                    ^ r[1][(int) (x >>> 8) & 0xFF] ^ r[0][(int) x & 0xFF];
+        }
+        for (; i < end; i++) {
+            crc = r[0][(buf.get(i) ^ (crc >>> 24)) & 0xFF] ^ (crc << 8);
+        }
+
+        return crc;
     }
 }
@@ -1,5 +1,7 @@
 package org.yamcs.tctm.ccsds.error;
 
+import java.nio.ByteBuffer;
+
 import org.yamcs.YConfiguration;
 import org.yamcs.tctm.ErrorDetectionWordCalculator;
 
@@ -32,6 +34,11 @@ public class CrcCciitCalculator implements ErrorDetectionWordCalculator {
 
     }
 
+    @Override
+    public int compute(ByteBuffer buf) {
+        return cc.compute(buf, initialValue);
+    }
+
     @Override
     public int sizeInBits() {
         return 16;
@@ -1,5 +1,8 @@
 package org.yamcs.tctm.ccsds.error;
 
+import java.nio.ByteBuffer;
+
+
 import org.yamcs.tctm.ErrorDetectionWordCalculator;
 /**
  * CRC-32 error detection code as specified in
@@ -25,6 +28,11 @@ public class ProximityCrc32 implements ErrorDetectionWordCalculator {
         return cc.compute(data, offset, length, initialValue);
     }
 
+    @Override
+    public int compute(ByteBuffer buf) {
+        return cc.compute(buf, initialValue);
+    }
+
 
     @Override
     public int sizeInBits() {
@@ -421,4 +421,14 @@ public class ByteArray {
         return position;
     }
 
+    /**
+     * Sets the position from where the next get operation will read.
+     * 
+     * @param position
+     */
+    public void position(int position) {
+        rangeCheck(position);
+        this.position = position;
+    }
+
 }
@@ -0,0 +1,113 @@
+package org.yamcs.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue backed by an array, with one consumer and one or more producers.
+ * <p>
+ * Each slot has a sequence number telling if it is free for the producer writing at that position or if it contains
+ * the element for the consumer reading at that position. The producers reserve a slot by incrementing the tail with a
+ * compare and set; with a single producer the compare and set always succeeds from the first attempt.
+ * <p>
+ * The consumer methods ({@link #poll()}) are not thread safe: they have to be called always from the same thread.
+ *
+ * @param <T>
+ *            type of the elements
+ */
+public class RingBuffer<T> {
+    private final Object[] buffer;
+    private final AtomicLongArray sequence;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     *
+     * @param capacity
+     *            - the maximum number of elements; it is rounded up to the next power of 2
+     */
+    public RingBuffer(int capacity) {
+        if (capacity < 1 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        int n = 1;
+        while (n < capacity) {
+            n <<= 1;
+        }
+        buffer = new Object[n];
+        sequence = new AtomicLongArray(n);
+        for (int i = 0; i < n; i++) {
+            sequence.set(i, i);
+        }
+        mask = n - 1;
+    }
+
+    /**
+     * Inserts the element at the tail of the queue if there is space.
+     *
+     * @return true if the element has been inserted, false if the queue was full
+     */
+    public boolean offer(T e) {
+        if (e == null) {
+            throw new NullPointerException();
+        }
+        long pos = tail.get();
+        while (true) {
+            int idx = (int) pos & mask;
+            long dif = sequence.get(idx) - pos;
+            if (dif == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    buffer[idx] = e;
+                    sequence.lazySet(idx, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (dif < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Retrieves and removes the element from the head of the queue.
+     * <p>
+     * Has to be called only by the consumer thread.
+     *
+     * @return the element or null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long pos = head.get();
+        int idx = (int) pos & mask;
+        if (sequence.get(idx) != pos + 1) {
+            return null;
+        }
+        T e = (T) buffer[idx];
+        buffer[idx] = null;
+        sequence.lazySet(idx, pos + mask + 1);
+        head.lazySet(pos + 1);
+        return e;
+    }
+
+    /**
+     * Returns the number of elements in the queue.
+     * <p>
+     * The value may be imprecise if the queue is modified concurrently.
+     */
+    public int size() {
+        long s = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(s, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,501 @@
+package org.yamcs.xtceproc;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.yamcs.ContainerExtractionResult;
+import org.yamcs.logging.Log;
+import org.yamcs.parameter.Value;
+import org.yamcs.utils.BitBuffer;
+import org.yamcs.xtce.BaseDataType;
+import org.yamcs.xtce.Comparison;
+import org.yamcs.xtce.ComparisonList;
+import org.yamcs.xtce.DataEncoding;
+import org.yamcs.xtce.FloatDataEncoding;
+import org.yamcs.xtce.IntegerDataEncoding;
+import org.yamcs.xtce.MatchCriteria;
+import org.yamcs.xtce.OperatorType;
+import org.yamcs.xtce.Parameter;
+import org.yamcs.xtce.ParameterEntry;
+import org.yamcs.xtce.ParameterInstanceRef;
+import org.yamcs.xtce.ParameterType;
+import org.yamcs.xtce.RateInStream;
+import org.yamcs.xtce.SequenceContainer;
+import org.yamcs.xtce.SequenceEntry;
+import org.yamcs.xtce.SequenceEntry.ReferenceLocationType;
+
+/**
+ * Flat representation of the subscribed part of the container hierarchy, used to extract the packets without
+ * interpreting the XTCE container tree for each packet.
+ * <p>
+ * For each subscribed container the plan contains:
+ * <ul>
+ * <li>the subscribed entries in an array, together with their bit position in the packet for the entries whose
+ * position does not depend on the packet content.</li>
+ * <li>the inheriting containers indexed on the value of the discriminating parameter (e.g. APID or packet id) when
+ * their restriction criteria contains an equality comparison of an integer parameter with a constant. The inheriting
+ * containers are looked up in the index instead of evaluating the restriction criteria of each of them.</li>
+ * </ul>
+ * <p>
+ * The plan is built for a given version of the {@link Subscription} and has to be recompiled when the subscription
+ * changes. The extraction results are the same as the ones of the {@link SequenceContainerProcessor}, except for the
+ * order of processing the inheriting containers which is not defined in either case.
+ * <p>
+ * The compilation is not thread safe and the subscription must not change while extracting packets. Once compiled with
+ * {@link #compile(SequenceContainer)}, a container plan can be retrieved with {@link #getCompiledPlan(SequenceContainer)}
+ * and used to extract packets in parallel without synchronization.
+ */
+public class ContainerExtractionPlan {
+    final Subscription subscription;
+    final int subscriptionVersion;
+    final Map<SequenceContainer, ContainerPlan> plans = new IdentityHashMap<>();
+    // the start containers whose plan is fully compiled
+    private final Map<SequenceContainer, ContainerPlan> compiledPlans = new ConcurrentHashMap<>();
+    final Log log;
+
+    ContainerExtractionPlan(Subscription subscription, String yamcsInstance) {
+        this.subscription = subscription;
+        this.subscriptionVersion = subscription.getVersion();
+        this.log = new Log(ContainerExtractionPlan.class, yamcsInstance);
+    }
+
+    /**
+     *
+     * @return true if the subscription has changed since this plan has been compiled
+     */
+    boolean isOutdated() {
+        return subscription.getVersion() != subscriptionVersion;
+    }
+
+    /**
+     * Compiles the plan for the container used as start container.
+     * <p>
+     * Not thread safe.
+     */
+    ContainerPlan compile(SequenceContainer sc) {
+        ContainerPlan cp = compiledPlans.get(sc);
+        if (cp == null) {
+            cp = getPlan(sc);
+            cp.getMaxNumEntries();
+            compiledPlans.put(sc, cp);
+        }
+        return cp;
+    }
+
+    /**
+     * Can be called concurrently with {@link #compile(SequenceContainer)}.
+     *
+     * @return the plan compiled for the start container or null if it has not been compiled
+     */
+    ContainerPlan getCompiledPlan(SequenceContainer sc) {
+        return compiledPlans.get(sc);
+    }
+
+    /**
+     * Returns the plan for the container, compiling it if necessary.
+     */
+    ContainerPlan getPlan(SequenceContainer sc) {
+        ContainerPlan cp = plans.get(sc);
+        if (cp == null) {
+            cp = new ContainerPlan(sc);
+            // put it in the map before compiling the inheriting containers in order to not recurse infinitely in case
+            // of ill-defined inheritance loops
+            plans.put(sc, cp);
+            cp.compile();
+        }
+        return cp;
+    }
+
+    /**
+     * Extracts the container starting at the current position of the buffer.
+     */
+    void extract(ContainerProcessingContext pcontext, ContainerPlan cp) {
+        ContainerProcessingResult result = pcontext.result;
+        BitBuffer buf = pcontext.buffer;
+        result.containers.add(new ContainerExtractionResult(cp.container, buf.array(),
+                buf.getPosition() + buf.offset() * 8, result.acquisitionTime, result.generationTime));
+
+        if (cp.maxInterval > 0) {
+            result.expireMillis = (long) (pcontext.options.getExpirationTolerance() * cp.maxInterval);
+        }
+        int maxposition = buf.getPosition();
+
+        SequenceEntry[] entries = cp.entries;
+        for (int i = 0; i < entries.length; i++) {
+            SequenceEntry se = entries[i];
+            try {
+                if (cp.conditional[i] && !se.getIncludeCondition().isMet(pcontext.criteriaEvaluator)) {
+                    continue;
+                }
+                int position = cp.positions[i];
+                if (position >= 0) {
+                    buf.setPosition(position);
+                } else if (se.getReferenceLocation() == ReferenceLocationType.PREVIOUS_ENTRY) {
+                    buf.setPosition(buf.getPosition() + se.getLocationInContainerInBits());
+                } else {
+                    buf.setPosition(se.getLocationInContainerInBits());
+                }
+
+                if (pcontext.options.ignoreOutOfContainerEntries() && (buf.getPosition() >= buf.sizeInBits())) {
+                    // the next entry is outside of the packet
+                    break;
+                }
+
+                if (se.getRepeatEntry() != null) {
+                    extractRepeated(pcontext, se);
+                } else if (cp.simpleParameter[i]) {
+                    pcontext.sequenceEntryProcessor.extractParameterEntry((ParameterEntry) se);
+                } else {
+                    pcontext.sequenceEntryProcessor.extract(se);
+                }
+            } catch (BufferUnderflowException | BufferOverflowException | IndexOutOfBoundsException e) {
+                logOutOfContainer(se, buf);
+                break;
+            }
+            if (buf.getPosition() > maxposition) {
+                maxposition = buf.getPosition();
+            }
+        }
+
+        boolean hasDerived = false;
+        if (cp.hasInheritingContainers) {
+            int bitp = buf.getPosition();
+            ContainerPlan[] indexed = cp.getIndexedContainers(pcontext);
+            boolean lookedUp = indexed != null;
+            if (!lookedUp) {
+                // discriminant value not available or not an integer, evaluate the criteria of all containers
+                indexed = cp.indexedContainers;
+            }
+            for (ContainerPlan icp : indexed) {
+                // the criteria verified by the index lookup does not need to be evaluated again
+                if ((lookedUp && icp.criteriaRedundant) || icp.isMet(pcontext)) {
+                    hasDerived = true;
+                    buf.setPosition(bitp);
+                    extract(pcontext, icp);
+                    if (buf.getPosition() > maxposition) {
+                        maxposition = buf.getPosition();
+                    }
+                }
+            }
+            for (ContainerPlan icp : cp.otherContainers) {
+                if (icp.isMet(pcontext)) {
+                    hasDerived = true;
+                    buf.setPosition(bitp);
+                    extract(pcontext, icp);
+                    if (buf.getPosition() > maxposition) {
+                        maxposition = buf.getPosition();
+                    }
+                }
+            }
+        }
+        buf.setPosition(maxposition);
+        if (!hasDerived && (result.stats != null)) {
+            String pname = result.getPacketName();
+            result.stats.newPacket(pname, cp.numSubscribedEntries, result.acquisitionTime, result.generationTime,
+                    buf.sizeInBits());
+        }
+    }
+
+    private void extractRepeated(ContainerProcessingContext pcontext, SequenceEntry se) {
+        BitBuffer buf = pcontext.buffer;
+        Long l = pcontext.valueProcessor.getValue(se.getRepeatEntry().getCount());
+        if (l == null) {
+            log.warn("Cannot find value for count {} required for extracting the repeated entry {} ",
+                    se.getRepeatEntry().getCount(), se);
+        } else {
+            long n = l;
+            for (int i = 0; i < n; i++) {
+                pcontext.sequenceEntryProcessor.extract(se);
+                buf.setPosition(buf.getPosition() + se.getRepeatEntry().getOffsetSizeInBits());
+            }
+        }
+    }
+
+    private void logOutOfContainer(SequenceEntry se, BitBuffer buf) {
+        if (se instanceof ParameterEntry) {
+            ParameterEntry pe = (ParameterEntry) se;
+            log.warn("Could not extract parameter " + pe.getParameter().getQualifiedName()
+                    + " from container " + se.getContainer().getQualifiedName()
+                    + " at position " + buf.getPosition()
+                    + " because it falls beyond the end of the container. Container size in bits: "
+                    + buf.sizeInBits());
+        } else {
+            log.warn("Could not extract entry " + se + "of size "
+                    + buf.sizeInBits() + "bits from container " + se.getContainer().getQualifiedName()
+                    + " position " + buf.getPosition()
+                    + "because it falls beyond the end of the container. Container size in bits: "
+                    + buf.sizeInBits());
+        }
+    }
+
+    /**
+     *
+     * @return the size in bits of the entry if it is always the same, or -1 if the size depends on the data
+     */
+    static int getFixedSizeInBits(SequenceEntry se) {
+        if (se.getClass() != ParameterEntry.class || se.getRepeatEntry() != null) {
+            return -1;
+        }
+        ParameterType ptype = ((ParameterEntry) se).getParameter().getParameterType();
+        if (!(ptype instanceof BaseDataType)) {
+            return -1;
+        }
+        DataEncoding de = ((BaseDataType) ptype).getEncoding();
+        if (de == null || de.getFromBinaryTransformAlgorithm() != null) {
+            return -1;
+        }
+        if (de instanceof IntegerDataEncoding) {
+            IntegerDataEncoding ide = (IntegerDataEncoding) de;
+            return ide.getEncoding() == IntegerDataEncoding.Encoding.STRING ? -1 : ide.getSizeInBits();
+        } else if (de instanceof FloatDataEncoding) {
+            FloatDataEncoding fde = (FloatDataEncoding) de;
+            if (fde.getEncoding() == FloatDataEncoding.Encoding.IEEE754_1985) {
+                return fde.getSizeInBits() == 32 ? 32 : 64;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the comparison which can be used to index the container or null if there is no such comparison.
+     * <p>
+     * The comparison has to be an equality between the value of a parameter and an integer constant.
+     */
+    static Comparison getIndexableComparison(MatchCriteria mc) {
+        if (mc instanceof Comparison) {
+            return isIndexable((Comparison) mc) ? (Comparison) mc : null;
+        } else if (mc instanceof ComparisonList) {
+            for (Comparison c : ((ComparisonList) mc).getComparisonList()) {
+                if (isIndexable(c)) {
+                    return c;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isIndexable(Comparison c) {
+        ParameterInstanceRef pir = c.getParameterRef();
+        Object v = c.getValue();
+        return c.getComparisonOperator() == OperatorType.EQUALITY && pir.getParameter() != null
+                && pir.getMemberPath() == null && (v instanceof Integer || v instanceof Long);
+    }
+
+    /**
+     * Identifies the parameter value used to index the inheriting containers
+     */
+    static final class Discriminant {
+        final Parameter parameter;
+        final boolean calibrated;
+
+        Discriminant(ParameterInstanceRef pir) {
+            this.parameter = pir.getParameter();
+            this.calibrated = pir.useCalibratedValue();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(parameter) + (calibrated ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Discriminant)) {
+                return false;
+            }
+            Discriminant other = (Discriminant) obj;
+            return parameter == other.parameter && calibrated == other.calibrated;
+        }
+    }
+
+    final class ContainerPlan {
+        final SequenceContainer container;
+        final MatchCriteria restrictionCriteria;
+        final long maxInterval;
+        final int numSubscribedEntries;
+
+        SequenceEntry[] entries;
+        // bit position in the packet of the entries or -1 if the position depends on the data
+        int[] positions;
+        // entries having an include condition
+        boolean[] conditional;
+        // entries which are plain parameter entries
+        boolean[] simpleParameter;
+
+        boolean hasInheritingContainers;
+        // inheriting containers indexed on the value of the discriminant
+        ParameterInstanceRef discriminant;
+        Map<Long, ContainerPlan[]> index;
+        // all the inheriting containers having the discriminant in their restriction criteria
+        ContainerPlan[] indexedContainers;
+        // the other inheriting containers whose criteria have to be evaluated
+        ContainerPlan[] otherContainers;
+
+        // if true, the criteria is fully verified by the lookup in the index of the base container
+        boolean criteriaRedundant;
+        int maxNumEntries = -1;
+
+        ContainerPlan(SequenceContainer container) {
+            this.container = container;
+            this.restrictionCriteria = container.getRestrictionCriteria();
+            RateInStream ris = container.getRateInStream();
+            this.maxInterval = (ris != null) ? ris.getMaxInterval() : -1;
+            SortedSet<SequenceEntry> s = subscription.getEntries(container);
+            this.numSubscribedEntries = s == null ? 0 : s.size();
+        }
+
+        void compile() {
+            compileEntries();
+            compileInheritingContainers();
+        }
+
+        private void compileEntries() {
+            SortedSet<SequenceEntry> s = subscription.getEntries(container);
+            entries = s == null ? new SequenceEntry[0] : s.toArray(new SequenceEntry[0]);
+            int n = entries.length;
+            positions = new int[n];
+            conditional = new boolean[n];
+            simpleParameter = new boolean[n];
+
+            for (int i = 0; i < n; i++) {
+                SequenceEntry se = entries[i];
+                conditional[i] = se.getIncludeCondition() != null;
+                simpleParameter[i] = se.getClass() == ParameterEntry.class;
+                positions[i] = -1;
+                if (conditional[i]) {
+                    continue;
+                }
+                if (se.getReferenceLocation() == ReferenceLocationType.CONTAINER_START) {
+                    positions[i] = se.getLocationInContainerInBits();
+                } else if (i > 0 && positions[i - 1] >= 0 && se.getIndex() > 0
+                        && entries[i - 1] == container.getEntryList().get(se.getIndex() - 1)) {
+                    // relative to the previous entry which is at a fixed position and has a fixed size
+                    int prevSize = getFixedSizeInBits(entries[i - 1]);
+                    if (prevSize >= 0) {
+                        positions[i] = positions[i - 1] + prevSize + se.getLocationInContainerInBits();
+                    }
+                }
+            }
+        }
+
+        private void compileInheritingContainers() {
+            Set<SequenceContainer> inheriting = subscription.getInheritingContainers(container);
+            hasInheritingContainers = inheriting != null && !inheriting.isEmpty();
+            if (!hasInheritingContainers) {
+                indexedContainers = otherContainers = new ContainerPlan[0];
+                return;
+            }
+            // choose as discriminant the parameter used by most of the containers
+            Map<Discriminant, List<SequenceContainer>> candidates = new LinkedHashMap<>();
+            for (SequenceContainer sc : inheriting) {
+                Comparison c = getIndexableComparison(sc.getRestrictionCriteria());
+                if (c != null) {
+                    candidates.computeIfAbsent(new Discriminant(c.getParameterRef()), k -> new ArrayList<>()).add(sc);
+                }
+            }
+            Discriminant best = null;
+            for (Map.Entry<Discriminant, List<SequenceContainer>> me : candidates.entrySet()) {
+                if (best == null || me.getValue().size() > candidates.get(best).size()) {
+                    best = me.getKey();
+                }
+            }
+
+            Map<Long, List<ContainerPlan>> idx = new HashMap<>();
+            List<ContainerPlan> indexedList = new ArrayList<>();
+            List<ContainerPlan> otherList = new ArrayList<>();
+            for (SequenceContainer sc : inheriting) {
+                ContainerPlan icp = getPlan(sc);
+                Comparison c = getIndexableComparison(sc.getRestrictionCriteria());
+                if (best != null && c != null && best.equals(new Discriminant(c.getParameterRef()))) {
+                    if (discriminant == null) {
+                        discriminant = c.getParameterRef();
+                    }
+                    long key = ((Number) c.getValue()).longValue();
+                    idx.computeIfAbsent(key, k -> new ArrayList<>()).add(icp);
+                    indexedList.add(icp);
+                    icp.criteriaRedundant = (sc.getRestrictionCriteria() == c);
+                } else {
+                    otherList.add(icp);
+                }
+            }
+            index = new HashMap<>();
+            for (Map.Entry<Long, List<ContainerPlan>> me : idx.entrySet()) {
+                index.put(me.getKey(), me.getValue().toArray(new ContainerPlan[0]));
+            }
+            indexedContainers = indexedList.toArray(new ContainerPlan[0]);
+            otherContainers = otherList.toArray(new ContainerPlan[0]);
+        }
+
+        /**
+         * Looks up the inheriting containers matching the current value of the discriminant.
+         *
+         * @return the matching containers or null if the value of the discriminant is not available or is not an
+         *         integer
+         */
+        ContainerPlan[] getIndexedContainers(ContainerProcessingContext pcontext) {
+            if (discriminant == null) {
+                return null;
+            }
+            Value v = ((CriteriaEvaluatorImpl) pcontext.criteriaEvaluator).getValue(discriminant);
+            if (v == null) {
+                return null;
+            }
+            long key;
+            switch (v.getType()) {
+            case SINT32:
+                key = v.getSint32Value();
+                break;
+            case UINT32:
+                // same conversion as the criteria evaluator
+                key = v.getUint32Value();
+                break;
+            case SINT64:
+                key = v.getSint64Value();
+                break;
+            case UINT64:
+                key = v.getUint64Value();
+                break;
+            default:
+                return null;
+            }
+            ContainerPlan[] r = index.get(key);
+            return r == null ? NO_CONTAINERS : r;
+        }
+
+        boolean isMet(ContainerProcessingContext pcontext) {
+            return restrictionCriteria == null || restrictionCriteria.isMet(pcontext.criteriaEvaluator);
+        }
+
+        /**
+         *
+         * @return the maximum number of entries extracted from a packet starting with this container
+         */
+        int getMaxNumEntries() {
+            if (maxNumEntries >= 0) {
+                return maxNumEntries;
+            }
+            int max = 0;
+            if (indexedContainers != null) {
+                for (ContainerPlan icp : indexedContainers) {
+                    max = Math.max(max, icp.getMaxNumEntries());
+                }
+                for (ContainerPlan icp : otherContainers) {
+                    max = Math.max(max, icp.getMaxNumEntries());
+                }
+            }
+            maxNumEntries = entries.length + max;
+            return maxNumEntries;
+        }
+    }
+
+    static final ContainerPlan[] NO_CONTAINERS = new ContainerPlan[0];
+}
@@ -43,7 +43,7 @@ public class ContainerProcessingContext {
         this.subscription = subscription;
         this.criteriaEvaluator = new CriteriaEvaluatorImpl(result.params, pdata.getLastValueCache());
         this.result = result;
-        this.options = pdata.getProcessorConfig().getContainerProcessingOptions();
+        this.options = options;
 
         sequenceContainerProcessor = new SequenceContainerProcessor(this);
         sequenceEntryProcessor = new SequenceEntryProcessor(this);
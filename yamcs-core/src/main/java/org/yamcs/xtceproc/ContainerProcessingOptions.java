@@ -1,10 +1,13 @@
 package org.yamcs.xtceproc;
 
+import org.yamcs.ConfigurationException;
 import org.yamcs.YConfiguration;
 
 public class ContainerProcessingOptions {
     private static final String CONFIG_KEY_ignoreOutOfContainerEntries = "ignoreOutOfContainerEntries";
     private static final String CONFIG_KEY_expirationTolerance = "expirationTolerance";
+    private static final String CONFIG_KEY_compiledExtractionPlans = "compiledExtractionPlans";
+    private static final String CONFIG_KEY_decodingThreads = "decodingThreads";
     /**
      * If set to true, the entries that fit outside the packet definition, will not be even logged.
      * If set to false, a log message at WARNING level will be printed for the first entry that fits outside the binary
@@ -21,10 +24,30 @@ public class ContainerProcessingOptions {
      */
     double expirationTolerance = 1.9;
 
+    /**
+     * If set to true, the subscribed containers are compiled into a flat extraction plan with precomputed positions
+     * for the fixed position entries and the inheriting containers indexed on the value of their discriminating
+     * parameter. The plan is recompiled each time the subscription changes.
+     */
+    boolean compiledExtractionPlans = false;
+
+    /**
+     * If greater than 0, the packets are decoded by this number of threads. The packets delivered by the same thread
+     * are decoded serially, in the order in which they have been received.
+     * <p>
+     * If 0 (default), the packets are decoded in the thread delivering them (usually the stream thread).
+     */
+    int decodingThreads = 0;
+
     public ContainerProcessingOptions(YConfiguration config) {
         if (config != null) {
             ignoreOutOfContainerEntries = config.getBoolean(CONFIG_KEY_ignoreOutOfContainerEntries, false);
             expirationTolerance = config.getDouble(CONFIG_KEY_expirationTolerance, expirationTolerance);
+            compiledExtractionPlans = config.getBoolean(CONFIG_KEY_compiledExtractionPlans, false);
+            decodingThreads = config.getInt(CONFIG_KEY_decodingThreads, 0);
+            if (decodingThreads < 0) {
+                throw new ConfigurationException(CONFIG_KEY_decodingThreads + " cannot be negative");
+            }
         }
     }
     /**
@@ -50,4 +73,20 @@ public class ContainerProcessingOptions {
         this.expirationTolerance = expirationTolerance;
     }
 
+    public boolean useCompiledExtractionPlans() {
+        return compiledExtractionPlans;
+    }
+
+    public void setCompiledExtractionPlans(boolean compiledExtractionPlans) {
+        this.compiledExtractionPlans = compiledExtractionPlans;
+    }
+
+    public int getDecodingThreads() {
+        return decodingThreads;
+    }
+
+    public void setDecodingThreads(int decodingThreads) {
+        this.decodingThreads = decodingThreads;
+    }
+
 }
@@ -8,7 +8,7 @@ import org.yamcs.parameter.ParameterValueList;
 import org.yamcs.xtce.SequenceContainer;
 
 public class ContainerProcessingResult {
-    ParameterValueList params = new ParameterValueList();
+    final ParameterValueList params;
     List<ContainerExtractionResult> containers = new ArrayList<>();
     long acquisitionTime;
     long generationTime;
@@ -16,6 +16,12 @@ public class ContainerProcessingResult {
     long expireMillis = -1; // -1 means not defined
 
     public ContainerProcessingResult(long aquisitionTime, long generationTime, ProcessingStatistics stats) {
+        this(aquisitionTime, generationTime, stats, new ParameterValueList());
+    }
+
+    ContainerProcessingResult(long aquisitionTime, long generationTime, ProcessingStatistics stats,
+            ParameterValueList params) {
+        this.params = params;
         this.acquisitionTime = aquisitionTime;
         this.generationTime = generationTime;
         this.stats = stats;
@@ -92,32 +92,7 @@ public class CriteriaEvaluatorImpl implements CriteriaEvaluator {
     }
 
     private ResolvedValue resolveParameter(ParameterInstanceRef paramRef) {
-        ParameterValue pv = null;
-        Parameter p = paramRef.getParameter();
-        if (currentDelivery != null) {
-            pv = currentDelivery.getLastInserted(p);
-        }
-        if (pv == null) {
-            pv = lastValueCache.getValue(p);
-        }
-        if (pv == null) {
-            return null;
-        }
-
-        Value v;
-        if (paramRef.useCalibratedValue()) {
-            v = pv.getEngValue();
-        } else {
-            v = pv.getRawValue();
-        }
-        if ((v instanceof AggregateValue) || (v instanceof ArrayValue)) {
-            PathElement[] path = paramRef.getMemberPath();
-            if(path == null) {
-                return null;
-            }
-            v = AggregateUtil.getMemberValue(v, path);
-        }
-
+        Value v = getValue(paramRef);
         if (v == null) {
             return null;
         }
@@ -146,6 +121,41 @@ public class CriteriaEvaluatorImpl implements CriteriaEvaluator {
         }
     }
 
+    /**
+     * Finds the value referenced by paramRef, first in the current delivery and then in the last value cache.
+     * 
+     * @return the value or null if the parameter has no value or the value is an aggregate or array and the reference
+     *         does not specify a member path
+     */
+    Value getValue(ParameterInstanceRef paramRef) {
+        ParameterValue pv = null;
+        Parameter p = paramRef.getParameter();
+        if (currentDelivery != null) {
+            pv = currentDelivery.getLastInserted(p);
+        }
+        if (pv == null) {
+            pv = lastValueCache.getValue(p);
+        }
+        if (pv == null) {
+            return null;
+        }
+
+        Value v;
+        if (paramRef.useCalibratedValue()) {
+            v = pv.getEngValue();
+        } else {
+            v = pv.getRawValue();
+        }
+        if ((v instanceof AggregateValue) || (v instanceof ArrayValue)) {
+            PathElement[] path = paramRef.getMemberPath();
+            if(path == null) {
+                return null;
+            }
+            v = AggregateUtil.getMemberValue(v, path);
+        }
+        return v;
+    }
+
     static interface Evaluator {
         String getComparedType();
 
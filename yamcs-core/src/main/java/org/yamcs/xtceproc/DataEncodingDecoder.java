@@ -30,7 +30,7 @@ import org.yamcs.xtce.StringDataEncoding;
 public class DataEncodingDecoder {
     ProcessorData pdata;
     BitBuffer buffer;
-    Logger log = LoggerFactory.getLogger(this.getClass().getName());
+    static final Logger log = LoggerFactory.getLogger(DataEncodingDecoder.class);
 
     public DataEncodingDecoder(ContainerProcessingContext pcontext) {
         this(pcontext.pdata, pcontext.buffer);
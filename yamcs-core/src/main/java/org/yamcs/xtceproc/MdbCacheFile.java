@@ -0,0 +1,75 @@
+package org.yamcs.xtceproc;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Reads and writes the serialized MDB files stored in the cache directory.
+ * <p>
+ * The file starts with a header containing a magic number, the format version and a version supplied by the caller
+ * (typically the serialVersionUID of the stored class) followed by the java serialized object. Files with a different
+ * header are rejected without attempting to deserialize them.
+ * <p>
+ * The header only versions the file; the object itself is stored with the java serialization and is fully
+ * deserialized when the file is read.
+ */
+class MdbCacheFile {
+    static final int MAGIC = 0x594D4442; // YMDB
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * Writes the object to the file. The data is first written to a temporary file which is then renamed such that
+     * a crash during the writing does not leave a truncated file behind.
+     */
+    static void write(File file, long version, Object o) throws IOException {
+        file.getParentFile().mkdirs();
+        File tmpFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream dos = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmpFile), 65536))) {
+            dos.writeInt(MAGIC);
+            dos.writeInt(FORMAT_VERSION);
+            dos.writeLong(version);
+            ObjectOutputStream out = new ObjectOutputStream(dos);
+            out.writeObject(o);
+            out.flush();
+        }
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reads an object from the cache file. The file is closed when the method returns.
+     *
+     * @throws IOException
+     *             if the file cannot be read or if the header does not match
+     */
+    static <T> T read(File file, long version, Class<T> type) throws IOException, ClassNotFoundException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 65536))) {
+            int magic;
+            int formatVersion;
+            long v;
+            try {
+                magic = in.readInt();
+                formatVersion = in.readInt();
+                v = in.readLong();
+            } catch (EOFException e) {
+                throw new IOException("Cache file " + file + " too short");
+            }
+            if (magic != MAGIC || formatVersion != FORMAT_VERSION || v != version) {
+                throw new IOException("Cache file " + file + " has an incompatible format (magic=" + magic
+                        + ", formatVersion=" + formatVersion + ", version=" + v + ")");
+            }
+            return type.cast(new ObjectInputStream(in).readObject());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.yamcs.xtceproc;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
 import org.yamcs.Processor;
@@ -12,6 +13,7 @@ import org.yamcs.events.EventProducerFactory;
 import org.yamcs.events.QuietEventProducer;
 import org.yamcs.logging.Log;
 import org.yamcs.parameter.LastValueCache;
+import org.yamcs.parameter.OffHeapLastValueCache;
 import org.yamcs.parameter.ParameterValue;
 import org.yamcs.parameter.Value;
 import org.yamcs.utils.TimeEncoding;
@@ -48,9 +50,9 @@ public class ProcessorData {
      */
     final ParameterTypeProcessor parameterTypeProcessor;
 
-    private Map<Calibrator, CalibratorProc> calibrators = new HashMap<>();
-    private Map<DataEncoding, DataDecoder> decoders = new HashMap<>();
-    private Map<DataEncoding, DataEncoder> encoders = new HashMap<>();
+    private Map<Calibrator, CalibratorProc> calibrators = new ConcurrentHashMap<>();
+    private Map<DataEncoding, DataDecoder> decoders = new ConcurrentHashMap<>();
+    private Map<DataEncoding, DataEncoder> encoders = new ConcurrentHashMap<>();
 
     final XtceDb xtcedb;
     final Log log;
@@ -59,12 +61,12 @@ public class ProcessorData {
     
     private Map<String, Object> userData = new HashMap<>();
 
-    private LastValueCache lastValueCache = new LastValueCache();
+    private final LastValueCache lastValueCache;
 
     /**
      * used to store parameter types which are changed dynamically (so they don't correspond anymore to MDB)
      */
-    Map<Parameter, ParameterType> typeOverrides = new HashMap<>();
+    Map<Parameter, ParameterType> typeOverrides = new ConcurrentHashMap<>();
     String yamcsInstance;
 
     private ProcessorConfig processorConfig;
@@ -92,7 +94,12 @@ public class ProcessorData {
         this.xtcedb = xtcedb;
         this.processorConfig = config;
         this.processorName = procName;
-        
+        if (config.useOffHeapLastValueCache()) {
+            lastValueCache = new OffHeapLastValueCache(xtcedb, config.getLastValueCacheSlotSize());
+        } else {
+            lastValueCache = new LastValueCache();
+        }
+
         parameterTypeProcessor = new ParameterTypeProcessor(this);
         log = new Log(this.getClass(), instance);
         log.setContext(procName);
@@ -98,7 +98,7 @@ public class SequenceEntryProcessor {
         return pv;
     }
 
-    private void extractParameterEntry(ParameterEntry pe) {
+    void extractParameterEntry(ParameterEntry pe) {
         ContainerParameterValue pv = extractParameter(pe.getParameter());
         pv.setSequenceEntry(pe);
         pcontext.result.params.add(pv);
@@ -36,6 +36,9 @@ public class Subscription {
     private final Map<SequenceContainer, HashSet<SequenceContainer>> container2InheritingContainerMap = new HashMap<>();
     Logger log = LoggerFactory.getLogger(Subscription.class);
 
+    // incremented each time the subscription changes
+    private int version;
+
     XtceDb xtcedb;
 
     Subscription(XtceDb xtcedb) {
@@ -148,13 +151,17 @@ public class Subscription {
 
     private void addContainer2Entry(SequenceContainer sc, SequenceEntry se) {
         TreeSet<SequenceEntry> ts = container2EntryMap.computeIfAbsent(sc, k -> new TreeSet<SequenceEntry>());
-        ts.add(se);
+        if (ts.add(se)) {
+            version++;
+        }
     }
 
     private void addContainer2InheritingContainer(SequenceContainer container, SequenceContainer inheritedContainer) {
         HashSet<SequenceContainer> hs = container2InheritingContainerMap.computeIfAbsent(container,
                 k -> new HashSet<>());
-        hs.add(inheritedContainer);
+        if (hs.add(inheritedContainer)) {
+            version++;
+        }
     }
 
     public SortedSet<SequenceEntry> getEntries(SequenceContainer container) {
@@ -165,6 +172,16 @@ public class Subscription {
         return container2InheritingContainerMap.get(container);
     }
 
+    /**
+     * The version is incremented each time an entry or a container is added to the subscription. It can be used to
+     * find out if the data derived from the subscription is up to date.
+     * 
+     * @return the current version of the subscription
+     */
+    public int getVersion() {
+        return version;
+    }
+
     /**
      * Get the set of all containers subscribed
      * 
@@ -1,13 +1,9 @@
 package org.yamcs.xtceproc;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.OutputStream;
+import java.io.ObjectStreamClass;
 import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.nio.file.Path;
@@ -57,6 +53,9 @@ public class XtceDbFactory {
     static transient Map<String, XtceDb> instance2Db = new HashMap<>();
     static transient Map<String, Map<String, XtceDb>> instance2DbConfigs = new HashMap<>();
 
+    static final long XTCEDB_VERSION = ObjectStreamClass.lookup(XtceDb.class).getSerialVersionUID();
+    static final long SPACESYSTEM_VERSION = ObjectStreamClass.lookup(SpaceSystem.class).getSerialVersionUID();
+
     /**
      * Creates a new instance of the database in memory. configSection is the top heading under which this appears in
      * the mdb.yaml
@@ -103,7 +102,7 @@ public class XtceDbFactory {
 
         boolean loadSerialized = attemptToLoadSerialized;
         boolean serializedLoaded = false;
-        String filename = sha1(loaderTree.getConfigName() + ".xtce");
+        String filename = sha1(loaderTree.getCacheKey() + ".xtce");
         File serializedFile = resolveSerializedFile(filename);
         File consistencyFile = resolveConsistencyFile(filename);
 
@@ -138,7 +137,7 @@ public class XtceDbFactory {
         if (db == null) {
             // Construct a Space System with one branch from the config file and the other one /yamcs for system
             // variables
-            List<SpaceSystem> sslist = loaderTree.load();
+            List<SpaceSystem> sslist = loaderTree.load(attemptToLoadSerialized, saveSerialized);
             if (sslist.size() != 1) {
                 throw new IllegalStateException("root loader has to load exactly one subsystem");
             }
@@ -312,7 +311,7 @@ public class XtceDbFactory {
             throw new DatabaseLoadException("Cannot load xtce database: " + e.getMessage(), e);
         }
 
-        ltree = new LoaderTree(l);
+        ltree = new LoaderTree(l, type + " " + args);
 
         if (c.containsKey("subLoaders")) {
             List<YConfiguration> list = c.getConfigList("subLoaders");
@@ -379,38 +378,33 @@ public class XtceDbFactory {
     private static XtceDb loadSerializedInstance(File serializedFile) throws IOException, ClassNotFoundException {
         log.debug("Loading serialized XTCE DB from: {}", serializedFile);
 
-        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(serializedFile))) {
-            XtceDb db = (XtceDb) in.readObject();
-            log.info("Loaded XTCE DB from {} with {} containers, {} parameters and {} commands",
-                    serializedFile, db.getSequenceContainers().size(), db.getParameterNames().size(),
-                    db.getMetaCommands().size());
-            return db;
-        }
+        XtceDb db = MdbCacheFile.read(serializedFile, XTCEDB_VERSION, XtceDb.class);
+        log.info("Loaded XTCE DB from {} with {} containers, {} parameters and {} commands",
+                serializedFile, db.getSequenceContainers().size(), db.getParameterNames().size(),
+                db.getMetaCommands().size());
+        return db;
     }
 
     private static File resolveSerializedFile(String filename) {
-        Path cacheDir = YamcsServer.getServer().getCacheDirectory();
-        if (cacheDir == null) { // During unit tests
-            cacheDir = Paths.get("cache").toAbsolutePath();
-        }
-        return cacheDir.resolve(filename + ".serialized").toFile();
+        return getCacheDirectory().resolve(filename + ".serialized").toFile();
     }
 
     private static File resolveConsistencyFile(String filename) {
+        return getCacheDirectory().resolve(filename + ".consistency_date").toFile();
+    }
+
+    private static Path getCacheDirectory() {
         Path cacheDir = YamcsServer.getServer().getCacheDirectory();
         if (cacheDir == null) { // During unit tests
             cacheDir = Paths.get("cache").toAbsolutePath();
         }
-        return cacheDir.resolve(filename + ".consistency_date").toFile();
+        return cacheDir;
     }
 
     private static void saveSerializedInstance(LoaderTree loaderTree, XtceDb db, File serializedFile,
             File consistencyFile) throws IOException {
-        serializedFile.getParentFile().mkdirs();
-        try (OutputStream os = new FileOutputStream(serializedFile);
-                ObjectOutputStream out = new ObjectOutputStream(os);
-                FileWriter fw = new FileWriter(consistencyFile)) {
-            out.writeObject(db);
+        MdbCacheFile.write(serializedFile, XTCEDB_VERSION, db);
+        try (FileWriter fw = new FileWriter(consistencyFile)) {
             loaderTree.writeConsistencyDate(fw);
         }
     }
@@ -472,7 +466,7 @@ public class XtceDbFactory {
     private static String sha1(String input) throws ConfigurationException {
         try {
             MessageDigest msgDigest = MessageDigest.getInstance("SHA-1");
-            msgDigest.update(input.getBytes("UTF-8"), 0, input.length());
+            msgDigest.update(input.getBytes("UTF-8"));
             return StringConverter.arrayToHexString(msgDigest.digest());
         } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
             throw new ConfigurationException("Cannot compute SHA-1 of a string", e);
@@ -481,10 +475,17 @@ public class XtceDbFactory {
 
     static class LoaderTree {
         SpaceSystemLoader root;
+        // the loader type and arguments from the configuration
+        final String spec;
         List<LoaderTree> children;
 
         LoaderTree(SpaceSystemLoader root) {
+            this(root, null);
+        }
+
+        LoaderTree(SpaceSystemLoader root, String spec) {
             this.root = root;
+            this.spec = spec;
         }
 
         void addChild(LoaderTree c) {
@@ -512,6 +513,28 @@ public class XtceDbFactory {
             }
         }
 
+        /**
+         * 
+         * @return a concatenation of the config names and of the loader types and arguments of all loaders, used to
+         *         name the cache files such that the loaders configured with the same name but with different options
+         *         do not share their cache files
+         * @throws ConfigurationException
+         */
+        String getCacheKey() throws ConfigurationException {
+            StringBuilder sb = new StringBuilder();
+            sb.append(getRootCacheKey());
+            if (children != null) {
+                for (LoaderTree c : children) {
+                    sb.append("_").append(c.getCacheKey());
+                }
+            }
+            return sb.toString();
+        }
+
+        private String getRootCacheKey() throws ConfigurationException {
+            return spec == null ? root.getConfigName() : root.getConfigName() + "[" + spec + "]";
+        }
+
         /**
          * checks the date in the file and returns true if any of the root or children needs to be updated
          * 
@@ -533,8 +556,21 @@ public class XtceDbFactory {
             return false;
         }
 
-        public List<SpaceSystem> load() throws ConfigurationException {
-            List<SpaceSystem> ssList = root.loadList();
+        /**
+         * Loads the space systems of this loader and of all its children.
+         * <p>
+         * If the space systems loaded by one loader do not contain any reference which has to be resolved against the
+         * rest of the tree, they are also serialized in a cache file specific to that loader. When the MDB needs
+         * to be reloaded because one of the loaders has changed, the other loaders are then read from their cache
+         * files instead of being parsed again.
+         *
+         * @param loadCache
+         *            - if true, attempt to use the cache file of each loader instead of loading from the source
+         * @param saveCache
+         *            - if true, save the cache file of the loaders that had to be loaded from the source
+         */
+        public List<SpaceSystem> load(boolean loadCache, boolean saveCache) throws ConfigurationException {
+            List<SpaceSystem> ssList = loadRoot(loadCache, saveCache);
 
             if (children != null) {
                 if (ssList.size() != 1) {
@@ -543,7 +579,7 @@ public class XtceDbFactory {
                 SpaceSystem rss = ssList.get(0);
 
                 for (LoaderTree lt : children) {
-                    List<SpaceSystem> clist = lt.load();
+                    List<SpaceSystem> clist = lt.load(loadCache, saveCache);
                     for (SpaceSystem ss : clist) {
                         rss.addSpaceSystem(ss);
                         ss.setParent(rss);
@@ -553,6 +589,47 @@ public class XtceDbFactory {
             return ssList;
         }
 
+        @SuppressWarnings("unchecked")
+        private List<SpaceSystem> loadRoot(boolean loadCache, boolean saveCache) throws ConfigurationException {
+            if (root instanceof RootSpaceSystemLoader) {
+                return root.loadList();
+            }
+            String filename = sha1(getRootCacheKey() + ".loader");
+            File cacheFile = resolveSerializedFile(filename);
+            File consistencyFile = resolveConsistencyFile(filename);
+
+            if (loadCache && cacheFile.exists() && consistencyFile.exists()) {
+                try (RandomAccessFile raf = new RandomAccessFile(consistencyFile, "r")) {
+                    if (!root.needsUpdate(raf)) {
+                        List<SpaceSystem> ssList = MdbCacheFile.read(cacheFile, SPACESYSTEM_VERSION,
+                                ArrayList.class);
+                        log.debug("Loaded {} from {}", root.getConfigName(), cacheFile);
+                        return ssList;
+                    }
+                } catch (Exception e) {
+                    log.info("Cannot load the cache file of {}: {}", root.getConfigName(), e.toString());
+                }
+            }
+
+            List<SpaceSystem> ssList = root.loadList();
+            if (saveCache) {
+                if (ssList.stream().allMatch(ss -> isSelfContained(ss))) {
+                    try {
+                        MdbCacheFile.write(cacheFile, SPACESYSTEM_VERSION, new ArrayList<>(ssList));
+                        try (FileWriter fw = new FileWriter(consistencyFile)) {
+                            root.writeConsistencyDate(fw);
+                        }
+                    } catch (Exception e) {
+                        log.warn("Cannot save the cache file of {}", root.getConfigName(), e);
+                    }
+                } else {
+                    log.debug("Not saving a cache file of {} because it references other parts of the MDB",
+                            root.getConfigName());
+                }
+            }
+            return ssList;
+        }
+
         public void writeConsistencyDate(FileWriter fw) throws IOException {
             root.writeConsistencyDate(fw);
             if (children != null) {
@@ -563,6 +640,22 @@ public class XtceDbFactory {
         }
     }
 
+    /**
+     * Returns true if the space system and its sub-systems do not have any reference left unresolved
+     */
+    static boolean isSelfContained(SpaceSystem ss) {
+        List<NameReference> refs = ss.getUnresolvedReferences();
+        if (refs != null && !refs.isEmpty()) {
+            return false;
+        }
+        for (SpaceSystem ss1 : ss.getSubSystems()) {
+            if (!isSelfContained(ss1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     // fake loader for the root (empty) space system
     static class RootSpaceSystemLoader implements SpaceSystemLoader {
         @Override
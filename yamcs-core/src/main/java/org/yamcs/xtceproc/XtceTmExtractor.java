@@ -1,10 +1,13 @@
 package org.yamcs.xtceproc;
 
 import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yamcs.ProcessorConfig;
+import org.yamcs.parameter.ParameterValueList;
 import org.yamcs.utils.BitBuffer;
 import org.yamcs.xtce.IndirectParameterRefEntry;
 import org.yamcs.xtce.Parameter;
@@ -25,8 +28,15 @@ public class XtceTmExtractor {
 
     public final XtceDb xtcedb;
     final SequenceContainer rootContainer;
-    ContainerProcessingOptions options = new ContainerProcessingOptions(null);
+    // the options of the processor unless other options are set with setOptions
+    volatile ContainerProcessingOptions options;
     final ProcessorData pdata;
+    // used when the compiledExtractionPlans option is enabled; recompiled when the subscription changes
+    volatile ContainerExtractionPlan extractionPlan;
+
+    // the packets are processed under the read lock such that they can be processed in parallel by multiple threads;
+    // the subscription is changed under the write lock
+    private final ReadWriteLock subscriptionLock = new ReentrantReadWriteLock();
 
     /**
      * Create a standalone TM extractor
@@ -47,6 +57,7 @@ public class XtceTmExtractor {
         this.subscription = new Subscription(xtcedb);
         rootContainer = xtcedb.getRootSequenceContainer();
         this.pdata = pdata;
+        this.options = pdata.getProcessorConfig().getContainerProcessingOptions();
         if(pdata.getProcessorConfig().subscribeContainerArchivePartitions()) {
             for(SequenceContainer sc: xtcedb.getSequenceContainers()) {
                 if(sc.useAsArchivePartition()) {
@@ -69,13 +80,16 @@ public class XtceTmExtractor {
      *            parameter to be added to the current subscription list
      */
     public void startProviding(Parameter param) {
-        synchronized (subscription) {
+        subscriptionLock.writeLock().lock();
+        try {
             ParameterType ptype = param.getParameterType();
             if (ptype != null) {
                 Set<Parameter> dependencies = ptype.getDependentParameters();
                 dependencies.forEach(p -> subscription.addParameter(p));
             }
             subscription.addParameter(param);
+        } finally {
+            subscriptionLock.writeLock().unlock();
         }
     }
 
@@ -83,10 +97,15 @@ public class XtceTmExtractor {
      * Adds all containers and parameters to the subscription
      */
     public void provideAll() {
-        for (SequenceContainer c : xtcedb.getSequenceContainers()) {
-            if (c.getBaseContainer() == null) {
-                subscription.addAll(c);
+        subscriptionLock.writeLock().lock();
+        try {
+            for (SequenceContainer c : xtcedb.getSequenceContainers()) {
+                if (c.getBaseContainer() == null) {
+                    subscription.addAll(c);
+                }
             }
+        } finally {
+            subscriptionLock.writeLock().unlock();
         }
     }
 
@@ -121,17 +140,59 @@ public class XtceTmExtractor {
      */
     public ContainerProcessingResult processPacket(BitBuffer buf, long generationTime, long acquisitionTime,
             SequenceContainer startContainer) {
+        if (options.useCompiledExtractionPlans()) {
+            return processPacketWithPlan(buf, generationTime, acquisitionTime, startContainer);
+        }
         ContainerProcessingResult result = new ContainerProcessingResult(acquisitionTime, generationTime, stats);
+        subscriptionLock.readLock().lock();
+        try {
+            ContainerProcessingContext cpc = new ContainerProcessingContext(pdata, buf, result, subscription,
+                    options);
+            cpc.sequenceContainerProcessor.extract(startContainer);
+        } catch (Exception e) {
+            // send warning as events and in the log file.
+            pdata.eventProducer.sendWarning(e.toString());
+            log.error("got exception in tmextractor ", e);
+        } finally {
+            subscriptionLock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private ContainerProcessingResult processPacketWithPlan(BitBuffer buf, long generationTime,
+            long acquisitionTime, SequenceContainer startContainer) {
+        ContainerProcessingResult result = null;
+        subscriptionLock.readLock().lock();
         try {
-            synchronized (subscription) {
-                ContainerProcessingContext cpc = new ContainerProcessingContext(pdata, buf, result, subscription,
-                        options);
-                cpc.sequenceContainerProcessor.extract(startContainer);
+            ContainerExtractionPlan plan = extractionPlan;
+            ContainerExtractionPlan.ContainerPlan cp = null;
+            if (plan != null && !plan.isOutdated()) {
+                cp = plan.getCompiledPlan(startContainer);
             }
+            if (cp == null) {
+                // the plan is compiled lazily after a subscription change, make sure only one thread does it
+                synchronized (this) {
+                    if (extractionPlan == null || extractionPlan.isOutdated()) {
+                        extractionPlan = new ContainerExtractionPlan(subscription, pdata.getYamcsInstance());
+                    }
+                    plan = extractionPlan;
+                    cp = plan.compile(startContainer);
+                }
+            }
+            result = new ContainerProcessingResult(acquisitionTime, generationTime, stats,
+                    new ParameterValueList(cp.getMaxNumEntries()));
+            ContainerProcessingContext cpc = new ContainerProcessingContext(pdata, buf, result, subscription,
+                    options);
+            plan.extract(cpc, cp);
         } catch (Exception e) {
+            if (result == null) {
+                result = new ContainerProcessingResult(acquisitionTime, generationTime, stats);
+            }
             // send warning as events and in the log file.
             pdata.eventProducer.sendWarning(e.toString());
             log.error("got exception in tmextractor ", e);
+        } finally {
+            subscriptionLock.readLock().unlock();
         }
         return result;
     }
@@ -145,8 +206,11 @@ public class XtceTmExtractor {
     }
 
     public void startProviding(SequenceContainer sequenceContainer) {
-        synchronized (subscription) {
+        subscriptionLock.writeLock().lock();
+        try {
             subscription.addSequenceContainer(sequenceContainer);
+        } finally {
+            subscriptionLock.writeLock().unlock();
         }
     }
 
@@ -1,6 +1,12 @@
 package org.yamcs.xtceproc;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.yamcs.AbstractProcessorService;
 import org.yamcs.ConfigurationException;
@@ -23,12 +29,21 @@ import org.yamcs.xtce.Parameter;
 import org.yamcs.xtce.SequenceContainer;
 import org.yamcs.xtce.XtceDb;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 /**
  * 
  * Does the job of getting containers and transforming them into parameters which are then sent to the parameter request
  * manager for the distribution to the requesters.
  * 
  * Relies on {@link XtceTmExtractor} for extracting the parameters out of containers
+ * <p>
+ * If the decodingThreads option is configured, the packets are decoded by a pool of single threaded lanes instead of the
+ * thread delivering them. Each thread delivering packets (i.e. one link or replay) is assigned a lane when it delivers
+ * its first packet, the lanes being assigned in turn. All its packets go to that lane, where each packet is decoded and
+ * its results delivered to the parameter and container request managers before the next one is decoded. The packets of one source are therefore processed serially, in order and with the values of
+ * the previous packets available in the last value cache, as when decoding in the delivering thread; the packets of
+ * different sources are processed in parallel.
  * 
  * @author nm
  * 
@@ -41,12 +56,25 @@ public class XtceTmProcessor extends AbstractProcessorService implements TmProce
     public final XtceDb xtcedb;
     final XtceTmExtractor tmExtractor;
 
+    // maximum number of packets being decoded per decoding thread
+    static final int MAX_PENDING_PER_THREAD = 256;
+
+    // single threaded executors used when decoding in parallel; null otherwise
+    private ExecutorService[] decodingLanes;
+    // lane assigned to each delivering thread
+    private ThreadLocal<ExecutorService> threadLane;
+    private final AtomicInteger nextLane = new AtomicInteger();
+    private Semaphore pendingPermits;
+    private int maxPending;
+
     public XtceTmProcessor(Processor processor) {
         this.processor = processor;
         this.xtcedb = processor.getXtceDb();
         log = new Log(getClass(), processor.getInstance());
         log.setContext(processor.getName());
         tmExtractor = new XtceTmExtractor(xtcedb, processor.getProcessorData());
+        initDecoding(processor.getConfig().getContainerProcessingOptions(),
+                "XtceTmProcessor-" + processor.getInstance() + "-" + processor.getName() + "-decoder-%d");
     }
 
     /**
@@ -59,6 +87,23 @@ public class XtceTmProcessor extends AbstractProcessorService implements TmProce
         this.xtcedb = xtcedb;
         log = new Log(getClass());
         tmExtractor = new XtceTmExtractor(xtcedb, new ProcessorData(null, "XTCEPROC", xtcedb, pconfig));
+        initDecoding(pconfig.getContainerProcessingOptions(), "XtceTmProcessor-decoder-%d");
+    }
+
+    private void initDecoding(ContainerProcessingOptions options, String threadNameFormat) {
+        int n = options.getDecodingThreads();
+        if (n > 0) {
+            ThreadFactory threadFactory = new ThreadFactoryBuilder().setDaemon(true).setNameFormat(threadNameFormat)
+                    .build();
+            decodingLanes = new ExecutorService[n];
+            for (int i = 0; i < n; i++) {
+                decodingLanes[i] = Executors.newSingleThreadExecutor(threadFactory);
+            }
+            threadLane = ThreadLocal.withInitial(
+                    () -> decodingLanes[Math.floorMod(nextLane.getAndIncrement(), decodingLanes.length)]);
+            maxPending = n * MAX_PENDING_PER_THREAD;
+            pendingPermits = new Semaphore(maxPending);
+        }
     }
 
     @Override
@@ -133,32 +178,69 @@ public class XtceTmProcessor extends AbstractProcessorService implements TmProce
    
     @Override
     public void processPacket(TmPacket pwrt, SequenceContainer sc) {
-        try {
-            long rectime = pwrt.getReceptionTime();
-            if (rectime == TimeEncoding.INVALID_INSTANT) {
-                rectime = TimeEncoding.getWallclockTime();
+        if (decodingLanes == null) {
+            decodeAndDeliver(pwrt, sc);
+        } else {
+            // the packets delivered by the same thread are decoded serially in the same lane
+            ExecutorService lane = threadLane.get();
+            pendingPermits.acquireUninterruptibly();
+            try {
+                lane.execute(() -> {
+                    try {
+                        decodeAndDeliver(pwrt, sc);
+                    } finally {
+                        pendingPermits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                pendingPermits.release();
+                log.warn("Dropping packet received after the TM processor has been stopped");
             }
-            ContainerProcessingResult result = tmExtractor.processPacket(pwrt.getPacket(), pwrt.getGenerationTime(),
-                    rectime, sc);
+        }
+    }
+
+    private void decodeAndDeliver(TmPacket pwrt, SequenceContainer sc) {
+        try {
+            deliver(extract(pwrt, sc));
+        } catch (Exception e) {
+            log.error("got exception in tmprocessor ", e);
+        }
+    }
 
-            ParameterValueList paramResult = result.params;
-            List<ContainerExtractionResult> containerResult = result.containers;
+    private ContainerProcessingResult extract(TmPacket pwrt, SequenceContainer sc) {
+        long rectime = pwrt.getReceptionTime();
+        if (rectime == TimeEncoding.INVALID_INSTANT) {
+            rectime = TimeEncoding.getWallclockTime();
+        }
+        return tmExtractor.processPacket(pwrt.getPacket(), pwrt.getGenerationTime(), rectime, sc);
+    }
 
-            if ((parameterRequestManager != null) && (paramResult.size() > 0)) {
-                parameterRequestManager.update(paramResult);
-            }
+    private void deliver(ContainerProcessingResult result) {
+        ParameterValueList paramResult = result.params;
+        List<ContainerExtractionResult> containerResult = result.containers;
 
-            if ((containerRequestManager != null) && (containerResult.size() > 0)) {
-                containerRequestManager.update(containerResult);
-            }
+        if ((parameterRequestManager != null) && (paramResult.size() > 0)) {
+            parameterRequestManager.update(paramResult);
+        }
 
-        } catch (Exception e) {
-            log.error("got exception in tmprocessor ", e);
+        if ((containerRequestManager != null) && (containerResult.size() > 0)) {
+            containerRequestManager.update(containerResult);
+        }
+    }
+
+    /**
+     * Waits until all the packets being decoded in parallel have been delivered
+     */
+    private void awaitPending() {
+        if (decodingLanes != null) {
+            pendingPermits.acquireUninterruptibly(maxPending);
+            pendingPermits.release(maxPending);
         }
     }
 
     @Override
     public void finished() {
+        awaitPending();
         stopAsync();
     }
 
@@ -210,6 +292,11 @@ public class XtceTmProcessor extends AbstractProcessorService implements TmProce
 
     @Override
     protected void doStop() {
+        if (decodingLanes != null) {
+            for (ExecutorService lane : decodingLanes) {
+                lane.shutdown();
+            }
+        }
         notifyStopped();
     }
 
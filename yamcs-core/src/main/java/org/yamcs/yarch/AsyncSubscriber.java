@@ -0,0 +1,322 @@
+package org.yamcs.yarch;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.yamcs.YConfiguration;
+import org.yamcs.utils.RingBuffer;
+
+/**
+ * Delivers the tuples of a stream to one subscriber from a dedicated thread.
+ * <p>
+ * The tuples emitted on the stream are put in a bounded ring buffer and the subscriber is called from the consumer
+ * thread, such that a slow subscriber does not block the thread emitting the tuples (nor the other subscribers of the
+ * same stream). When the buffer is full, the {@link OverflowPolicy} decides what happens with the new tuples.
+ * <p>
+ * The {@link StreamSubscriber#streamClosed(Stream)} is delivered after all the tuples queued before the stream has
+ * been closed.
+ */
+public class AsyncSubscriber implements Runnable {
+    public enum OverflowPolicy {
+        /**
+         * the thread emitting the tuple waits until there is space in the buffer
+         */
+        BLOCK,
+        /**
+         * the tuple is not delivered to this subscriber
+         */
+        DROP,
+        /**
+         * the tuple is added to an unbounded overflow queue which is delivered after the buffer; once the overflow
+         * queue is used, all the new tuples are added to it until it is emptied, such that the order is kept.
+         */
+        SPILL
+    }
+
+    static final int DEFAULT_QUEUE_SIZE = 4096;
+    // maximum time quit waits for the tuples already queued to be delivered
+    static final long QUIT_TIMEOUT_MILLIS = 5000;
+
+    final Stream stream;
+    final StreamSubscriber subscriber;
+    final OverflowPolicy overflowPolicy;
+    final RingBuffer<Tuple> ring;
+    final ConcurrentLinkedQueue<Tuple> spill;
+    final AtomicInteger spillSize = new AtomicInteger();
+    final Thread thread;
+
+    // set by the consumer thread before parking
+    volatile boolean parked = false;
+    // the consumer thread exits once the queue is empty
+    volatile boolean closing = false;
+    volatile boolean quitting = false;
+    // the consumer thread exits without delivering the queued tuples
+    volatile boolean stopped = false;
+    // set by the consumer thread when exiting
+    volatile boolean terminated = false;
+
+    // the producers waiting for space in the ring (BLOCK policy) wait on this object
+    final Object notFull = new Object();
+    final AtomicInteger waitingProducers = new AtomicInteger();
+
+    final AtomicLong droppedCount = new AtomicLong();
+    final AtomicLong spilledCount = new AtomicLong();
+    // written only by the consumer thread
+    volatile long deliveredCount;
+    volatile int maxLag;
+
+    AsyncSubscriber(Stream stream, StreamSubscriber subscriber, Config config) {
+        this.stream = stream;
+        this.subscriber = subscriber;
+        this.overflowPolicy = config.overflowPolicy;
+        this.ring = new RingBuffer<>(config.queueSize);
+        this.spill = overflowPolicy == OverflowPolicy.SPILL ? new ConcurrentLinkedQueue<>() : null;
+        this.thread = new Thread(this, "stream-" + stream.getName() + "-" + subscriber.getClass().getSimpleName());
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * called from the thread emitting the tuple
+     */
+    void offer(Tuple tuple) {
+        if (spill != null && spillSize.get() > 0) {
+            addToSpill(tuple);
+        } else if (!ring.offer(tuple)) {
+            switch (overflowPolicy) {
+            case BLOCK:
+                put(tuple);
+                break;
+            case DROP:
+                long d = droppedCount.incrementAndGet();
+                if (d == 1 || d % 10000 == 0) {
+                    stream.log.warn("Subscriber {} cannot keep up, {} tuples dropped so far", subscriber, d);
+                }
+                return;
+            case SPILL:
+                addToSpill(tuple);
+                break;
+            }
+        }
+        wakeUp();
+    }
+
+    /**
+     * Delivers the stream closed signal after the tuples already queued; the consumer thread exits after delivering
+     * it.
+     * <p>
+     * Does not block.
+     */
+    void close() {
+        closing = true;
+        wakeUp();
+    }
+
+    /**
+     * Stops delivering tuples to the subscriber after the ones already queued.
+     * <p>
+     * Waits at most {@link #QUIT_TIMEOUT_MILLIS} for the queued tuples to be delivered (unless called from the consumer
+     * thread itself); the tuples still queued after that are discarded.
+     */
+    void quit() {
+        quitting = true;
+        wakeUp();
+        if (Thread.currentThread() == thread) {
+            return;
+        }
+        try {
+            thread.join(QUIT_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            stream.log.warn("Subscriber {} did not process the queued tuples in {} ms, discarding {} tuples",
+                    subscriber, QUIT_TIMEOUT_MILLIS, getLag());
+            stopped = true;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void addToSpill(Tuple t) {
+        spillSize.incrementAndGet();
+        spill.add(t);
+        spilledCount.incrementAndGet();
+    }
+
+    /**
+     * Waits until there is space in the ring for the tuple or the consumer thread has exited.
+     */
+    private void put(Tuple t) {
+        synchronized (notFull) {
+            waitingProducers.incrementAndGet();
+            try {
+                while (!ring.offer(t)) {
+                    if (terminated) {
+                        return;
+                    }
+                    wakeUp();
+                    notFull.wait();
+                }
+            } catch (InterruptedException e) {
+                droppedCount.incrementAndGet();
+                Thread.currentThread().interrupt();
+            } finally {
+                waitingProducers.decrementAndGet();
+            }
+        }
+    }
+
+    private void wakeUp() {
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void signalNotFull() {
+        if (waitingProducers.get() > 0) {
+            synchronized (notFull) {
+                notFull.notifyAll();
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            deliver();
+        } finally {
+            terminated = true;
+            synchronized (notFull) {
+                notFull.notifyAll();
+            }
+        }
+    }
+
+    private void deliver() {
+        while (!stopped) {
+            // read before polling: the tuples emitted before the flag has been set are then visible
+            boolean closed = closing;
+            boolean quit = quitting;
+
+            Tuple tuple = poll();
+            if (tuple == null) {
+                if (closed) {
+                    subscriber.streamClosed(stream);
+                    return;
+                } else if (quit) {
+                    return;
+                }
+                parked = true;
+                // the producers check the flag after adding the tuple
+                if (ring.isEmpty() && spillSize.get() == 0 && closing == closed && quitting == quit) {
+                    LockSupport.park(this);
+                }
+                parked = false;
+                continue;
+            }
+            int lag = getLag();
+            if (lag > maxLag) {
+                maxLag = lag;
+            }
+            try {
+                subscriber.onTuple(stream, tuple);
+            } catch (Exception e) {
+                stream.handleAsyncException(tuple, subscriber, e);
+            }
+            deliveredCount++;
+        }
+    }
+
+    private Tuple poll() {
+        Tuple tuple = ring.poll();
+        if (tuple != null) {
+            signalNotFull();
+        } else if (spill != null && spillSize.get() > 0) {
+            tuple = spill.poll();
+            if (tuple != null) {
+                spillSize.decrementAndGet();
+            }
+        }
+        return tuple;
+    }
+
+    public StreamSubscriber getSubscriber() {
+        return subscriber;
+    }
+
+    /**
+     * @return the number of tuples waiting to be delivered to the subscriber
+     */
+    public int getLag() {
+        return ring.size() + spillSize.get();
+    }
+
+    /**
+     * @return the maximum number of tuples which were waiting to be delivered
+     */
+    public int getMaxLag() {
+        return maxLag;
+    }
+
+    public long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    /**
+     * @return the number of tuples dropped because the buffer was full (with the {@link OverflowPolicy#DROP} policy)
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return the number of tuples put in the overflow queue (with the {@link OverflowPolicy#SPILL} policy)
+     */
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncSubscriber [subscriber=" + subscriber + ", lag=" + getLag() + ", maxLag=" + maxLag
+                + ", delivered=" + deliveredCount + ", dropped=" + droppedCount + ", spilled=" + spilledCount + "]";
+    }
+
+    /**
+     * Configuration of the asynchronous dispatching of a stream.
+     */
+    public static class Config {
+        final int queueSize;
+        final OverflowPolicy overflowPolicy;
+
+        public Config(int queueSize, OverflowPolicy overflowPolicy) {
+            if (queueSize < 1) {
+                throw new IllegalArgumentException("Invalid queue size " + queueSize);
+            }
+            this.queueSize = queueSize;
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        /**
+         * Creates the configuration from a map containing the optional keys {@code queueSize} and
+         * {@code overflowPolicy}.
+         */
+        public static Config fromConfig(YConfiguration config) {
+            return new Config(config.getInt("queueSize", DEFAULT_QUEUE_SIZE),
+                    config.getEnum("overflowPolicy", OverflowPolicy.class, OverflowPolicy.BLOCK));
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+    }
+}
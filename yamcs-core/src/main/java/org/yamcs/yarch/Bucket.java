@@ -1,6 +1,10 @@
 package org.yamcs.yarch;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
@@ -8,6 +12,8 @@ import java.util.function.Predicate;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.ObjectProperties;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.ObjectPropertiesOrBuilder;
 
+import com.google.common.io.ByteStreams;
+
 public interface Bucket {
 
     /**
@@ -43,7 +49,36 @@ public interface Bucket {
 
     void putObject(String objectName, String contentType, Map<String, String> metadata, byte[] objectData)
             throws IOException;
-    
+
+    /**
+     * Store an object reading its data from the input stream until the end of the stream is reached. The stream is
+     * not closed by this method.
+     * <p>
+     * The implementations should not keep the whole object in memory; the default implementation does that and is
+     * only provided for compatibility.
+     * 
+     * @param objectName
+     * @param contentType
+     * @param metadata
+     * @param objectData
+     *            stream providing the object data
+     * @throws IOException
+     */
+    default void putObject(String objectName, String contentType, Map<String, String> metadata,
+            InputStream objectData) throws IOException {
+        putObject(objectName, contentType, metadata, ByteStreams.toByteArray(objectData));
+    }
+
+    /**
+     * Store an object reading its data from the channel until the end of the channel is reached.
+     * 
+     * @see #putObject(String, String, Map, InputStream)
+     */
+    default void putObject(String objectName, String contentType, Map<String, String> metadata,
+            ReadableByteChannel objectData) throws IOException {
+        putObject(objectName, contentType, metadata, Channels.newInputStream(objectData));
+    }
+
     /**
      * Retrieve object from the bucket. Returns null if object does not exist. 
      * 
@@ -53,6 +88,45 @@ public interface Bucket {
      */
     byte[] getObject(String objectName) throws IOException;
 
+    /**
+     * Open a stream for reading the object data. Returns null if the object does not exist.
+     * <p>
+     * The caller has to close the stream.
+     * 
+     * @param objectName
+     * @return
+     * @throws IOException
+     */
+    default InputStream getObjectStream(String objectName) throws IOException {
+        return getObjectStream(objectName, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Open a stream for reading part of the object data. Returns null if the object does not exist.
+     * <p>
+     * The stream ends after length bytes or at the end of the object, whichever comes first. If the offset is beyond
+     * the end of the object, the stream is empty.
+     * <p>
+     * The caller has to close the stream.
+     * 
+     * @param objectName
+     * @param offset
+     *            position in the object of the first byte returned
+     * @param length
+     *            maximum number of bytes returned
+     * @return
+     * @throws IOException
+     */
+    default InputStream getObjectStream(String objectName, long offset, long length) throws IOException {
+        byte[] objectData = getObject(objectName);
+        if (objectData == null) {
+            return null;
+        }
+        int start = (int) Math.min(offset, objectData.length);
+        int n = (int) Math.min(length, objectData.length - start);
+        return new ByteArrayInputStream(objectData, start, n);
+    }
+
     void deleteObject(String objectName) throws IOException;
 
     /**
@@ -1,11 +1,18 @@
 package org.yamcs.yarch;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.FileVisitOption;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -16,12 +23,19 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Predicate;
+import java.util.regex.Pattern;
 
 import org.yamcs.utils.Mimetypes;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.ObjectProperties;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.ObjectPropertiesOrBuilder;
 
+import com.google.common.io.ByteStreams;
+
 public class FileSystemBucket implements Bucket {
+    // maximum number of bytes transferred in one call from the input channel to the file
+    private static final long TRANSFER_SIZE = 1024 * 1024;
+    // name of the temporary files written while uploading an object: .<name>.<hex>.tmp
+    private static final Pattern TMP_FILE_NAME = Pattern.compile("\\..+\\.[0-9a-f]+\\.tmp");
 
     private String bucketName;
     private Path root;
@@ -49,7 +63,7 @@ public class FileSystemBucket implements Bucket {
             @Override
             public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
                 String objectName = root.relativize(file).toString();
-                if ((prefix == null || objectName.startsWith(prefix))) {
+                if ((prefix == null || objectName.startsWith(prefix)) && !isTempFile(file)) {
                     if (includeHidden || !Files.isHidden(file)) {
                         ObjectProperties props = toObjectProperties(objectName, file, attrs);
                         if (p.test(props)) {
@@ -76,6 +90,22 @@ public class FileSystemBucket implements Bucket {
     @Override
     public void putObject(String objectName, String contentType, Map<String, String> metadata, byte[] objectData)
             throws IOException {
+        putObject(objectName, contentType, metadata, new ByteArrayInputStream(objectData));
+    }
+
+    @Override
+    public void putObject(String objectName, String contentType, Map<String, String> metadata,
+            InputStream objectData) throws IOException {
+        putObject(objectName, contentType, metadata, Channels.newChannel(objectData));
+    }
+
+    /**
+     * Writes the data to a hidden temporary file in the target directory which is then moved in place of the object,
+     * such that the object is replaced only if the data has been completely written.
+     */
+    @Override
+    public void putObject(String objectName, String contentType, Map<String, String> metadata,
+            ReadableByteChannel objectData) throws IOException {
 
         // Current implementation ignores specified contentType, instead deriving
         // MIME type from the filename extension.
@@ -96,11 +126,6 @@ public class FileSystemBucket implements Bucket {
             }
         });
 
-        long newSize = size.get() + objectData.length;
-        if (newSize > FileSystemBucketDatabase.MAX_BUCKET_SIZE) {
-            throw new IOException("Maximum bucket size " + FileSystemBucketDatabase.MAX_BUCKET_SIZE + " exceeded");
-        }
-
         int newCount = count.get() + 1;
         if (newCount > FileSystemBucketDatabase.MAX_NUM_OBJECTS_PER_BUCKET) {
             throw new IOException(
@@ -110,7 +135,26 @@ public class FileSystemBucket implements Bucket {
         if (!Files.exists(path.getParent())) { // Check to avoid error when the parent is a symlink
             Files.createDirectories(path.getParent());
         }
-        Files.write(path, objectData);
+
+        long maxObjectSize = FileSystemBucketDatabase.MAX_BUCKET_SIZE - size.get();
+        Path tmpPath = path.resolveSibling("." + path.getFileName() + "." + Long.toHexString(System.nanoTime())
+                + ".tmp");
+        try {
+            try (FileChannel fc = FileChannel.open(tmpPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long n;
+                while ((n = fc.transferFrom(objectData, position, TRANSFER_SIZE)) > 0) {
+                    position += n;
+                    if (position > maxObjectSize) {
+                        throw new IOException(
+                                "Maximum bucket size " + FileSystemBucketDatabase.MAX_BUCKET_SIZE + " exceeded");
+                    }
+                }
+            }
+            Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmpPath);
+        }
     }
 
     @Override
@@ -123,6 +167,17 @@ public class FileSystemBucket implements Bucket {
         }
     }
 
+    @Override
+    public InputStream getObjectStream(String objectName, long offset, long length) throws IOException {
+        Path path = root.resolve(objectName);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        FileChannel fc = FileChannel.open(path, StandardOpenOption.READ);
+        fc.position(offset);
+        return ByteStreams.limit(Channels.newInputStream(fc), length);
+    }
+
     @Override
     public void deleteObject(String objectName) throws IOException {
         Path path = root.resolve(objectName);
@@ -140,6 +195,14 @@ public class FileSystemBucket implements Bucket {
         }
     }
 
+    /**
+     * Whether the file is one of the temporary files written by {@link #putObject} while uploading an object. They
+     * are not listed as objects, even if the hidden files are included.
+     */
+    static boolean isTempFile(Path file) {
+        return TMP_FILE_NAME.matcher(file.getFileName().toString()).matches();
+    }
+
     public Path getBucketRoot() {
         return root;
     }
@@ -1,5 +1,6 @@
 package org.yamcs.yarch;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -11,9 +12,25 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.yamcs.yarch.streamsql.StreamSqlException;
 
+/**
+ * Merges the tuples of several streams ordered by the merge column.
+ * <p>
+ * Each input stream (typically a table reader) is producing tuples in its own thread into a bounded read-ahead queue;
+ * the merge runs in a separate thread taking the first tuple from the queues and emitting it downstream. Thus the
+ * reading and deserialization of the tables proceed in parallel with each other and with the processing of the merged
+ * tuples.
+ * <p>
+ * The merge thread retrieves all the tuples available in a queue at once instead of one by one, such that the
+ * synchronization with the producer threads is not performed for each tuple.
+ */
 public class MergeStream extends Stream implements StreamSubscriber, Runnable {
-    private Map<Stream, LinkedBlockingQueue<Tuple>> tupleQueues;
-    private PriorityQueue<TupleQueuePair> orderedQueue;
+    /**
+     * default number of tuples read ahead from each stream
+     */
+    public static final int DEFAULT_READ_AHEAD = 1024;
+
+    private Map<Stream, SourceQueue> tupleQueues;
+    private PriorityQueue<SourceQueue> orderedQueue;
     Stream[] streams;
     private Tuple queueEndMark = new Tuple(new TupleDefinition(), new ArrayList<>());
     static AtomicInteger counter = new AtomicInteger();
@@ -21,6 +38,17 @@ public class MergeStream extends Stream implements StreamSubscriber, Runnable {
 
     public MergeStream(YarchDatabaseInstance ydb, Stream[] streams, String mergeColumn, boolean ascending)
             throws StreamSqlException {
+        this(ydb, streams, mergeColumn, ascending, DEFAULT_READ_AHEAD);
+    }
+
+    /**
+     * 
+     * @param readAhead
+     *            - maximum number of tuples queued for each stream; when the queue is full the producing thread is
+     *            blocked.
+     */
+    public MergeStream(YarchDatabaseInstance ydb, Stream[] streams, String mergeColumn, boolean ascending,
+            int readAhead) throws StreamSqlException {
         // TODO check that the streams columns have compatible names and types
         super(ydb, getStreamName(streams), streams[0].getDefinition());
         this.streams = streams;
@@ -32,10 +60,10 @@ public class MergeStream extends Stream implements StreamSubscriber, Runnable {
             orderedQueue = new PriorityQueue<>(REVERSE_COMPARATOR);
         }
 
-        Map<Stream, LinkedBlockingQueue<Tuple>> t = new HashMap<>();
+        Map<Stream, SourceQueue> t = new HashMap<>();
 
         for (Stream s : streams) {
-            t.put(s, new LinkedBlockingQueue<Tuple>(50));
+            t.put(s, new SourceQueue(readAhead));
         }
         tupleQueues = Collections.unmodifiableMap(t);
 
@@ -56,7 +84,7 @@ public class MergeStream extends Stream implements StreamSubscriber, Runnable {
     @Override
     public void onTuple(Stream s, Tuple tuple) {
         try {
-            tupleQueues.get(s).put(tuple);
+            tupleQueues.get(s).queue.put(tuple);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.info("got InterruptedException when writing data to the queue");
@@ -70,7 +98,7 @@ public class MergeStream extends Stream implements StreamSubscriber, Runnable {
         }
         log.debug("Got stream closed for {}", s);
         try {
-            tupleQueues.get(s).put(queueEndMark);
+            tupleQueues.get(s).queue.put(queueEndMark);
         } catch (InterruptedException e) {
             log.info("got InterruptedException when writing the end mark to the queue");
             Thread.currentThread().interrupt();
@@ -86,7 +114,7 @@ public class MergeStream extends Stream implements StreamSubscriber, Runnable {
             s.start();
         }
         // now start the thread that collects data from the substreams
-        new Thread(this).start();
+        new Thread(this, "MergeStream[" + getName() + "]").start();
     }
 
     @Override
@@ -94,32 +122,24 @@ public class MergeStream extends Stream implements StreamSubscriber, Runnable {
         try {
             // first wait for all the queues to have at least a tuple
             log.debug("waiting for at least one tuple in each queue");
-            for (LinkedBlockingQueue<Tuple> q : tupleQueues.values()) {
-                Tuple t = q.take();
-                if (t == queueEndMark) {
-                    continue;// this queue is finished, ignore it
-                }
-                orderedQueue.add(new TupleQueuePair(q, t));
+            for (SourceQueue q : tupleQueues.values()) {
+                if (q.next()) {
+                    orderedQueue.add(q);
+                } // else this queue is finished, ignore it
             }
             log.debug("got one tuple from each stream, starting the business");
 
             // now continue publishing the first element from the priority queue till it becomes empty
             while (orderedQueue.size() > 0) {
-                TupleQueuePair tq = orderedQueue.poll();
+                SourceQueue q = orderedQueue.poll();
                 if (getState() == QUITTING) {
                     break;
                 }
-                emitTuple(tq.t);
+                emitTuple(q.t);
                 // get a new tuple from the queue from which the previous one has been sent
-                Tuple t = tq.q.take();
-                if (t == queueEndMark) {
-                    continue;// this queue is finished, ignore it
-                }
-                if (!t.hasColumn(mergeColumn)) {
-                    log.warn("Ignoring tuple because it does not have column {}", mergeColumn);
-                }
-
-                orderedQueue.add(new TupleQueuePair(tq.q, t));
+                if (q.next()) {
+                    orderedQueue.add(q);
+                } // else this queue is finished, ignore it
             }
             close();
         } catch (InterruptedException e) {
@@ -136,21 +156,51 @@ public class MergeStream extends Stream implements StreamSubscriber, Runnable {
         }
     }
 
-    private static final Comparator<TupleQueuePair> REVERSE_COMPARATOR = (o1, o2) -> -o1.compareTo(o2);
+    private static final Comparator<SourceQueue> REVERSE_COMPARATOR = (o1, o2) -> -o1.compareTo(o2);
 
-    class TupleQueuePair implements Comparable<TupleQueuePair> {
-
-        LinkedBlockingQueue<Tuple> q;
+    /**
+     * The read-ahead queue of one stream together with the current tuple of that stream.
+     */
+    class SourceQueue implements Comparable<SourceQueue> {
+        final LinkedBlockingQueue<Tuple> queue;
+        // tuples taken from the queue but not yet processed; only accessed by the merge thread
+        final ArrayDeque<Tuple> batch = new ArrayDeque<>();
         Tuple t;
+        Object key;
+
+        SourceQueue(int readAhead) {
+            queue = new LinkedBlockingQueue<>(readAhead);
+        }
 
-        TupleQueuePair(LinkedBlockingQueue<Tuple> q, Tuple t) {
-            this.q = q;
-            this.t = t;
+        /**
+         * Moves to the next tuple, waiting for it if the queue is empty.
+         * 
+         * @return false if the end of the stream has been reached
+         */
+        boolean next() throws InterruptedException {
+            while (true) {
+                if (batch.isEmpty()) {
+                    if (queue.drainTo(batch) == 0) {
+                        batch.add(queue.take());
+                    }
+                }
+                t = batch.poll();
+                if (t == queueEndMark) {
+                    return false;
+                }
+                int idx = t.getDefinition().getColumnIndex(mergeColumn);
+                if (idx == -1) {
+                    log.warn("Ignoring tuple because it does not have column {}", mergeColumn);
+                    continue;
+                }
+                key = t.getColumn(idx);
+                return true;
+            }
         }
 
         @Override
-        public int compareTo(TupleQueuePair o) {
-            return DataType.compare(t.getColumn(mergeColumn), o.t.getColumn(mergeColumn));
+        public int compareTo(SourceQueue o) {
+            return DataType.compare(key, o.key);
         }
     }
 }
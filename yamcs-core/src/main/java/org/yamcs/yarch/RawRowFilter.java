@@ -0,0 +1,90 @@
+package org.yamcs.yarch;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.yamcs.utils.ByteArray;
+import org.yamcs.utils.DatabaseCorruptionException;
+
+/**
+ * Filter applied on the serialized key and value of a table row, before the row is deserialized into a tuple.
+ * <p>
+ * It is built from the equality conditions of the where clause which cannot be used to restrict the range of keys
+ * walked. The filter may accept rows which do not satisfy the where clause (the clause is evaluated again on the
+ * resulting tuples) but it never rejects rows satisfying it.
+ * <p>
+ * The conditions on the key columns are verified by decoding the key up to the last column required. The conditions
+ * on the value columns are verified by comparing the serialized bytes and are only supported for the tables having
+ * the format version 4 or newer.
+ */
+public class RawRowFilter {
+    final TableDefinition tableDefinition;
+    // values of the key columns by index in the key, null if there is no condition
+    final Object[] keyValues;
+    int lastKeyIdx = -1;
+    final List<ValueCondition> valueConditions = new ArrayList<>();
+
+    public RawRowFilter(TableDefinition tableDefinition) {
+        this.tableDefinition = tableDefinition;
+        this.keyValues = new Object[tableDefinition.getKeyDefinition().size()];
+    }
+
+    /**
+     * Adds the condition that the key column with the given index is equal to the value.
+     *
+     * @param keyIdx
+     *            - index of the column in the primary key
+     * @param value
+     *            - value of the column (has to be of the column type)
+     */
+    public void addKeyCondition(int keyIdx, Object value) {
+        keyValues[keyIdx] = value;
+        lastKeyIdx = Math.max(lastKeyIdx, keyIdx);
+    }
+
+    /**
+     * Adds the condition that the value column with the given index is equal to the serialized value.
+     */
+    public void addValueCondition(int columnIdx, byte[] serializedValue) {
+        valueConditions.add(new ValueCondition(columnIdx, serializedValue));
+    }
+
+    public boolean isEmpty() {
+        return lastKeyIdx < 0 && valueConditions.isEmpty();
+    }
+
+    public boolean matches(byte[] key, byte[] value) {
+        if (lastKeyIdx >= 0) {
+            List<TableColumnDefinition> keyDef = tableDefinition.getKeyDefinition();
+            ByteArray byteArray = ByteArray.wrap(key);
+            try {
+                for (int i = 0; i <= lastKeyIdx; i++) {
+                    Object o = keyDef.get(i).deserializeValue(byteArray);
+                    if (keyValues[i] != null && !Objects.equals(keyValues[i], o)) {
+                        return false;
+                    }
+                }
+            } catch (IOException e) {
+                throw new DatabaseCorruptionException(e);
+            }
+        }
+        for (ValueCondition vc : valueConditions) {
+            if (!tableDefinition.valueColumnEquals(value, vc.columnIdx, vc.serializedValue)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static class ValueCondition {
+        final int columnIdx;
+        final byte[] serializedValue;
+
+        ValueCondition(int columnIdx, byte[] serializedValue) {
+            this.columnIdx = columnIdx;
+            this.serializedValue = serializedValue;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 import org.yamcs.archive.TagDb;
 import org.yamcs.utils.TimeInterval;
 import org.yamcs.yarch.TableWriter.InsertMode;
+import org.yamcs.yarch.streamsql.StreamSqlException;
 
 public interface StorageEngine {
     /**
@@ -111,6 +112,20 @@ public interface StorageEngine {
      */
     public Sequence getSequence(YarchDatabaseInstance ydb, String name, boolean create) throws YarchException;
 
+    /**
+     * Creates a secondary index on an existing table and indexes the rows already stored in the table.
+     * <p>
+     * It is used to add an index to the tables created before the index has been declared. The table writers
+     * created before this call do not update the index.
+     * 
+     * @throws StreamSqlException
+     *             if the index columns are not valid
+     */
+    default void createSecondaryIndex(YarchDatabaseInstance ydb, TableDefinition tblDef, List<String> columns)
+            throws YarchException, StreamSqlException {
+        throw new UnsupportedOperationException();
+    }
+
     public TableWalker newSecondaryIndexTableWalker(YarchDatabaseInstance ydb, TableDefinition tableDefinition,
             boolean ascending, boolean follow);
 
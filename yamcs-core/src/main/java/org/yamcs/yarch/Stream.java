@@ -2,7 +2,9 @@ package org.yamcs.yarch;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -10,6 +12,10 @@ import org.yamcs.logging.Log;
 
 /**
  * Streams are means to transport tuples.
+ * <p>
+ * By default the tuples are pushed to all subscribers on the thread calling {@link #emitTuple(Tuple)}. If the
+ * asynchronous dispatching is enabled with {@link #setAsyncDispatch(AsyncSubscriber.Config)}, each subscriber receives
+ * the tuples from its own thread via an {@link AsyncSubscriber}.
  *
  */
 public abstract class Stream {
@@ -32,6 +38,9 @@ public abstract class Stream {
     private volatile AtomicInteger subscriberCount = new AtomicInteger();
     private ExceptionHandler handler;
 
+    private volatile AsyncSubscriber.Config asyncConfig;
+    private final List<AsyncSubscriber> asyncSubscribers = new CopyOnWriteArrayList<>();
+
     protected Stream(YarchDatabaseInstance ydb, String name, TupleDefinition definition) {
         this.name = name;
         this.outputDefinition = definition;
@@ -51,6 +60,12 @@ public abstract class Stream {
 
     public void emitTuple(Tuple tuple) {
         dataCount.incrementAndGet();
+        if (asyncConfig != null) {
+            for (AsyncSubscriber as : asyncSubscribers) {
+                as.offer(tuple);
+            }
+            return;
+        }
         for (StreamSubscriber s : subscribers) {
             try {
                 s.onTuple(this, tuple);
@@ -76,11 +91,59 @@ public abstract class Stream {
     public void addSubscriber(StreamSubscriber s) {
         subscribers.add(s);
         subscriberCount.incrementAndGet();
+        if (asyncConfig != null) {
+            AsyncSubscriber as = new AsyncSubscriber(this, s, asyncConfig);
+            asyncSubscribers.add(as);
+            as.start();
+        }
     }
 
+    /**
+     * Removes the subscriber.
+     * <p>
+     * In the asynchronous mode, the tuples already queued are delivered before the method returns (unless called from
+     * the thread delivering the tuples to the subscriber); if the subscriber does not process them in
+     * {@value AsyncSubscriber#QUIT_TIMEOUT_MILLIS} ms, the remaining ones are discarded.
+     */
     public void removeSubscriber(StreamSubscriber s) {
         subscribers.remove(s);
         subscriberCount.decrementAndGet();
+        for (AsyncSubscriber as : asyncSubscribers) {
+            if (as.getSubscriber() == s) {
+                asyncSubscribers.remove(as);
+                as.quit();
+                break;
+            }
+        }
+    }
+
+    /**
+     * Enables the asynchronous dispatching of the tuples: each subscriber added from now on will receive the tuples
+     * from its own thread, via a bounded queue.
+     * <p>
+     * Has to be called before any subscriber is added.
+     *
+     * @throws IllegalStateException
+     *             if the stream has already subscribers
+     */
+    public void setAsyncDispatch(AsyncSubscriber.Config config) {
+        if (!subscribers.isEmpty()) {
+            throw new IllegalStateException("Cannot enable the asynchronous dispatching on stream " + name
+                    + " because it has already subscribers");
+        }
+        this.asyncConfig = config;
+    }
+
+    public boolean isAsyncDispatch() {
+        return asyncConfig != null;
+    }
+
+    /**
+     * @return the asynchronous subscribers (empty if the asynchronous dispatching is not enabled); they can be used to
+     *         monitor the lag of each subscriber.
+     */
+    public List<AsyncSubscriber> getAsyncSubscribers() {
+        return Collections.unmodifiableList(asyncSubscribers);
     }
 
     public ColumnDefinition getColumnDefinition(String colName) {
@@ -121,6 +184,13 @@ public abstract class Stream {
         ydb.removeStream(name);
         log.debug("Closed stream {} num emitted tuples: {}", name, getDataCount());
         doClose();
+        if (asyncConfig != null) {
+            for (AsyncSubscriber as : asyncSubscribers) {
+                log.debug("Closing {}", as);
+                as.close();
+            }
+            return;
+        }
         for (StreamSubscriber s : subscribers) {
             s.streamClosed(this);
         }
@@ -152,6 +222,14 @@ public abstract class Stream {
         this.handler = h;
     }
 
+    void handleAsyncException(Tuple tuple, StreamSubscriber s, Exception e) {
+        if (handler != null) {
+            handler.handle(tuple, s, e);
+        } else {
+            log.warn("Exception received when emitting tuple to subscriber " + s, e);
+        }
+    }
+
     @Override
     public String toString() {
         return name;
@@ -4,11 +4,13 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yamcs.LimitExceededException;
 import org.yamcs.utils.ByteArray;
+import org.yamcs.utils.ByteArrayUtils;
 import org.yamcs.utils.DatabaseCorruptionException;
 import org.yamcs.utils.IndexedList;
 import org.yamcs.utils.StringConverter;
@@ -28,6 +30,9 @@ import com.google.common.collect.BiMap;
  * <p>
  * The key is encoded as a byte array of all the columns in order. The value is
  * encoded as a byte array of all the columns preceded by the id of their data type (1 byte) and their index (3 bytes).
+ * Starting with format version 4, the tags (data type and index) of all columns are stored together at the beginning
+ * of the value, followed by the offsets of each column in the data. This allows to deserialize only some of the
+ * columns without decoding the others.
  * <p>
  * The secondary index key is encoded as a byte array of all the columns in order preceded by the id of their data type
  * with the first bit set to 1 for the columns present and 0 for the column not present (i.e. null).
@@ -49,9 +54,11 @@ public class TableDefinition {
      * 3: November 2020 (Yamcs 5.3)
      * - changed serialization to preserve order of negative values in the key
      * - first of the 4 bytes column index preceding the value is the datatype
+     * 4: October 2026
+     * - the value is stored in a columnar format: [n][tag1...tagn][offset1...offsetn][data1...datan]
      * 
      */
-    public static final int CURRENT_FORMAT_VERSION = 3;
+    public static final int CURRENT_FORMAT_VERSION = 4;
     private final int formatVersion;
 
     // the definition of keys and values columns
@@ -451,6 +458,10 @@ public class TableDefinition {
      * @param byteArray
      */
     public void serializeValue(Tuple tuple, Row sertuple, ByteArray byteArray) {
+        if (formatVersion >= 4) {
+            serializeValueColumnar(tuple, sertuple, byteArray);
+            return;
+        }
         TupleDefinition tdef = tuple.getDefinition();
         int length = byteArray.size();
 
@@ -498,6 +509,87 @@ public class TableDefinition {
 
     }
 
+    /**
+     * serialize the value in the format version 4:
+     * 
+     * <pre>
+     * [n: int][tag_1...tag_n: int][offset_1...offset_n: int][data_1...data_n]
+     * </pre>
+     * 
+     * the tag is composed of the data type and the column index like in the version 3; the offset is the start of the
+     * column data relative to the start of data_1.
+     */
+    private void serializeValueColumnar(Tuple tuple, Row sertuple, ByteArray byteArray) {
+        TupleDefinition tdef = tuple.getDefinition();
+
+        // first pass to add the missing columns and count the values to be written
+        int n = 0;
+        boolean missing = false;
+        for (int i = 0; i < tdef.size(); i++) {
+            String cname = tdef.getColumn(i).getName();
+            if (keyDef.hasKey(cname)) {
+                continue;
+            }
+            if (valueDef.getIndex(cname) == -1) {
+                missing = true;
+            }
+            if (tuple.getColumn(i) != null) {
+                n++;
+            }
+        }
+        if (missing) {
+            addMissingValueColumns(tdef);
+        }
+        if (autoIncrementValues != null) {
+            for (TableColumnDefinition tcd : autoIncrementValues) {
+                if (!tuple.hasColumn(tcd.getName())) {
+                    n++;
+                }
+            }
+        }
+
+        int tagPos = byteArray.size() + 4;
+        int offsetPos = tagPos + 4 * n;
+        int dataStart = offsetPos + 4 * n;
+        byteArray.ensureRemaining(4 + 8 * n);
+        byteArray.addInt(n);
+        for (int i = 0; i < 2 * n; i++) {
+            byteArray.addInt(0);
+        }
+
+        int k = 0;
+        for (int i = 0; i < tdef.size(); i++) {
+            ColumnDefinition tupleCd = tdef.getColumn(i);
+            Object v = tuple.getColumn(i);
+            if (v == null || keyDef.hasKey(tupleCd.getName())) {
+                continue;
+            }
+            int cidx = valueDef.getIndex(tupleCd.getName());
+            TableColumnDefinition tableCd = valueDef.get(cidx);
+            Object v1 = DataType.castAs(tupleCd.type, tableCd.type, v);
+
+            byteArray.setInt(tagPos + 4 * k, (tableCd.type.getTypeId() << 24) | cidx);
+            byteArray.setInt(offsetPos + 4 * k, byteArray.size() - dataStart);
+            tableCd.serializeValue(byteArray, v1);
+            k++;
+
+            setSertupleValue(sertuple, tupleCd.getName(), v1);
+        }
+
+        if (autoIncrementValues != null) {
+            for (TableColumnDefinition tcd : autoIncrementValues) {
+                if (!tuple.hasColumn(tcd.getName())) {
+                    long v = tcd.getSequence().next();
+                    byteArray.setInt(tagPos + 4 * k, (tcd.type.getTypeId() << 24) | valueDef.getIndex(tcd.getName()));
+                    byteArray.setInt(offsetPos + 4 * k, byteArray.size() - dataStart);
+                    tcd.serializeValue(byteArray, v);
+                    k++;
+                    setSertupleValue(sertuple, tcd.getName(), v);
+                }
+            }
+        }
+    }
+
     /**
      * Transform the value part of the tuple into a byte array to be written on
      * disk. Each column is preceded by a tag (the column index).
@@ -532,41 +624,63 @@ public class TableDefinition {
     }
 
     public Tuple deserialize(byte[] k, byte[] v) {
+        return deserialize(k, v, null);
+    }
+
+    /**
+     * Deserializes only the given columns from the key and value.
+     * <p>
+     * With the format version 4, the value columns not part of the projection are skipped without being decoded. With
+     * the older formats all columns have to be decoded but only those part of the projection are returned.
+     * 
+     * @param k
+     *            - serialized key
+     * @param v
+     *            - serialized value
+     * @param columns
+     *            - the names of the columns to be part of the resulting tuple. If null, all columns are returned.
+     * @return the tuple containing the columns from the projection which have a value in the row
+     */
+    public Tuple deserialize(byte[] k, byte[] v, Set<String> columns) {
         TupleDefinition tdef = new TupleDefinition();
         ArrayList<Object> cols = new ArrayList<>();
         ByteArray byteArray = ByteArray.wrap(k);
 
         try {
-            // deserialize the key
-            for (TableColumnDefinition tcd : keyDef) {
-                tdef.addColumn(tcd);
-                cols.add(tcd.deserializeValue(byteArray));
+            // deserialize the key; the key columns are not prefixed by their length so we have to decode all of them
+            // up to the last one required
+            int lastKeyIdx = keyDef.size() - 1;
+            if (columns != null) {
+                while (lastKeyIdx >= 0 && !columns.contains(keyDef.get(lastKeyIdx).getName())) {
+                    lastKeyIdx--;
+                }
+            }
+            for (int i = 0; i <= lastKeyIdx; i++) {
+                TableColumnDefinition tcd = keyDef.get(i);
+                Object o = tcd.deserializeValue(byteArray);
+                if (columns == null || columns.contains(tcd.getName())) {
+                    tdef.addColumn(tcd);
+                    cols.add(o);
+                }
             }
 
             // deserialize the value
             byteArray = ByteArray.wrap(v);
-            while (true) {
-                int cidx = byteArray.getInt(); // column index
-                if (cidx == -1) {
-                    break;
-                }
-                byte dt = (byte) (cidx >>> 24);
-                cidx &= 0xFFFFFF;
-                if (cidx >= valueDef.size()) {
-                    throw new DatabaseCorruptionException(
-                            "Reference to index " + cidx + " found but the table definition does not have this column");
-                }
-
-                TableColumnDefinition tcd = valueDef.get(cidx);
-                if (formatVersion >= 3 && tcd.getType().getTypeId() != dt) {
-                    throw new DatabaseCorruptionException(String.format(
-                            "Data type for table %s, column %s (id: %d) does not match the data read: expected %d, read: %d",
-                            name, tcd.getName(), cidx, tcd.getType().getTypeId(), dt));
+            if (formatVersion >= 4) {
+                deserializeValueColumnar(byteArray, columns, tdef, cols);
+            } else {
+                while (true) {
+                    int cidx = byteArray.getInt(); // column index
+                    if (cidx == -1) {
+                        break;
+                    }
+                    TableColumnDefinition tcd = getValueColumn(cidx);
+                    Object o = tcd.deserializeValue(byteArray);
+                    if (columns == null || columns.contains(tcd.getName())) {
+                        tdef.addColumn(tcd);
+                        cols.add(o);
+                    }
                 }
-
-                Object o = tcd.deserializeValue(byteArray);
-                tdef.addColumn(tcd);
-                cols.add(o);
             }
         } catch (IOException e) {
             throw new DatabaseCorruptionException(
@@ -579,6 +693,89 @@ public class TableDefinition {
         return new Tuple(tdef, cols);
     }
 
+    private void deserializeValueColumnar(ByteArray byteArray, Set<String> columns, TupleDefinition tdef,
+            List<Object> cols) throws IOException {
+        int n = byteArray.getInt();
+        int tagPos = 4;
+        int offsetPos = tagPos + 4 * n;
+        int dataStart = offsetPos + 4 * n;
+        byte[] v = byteArray.array();
+        if (n < 0 || dataStart > v.length) {
+            throw new DatabaseCorruptionException("Invalid number of columns " + n + " in row of table " + name);
+        }
+
+        for (int i = 0; i < n; i++) {
+            TableColumnDefinition tcd = getValueColumn(ByteArrayUtils.decodeInt(v, tagPos + 4 * i));
+            if (columns != null && !columns.contains(tcd.getName())) {
+                continue;
+            }
+            byteArray.position(dataStart + ByteArrayUtils.decodeInt(v, offsetPos + 4 * i));
+            Object o = tcd.deserializeValue(byteArray);
+            tdef.addColumn(tcd);
+            cols.add(o);
+        }
+    }
+
+    /**
+     * Checks if the serialized value of the column with the given index is equal to the given bytes, without
+     * deserializing the row. Works only for the format version 4 or newer.
+     * 
+     * @param v
+     *            - the serialized row value
+     * @param cidx
+     *            - the index of the column in the value definition
+     * @param expected
+     *            - the serialized column value
+     * @return false if the row does not have the column or if the column value is different
+     */
+    boolean valueColumnEquals(byte[] v, int cidx, byte[] expected) {
+        if (formatVersion < 4) {
+            throw new IllegalStateException("Table " + name + " does not use the columnar format");
+        }
+        int n = ByteArrayUtils.decodeInt(v, 0);
+        int offsetPos = 4 + 4 * n;
+        int dataStart = offsetPos + 4 * n;
+
+        for (int i = 0; i < n; i++) {
+            if ((ByteArrayUtils.decodeInt(v, 4 + 4 * i) & 0xFFFFFF) != cidx) {
+                continue;
+            }
+            int start = dataStart + ByteArrayUtils.decodeInt(v, offsetPos + 4 * i);
+            int end = (i == n - 1) ? v.length : dataStart + ByteArrayUtils.decodeInt(v, offsetPos + 4 * i + 4);
+            if (end - start != expected.length) {
+                return false;
+            }
+            for (int j = 0; j < expected.length; j++) {
+                if (v[start + j] != expected[j]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * returns the value column corresponding to the tag read from the serialized value, verifying that the data type
+     * matches
+     */
+    private TableColumnDefinition getValueColumn(int tag) {
+        byte dt = (byte) (tag >>> 24);
+        int cidx = tag & 0xFFFFFF;
+        if (cidx >= valueDef.size()) {
+            throw new DatabaseCorruptionException(
+                    "Reference to index " + cidx + " found but the table definition does not have this column");
+        }
+
+        TableColumnDefinition tcd = valueDef.get(cidx);
+        if (formatVersion >= 3 && tcd.getType().getTypeId() != dt) {
+            throw new DatabaseCorruptionException(String.format(
+                    "Data type for table %s, column %s (id: %d) does not match the data read: expected %d, read: %d",
+                    name, tcd.getName(), cidx, tcd.getType().getTypeId(), dt));
+        }
+        return tcd;
+    }
+
     public boolean isCompressed() {
         return compressed;
     }
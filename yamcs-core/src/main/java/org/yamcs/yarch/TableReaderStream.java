@@ -1,5 +1,6 @@
 package org.yamcs.yarch;
 
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -15,6 +16,10 @@ public class TableReaderStream extends Stream implements Runnable, TableVisitor
     
     protected TableDefinition tableDefinition;;
     Thread thread;
+    // if not null, only these columns are deserialized
+    Set<String> projection;
+    // if not null, the rows not matching are skipped before being deserialized
+    RawRowFilter rawFilter;
     
     public TableReaderStream(YarchDatabaseInstance ydb, TableDefinition tblDef, TableWalker iterator) {
        super(ydb, tblDef.getName() + "_" + count.getAndIncrement(),
@@ -44,13 +49,37 @@ public class TableReaderStream extends Stream implements Runnable, TableVisitor
 
     @Override
     public Action visit(byte[] key, byte[] value) {
+        if (rawFilter != null && !rawFilter.matches(key, value)) {
+            return ACTION_CONTINUE;
+        }
         emitTuple(dataToTuple(key, value));
         return ACTION_CONTINUE;
     }
 
 
     protected Tuple dataToTuple(byte[] k, byte[] v) {
-        return tableDefinition.deserialize(k, v);
+        return tableDefinition.deserialize(k, v, projection);
+    }
+
+    /**
+     * Restricts the columns of the emitted tuples to the given set. The other columns are not deserialized.
+     * <p>
+     * Has to be called before starting the stream.
+     * 
+     * @param columns
+     *            - the names of the columns required downstream; null means all columns
+     */
+    public void setProjection(Set<String> columns) {
+        this.projection = columns;
+    }
+
+    /**
+     * Sets a filter to be applied on the serialized rows before deserializing them.
+     * <p>
+     * Has to be called before starting the stream.
+     */
+    public void setRawRowFilter(RawRowFilter rawFilter) {
+        this.rawFilter = rawFilter;
     }
 
     @Override
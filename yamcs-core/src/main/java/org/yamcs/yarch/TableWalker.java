@@ -1,5 +1,6 @@
 package org.yamcs.yarch;
 
+import java.util.List;
 import java.util.Set;
 
 import org.yamcs.utils.TimeInterval;
@@ -22,6 +23,15 @@ public interface TableWalker {
     default void setSecondaryIndexRange(DbRange skRange) {
         throw new UnsupportedOperationException();
     }
+
+    /**
+     * Restricts the walk to the rows having the first column of the secondary key equal to one of the range values.
+     * <p>
+     * Each range has to contain a single value (rangeStart equal to rangeEnd) and the ranges have to be sorted.
+     */
+    default void setSecondaryIndexRanges(List<DbRange> skRanges) {
+        throw new UnsupportedOperationException();
+    }
     
     void walk(TableVisitor visitor) throws YarchException, StreamSqlException;
 
@@ -48,6 +48,13 @@ public abstract class TableWriter implements StreamSubscriber {
         return closeFuture;
     }
 
+    /**
+     * @return the table the writer writes into
+     */
+    public Table getTable() {
+        return table;
+    }
+
     /**
      * close writer and any open resources
      * <p> call the close future after closing has been completed
@@ -378,6 +378,24 @@ public class YarchDatabaseInstance {
         getStorageEngine(tbl).dropTable(this, tbl);
     }
 
+    /**
+     * Adds a secondary index to an existing table, indexing the rows already stored in the table.
+     * <p>
+     * Should be called before creating the table writers, see
+     * {@link StorageEngine#createSecondaryIndex(YarchDatabaseInstance, TableDefinition, List)}
+     * 
+     * @throws StreamSqlException
+     *             if the index columns are not valid
+     */
+    public void createSecondaryIndex(String tblName, List<String> columns) throws YarchException, StreamSqlException {
+        TableDefinition tbl = tables.get(tblName);
+        if (tbl == null) {
+            throw new YarchException("There is no table named '" + tblName + "'");
+        }
+        log.info("Creating secondary index {} on table {}", columns, tblName);
+        getStorageEngine(tbl).createSecondaryIndex(this, tbl, columns);
+    }
+
     public synchronized void removeStream(String name) {
         Stream s = streams.remove(name);
         if ((s != null) && (managementService != null)) {
@@ -5,6 +5,7 @@ import static org.yamcs.yarch.rocksdb.RdbHistogramInfo.histoDbKey;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,6 +13,8 @@ import java.util.concurrent.CompletableFuture;
 
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Snapshot;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
 import org.yamcs.utils.ByteArrayWrapper;
 import org.yamcs.yarch.HistogramSegment;
 import org.yamcs.yarch.Row;
@@ -47,6 +50,22 @@ public abstract class HistogramWriter {
 
     public abstract void addHistogram(Row sertuple) throws IOException, RocksDBException;
 
+    /**
+     * Add the histogram data for a list of rows which have been written together (in one batch) to the database.
+     * <p>
+     * The default implementation calls {@link #addHistogram(Row)} for each row; subclasses may group the updates of
+     * the same histogram segment into one write.
+     * 
+     * @param rows
+     * @throws IOException
+     * @throws RocksDBException
+     */
+    public void addHistograms(List<Row> rows) throws IOException, RocksDBException {
+        for (Row row : rows) {
+            addHistogram(row);
+        }
+    }
+
     /**
      * called from the histogram rebuilder to start queueing all new data while the builder rebuilds a (part) of the.
      * <p>
@@ -109,16 +128,8 @@ public abstract class HistogramWriter {
                 int dtime = (int) (time % HistogramSegment.GROUPING_FACTOR);
                 byte[] histoDbKey = histoDbKey(histo.tbsIndex, sstart, value);
                 ByteArrayWrapper hmkey = new ByteArrayWrapper(histoDbKey);
-                
-                HistogramSegment segment = segments.get(hmkey);
-                if (segment == null) {
-                    byte[] val = rdb.get(histoDbKey);
-                    if (val == null) {
-                        segment = new HistogramSegment(value, sstart);
-                    } else {
-                        segment = new HistogramSegment(value, sstart, val);
-                    }
-                }
+
+                HistogramSegment segment = getSegment(rdb, hmkey, value, sstart);
                 segment.merge(dtime);
                 rdb.put(histoDbKey, segment.val());
 
@@ -128,8 +139,79 @@ public abstract class HistogramWriter {
             }
         }
 
+        /**
+         * Like {@link #addHistogram(long, byte[])} but instead of writing the segment to the database, it is added to
+         * the dirty map to be written later by {@link #writeSegments(Map)}.
+         */
+        void mergeHistogram(long time, byte[] value, Map<ByteArrayWrapper, DirtySegment> dirty) {
+            try {
+                RdbHistogramInfo histo = (RdbHistogramInfo) table.createAndGetHistogram(time, columnName);
+                long sstart = segmentStart(time);
+                int dtime = (int) (time % HistogramSegment.GROUPING_FACTOR);
+                ByteArrayWrapper hmkey = new ByteArrayWrapper(histoDbKey(histo.tbsIndex, sstart, value));
+
+                DirtySegment ds = dirty.get(hmkey);
+                if (ds == null) {
+                    YRDB rdb = tablespace.getRdb(histo.partitionDir, false);
+                    ds = new DirtySegment(histo.partitionDir, getSegment(rdb, hmkey, value, sstart));
+                    tablespace.dispose(rdb);
+                    dirty.put(hmkey, ds);
+                }
+                ds.segment.merge(dtime);
+                segments.put(hmkey, ds.segment);
+            } catch (RocksDBException e) {
+                throw new YarchException(e);
+            }
+        }
+
+        /**
+         * Writes the segments collected by {@link #mergeHistogram(long, byte[], Map)}, one WriteBatch for each
+         * partition database.
+         */
+        void writeSegments(Map<ByteArrayWrapper, DirtySegment> dirty) throws RocksDBException {
+            Map<String, List<Map.Entry<ByteArrayWrapper, DirtySegment>>> byPartition = new HashMap<>();
+            for (Map.Entry<ByteArrayWrapper, DirtySegment> me : dirty.entrySet()) {
+                byPartition.computeIfAbsent(me.getValue().partitionDir, k -> new ArrayList<>()).add(me);
+            }
+            for (Map.Entry<String, List<Map.Entry<ByteArrayWrapper, DirtySegment>>> me : byPartition.entrySet()) {
+                YRDB rdb = tablespace.getRdb(me.getKey(), false);
+                try (WriteBatch writeBatch = new WriteBatch(); WriteOptions wopt = new WriteOptions()) {
+                    for (Map.Entry<ByteArrayWrapper, DirtySegment> e : me.getValue()) {
+                        writeBatch.put(e.getKey().getData(), e.getValue().segment.val());
+                    }
+                    rdb.write(wopt, writeBatch);
+                } finally {
+                    tablespace.dispose(rdb);
+                }
+            }
+        }
+
+        private HistogramSegment getSegment(YRDB rdb, ByteArrayWrapper hmkey, byte[] value, long sstart)
+                throws RocksDBException {
+            HistogramSegment segment = segments.get(hmkey);
+            if (segment == null) {
+                byte[] val = rdb.get(hmkey.getData());
+                if (val == null) {
+                    segment = new HistogramSegment(value, sstart);
+                } else {
+                    segment = new HistogramSegment(value, sstart, val);
+                }
+            }
+            return segment;
+        }
+
         public void cleanup() {
             segments.clear();
         }
     }
+
+    static class DirtySegment {
+        final String partitionDir;
+        final HistogramSegment segment;
+
+        DirtySegment(String partitionDir, HistogramSegment segment) {
+            this.partitionDir = partitionDir;
+            this.segment = segment;
+        }
+    }
 }
@@ -1,18 +1,25 @@
 package org.yamcs.yarch.rocksdb;
 
 import static org.yamcs.utils.ByteArrayUtils.encodeInt;
+import static org.yamcs.yarch.rocksdb.RdbBucketDatabase.TYPE_OBJ_CHUNK;
 import static org.yamcs.yarch.rocksdb.RdbBucketDatabase.TYPE_OBJ_DATA;
 import static org.yamcs.yarch.rocksdb.RdbBucketDatabase.TYPE_OBJ_METADATA;
 import static org.yamcs.yarch.rocksdb.RdbStorageEngine.TBS_INDEX_SIZE;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
 
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.Snapshot;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
@@ -27,13 +34,29 @@ import org.yamcs.yarch.rocksdb.protobuf.Tablespace.ObjectPropertiesOrBuilder;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TablespaceRecord;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TablespaceRecord.Type;
 
+import com.google.common.io.ByteStreams;
 import com.google.protobuf.InvalidProtocolBufferException;
 
+/**
+ * Bucket storing the objects in the RocksDB tablespace.
+ * <p>
+ * The object data is split in chunks of {@link #CHUNK_SIZE} bytes stored under the objectId allocated when the object
+ * is written. The chunks are written in several batches while the data is read from the input such that the object
+ * does not have to be kept in memory; the metadata is written last, together with the remaining chunks, such that the
+ * object becomes visible only when complete.
+ * <p>
+ * The objects stored by previous versions are kept in one record under the object name and can still be read.
+ */
 public class RdbBucket implements Bucket {
+    static final int CHUNK_SIZE = 256 * 1024;
+    // when the chunks of an object exceed this size, they are written to the database before reading further data
+    static final int MAX_BATCH_SIZE = 4 * 1024 * 1024;
+
     final int tbsIndex;
     BucketProperties bucketProps;
     final Tablespace tablespace;
     final String yamcsInstance;
+    private int lastObjectId;
     private static final Logger log = LoggerFactory.getLogger(RdbBucket.class);
 
     public RdbBucket(String yamcsInstance, Tablespace tablespace, int tbsIndex, BucketProperties bucketProps)
@@ -42,6 +65,7 @@ public class RdbBucket implements Bucket {
         this.tbsIndex = tbsIndex;
         this.bucketProps = bucketProps;
         this.tablespace = tablespace;
+        this.lastObjectId = bucketProps.getLastObjectId();
     }
 
     @Override
@@ -75,49 +99,112 @@ public class RdbBucket implements Bucket {
     }
 
     @Override
-    public synchronized void putObject(String objectName, String contentType,
-            Map<String, String> metadata, byte[] objectData) throws IOException {
+    public void putObject(String objectName, String contentType, Map<String, String> metadata, byte[] objectData)
+            throws IOException {
+        putObject(objectName, contentType, metadata, new ByteArrayInputStream(objectData));
+    }
+
+    @Override
+    public void putObject(String objectName, String contentType, Map<String, String> metadata,
+            InputStream objectData) throws IOException {
         if (objectName.isEmpty()) {
             throw new IllegalArgumentException("object name cannot be empty");
         }
         log.debug("Uploading object {} to bucket {}; contentType: {}", objectName, bucketProps.getName(), contentType);
-        ObjectProperties.Builder props = ObjectProperties.newBuilder();
-        if (metadata != null) {
-            props.putAllMetadata(metadata);
-        }
-        props.setCreated(TimeEncoding.getWallclockTime());
-        props.setSize(objectData.length);
-        if (contentType != null) {
-            props.setContentType(contentType);
-        }
-
+        int objectId = nextObjectId();
+        YRDB rdb = tablespace.getRdb();
+        long size = 0;
         try (WriteBatch writeBatch = new WriteBatch();
                 WriteOptions writeOpts = new WriteOptions()) {
-            ObjectProperties oldProps = findObject(objectName);
-
-            byte[] mk = getKey(TYPE_OBJ_METADATA, objectName);
-            byte[] dk = getKey(TYPE_OBJ_DATA, objectName);
-            writeBatch.put(mk, props.build().toByteArray());
-            writeBatch.put(dk, objectData);
-            long bsize = bucketProps.getSize() + props.getSize() - ((oldProps == null) ? 0 : oldProps.getSize());
-            if (bsize > bucketProps.getMaxSize()) {
-                throw new IOException("Maximum bucket size " + bucketProps.getMaxSize() + " exceeded");
-            }
-            int numobj = bucketProps.getNumObjects() + ((oldProps == null) ? 1 : 0);
-            if (numobj > bucketProps.getMaxNumObjects()) {
-                throw new IOException(
-                        "Maximum number of objects in the bucket " + bucketProps.getNumObjects() + " exceeded");
-            }
-            BucketProperties bucketProps1 = BucketProperties.newBuilder().mergeFrom(bucketProps)
-                    .setNumObjects(numobj).setSize(bsize).build();
-            TablespaceRecord.Builder trb = TablespaceRecord.newBuilder().setType(Type.BUCKET)
-                    .setBucketProperties(bucketProps1).setTbsIndex(tbsIndex);
-            tablespace.writeToBatch(yamcsInstance, writeBatch, trb);
-
-            tablespace.getRdb().getDb().write(writeOpts, writeBatch);
-            bucketProps = bucketProps1;
+            byte[] buf = new byte[CHUNK_SIZE];
+            int chunkId = 0;
+            int n;
+            while ((n = ByteStreams.read(objectData, buf, 0, CHUNK_SIZE)) > 0) {
+                size += n;
+                if (size > bucketProps.getMaxSize()) {
+                    throw new IOException("Maximum bucket size " + bucketProps.getMaxSize() + " exceeded");
+                }
+                writeBatch.put(getChunkKey(objectId, chunkId++), n == CHUNK_SIZE ? buf : Arrays.copyOf(buf, n));
+                if (writeBatch.getDataSize() >= MAX_BATCH_SIZE) {
+                    rdb.getDb().write(writeOpts, writeBatch);
+                    writeBatch.clear();
+                }
+            }
+
+            ObjectProperties.Builder props = ObjectProperties.newBuilder();
+            if (metadata != null) {
+                props.putAllMetadata(metadata);
+            }
+            props.setCreated(TimeEncoding.getWallclockTime());
+            props.setSize(size);
+            props.setObjectId(objectId);
+            props.setChunkSize(CHUNK_SIZE);
+            if (contentType != null) {
+                props.setContentType(contentType);
+            }
+            commitObject(objectName, props.build(), writeBatch, writeOpts);
         } catch (RocksDBException e) {
+            deleteChunks(objectId);
             throw new IOException("Error writing object data: " + e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            deleteChunks(objectId);
+            throw e;
+        }
+    }
+
+    /**
+     * writes the object metadata together with the last chunks and removes the previous object with the same name
+     */
+    private synchronized void commitObject(String objectName, ObjectProperties props, WriteBatch writeBatch,
+            WriteOptions writeOpts) throws IOException, RocksDBException {
+        ObjectProperties oldProps = findObject(objectName);
+
+        long bsize = bucketProps.getSize() + props.getSize() - ((oldProps == null) ? 0 : oldProps.getSize());
+        if (bsize > bucketProps.getMaxSize()) {
+            throw new IOException("Maximum bucket size " + bucketProps.getMaxSize() + " exceeded");
+        }
+        int numobj = bucketProps.getNumObjects() + ((oldProps == null) ? 1 : 0);
+        if (numobj > bucketProps.getMaxNumObjects()) {
+            throw new IOException(
+                    "Maximum number of objects in the bucket " + bucketProps.getNumObjects() + " exceeded");
+        }
+        if (oldProps != null) {
+            deleteData(writeBatch, objectName, oldProps);
+        }
+        writeBatch.put(getKey(TYPE_OBJ_METADATA, objectName), props.toByteArray());
+
+        BucketProperties bucketProps1 = BucketProperties.newBuilder().mergeFrom(bucketProps)
+                .setNumObjects(numobj).setSize(bsize).setLastObjectId(lastObjectId).build();
+        TablespaceRecord.Builder trb = TablespaceRecord.newBuilder().setType(Type.BUCKET)
+                .setBucketProperties(bucketProps1).setTbsIndex(tbsIndex);
+        tablespace.writeToBatch(yamcsInstance, writeBatch, trb);
+
+        tablespace.getRdb().getDb().write(writeOpts, writeBatch);
+        bucketProps = bucketProps1;
+    }
+
+    private synchronized int nextObjectId() {
+        return ++lastObjectId;
+    }
+
+    /**
+     * removes the chunks of an object which could not be written completely
+     */
+    private void deleteChunks(int objectId) {
+        try {
+            tablespace.getRdb().getDb().deleteRange(getChunkKey(objectId, 0), getChunkKey(objectId + 1, 0));
+        } catch (RocksDBException e) {
+            log.warn("Failed to remove the chunks of the object {}", objectId, e);
+        }
+    }
+
+    private void deleteData(WriteBatch writeBatch, String objectName, ObjectProperties props)
+            throws RocksDBException {
+        if (props.hasChunkSize()) {
+            int objectId = props.getObjectId();
+            writeBatch.deleteRange(getChunkKey(objectId, 0), getChunkKey(objectId + 1, 0));
+        } else {
+            writeBatch.delete(getKey(TYPE_OBJ_DATA, objectName));
         }
     }
 
@@ -140,12 +227,57 @@ public class RdbBucket implements Bucket {
     @Override
     public byte[] getObject(String objectName) throws IOException {
         try {
-            byte[] k = getKey(TYPE_OBJ_DATA, objectName);
-            YRDB rdb = tablespace.getRdb();
+            ObjectProperties props = findObject(objectName);
+            if (props == null) {
+                return null;
+            }
+            if (!props.hasChunkSize()) {
+                return tablespace.getRdb().get(getKey(TYPE_OBJ_DATA, objectName));
+            }
+            if (props.getSize() > Integer.MAX_VALUE) {
+                throw new IOException("Object " + objectName + " too large to be retrieved in one array");
+            }
+            try (InputStream in = getObjectStream(objectName)) {
+                return ByteStreams.toByteArray(in);
+            }
+        } catch (RocksDBException e) {
+            throw new IOException("Failed to retrieve object: " + e.getMessage(), e);
+        }
+    }
 
-            return rdb.get(k);
+    @Override
+    public InputStream getObjectStream(String objectName, long offset, long length) throws IOException {
+        YRDB rdb = tablespace.getRdb();
+        RocksDB db = rdb.getDb();
+        Snapshot snapshot = db.getSnapshot();
+        ReadOptions readOptions = new ReadOptions().setSnapshot(snapshot);
+        try {
+            byte[] v = db.get(readOptions, getKey(TYPE_OBJ_METADATA, objectName));
+            if (v == null) {
+                return null;
+            }
+            ObjectProperties props = ObjectProperties.parseFrom(v);
+            if (!props.hasChunkSize()) {
+                byte[] objectData = db.get(readOptions, getKey(TYPE_OBJ_DATA, objectName));
+                if (objectData == null) {
+                    return null;
+                }
+                int start = (int) Math.min(offset, objectData.length);
+                return new ByteArrayInputStream(objectData, start, (int) Math.min(length, objectData.length - start));
+            }
+            long end = offset + Math.min(length, props.getSize() - Math.min(offset, props.getSize()));
+            ChunkInputStream in = new ChunkInputStream(db, snapshot, readOptions, props, offset, end);
+            snapshot = null; // released when the stream is closed
+            return in;
+        } catch (InvalidProtocolBufferException e) {
+            throw new DatabaseCorruptionException("Cannot decode data: " + e.getMessage(), e);
         } catch (RocksDBException e) {
             throw new IOException("Failed to retrieve object: " + e.getMessage(), e);
+        } finally {
+            if (snapshot != null) {
+                readOptions.close();
+                db.releaseSnapshot(snapshot);
+            }
         }
     }
 
@@ -160,15 +292,14 @@ public class RdbBucket implements Bucket {
             try (WriteBatch writeBatch = new WriteBatch();
                     WriteOptions writeOpts = new WriteOptions()) {
                 byte[] mk = getKey(TYPE_OBJ_METADATA, objectName);
-                byte[] dk = getKey(TYPE_OBJ_DATA, objectName);
                 writeBatch.delete(mk);
-                writeBatch.delete(dk);
+                deleteData(writeBatch, objectName, props);
                 BucketProperties bucketProps1 = BucketProperties.newBuilder().mergeFrom(bucketProps)
                         .setNumObjects(bucketProps.getNumObjects() - 1).setSize(bucketProps.getSize() - props.getSize())
                         .build();
                 TablespaceRecord.Builder trb = TablespaceRecord.newBuilder().setType(Type.BUCKET)
                         .setBucketProperties(bucketProps1).setTbsIndex(tbsIndex);
-                tablespace.writeToBatch(objectName, writeBatch, trb);
+                tablespace.writeToBatch(yamcsInstance, writeBatch, trb);
                 tablespace.getRdb().getDb().write(writeOpts, writeBatch);
                 bucketProps = bucketProps1;
             }
@@ -196,4 +327,101 @@ public class RdbBucket implements Bucket {
 
         return k;
     }
+
+    private byte[] getChunkKey(int objectId, int chunkId) {
+        byte[] k = new byte[TBS_INDEX_SIZE + 9];
+        encodeInt(tbsIndex, k, 0);
+        k[TBS_INDEX_SIZE] = TYPE_OBJ_CHUNK;
+        encodeInt(objectId, k, TBS_INDEX_SIZE + 1);
+        encodeInt(chunkId, k, TBS_INDEX_SIZE + 5);
+        return k;
+    }
+
+    /**
+     * Reads the chunks of an object one by one from a database snapshot, such that the data is not affected by the
+     * object being overwritten or deleted while reading.
+     */
+    class ChunkInputStream extends InputStream {
+        final RocksDB db;
+        final ReadOptions readOptions;
+        final int objectId;
+        final int chunkSize;
+        Snapshot snapshot;
+        long position;
+        final long end;
+        byte[] chunk;
+        int chunkId = -1;
+
+        ChunkInputStream(RocksDB db, Snapshot snapshot, ReadOptions readOptions, ObjectProperties props, long start,
+                long end) {
+            this.db = db;
+            this.snapshot = snapshot;
+            this.readOptions = readOptions;
+            this.objectId = props.getObjectId();
+            this.chunkSize = props.getChunkSize();
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == 1 ? b[0] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int id = (int) (position / chunkSize);
+            if (id != chunkId) {
+                loadChunk(id);
+            }
+            int chunkOffset = (int) (position % chunkSize);
+            int n = (int) Math.min(Math.min(len, chunk.length - chunkOffset), end - position);
+            System.arraycopy(chunk, chunkOffset, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long k = Math.max(0, Math.min(n, end - position));
+            position += k;
+            return k;
+        }
+
+        @Override
+        public int available() {
+            if (chunk == null || position / chunkSize != chunkId) {
+                return 0;
+            }
+            return (int) Math.min(chunk.length - position % chunkSize, end - position);
+        }
+
+        private void loadChunk(int id) throws IOException {
+            if (snapshot == null) {
+                throw new IOException("Stream closed");
+            }
+            try {
+                chunk = db.get(readOptions, getChunkKey(objectId, id));
+            } catch (RocksDBException e) {
+                throw new IOException("Failed to retrieve object data: " + e.getMessage(), e);
+            }
+            if (chunk == null) {
+                throw new DatabaseCorruptionException("Missing chunk " + id + " of object " + objectId);
+            }
+            chunkId = id;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (snapshot != null) {
+                readOptions.close();
+                db.releaseSnapshot(snapshot);
+                snapshot = null;
+            }
+        }
+    }
 }
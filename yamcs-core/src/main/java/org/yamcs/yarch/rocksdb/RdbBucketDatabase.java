@@ -28,20 +28,23 @@ import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TablespaceRecord.Type;
  * 4 bytes    1 byte             variable size
  * tbsIndex   0 = bucket info
  * tbsIndex   1 = metadata       objectName (up to 1000 bytes)
- * tbsIndex   2 = data           objectId (4 bytes)
+ * tbsIndex   2 = data           objectName (objects stored before the chunks were introduced)
+ * tbsIndex   3 = data chunk     objectId (4 bytes) chunkId (4 bytes)
  * </pre>
  * 
  * The rocksdb value is formed by:
  * <ul>
- * <li>in case of metadata: protobuf representation of ObjectProperties (contains the objectId and key,value metadata)
+ * <li>in case of metadata: protobuf representation of ObjectProperties (contains the objectId, the chunk size and
+ * key,value metadata)
  * <li>in case of user object: binary user object
+ * <li>in case of data chunk: the part of the binary user object starting at chunkId*chunkSize
  * </ul>
  * 
  * To retrieve an object based on the bucket name and object name,
  * <ol>
  * <li>retrieve the tbsIndex based on the bucket name
  * <li>retrieve the ObjectProperties based on the tbsIndex and object name
- * <li>retrieve the object data based on the tbsIndex and objectId
+ * <li>retrieve the object data chunks based on the tbsIndex and objectId
  * </ol>
  * 
  * @author nm
@@ -55,6 +58,7 @@ public class RdbBucketDatabase implements BucketDatabase {
     final static byte TYPE_BUCKET_INFO = 0;
     final static byte TYPE_OBJ_METADATA = 1;
     final static byte TYPE_OBJ_DATA = 2;
+    final static byte TYPE_OBJ_CHUNK = 3;
 
     final static long MAX_BUCKET_SIZE = 100l * 1024 * 1024; // 100MB
     final static int MAX_NUM_OBJECTS_PER_BUCKET = 1000; //
@@ -33,6 +33,7 @@ public class RdbConfig {
     public static final String KEY_OPTIONS = "options";
     public static final String KEY_TABLESPACE_NAME_PATTERN = "tablespaceNamePattern";
     public static final String KEY_TF_CONFIG = "tableFormatConfig";
+    public static final String KEY_WRITE_BATCH = "writeBatch";
     public static final int DEFAULT_MAX_OPEN_FILES = 1000;
 
     static final Map<String, CompressionType> COMP_TYPES = new HashMap<>();
@@ -52,6 +53,7 @@ public class RdbConfig {
     private List<TablespaceConfig> tblConfigList = new ArrayList<>();
     final Env env;
     final ColumnFamilyOptions defaultColumnFamilyOptions;
+    final ColumnFamilyOptions secondaryIndexColumnFamilyOptions;
     final Options defaultOptions;
     final DBOptions defaultDBOptions;
 
@@ -101,6 +103,19 @@ public class RdbConfig {
         defaultColumnFamilyOptions.setBottommostCompressionType(defaultOptions.bottommostCompressionType());
         defaultColumnFamilyOptions.setTargetFileSizeMultiplier(defaultOptions.targetFileSizeMultiplier());
 
+        // the secondary index lookups are seeks on (tbsIndex, hash of the value), never gets of a whole key
+        BlockBasedTableConfig indexTableFormatConfig = new BlockBasedTableConfig();
+        indexTableFormatConfig.setBlockCacheSize(10l * 1024 * 1024);
+        indexTableFormatConfig.setFilter(new BloomFilter());
+        indexTableFormatConfig.setWholeKeyFiltering(false);
+
+        secondaryIndexColumnFamilyOptions = new ColumnFamilyOptions();
+        secondaryIndexColumnFamilyOptions.setTableFormatConfig(indexTableFormatConfig);
+        secondaryIndexColumnFamilyOptions.useFixedLengthPrefixExtractor(SecondaryIndexWriter.PREFIX_SIZE);
+        secondaryIndexColumnFamilyOptions.setMemtablePrefixBloomSizeRatio(0.1);
+        secondaryIndexColumnFamilyOptions.setBottommostCompressionType(defaultOptions.bottommostCompressionType());
+        secondaryIndexColumnFamilyOptions.setTargetFileSizeMultiplier(defaultOptions.targetFileSizeMultiplier());
+
         defaultDBOptions = new DBOptions();
         defaultDBOptions.setCreateIfMissing(true);
     }
@@ -114,6 +129,18 @@ public class RdbConfig {
         return defaultColumnFamilyOptions;
     }
 
+    /**
+     * options of the column family storing the secondary indices, used for all the tablespaces.
+     * <p>
+     * The prefix extractor covers the tbsIndex of the index and the hash of the indexed value, such that the bloom
+     * filters are used for the lookups of one value.
+     * 
+     * @return secondary index column family options
+     */
+    public ColumnFamilyOptions getSecondaryIndexColumnFamilyOptions() {
+        return secondaryIndexColumnFamilyOptions;
+    }
+
     /**
      * default options if no table specific config has been configured.
      * 
@@ -159,6 +186,7 @@ public class RdbConfig {
         DBOptions dboptions = new DBOptions();
 
         long targetFileSizeBase;
+        WriteBatchConfig writeBatchConfig;
 
         TablespaceConfig(YConfiguration tblspConfig) throws ConfigurationException {
             String s = tblspConfig.getString(KEY_TABLESPACE_NAME_PATTERN);
@@ -261,6 +289,10 @@ public class RdbConfig {
             }
             options.useFixedLengthPrefixExtractor(4);
             cfOptions.useFixedLengthPrefixExtractor(4);
+
+            if (tblspConfig.containsKey(KEY_WRITE_BATCH)) {
+                writeBatchConfig = new WriteBatchConfig(tblspConfig.getConfig(KEY_WRITE_BATCH));
+            }
         }
 
         public ColumnFamilyOptions getColumnFamilyOptions() {
@@ -274,6 +306,95 @@ public class RdbConfig {
         public DBOptions getDBOptions() {
             return dboptions;
         }
+
+        /**
+         * 
+         * @return the batching configuration for the table writers or null if the tables in this tablespace are
+         *         written one record at a time
+         */
+        public WriteBatchConfig getWriteBatchConfig() {
+            return writeBatchConfig;
+        }
+    }
+
+    /**
+     * Configures the batching of the table writes. If enabled, the {@link RdbTableWriter} accumulates the records (and
+     * the secondary index entries) into one RocksDB WriteBatch per partition and writes the batch to the database when
+     * it reaches {@link #maxRows} records, {@link #maxBytes} bytes or when the oldest record in the batch is older than
+     * {@link #maxLatency} milliseconds.
+     */
+    public static class WriteBatchConfig {
+        public static final int DEFAULT_MAX_ROWS = 1000;
+        public static final int DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+        public static final int DEFAULT_MAX_LATENCY = 100;
+
+        final int maxRows;
+        final long maxBytes;
+        final long maxLatency;
+        final boolean sync;
+        final boolean disableWAL;
+
+        public WriteBatchConfig(int maxRows, long maxBytes, long maxLatency, boolean sync, boolean disableWAL) {
+            if (maxRows < 1) {
+                throw new ConfigurationException("maxRows has to be at least 1");
+            }
+            if (maxLatency < 1) {
+                throw new ConfigurationException("maxLatency has to be at least 1 millisecond");
+            }
+            this.maxRows = maxRows;
+            this.maxBytes = maxBytes;
+            this.maxLatency = maxLatency;
+            this.sync = sync;
+            this.disableWAL = disableWAL;
+        }
+
+        WriteBatchConfig(YConfiguration config) throws ConfigurationException {
+            this(config.getInt("maxRows", DEFAULT_MAX_ROWS),
+                    1024L * config.getLong("maxBytes", DEFAULT_MAX_BYTES / 1024),
+                    config.getLong("maxLatency", DEFAULT_MAX_LATENCY),
+                    config.getBoolean("sync", false),
+                    config.getBoolean("disableWAL", false));
+        }
+
+        /**
+         * 
+         * @return the maximum number of records in one batch
+         */
+        public int getMaxRows() {
+            return maxRows;
+        }
+
+        /**
+         * 
+         * @return the maximum size in bytes of the keys and values in one batch
+         */
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        /**
+         * 
+         * @return the maximum time in milliseconds a record can stay in the batch before being written to the database
+         */
+        public long getMaxLatency() {
+            return maxLatency;
+        }
+
+        /**
+         * 
+         * @return true if the batch writes should be synchronised to disk (RocksDB WriteOptions.sync)
+         */
+        public boolean isSync() {
+            return sync;
+        }
+
+        /**
+         * 
+         * @return true if the batch writes should skip the RocksDB write ahead log
+         */
+        public boolean isDisableWAL() {
+            return disableWAL;
+        }
     }
 
     static CompressionType getCompressionType(String compr) {
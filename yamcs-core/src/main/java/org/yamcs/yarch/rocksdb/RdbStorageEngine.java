@@ -27,6 +27,7 @@ import org.yamcs.yarch.TableWriter.InsertMode;
 import org.yamcs.yarch.YarchDatabase;
 import org.yamcs.yarch.YarchDatabaseInstance;
 import org.yamcs.yarch.YarchException;
+import org.yamcs.yarch.streamsql.StreamSqlException;
 
 /**
  * Storage Engine based on RocksDB. Data is stored in multiple {@link Tablespace}.
@@ -322,6 +323,17 @@ public class RdbStorageEngine implements StorageEngine {
         }
     }
 
+    @Override
+    public void createSecondaryIndex(YarchDatabaseInstance ydb, TableDefinition tblDef, List<String> columns)
+            throws YarchException, StreamSqlException {
+        Tablespace tablespace = getTablespace(ydb, tblDef);
+        try {
+            tablespace.createSecondaryIndex(ydb.getYamcsInstance(), tblDef, columns);
+        } catch (RocksDBException e) {
+            throw new YarchException(e);
+        }
+    }
+
     @Override
     public TableWalker newSecondaryIndexTableWalker(YarchDatabaseInstance ydb, TableDefinition tableDefinition,
             boolean ascending, boolean follow) {
@@ -9,7 +9,6 @@ import org.yamcs.yarch.Table;
 import org.yamcs.yarch.TableDefinition;
 import org.yamcs.yarch.YarchException;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TablespaceRecord;
-import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TablespaceRecord.Type;
 
 /**
  * Holds together the RDB properties related to one table.
@@ -35,8 +34,7 @@ public class RdbTable extends Table {
 
         histoWriter = HistogramWriter.newWriter(this);
         if (tblDef.hasSecondaryIndex()) {
-            List<TablespaceRecord> trList = tablespace.filter(Type.SECONDARY_INDEX, yamcsInstance,
-                    tr -> tr.getTableName().equals(tblDef.getName()));
+            List<TablespaceRecord> trList = tablespace.getSecondaryIndexRecords(yamcsInstance, tblDef.getName());
             if(trList.size()!=1) {
                 throw new DatabaseCorruptionException("Expected to read 1 secondary index record, got "+trList.size());
             }
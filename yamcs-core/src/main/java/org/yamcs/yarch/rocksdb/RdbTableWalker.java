@@ -27,6 +27,7 @@ import org.yamcs.yarch.streamsql.StreamSqlException.ErrCode;
 
 public class RdbTableWalker extends AbstractTableWalker {
     private final Tablespace tablespace;
+    private final SecondaryIndexWriter indexWriter;
 
     static AtomicInteger count = new AtomicInteger(0);
 
@@ -39,6 +40,8 @@ public class RdbTableWalker extends AbstractTableWalker {
         super(ydb, tableDefinition, ascending, follow);
 
         this.tablespace = tablespace;
+        RdbTable table = tablespace.getTable(tableDefinition);
+        this.indexWriter = table == null ? null : table.getSecondaryIndexWriter();
     }
 
     /**
@@ -121,9 +124,9 @@ public class RdbTableWalker extends AbstractTableWalker {
             }
             boolean endReached;
             if (ascending) {
-                endReached = runAscending(rdb, iterator, writeBatch, tableRange.rangeEnd);
+                endReached = runAscending(rdb, iterator, writeBatch, tableRange.rangeEnd, p1.dir);
             } else {
-                endReached = runDescending(rdb, iterator, writeBatch, tableRange.rangeStart);
+                endReached = runDescending(rdb, iterator, writeBatch, tableRange.rangeStart, p1.dir);
             }
             if (writeBatch != null) {
                 WriteOptions wo = new WriteOptions();
@@ -160,7 +163,7 @@ public class RdbTableWalker extends AbstractTableWalker {
     }
 
     // return true if the end condition has been reached
-    boolean runAscending(YRDB rdb, DbIterator iterator, WriteBatch writeBatch, byte[] rangeEnd)
+    boolean runAscending(YRDB rdb, DbIterator iterator, WriteBatch writeBatch, byte[] rangeEnd, String partitionDir)
             throws RocksDBException, StreamSqlException {
 
         while (isRunning() && iterator.isValid()) {
@@ -172,12 +175,8 @@ public class RdbTableWalker extends AbstractTableWalker {
             if (iAscendingFinished(key, value, rangeEnd)) {
                 return true;
             }
-            TableVisitor.Action action = visitor.visit(key, iterator.value());
-            if (writeBatch == null) {
-                executeAction(rdb, action, dbKey);
-            } else {
-                executeAction(rdb, writeBatch, action, dbKey);
-            }
+            TableVisitor.Action action = visitor.visit(key, value);
+            executeAction(tablespace, indexWriter, rdb, writeBatch, action, dbKey, value, partitionDir);
             if (action.stop()) {
                 close();
                 return false;
@@ -188,23 +187,20 @@ public class RdbTableWalker extends AbstractTableWalker {
         return false;
     }
 
-    boolean runDescending(YRDB rdb, DbIterator iterator, WriteBatch writeBatch, byte[] rangeStart)
-            throws RocksDBException, StreamSqlException {
+    boolean runDescending(YRDB rdb, DbIterator iterator, WriteBatch writeBatch, byte[] rangeStart,
+            String partitionDir) throws RocksDBException, StreamSqlException {
         while (isRunning() && iterator.isValid()) {
             byte[] dbKey = iterator.key();
             byte[] key = Arrays.copyOfRange(dbKey, 4, dbKey.length);
+            byte[] value = iterator.value();
             numRecordsRead++;
 
-            if (isDescendingFinished(key, iterator.value(), rangeStart)) {
+            if (isDescendingFinished(key, value, rangeStart)) {
                 return true;
             }
 
-            TableVisitor.Action action = visitor.visit(key, iterator.value());
-            if (writeBatch == null) {
-                executeAction(rdb, action, dbKey);
-            } else {
-                executeAction(rdb, writeBatch, action, dbKey);
-            }
+            TableVisitor.Action action = visitor.visit(key, value);
+            executeAction(tablespace, indexWriter, rdb, writeBatch, action, dbKey, value, partitionDir);
 
             if (action.stop()) {
                 close();
@@ -215,6 +211,61 @@ public class RdbTableWalker extends AbstractTableWalker {
         return false;
     }
 
+    /**
+     * Executes the action on the row and updates the secondary index of the table (if any).
+     * <p>
+     * If the row is stored in the main tablespace database (where the index is also stored), the index is modified in
+     * the same write batch with the row. If the writeBatch is null, a batch is created and written immediately.
+     * <p>
+     * If the row is stored in a partition database, the row and the index cannot be written atomically. The writeBatch
+     * is not used; the new index entries are written before the row and the old ones are deleted after, such that an
+     * interruption leaves at most index entries not matching their row, which are skipped by the
+     * {@link SecondaryIndexTableWalker}, but never rows missing from the index.
+     *
+     * @param indexWriter
+     *            - writer of the secondary index or null if the table has no secondary index
+     * @param value
+     *            - the value of the row before executing the action
+     * @param partitionDir
+     *            - the directory of the partition containing the row, null if the row is in the main tablespace
+     *            database
+     */
+    static void executeAction(Tablespace tablespace, SecondaryIndexWriter indexWriter, YRDB rdb,
+            WriteBatch writeBatch, TableVisitor.Action action, byte[] dbKey, byte[] value, String partitionDir)
+            throws RocksDBException, StreamSqlException {
+        if (indexWriter == null || action.action() == TableVisitor.ActionType.NONE) {
+            if (writeBatch == null) {
+                executeAction(rdb, action, dbKey);
+            } else {
+                executeAction(rdb, writeBatch, action, dbKey);
+            }
+            return;
+        }
+        YRDB indexRdb = tablespace.getRdb();
+        if (rdb == indexRdb) {
+            try (WriteBatch wb = writeBatch == null ? new WriteBatch() : null;
+                    WriteOptions wo = new WriteOptions()) {
+                WriteBatch rowBatch = writeBatch == null ? wb : writeBatch;
+                executeAction(rdb, rowBatch, action, dbKey);
+                indexWriter.updateIndex(rowBatch, rowBatch, dbKey, value, action, partitionDir);
+                if (wb != null) {
+                    rdb.getDb().write(wo, wb);
+                }
+            }
+        } else {
+            try (WriteBatch rowBatch = new WriteBatch();
+                    WriteBatch indexPutBatch = new WriteBatch();
+                    WriteBatch indexDeleteBatch = new WriteBatch();
+                    WriteOptions wo = new WriteOptions()) {
+                executeAction(rdb, rowBatch, action, dbKey);
+                indexWriter.updateIndex(indexPutBatch, indexDeleteBatch, dbKey, value, action, partitionDir);
+                indexRdb.getDb().write(wo, indexPutBatch);
+                rdb.getDb().write(wo, rowBatch);
+                indexRdb.getDb().write(wo, indexDeleteBatch);
+            }
+        }
+    }
+
     static void executeAction(YRDB rdb, WriteBatch writeBatch, TableVisitor.Action action, byte[] dbKey)
             throws RocksDBException, StreamSqlException {
         if (action.action() == TableVisitor.ActionType.DELETE) {
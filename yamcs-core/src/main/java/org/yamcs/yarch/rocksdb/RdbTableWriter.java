@@ -5,9 +5,17 @@ import static org.yamcs.yarch.rocksdb.RdbStorageEngine.dbKey;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
-
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteBatchWithIndex;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +32,11 @@ import org.yamcs.yarch.Tuple;
 import org.yamcs.yarch.TupleDefinition;
 import org.yamcs.yarch.YarchDatabaseInstance;
 import org.yamcs.yarch.YarchException;
+import org.yamcs.yarch.rocksdb.RdbConfig.WriteBatchConfig;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Timer;
 
 import static org.yamcs.yarch.rocksdb.RdbStorageEngine.TBS_INDEX_SIZE;;
 
@@ -38,7 +51,13 @@ import static org.yamcs.yarch.rocksdb.RdbStorageEngine.TBS_INDEX_SIZE;;
  * 
  * <p>
  * The histograms are written by the {@link HistogramWriter}.
- *
+ * 
+ * <p>
+ * If a {@link WriteBatchConfig} is given and the insert mode is INSERT, UPSERT or LOAD, the records are not written
+ * one by one but accumulated together with their secondary index entries into one {@link WriteBatchWithIndex} per
+ * partition. The batch is written when it becomes full or when its oldest record reaches the configured latency; the
+ * histograms are updated after the batch has been written. The other insert modes perform a read-modify-write under the
+ * record lock and are always written one record at a time.
  * 
  * @author nm
  *
@@ -55,7 +74,26 @@ public class RdbTableWriter extends TableWriter {
     final SecondaryIndexWriter indexWriter;
     TableDefinition tableDefinition;
 
+    final WriteBatchConfig batchConfig;
+    final Map<RdbPartition, PartitionBatch> batches = new HashMap<>();
+    ScheduledFuture<?> flushFuture;
+    final Histogram batchSizeHistogram = new Histogram(new ExponentiallyDecayingReservoir());
+    final Timer flushTimer = new Timer();
+    static final int MAX_FLUSH_ATTEMPTS = 3;
+
     public RdbTableWriter(YarchDatabaseInstance ydb, RdbTable table, InsertMode mode) {
+        this(ydb, table, mode, null);
+    }
+
+    /**
+     * 
+     * @param ydb
+     * @param table
+     * @param mode
+     * @param batchConfig
+     *            if not null, the records are written in batches (only for the INSERT, UPSERT and LOAD modes)
+     */
+    public RdbTableWriter(YarchDatabaseInstance ydb, RdbTable table, InsertMode mode, WriteBatchConfig batchConfig) {
         super(ydb, table, mode);
         this.tableDefinition = table.getDefinition();
         this.partitioningSpec = tableDefinition.getPartitioningSpec();
@@ -69,6 +107,19 @@ public class RdbTableWriter extends TableWriter {
         }
         histoWriter = table.getHistogramWriter();
         indexWriter = table.getSecondaryIndexWriter();
+
+        if (batchConfig != null && (mode == InsertMode.INSERT || mode == InsertMode.UPSERT
+                || mode == InsertMode.LOAD)) {
+            this.batchConfig = batchConfig;
+            // the batch configuration applies also to the LOAD mode
+            wopt.setSync(batchConfig.isSync());
+            wopt.setDisableWAL(batchConfig.isDisableWAL());
+            long period = batchConfig.getMaxLatency();
+            flushFuture = tablespace.getExecutor().scheduleAtFixedRate(this::flushOldBatches, period, period,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.batchConfig = null;
+        }
     }
 
     @Override
@@ -87,6 +138,10 @@ public class RdbTableWriter extends TableWriter {
         if (closed) {
             return;
         }
+        if (batchConfig != null) {
+            addToBatch(t);
+            return;
+        }
         try {
             RdbPartition partition = getDbPartition(t);
             YRDB rdb = tablespace.getRdb(partition.dir, false);
@@ -116,6 +171,136 @@ public class RdbTableWriter extends TableWriter {
         }
     }
 
+    private synchronized void addToBatch(Tuple t) {
+        if (closed) {
+            return;
+        }
+        try {
+            RdbPartition partition = getDbPartition(t);
+            PartitionBatch pb = batches.get(partition);
+            if (pb == null) {
+                pb = new PartitionBatch(partition);
+                batches.put(partition, pb);
+            }
+            Row row = tableDefinition.generateRow(t);
+            byte[] k = dbKey(partition.tbsIndex, row.getKey());
+            boolean exists = false;
+            if (mode != InsertMode.LOAD) {
+                exists = pb.writeBatch.getFromBatchAndDB(pb.rdb.getDb(), pb.readOptions, k) != null;
+                if (exists && mode == InsertMode.INSERT) {
+                    return;
+                }
+            }
+            byte[] v = tableDefinition.serializeValue(t, row);
+            pb.add(k, v, row, !exists && mode != InsertMode.LOAD);
+
+            if (pb.count >= batchConfig.getMaxRows() || pb.size >= batchConfig.getMaxBytes()) {
+                batches.remove(partition);
+                flushWithRetry(pb);
+            }
+        } catch (IOException | RocksDBException | YarchException e) {
+            log.error("failed to insert a record: ", e);
+            YamcsServer.getServer().getCrashHandler(ydb.getYamcsInstance()).handleCrash("Archive",
+                    "failed to insert a record in " + table.getName() + ": " + e);
+        }
+    }
+
+    /**
+     * writes all the batches containing records older than the configured latency
+     * <p>
+     * called periodically from the tablespace executor
+     */
+    private synchronized void flushOldBatches() {
+        if (batches.isEmpty()) {
+            return;
+        }
+        long limit = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(batchConfig.getMaxLatency());
+        Iterator<PartitionBatch> it = batches.values().iterator();
+        while (it.hasNext()) {
+            PartitionBatch pb = it.next();
+            if (pb.firstAddTime - limit <= 0) {
+                it.remove();
+                flushWithRetry(pb);
+            }
+        }
+    }
+
+    private synchronized void flushAll() {
+        for (PartitionBatch pb : batches.values()) {
+            flushWithRetry(pb);
+        }
+        batches.clear();
+    }
+
+    /**
+     * writes the batch, retrying up to {@link #MAX_FLUSH_ATTEMPTS} times; if it still fails, the error is reported to
+     * the crash handler like the failures of the non-batched writes.
+     * <p>
+     * The batch is released in all cases; the failure of one batch does not prevent writing the others.
+     */
+    private void flushWithRetry(PartitionBatch pb) {
+        try (Timer.Context ctx = flushTimer.time()) {
+            for (int attempt = 1;; attempt++) {
+                try {
+                    // the puts are idempotent so the batch can be written again if a previous attempt failed half-way
+                    // the index is written first such that an interruption leaves at most index entries without
+                    // rows (skipped when reading through the index) but no rows missing from the index
+                    if (pb.indexBatch != null) {
+                        tablespace.getRdb().write(wopt, pb.indexBatch);
+                    }
+                    pb.rdb.write(wopt, pb.writeBatch);
+                    break;
+                } catch (RocksDBException e) {
+                    if (attempt >= MAX_FLUSH_ATTEMPTS) {
+                        log.error("failed to write a batch of {} records after {} attempts: ", pb.count, attempt, e);
+                        YamcsServer.getServer().getCrashHandler(ydb.getYamcsInstance()).handleCrash("Archive",
+                                "failed to write a batch of " + pb.count + " records in " + table.getName() + ": "
+                                        + e);
+                        return;
+                    }
+                    log.warn("failed to write a batch of records (attempt {}), retrying: {}", attempt, e.toString());
+                }
+            }
+            batchSizeHistogram.update(pb.count);
+            // the histogram update is not idempotent so it is not retried; the histograms can be rebuilt from the data
+            if (histoWriter != null && !pb.histoRows.isEmpty()) {
+                try {
+                    histoWriter.addHistograms(pb.histoRows);
+                } catch (IOException | RocksDBException | YarchException e) {
+                    log.error("failed to update the histograms of {}, they have to be rebuilt: ", table.getName(), e);
+                    YamcsServer.getServer().getCrashHandler(ydb.getYamcsInstance()).handleCrash("Archive",
+                            "failed to update the histograms of " + table.getName() + ": " + e);
+                }
+            }
+        } finally {
+            pb.release();
+        }
+    }
+
+    /**
+     * 
+     * @return the histogram of the number of records written in one batch (empty if batching is not enabled)
+     */
+    public Histogram getBatchSizeHistogram() {
+        return batchSizeHistogram;
+    }
+
+    /**
+     * 
+     * @return the timer measuring the time spent writing the batches to the database, including the histogram update
+     */
+    public Timer getFlushTimer() {
+        return flushTimer;
+    }
+
+    /**
+     * 
+     * @return true if the writer accumulates the records into batches
+     */
+    public boolean isBatching() {
+        return batchConfig != null;
+    }
+
     private boolean load(YRDB db, RdbPartition partition, Tuple t) throws RocksDBException, YarchException {
         Row row = tableDefinition.generateRow(t);
         byte[] k = dbKey(partition.tbsIndex, row.getKey());
@@ -274,7 +459,6 @@ public class RdbTableWriter extends TableWriter {
             rdb.put(key, value);
             try (WriteBatch writeBatch = new WriteBatch();
                     WriteOptions writeOpts = new WriteOptions()) {
-                writeBatch.put(key, value);
                 indexWriter.addTuple(writeBatch, row, partition);
                 tablespace.getRdb().write(writeOpts, writeBatch);
             }
@@ -306,11 +490,18 @@ public class RdbTableWriter extends TableWriter {
         return (RdbPartition) partitionManager.createAndGetPartition(time, value);
     }
 
-    protected void doClose() {
+    /**
+     * Synchronized with {@link #addToBatch(Tuple)} such that no batch can be created after the last flush.
+     */
+    protected synchronized void doClose() {
         if (closed) {
             return;
         }
         closed = true;
+        if (batchConfig != null) {
+            flushFuture.cancel(false);
+            flushAll();
+        }
     }
 
     @Override
@@ -318,4 +509,55 @@ public class RdbTableWriter extends TableWriter {
         log.debug("Stream {} closed", stream.getName());
         close();
     }
+
+    /**
+     * Records accumulated for one partition.
+     * <p>
+     * The partition database is kept open (not disposed) as long as the batch is not written.
+     */
+    class PartitionBatch {
+        final YRDB rdb;
+        final WriteBatchWithIndex writeBatch = new WriteBatchWithIndex(true);
+        final ReadOptions readOptions = new ReadOptions();
+        // the secondary index goes here if it is not in the same database with the data; it is written before the data
+        final WriteBatch indexBatch;
+        final List<Row> histoRows = new ArrayList<>();
+        final RdbPartition partition;
+        final long firstAddTime = System.nanoTime();
+        int count;
+        long size;
+
+        PartitionBatch(RdbPartition partition) {
+            this.partition = partition;
+            this.rdb = tablespace.getRdb(partition.dir, false);
+            if (indexWriter != null && rdb != tablespace.getRdb()) {
+                indexBatch = new WriteBatch();
+            } else {
+                indexBatch = null;
+            }
+        }
+
+        void add(byte[] key, byte[] value, Row row, boolean newRow) throws RocksDBException {
+            writeBatch.put(key, value);
+            if (indexWriter != null) {
+                indexWriter.addTuple(indexBatch == null ? writeBatch : indexBatch, row, partition);
+            }
+            if (newRow && histoWriter != null) {
+                histoRows.add(row);
+            }
+            count++;
+            size += key.length + value.length;
+        }
+
+        void release() {
+            if (writeBatch.isOwningHandle()) {
+                writeBatch.close();
+                readOptions.close();
+                if (indexBatch != null) {
+                    indexBatch.close();
+                }
+                tablespace.dispose(rdb);
+            }
+        }
+    }
 }
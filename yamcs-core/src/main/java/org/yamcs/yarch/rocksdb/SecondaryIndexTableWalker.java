@@ -1,7 +1,10 @@
 package org.yamcs.yarch.rocksdb;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import org.rocksdb.ReadOptions;
@@ -12,7 +15,6 @@ import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.yamcs.utils.ByteArrayUtils;
 import org.yamcs.utils.DatabaseCorruptionException;
-import org.yamcs.utils.IntArray;
 import org.yamcs.utils.StringConverter;
 import org.yamcs.yarch.DataType;
 import org.yamcs.yarch.DbRange;
@@ -22,52 +24,55 @@ import org.yamcs.yarch.TableVisitor;
 import org.yamcs.yarch.TableWalker;
 import org.yamcs.yarch.YarchException;
 import org.yamcs.yarch.streamsql.StreamSqlException;
-import org.yamcs.yarch.DataType._type;
 import static org.yamcs.yarch.rocksdb.RdbStorageEngine.*;
 
 /**
- * iterates through a table based on the secondary index range.
- * 
+ * iterates through a table based on the secondary index values.
+ *
  * <p>
  * The Rocksdb key of the secondary index is formed by
  * <ul>
  * <li>tbsIndex</li>
+ * <li>hash of the first column of the secondary key</li>
  * <li>secondary key</li>
  * <li>primary key</li>
  * </ul>
- * 
- * 
- * 
- * 
+ *
+ * The index can only be walked for single values of its first column (resulting from equality or IN conditions); the
+ * tbsIndex and the hash are the prefix of the bloom filters of the secondary index column family, such that each
+ * lookup only reads the files containing the value.
+ * <p>
+ * If the index is on one column, the entries for each value are sorted by primary key. In this case one iterator is
+ * created for each value, positioned directly at the primary key range, and the iterators are merged such that the
+ * rows are provided in the primary key order (ascending or descending), as for the walk through the table.
+ * <p>
+ * Otherwise the values are walked one after the other and the rows are provided in the order of the secondary key.
+ *
  * @author nm
  *
  */
 public class SecondaryIndexTableWalker implements TableWalker {
     private final RdbTable table;
     private final Tablespace tablespace;
+    private final boolean ascending;
 
-    DbRange skRange;
+    List<DbRange> skRanges;
     DbRange pkRange;
 
     /**
+     * For each column of the secondary index, the size of the serialized value or -1 if the value is a null terminated
+     * string
+     * <p>
      * When iterating through the table we do not need to decode (transform to column values) the primary or the
      * secondary key but we need to extract the primary key to be able to retrieve the row from the main table.
      * <p>
-     * The primary key is located in the RocksDB key after the secondary key, so we need to know the length of the
-     * secondary key to be able to extract the primary key.
-     * <p>
-     * The secondary key can contain strings and thus be of variable length. The array below contains the length of each
-     * fixed group of columns in between the string columns. For the string columns, the null termination has to be
-     * searched.
-     * <p>
-     * For example if the secondary index has no string column, this array contains only one element - the length of the
-     * secondary key.
+     * The primary key is located in the RocksDB key after the secondary key, so we need to know the length of each
+     * column of the secondary key to be able to extract the primary key.
      */
-    final int skeyLength[];
+    final int skColumnSize[];
 
     boolean batchUpdates = false;
 
-    Snapshot snapshot = null;
     protected TableVisitor visitor;
 
     volatile boolean running = true;
@@ -76,55 +81,42 @@ public class SecondaryIndexTableWalker implements TableWalker {
             boolean ascending, boolean follow) {
         this.tablespace = tablespace;
         this.table = table;
+        this.ascending = ascending;
 
-        IntArray a = new IntArray();
         TableDefinition tblDef = table.getDefinition();
-
         List<String> sindex = tblDef.getSecondaryIndex();
-        int offset = 0;
-        for (String s : sindex) {
-            TableColumnDefinition tcd = tblDef.getColumnDefinition(s);
-            int size = DataType.getSerializedSize(tcd.getType());
-            if (size > 0) {
-                offset += size + 1; // +1 is from the datatype byte, see SecondaryIndexWriter#addTuple
-            } else {
-                assert (tcd.getType().val == _type.STRING);
-                a.add(offset + 1);
-                offset = 0;
-            }
+        skColumnSize = new int[sindex.size()];
+        for (int i = 0; i < sindex.size(); i++) {
+            TableColumnDefinition tcd = tblDef.getColumnDefinition(sindex.get(i));
+            skColumnSize[i] = DataType.getSerializedSize(tcd.getType());
         }
-        a.add(offset);
-
-        this.skeyLength = a.toArray();
     }
 
     /**
-     * 
-     * Iterate data through the given interval taking into account also the tableRange.
-     * <p>
-     * tableRange has to be non-null but can be unbounded at one or both ends.
-     * <p
-     * Return true if the tableRange is bounded and the end has been reached.
-     * 
+     * Iterate the data through the secondary index ranges, taking into account also the primary key range.
+     *
      * @throws StreamSqlException
      */
+    @Override
     public void walk(TableVisitor visitor) throws YarchException, StreamSqlException {
+        if (!isPointRanges()) {
+            throw new IllegalArgumentException("The secondary index can only be walked for single values");
+        }
         this.visitor = visitor;
         int tbsIndex = table.getSecondaryIndexWriter().getTbsIndex();
-        DbRange dbRange = RdbTableWalker.getDbRange(tbsIndex, skRange);
         YRDB rdb = tablespace.getRdb();
+        Snapshot snapshot = rdb.getDb().getSnapshot();
 
         try (ReadOptions readOptions = new ReadOptions();
-                RocksIterator rocksIt = rdb.getDb().newIterator(readOptions);
-                AscendingRangeIterator it = new AscendingRangeIterator(rocksIt, dbRange);
                 WriteBatch writeBatch = batchUpdates ? new WriteBatch() : null;) {
-            while (isRunning() && it.isValid()) {
-                byte[] dbKey = it.key();
-                byte[] pk = getPk(dbKey);
-                if (pkInRange(pk)) {
-                    visitRow(writeBatch, pk, it.value());
-                }
-                it.next();
+            readOptions.setSnapshot(snapshot);
+            // all the entries of one value have the same tbsIndex and hash (the prefix of the column family)
+            readOptions.setPrefixSameAsStart(true);
+
+            if (skColumnSize.length == 1) {
+                walkMerged(rdb, readOptions, writeBatch, tbsIndex);
+            } else {
+                walkSequential(rdb, readOptions, writeBatch, tbsIndex);
             }
             if (writeBatch != null) {
                 WriteOptions wo = new WriteOptions();
@@ -133,10 +125,69 @@ public class SecondaryIndexTableWalker implements TableWalker {
             }
         } catch (RocksDBException e) {
             throw new YarchException(e);
+        } finally {
+            rdb.getDb().releaseSnapshot(snapshot);
+        }
+    }
+
+    private void walkMerged(YRDB rdb, ReadOptions readOptions, WriteBatch writeBatch, int tbsIndex)
+            throws StreamSqlException {
+        List<DbIterator> itList = new ArrayList<>(skRanges.size());
+        for (DbRange skRange : skRanges) {
+            DbRange dbRange = getDbRange(tbsIndex, skRange.rangeStart, pkRange);
+            RocksIterator rocksIt = rdb.getDb().newIterator(tablespace.getSecondaryIndexColumnFamily(), readOptions);
+            itList.add(ascending ? new AscendingRangeIterator(rocksIt, dbRange)
+                    : new DescendingRangeIterator(rocksIt, dbRange));
+        }
+        Comparator<byte[]> pkComparator = (k1, k2) -> compareSuffix(k1, pkOffset(k1), k2, pkOffset(k2));
+        try (DbIterator it = new MergingIterator(itList, ascending ? pkComparator : pkComparator.reversed())) {
+            walkIterator(it, writeBatch, false);
+        }
+    }
+
+    private void walkSequential(YRDB rdb, ReadOptions readOptions, WriteBatch writeBatch, int tbsIndex)
+            throws StreamSqlException {
+        List<DbRange> l = skRanges;
+        if (!ascending) {
+            l = new ArrayList<>(skRanges);
+            Collections.reverse(l);
+        }
+        for (DbRange skRange : l) {
+            if (!isRunning()) {
+                break;
+            }
+            DbRange dbRange = getDbRange(tbsIndex, skRange.rangeStart, null);
+            RocksIterator rocksIt = rdb.getDb().newIterator(tablespace.getSecondaryIndexColumnFamily(), readOptions);
+            try (DbIterator it = ascending ? new AscendingRangeIterator(rocksIt, dbRange)
+                    : new DescendingRangeIterator(rocksIt, dbRange)) {
+                walkIterator(it, writeBatch, true);
+            }
+        }
+    }
+
+    private void walkIterator(DbIterator it, WriteBatch writeBatch, boolean checkPk) throws StreamSqlException {
+        while (isRunning() && it.isValid()) {
+            byte[] dbKey = it.key();
+            byte[] pk = getPk(dbKey);
+            if (!checkPk || pkInRange(pk)) {
+                visitRow(writeBatch, dbKey, pk, it.value());
+            }
+            if (ascending) {
+                it.next();
+            } else {
+                it.prev();
+            }
         }
     }
 
-    private void visitRow(WriteBatch writeBatch, byte[] pk, byte[] skValue) throws StreamSqlException {
+    /**
+     * Visits the row referenced by the index entry.
+     * <p>
+     * The row is skipped if it does not exist or if it does not match the index entry; this happens if the writing of
+     * a row stored in a partition database has been interrupted or if the row has been overwritten by an upsert.
+     */
+    private void visitRow(WriteBatch writeBatch, byte[] indexKey, byte[] pk, byte[] skValue)
+            throws StreamSqlException {
         String part = null;
         int rowTbsIndex = tbsIndex(skValue);
         if (skValue.length > TBS_INDEX_SIZE) {
@@ -147,13 +198,10 @@ public class SecondaryIndexTableWalker implements TableWalker {
             rdb = tablespace.getRdb(part);
             byte[] dbKey = RdbStorageEngine.dbKey(rowTbsIndex, pk);
             byte[] rowValue = rdb.get(dbKey);
-            if (rowValue != null) {
+            if (rowValue != null && table.getSecondaryIndexWriter().matches(indexKey, pk, rowValue)) {
                 TableVisitor.Action action = visitor.visit(pk, rowValue);
-                if (writeBatch == null) {
-                    RdbTableWalker.executeAction(rdb, action, dbKey);
-                } else {
-                    RdbTableWalker.executeAction(rdb, writeBatch, action, dbKey);
-                }
+                RdbTableWalker.executeAction(tablespace, table.getSecondaryIndexWriter(), rdb,
+                        rdb == tablespace.getRdb() ? writeBatch : null, action, dbKey, rowValue, part);
                 if (action.stop()) {
                     close();
                 }
@@ -167,9 +215,62 @@ public class SecondaryIndexTableWalker implements TableWalker {
         }
     }
 
+    private boolean isPointRanges() {
+        for (DbRange r : skRanges) {
+            if (r.rangeStart == null || r.rangeEnd == null || !Arrays.equals(r.rangeStart, r.rangeEnd)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * the range of the index entries for the given secondary key value and primary key range
+     */
+    private static DbRange getDbRange(int tbsIndex, byte[] skValue, DbRange pkRange) {
+        byte[] prefix = SecondaryIndexWriter.keyPrefix(tbsIndex, skValue);
+        DbRange dbr = new DbRange();
+        dbr.rangeStart = prefix;
+        dbr.rangeEnd = prefix;
+        if (pkRange != null) {
+            if (pkRange.rangeStart != null) {
+                dbr.rangeStart = concat(prefix, pkRange.rangeStart);
+            }
+            if (pkRange.rangeEnd != null) {
+                dbr.rangeEnd = concat(prefix, pkRange.rangeEnd);
+            }
+        }
+        return dbr;
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] r = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, r, a.length, b.length);
+        return r;
+    }
+
+    private static int compareSuffix(byte[] b1, int offset1, byte[] b2, int offset2) {
+        int n = Math.min(b1.length - offset1, b2.length - offset2);
+        for (int i = 0; i < n; i++) {
+            int d = (b1[offset1 + i] & 0xFF) - (b2[offset2 + i] & 0xFF);
+            if (d != 0) {
+                return d;
+            }
+        }
+        return (b1.length - offset1) - (b2.length - offset2);
+    }
+
     private boolean pkInRange(byte[] pk) {
-        return (pkRange == null) || (ByteArrayUtils.compare(pkRange.rangeStart, pk) >= 0
-                && ByteArrayUtils.compare(pkRange.rangeEnd, pk) <= 0);
+        if (pkRange == null) {
+            return true;
+        }
+        if (pkRange.rangeStart != null && ByteArrayUtils.compare(pk, pkRange.rangeStart) < 0) {
+            return false;
+        }
+        if (pkRange.rangeEnd != null && ByteArrayUtils.compare(pk, pkRange.rangeEnd) > 0) {
+            return false;
+        }
+        return true;
     }
 
     private boolean isRunning() {
@@ -177,35 +278,51 @@ public class SecondaryIndexTableWalker implements TableWalker {
     }
 
     byte[] getPk(byte[] dbkey) {
-        int offset = RdbStorageEngine.TBS_INDEX_SIZE;
+        return Arrays.copyOfRange(dbkey, pkOffset(dbkey), dbkey.length);
+    }
 
+    /**
+     * returns the offset of the primary key inside the index key
+     * <p>
+     * The secondary key follows the tbsIndex and the hash. Each column of the secondary key is preceded by a byte
+     * containing the type id; if the value is not null, the byte has also the
+     * {@link SecondaryIndexWriter#NON_NULL_FLAG} set and the value follows.
+     */
+    int pkOffset(byte[] dbkey) {
+        int offset = SecondaryIndexWriter.PREFIX_SIZE;
         try {
-            int i;
-            for (i = 0; i < skeyLength.length - 1; i++) {
-                offset += skeyLength[i];
-                while (dbkey[offset] != 0) {// skip null terminated string
+            for (int size : skColumnSize) {
+                byte flag = dbkey[offset++];
+                if ((flag & SecondaryIndexWriter.NON_NULL_FLAG) != SecondaryIndexWriter.NON_NULL_FLAG) {
+                    continue;
+                }
+                if (size >= 0) {
+                    offset += size;
+                } else {
+                    while (dbkey[offset] != 0) {// skip null terminated string
+                        offset++;
+                    }
                     offset++;
                 }
-                offset++;
             }
-
-            offset += skeyLength[i];
-            return Arrays.copyOfRange(dbkey, offset, dbkey.length);
+            if (offset > dbkey.length) {
+                throw new ArrayIndexOutOfBoundsException(offset);
+            }
+            return offset;
         } catch (ArrayIndexOutOfBoundsException e) {
             throw new DatabaseCorruptionException(
                     "Cannot decode secondary index key " + StringConverter.arrayToHexString(dbkey));
         }
     }
 
-
     @Override
     public void setPrimaryIndexRange(DbRange pkRange) {
         this.pkRange = pkRange;
     }
 
     @Override
-    public void setSecondaryIndexRange(DbRange skRange) {
-        this.skRange = skRange;
+    public void setSecondaryIndexRanges(List<DbRange> skRanges) {
+        this.skRanges = skRanges;
     }
 
     @Override
@@ -213,10 +330,12 @@ public class SecondaryIndexTableWalker implements TableWalker {
         running = false;
     }
 
+    @Override
     public boolean isBatchUpdates() {
         return batchUpdates;
     }
 
+    @Override
     public void setBatchUpdates(boolean batchUpdates) {
         this.batchUpdates = batchUpdates;
     }
@@ -1,19 +1,26 @@
 package org.yamcs.yarch.rocksdb;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
-import java.io.IOException;
+import static org.yamcs.yarch.rocksdb.RdbStorageEngine.TBS_INDEX_SIZE;
+
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
 
+import org.rocksdb.AbstractWriteBatch;
+import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDBException;
-import org.rocksdb.WriteBatch;
 import org.yamcs.utils.ByteArray;
+import org.yamcs.utils.ByteArrayUtils;
 import org.yamcs.yarch.DataType;
 import org.yamcs.yarch.Partition;
 import org.yamcs.yarch.Row;
 import org.yamcs.yarch.TableColumnDefinition;
 import org.yamcs.yarch.TableDefinition;
+import org.yamcs.yarch.TableVisitor;
+import org.yamcs.yarch.Tuple;
 import org.yamcs.yarch.YarchException;
 
 /**
@@ -21,23 +28,47 @@ import org.yamcs.yarch.YarchException;
  * <p>
  * Each secondary index has its own tbsIndex.
  * <p>
- * The key is composed of a combination of secondary index columns and primary key.
+ * The entries are stored in the {@value Tablespace#CF_SECONDARY_INDEX} column family of the main tablespace database.
+ * The key is composed of
+ * <ul>
+ * <li>tbsIndex</li>
+ * <li>hash of the first column of the secondary key</li>
+ * <li>secondary key</li>
+ * <li>primary key</li>
+ * </ul>
+ * The column family uses the tbsIndex and the hash as prefix for its bloom filters, such that looking up the entries
+ * of a value skips the files not containing it. As a consequence, the entries are sorted by the secondary key only for
+ * the same value of the first column and the index cannot be used for range conditions on that column.
+ * <p>
  * The value is the tbsIndex followed by the partition directory (if any)
  * 
  * @author nm
  *
  */
 public class SecondaryIndexWriter {
+    /**
+     * flag or-ed with the type id in front of the non-null column values
+     */
+    static final byte NON_NULL_FLAG = 0x70;
+
+    static final int HASH_SIZE = 4;
+    /**
+     * the length of the prefix extractor of the secondary index column family: tbsIndex + hash
+     */
+    static final int PREFIX_SIZE = TBS_INDEX_SIZE + HASH_SIZE;
+
     final int tbsIndex;
     final TableDefinition tableDefinition;
     final Tablespace tablespace;
     private final List<String> columns;
+    private final Set<String> indexColumns;
 
     public SecondaryIndexWriter(Tablespace tablespace, TableDefinition tableDefinition, int tbsIndex) {
         this.tbsIndex = tbsIndex;
         this.tableDefinition = tableDefinition;
         this.tablespace = tablespace;
         this.columns = tableDefinition.getSecondaryIndex();
+        this.indexColumns = new HashSet<>(columns);
     }
 
     /**
@@ -55,40 +86,171 @@ public class SecondaryIndexWriter {
      * @param dbkey
      * @param partition
      */
-    void addTuple(WriteBatch writeBatch, Row row, Partition partition) {
+    void addTuple(AbstractWriteBatch writeBatch, Row row, Partition partition) {
         RdbPartition rpart = (RdbPartition) partition;
 
-        try (ByteArrayOutputStream baosValue = new ByteArrayOutputStream()) {
-            ByteArray baKey = new ByteArray();
-            DataOutputStream dosValue = new DataOutputStream(baosValue);
-
-            baKey.addInt(tbsIndex);
-            for (String colName : columns) {
-                TableColumnDefinition tableCd = row.getColumnDefinition(colName);
-                DataType dt = tableCd.getType();
-                Object value = row.get(colName);
-                if (value == null) {
-                    baKey.add(dt.getTypeId());
-                } else {
-                    baKey.add((byte)(0x70 | dt.getTypeId()));
-                    tableCd.serializeValue(baKey, value);
-                }
-            }
-            baKey.add(row.getKey());
-            byte[] dbkey = baKey.toArray();
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row.get(columns.get(i));
+        }
+        try {
+            writeBatch.put(cfh(), indexKey(values, row.getKey()), indexValue(rpart.tbsIndex, rpart.dir));
+        } catch (RocksDBException e) {
+            throw new YarchException(e);
+        }
+    }
 
-            dosValue.writeInt(rpart.tbsIndex);
-            if (rpart.dir != null) {
-                byte[] part = rpart.dir.getBytes(StandardCharsets.US_ASCII);
-                dosValue.write(part);
+    /**
+     * Updates the index following the deletion or update of a row by a table walker.
+     * <p>
+     * If the row is in the same database with the index, the two batches are the same batch as the row such that the
+     * index is committed together with the row. Otherwise the put batch has to be written before the row and the
+     * delete batch after.
+     * 
+     * @param putBatch
+     *            - batch where the new index entries are added
+     * @param deleteBatch
+     *            - batch where the deletions of the old index entries are added
+     * @param dbKey
+     *            - the database key of the row (including the tbsIndex)
+     * @param value
+     *            - the serialized value of the row before the update
+     * @param action
+     *            - action performed on the row
+     * @param partitionDir
+     *            - the directory of the partition the row belongs to, null if the row is stored in the main tablespace
+     *            database
+     */
+    void updateIndex(AbstractWriteBatch putBatch, AbstractWriteBatch deleteBatch, byte[] dbKey, byte[] value,
+            TableVisitor.Action action, String partitionDir) {
+        byte[] key = Arrays.copyOfRange(dbKey, TBS_INDEX_SIZE, dbKey.length);
+        byte[] oldIndexKey = indexKey(key, value);
+        byte[] newIndexKey;
+        switch (action.action()) {
+        case DELETE:
+            newIndexKey = null;
+            break;
+        case UPDATE_VAL:
+            newIndexKey = indexKey(key, action.getUpdatedValue());
+            break;
+        case UPDATE_ROW:
+            newIndexKey = indexKey(action.getUpdatedKey(), action.getUpdatedValue());
+            break;
+        default:
+            return;
+        }
+        if (Arrays.equals(oldIndexKey, newIndexKey)) {
+            return;
+        }
+        try {
+            deleteBatch.delete(cfh(), oldIndexKey);
+            if (newIndexKey != null) {
+                putBatch.put(cfh(), newIndexKey, indexValue(RdbStorageEngine.tbsIndex(dbKey), partitionDir));
             }
-            writeBatch.put(dbkey, baosValue.toByteArray());
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Cannot serialize key from tuple " + row + ": ", e);
         } catch (RocksDBException e) {
             throw new YarchException(e);
         }
+    }
+
+    /**
+     * Adds the index entry for an existing row; used when (re)building the index.
+     * 
+     * @param key
+     *            - the primary key of the row
+     * @param value
+     *            - the serialized value of the row
+     * @param rowTbsIndex
+     *            - the tbsIndex of the partition containing the row
+     * @param partitionDir
+     *            - the directory of the partition the row belongs to, null if the row is stored in the main tablespace
+     *            database
+     */
+    void addRow(AbstractWriteBatch writeBatch, byte[] key, byte[] value, int rowTbsIndex, String partitionDir)
+            throws RocksDBException {
+        writeBatch.put(cfh(), indexKey(key, value), indexValue(rowTbsIndex, partitionDir));
+    }
+
+    /**
+     * Checks that the index entry corresponds to the current content of the row.
+     * <p>
+     * The index entry may be outdated if the row is stored in a partition database (the row and the index are not
+     * written atomically) or if the row has been overwritten by an upsert.
+     * 
+     * @param indexKey
+     *            - the database key of the index entry
+     * @param key
+     *            - the primary key of the row
+     * @param value
+     *            - the serialized value of the row
+     * @return true if the index columns of the row have the values from the index entry
+     */
+    boolean matches(byte[] indexKey, byte[] key, byte[] value) {
+        return Arrays.equals(indexKey, indexKey(key, value));
+    }
+
+    private byte[] indexKey(byte[] key, byte[] value) {
+        Tuple t = tableDefinition.deserialize(key, value, indexColumns);
+        Object[] values = new Object[columns.size()];
+        for (int i = 0; i < values.length; i++) {
+            String colName = columns.get(i);
+            values[i] = t.hasColumn(colName) ? t.getColumn(colName) : null;
+        }
+        return indexKey(values, key);
+    }
 
+    private byte[] indexKey(Object[] values, byte[] key) {
+        ByteArray baKey = new ByteArray();
+        baKey.addInt(tbsIndex);
+        baKey.addInt(0);
+        for (int i = 0; i < values.length; i++) {
+            TableColumnDefinition tableCd = tableDefinition.getColumnDefinition(columns.get(i));
+            DataType dt = tableCd.getType();
+            Object value = values[i];
+            if (value == null) {
+                baKey.add(dt.getTypeId());
+            } else {
+                baKey.add((byte) (NON_NULL_FLAG | dt.getTypeId()));
+                tableCd.serializeValue(baKey, value);
+            }
+            if (i == 0) {
+                baKey.setInt(TBS_INDEX_SIZE, hash(baKey.array(), PREFIX_SIZE, baKey.size() - PREFIX_SIZE));
+            }
+        }
+        baKey.add(key);
+        return baKey.toArray();
+    }
+
+    /**
+     * Returns the beginning of the keys of the index entries having the given value of the first column.
+     * 
+     * @param sk
+     *            - the serialized first column: the type id (with the non-null flag) followed by the value
+     */
+    static byte[] keyPrefix(int tbsIndex, byte[] sk) {
+        byte[] k = new byte[PREFIX_SIZE + sk.length];
+        ByteArrayUtils.encodeInt(tbsIndex, k, 0);
+        ByteArrayUtils.encodeInt(hash(sk, 0, sk.length), k, TBS_INDEX_SIZE);
+        System.arraycopy(sk, 0, k, PREFIX_SIZE, sk.length);
+        return k;
+    }
+
+    private static int hash(byte[] b, int offset, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(b, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private ColumnFamilyHandle cfh() {
+        return tablespace.getSecondaryIndexColumnFamily();
+    }
+
+    private static byte[] indexValue(int rowTbsIndex, String partitionDir) {
+        ByteArray baValue = new ByteArray();
+        baValue.addInt(rowTbsIndex);
+        if (partitionDir != null) {
+            baValue.add(partitionDir.getBytes(StandardCharsets.US_ASCII));
+        }
+        return baValue.toArray();
     }
 
     public int getTbsIndex() {
@@ -3,12 +3,17 @@ package org.yamcs.yarch.rocksdb;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.rocksdb.RocksDBException;
 import org.rocksdb.Snapshot;
+import org.yamcs.utils.ByteArrayWrapper;
 import org.yamcs.yarch.ColumnSerializer;
 import org.yamcs.yarch.Row;
 
@@ -59,6 +64,47 @@ public class SingleColumnHistogramWriter extends HistogramWriter {
         }
     }
 
+    /**
+     * Adds the histograms for a batch of rows written by the {@link RdbTableWriter}.
+     * <p>
+     * The rows falling into the same histogram segment result in only one segment write.
+     */
+    @Override
+    public synchronized void addHistograms(List<Row> rows) throws IOException, RocksDBException {
+        String columnName = colHistoWriter.columnName;
+        ColumnSerializer cs = tableDefinition.getColumnSerializer(columnName);
+        Map<ByteArrayWrapper, DirtySegment> dirty = new LinkedHashMap<>();
+        // partitions for which a snapshot has been sent during this call; all the rows are part of it
+        Set<String> inSnapshot = null;
+
+        for (Row row : rows) {
+            Object colValue = row.get(columnName);
+            if (colValue == null) {
+                continue;
+            }
+            long time = (Long) row.get(0);
+            byte[] v = cs.toByteArray(colValue);
+            if (wrs.isEmpty()) {
+                colHistoWriter.mergeHistogram(time, v, dirty);
+                continue;
+            }
+            RdbHistogramInfo histo = table.createAndGetHistogram(time, columnName);
+            WhileRebuild wr = wrs.get(histo.partitionDir);
+            if (wr == null) {
+                colHistoWriter.mergeHistogram(time, v, dirty);
+            } else if (wr.cf != null) {
+                sendSnapshot(histo.partitionDir, wr);
+                if (inSnapshot == null) {
+                    inSnapshot = new HashSet<>();
+                }
+                inSnapshot.add(histo.partitionDir);
+            } else if (inSnapshot == null || !inSnapshot.contains(histo.partitionDir)) {
+                wr.queue.add(new HistoData(time, v));
+            }
+        }
+        colHistoWriter.writeSegments(dirty);
+    }
+
     /**
      * return a completable future which returns a snapshot after which the histogram data is being queued, such that
      * the snapshot+queued histogram data represents accurately the state of the table.
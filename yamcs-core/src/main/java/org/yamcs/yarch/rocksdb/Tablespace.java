@@ -7,6 +7,7 @@ import static org.yamcs.yarch.rocksdb.RdbStorageEngine.TBS_INDEX_SIZE;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -37,11 +38,14 @@ import org.yamcs.yarch.YarchDatabase;
 import org.yamcs.yarch.YarchDatabaseInstance;
 import org.yamcs.yarch.YarchException;
 import org.yamcs.yarch.TableWriter.InsertMode;
+import org.yamcs.yarch.rocksdb.RdbConfig.TablespaceConfig;
+import org.yamcs.yarch.rocksdb.RdbConfig.WriteBatchConfig;
 import org.yamcs.yarch.protobuf.Db;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.ProtoTableDefinition;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.SecondaryIndex;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TablespaceRecord;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TablespaceRecord.Type;
+import org.yamcs.yarch.streamsql.StreamSqlException;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.InvalidProtocolBufferException;
@@ -59,8 +63,9 @@ import static org.yamcs.yarch.rocksdb.RdbStorageEngine.dbKey;
  * Tablespaces can also have time based partitions in different RocksDB databases in sub-directories such as
  * &lt;tablespace-name&gt;.rdb/YYYY/
  * <p>
- * There are two column families in the main database: - the _metadata_ column family - contains metadata. - the default
- * column family - contains data.
+ * There are three column families in the main database: - the _metadata_ column family - contains metadata. - the
+ * _secondary_index_ column family - contains the secondary indices of the tables. - the default column family -
+ * contains data.
  * <p>
  * The data is partitioned by the first 4 bytes of the key which we call tbsIndex.
  * <p>
@@ -98,6 +103,11 @@ public class Tablespace {
 
     private String customDataDir;
     private static final String CF_METADATA = "_metadata_";
+    static final String CF_SECONDARY_INDEX = "_secondary_index_";
+    // format of the entries in the secondary index column family, stored in the SECONDARY_INDEX records
+    static final int SECONDARY_INDEX_FORMAT_VERSION = 1;
+    // number of index entries written in one batch when building a secondary index
+    static final int INDEX_BUILD_BATCH_SIZE = 10000;
     private static final byte PREV_METADATA_VERSION = 1;
     private static final byte METADATA_VERSION = 2;
 
@@ -110,6 +120,7 @@ public class Tablespace {
 
     YRDB db;
     ColumnFamilyHandle cfMetadata;
+    ColumnFamilyHandle cfSecondaryIndex;
     long maxTbsIndex;
 
     RDBFactory rdbFactory;
@@ -159,6 +170,11 @@ public class Tablespace {
                             "Wrong metadata version " + value[0] + " expected " + METADATA_VERSION);
                 }
                 maxTbsIndex = Integer.toUnsignedLong(decodeInt(value, 1));
+                cfSecondaryIndex = db.getColumnFamilyHandle(CF_SECONDARY_INDEX);
+                if (cfSecondaryIndex == null && !readonly) {
+                    // the existing secondary indices are rebuilt in the new column family when loading the tables
+                    cfSecondaryIndex = db.createColumnFamily(CF_SECONDARY_INDEX);
+                }
                 log.info("Opened tablespace database {}, num records:{}, num metadata records: {}, maxTbsIndex: {}",
                         dbDir, db.getApproxNumRecords(), db.getApproxNumRecords(cfMetadata), maxTbsIndex);
             } else {
@@ -168,6 +184,7 @@ public class Tablespace {
                 log.info("Creating database at {}", dbDir);
                 db = rdbFactory.getRdb(readonly);
                 cfMetadata = db.createColumnFamily(CF_METADATA);
+                cfSecondaryIndex = db.createColumnFamily(CF_SECONDARY_INDEX);
                 initMaxTbsIndex();
             }
         } catch (RocksDBException e) {
@@ -266,7 +283,16 @@ public class Tablespace {
         return tr;
     }
 
-    private TablespaceRecord updateRecord(String yamcsInstance, TablespaceRecord.Builder trb) throws RocksDBException {
+    /**
+     * Overwrites an existing metadata record
+     * 
+     * @param yamcsInstance
+     * @param trb
+     *            the builder has to have the type and the tbsIndex set
+     * @return the record written
+     * @throws RocksDBException
+     */
+    public TablespaceRecord updateRecord(String yamcsInstance, TablespaceRecord.Builder trb) throws RocksDBException {
         if (!trb.hasType()) {
             throw new IllegalArgumentException("The type is mandatory in the TablespaceRecord");
         }
@@ -485,7 +511,8 @@ public class Tablespace {
             for (SecondaryIndex sidx : rtd.getSecondaryIndexList()) {
                 TablespaceRecord.Builder trbsidx = TablespaceRecord.newBuilder();
                 trbsidx.setType(Type.SECONDARY_INDEX);
-                trbsidx.setSecondaryIndex(sidx);// only one secondary index supported for now
+                // only one secondary index supported for now
+                trbsidx.setSecondaryIndex(sidx.toBuilder().setFormatVersion(SECONDARY_INDEX_FORMAT_VERSION));
                 trbsidx.setTableName(tblDef.getName());
                 createMetadataRecord(yamcsInstance, trbsidx);
             }
@@ -593,10 +620,116 @@ public class Tablespace {
                 db.getDb().deleteRange(dbKey(tbsIndex), dbKey(tbsIndex + 1));
                 removeTbsIndex(Type.TABLE_PARTITION, tbsIndex);
             }
+            for (TablespaceRecord tr : getSecondaryIndexRecords(table.yamcsInstance, tblDef.getName())) {
+                removeSecondaryIndex(tr);
+            }
             removeTbsIndex(Type.TABLE_DEFINITION, table.tbsIndex);
         }
     }
 
+    /**
+     * Creates a secondary index on an existing table and builds it from the rows already in the table.
+     * <p>
+     * It is used to add an index to tables created by a version which did not declare it. The table writers created
+     * before calling this method do not update the index, so it should be called before starting to write the table.
+     * 
+     * @param columns
+     *            - the columns of the index
+     * @throws StreamSqlException
+     *             if the index columns are not valid
+     */
+    public void createSecondaryIndex(String yamcsInstance, TableDefinition tblDef, List<String> columns)
+            throws RocksDBException, StreamSqlException {
+        synchronized (tables) {
+            RdbTable table = verifyTable(tblDef);
+            if (tblDef.hasSecondaryIndex()) {
+                throw new IllegalStateException("Table '" + tblDef.getName() + "' has already a secondary index");
+            }
+            // left over by an interrupted creation
+            for (TablespaceRecord tr : getSecondaryIndexRecords(yamcsInstance, tblDef.getName())) {
+                removeSecondaryIndex(tr);
+            }
+            tblDef.setSecondaryIndex(columns);
+
+            TablespaceRecord.Builder trb = TablespaceRecord.newBuilder();
+            trb.setType(Type.SECONDARY_INDEX);
+            trb.setSecondaryIndex(SecondaryIndex.newBuilder().addAllColumnName(columns));
+            trb.setTableName(tblDef.getName());
+            TablespaceRecord tr = createMetadataRecord(yamcsInstance, trb);
+
+            table.indexWriter = new SecondaryIndexWriter(this, tblDef, tr.getTbsIndex());
+            buildSecondaryIndex(yamcsInstance, table, tr);
+            saveTableDefinition(yamcsInstance, tblDef, tblDef.getKeyDefinition(), tblDef.getValueDefinition());
+        }
+    }
+
+    /**
+     * Builds the secondary index of the table from the rows stored in all its partitions.
+     * <p>
+     * The existing entries are first removed, from the default column family as well (where the indices were stored
+     * before the introduction of the secondary index column family). When the index is complete, the record is updated
+     * with the current format version such that the index is not built again at the next start.
+     */
+    private void buildSecondaryIndex(String yamcsInstance, RdbTable table, TablespaceRecord tr)
+            throws RocksDBException {
+        int idxTbsIndex = tr.getTbsIndex();
+        String tblName = table.getName();
+        log.info("Building the secondary index {} of table {}", tr.getSecondaryIndex().getColumnNameList(), tblName);
+
+        db.getDb().deleteRange(dbKey(idxTbsIndex), dbKey(idxTbsIndex + 1));
+        db.getDb().deleteRange(cfSecondaryIndex, dbKey(idxTbsIndex), dbKey(idxTbsIndex + 1));
+
+        SecondaryIndexWriter indexWriter = table.getSecondaryIndexWriter();
+        long count = 0;
+        try (WriteBatch writeBatch = new WriteBatch(); WriteOptions wo = new WriteOptions()) {
+            for (Partition p : table.getPartitionManager().getPartitions()) {
+                RdbPartition rdbp = (RdbPartition) p;
+                YRDB rdb = getRdb(rdbp.dir, false);
+                try (DbIterator it = rdb.newPrefixIterator(dbKey(rdbp.tbsIndex))) {
+                    while (it.isValid()) {
+                        byte[] dbKey = it.key();
+                        byte[] key = Arrays.copyOfRange(dbKey, TBS_INDEX_SIZE, dbKey.length);
+                        indexWriter.addRow(writeBatch, key, it.value(), rdbp.tbsIndex, rdbp.dir);
+                        count++;
+                        if (writeBatch.count() >= INDEX_BUILD_BATCH_SIZE) {
+                            db.getDb().write(wo, writeBatch);
+                            writeBatch.clear();
+                        }
+                        it.next();
+                    }
+                } finally {
+                    dispose(rdb);
+                }
+            }
+            db.getDb().write(wo, writeBatch);
+        }
+
+        TablespaceRecord.Builder trb = tr.toBuilder();
+        trb.getSecondaryIndexBuilder().setFormatVersion(SECONDARY_INDEX_FORMAT_VERSION);
+        updateRecord(yamcsInstance, trb);
+        log.info("Secondary index of table {} built: {} entries", tblName, count);
+    }
+
+    /**
+     * Removes the secondary index record with all the index entries
+     */
+    private void removeSecondaryIndex(TablespaceRecord tr) throws RocksDBException {
+        int idxTbsIndex = tr.getTbsIndex();
+        db.getDb().deleteRange(cfSecondaryIndex, dbKey(idxTbsIndex), dbKey(idxTbsIndex + 1));
+        removeTbsIndex(Type.SECONDARY_INDEX, idxTbsIndex);
+    }
+
+    List<TablespaceRecord> getSecondaryIndexRecords(String yamcsInstance, String tableName) {
+        return filter(Type.SECONDARY_INDEX, yamcsInstance, tr -> tr.getTableName().equals(tableName));
+    }
+
+    /**
+     * @return the column family storing the entries of the secondary indices
+     */
+    public ColumnFamilyHandle getSecondaryIndexColumnFamily() {
+        return cfSecondaryIndex;
+    }
+
     /**
      * returns the table associated to this definition or null if this table is not known.
      * 
@@ -627,6 +760,12 @@ public class Tablespace {
             RdbTable table = new RdbTable(yamcsInstance, this, tblDef, tr.getTbsIndex());
             tables.put(tblDef, table);
             table.readPartitions();
+            if (tblDef.hasSecondaryIndex()) {
+                TablespaceRecord idxTr = getSecondaryIndexRecords(yamcsInstance, tblDef.getName()).get(0);
+                if (idxTr.getSecondaryIndex().getFormatVersion() != SECONDARY_INDEX_FORMAT_VERSION) {
+                    buildSecondaryIndex(yamcsInstance, table, idxTr);
+                }
+            }
 
             configureAutoincrementSequences(yamcsInstance, tblDef);
 
@@ -649,6 +788,18 @@ public class Tablespace {
     }
 
     public RdbTableWriter newTableWriter(YarchDatabaseInstance ydb, TableDefinition tblDef, InsertMode insertMode) {
+        TablespaceConfig tc = RdbConfig.getInstance().getTablespaceConfig(name);
+        return newTableWriter(ydb, tblDef, insertMode, tc == null ? null : tc.getWriteBatchConfig());
+    }
+
+    /**
+     * Creates a table writer which accumulates the records in batches according to the batchConfig.
+     * 
+     * @param batchConfig
+     *            - if null, the writer will write the records one by one
+     */
+    public RdbTableWriter newTableWriter(YarchDatabaseInstance ydb, TableDefinition tblDef, InsertMode insertMode,
+            WriteBatchConfig batchConfig) {
         synchronized (tables) {
             RdbTable table = tables.get(tblDef);
 
@@ -656,7 +807,7 @@ public class Tablespace {
                 throw new IllegalArgumentException("Unknown table '" + tblDef.getName() + "'");
             }
 
-            RdbTableWriter writer = new RdbTableWriter(ydb, table, insertMode);
+            RdbTableWriter writer = new RdbTableWriter(ydb, table, insertMode, batchConfig);
             synchronized (tableWriters) {
                 List<RdbTableWriter> l = tableWriters.computeIfAbsent(tblDef, t -> new ArrayList<>());
                 l.add(writer);
@@ -22,6 +22,7 @@ import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteBatchWithIndex;
 import org.rocksdb.WriteOptions;
 import org.yamcs.utils.ByteArrayWrapper;
 import org.yamcs.utils.StringConverter;
@@ -42,6 +43,7 @@ public class YRDB {
     private boolean isClosed = false;
     private final String path;
     private final ColumnFamilyOptions cfoptions;
+    private final ColumnFamilyOptions indexCfOptions;
     static final String ROCKS_PROP_NUM_KEYS = "rocksdb.estimate-num-keys";
     // keep track
     int refcount = 0;
@@ -82,6 +84,7 @@ public class YRDB {
         String tblSpaceName = f.getName().replace(".rdb", "");
         TablespaceConfig tc = rdbConfig.getTablespaceConfig(tblSpaceName);
         cfoptions = (tc == null) ? rdbConfig.getDefaultColumnFamilyOptions() : tc.getColumnFamilyOptions();
+        indexCfOptions = rdbConfig.getSecondaryIndexColumnFamilyOptions();
         Options opt = (tc == null) ? rdbConfig.getDefaultOptions() : tc.getOptions();
         dbOptions = (tc == null) ? rdbConfig.getDefaultDBOptions() : tc.getDBOptions();
         this.path = dir;
@@ -93,7 +96,7 @@ public class YRDB {
                 List<ColumnFamilyDescriptor> cfdList = new ArrayList<>(cfl.size());
 
                 for (byte[] b : cfl) {
-                    cfdList.add(new ColumnFamilyDescriptor(b, cfoptions));
+                    cfdList.add(new ColumnFamilyDescriptor(b, getColumnFamilyOptions(b)));
                 }
                 List<ColumnFamilyHandle> cfhList = new ArrayList<>(cfl.size());
                 db = RocksDB.open(dbOptions, dir, cfdList, cfhList);
@@ -166,7 +169,7 @@ public class YRDB {
     }
 
     public synchronized ColumnFamilyHandle createColumnFamily(byte[] cfname) throws RocksDBException {
-        ColumnFamilyDescriptor cfd = new ColumnFamilyDescriptor(cfname, cfoptions);
+        ColumnFamilyDescriptor cfd = new ColumnFamilyDescriptor(cfname, getColumnFamilyOptions(cfname));
         ColumnFamilyHandle cfh = db.createColumnFamily(cfd);
         columnFamilies.put(new ByteArrayWrapper(cfname), cfh);
         return cfh;
@@ -176,6 +179,13 @@ public class YRDB {
         return createColumnFamily(name.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * the secondary index column family has its own prefix extractor, all the others use the tablespace options
+     */
+    private ColumnFamilyOptions getColumnFamilyOptions(byte[] cfname) {
+        return Tablespace.CF_SECONDARY_INDEX.equals(cfNameToString(cfname)) ? indexCfOptions : cfoptions;
+    }
+
     public void put(ColumnFamilyHandle cfh, byte[] k, byte[] v) throws RocksDBException {
         db.put(cfh, k, v);
     }
@@ -371,4 +381,8 @@ public class YRDB {
     public void write(WriteOptions writeOpts, WriteBatch writeBatch) throws RocksDBException {
         db.write(writeOpts, writeBatch);
     }
+
+    public void write(WriteOptions writeOpts, WriteBatchWithIndex writeBatch) throws RocksDBException {
+        db.write(writeOpts, writeBatch);
+    }
 }
@@ -0,0 +1,46 @@
+package org.yamcs.yarch.streamsql;
+
+import java.util.function.Consumer;
+
+import org.yamcs.yarch.DataType;
+import org.yamcs.yarch.Tuple;
+import org.yamcs.yarch.TupleDefinition;
+import org.yamcs.yarch.YarchDatabaseInstance;
+
+/**
+ * Shows how a select from a table would be executed: which conditions of the where clause are pushed down to the
+ * table walker and which columns are deserialized.
+ * <p>
+ * The statement has the form {@code EXPLAIN SELECT ...}
+ */
+public class ExplainStatement extends SimpleStreamSqlStatement {
+    private static final TupleDefinition TDEF = new TupleDefinition();
+    static {
+        TDEF.addColumn("predicate", DataType.STRING);
+        TDEF.addColumn("pushdown", DataType.STRING);
+    }
+
+    private final SelectExpression expression;
+
+    public ExplainStatement(SelectTableStatement stmt) {
+        this.expression = stmt.getExpression();
+    }
+
+    @Override
+    public void execute(ExecutionContext c, Consumer<Tuple> consumer) throws StreamSqlException {
+        YarchDatabaseInstance ydb = c.getDb();
+        String tblName = expression.tupleSourceExpression.objectName;
+        if (ydb.getTable(tblName) == null) {
+            throw new GenericStreamSqlException(String.format("Object %s does not exist or is not a table", tblName));
+        }
+        expression.bind(c);
+        for (String[] p : expression.explain()) {
+            consumer.accept(new Tuple(TDEF, new Object[] { p[0], p[1] }));
+        }
+    }
+
+    @Override
+    protected TupleDefinition getResultDefinition() {
+        return TDEF;
+    }
+}
@@ -2,7 +2,9 @@ package org.yamcs.yarch.streamsql;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.yamcs.yarch.ColumnDefinition;
 import org.yamcs.yarch.CompiledAggregateExpression;
@@ -222,6 +224,55 @@ public class SelectExpression implements StreamExpression {
 
     }
 
+    /**
+     * Passes the where clause conditions and the required columns to the source
+     */
+    private void pushDown() throws StreamSqlException {
+        if (whereClause != null) {
+            whereClause.addFilter(tupleSourceExpression);
+        }
+        tupleSourceExpression.setProjection(getRequiredColumns());
+    }
+
+    /**
+     * Returns the conditions and columns pushed down to the source without executing the query.
+     * <p>
+     * Has to be called after {@link #bind(ExecutionContext)}
+     */
+    List<String[]> explain() throws StreamSqlException {
+        pushDown();
+        return tupleSourceExpression.explain();
+    }
+
+    /**
+     * Computes the columns of the input required by the where clause and by the select list.
+     * 
+     * @return the set of column names or null if all the columns are required (select *, aggregates or windows)
+     */
+    private Set<String> getRequiredColumns() {
+        if (selectStar || windowSpec != null || (aggList != null && !aggList.isEmpty())) {
+            return null;
+        }
+        Set<ColumnDefinition> inputs = new HashSet<>();
+        for (SelectItem item : selectList) {
+            if (item == SelectItem.STAR) {
+                return null;
+            }
+            item.expr.collectRequiredInputs(inputs);
+        }
+        if (whereClause != null) {
+            whereClause.collectRequiredInputs(inputs);
+        }
+        Set<String> columns = new HashSet<>();
+        for (ColumnDefinition cd : inputs) {
+            if (cd == null) {
+                return null;
+            }
+            columns.add(cd.getName());
+        }
+        return columns;
+    }
+
     @Override
     public TupleDefinition getOutputDefinition() {
         return outputDef;
@@ -229,9 +280,7 @@ public class SelectExpression implements StreamExpression {
 
     @Override
     public Stream execute(ExecutionContext c) throws StreamSqlException {
-        if (whereClause != null) {
-            whereClause.addFilter(tupleSourceExpression);
-        }
+        pushDown();
 
         Stream stream = tupleSourceExpression.execute(c);
         CompiledExpression cWhereClause = (whereClause == null) ? null : whereClause.compile();
@@ -21,6 +21,10 @@ public class SelectTableStatement implements StreamSqlStatement {
         this.expression = expression;
     }
 
+    SelectExpression getExpression() {
+        return expression;
+    }
+
     @Override
     public void execute(ExecutionContext context, ResultListener resultListener, long limit) throws StreamSqlException {
         if (resultListener == null) {
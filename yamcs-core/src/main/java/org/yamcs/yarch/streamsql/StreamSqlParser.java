@@ -99,9 +99,9 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       break;
     case K_PROTOBUF:
       jj_consume_token(K_PROTOBUF);
-      jj_consume_token(130);
-      className = jj_consume_token(S_STRING);
       jj_consume_token(131);
+      className = jj_consume_token(S_STRING);
+      jj_consume_token(132);
                                                      dataType =  DataType.protobuf(getNonEscapedString(className.image));
       break;
     case S_IDENTIFIER:
@@ -114,8 +114,8 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       throw new ParseException();
     }
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case 132:
-      jj_consume_token(132);
+    case 133:
+      jj_consume_token(133);
             dataType = DataType.array(dataType);
       break;
     default:
@@ -147,6 +147,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     case K_DELETE:
     case K_DESCRIBE:
     case K_DROP:
+    case K_EXPLAIN:
     case K_INSERT:
     case K_INSERT_APPEND:
     case K_LOAD:
@@ -194,6 +195,9 @@ public class StreamSqlParser implements StreamSqlParserConstants {
         case K_DESCRIBE:
           statement = DescribeStatement();
           break;
+        case K_EXPLAIN:
+          statement = ExplainStatement();
+          break;
         default:
           jj_la1[2] = jj_gen;
           if (jj_2_3(2)) {
@@ -264,11 +268,11 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       ;
     }
     tableName = ObjectName();
-    jj_consume_token(130);
+    jj_consume_token(131);
     label_1:
     while (true) {
       tcd = TableColumnDefinition();
-      jj_consume_token(133);
+      jj_consume_token(134);
                                             tupleDefinition.addColumn(tcd);
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
       case S_IDENTIFIER:
@@ -282,52 +286,52 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     }
     jj_consume_token(K_PRIMARY);
     jj_consume_token(K_KEY);
-    jj_consume_token(130);
+    jj_consume_token(131);
     pk = ObjectName();
                                               primaryKey.add(pk);
     label_2:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 133:
+      case 134:
         ;
         break;
       default:
         jj_la1[6] = jj_gen;
         break label_2;
       }
-      jj_consume_token(133);
+      jj_consume_token(134);
       pk = ObjectName();
                                                                                         primaryKey.add(pk);
     }
-    jj_consume_token(131);
+    jj_consume_token(132);
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case 133:
-      jj_consume_token(133);
+    case 134:
+      jj_consume_token(134);
       jj_consume_token(K_INDEX);
-      jj_consume_token(130);
+      jj_consume_token(131);
       indexColumn = ObjectName();
                                                  index.add(indexColumn);
       label_3:
       while (true) {
         switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case 133:
+        case 134:
           ;
           break;
         default:
           jj_la1[7] = jj_gen;
           break label_3;
         }
-        jj_consume_token(133);
+        jj_consume_token(134);
         indexColumn = ObjectName();
                                                                                                         index.add(indexColumn);
       }
-      jj_consume_token(131);
+      jj_consume_token(132);
       break;
     default:
       jj_la1[8] = jj_gen;
       ;
     }
-    jj_consume_token(131);
+    jj_consume_token(132);
       cts=new CreateTableStatement(ifNotExists, tableName, tupleDefinition, primaryKey, index);
     label_4:
     while (true) {
@@ -375,24 +379,24 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
     case K_HISTOGRAM:
       jj_consume_token(K_HISTOGRAM);
-      jj_consume_token(130);
+      jj_consume_token(131);
       columnName = ObjectName();
                                               cts.addHistogramColumn(columnName);
       label_5:
       while (true) {
         switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case 133:
+        case 134:
           ;
           break;
         default:
           jj_la1[11] = jj_gen;
           break label_5;
         }
-        jj_consume_token(133);
+        jj_consume_token(134);
         columnName = ObjectName();
                                                                                                                 cts.addHistogramColumn(columnName);
       }
-      jj_consume_token(131);
+      jj_consume_token(132);
       break;
     case K_ENGINE:
       jj_consume_token(K_ENGINE);
@@ -412,7 +416,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       break;
     case K_TABLE_FORMAT:
       jj_consume_token(K_TABLE_FORMAT);
-      jj_consume_token(134);
+      jj_consume_token(135);
       jj_consume_token(K_COMPRESSED);
                                       cts.setCompressed(true);
       break;
@@ -430,45 +434,45 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
     case K_TIME:
       jj_consume_token(K_TIME);
-      jj_consume_token(130);
+      jj_consume_token(131);
       cname1 = ObjectName();
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 130:
-        jj_consume_token(130);
-        timePartSchema = jj_consume_token(S_STRING);
+      case 131:
         jj_consume_token(131);
+        timePartSchema = jj_consume_token(S_STRING);
+        jj_consume_token(132);
         break;
       default:
         jj_la1[13] = jj_gen;
         ;
       }
-      jj_consume_token(131);
+      jj_consume_token(132);
                                                                                   pspec = PartitioningSpec.timeSpec(cname1);
       break;
     case K_VALUE:
       jj_consume_token(K_VALUE);
-      jj_consume_token(130);
-      cname1 = ObjectName();
       jj_consume_token(131);
+      cname1 = ObjectName();
+      jj_consume_token(132);
                                                pspec = PartitioningSpec.valueSpec(cname1);
       break;
     case K_TIME_AND_VALUE:
       jj_consume_token(K_TIME_AND_VALUE);
-      jj_consume_token(130);
+      jj_consume_token(131);
       cname1 = ObjectName();
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 130:
-        jj_consume_token(130);
-        timePartSchema = jj_consume_token(S_STRING);
+      case 131:
         jj_consume_token(131);
+        timePartSchema = jj_consume_token(S_STRING);
+        jj_consume_token(132);
         break;
       default:
         jj_la1[14] = jj_gen;
         ;
       }
-      jj_consume_token(133);
+      jj_consume_token(134);
       cname2 = ObjectName();
-      jj_consume_token(131);
+      jj_consume_token(132);
                                                                                                                          pspec = PartitioningSpec.timeAndValueSpec(cname1, cname2);
       break;
     default:
@@ -513,7 +517,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       expression = SpeedLimitStreamExpression();
             {if (true) return new CreateStreamStatement(name,expression);}
       break;
-    case 130:
+    case 131:
       tupleDefinition = TupleDefinition();
             {if (true) return new CreateStreamStatement(name,tupleDefinition);}
       break;
@@ -644,6 +648,14 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     throw new Error("Missing return statement in function");
   }
 
+  final public ExplainStatement ExplainStatement() throws ParseException, StreamSqlException {
+    SelectTableStatement statement;
+    jj_consume_token(K_EXPLAIN);
+    statement = SelectTableStatement();
+        {if (true) return new ExplainStatement(statement);}
+    throw new Error("Missing return statement in function");
+  }
+
   final public AlterSequenceStatement AlterSequenceStatement() throws ParseException, StreamSqlException {
     String name;
     BigDecimal n = new BigDecimal(0);
@@ -695,38 +707,38 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       label_6:
       while (true) {
         switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case 133:
+        case 134:
           ;
           break;
         default:
           jj_la1[22] = jj_gen;
           break label_6;
         }
-        jj_consume_token(133);
+        jj_consume_token(134);
         ColumnValue();
       }
       break;
-    case 130:
-      jj_consume_token(130);
+    case 131:
+      jj_consume_token(131);
       ObjectName();
       label_7:
       while (true) {
         switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case 133:
+        case 134:
           ;
           break;
         default:
           jj_la1[23] = jj_gen;
           break label_7;
         }
-        jj_consume_token(133);
+        jj_consume_token(134);
         ObjectName();
       }
+      jj_consume_token(132);
+      jj_consume_token(135);
       jj_consume_token(131);
-      jj_consume_token(134);
-      jj_consume_token(130);
       SelectExpression();
-      jj_consume_token(131);
+      jj_consume_token(132);
       break;
     default:
       jj_la1[24] = jj_gen;
@@ -737,7 +749,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
 
   final public void ColumnValue() throws ParseException, StreamSqlException {
     ObjectName();
-    jj_consume_token(134);
+    jj_consume_token(135);
     Expression();
   }
 
@@ -807,14 +819,14 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     label_8:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 133:
+      case 134:
         ;
         break;
       default:
         jj_la1[25] = jj_gen;
         break label_8;
       }
-      jj_consume_token(133);
+      jj_consume_token(134);
       tsrc = TupleSourceExpression();
                                       mergeExpr.addTupleSourceExpression(tsrc);
     }
@@ -874,22 +886,22 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     tableName = ObjectName();
     jj_consume_token(K_SET);
     colName = ObjectName();
-    jj_consume_token(134);
+    jj_consume_token(135);
     colValue = SimpleExpression();
           updateList.add(new UpdateTableStatement.UpdateItem(colName, colValue));
     label_9:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 133:
+      case 134:
         ;
         break;
       default:
         jj_la1[29] = jj_gen;
         break label_9;
       }
-      jj_consume_token(133);
-      colName = ObjectName();
       jj_consume_token(134);
+      colName = ObjectName();
+      jj_consume_token(135);
       colValue = SimpleExpression();
           updateList.add(new UpdateTableStatement.UpdateItem(colName, colValue));
     }
@@ -933,8 +945,8 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       jj_consume_token(K_ORIGINAL);
       columnName = ObjectName();
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 133:
-        jj_consume_token(133);
+      case 134:
+        jj_consume_token(134);
         bd = NumericConstant();
                                                                   x=bd.floatValue();
         break;
@@ -1034,17 +1046,17 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     case K_IS:
     case K_LIKE:
     case K_NOT:
-    case 134:
-    case 140:
-    case 148:
+    case 135:
+    case 141:
     case 149:
     case 150:
+    case 151:
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 134:
-      case 140:
-      case 148:
+      case 135:
+      case 141:
       case 149:
       case 150:
+      case 151:
         relOp = RelOp();
         expr = SimpleExpression();
                                                retExpr=new RelationalExpression(retExpr,expr,relOp);
@@ -1088,14 +1100,14 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     label_11:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 133:
+      case 134:
         ;
         break;
       default:
         jj_la1[40] = jj_gen;
         break label_11;
       }
-      jj_consume_token(133);
+      jj_consume_token(134);
       expr = Expression();
                                                                list.add(expr);
     }
@@ -1116,9 +1128,9 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       ;
     }
     jj_consume_token(K_IN);
-    jj_consume_token(130);
-    list = ExpressionList();
     jj_consume_token(131);
+    list = ExpressionList();
+    jj_consume_token(132);
                                        inClause.setList(list);
     {if (true) return inClause;}
     throw new Error("Missing return statement in function");
@@ -1219,9 +1231,9 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     label_13:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 136:
       case 137:
-      case 145:
+      case 138:
+      case 146:
         ;
         break;
       default:
@@ -1251,8 +1263,8 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
       case K_MOD:
-      case 146:
       case 147:
+      case 148:
         ;
         break;
       default:
@@ -1276,8 +1288,8 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     expr = UnaryExpression();
                             retExpr=expr;
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case 135:
-      jj_consume_token(135);
+    case 136:
+      jj_consume_token(136);
       expr = UnaryExpression();
                                    retExpr=new ExponentExpression(retExpr,expr);
       break;
@@ -1293,14 +1305,14 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     Expression expr;
     boolean negative=false;
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case 136:
     case 137:
+    case 138:
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 136:
-        jj_consume_token(136);
-        break;
       case 137:
         jj_consume_token(137);
+        break;
+      case 138:
+        jj_consume_token(138);
                 negative=true;
         break;
       default:
@@ -1359,17 +1371,17 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     default:
       jj_la1[51] = jj_gen;
       if (jj_2_14(3)) {
-        jj_consume_token(130);
-        expr = SimpleExpression();
         jj_consume_token(131);
+        expr = SimpleExpression();
+        jj_consume_token(132);
                                                     {if (true) return expr;}
       } else {
         switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
         case K_ARRAY:
           jj_consume_token(K_ARRAY);
-          jj_consume_token(138);
-          exprList = ExpressionList();
           jj_consume_token(139);
+          exprList = ExpressionList();
+          jj_consume_token(140);
                                                  {if (true) return new ArrayExpression(exprList);}
           break;
         default:
@@ -1417,24 +1429,24 @@ public class StreamSqlParser implements StreamSqlParserConstants {
 
   final public BitwiseOp BitwiseOp() throws ParseException, StreamSqlException {
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case 140:
-      jj_consume_token(140);
-         {if (true) return BitwiseOp.AND;}
-      break;
     case 141:
       jj_consume_token(141);
-         {if (true) return BitwiseOp.OR;}
+         {if (true) return BitwiseOp.AND;}
       break;
     case 142:
       jj_consume_token(142);
-         {if (true) return BitwiseOp.XOR;}
+         {if (true) return BitwiseOp.OR;}
       break;
     case 143:
       jj_consume_token(143);
-          {if (true) return BitwiseOp.LSHIFT;}
+         {if (true) return BitwiseOp.XOR;}
       break;
     case 144:
       jj_consume_token(144);
+          {if (true) return BitwiseOp.LSHIFT;}
+      break;
+    case 145:
+      jj_consume_token(145);
           {if (true) return BitwiseOp.RSHIFT;}
       break;
     default:
@@ -1447,16 +1459,16 @@ public class StreamSqlParser implements StreamSqlParserConstants {
 
   final public AddOp AddOp() throws ParseException, StreamSqlException {
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case 136:
-      jj_consume_token(136);
-         {if (true) return AddOp.PLUS;}
-      break;
     case 137:
       jj_consume_token(137);
+         {if (true) return AddOp.PLUS;}
+      break;
+    case 138:
+      jj_consume_token(138);
          {if (true) return AddOp.MINUS;}
       break;
-    case 145:
-      jj_consume_token(145);
+    case 146:
+      jj_consume_token(146);
           {if (true) return AddOp.STRING_PLUS;}
       break;
     default:
@@ -1469,12 +1481,12 @@ public class StreamSqlParser implements StreamSqlParserConstants {
 
   final public MultOp MultOp() throws ParseException, StreamSqlException {
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case 146:
-      jj_consume_token(146);
-         {if (true) return MultOp.MULT;}
-      break;
     case 147:
       jj_consume_token(147);
+         {if (true) return MultOp.MULT;}
+      break;
+    case 148:
+      jj_consume_token(148);
          {if (true) return MultOp.DIV;}
       break;
     case K_MOD:
@@ -1491,45 +1503,45 @@ public class StreamSqlParser implements StreamSqlParserConstants {
 
   final public RelOp RelOp() throws ParseException, StreamSqlException {
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case 134:
-      jj_consume_token(134);
+    case 135:
+      jj_consume_token(135);
          {if (true) return RelOp.EQUAL;}
       break;
-    case 148:
-      jj_consume_token(148);
-      jj_consume_token(134);
+    case 149:
+      jj_consume_token(149);
+      jj_consume_token(135);
              {if (true) return RelOp.NOT_EQUAL;}
       break;
     default:
       jj_la1[58] = jj_gen;
       if (jj_2_16(2)) {
-        jj_consume_token(149);
-        jj_consume_token(134);
+        jj_consume_token(150);
+        jj_consume_token(135);
                           {if (true) return RelOp.GREATER_OR_EQUAL;}
       } else {
         switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case 149:
-          jj_consume_token(149);
+        case 150:
+          jj_consume_token(150);
          {if (true) return RelOp.GREATER;}
           break;
         default:
           jj_la1[59] = jj_gen;
           if (jj_2_17(2)) {
+            jj_consume_token(151);
             jj_consume_token(150);
-            jj_consume_token(149);
                           {if (true) return RelOp.NOT_EQUAL;}
           } else if (jj_2_18(2)) {
-            jj_consume_token(150);
-            jj_consume_token(134);
+            jj_consume_token(151);
+            jj_consume_token(135);
                           {if (true) return RelOp.LESS_OR_EQUAL;}
           } else if (jj_2_19(2)) {
-            jj_consume_token(140);
-            jj_consume_token(140);
+            jj_consume_token(141);
+            jj_consume_token(141);
                           {if (true) return RelOp.OVERLAP;}
           } else {
             switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-            case 150:
-              jj_consume_token(150);
+            case 151:
+              jj_consume_token(151);
          {if (true) return RelOp.LESS;}
               break;
             default:
@@ -1549,14 +1561,14 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     label_15:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 133:
+      case 134:
         ;
         break;
       default:
         jj_la1[61] = jj_gen;
         break label_15;
       }
-      jj_consume_token(133);
+      jj_consume_token(134);
       Argument();
     }
   }
@@ -1564,7 +1576,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
   final public void Argument() throws ParseException, StreamSqlException {
     if (jj_2_20(2)) {
       jj_consume_token(S_IDENTIFIER);
-      jj_consume_token(151);
+      jj_consume_token(152);
     } else {
       ;
     }
@@ -1594,7 +1606,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       jj_consume_token(K_LIMIT);
       if (jj_2_21(2)) {
         offset = NumericConstant();
-        jj_consume_token(133);
+        jj_consume_token(134);
       } else {
         ;
       }
@@ -1622,11 +1634,11 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     tsrc = TupleSourceExpression();
                                            selectExpr.setFirstSource(tsrc);
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case 138:
-      jj_consume_token(138);
+    case 139:
+      jj_consume_token(139);
       windowSpec = WindowSpecification();
                                             selectExpr.setWindow(windowSpec);
-      jj_consume_token(139);
+      jj_consume_token(140);
       break;
     default:
       jj_la1[64] = jj_gen;
@@ -1655,14 +1667,14 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     label_16:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 133:
+      case 134:
         ;
         break;
       default:
         jj_la1[66] = jj_gen;
         break label_16;
       }
-      jj_consume_token(133);
+      jj_consume_token(134);
       selectItem = SelectItem();
                                     selectList.add(selectItem);
     }
@@ -1675,8 +1687,8 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     Expression expr;
     SelectItem selectItem;
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-    case 146:
-      jj_consume_token(146);
+    case 147:
+      jj_consume_token(147);
             {if (true) return SelectItem.STAR;}
       break;
     case K_ARRAY:
@@ -1686,9 +1698,9 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     case S_IDENTIFIER:
     case S_DOUBLE_QUOTED_IDENTIFIER:
     case S_QMARK:
-    case 130:
-    case 136:
+    case 131:
     case 137:
+    case 138:
       expr = SimpleExpression();
                                 selectItem=new SelectItem(expr);
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
@@ -1777,12 +1789,12 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
       case K_HISTOGRAM:
         jj_consume_token(K_HISTOGRAM);
-        jj_consume_token(130);
+        jj_consume_token(131);
         histoColumn = ObjectName();
                                                          tsrc.setHistogramColumn(histoColumn);
         switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-        case 133:
-          jj_consume_token(133);
+        case 134:
+          jj_consume_token(134);
           mergeTime = NumericConstant();
                                                  tsrc.setHistogramMergeTime(mergeTime);
           break;
@@ -1790,7 +1802,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
           jj_la1[72] = jj_gen;
           ;
         }
-        jj_consume_token(131);
+        jj_consume_token(132);
         break;
       default:
         jj_la1[73] = jj_gen;
@@ -1800,9 +1812,9 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     default:
       jj_la1[74] = jj_gen;
       if (jj_2_22(3)) {
-        jj_consume_token(130);
-        expr = StreamExpression();
         jj_consume_token(131);
+        expr = StreamExpression();
+        jj_consume_token(132);
                                                        tsrc=new TupleSourceExpression(expr);
       } else {
         jj_consume_token(-1);
@@ -1817,26 +1829,26 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     String columnName;
     TupleDefinition tupleDefinition=new TupleDefinition();
     DataType columnType;
-    jj_consume_token(130);
+    jj_consume_token(131);
     columnName = ObjectName();
     columnType = DataTypeDefinition();
                                                                  tupleDefinition.addColumn(columnName,columnType);
     label_17:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
-      case 133:
+      case 134:
         ;
         break;
       default:
         jj_la1[75] = jj_gen;
         break label_17;
       }
-      jj_consume_token(133);
+      jj_consume_token(134);
       columnName = ObjectName();
       columnType = DataTypeDefinition();
                                                                   tupleDefinition.addColumn(columnName,columnType);
     }
-    jj_consume_token(131);
+    jj_consume_token(132);
         {if (true) return tupleDefinition;}
     throw new Error("Missing return statement in function");
   }
@@ -1874,7 +1886,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
    List<Expression> args=null;
    boolean star=false;
     name = ObjectName();
-    jj_consume_token(130);
+    jj_consume_token(131);
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
     case K_ARRAY:
     case K_NOT:
@@ -1884,10 +1896,10 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     case S_IDENTIFIER:
     case S_DOUBLE_QUOTED_IDENTIFIER:
     case S_QMARK:
-    case 130:
-    case 136:
+    case 131:
     case 137:
-    case 146:
+    case 138:
+    case 147:
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
       case K_ARRAY:
       case K_NOT:
@@ -1897,13 +1909,13 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       case S_IDENTIFIER:
       case S_DOUBLE_QUOTED_IDENTIFIER:
       case S_QMARK:
-      case 130:
-      case 136:
+      case 131:
       case 137:
+      case 138:
         args = ExpressionList();
         break;
-      case 146:
-        jj_consume_token(146);
+      case 147:
+        jj_consume_token(147);
                    star=true;
         break;
       default:
@@ -1916,7 +1928,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       jj_la1[79] = jj_gen;
       ;
     }
-    jj_consume_token(131);
+    jj_consume_token(132);
       {if (true) return FunctionExpressionFactory.get(name, args, star);}
     throw new Error("Missing return statement in function");
   }
@@ -2101,93 +2113,6 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     finally { jj_save(21, xla); }
   }
 
-  private boolean jj_3R_56() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_63()) {
-    jj_scanpos = xsp;
-    if (jj_3R_64()) {
-    jj_scanpos = xsp;
-    if (jj_3R_65()) return true;
-    }
-    }
-    return false;
-  }
-
-  private boolean jj_3R_63() {
-    if (jj_scan_token(136)) return true;
-    return false;
-  }
-
-  private boolean jj_3_10() {
-    if (jj_3R_27()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_44() {
-    if (jj_scan_token(144)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_43() {
-    if (jj_scan_token(143)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_42() {
-    if (jj_scan_token(142)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_49() {
-    if (jj_3R_53()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_41() {
-    if (jj_scan_token(141)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_48() {
-    if (jj_3R_52()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_30() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_40()) {
-    jj_scanpos = xsp;
-    if (jj_3R_41()) {
-    jj_scanpos = xsp;
-    if (jj_3R_42()) {
-    jj_scanpos = xsp;
-    if (jj_3R_43()) {
-    jj_scanpos = xsp;
-    if (jj_3R_44()) return true;
-    }
-    }
-    }
-    }
-    return false;
-  }
-
-  private boolean jj_3R_40() {
-    if (jj_scan_token(140)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_35() {
-    Token xsp;
-    xsp = jj_scanpos;
-    if (jj_3R_48()) {
-    jj_scanpos = xsp;
-    if (jj_3R_49()) return true;
-    }
-    return false;
-  }
-
   private boolean jj_3R_47() {
     if (jj_scan_token(S_DOUBLE_QUOTED_IDENTIFIER)) return true;
     return false;
@@ -2210,7 +2135,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
 
   private boolean jj_3_15() {
     if (jj_3R_33()) return true;
-    if (jj_scan_token(130)) return true;
+    if (jj_scan_token(131)) return true;
     return false;
   }
 
@@ -2223,22 +2148,16 @@ public class StreamSqlParser implements StreamSqlParserConstants {
   private boolean jj_3R_34() {
     Token xsp;
     xsp = jj_scanpos;
-    if (jj_scan_token(114)) {
+    if (jj_scan_token(115)) {
     jj_scanpos = xsp;
-    if (jj_scan_token(117)) return true;
+    if (jj_scan_token(118)) return true;
     }
     return false;
   }
 
-  private boolean jj_3R_18() {
-    if (jj_scan_token(K_CREATE)) return true;
-    if (jj_scan_token(K_TABLE)) return true;
-    return false;
-  }
-
   private boolean jj_3R_80() {
     if (jj_3R_33()) return true;
-    if (jj_scan_token(130)) return true;
+    if (jj_scan_token(131)) return true;
     return false;
   }
 
@@ -2254,14 +2173,14 @@ public class StreamSqlParser implements StreamSqlParserConstants {
 
   private boolean jj_3R_73() {
     if (jj_scan_token(K_ARRAY)) return true;
-    if (jj_scan_token(138)) return true;
+    if (jj_scan_token(139)) return true;
     return false;
   }
 
   private boolean jj_3_14() {
-    if (jj_scan_token(130)) return true;
-    if (jj_3R_32()) return true;
     if (jj_scan_token(131)) return true;
+    if (jj_3R_32()) return true;
+    if (jj_scan_token(132)) return true;
     return false;
   }
 
@@ -2280,9 +2199,9 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     return false;
   }
 
-  private boolean jj_3R_25() {
-    if (jj_scan_token(K_SHOW)) return true;
-    if (jj_scan_token(K_SEQUENCES)) return true;
+  private boolean jj_3R_18() {
+    if (jj_scan_token(K_CREATE)) return true;
+    if (jj_scan_token(K_TABLE)) return true;
     return false;
   }
 
@@ -2291,12 +2210,6 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     return false;
   }
 
-  private boolean jj_3R_24() {
-    if (jj_scan_token(K_SHOW)) return true;
-    if (jj_scan_token(K_DATABASES)) return true;
-    return false;
-  }
-
   private boolean jj_3R_60() {
     Token xsp;
     xsp = jj_scanpos;
@@ -2325,64 +2238,50 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     return false;
   }
 
-  private boolean jj_3R_23() {
+  private boolean jj_3R_25() {
     if (jj_scan_token(K_SHOW)) return true;
-    if (jj_scan_token(K_ENGINES)) return true;
+    if (jj_scan_token(K_SEQUENCES)) return true;
     return false;
   }
 
-  private boolean jj_3_9() {
-    if (jj_3R_26()) return true;
+  private boolean jj_3R_24() {
+    if (jj_scan_token(K_SHOW)) return true;
+    if (jj_scan_token(K_DATABASES)) return true;
     return false;
   }
 
   private boolean jj_3R_68() {
-    if (jj_scan_token(137)) return true;
-    return false;
-  }
-
-  private boolean jj_3_8() {
-    if (jj_3R_25()) return true;
-    return false;
-  }
-
-  private boolean jj_3_7() {
-    if (jj_3R_24()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_21() {
-    if (jj_scan_token(K_SHOW)) return true;
-    if (jj_scan_token(K_STREAM)) return true;
+    if (jj_scan_token(138)) return true;
     return false;
   }
 
   private boolean jj_3_22() {
-    if (jj_scan_token(130)) return true;
+    if (jj_scan_token(131)) return true;
     if (jj_3R_35()) return true;
     return false;
   }
 
-  private boolean jj_3_6() {
-    if (jj_3R_23()) return true;
-    return false;
-  }
-
-  private boolean jj_3_5() {
-    if (jj_3R_22()) return true;
+  private boolean jj_3R_23() {
+    if (jj_scan_token(K_SHOW)) return true;
+    if (jj_scan_token(K_ENGINES)) return true;
     return false;
   }
 
   private boolean jj_3R_59() {
     Token xsp;
     xsp = jj_scanpos;
-    if (jj_scan_token(136)) {
+    if (jj_scan_token(137)) {
     jj_scanpos = xsp;
     if (jj_3R_68()) return true;
     }
     return false;
   }
 
+  private boolean jj_3_9() {
+    if (jj_3R_26()) return true;
+    return false;
+  }
+
   private boolean jj_3R_54() {
     Token xsp;
     xsp = jj_scanpos;
@@ -2391,18 +2290,13 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     return false;
   }
 
-  private boolean jj_3_4() {
-    if (jj_3R_21()) return true;
-    return false;
-  }
-
   private boolean jj_3R_67() {
     if (jj_3R_33()) return true;
     return false;
   }
 
-  private boolean jj_3_3() {
-    if (jj_3R_20()) return true;
+  private boolean jj_3_8() {
+    if (jj_3R_25()) return true;
     return false;
   }
 
@@ -2416,14 +2310,34 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     return false;
   }
 
-  private boolean jj_3R_22() {
+  private boolean jj_3_7() {
+    if (jj_3R_24()) return true;
+    return false;
+  }
+
+  private boolean jj_3R_21() {
     if (jj_scan_token(K_SHOW)) return true;
-    if (jj_scan_token(K_TABLES)) return true;
+    if (jj_scan_token(K_STREAM)) return true;
+    return false;
+  }
+
+  private boolean jj_3_6() {
+    if (jj_3R_23()) return true;
+    return false;
+  }
+
+  private boolean jj_3_5() {
+    if (jj_3R_22()) return true;
     return false;
   }
 
   private boolean jj_3R_61() {
-    if (jj_scan_token(135)) return true;
+    if (jj_scan_token(136)) return true;
+    return false;
+  }
+
+  private boolean jj_3_4() {
+    if (jj_3R_21()) return true;
     return false;
   }
 
@@ -2435,6 +2349,17 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     return false;
   }
 
+  private boolean jj_3_3() {
+    if (jj_3R_20()) return true;
+    return false;
+  }
+
+  private boolean jj_3R_22() {
+    if (jj_scan_token(K_SHOW)) return true;
+    if (jj_scan_token(K_TABLES)) return true;
+    return false;
+  }
+
   private boolean jj_3R_20() {
     if (jj_scan_token(K_SHOW)) return true;
     if (jj_scan_token(K_STREAMS)) return true;
@@ -2456,23 +2381,13 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     return false;
   }
 
-  private boolean jj_3_2() {
-    if (jj_3R_19()) return true;
-    return false;
-  }
-
-  private boolean jj_3_1() {
-    if (jj_3R_18()) return true;
-    return false;
-  }
-
   private boolean jj_3R_82() {
     if (jj_3R_32()) return true;
     return false;
   }
 
   private boolean jj_3R_81() {
-    if (jj_scan_token(146)) return true;
+    if (jj_scan_token(147)) return true;
     return false;
   }
 
@@ -2486,6 +2401,16 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     return false;
   }
 
+  private boolean jj_3_2() {
+    if (jj_3R_19()) return true;
+    return false;
+  }
+
+  private boolean jj_3_1() {
+    if (jj_3R_18()) return true;
+    return false;
+  }
+
   private boolean jj_3R_51() {
     if (jj_3R_56()) return true;
     return false;
@@ -2536,13 +2461,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
 
   private boolean jj_3_21() {
     if (jj_3R_34()) return true;
-    if (jj_scan_token(133)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_19() {
-    if (jj_scan_token(K_CREATE)) return true;
-    if (jj_scan_token(K_STREAM)) return true;
+    if (jj_scan_token(134)) return true;
     return false;
   }
 
@@ -2561,6 +2480,12 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     return false;
   }
 
+  private boolean jj_3R_19() {
+    if (jj_scan_token(K_CREATE)) return true;
+    if (jj_scan_token(K_STREAM)) return true;
+    return false;
+  }
+
   private boolean jj_3R_37() {
     if (jj_scan_token(K_NOT)) return true;
     return false;
@@ -2581,14 +2506,14 @@ public class StreamSqlParser implements StreamSqlParserConstants {
 
   private boolean jj_3_20() {
     if (jj_scan_token(S_IDENTIFIER)) return true;
-    if (jj_scan_token(151)) return true;
+    if (jj_scan_token(152)) return true;
     return false;
   }
 
   private boolean jj_3R_28() {
     Token xsp;
     xsp = jj_scanpos;
-    if (jj_scan_token(61)) jj_scanpos = xsp;
+    if (jj_scan_token(62)) jj_scanpos = xsp;
     if (jj_scan_token(K_BETWEEN)) return true;
     if (jj_3R_32()) return true;
     return false;
@@ -2604,31 +2529,31 @@ public class StreamSqlParser implements StreamSqlParserConstants {
     xsp = jj_scanpos;
     if (jj_3R_36()) jj_scanpos = xsp;
     if (jj_scan_token(K_IN)) return true;
-    if (jj_scan_token(130)) return true;
+    if (jj_scan_token(131)) return true;
     return false;
   }
 
   private boolean jj_3_19() {
-    if (jj_scan_token(140)) return true;
-    if (jj_scan_token(140)) return true;
+    if (jj_scan_token(141)) return true;
+    if (jj_scan_token(141)) return true;
     return false;
   }
 
   private boolean jj_3_18() {
-    if (jj_scan_token(150)) return true;
-    if (jj_scan_token(134)) return true;
+    if (jj_scan_token(151)) return true;
+    if (jj_scan_token(135)) return true;
     return false;
   }
 
   private boolean jj_3_17() {
+    if (jj_scan_token(151)) return true;
     if (jj_scan_token(150)) return true;
-    if (jj_scan_token(149)) return true;
     return false;
   }
 
   private boolean jj_3_16() {
-    if (jj_scan_token(149)) return true;
-    if (jj_scan_token(134)) return true;
+    if (jj_scan_token(150)) return true;
+    if (jj_scan_token(135)) return true;
     return false;
   }
 
@@ -2638,12 +2563,12 @@ public class StreamSqlParser implements StreamSqlParserConstants {
   }
 
   private boolean jj_3R_77() {
-    if (jj_scan_token(147)) return true;
+    if (jj_scan_token(148)) return true;
     return false;
   }
 
   private boolean jj_3R_76() {
-    if (jj_scan_token(146)) return true;
+    if (jj_scan_token(147)) return true;
     return false;
   }
 
@@ -2666,7 +2591,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
   }
 
   private boolean jj_3R_65() {
-    if (jj_scan_token(145)) return true;
+    if (jj_scan_token(146)) return true;
     return false;
   }
 
@@ -2676,10 +2601,97 @@ public class StreamSqlParser implements StreamSqlParserConstants {
   }
 
   private boolean jj_3R_64() {
+    if (jj_scan_token(138)) return true;
+    return false;
+  }
+
+  private boolean jj_3R_56() {
+    Token xsp;
+    xsp = jj_scanpos;
+    if (jj_3R_63()) {
+    jj_scanpos = xsp;
+    if (jj_3R_64()) {
+    jj_scanpos = xsp;
+    if (jj_3R_65()) return true;
+    }
+    }
+    return false;
+  }
+
+  private boolean jj_3R_63() {
     if (jj_scan_token(137)) return true;
     return false;
   }
 
+  private boolean jj_3_10() {
+    if (jj_3R_27()) return true;
+    return false;
+  }
+
+  private boolean jj_3R_44() {
+    if (jj_scan_token(145)) return true;
+    return false;
+  }
+
+  private boolean jj_3R_43() {
+    if (jj_scan_token(144)) return true;
+    return false;
+  }
+
+  private boolean jj_3R_42() {
+    if (jj_scan_token(143)) return true;
+    return false;
+  }
+
+  private boolean jj_3R_49() {
+    if (jj_3R_53()) return true;
+    return false;
+  }
+
+  private boolean jj_3R_41() {
+    if (jj_scan_token(142)) return true;
+    return false;
+  }
+
+  private boolean jj_3R_48() {
+    if (jj_3R_52()) return true;
+    return false;
+  }
+
+  private boolean jj_3R_30() {
+    Token xsp;
+    xsp = jj_scanpos;
+    if (jj_3R_40()) {
+    jj_scanpos = xsp;
+    if (jj_3R_41()) {
+    jj_scanpos = xsp;
+    if (jj_3R_42()) {
+    jj_scanpos = xsp;
+    if (jj_3R_43()) {
+    jj_scanpos = xsp;
+    if (jj_3R_44()) return true;
+    }
+    }
+    }
+    }
+    return false;
+  }
+
+  private boolean jj_3R_40() {
+    if (jj_scan_token(141)) return true;
+    return false;
+  }
+
+  private boolean jj_3R_35() {
+    Token xsp;
+    xsp = jj_scanpos;
+    if (jj_3R_48()) {
+    jj_scanpos = xsp;
+    if (jj_3R_49()) return true;
+    }
+    return false;
+  }
+
   /** Generated Token Manager. */
   public StreamSqlParserTokenManager token_source;
   SimpleCharStream jj_input_stream;
@@ -2708,16 +2720,16 @@ public class StreamSqlParser implements StreamSqlParserConstants {
       jj_la1_0 = new int[] {0x50000,0x0,0x50100000,0x50900101,0x0,0x0,0x0,0x0,0x0,0x0,0x4000,0x0,0x0,0x0,0x0,0x0,0x1000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x40,0x0,0x200,0x0,0x0,0x0,0x8000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x800,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x1000,0x1000,0x800,0x0,0x0,0x0,0x0,0x0,0x0,0x20002000,0x20002000,0x800,0x800,0x0,};
    }
    private static void jj_la1_init_1() {
-      jj_la1_1 = new int[] {0x4080011,0x0,0x2060002,0x2060002,0x1000,0x0,0x0,0x0,0x0,0x804,0x0,0x0,0x804,0x0,0x0,0x0,0x0,0x0,0x40000000,0x1000,0x0,0x8000000,0x0,0x0,0x0,0x0,0x0,0x0,0x1000000,0x0,0x0,0x1000000,0x0,0x80,0x0,0x0,0x20000000,0x0,0x200000,0x20a02000,0x0,0x20000000,0x20000000,0x20000000,0x0,0x20000000,0x0,0x10000000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x10000000,0x0,0x0,0x0,0x0,0x0,0x1000000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x800,0x0,0x0,0x0,0x0,0x20000000,0x20000000,0x0,};
+      jj_la1_1 = new int[] {0x8100011,0x0,0x40c0082,0x40c0082,0x2000,0x0,0x0,0x0,0x0,0x1004,0x0,0x0,0x1004,0x0,0x0,0x0,0x0,0x0,0x80000000,0x2000,0x0,0x10000000,0x0,0x0,0x0,0x0,0x0,0x0,0x2000000,0x0,0x0,0x2000000,0x0,0x100,0x0,0x0,0x40000000,0x0,0x400000,0x41404000,0x0,0x40000000,0x40000000,0x40000000,0x0,0x40000000,0x0,0x20000000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x20000000,0x0,0x0,0x0,0x0,0x0,0x2000000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x1000,0x0,0x0,0x0,0x0,0x40000000,0x40000000,0x0,};
    }
    private static void jj_la1_init_2() {
-      jj_la1_2 = new int[] {0x2000800,0x0,0x100000,0x1100000,0x0,0x0,0x0,0x0,0x0,0x100,0x0,0x0,0x100,0x0,0x0,0x0,0x0,0x10000000,0x0,0x0,0x0,0x100000,0x0,0x0,0x0,0x0,0x10,0x0,0x0,0x0,0x0,0x0,0x0,0x20000020,0x8,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x10,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x2,0x800000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,};
+      jj_la1_2 = new int[] {0x4001000,0x0,0x200000,0x2200000,0x0,0x0,0x0,0x0,0x0,0x200,0x0,0x0,0x200,0x0,0x0,0x0,0x0,0x20000000,0x0,0x0,0x0,0x200000,0x0,0x0,0x0,0x0,0x20,0x0,0x0,0x0,0x0,0x0,0x0,0x40000040,0x10,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x20,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x4,0x1000000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,};
    }
    private static void jj_la1_init_3() {
-      jj_la1_3 = new int[] {0x20000001,0x0,0xe00,0xe00,0x0,0x20000000,0x0,0x0,0x0,0x14,0x0,0x0,0x14,0x0,0x0,0x4060,0x0,0x0,0x0,0x0,0x20000,0x0,0x0,0x0,0x20000000,0x0,0x0,0x10000,0x0,0x0,0x10000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x4000000,0x0,0x0,0x0,0x0,0x0,0x0,0x4240000,0x0,0x20000000,0x20000000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x10000,0x0,0x0,0x20000000,0x24240000,0xa0,0x20000000,0x0,0x0,0x20000000,0x0,0x0,0x0,0x24240000,0x24240000,0x240000,};
+      jj_la1_3 = new int[] {0x40000002,0x0,0x1c00,0x1c00,0x0,0x40000000,0x0,0x0,0x0,0x28,0x0,0x0,0x28,0x0,0x0,0x80c0,0x0,0x0,0x0,0x0,0x40000,0x0,0x0,0x0,0x40000000,0x0,0x0,0x20000,0x0,0x0,0x20000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x8000000,0x0,0x0,0x0,0x0,0x0,0x0,0x8480000,0x0,0x40000000,0x40000000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x20000,0x0,0x0,0x40000000,0x48480000,0x140,0x40000000,0x0,0x0,0x40000000,0x0,0x0,0x0,0x48480000,0x48480000,0x480000,};
    }
    private static void jj_la1_init_4() {
-      jj_la1_4 = new int[] {0x0,0x10,0x0,0x0,0x0,0x1,0x20,0x20,0x20,0x0,0x0,0x20,0x0,0x4,0x4,0x0,0x4,0x0,0x0,0x0,0x0,0x0,0x20,0x20,0x5,0x20,0x0,0x0,0x0,0x20,0x0,0x0,0x20,0x0,0x0,0x0,0x0,0x701040,0x0,0x701040,0x20,0x0,0x0,0x0,0x2,0x0,0x20300,0xc0000,0x80,0x300,0x300,0x2,0x0,0x1,0x1,0x1f000,0x20300,0xc0000,0x100040,0x200000,0x400000,0x20,0x0,0x0,0x400,0x0,0x20,0x0,0x1,0x40307,0x0,0x1,0x20,0x0,0x1,0x20,0x0,0x0,0x40307,0x40307,0x0,};
+      jj_la1_4 = new int[] {0x0,0x20,0x0,0x0,0x0,0x2,0x40,0x40,0x40,0x0,0x0,0x40,0x0,0x8,0x8,0x0,0x8,0x0,0x0,0x0,0x0,0x0,0x40,0x40,0xa,0x40,0x0,0x0,0x0,0x40,0x0,0x0,0x40,0x0,0x0,0x0,0x0,0xe02080,0x0,0xe02080,0x40,0x0,0x0,0x0,0x4,0x0,0x40600,0x180000,0x100,0x600,0x600,0x4,0x0,0x2,0x2,0x3e000,0x40600,0x180000,0x200080,0x400000,0x800000,0x40,0x0,0x0,0x800,0x0,0x40,0x0,0x2,0x8060e,0x0,0x2,0x40,0x0,0x2,0x40,0x0,0x0,0x8060e,0x8060e,0x0,};
    }
   final private JJCalls[] jj_2_rtns = new JJCalls[22];
   private boolean jj_rescan = false;
@@ -2906,7 +2918,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
   /** Generate ParseException. */
   public ParseException generateParseException() {
     jj_expentries.clear();
-    boolean[] la1tokens = new boolean[152];
+    boolean[] la1tokens = new boolean[153];
     if (jj_kind >= 0) {
       la1tokens[jj_kind] = true;
       jj_kind = -1;
@@ -2932,7 +2944,7 @@ public class StreamSqlParser implements StreamSqlParserConstants {
         }
       }
     }
-    for (int i = 0; i < 152; i++) {
+    for (int i = 0; i < 153; i++) {
       if (la1tokens[i]) {
         jj_expentry = new int[1];
         jj_expentry[0] = i;
@@ -79,187 +79,189 @@ public interface StreamSqlParserConstants {
   /** RegularExpression Id. */
   int K_EXISTS = 38;
   /** RegularExpression Id. */
-  int K_FIXED_DELAY = 39;
+  int K_EXPLAIN = 39;
   /** RegularExpression Id. */
-  int K_FLOAT = 40;
+  int K_FIXED_DELAY = 40;
   /** RegularExpression Id. */
-  int K_FROM = 41;
+  int K_FLOAT = 41;
   /** RegularExpression Id. */
-  int K_HAVING = 42;
+  int K_FROM = 42;
   /** RegularExpression Id. */
-  int K_HISTOGRAM = 43;
+  int K_HAVING = 43;
   /** RegularExpression Id. */
-  int K_IF = 44;
+  int K_HISTOGRAM = 44;
   /** RegularExpression Id. */
-  int K_IN = 45;
+  int K_IF = 45;
   /** RegularExpression Id. */
-  int K_IN_KEY = 46;
+  int K_IN = 46;
   /** RegularExpression Id. */
-  int K_INPUT = 47;
+  int K_IN_KEY = 47;
   /** RegularExpression Id. */
-  int K_INDEX = 48;
+  int K_INPUT = 48;
   /** RegularExpression Id. */
-  int K_INSERT = 49;
+  int K_INDEX = 49;
   /** RegularExpression Id. */
-  int K_INSERT_APPEND = 50;
+  int K_INSERT = 50;
   /** RegularExpression Id. */
-  int K_INT = 51;
+  int K_INSERT_APPEND = 51;
   /** RegularExpression Id. */
-  int K_INTO = 52;
+  int K_INT = 52;
   /** RegularExpression Id. */
-  int K_IS = 53;
+  int K_INTO = 53;
   /** RegularExpression Id. */
-  int K_KEY = 54;
+  int K_IS = 54;
   /** RegularExpression Id. */
-  int K_LIKE = 55;
+  int K_KEY = 55;
   /** RegularExpression Id. */
-  int K_LIMIT = 56;
+  int K_LIKE = 56;
   /** RegularExpression Id. */
-  int K_LOAD = 57;
+  int K_LIMIT = 57;
   /** RegularExpression Id. */
-  int K_LONG = 58;
+  int K_LOAD = 58;
   /** RegularExpression Id. */
-  int K_MERGE = 59;
+  int K_LONG = 59;
   /** RegularExpression Id. */
-  int K_MOD = 60;
+  int K_MERGE = 60;
   /** RegularExpression Id. */
-  int K_NOT = 61;
+  int K_MOD = 61;
   /** RegularExpression Id. */
-  int K_NOFOLLOW = 62;
+  int K_NOT = 62;
   /** RegularExpression Id. */
-  int K_NULL = 63;
+  int K_NOFOLLOW = 63;
   /** RegularExpression Id. */
-  int K_NULLS = 64;
+  int K_NULL = 64;
   /** RegularExpression Id. */
-  int K_ON = 65;
+  int K_NULLS = 65;
   /** RegularExpression Id. */
-  int K_ONLY = 66;
+  int K_ON = 66;
   /** RegularExpression Id. */
-  int K_OR = 67;
+  int K_ONLY = 67;
   /** RegularExpression Id. */
-  int K_ORDER = 68;
+  int K_OR = 68;
   /** RegularExpression Id. */
-  int K_ORIGINAL = 69;
+  int K_ORDER = 69;
   /** RegularExpression Id. */
-  int K_OUT = 70;
+  int K_ORIGINAL = 70;
   /** RegularExpression Id. */
-  int K_OUTPUT = 71;
+  int K_OUT = 71;
   /** RegularExpression Id. */
-  int K_PARTITION = 72;
+  int K_OUTPUT = 72;
   /** RegularExpression Id. */
-  int K_PORT = 73;
+  int K_PARTITION = 73;
   /** RegularExpression Id. */
-  int K_PRIMARY = 74;
+  int K_PORT = 74;
   /** RegularExpression Id. */
-  int K_PROTOBUF = 75;
+  int K_PRIMARY = 75;
   /** RegularExpression Id. */
-  int K_RANGE = 76;
+  int K_PROTOBUF = 76;
   /** RegularExpression Id. */
-  int K_READ = 77;
+  int K_RANGE = 77;
   /** RegularExpression Id. */
-  int K_REAL = 78;
+  int K_READ = 78;
   /** RegularExpression Id. */
-  int K_RESTART = 79;
+  int K_REAL = 79;
   /** RegularExpression Id. */
-  int K_REVERSE = 80;
+  int K_RESTART = 80;
   /** RegularExpression Id. */
-  int K_ROW = 81;
+  int K_REVERSE = 81;
   /** RegularExpression Id. */
-  int K_ROWS = 82;
+  int K_ROW = 82;
   /** RegularExpression Id. */
-  int K_SAMPLE = 83;
+  int K_ROWS = 83;
   /** RegularExpression Id. */
-  int K_SELECT = 84;
+  int K_SAMPLE = 84;
   /** RegularExpression Id. */
-  int K_SEQUENCE = 85;
+  int K_SELECT = 85;
   /** RegularExpression Id. */
-  int K_SET = 86;
+  int K_SEQUENCE = 86;
   /** RegularExpression Id. */
-  int K_SIZE = 87;
+  int K_SET = 87;
   /** RegularExpression Id. */
-  int K_SHOW = 88;
+  int K_SIZE = 88;
   /** RegularExpression Id. */
-  int K_SHRT = 89;
+  int K_SHOW = 89;
   /** RegularExpression Id. */
-  int K_SMALLINT = 90;
+  int K_SHRT = 90;
   /** RegularExpression Id. */
-  int K_SEQUENCES = 91;
+  int K_SMALLINT = 91;
   /** RegularExpression Id. */
-  int K_SPEED = 92;
+  int K_SEQUENCES = 92;
   /** RegularExpression Id. */
-  int K_STEP_BY_STEP = 93;
+  int K_SPEED = 93;
   /** RegularExpression Id. */
-  int K_STREAM = 94;
+  int K_STEP_BY_STEP = 94;
   /** RegularExpression Id. */
-  int K_STREAMS = 95;
+  int K_STREAM = 95;
   /** RegularExpression Id. */
-  int K_STRING = 96;
+  int K_STREAMS = 96;
   /** RegularExpression Id. */
-  int K_TABLE = 97;
+  int K_STRING = 97;
   /** RegularExpression Id. */
-  int K_TABLE_FORMAT = 98;
+  int K_TABLE = 98;
   /** RegularExpression Id. */
-  int K_TABLES = 99;
+  int K_TABLE_FORMAT = 99;
   /** RegularExpression Id. */
-  int K_TABLESPACE = 100;
+  int K_TABLES = 100;
   /** RegularExpression Id. */
-  int K_TIME = 101;
+  int K_TABLESPACE = 101;
   /** RegularExpression Id. */
-  int K_TIME_AND_VALUE = 102;
+  int K_TIME = 102;
   /** RegularExpression Id. */
-  int K_TUPLES = 103;
+  int K_TIME_AND_VALUE = 103;
   /** RegularExpression Id. */
-  int K_UNIQUE = 104;
+  int K_TUPLES = 104;
   /** RegularExpression Id. */
-  int K_UPDATE = 105;
+  int K_UNIQUE = 105;
   /** RegularExpression Id. */
-  int K_UPSERT = 106;
+  int K_UPDATE = 106;
   /** RegularExpression Id. */
-  int K_UPSERT_APPEND = 107;
+  int K_UPSERT = 107;
   /** RegularExpression Id. */
-  int K_USE = 108;
+  int K_UPSERT_APPEND = 108;
   /** RegularExpression Id. */
-  int K_USING = 109;
+  int K_USE = 109;
   /** RegularExpression Id. */
-  int K_VALUE = 110;
+  int K_USING = 110;
   /** RegularExpression Id. */
-  int K_WHEN = 111;
+  int K_VALUE = 111;
   /** RegularExpression Id. */
-  int K_WHERE = 112;
+  int K_WHEN = 112;
   /** RegularExpression Id. */
-  int K_WITH = 113;
+  int K_WHERE = 113;
   /** RegularExpression Id. */
-  int S_INTEGER = 114;
+  int K_WITH = 114;
   /** RegularExpression Id. */
-  int DECIMAL_LITERAL = 115;
+  int S_INTEGER = 115;
   /** RegularExpression Id. */
-  int HEX_LITERAL = 116;
+  int DECIMAL_LITERAL = 116;
   /** RegularExpression Id. */
-  int S_FLOAT = 117;
+  int HEX_LITERAL = 117;
   /** RegularExpression Id. */
-  int EXPONENT = 118;
+  int S_FLOAT = 118;
   /** RegularExpression Id. */
-  int DIGIT = 119;
+  int EXPONENT = 119;
   /** RegularExpression Id. */
-  int HEX_DIGIT = 120;
+  int DIGIT = 120;
   /** RegularExpression Id. */
-  int SIGN = 121;
+  int HEX_DIGIT = 121;
   /** RegularExpression Id. */
-  int S_STRING = 122;
+  int SIGN = 122;
   /** RegularExpression Id. */
-  int LINE_COMMENT = 123;
+  int S_STRING = 123;
   /** RegularExpression Id. */
-  int MULTI_LINE_COMMENT = 124;
+  int LINE_COMMENT = 124;
   /** RegularExpression Id. */
-  int S_IDENTIFIER = 125;
+  int MULTI_LINE_COMMENT = 125;
   /** RegularExpression Id. */
-  int LETTER = 126;
+  int S_IDENTIFIER = 126;
   /** RegularExpression Id. */
-  int SPECIAL_CHARS = 127;
+  int LETTER = 127;
   /** RegularExpression Id. */
-  int S_DOUBLE_QUOTED_IDENTIFIER = 128;
+  int SPECIAL_CHARS = 128;
   /** RegularExpression Id. */
-  int S_QMARK = 129;
+  int S_DOUBLE_QUOTED_IDENTIFIER = 129;
+  /** RegularExpression Id. */
+  int S_QMARK = 130;
 
   /** Lexical state. */
   int DEFAULT = 0;
@@ -305,6 +307,7 @@ public interface StreamSqlParserConstants {
     "\"ENUM\"",
     "\"ESCAPE\"",
     "\"EXISTS\"",
+    "\"EXPLAIN\"",
     "\"FIXED_DELAY\"",
     "\"FLOAT\"",
     "\"FROM\"",
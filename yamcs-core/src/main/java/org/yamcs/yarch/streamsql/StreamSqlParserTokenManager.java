@@ -24,209 +24,209 @@ private final int jjStopStringLiteralDfa_0(int pos, long active0, long active1,
    switch (pos)
    {
       case 0:
-         if ((active2 & 0x80000L) != 0L)
+         if ((active2 & 0x100000L) != 0L)
             return 16;
-         if ((active2 & 0x200L) != 0L)
+         if ((active2 & 0x400L) != 0L)
             return 13;
-         if ((active0 & 0xffffffffffffffe0L) != 0L || (active1 & 0x3ffffffffffffL) != 0L)
+         if ((active0 & 0xffffffffffffffe0L) != 0L || (active1 & 0x7ffffffffffffL) != 0L)
          {
-            jjmatchedKind = 125;
+            jjmatchedKind = 126;
             return 35;
          }
          return -1;
       case 1:
-         if ((active0 & 0xffc00ffffff9cfe0L) != 0L || (active1 & 0x3ffffffffffc1L) != 0L)
+         if ((active0 & 0xff801ffffff9cfe0L) != 0L || (active1 & 0x7ffffffffff83L) != 0L)
          {
             if (jjmatchedPos != 1)
             {
-               jjmatchedKind = 125;
+               jjmatchedKind = 126;
                jjmatchedPos = 1;
             }
             return 35;
          }
-         if ((active0 & 0x3ff00000063000L) != 0L || (active1 & 0x3eL) != 0L)
+         if ((active0 & 0x7fe00000063000L) != 0L || (active1 & 0x7cL) != 0L)
             return 35;
          return -1;
       case 2:
-         if ((active0 & 0xcf878ffffffdc960L) != 0L || (active1 & 0x3efffffb9ff35L) != 0L)
+         if ((active0 & 0x9f0f1ffffffdc960L) != 0L || (active1 & 0x7dfffff73fe6bL) != 0L)
          {
             if (jjmatchedPos != 2)
             {
-               jjmatchedKind = 125;
+               jjmatchedKind = 126;
                jjmatchedPos = 2;
             }
             return 35;
          }
-         if ((active0 & 0x400000000000L) != 0L)
+         if ((active0 & 0x800000000000L) != 0L)
          {
             if (jjmatchedPos != 2)
             {
-               jjmatchedKind = 125;
+               jjmatchedKind = 126;
                jjmatchedPos = 2;
             }
             return 24;
          }
-         if ((active0 & 0x3058000000002680L) != 0L || (active1 & 0x1000004600c0L) != 0L)
+         if ((active0 & 0x60b0000000002680L) != 0L || (active1 & 0x2000008c0180L) != 0L)
             return 35;
          return -1;
       case 3:
-         if ((active0 & 0x86900212640c0040L) != 0L || (active1 & 0x2806001846205L) != 0L)
+         if ((active0 & 0xd200412640c0040L) != 0L || (active1 & 0x500c00308c40bL) != 0L)
             return 35;
-         if ((active0 & 0x400000000000L) != 0L)
+         if ((active0 & 0x800000000000L) != 0L)
          {
             if (jjmatchedPos != 3)
             {
-               jjmatchedKind = 125;
+               jjmatchedKind = 126;
                jjmatchedPos = 3;
             }
             return 24;
          }
-         if ((active0 & 0x49078ded9bf1c920L) != 0L || (active1 & 0x16f9ffe399db0L) != 0L)
+         if ((active0 & 0x920f1bed9bf1c920L) != 0L || (active1 & 0x2df3ffc733b60L) != 0L)
          {
             if (jjmatchedPos != 3)
             {
-               jjmatchedKind = 125;
+               jjmatchedKind = 126;
                jjmatchedPos = 3;
             }
             return 35;
          }
          return -1;
       case 4:
-         if ((active0 & 0x400000004000L) != 0L || (active1 & 0x4020000000L) != 0L)
+         if ((active0 & 0x800000004000L) != 0L || (active1 & 0x8040000000L) != 0L)
          {
             if (jjmatchedPos != 4)
             {
-               jjmatchedKind = 125;
+               jjmatchedKind = 126;
                jjmatchedPos = 4;
             }
             return 24;
          }
-         if ((active0 & 0x40060ceddbe18020L) != 0L || (active1 & 0xf81cc398da0L) != 0L)
+         if ((active0 & 0x800c19eddbe18020L) != 0L || (active1 & 0x1f0398731b40L) != 0L)
          {
             if (jjmatchedPos != 4)
             {
-               jjmatchedKind = 125;
+               jjmatchedKind = 126;
                jjmatchedPos = 4;
             }
             return 35;
          }
-         if ((active0 & 0x901810000100900L) != 0L || (active1 & 0x1601e12001011L) != 0L)
+         if ((active0 & 0x1203020000100900L) != 0L || (active1 & 0x2c03c24002022L) != 0L)
             return 35;
          return -1;
       case 5:
-         if ((active0 & 0x400000000000L) != 0L)
+         if ((active0 & 0x800000000000L) != 0L)
             return 24;
-         if ((active0 & 0x40000800cb618020L) != 0L || (active1 & 0xc218d20L) != 0L)
+         if ((active0 & 0x80001080cb618020L) != 0L || (active1 & 0x18431a40L) != 0L)
          {
             if (jjmatchedPos != 5)
             {
-               jjmatchedKind = 125;
+               jjmatchedKind = 126;
                jjmatchedPos = 5;
             }
             return 35;
          }
-         if ((active0 & 0x8000004000L) != 0L || (active1 & 0x4420000000L) != 0L)
+         if ((active0 & 0x10000004000L) != 0L || (active1 & 0x8840000000L) != 0L)
          {
             if (jjmatchedPos != 5)
             {
-               jjmatchedKind = 125;
+               jjmatchedKind = 126;
                jjmatchedPos = 5;
             }
             return 24;
          }
-         if ((active0 & 0x6046d10800000L) != 0L || (active1 & 0xf99c0180080L) != 0L)
+         if ((active0 & 0xc086d10800000L) != 0L || (active1 & 0x1f3380300100L) != 0L)
             return 35;
          return -1;
       case 6:
-         if ((active0 & 0x809018020L) != 0L || (active1 & 0x80018400L) != 0L)
+         if ((active0 & 0x8809018020L) != 0L || (active1 & 0x100030800L) != 0L)
             return 35;
-         if ((active0 & 0x4008000204000L) != 0L || (active1 & 0x84420000000L) != 0L)
+         if ((active0 & 0x8010000204000L) != 0L || (active1 & 0x108840000000L) != 0L)
          {
-            jjmatchedKind = 125;
+            jjmatchedKind = 126;
             jjmatchedPos = 6;
             return 24;
          }
-         if ((active0 & 0x40000800c2400000L) != 0L || (active1 & 0x100c200920L) != 0L)
+         if ((active0 & 0x80001000c2400000L) != 0L || (active1 & 0x2018401240L) != 0L)
          {
-            jjmatchedKind = 125;
+            jjmatchedKind = 126;
             jjmatchedPos = 6;
             return 35;
          }
          return -1;
       case 7:
-         if ((active0 & 0x4008000204000L) != 0L || (active1 & 0x84420000000L) != 0L)
+         if ((active0 & 0x8010000204000L) != 0L || (active1 & 0x108840000000L) != 0L)
          {
             if (jjmatchedPos != 7)
             {
-               jjmatchedKind = 125;
+               jjmatchedKind = 126;
                jjmatchedPos = 7;
             }
             return 24;
          }
-         if ((active0 & 0x80002400000L) != 0L || (active1 & 0x1000000100L) != 0L)
+         if ((active0 & 0x100002400000L) != 0L || (active1 & 0x2000000200L) != 0L)
          {
             if (jjmatchedPos != 7)
             {
-               jjmatchedKind = 125;
+               jjmatchedKind = 126;
                jjmatchedPos = 7;
             }
             return 35;
          }
-         if ((active0 & 0x40000000c0000000L) != 0L || (active1 & 0xc200820L) != 0L)
+         if ((active0 & 0x80000000c0000000L) != 0L || (active1 & 0x18401040L) != 0L)
             return 35;
          return -1;
       case 8:
-         if ((active0 & 0x400000L) != 0L || (active1 & 0x1000000000L) != 0L)
+         if ((active0 & 0x400000L) != 0L || (active1 & 0x2000000000L) != 0L)
          {
-            jjmatchedKind = 125;
+            jjmatchedKind = 126;
             jjmatchedPos = 8;
             return 35;
          }
-         if ((active0 & 0x4008000204000L) != 0L || (active1 & 0x84420000000L) != 0L)
+         if ((active0 & 0x8010000204000L) != 0L || (active1 & 0x108840000000L) != 0L)
          {
-            jjmatchedKind = 125;
+            jjmatchedKind = 126;
             jjmatchedPos = 8;
             return 24;
          }
-         if ((active0 & 0x80002000000L) != 0L || (active1 & 0x8000100L) != 0L)
+         if ((active0 & 0x100002000000L) != 0L || (active1 & 0x10000200L) != 0L)
             return 35;
          return -1;
       case 9:
-         if ((active0 & 0x4008000204000L) != 0L || (active1 & 0x84420000000L) != 0L)
+         if ((active0 & 0x8010000204000L) != 0L || (active1 & 0x108840000000L) != 0L)
          {
-            jjmatchedKind = 125;
+            jjmatchedKind = 126;
             jjmatchedPos = 9;
             return 24;
          }
-         if ((active0 & 0x400000L) != 0L || (active1 & 0x1000000000L) != 0L)
+         if ((active0 & 0x400000L) != 0L || (active1 & 0x2000000000L) != 0L)
             return 35;
          return -1;
       case 10:
-         if ((active0 & 0x8000000000L) != 0L)
+         if ((active0 & 0x10000000000L) != 0L)
             return 24;
-         if ((active0 & 0x4000000204000L) != 0L || (active1 & 0x84420000000L) != 0L)
+         if ((active0 & 0x8000000204000L) != 0L || (active1 & 0x108840000000L) != 0L)
          {
-            jjmatchedKind = 125;
+            jjmatchedKind = 126;
             jjmatchedPos = 10;
             return 24;
          }
          return -1;
       case 11:
-         if ((active1 & 0x420000000L) != 0L)
+         if ((active1 & 0x840000000L) != 0L)
             return 24;
-         if ((active0 & 0x4000000204000L) != 0L || (active1 & 0x84000000000L) != 0L)
+         if ((active0 & 0x8000000204000L) != 0L || (active1 & 0x108000000000L) != 0L)
          {
-            jjmatchedKind = 125;
+            jjmatchedKind = 126;
             jjmatchedPos = 11;
             return 24;
          }
          return -1;
       case 12:
-         if ((active0 & 0x4000000200000L) != 0L || (active1 & 0x80000000000L) != 0L)
+         if ((active0 & 0x8000000200000L) != 0L || (active1 & 0x100000000000L) != 0L)
             return 24;
-         if ((active0 & 0x4000L) != 0L || (active1 & 0x4000000000L) != 0L)
+         if ((active0 & 0x4000L) != 0L || (active1 & 0x8000000000L) != 0L)
          {
-            jjmatchedKind = 125;
+            jjmatchedKind = 126;
             jjmatchedPos = 12;
             return 24;
          }
@@ -250,42 +250,42 @@ private int jjMoveStringLiteralDfa0_0()
    switch(curChar)
    {
       case 33:
-         return jjStopAtPos(0, 148);
+         return jjStopAtPos(0, 149);
       case 38:
-         return jjStopAtPos(0, 140);
+         return jjStopAtPos(0, 141);
       case 40:
-         return jjStopAtPos(0, 130);
-      case 41:
          return jjStopAtPos(0, 131);
+      case 41:
+         return jjStopAtPos(0, 132);
       case 42:
-         jjmatchedKind = 146;
-         return jjMoveStringLiteralDfa1_0(0x0L, 0x0L, 0x80L);
+         jjmatchedKind = 147;
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x0L, 0x100L);
       case 43:
-         return jjStopAtPos(0, 136);
+         return jjStopAtPos(0, 137);
       case 44:
-         return jjStopAtPos(0, 133);
+         return jjStopAtPos(0, 134);
       case 45:
-         return jjStartNfaWithStates_0(0, 137, 13);
+         return jjStartNfaWithStates_0(0, 138, 13);
       case 47:
-         return jjStartNfaWithStates_0(0, 147, 16);
+         return jjStartNfaWithStates_0(0, 148, 16);
       case 60:
-         jjmatchedKind = 150;
-         return jjMoveStringLiteralDfa1_0(0x0L, 0x0L, 0x8000L);
+         jjmatchedKind = 151;
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x0L, 0x10000L);
       case 61:
-         jjmatchedKind = 134;
-         return jjMoveStringLiteralDfa1_0(0x0L, 0x0L, 0x800000L);
+         jjmatchedKind = 135;
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x0L, 0x1000000L);
       case 62:
-         jjmatchedKind = 149;
-         return jjMoveStringLiteralDfa1_0(0x0L, 0x0L, 0x10000L);
+         jjmatchedKind = 150;
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x0L, 0x20000L);
       case 63:
-         return jjStopAtPos(0, 129);
+         return jjStopAtPos(0, 130);
       case 91:
-         jjmatchedKind = 138;
-         return jjMoveStringLiteralDfa1_0(0x0L, 0x0L, 0x10L);
+         jjmatchedKind = 139;
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x0L, 0x20L);
       case 93:
-         return jjStopAtPos(0, 139);
+         return jjStopAtPos(0, 140);
       case 94:
-         return jjStopAtPos(0, 142);
+         return jjStopAtPos(0, 143);
       case 65:
       case 97:
          return jjMoveStringLiteralDfa1_0(0x7fe0L, 0x0L, 0x0L);
@@ -300,55 +300,55 @@ private int jjMoveStringLiteralDfa0_0()
          return jjMoveStringLiteralDfa1_0(0x3fe000000L, 0x0L, 0x0L);
       case 69:
       case 101:
-         return jjMoveStringLiteralDfa1_0(0x7c00000000L, 0x0L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0xfc00000000L, 0x0L, 0x0L);
       case 70:
       case 102:
-         return jjMoveStringLiteralDfa1_0(0x38000000000L, 0x0L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x70000000000L, 0x0L, 0x0L);
       case 72:
       case 104:
-         return jjMoveStringLiteralDfa1_0(0xc0000000000L, 0x0L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x180000000000L, 0x0L, 0x0L);
       case 73:
       case 105:
-         return jjMoveStringLiteralDfa1_0(0x3ff00000000000L, 0x0L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x7fe00000000000L, 0x0L, 0x0L);
       case 75:
       case 107:
-         return jjMoveStringLiteralDfa1_0(0x40000000000000L, 0x0L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x80000000000000L, 0x0L, 0x0L);
       case 76:
       case 108:
-         return jjMoveStringLiteralDfa1_0(0x780000000000000L, 0x0L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0xf00000000000000L, 0x0L, 0x0L);
       case 77:
       case 109:
-         return jjMoveStringLiteralDfa1_0(0x1800000000000000L, 0x0L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x3000000000000000L, 0x0L, 0x0L);
       case 78:
       case 110:
-         return jjMoveStringLiteralDfa1_0(0xe000000000000000L, 0x1L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0xc000000000000000L, 0x3L, 0x0L);
       case 79:
       case 111:
-         return jjMoveStringLiteralDfa1_0(0x0L, 0xfeL, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x1fcL, 0x0L);
       case 80:
       case 112:
-         return jjMoveStringLiteralDfa1_0(0x0L, 0xf00L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x1e00L, 0x0L);
       case 82:
       case 114:
-         return jjMoveStringLiteralDfa1_0(0x0L, 0x7f000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x0L, 0xfe000L, 0x0L);
       case 83:
       case 115:
-         return jjMoveStringLiteralDfa1_0(0x0L, 0x1fff80000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x3fff00000L, 0x0L);
       case 84:
       case 116:
-         return jjMoveStringLiteralDfa1_0(0x0L, 0xfe00000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x1fc00000000L, 0x0L);
       case 85:
       case 117:
-         return jjMoveStringLiteralDfa1_0(0x0L, 0x3f0000000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x7e0000000000L, 0x0L);
       case 86:
       case 118:
-         return jjMoveStringLiteralDfa1_0(0x0L, 0x400000000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x800000000000L, 0x0L);
       case 87:
       case 119:
-         return jjMoveStringLiteralDfa1_0(0x0L, 0x3800000000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x7000000000000L, 0x0L);
       case 124:
-         jjmatchedKind = 141;
-         return jjMoveStringLiteralDfa1_0(0x0L, 0x0L, 0x20000L);
+         jjmatchedKind = 142;
+         return jjMoveStringLiteralDfa1_0(0x0L, 0x0L, 0x40000L);
       default :
          return jjMoveNfa_0(0, 0);
    }
@@ -363,76 +363,76 @@ private int jjMoveStringLiteralDfa1_0(long active0, long active1, long active2)
    switch(curChar)
    {
       case 42:
-         if ((active2 & 0x80L) != 0L)
-            return jjStopAtPos(1, 135);
+         if ((active2 & 0x100L) != 0L)
+            return jjStopAtPos(1, 136);
          break;
       case 60:
-         if ((active2 & 0x8000L) != 0L)
-            return jjStopAtPos(1, 143);
-         break;
-      case 62:
          if ((active2 & 0x10000L) != 0L)
             return jjStopAtPos(1, 144);
-         else if ((active2 & 0x800000L) != 0L)
-            return jjStopAtPos(1, 151);
+         break;
+      case 62:
+         if ((active2 & 0x20000L) != 0L)
+            return jjStopAtPos(1, 145);
+         else if ((active2 & 0x1000000L) != 0L)
+            return jjStopAtPos(1, 152);
          break;
       case 93:
-         if ((active2 & 0x10L) != 0L)
-            return jjStopAtPos(1, 132);
+         if ((active2 & 0x20L) != 0L)
+            return jjStopAtPos(1, 133);
          break;
       case 65:
       case 97:
-         return jjMoveStringLiteralDfa2_0(active0, 0x40006000000L, active1, 0x401e00081100L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x80006000000L, active1, 0x803c00102200L, active2, 0L);
       case 68:
       case 100:
          return jjMoveStringLiteralDfa2_0(active0, 0x20L, active1, 0L, active2, 0L);
       case 69:
       case 101:
-         return jjMoveStringLiteralDfa2_0(active0, 0x840000078008000L, active1, 0x871e000L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x1080000078008000L, active1, 0x10e3c000L, active2, 0L);
       case 70:
       case 102:
-         if ((active0 & 0x100000000000L) != 0L)
-            return jjStartNfaWithStates_0(1, 44, 35);
+         if ((active0 & 0x200000000000L) != 0L)
+            return jjStartNfaWithStates_0(1, 45, 35);
          return jjMoveStringLiteralDfa2_0(active0, 0x40L, active1, 0L, active2, 0L);
       case 72:
       case 104:
-         return jjMoveStringLiteralDfa2_0(active0, 0x80000L, active1, 0x1800003000000L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x80000L, active1, 0x3000006000000L, active2, 0L);
       case 73:
       case 105:
-         return jjMoveStringLiteralDfa2_0(active0, 0x180088080000000L, active1, 0x2006000800000L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x300110080000000L, active1, 0x400c001000000L, active2, 0L);
       case 76:
       case 108:
-         return jjMoveStringLiteralDfa2_0(active0, 0x10000100180L, active1, 0L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x20000100180L, active1, 0L, active2, 0L);
       case 77:
       case 109:
-         return jjMoveStringLiteralDfa2_0(active0, 0L, active1, 0x4000000L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0L, active1, 0x8000000L, active2, 0L);
       case 78:
       case 110:
-         if ((active0 & 0x200000000000L) != 0L)
+         if ((active0 & 0x400000000000L) != 0L)
          {
-            jjmatchedKind = 45;
+            jjmatchedKind = 46;
             jjmatchedPos = 1;
          }
-         else if ((active1 & 0x2L) != 0L)
+         else if ((active1 & 0x4L) != 0L)
          {
-            jjmatchedKind = 65;
+            jjmatchedKind = 66;
             jjmatchedPos = 1;
          }
-         return jjMoveStringLiteralDfa2_0(active0, 0x1fc01c00000600L, active1, 0x10000000004L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x3f801c00000600L, active1, 0x20000000008L, active2, 0L);
       case 79:
       case 111:
-         return jjMoveStringLiteralDfa2_0(active0, 0x7600000100610000L, active1, 0x60200L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0xec00000100610000L, active1, 0xc0400L, active2, 0L);
       case 80:
       case 112:
-         return jjMoveStringLiteralDfa2_0(active0, 0L, active1, 0xe0010000000L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0L, active1, 0x1c0020000000L, active2, 0L);
       case 82:
       case 114:
-         if ((active1 & 0x8L) != 0L)
+         if ((active1 & 0x10L) != 0L)
          {
-            jjmatchedKind = 67;
+            jjmatchedKind = 68;
             jjmatchedPos = 1;
          }
-         return jjMoveStringLiteralDfa2_0(active0, 0x20200800800L, active1, 0xc30L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x40200800800L, active1, 0x1860L, active2, 0L);
       case 83:
       case 115:
          if ((active0 & 0x1000L) != 0L)
@@ -440,18 +440,18 @@ private int jjMoveStringLiteralDfa1_0(long active0, long active1, long active2)
             jjmatchedKind = 12;
             jjmatchedPos = 1;
          }
-         else if ((active0 & 0x20000000000000L) != 0L)
-            return jjStartNfaWithStates_0(1, 53, 35);
-         return jjMoveStringLiteralDfa2_0(active0, 0x2000002000L, active1, 0x300000000000L, active2, 0L);
+         else if ((active0 & 0x40000000000000L) != 0L)
+            return jjStartNfaWithStates_0(1, 54, 35);
+         return jjMoveStringLiteralDfa2_0(active0, 0x2000002000L, active1, 0x600000000000L, active2, 0L);
       case 84:
       case 116:
-         return jjMoveStringLiteralDfa2_0(active0, 0L, active1, 0x1e0000000L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0L, active1, 0x3c0000000L, active2, 0L);
       case 85:
       case 117:
-         return jjMoveStringLiteralDfa2_0(active0, 0x8000000001004000L, active1, 0x80000000c1L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x1004000L, active1, 0x10000000183L, active2, 0L);
       case 88:
       case 120:
-         return jjMoveStringLiteralDfa2_0(active0, 0x4000000000L, active1, 0L, active2, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0xc000000000L, active1, 0L, active2, 0L);
       case 89:
       case 121:
          if ((active0 & 0x20000L) != 0L)
@@ -461,8 +461,8 @@ private int jjMoveStringLiteralDfa1_0(long active0, long active1, long active2)
          }
          return jjMoveStringLiteralDfa2_0(active0, 0x40000L, active1, 0L, active2, 0L);
       case 124:
-         if ((active2 & 0x20000L) != 0L)
-            return jjStopAtPos(1, 145);
+         if ((active2 & 0x40000L) != 0L)
+            return jjStopAtPos(1, 146);
          break;
       default :
          break;
@@ -481,13 +481,13 @@ private int jjMoveStringLiteralDfa2_0(long old0, long active0, long old1, long a
    switch(curChar)
    {
       case 95:
-         return jjMoveStringLiteralDfa3_0(active0, 0x400000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x800000000000L, active1, 0L);
       case 65:
       case 97:
-         return jjMoveStringLiteralDfa3_0(active0, 0x200000000080040L, active1, 0x4006000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x400000000080040L, active1, 0x800c000L);
       case 66:
       case 98:
-         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x1e00000000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x3c00000000L);
       case 67:
       case 99:
          if ((active0 & 0x2000L) != 0L)
@@ -497,96 +497,96 @@ private int jjMoveStringLiteralDfa2_0(long old0, long active0, long old1, long a
       case 100:
          if ((active0 & 0x200L) != 0L)
             return jjStartNfaWithStates_0(2, 9, 35);
-         else if ((active0 & 0x1000000000000000L) != 0L)
-            return jjStartNfaWithStates_0(2, 60, 35);
-         return jjMoveStringLiteralDfa3_0(active0, 0x1000000000000L, active1, 0x20000000010L);
+         else if ((active0 & 0x2000000000000000L) != 0L)
+            return jjStartNfaWithStates_0(2, 61, 35);
+         return jjMoveStringLiteralDfa3_0(active0, 0x2000000000000L, active1, 0x40000000020L);
       case 69:
       case 101:
-         if ((active1 & 0x100000000000L) != 0L)
-            return jjStartNfaWithStates_0(2, 108, 35);
-         return jjMoveStringLiteralDfa3_0(active0, 0x800000L, active1, 0x1800030000000L);
+         if ((active1 & 0x200000000000L) != 0L)
+            return jjStartNfaWithStates_0(2, 109, 35);
+         return jjMoveStringLiteralDfa3_0(active0, 0x800000L, active1, 0x3000060000000L);
       case 70:
       case 102:
-         return jjMoveStringLiteralDfa3_0(active0, 0x4000000000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x8000000000000000L, active1, 0L);
       case 71:
       case 103:
          return jjMoveStringLiteralDfa3_0(active0, 0xc00000000L, active1, 0L);
       case 73:
       case 105:
-         return jjMoveStringLiteralDfa3_0(active0, 0x4000000000L, active1, 0x210000000420L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x4000000000L, active1, 0x420000000840L);
       case 75:
       case 107:
-         return jjMoveStringLiteralDfa3_0(active0, 0x80000000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x100000000000000L, active1, 0L);
       case 76:
       case 108:
          if ((active0 & 0x80L) != 0L)
             return jjStartNfaWithStates_0(2, 7, 35);
-         return jjMoveStringLiteralDfa3_0(active0, 0x8000000010200000L, active1, 0x400000100005L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x10200000L, active1, 0x80000020000bL);
       case 77:
       case 109:
-         return jjMoveStringLiteralDfa3_0(active0, 0x100000000400000L, active1, 0x6000080000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x200000000400000L, active1, 0xc000100000L);
       case 78:
       case 110:
-         return jjMoveStringLiteralDfa3_0(active0, 0x400000000000000L, active1, 0x1000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x800000000000000L, active1, 0x2000L);
       case 79:
       case 111:
-         return jjMoveStringLiteralDfa3_0(active0, 0x30200110000L, active1, 0x3000800L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x60200110000L, active1, 0x6001000L);
       case 80:
       case 112:
-         return jjMoveStringLiteralDfa3_0(active0, 0x800000000000L, active1, 0x8000000000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x1008000000000L, active1, 0x10000000000L);
       case 81:
       case 113:
-         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x8200000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x10400000L);
       case 82:
       case 114:
-         return jjMoveStringLiteralDfa3_0(active0, 0x800000001000800L, active1, 0x1c0000300L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x1000000001000800L, active1, 0x380000600L);
       case 83:
       case 115:
-         return jjMoveStringLiteralDfa3_0(active0, 0x60800e0000000L, active1, 0xc0000008000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0xc1000e0000000L, active1, 0x180000010000L);
       case 84:
       case 116:
-         if ((active0 & 0x8000000000000L) != 0L)
+         if ((active0 & 0x10000000000000L) != 0L)
          {
-            jjmatchedKind = 51;
+            jjmatchedKind = 52;
             jjmatchedPos = 2;
          }
-         else if ((active0 & 0x2000000000000000L) != 0L)
-            return jjStartNfaWithStates_0(2, 61, 35);
-         else if ((active1 & 0x40L) != 0L)
+         else if ((active0 & 0x4000000000000000L) != 0L)
+            return jjStartNfaWithStates_0(2, 62, 35);
+         else if ((active1 & 0x80L) != 0L)
          {
-            jjmatchedKind = 70;
+            jjmatchedKind = 71;
             jjmatchedPos = 2;
          }
-         else if ((active1 & 0x400000L) != 0L)
-            return jjStartNfaWithStates_0(2, 86, 35);
-         return jjMoveStringLiteralDfa3_0(active0, 0x1000000604c100L, active1, 0x2000000000080L);
+         else if ((active1 & 0x800000L) != 0L)
+            return jjStartNfaWithStates_0(2, 87, 35);
+         return jjMoveStringLiteralDfa3_0(active0, 0x2000000604c100L, active1, 0x4000000000100L);
       case 85:
       case 117:
          return jjMoveStringLiteralDfa3_0(active0, 0x1100000000L, active1, 0L);
       case 86:
       case 118:
-         return jjMoveStringLiteralDfa3_0(active0, 0x40000000020L, active1, 0x10000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x80000000020L, active1, 0x20000L);
       case 87:
       case 119:
-         if ((active1 & 0x20000L) != 0L)
+         if ((active1 & 0x40000L) != 0L)
          {
-            jjmatchedKind = 81;
+            jjmatchedKind = 82;
             jjmatchedPos = 2;
          }
-         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x40000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x80000L);
       case 88:
       case 120:
-         return jjMoveStringLiteralDfa3_0(active0, 0x8000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x10000000000L, active1, 0L);
       case 89:
       case 121:
          if ((active0 & 0x400L) != 0L)
             return jjStartNfaWithStates_0(2, 10, 35);
-         else if ((active0 & 0x40000000000000L) != 0L)
-            return jjStartNfaWithStates_0(2, 54, 35);
+         else if ((active0 & 0x80000000000000L) != 0L)
+            return jjStartNfaWithStates_0(2, 55, 35);
          break;
       case 90:
       case 122:
-         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x800000L);
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x1000000L);
       default :
          break;
    }
@@ -605,7 +605,7 @@ private int jjMoveStringLiteralDfa3_0(long old0, long active0, long old1, long a
    {
       case 65:
       case 97:
-         return jjMoveStringLiteralDfa4_0(active0, 0x12002800820L, active1, 0x20000000000L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x22002800820L, active1, 0x40000000000L);
       case 66:
       case 98:
          return jjMoveStringLiteralDfa4_0(active0, 0x100000000L, active1, 0L);
@@ -619,10 +619,10 @@ private int jjMoveStringLiteralDfa3_0(long old0, long active0, long old1, long a
          return jjMoveStringLiteralDfa4_0(active0, 0x40000000L, active1, 0L);
       case 68:
       case 100:
-         if ((active0 & 0x200000000000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 57, 35);
-         else if ((active1 & 0x2000L) != 0L)
-            return jjStartNfaWithStates_0(3, 77, 35);
+         if ((active0 & 0x400000000000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 58, 35);
+         else if ((active1 & 0x4000L) != 0L)
+            return jjStartNfaWithStates_0(3, 78, 35);
          break;
       case 69:
       case 101:
@@ -630,96 +630,96 @@ private int jjMoveStringLiteralDfa3_0(long old0, long active0, long old1, long a
             return jjStartNfaWithStates_0(3, 18, 35);
          else if ((active0 & 0x4000000L) != 0L)
             return jjStartNfaWithStates_0(3, 26, 35);
-         else if ((active0 & 0x80000000000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 55, 35);
-         else if ((active1 & 0x800000L) != 0L)
-            return jjStartNfaWithStates_0(3, 87, 35);
-         else if ((active1 & 0x2000000000L) != 0L)
+         else if ((active0 & 0x100000000000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 56, 35);
+         else if ((active1 & 0x1000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 88, 35);
+         else if ((active1 & 0x4000000000L) != 0L)
          {
-            jjmatchedKind = 101;
+            jjmatchedKind = 102;
             jjmatchedPos = 3;
          }
-         return jjMoveStringLiteralDfa4_0(active0, 0x7008010000100L, active1, 0xc40d0110010L);
+         return jjMoveStringLiteralDfa4_0(active0, 0xe010010000100L, active1, 0x1881a0220020L);
       case 71:
       case 103:
-         if ((active0 & 0x400000000000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 58, 35);
-         return jjMoveStringLiteralDfa4_0(active0, 0x800000000000000L, active1, 0x1020L);
+         if ((active0 & 0x800000000000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 59, 35);
+         return jjMoveStringLiteralDfa4_0(active0, 0x1000000000000000L, active1, 0x2040L);
       case 72:
       case 104:
-         if ((active1 & 0x2000000000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 113, 35);
+         if ((active1 & 0x4000000000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 114, 35);
          break;
       case 73:
       case 105:
-         return jjMoveStringLiteralDfa4_0(active0, 0x100040c08000000L, active1, 0x100000000L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x200080c08000000L, active1, 0x200000000L);
       case 75:
       case 107:
-         return jjMoveStringLiteralDfa4_0(active0, 0x400000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x800000000000L, active1, 0L);
       case 76:
       case 108:
-         if ((active0 & 0x8000000000000000L) != 0L)
+         if ((active1 & 0x1L) != 0L)
          {
-            jjmatchedKind = 63;
+            jjmatchedKind = 64;
             jjmatchedPos = 3;
          }
-         else if ((active1 & 0x4000L) != 0L)
-            return jjStartNfaWithStates_0(3, 78, 35);
-         return jjMoveStringLiteralDfa4_0(active0, 0x10000L, active1, 0x9e04000001L);
+         else if ((active1 & 0x8000L) != 0L)
+            return jjStartNfaWithStates_0(3, 79, 35);
+         return jjMoveStringLiteralDfa4_0(active0, 0x8000010000L, active1, 0x13c08000002L);
       case 77:
       case 109:
          if ((active0 & 0x1000000000L) != 0L)
             return jjStartNfaWithStates_0(3, 36, 35);
-         else if ((active0 & 0x20000000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 41, 35);
-         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x400L);
+         else if ((active0 & 0x40000000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 42, 35);
+         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x800L);
       case 78:
       case 110:
-         if ((active1 & 0x800000000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 111, 35);
-         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x200000000000L);
+         if ((active1 & 0x1000000000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 112, 35);
+         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x400000000000L);
       case 79:
       case 111:
-         if ((active0 & 0x10000000000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 52, 35);
-         return jjMoveStringLiteralDfa4_0(active0, 0x4000000000004000L, active1, 0L);
+         if ((active0 & 0x20000000000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 53, 35);
+         return jjMoveStringLiteralDfa4_0(active0, 0x8000000000004000L, active1, 0L);
       case 80:
       case 112:
          if ((active0 & 0x40L) != 0L)
             return jjStartNfaWithStates_0(3, 6, 35);
          else if ((active0 & 0x200000000L) != 0L)
             return jjStartNfaWithStates_0(3, 33, 35);
-         return jjMoveStringLiteralDfa4_0(active0, 0x400000L, active1, 0x20080080L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x400000L, active1, 0x40100100L);
       case 81:
       case 113:
-         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x10000000000L);
+         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x20000000000L);
       case 82:
       case 114:
          if ((active0 & 0x80000L) != 0L)
             return jjStartNfaWithStates_0(3, 19, 35);
-         return jjMoveStringLiteralDfa4_0(active0, 0x1000000L, active1, 0x1000002000000L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x1000000L, active1, 0x2000004000000L);
       case 83:
       case 115:
-         if ((active1 & 0x40000L) != 0L)
-            return jjStartNfaWithStates_0(3, 82, 35);
+         if ((active1 & 0x80000L) != 0L)
+            return jjStartNfaWithStates_0(3, 83, 35);
          return jjMoveStringLiteralDfa4_0(active0, 0x4000100000L, active1, 0L);
       case 84:
       case 116:
-         if ((active1 & 0x200L) != 0L)
-            return jjStartNfaWithStates_0(3, 73, 35);
-         return jjMoveStringLiteralDfa4_0(active0, 0x80080000000L, active1, 0x8900L);
+         if ((active1 & 0x400L) != 0L)
+            return jjStartNfaWithStates_0(3, 74, 35);
+         return jjMoveStringLiteralDfa4_0(active0, 0x100080000000L, active1, 0x11200L);
       case 85:
       case 117:
-         return jjMoveStringLiteralDfa4_0(active0, 0x800000200000L, active1, 0x400008200000L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x1000000200000L, active1, 0x800010400000L);
       case 87:
       case 119:
-         if ((active1 & 0x1000000L) != 0L)
-            return jjStartNfaWithStates_0(3, 88, 35);
+         if ((active1 & 0x2000000L) != 0L)
+            return jjStartNfaWithStates_0(3, 89, 35);
          return jjMoveStringLiteralDfa4_0(active0, 0x8000L, active1, 0L);
       case 89:
       case 121:
-         if ((active1 & 0x4L) != 0L)
-            return jjStartNfaWithStates_0(3, 66, 35);
+         if ((active1 & 0x8L) != 0L)
+            return jjStartNfaWithStates_0(3, 67, 35);
          break;
       default :
          break;
@@ -738,59 +738,59 @@ private int jjMoveStringLiteralDfa4_0(long old0, long active0, long old1, long a
    switch(curChar)
    {
       case 95:
-         return jjMoveStringLiteralDfa5_0(active0, 0x4000L, active1, 0x4020000000L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x4000L, active1, 0x8040000000L);
       case 65:
       case 97:
-         return jjMoveStringLiteralDfa5_0(active0, 0L, active1, 0xc0008400L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x8000000000L, active1, 0x180010800L);
       case 66:
       case 98:
          return jjMoveStringLiteralDfa5_0(active0, 0x2000000L, active1, 0L);
       case 67:
       case 99:
-         return jjMoveStringLiteralDfa5_0(active0, 0L, active1, 0x100000L);
+         return jjMoveStringLiteralDfa5_0(active0, 0L, active1, 0x200000L);
       case 68:
       case 100:
-         if ((active1 & 0x10000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 92, 35);
-         return jjMoveStringLiteralDfa5_0(active0, 0x8000000000L, active1, 0L);
+         if ((active1 & 0x20000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 93, 35);
+         return jjMoveStringLiteralDfa5_0(active0, 0x10000000000L, active1, 0L);
       case 69:
       case 101:
          if ((active0 & 0x100000L) != 0L)
             return jjStartNfaWithStates_0(4, 20, 35);
-         else if ((active0 & 0x800000000000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 59, 35);
-         else if ((active1 & 0x1000L) != 0L)
-            return jjStartNfaWithStates_0(4, 76, 35);
-         else if ((active1 & 0x200000000L) != 0L)
+         else if ((active0 & 0x1000000000000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 60, 35);
+         else if ((active1 & 0x2000L) != 0L)
+            return jjStartNfaWithStates_0(4, 77, 35);
+         else if ((active1 & 0x400000000L) != 0L)
          {
-            jjmatchedKind = 97;
+            jjmatchedKind = 98;
             jjmatchedPos = 4;
          }
-         else if ((active1 & 0x400000000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 110, 35);
-         else if ((active1 & 0x1000000000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 112, 35);
-         return jjMoveStringLiteralDfa5_0(active0, 0x400001018000L, active1, 0x9c08200000L);
+         else if ((active1 & 0x800000000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 111, 35);
+         else if ((active1 & 0x2000000000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 113, 35);
+         return jjMoveStringLiteralDfa5_0(active0, 0x800001018000L, active1, 0x13810400000L);
       case 71:
       case 103:
-         if ((active1 & 0x200000000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 109, 35);
+         if ((active1 & 0x400000000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 110, 35);
          break;
       case 73:
       case 105:
-         return jjMoveStringLiteralDfa5_0(active0, 0x80000000L, active1, 0x120L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x80000000L, active1, 0x240L);
       case 76:
       case 108:
-         return jjMoveStringLiteralDfa5_0(active0, 0x4000000100000000L, active1, 0x4080000L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x8000000100000000L, active1, 0x8100000L);
       case 77:
       case 109:
          return jjMoveStringLiteralDfa5_0(active0, 0x8200000L, active1, 0L);
       case 78:
       case 110:
-         return jjMoveStringLiteralDfa5_0(active0, 0x40c00000020L, active1, 0x100000000L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x80c00000020L, active1, 0x200000000L);
       case 79:
       case 111:
-         return jjMoveStringLiteralDfa5_0(active0, 0x80000000000L, active1, 0x800L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x100000000000L, active1, 0x1000L);
       case 80:
       case 112:
          return jjMoveStringLiteralDfa5_0(active0, 0x2000000000L, active1, 0L);
@@ -798,32 +798,32 @@ private int jjMoveStringLiteralDfa4_0(long old0, long active0, long old1, long a
       case 114:
          if ((active0 & 0x100L) != 0L)
             return jjStartNfaWithStates_0(4, 8, 35);
-         else if ((active1 & 0x10L) != 0L)
-            return jjStartNfaWithStates_0(4, 68, 35);
-         return jjMoveStringLiteralDfa5_0(active0, 0x6000040400000L, active1, 0xc0000010000L);
+         else if ((active1 & 0x20L) != 0L)
+            return jjStartNfaWithStates_0(4, 69, 35);
+         return jjMoveStringLiteralDfa5_0(active0, 0xc000040400000L, active1, 0x180000020000L);
       case 83:
       case 115:
-         if ((active1 & 0x1L) != 0L)
-            return jjStartNfaWithStates_0(4, 64, 35);
+         if ((active1 & 0x2L) != 0L)
+            return jjStartNfaWithStates_0(4, 65, 35);
          break;
       case 84:
       case 116:
-         if ((active0 & 0x10000000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 40, 35);
-         else if ((active0 & 0x800000000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 47, 35);
-         else if ((active0 & 0x100000000000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 56, 35);
-         else if ((active1 & 0x2000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 89, 35);
-         return jjMoveStringLiteralDfa5_0(active0, 0x4010800000L, active1, 0x20000000000L);
+         if ((active0 & 0x20000000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 41, 35);
+         else if ((active0 & 0x1000000000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 48, 35);
+         else if ((active0 & 0x200000000000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 57, 35);
+         else if ((active1 & 0x4000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 90, 35);
+         return jjMoveStringLiteralDfa5_0(active0, 0x4010800000L, active1, 0x40000000000L);
       case 85:
       case 117:
-         return jjMoveStringLiteralDfa5_0(active0, 0L, active1, 0x10000000080L);
+         return jjMoveStringLiteralDfa5_0(active0, 0L, active1, 0x20000000100L);
       case 88:
       case 120:
-         if ((active0 & 0x1000000000000L) != 0L)
-            return jjStartNfaWithStates_0(4, 48, 35);
+         if ((active0 & 0x2000000000000L) != 0L)
+            return jjStartNfaWithStates_0(4, 49, 35);
          break;
       case 89:
       case 121:
@@ -847,13 +847,13 @@ private int jjMoveStringLiteralDfa5_0(long old0, long active0, long old1, long a
    switch(curChar)
    {
       case 95:
-         return jjMoveStringLiteralDfa6_0(active0, 0x8000000000L, active1, 0x400000000L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x10000000000L, active1, 0x800000000L);
       case 65:
       case 97:
-         return jjMoveStringLiteralDfa6_0(active0, 0xa010000L, active1, 0x4000000000L);
+         return jjMoveStringLiteralDfa6_0(active0, 0xa010000L, active1, 0x8000000000L);
       case 66:
       case 98:
-         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x20000800L);
+         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x40001000L);
       case 67:
       case 99:
          return jjMoveStringLiteralDfa6_0(active0, 0x20L, active1, 0L);
@@ -872,73 +872,73 @@ private int jjMoveStringLiteralDfa5_0(long old0, long active0, long old1, long a
          }
          else if ((active0 & 0x2000000000L) != 0L)
             return jjStartNfaWithStates_0(5, 37, 35);
-         else if ((active1 & 0x80000L) != 0L)
-            return jjStartNfaWithStates_0(5, 83, 35);
-         else if ((active1 & 0x10000000000L) != 0L)
-            return jjStartNfaWithStates_0(5, 104, 35);
+         else if ((active1 & 0x100000L) != 0L)
+            return jjStartNfaWithStates_0(5, 84, 35);
          else if ((active1 & 0x20000000000L) != 0L)
             return jjStartNfaWithStates_0(5, 105, 35);
+         else if ((active1 & 0x40000000000L) != 0L)
+            return jjStartNfaWithStates_0(5, 106, 35);
          return jjMoveStringLiteralDfa6_0(active0, 0x800408000L, active1, 0L);
       case 71:
       case 103:
-         if ((active0 & 0x40000000000L) != 0L)
-            return jjStartNfaWithStates_0(5, 42, 35);
-         else if ((active1 & 0x100000000L) != 0L)
-            return jjStartNfaWithStates_0(5, 96, 35);
-         return jjMoveStringLiteralDfa6_0(active0, 0x80000000000L, active1, 0L);
+         if ((active0 & 0x80000000000L) != 0L)
+            return jjStartNfaWithStates_0(5, 43, 35);
+         else if ((active1 & 0x200000000L) != 0L)
+            return jjStartNfaWithStates_0(5, 97, 35);
+         return jjMoveStringLiteralDfa6_0(active0, 0x100000000000L, active1, 0L);
       case 73:
       case 105:
-         return jjMoveStringLiteralDfa6_0(active0, 0x40004000L, active1, 0x4000000L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x8040004000L, active1, 0x8000000L);
       case 76:
       case 108:
-         return jjMoveStringLiteralDfa6_0(active0, 0x4000000000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x8000000000000000L, active1, 0L);
       case 77:
       case 109:
-         if ((active1 & 0x40000000L) != 0L)
+         if ((active1 & 0x80000000L) != 0L)
          {
-            jjmatchedKind = 94;
+            jjmatchedKind = 95;
             jjmatchedPos = 5;
          }
-         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x80000000L);
+         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x100000000L);
       case 78:
       case 110:
-         return jjMoveStringLiteralDfa6_0(active0, 0x81200000L, active1, 0x8200020L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x81200000L, active1, 0x10400040L);
       case 82:
       case 114:
-         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x8400L);
+         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x10800L);
       case 83:
       case 115:
          if ((active0 & 0x4000000000L) != 0L)
             return jjStartNfaWithStates_0(5, 38, 35);
-         else if ((active1 & 0x800000000L) != 0L)
+         else if ((active1 & 0x1000000000L) != 0L)
          {
-            jjmatchedKind = 99;
+            jjmatchedKind = 100;
             jjmatchedPos = 5;
          }
-         else if ((active1 & 0x8000000000L) != 0L)
-            return jjStartNfaWithStates_0(5, 103, 35);
-         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x1000010000L);
+         else if ((active1 & 0x10000000000L) != 0L)
+            return jjStartNfaWithStates_0(5, 104, 35);
+         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x2000020000L);
       case 84:
       case 116:
-         if ((active0 & 0x2000000000000L) != 0L)
+         if ((active0 & 0x4000000000000L) != 0L)
          {
-            jjmatchedKind = 49;
+            jjmatchedKind = 50;
             jjmatchedPos = 5;
          }
-         else if ((active1 & 0x80L) != 0L)
-            return jjStartNfaWithStates_0(5, 71, 35);
-         else if ((active1 & 0x100000L) != 0L)
-            return jjStartNfaWithStates_0(5, 84, 35);
-         else if ((active1 & 0x40000000000L) != 0L)
+         else if ((active1 & 0x100L) != 0L)
+            return jjStartNfaWithStates_0(5, 72, 35);
+         else if ((active1 & 0x200000L) != 0L)
+            return jjStartNfaWithStates_0(5, 85, 35);
+         else if ((active1 & 0x80000000000L) != 0L)
          {
-            jjmatchedKind = 106;
+            jjmatchedKind = 107;
             jjmatchedPos = 5;
          }
-         return jjMoveStringLiteralDfa6_0(active0, 0x4000000000000L, active1, 0x80000000100L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x8000000000000L, active1, 0x100000000200L);
       case 89:
       case 121:
-         if ((active0 & 0x400000000000L) != 0L)
-            return jjStartNfaWithStates_0(5, 46, 24);
+         if ((active0 & 0x800000000000L) != 0L)
+            return jjStartNfaWithStates_0(5, 47, 24);
          break;
       default :
          break;
@@ -957,32 +957,32 @@ private int jjMoveStringLiteralDfa6_0(long old0, long active0, long old1, long a
    switch(curChar)
    {
       case 95:
-         return jjMoveStringLiteralDfa7_0(active0, 0x4000000200000L, active1, 0x80000000000L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x8000000200000L, active1, 0x100000000000L);
       case 65:
       case 97:
-         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x20L);
+         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x40L);
       case 66:
       case 98:
          return jjMoveStringLiteralDfa7_0(active0, 0x40000000L, active1, 0L);
       case 67:
       case 99:
-         return jjMoveStringLiteralDfa7_0(active0, 0x80000000L, active1, 0x8200000L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x80000000L, active1, 0x10400000L);
       case 68:
       case 100:
-         return jjMoveStringLiteralDfa7_0(active0, 0x8000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x10000000000L, active1, 0L);
       case 69:
       case 101:
          if ((active0 & 0x20L) != 0L)
             return jjStartNfaWithStates_0(6, 5, 35);
-         else if ((active1 & 0x10000L) != 0L)
-            return jjStartNfaWithStates_0(6, 80, 35);
+         else if ((active1 & 0x20000L) != 0L)
+            return jjStartNfaWithStates_0(6, 81, 35);
          break;
       case 70:
       case 102:
-         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x400000000L);
+         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x800000000L);
       case 73:
       case 105:
-         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x100L);
+         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x200L);
       case 76:
       case 108:
          if ((active0 & 0x8000000L) != 0L)
@@ -994,38 +994,40 @@ private int jjMoveStringLiteralDfa6_0(long old0, long active0, long old1, long a
             return jjStartNfaWithStates_0(6, 15, 35);
          else if ((active0 & 0x10000L) != 0L)
             return jjStartNfaWithStates_0(6, 16, 35);
-         return jjMoveStringLiteralDfa7_0(active0, 0x4000L, active1, 0x4004000000L);
+         else if ((active0 & 0x8000000000L) != 0L)
+            return jjStartNfaWithStates_0(6, 39, 35);
+         return jjMoveStringLiteralDfa7_0(active0, 0x4000L, active1, 0x8008000000L);
       case 79:
       case 111:
-         return jjMoveStringLiteralDfa7_0(active0, 0x4000000000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x8000000000000000L, active1, 0L);
       case 80:
       case 112:
-         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x1000000000L);
+         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x2000000000L);
       case 82:
       case 114:
-         return jjMoveStringLiteralDfa7_0(active0, 0x80000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x100000000000L, active1, 0L);
       case 83:
       case 115:
          if ((active0 & 0x800000000L) != 0L)
             return jjStartNfaWithStates_0(6, 35, 35);
-         else if ((active1 & 0x80000000L) != 0L)
-            return jjStartNfaWithStates_0(6, 95, 35);
+         else if ((active1 & 0x100000000L) != 0L)
+            return jjStartNfaWithStates_0(6, 96, 35);
          return jjMoveStringLiteralDfa7_0(active0, 0x2400000L, active1, 0L);
       case 84:
       case 116:
          if ((active0 & 0x1000000L) != 0L)
             return jjStartNfaWithStates_0(6, 24, 35);
-         else if ((active1 & 0x8000L) != 0L)
-            return jjStartNfaWithStates_0(6, 79, 35);
+         else if ((active1 & 0x10000L) != 0L)
+            return jjStartNfaWithStates_0(6, 80, 35);
          break;
       case 85:
       case 117:
-         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x800L);
+         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x1000L);
       case 89:
       case 121:
-         if ((active1 & 0x400L) != 0L)
-            return jjStartNfaWithStates_0(6, 74, 35);
-         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x20000000L);
+         if ((active1 & 0x800L) != 0L)
+            return jjStartNfaWithStates_0(6, 75, 35);
+         return jjMoveStringLiteralDfa7_0(active0, 0L, active1, 0x40000000L);
       default :
          break;
    }
@@ -1043,39 +1045,39 @@ private int jjMoveStringLiteralDfa7_0(long old0, long active0, long old1, long a
    switch(curChar)
    {
       case 95:
-         return jjMoveStringLiteralDfa8_0(active0, 0L, active1, 0x20000000L);
+         return jjMoveStringLiteralDfa8_0(active0, 0L, active1, 0x40000000L);
       case 65:
       case 97:
-         return jjMoveStringLiteralDfa8_0(active0, 0x4080000000000L, active1, 0x81000000000L);
+         return jjMoveStringLiteralDfa8_0(active0, 0x8100000000000L, active1, 0x102000000000L);
       case 67:
       case 99:
          return jjMoveStringLiteralDfa8_0(active0, 0x4000L, active1, 0L);
       case 68:
       case 100:
-         return jjMoveStringLiteralDfa8_0(active0, 0L, active1, 0x4000000000L);
+         return jjMoveStringLiteralDfa8_0(active0, 0L, active1, 0x8000000000L);
       case 69:
       case 101:
          if ((active0 & 0x40000000L) != 0L)
             return jjStartNfaWithStates_0(7, 30, 35);
-         else if ((active1 & 0x200000L) != 0L)
+         else if ((active1 & 0x400000L) != 0L)
          {
-            jjmatchedKind = 85;
+            jjmatchedKind = 86;
             jjmatchedPos = 7;
          }
-         return jjMoveStringLiteralDfa8_0(active0, 0x8002000000L, active1, 0x8000000L);
+         return jjMoveStringLiteralDfa8_0(active0, 0x10002000000L, active1, 0x10000000L);
       case 70:
       case 102:
-         if ((active1 & 0x800L) != 0L)
-            return jjStartNfaWithStates_0(7, 75, 35);
+         if ((active1 & 0x1000L) != 0L)
+            return jjStartNfaWithStates_0(7, 76, 35);
          return jjMoveStringLiteralDfa8_0(active0, 0x200000L, active1, 0L);
       case 76:
       case 108:
-         if ((active1 & 0x20L) != 0L)
-            return jjStartNfaWithStates_0(7, 69, 35);
+         if ((active1 & 0x40L) != 0L)
+            return jjStartNfaWithStates_0(7, 70, 35);
          break;
       case 79:
       case 111:
-         return jjMoveStringLiteralDfa8_0(active0, 0L, active1, 0x400000100L);
+         return jjMoveStringLiteralDfa8_0(active0, 0L, active1, 0x800000200L);
       case 83:
       case 115:
          return jjMoveStringLiteralDfa8_0(active0, 0x400000L, active1, 0L);
@@ -1083,13 +1085,13 @@ private int jjMoveStringLiteralDfa7_0(long old0, long active0, long old1, long a
       case 116:
          if ((active0 & 0x80000000L) != 0L)
             return jjStartNfaWithStates_0(7, 31, 35);
-         else if ((active1 & 0x4000000L) != 0L)
-            return jjStartNfaWithStates_0(7, 90, 35);
+         else if ((active1 & 0x8000000L) != 0L)
+            return jjStartNfaWithStates_0(7, 91, 35);
          break;
       case 87:
       case 119:
-         if ((active0 & 0x4000000000000000L) != 0L)
-            return jjStartNfaWithStates_0(7, 62, 35);
+         if ((active0 & 0x8000000000000000L) != 0L)
+            return jjStartNfaWithStates_0(7, 63, 35);
          break;
       default :
          break;
@@ -1108,42 +1110,42 @@ private int jjMoveStringLiteralDfa8_0(long old0, long active0, long old1, long a
    switch(curChar)
    {
       case 95:
-         return jjMoveStringLiteralDfa9_0(active0, 0L, active1, 0x4000000000L);
+         return jjMoveStringLiteralDfa9_0(active0, 0L, active1, 0x8000000000L);
       case 65:
       case 97:
          return jjMoveStringLiteralDfa9_0(active0, 0x200000L, active1, 0L);
       case 67:
       case 99:
-         return jjMoveStringLiteralDfa9_0(active0, 0L, active1, 0x1000000000L);
+         return jjMoveStringLiteralDfa9_0(active0, 0L, active1, 0x2000000000L);
       case 69:
       case 101:
          return jjMoveStringLiteralDfa9_0(active0, 0x400000L, active1, 0L);
       case 76:
       case 108:
-         return jjMoveStringLiteralDfa9_0(active0, 0x8000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa9_0(active0, 0x10000000000L, active1, 0L);
       case 77:
       case 109:
-         if ((active0 & 0x80000000000L) != 0L)
-            return jjStartNfaWithStates_0(8, 43, 35);
+         if ((active0 & 0x100000000000L) != 0L)
+            return jjStartNfaWithStates_0(8, 44, 35);
          break;
       case 78:
       case 110:
-         if ((active1 & 0x100L) != 0L)
-            return jjStartNfaWithStates_0(8, 72, 35);
+         if ((active1 & 0x200L) != 0L)
+            return jjStartNfaWithStates_0(8, 73, 35);
          break;
       case 80:
       case 112:
-         return jjMoveStringLiteralDfa9_0(active0, 0x4000000000000L, active1, 0x80000000000L);
+         return jjMoveStringLiteralDfa9_0(active0, 0x8000000000000L, active1, 0x100000000000L);
       case 82:
       case 114:
-         return jjMoveStringLiteralDfa9_0(active0, 0x4000L, active1, 0x400000000L);
+         return jjMoveStringLiteralDfa9_0(active0, 0x4000L, active1, 0x800000000L);
       case 83:
       case 115:
          if ((active0 & 0x2000000L) != 0L)
             return jjStartNfaWithStates_0(8, 25, 35);
-         else if ((active1 & 0x8000000L) != 0L)
-            return jjStartNfaWithStates_0(8, 91, 35);
-         return jjMoveStringLiteralDfa9_0(active0, 0L, active1, 0x20000000L);
+         else if ((active1 & 0x10000000L) != 0L)
+            return jjStartNfaWithStates_0(8, 92, 35);
+         return jjMoveStringLiteralDfa9_0(active0, 0L, active1, 0x40000000L);
       default :
          break;
    }
@@ -1162,7 +1164,7 @@ private int jjMoveStringLiteralDfa9_0(long old0, long active0, long old1, long a
    {
       case 65:
       case 97:
-         return jjMoveStringLiteralDfa10_0(active0, 0x8000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa10_0(active0, 0x10000000000L, active1, 0L);
       case 68:
       case 100:
          if ((active0 & 0x400000L) != 0L)
@@ -1170,21 +1172,21 @@ private int jjMoveStringLiteralDfa9_0(long old0, long active0, long old1, long a
          break;
       case 69:
       case 101:
-         if ((active1 & 0x1000000000L) != 0L)
-            return jjStartNfaWithStates_0(9, 100, 35);
+         if ((active1 & 0x2000000000L) != 0L)
+            return jjStartNfaWithStates_0(9, 101, 35);
          return jjMoveStringLiteralDfa10_0(active0, 0x4000L, active1, 0L);
       case 77:
       case 109:
-         return jjMoveStringLiteralDfa10_0(active0, 0x200000L, active1, 0x400000000L);
+         return jjMoveStringLiteralDfa10_0(active0, 0x200000L, active1, 0x800000000L);
       case 80:
       case 112:
-         return jjMoveStringLiteralDfa10_0(active0, 0x4000000000000L, active1, 0x80000000000L);
+         return jjMoveStringLiteralDfa10_0(active0, 0x8000000000000L, active1, 0x100000000000L);
       case 84:
       case 116:
-         return jjMoveStringLiteralDfa10_0(active0, 0L, active1, 0x20000000L);
+         return jjMoveStringLiteralDfa10_0(active0, 0L, active1, 0x40000000L);
       case 86:
       case 118:
-         return jjMoveStringLiteralDfa10_0(active0, 0L, active1, 0x4000000000L);
+         return jjMoveStringLiteralDfa10_0(active0, 0L, active1, 0x8000000000L);
       default :
          break;
    }
@@ -1203,10 +1205,10 @@ private int jjMoveStringLiteralDfa10_0(long old0, long active0, long old1, long
    {
       case 65:
       case 97:
-         return jjMoveStringLiteralDfa11_0(active0, 0L, active1, 0x4400000000L);
+         return jjMoveStringLiteralDfa11_0(active0, 0L, active1, 0x8800000000L);
       case 69:
       case 101:
-         return jjMoveStringLiteralDfa11_0(active0, 0x4000000000000L, active1, 0x80020000000L);
+         return jjMoveStringLiteralDfa11_0(active0, 0x8000000000000L, active1, 0x100040000000L);
       case 73:
       case 105:
          return jjMoveStringLiteralDfa11_0(active0, 0x200000L, active1, 0L);
@@ -1215,8 +1217,8 @@ private int jjMoveStringLiteralDfa10_0(long old0, long active0, long old1, long
          return jjMoveStringLiteralDfa11_0(active0, 0x4000L, active1, 0L);
       case 89:
       case 121:
-         if ((active0 & 0x8000000000L) != 0L)
-            return jjStartNfaWithStates_0(10, 39, 24);
+         if ((active0 & 0x10000000000L) != 0L)
+            return jjStartNfaWithStates_0(10, 40, 24);
          break;
       default :
          break;
@@ -1239,19 +1241,19 @@ private int jjMoveStringLiteralDfa11_0(long old0, long active0, long old1, long
          return jjMoveStringLiteralDfa12_0(active0, 0x4000L, active1, 0L);
       case 76:
       case 108:
-         return jjMoveStringLiteralDfa12_0(active0, 0x200000L, active1, 0x4000000000L);
+         return jjMoveStringLiteralDfa12_0(active0, 0x200000L, active1, 0x8000000000L);
       case 78:
       case 110:
-         return jjMoveStringLiteralDfa12_0(active0, 0x4000000000000L, active1, 0x80000000000L);
+         return jjMoveStringLiteralDfa12_0(active0, 0x8000000000000L, active1, 0x100000000000L);
       case 80:
       case 112:
-         if ((active1 & 0x20000000L) != 0L)
-            return jjStartNfaWithStates_0(11, 93, 24);
+         if ((active1 & 0x40000000L) != 0L)
+            return jjStartNfaWithStates_0(11, 94, 24);
          break;
       case 84:
       case 116:
-         if ((active1 & 0x400000000L) != 0L)
-            return jjStartNfaWithStates_0(11, 98, 24);
+         if ((active1 & 0x800000000L) != 0L)
+            return jjStartNfaWithStates_0(11, 99, 24);
          break;
       default :
          break;
@@ -1271,17 +1273,17 @@ private int jjMoveStringLiteralDfa12_0(long old0, long active0, long old1, long
    {
       case 68:
       case 100:
-         if ((active0 & 0x4000000000000L) != 0L)
-            return jjStartNfaWithStates_0(12, 50, 24);
-         else if ((active1 & 0x80000000000L) != 0L)
-            return jjStartNfaWithStates_0(12, 107, 24);
+         if ((active0 & 0x8000000000000L) != 0L)
+            return jjStartNfaWithStates_0(12, 51, 24);
+         else if ((active1 & 0x100000000000L) != 0L)
+            return jjStartNfaWithStates_0(12, 108, 24);
          break;
       case 78:
       case 110:
          return jjMoveStringLiteralDfa13_0(active0, 0x4000L, active1, 0L);
       case 85:
       case 117:
-         return jjMoveStringLiteralDfa13_0(active0, 0L, active1, 0x4000000000L);
+         return jjMoveStringLiteralDfa13_0(active0, 0L, active1, 0x8000000000L);
       case 89:
       case 121:
          if ((active0 & 0x200000L) != 0L)
@@ -1305,8 +1307,8 @@ private int jjMoveStringLiteralDfa13_0(long old0, long active0, long old1, long
    {
       case 69:
       case 101:
-         if ((active1 & 0x4000000000L) != 0L)
-            return jjStartNfaWithStates_0(13, 102, 24);
+         if ((active1 & 0x8000000000L) != 0L)
+            return jjStartNfaWithStates_0(13, 103, 24);
          break;
       case 84:
       case 116:
@@ -1351,15 +1353,15 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 24:
                   if ((0x3ff401800000000L & l) == 0L)
                      break;
-                  if (kind > 125)
-                     kind = 125;
+                  if (kind > 126)
+                     kind = 126;
                   jjCheckNAdd(24);
                   break;
                case 0:
                   if ((0x3ff000000000000L & l) != 0L)
                   {
-                     if (kind > 114)
-                        kind = 114;
+                     if (kind > 115)
+                        kind = 115;
                      jjCheckNAddStates(0, 5);
                   }
                   else if (curChar == 34)
@@ -1378,8 +1380,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 2:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 114)
-                     kind = 114;
+                  if (kind > 115)
+                     kind = 115;
                   jjstateSet[jjnewStateCnt++] = 2;
                   break;
                case 3:
@@ -1389,8 +1391,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 4:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 117)
-                     kind = 117;
+                  if (kind > 118)
+                     kind = 118;
                   jjCheckNAddStates(6, 8);
                   break;
                case 5:
@@ -1400,8 +1402,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 7:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 117)
-                     kind = 117;
+                  if (kind > 118)
+                     kind = 118;
                   jjstateSet[jjnewStateCnt++] = 7;
                   break;
                case 8:
@@ -1415,8 +1417,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 10:
                   if (curChar != 39)
                      break;
-                  if (kind > 122)
-                     kind = 122;
+                  if (kind > 123)
+                     kind = 123;
                   jjstateSet[jjnewStateCnt++] = 11;
                   break;
                case 11:
@@ -1430,15 +1432,15 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 13:
                   if (curChar != 45)
                      break;
-                  if (kind > 123)
-                     kind = 123;
+                  if (kind > 124)
+                     kind = 124;
                   jjCheckNAdd(14);
                   break;
                case 14:
                   if ((0xffffffffffffdbffL & l) == 0L)
                      break;
-                  if (kind > 123)
-                     kind = 123;
+                  if (kind > 124)
+                     kind = 124;
                   jjCheckNAdd(14);
                   break;
                case 15:
@@ -1466,8 +1468,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                      jjCheckNAddTwoStates(20, 18);
                   break;
                case 21:
-                  if (curChar == 47 && kind > 124)
-                     kind = 124;
+                  if (curChar == 47 && kind > 125)
+                     kind = 125;
                   break;
                case 22:
                   if (curChar == 47)
@@ -1482,21 +1484,21 @@ private int jjMoveNfa_0(int startState, int curPos)
                      jjCheckNAddTwoStates(26, 27);
                   break;
                case 27:
-                  if (curChar == 34 && kind > 128)
-                     kind = 128;
+                  if (curChar == 34 && kind > 129)
+                     kind = 129;
                   break;
                case 28:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 114)
-                     kind = 114;
+                  if (kind > 115)
+                     kind = 115;
                   jjCheckNAddStates(0, 5);
                   break;
                case 29:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 114)
-                     kind = 114;
+                  if (kind > 115)
+                     kind = 115;
                   jjCheckNAdd(29);
                   break;
                case 30:
@@ -1514,8 +1516,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 34:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 117)
-                     kind = 117;
+                  if (kind > 118)
+                     kind = 118;
                   jjstateSet[jjnewStateCnt++] = 34;
                   break;
                default : break;
@@ -1532,14 +1534,14 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 35:
                   if ((0x7fffffe87fffffeL & l) != 0L)
                   {
-                     if (kind > 125)
-                        kind = 125;
+                     if (kind > 126)
+                        kind = 126;
                      jjCheckNAdd(24);
                   }
                   if ((0x7fffffe07fffffeL & l) != 0L)
                   {
-                     if (kind > 125)
-                        kind = 125;
+                     if (kind > 126)
+                        kind = 126;
                      jjCheckNAddTwoStates(23, 24);
                   }
                   break;
@@ -1547,8 +1549,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 23:
                   if ((0x7fffffe07fffffeL & l) == 0L)
                      break;
-                  if (kind > 125)
-                     kind = 125;
+                  if (kind > 126)
+                     kind = 126;
                   jjCheckNAddTwoStates(23, 24);
                   break;
                case 1:
@@ -1558,8 +1560,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 2:
                   if ((0x7e0000007eL & l) == 0L)
                      break;
-                  if (kind > 114)
-                     kind = 114;
+                  if (kind > 115)
+                     kind = 115;
                   jjCheckNAdd(2);
                   break;
                case 6:
@@ -1573,8 +1575,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                   jjCheckNAddTwoStates(12, 10);
                   break;
                case 14:
-                  if (kind > 123)
-                     kind = 123;
+                  if (kind > 124)
+                     kind = 124;
                   jjstateSet[jjnewStateCnt++] = 14;
                   break;
                case 17:
@@ -1587,8 +1589,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 24:
                   if ((0x7fffffe87fffffeL & l) == 0L)
                      break;
-                  if (kind > 125)
-                     kind = 125;
+                  if (kind > 126)
+                     kind = 126;
                   jjCheckNAdd(24);
                   break;
                case 26:
@@ -1621,8 +1623,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 14:
                   if ((jjbitVec0[i2] & l2) == 0L)
                      break;
-                  if (kind > 123)
-                     kind = 123;
+                  if (kind > 124)
+                     kind = 124;
                   jjstateSet[jjnewStateCnt++] = 14;
                   break;
                case 17:
@@ -1671,22 +1673,22 @@ null, null, null, null, null, null, null, null, null, null, null, null, null, nu
 null, null, null, null, null, null, null, null, null, null, null, null, null, null, 
 null, null, null, null, null, null, null, null, null, null, null, null, null, null, 
 null, null, null, null, null, null, null, null, null, null, null, null, null, null, 
-null, null, null, null, "\77", "\50", "\51", "\133\135", "\54", "\75", "\52\52", 
-"\53", "\55", "\133", "\135", "\46", "\174", "\136", "\74\74", "\76\76", "\174\174", 
-"\52", "\57", "\41", "\76", "\74", "\75\76", };
+null, null, null, null, null, "\77", "\50", "\51", "\133\135", "\54", "\75", 
+"\52\52", "\53", "\55", "\133", "\135", "\46", "\174", "\136", "\74\74", "\76\76", 
+"\174\174", "\52", "\57", "\41", "\76", "\74", "\75\76", };
 
 /** Lexer state names. */
 public static final String[] lexStateNames = {
    "DEFAULT",
 };
 static final long[] jjtoToken = {
-   0xffffffffffffffe1L, 0x2427ffffffffffffL, 0xffffffL, 
+   0xffffffffffffffe1L, 0x484fffffffffffffL, 0x1fffffeL, 
 };
 static final long[] jjtoSkip = {
-   0x1eL, 0x1800000000000000L, 0x0L, 
+   0x1eL, 0x3000000000000000L, 0x0L, 
 };
 static final long[] jjtoSpecial = {
-   0x0L, 0x1800000000000000L, 0x0L, 
+   0x0L, 0x3000000000000000L, 0x0L, 
 };
 protected SimpleCharStream input_stream;
 private final int[] jjrounds = new int[35];
@@ -1,16 +1,20 @@
 package org.yamcs.yarch.streamsql;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.yamcs.logging.Log;
+import org.yamcs.utils.ByteArrayUtils;
 import org.yamcs.utils.TimeInterval;
 import org.yamcs.yarch.ColumnDefinition;
 import org.yamcs.yarch.DataType;
 import org.yamcs.yarch.DbRange;
 import org.yamcs.yarch.FilterableTarget;
 import org.yamcs.yarch.PartitioningSpec;
+import org.yamcs.yarch.RawRowFilter;
 import org.yamcs.yarch.TableColumnDefinition;
 import org.yamcs.yarch.TableDefinition;
 import org.yamcs.yarch.TableWalker;
@@ -19,6 +23,21 @@ import org.yamcs.yarch.streamsql.StreamSqlException.ErrCode;
 
 import com.google.common.collect.BiMap;
 
+/**
+ * Builds the {@link TableWalker} for a select, update or delete statement, pushing down the conditions of the where
+ * clause:
+ * <ul>
+ * <li>conditions on the first column of the primary key restrict the range of keys walked.</li>
+ * <li>equality conditions on the leading columns of the primary key restrict the walk to the keys having the
+ * corresponding prefix; a range condition on the column following the prefix restricts it further.</li>
+ * <li>conditions on the partitioning columns restrict the partitions walked.</li>
+ * <li>conditions on the first column of the secondary index cause the walk through the index instead of the
+ * table. For the equality and IN conditions the rows are still provided in the primary key order.</li>
+ * <li>the other equality conditions on the key columns or on the value columns (for the tables in the columnar
+ * format) are verified on the serialized row by a {@link RawRowFilter}, before the tuple is deserialized.</li>
+ * </ul>
+ * All conditions are still verified on the resulting tuples.
+ */
 public class TableWalkerBuilder implements FilterableTarget {
     static Log log = new Log(TableWalkerBuilder.class);
 
@@ -32,7 +51,24 @@ public class TableWalkerBuilder implements FilterableTarget {
     private DbRange pkRange;
 
     // filter on secondary key
-    private DbRange skRange;
+    // serialized values of the first secondary key column from the equality and IN conditions
+    private Set<byte[]> skValues;
+
+    // serialized values of the equality conditions on the primary key columns, by index in the key
+    private final Object[] keyValues;
+    private final byte[][] keyEqualities;
+    // serialized limits of the range conditions on the primary key columns
+    private final byte[][] keyStarts;
+    private final byte[][] keyEnds;
+    private final String[] keyEqPredicates;
+    private final String[] keyStartPredicates;
+    private final String[] keyEndPredicates;
+
+    // equality conditions verified on the serialized value
+    private final List<Object[]> valueEqualities = new ArrayList<>();
+
+    // predicate and pushdown method for all conditions pushed down
+    private final List<String[]> pushedPredicates = new ArrayList<>();
 
     private boolean ascending = true;
     private boolean follow = false;
@@ -40,6 +76,14 @@ public class TableWalkerBuilder implements FilterableTarget {
     public TableWalkerBuilder(YarchDatabaseInstance ydb, TableDefinition tableDefinition) {
         this.ydb = ydb;
         this.tableDefinition = tableDefinition;
+        int n = tableDefinition.getKeyDefinition().size();
+        keyValues = new Object[n];
+        keyEqualities = new byte[n][];
+        keyStarts = new byte[n][];
+        keyEnds = new byte[n][];
+        keyEqPredicates = new String[n];
+        keyStartPredicates = new String[n];
+        keyEndPredicates = new String[n];
     }
 
     @Override
@@ -60,29 +104,27 @@ public class TableWalkerBuilder implements FilterableTarget {
                 pkRange = new DbRange();
             }
             addToRange(pkRange, relOp, val);
+            addKeyCondition(0, relOp, columnValue, val, null);
+            addPushedPredicate(cexpr, relOp, value, "primary key range");
 
             if (tableDefinition.isPartitionedByTime()) {
                 addPartitionTimeFilter(relOp, (Long) columnValue);
+                addPushedPredicate(cexpr, relOp, value, "time partitions");
             }
-        } else {
-            List<String> sidx = tableDefinition.getSecondaryIndex();
-            if (sidx != null && sidx.get(0).equals(columnName)) {
-                TableColumnDefinition tcd = tableDefinition.getColumnDefinition(columnName);
-                byte[] val = null;
-                try {
-                    Object columnValue = DataType.castAs(tcd.getType(), value);
-                    val = tcd.getSerializer().toByteArray(columnValue);
-                } catch (IllegalArgumentException e) {
-                    throw new StreamSqlException(ErrCode.ERROR, e.getMessage());
-                }
-                if (skRange == null) {
-                    skRange = new DbRange();
-                }
-                byte[] b = new byte[val.length+1];
-                b[0] = (byte)(0x70|tcd.getType().getTypeId());
-                System.arraycopy(val, 0, b, 1, val.length);
-                addToRange(skRange, relOp, b);
+        } else if (tableDefinition.hasKey(columnName)) {
+            int keyIdx = tableDefinition.getKeyDefinition().indexOf(tableDefinition.getColumnDefinition(columnName));
+            TableColumnDefinition tcd = tableDefinition.getKeyDefinition().get(keyIdx);
+            Object columnValue = castValue(tcd, value);
+            byte[] val = serialize(tcd, columnValue);
+            if (val != null) {
+                addKeyCondition(keyIdx, relOp, columnValue, val, toPredicate(cexpr, relOp, value));
             }
+        } else {
+            addValueCondition(cexpr, relOp, value);
+        }
+
+        if (relOp == RelOp.EQUAL && isSecondaryIndexColumn(columnName)) {
+            addSecondaryIndexFilter(cexpr, value);
         }
 
         if ((relOp == RelOp.EQUAL) && tableDefinition.hasPartitioning()) {
@@ -96,10 +138,216 @@ public class TableWalkerBuilder implements FilterableTarget {
                 } else {
                     partitionValueFilter.retainAll(values);
                 }
+                addPushedPredicate(cexpr, relOp, value, "value partitions");
             }
         }
     }
 
+    /**
+     * the secondary index is used for the conditions on its first column, unless the column is also the first column
+     * of the primary key
+     */
+    private boolean isSecondaryIndexColumn(String columnName) {
+        List<String> sidx = tableDefinition.getSecondaryIndex();
+        return sidx != null && sidx.get(0).equals(columnName)
+                && !tableDefinition.getKeyDefinition().get(0).getName().equals(columnName);
+    }
+
+    /**
+     * the secondary index is looked up by value, so it is only used for the equality conditions
+     */
+    private void addSecondaryIndexFilter(ColumnExpression cexpr, Object value) throws StreamSqlException {
+        TableColumnDefinition tcd = tableDefinition.getColumnDefinition(cexpr.getName());
+        Object columnValue;
+        try {
+            columnValue = DataType.castAs(tcd.getType(), value);
+        } catch (IllegalArgumentException e) {
+            throw new StreamSqlException(ErrCode.ERROR, e.getMessage());
+        }
+        Set<byte[]> values = new TreeSet<>(ByteArrayUtils::compare);
+        byte[] b = serializeSecondaryKey(tcd, columnValue);
+        if (b != null) {
+            values.add(b);
+        }
+        addSecondaryIndexValues(values);
+        addPushedPredicate(cexpr, RelOp.EQUAL, value, "secondary index");
+    }
+
+    private void addSecondaryIndexValues(Set<byte[]> values) {
+        if (skValues == null) {
+            skValues = values;
+        } else {
+            skValues.retainAll(values);
+        }
+    }
+
+    /**
+     * serializes the value as part of the secondary key: the type id with the non-null flag followed by the value
+     * <p>
+     * returns null if the value cannot be found in the table
+     */
+    private static byte[] serializeSecondaryKey(TableColumnDefinition tcd, Object columnValue) {
+        byte[] val = serialize(tcd, columnValue);
+        if (val == null) {
+            return null;
+        }
+        byte[] b = new byte[val.length + 1];
+        b[0] = (byte) (0x70 | tcd.getType().getTypeId());
+        System.arraycopy(val, 0, b, 1, val.length);
+        return b;
+    }
+
+    private void addKeyCondition(int keyIdx, RelOp relOp, Object columnValue, byte[] val, String predicate) {
+        switch (relOp) {
+        case GREATER:
+        case GREATER_OR_EQUAL:
+            keyStarts[keyIdx] = val;
+            keyStartPredicates[keyIdx] = predicate;
+            break;
+        case LESS:
+        case LESS_OR_EQUAL:
+            keyEnds[keyIdx] = val;
+            keyEndPredicates[keyIdx] = predicate;
+            break;
+        case EQUAL:
+            if (isComparable(tableDefinition.getKeyDefinition().get(keyIdx))) {
+                keyValues[keyIdx] = columnValue;
+                keyEqualities[keyIdx] = val;
+                keyEqPredicates[keyIdx] = predicate;
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * value columns can only be filtered on the serialized data for the tables in the columnar format
+     */
+    private void addValueCondition(ColumnExpression cexpr, RelOp relOp, Object value) {
+        TableColumnDefinition tcd = tableDefinition.getColumnDefinition(cexpr.getName());
+        if (relOp != RelOp.EQUAL || tcd == null || tableDefinition.getFormatVersion() < 4 || !isComparable(tcd)) {
+            return;
+        }
+        byte[] val = serialize(tcd, castValue(tcd, value));
+        if (val == null) {
+            return;
+        }
+        int cidx = tableDefinition.getValueDefinition().indexOf(tcd);
+        valueEqualities.add(new Object[] { cidx, val });
+        addPushedPredicate(cexpr, relOp, value, "raw value filter");
+    }
+
+    private static byte[] serialize(TableColumnDefinition tcd, Object columnValue) {
+        if (columnValue == null) {
+            return null;
+        }
+        if (tcd.getType() == DataType.ENUM) {
+            // do not add new enum values to the table just for the sake of filtering
+            BiMap<String, Short> enumValues = tcd.getEnumValues();
+            if (enumValues == null || !enumValues.containsKey(columnValue)) {
+                return null;
+            }
+        }
+        return tcd.getSerializer().toByteArray(columnValue);
+    }
+
+    /**
+     * the columns for which the serialized value (and the deserialized object) can be compared for equality
+     */
+    private static boolean isComparable(TableColumnDefinition tcd) {
+        switch (tcd.getType().val) {
+        case BOOLEAN:
+        case BYTE:
+        case SHORT:
+        case INT:
+        case LONG:
+        case TIMESTAMP:
+        case STRING:
+        case ENUM:
+        case UUID:
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static Object castValue(TableColumnDefinition tcd, Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return DataType.castAs(tcd.getType(), value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void addPushedPredicate(ColumnExpression cexpr, RelOp relOp, Object value, String pushdown) {
+        pushedPredicates.add(new String[] { toPredicate(cexpr, relOp, value), pushdown });
+    }
+
+    private static String toPredicate(ColumnExpression cexpr, RelOp relOp, Object value) {
+        String v = (value instanceof String) ? "'" + value + "'" : String.valueOf(value);
+        return cexpr.getName() + " " + relOp.getSign() + " " + v;
+    }
+
+    /**
+     * If there are equality conditions on the leading columns of the primary key, computes the range corresponding to
+     * the key prefix and the range condition on the following column.
+     * <p>
+     * The remaining equality conditions on the key columns are added to the raw filter.
+     */
+    private DbRange getPrefixRange(RawRowFilter rawFilter) {
+        List<TableColumnDefinition> keyDef = tableDefinition.getKeyDefinition();
+        int k = 0;
+        int length = 0;
+        while (k < keyDef.size() && keyEqualities[k] != null) {
+            length += keyEqualities[k].length;
+            k++;
+        }
+        for (int i = k + 1; i < keyDef.size(); i++) {
+            if (keyEqualities[i] != null) {
+                rawFilter.addKeyCondition(i, keyValues[i]);
+                pushedPredicates.add(new String[] { keyEqPredicates[i], "raw key filter" });
+            }
+        }
+        if (k < 2 && (k == 0 || k == keyDef.size() || (keyStarts[k] == null && keyEnds[k] == null))) {
+            // the range on the first column is enough
+            return null;
+        }
+        byte[] prefix = new byte[length];
+        int pos = 0;
+        for (int i = 0; i < k; i++) {
+            System.arraycopy(keyEqualities[i], 0, prefix, pos, keyEqualities[i].length);
+            pos += keyEqualities[i].length;
+            if (i > 0) {
+                pushedPredicates.add(new String[] { keyEqPredicates[i], "primary key prefix" });
+            }
+        }
+        DbRange range = new DbRange();
+        range.rangeStart = prefix;
+        range.rangeEnd = prefix;
+        if (k < keyDef.size()) {
+            if (keyStarts[k] != null) {
+                range.rangeStart = concat(prefix, keyStarts[k]);
+                pushedPredicates.add(new String[] { keyStartPredicates[k], "primary key prefix" });
+            }
+            if (keyEnds[k] != null) {
+                range.rangeEnd = concat(prefix, keyEnds[k]);
+                pushedPredicates.add(new String[] { keyEndPredicates[k], "primary key prefix" });
+            }
+        }
+        return range;
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] r = new byte[a.length + b.length];
+        System.arraycopy(a, 0, r, 0, a.length);
+        System.arraycopy(b, 0, r, a.length, b.length);
+        return r;
+    }
+
     private void addPartitionTimeFilter(RelOp relOp, long time) {
         switch (relOp) {
         case GREATER:
@@ -143,10 +391,23 @@ public class TableWalkerBuilder implements FilterableTarget {
     }
 
     /**
-     * currently adds only filters on value based partitions
+     * adds filters on value based partitions and on the secondary index
      */
     @Override
     public void addInFilter(ColumnExpression cexpr, boolean negation, Set<Object> values) throws StreamSqlException {
+        if (!negation && isSecondaryIndexColumn(cexpr.getName())) {
+            TableColumnDefinition tcd = tableDefinition.getColumnDefinition(cexpr.getName());
+            Set<byte[]> skv = new TreeSet<>(ByteArrayUtils::compare);
+            for (Object o : values) {
+                byte[] b = serializeSecondaryKey(tcd, castValue(tcd, o));
+                if (b != null) {
+                    skv.add(b);
+                }
+            }
+            addSecondaryIndexValues(skv);
+            pushedPredicates.add(new String[] { cexpr.getName() + " in " + values, "secondary index" });
+        }
+
         if (!tableDefinition.hasPartitioning()) {
             return;
         }
@@ -175,6 +436,8 @@ public class TableWalkerBuilder implements FilterableTarget {
                 partitionValueFilter.retainAll(values);
             }
         }
+        pushedPredicates.add(new String[] { cexpr.getName() + (negation ? " not in " : " in ") + values,
+                "value partitions" });
         return;
     }
 
@@ -211,21 +474,59 @@ public class TableWalkerBuilder implements FilterableTarget {
             follow = false;
         }
         TableWalker tw;
-        if (skRange == null) {
+        if (!useSecondaryIndex()) {
             tw = ydb.getStorageEngine(tableDefinition).newTableWalker(ydb, tableDefinition, ascending, follow);
             tw.setPartitionFilter(partitionTimeFilter, partitionValueFilter);
         } else {
             tw = ydb.getStorageEngine(tableDefinition).newSecondaryIndexTableWalker(ydb, tableDefinition, ascending,
                     follow);
-            tw.setSecondaryIndexRange(skRange);
+            List<DbRange> skRanges = new ArrayList<>(skValues.size());
+            for (byte[] v : skValues) {
+                DbRange r = new DbRange();
+                r.rangeStart = v;
+                r.rangeEnd = v;
+                skRanges.add(r);
+            }
+            tw.setSecondaryIndexRanges(skRanges);
         }
-      
+
         if (pkRange != null) {
             tw.setPrimaryIndexRange(pkRange);
         }
         return tw;
     }
 
+    /**
+     * Computes the raw row filter and the range corresponding to the primary key prefix (if any).
+     * <p>
+     * Has to be called once, after all the filters have been added and before {@link #build()}.
+     * 
+     * @return a filter to be applied on the serialized rows or null if there is no condition to be verified
+     */
+    public RawRowFilter buildRawFilter() {
+        RawRowFilter rawFilter = new RawRowFilter(tableDefinition);
+        DbRange prefixRange = getPrefixRange(rawFilter);
+        if (prefixRange != null && !useSecondaryIndex()) {
+            pkRange = prefixRange;
+        }
+        for (Object[] ve : valueEqualities) {
+            rawFilter.addValueCondition((Integer) ve[0], (byte[]) ve[1]);
+        }
+        return rawFilter.isEmpty() ? null : rawFilter;
+    }
+
+    private boolean useSecondaryIndex() {
+        return skValues != null;
+    }
+
+    /**
+     * @return the list of conditions pushed down to the table walker; each element is a two elements array containing
+     *         the predicate and the way it has been pushed down.
+     */
+    public List<String[]> getPushedPredicates() {
+        return pushedPredicates;
+    }
+
     public void setAscending(boolean ascending) {
         this.ascending = ascending;
     }
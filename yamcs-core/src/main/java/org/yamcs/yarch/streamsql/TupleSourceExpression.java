@@ -1,11 +1,15 @@
 package org.yamcs.yarch.streamsql;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.yamcs.logging.Log;
 import org.yamcs.yarch.FilterableTarget;
 import org.yamcs.yarch.HistogramReaderStream;
+import org.yamcs.yarch.RawRowFilter;
 import org.yamcs.yarch.Stream;
 import org.yamcs.yarch.TableDefinition;
 import org.yamcs.yarch.TableWalker;
@@ -51,6 +55,9 @@ public class TupleSourceExpression implements FilterableTarget {
 
     Type type;
 
+    // the columns required by the consumer of the tuples; null means all
+    Set<String> projection;
+
     public TupleSourceExpression(String name) {
         this.objectName = name;
     }
@@ -157,8 +164,12 @@ public class TupleSourceExpression implements FilterableTarget {
             }
             break;
         case TABLE:
+            RawRowFilter rawFilter = tableWalkerBuilder.buildRawFilter();
             TableWalker tblit = tableWalkerBuilder.build();
-            stream = new TableReaderStream(ydb, tableWalkerBuilder.getTableDefinition(), tblit);
+            TableReaderStream trs = new TableReaderStream(ydb, tableWalkerBuilder.getTableDefinition(), tblit);
+            trs.setProjection(projection);
+            trs.setRawRowFilter(rawFilter);
+            stream = trs;
             break;
         case TABLE_HISTOGRAM:
             HistogramReaderStream histoStream = histogramStreamBuilder.build();
@@ -184,7 +195,32 @@ public class TupleSourceExpression implements FilterableTarget {
         this.follow = follow;
     }
 
+    /**
+     * Sets the columns required from this source. For tables, the other columns will not be deserialized.
+     */
+    void setProjection(Set<String> projection) {
+        this.projection = projection;
+    }
+
     TupleDefinition getDefinition() {
         return definition;
     }
+
+    /**
+     * Returns the conditions and the projection pushed down to the table walker (only for tables). Each element is a
+     * two elements array containing the predicate and the way it has been pushed down.
+     * <p>
+     * The filters have to be added before calling this method.
+     */
+    List<String[]> explain() {
+        List<String[]> result = new ArrayList<>();
+        if (type == Type.TABLE) {
+            tableWalkerBuilder.buildRawFilter();
+            result.addAll(tableWalkerBuilder.getPushedPredicates());
+            if (projection != null) {
+                result.add(new String[] { String.join(", ", new TreeSet<>(projection)), "projection" });
+            }
+        }
+        return result;
+    }
 }
@@ -0,0 +1,138 @@
+package org.yamcs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Test;
+import org.yamcs.yarch.Bucket;
+import org.yamcs.yarch.YarchDatabase;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Uploads and downloads bucket objects with plain HTTP requests, such that the streaming of the body and the Range
+ * header can be verified.
+ */
+public class BucketIntegrationTest extends AbstractIntegrationTest {
+
+    Random random = new Random(0);
+
+    @Test
+    public void testUploadAndDownload() throws Exception {
+        // large enough to be stored on disk while received
+        byte[] data = new byte[3 * 1024 * 1024 + 17];
+        random.nextBytes(data);
+
+        HttpURLConnection conn = open("POST", "dir/obj1");
+        conn.setRequestProperty("Content-Type", "application/octet-stream");
+        conn.setFixedLengthStreamingMode(data.length);
+        conn.setDoOutput(true);
+        try (OutputStream out = conn.getOutputStream()) {
+            out.write(data);
+        }
+        assertEquals(200, conn.getResponseCode());
+        conn.disconnect();
+
+        conn = open("GET", "dir/obj1");
+        conn.setRequestProperty("Accept-Encoding", "gzip");
+        assertEquals(200, conn.getResponseCode());
+        assertEquals(String.valueOf(data.length), conn.getHeaderField("Content-Length"));
+        assertEquals("bytes", conn.getHeaderField("Accept-Ranges"));
+        assertNotGzipped(conn);
+        assertArrayEquals(data, readBody(conn));
+    }
+
+    @Test
+    public void testMultipartUpload() throws Exception {
+        byte[] data = new byte[100_000];
+        random.nextBytes(data);
+        String boundary = "----boundary" + Long.toHexString(random.nextLong());
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"obj2\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.write(data);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+
+        HttpURLConnection conn = open("POST", "obj2");
+        conn.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + boundary);
+        conn.setDoOutput(true);
+        try (OutputStream out = conn.getOutputStream()) {
+            body.writeTo(out);
+        }
+        assertEquals(200, conn.getResponseCode());
+        conn.disconnect();
+
+        conn = open("GET", "obj2");
+        assertEquals(200, conn.getResponseCode());
+        assertArrayEquals(data, readBody(conn));
+    }
+
+    @Test
+    public void testRange() throws Exception {
+        byte[] data = new byte[200_000];
+        random.nextBytes(data);
+        Bucket bucket = YarchDatabase.getInstance(YamcsServer.GLOBAL_INSTANCE).getBucket("user.admin");
+        if (bucket == null) {
+            bucket = YarchDatabase.getInstance(YamcsServer.GLOBAL_INSTANCE).createBucket("user.admin");
+        }
+        bucket.putObject("obj3", "application/octet-stream", Collections.emptyMap(), data);
+
+        HttpURLConnection conn = open("GET", "obj3");
+        conn.setRequestProperty("Range", "bytes=1000-70999");
+        conn.setRequestProperty("Accept-Encoding", "gzip");
+        assertEquals(206, conn.getResponseCode());
+        assertEquals("bytes 1000-70999/200000", conn.getHeaderField("Content-Range"));
+        assertEquals("70000", conn.getHeaderField("Content-Length"));
+        assertNotGzipped(conn);
+        assertArrayEquals(Arrays.copyOfRange(data, 1000, 71000), readBody(conn));
+
+        conn = open("GET", "obj3");
+        conn.setRequestProperty("Range", "bytes=-100");
+        assertEquals(206, conn.getResponseCode());
+        assertEquals("bytes 199900-199999/200000", conn.getHeaderField("Content-Range"));
+        assertArrayEquals(Arrays.copyOfRange(data, 199900, 200000), readBody(conn));
+
+        conn = open("GET", "obj3");
+        conn.setRequestProperty("Range", "bytes=200000-");
+        assertEquals(416, conn.getResponseCode());
+        conn.disconnect();
+    }
+
+    private HttpURLConnection open(String method, String objectName) throws IOException {
+        URL url = new URL("http://" + yamcsHost + ":" + yamcsPort + "/api/buckets/_global/user.admin/objects/"
+                + objectName);
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        conn.setRequestMethod(method);
+        String credentials = adminUsername + ":" + new String(adminPassword);
+        conn.setRequestProperty("Authorization",
+                "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        return conn;
+    }
+
+    // the body must not be compressed, otherwise the Content-Length and Content-Range would not match it
+    private static void assertNotGzipped(HttpURLConnection conn) {
+        assertEquals("identity", conn.getHeaderField("Content-Encoding"));
+    }
+
+    private static byte[] readBody(HttpURLConnection conn) throws IOException {
+        try (InputStream in = conn.getInputStream()) {
+            return ByteStreams.toByteArray(in);
+        } finally {
+            conn.disconnect();
+        }
+    }
+}
@@ -21,6 +21,7 @@ import org.yamcs.client.Command;
 import org.yamcs.client.CommandSubscription;
 import org.yamcs.client.Page;
 import org.yamcs.client.archive.ArchiveClient;
+import org.yamcs.client.archive.ArchiveClient.ListOptions;
 import org.yamcs.client.processor.ProcessorClient;
 import org.yamcs.cmdhistory.CommandHistoryPublisher;
 import org.yamcs.cmdhistory.CommandHistoryPublisher.AckStatus;
@@ -393,6 +394,31 @@ public class CommandIntegrationTest extends AbstractIntegrationTest {
         assertEquals("testValue2", entry.getAttribute("testKey2"));
     }
 
+    @Test
+    public void testListCommandsByName() throws Exception {
+        processorClient.prepareCommand("/REFMDB/SUBSYS1/ONE_INT_ARG_TC")
+                .withArgument("uint32_arg", 1000)
+                .withOrigin("IntegrationTest")
+                .withSequenceNumber(6)
+                .issue()
+                .get();
+        processorClient.prepareCommand("/REFMDB/SUBSYS1/INT_ARG_TC")
+                .withArgument("uint32_arg", 1000)
+                .withOrigin("IntegrationTest")
+                .withSequenceNumber(7)
+                .issue()
+                .get();
+
+        Page<Command> page = archiveClient.listCommands(null, null,
+                ListOptions.commands("/REFMDB/SUBSYS1/INT_ARG_TC")).get();
+        int count = 0;
+        for (Command entry : page) {
+            assertEquals("/REFMDB/SUBSYS1/INT_ARG_TC", entry.getName());
+            count++;
+        }
+        assertTrue(count > 0);
+    }
+
     /*
      * private ValidateCommandRequest getValidateCommand(String cmdName, int seq, String... args) { NamedObjectId cmdId
      * = NamedObjectId.newBuilder().setName(cmdName).build();
@@ -327,10 +327,54 @@ public class ParameterArchiveIntegrationTest extends AbstractIntegrationTest {
         assertEquals(23, s0.getAvg(), 1e-5);
     }
 
+    @Test
+    public void testParallelFill() throws Exception {
+        String[] parameters = { "/REFMDB/SUBSYS1/FloatPara1_1_2", "/REFMDB/SUBSYS1/IntegerPara1_1_1",
+                "/REFMDB/SUBSYS1/EnumerationPara1_1_4" };
+        int numIntervals = 4;
+        long duration = ParameterArchive.getIntervalDuration();
+        long t0 = ParameterArchive.getIntervalStart(TimeEncoding.parse("2021-03-01T00:00:00")) + duration;
+        long t1 = t0 + numIntervals * duration - 1;
+        for (int i = 0; i < numIntervals; i++) {
+            generatePkt13AndPps(TimeEncoding.toString(t0 + i * duration + 1000), 200);
+        }
+
+        // the back filler of the integration test instance fills up to 4 intervals in parallel
+        buildParameterArchive(t0, t1);
+        List<List<ParameterValue>> parallel = new ArrayList<>();
+        for (String p : parameters) {
+            List<ParameterValue> values = listArchivedValues(p, t0, t1);
+            assertEquals(numIntervals * 200, values.size());
+            parallel.add(values);
+        }
+
+        // rebuild one interval at a time
+        for (int i = 0; i < numIntervals; i++) {
+            buildParameterArchive(t0 + i * duration, t0 + (i + 1) * duration - 1);
+        }
+        for (int i = 0; i < parameters.length; i++) {
+            assertEquals(parallel.get(i), listArchivedValues(parameters[i], t0, t1));
+        }
+    }
+
+    private List<ParameterValue> listArchivedValues(String parameter, long start, long stop) throws Exception {
+        Page<ParameterValue> page = archiveClient.listValues(parameter,
+                Instant.ofEpochMilli(TimeEncoding.toUnixMillisec(start)),
+                Instant.ofEpochMilli(TimeEncoding.toUnixMillisec(stop)),
+                ListOptions.ascending(true), ListOptions.noRealtime(true), ListOptions.limit(1000)).get();
+        List<ParameterValue> values = new ArrayList<>();
+        page.iterator().forEachRemaining(values::add);
+        return values;
+    }
+
     private void buildParameterArchive(String start, String stop) throws InterruptedException, ExecutionException {
+        buildParameterArchive(TimeEncoding.parse(start), TimeEncoding.parse(stop));
+    }
+
+    private void buildParameterArchive(long start, long stop) throws InterruptedException, ExecutionException {
         ParameterArchive parameterArchive = YamcsServer.getServer().getServices(yamcsInstance, ParameterArchive.class)
                 .get(0);
-        Future<?> f = parameterArchive.reprocess(TimeEncoding.parse(start), TimeEncoding.parse(stop));
+        Future<?> f = parameterArchive.reprocess(start, stop);
         f.get();
     }
 }
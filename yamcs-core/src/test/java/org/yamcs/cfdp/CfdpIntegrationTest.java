@@ -2,16 +2,24 @@ package org.yamcs.cfdp;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.function.IntConsumer;
 
 import org.junit.After;
 import org.junit.Before;
@@ -20,6 +28,7 @@ import org.junit.Test;
 import org.yamcs.YConfiguration;
 import org.yamcs.YamcsServer;
 import org.yamcs.cfdp.pdu.CfdpPacket;
+import org.yamcs.cfdp.pdu.FileDataPacket;
 import org.yamcs.client.YamcsClient;
 import org.yamcs.client.filetransfer.FileTransferClient;
 import org.yamcs.client.filetransfer.FileTransferClient.UploadOptions;
@@ -53,6 +62,10 @@ public class CfdpIntegrationTest {
     private YamcsClient client;
     private FileTransferClient cfdpClient;
 
+    // called with the number of each packet sent by the sender, before it is delivered to the receiver
+    private IntConsumer packetListener = n -> {
+    };
+
     @BeforeClass
     public static void beforeClass() throws Exception {
         EventProducerFactory.setMockup(false);
@@ -168,6 +181,94 @@ public class CfdpIntegrationTest {
     }
     
 
+    @Test
+    public void testClass2WithUplinkRate() throws Exception {
+        byte[] data = createObject("randomfile8", 10000);
+        cfdpClient.setUplinkRate("default", 20000).get();
+        try {
+            // this will lose the second data packet which will be resent at the end
+            uploadAndCheck("randomfile8", data, true, Arrays.asList(3), TransferState.COMPLETED,
+                    TransferState.COMPLETED);
+        } finally {
+            cfdpClient.setUplinkRate("default", 0).get();
+        }
+    }
+
+    @Test
+    public void testClass2WithSeveralLostSegments() throws Exception {
+        byte[] data = createObject("randomfile9", 10000);
+        // the resent data is read from one stream, skipping the data received in between
+        uploadAndCheck("randomfile9", data, true, Arrays.asList(2, 4, 5, 9), TransferState.COMPLETED,
+                TransferState.COMPLETED);
+    }
+
+    @Test
+    public void testClass2WithObjectModified() throws Exception {
+        byte[] data = createObject("randomfile10", 1000);
+        packetListener = n -> {
+            if (n == 3) {
+                try {
+                    createObject("randomfile10", 1000);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        // the lost data cannot be resent because the object has been replaced
+        uploadAndCheck("randomfile10", data, true, Arrays.asList(2), TransferState.FAILED, TransferState.FAILED);
+    }
+
+    @Test
+    public void testConcurrentTransfers() throws Exception {
+        int n = 8;
+        Map<String, byte[]> files = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            files.put("concurrentfile" + i, createObject("concurrentfile" + i, 20000));
+        }
+        MultiFileReceiver rec = new MultiFileReceiver(getConfig());
+
+        // the uploads are started from several threads, the transactions are processed on the threads of the service
+        ExecutorService uploader = Executors.newFixedThreadPool(4);
+        List<Future<TransferInfo>> futures = new ArrayList<>();
+        try {
+            for (String objName : files.keySet()) {
+                ObjectId object = ObjectId.of(outgoingBucket.getName(), objName);
+                futures.add(uploader.submit(() -> cfdpClient.upload(object, UploadOptions.reliable(true)).get()));
+            }
+            List<TransferInfo> tinfos = new ArrayList<>();
+            for (Future<TransferInfo> f : futures) {
+                tinfos.add(f.get());
+            }
+
+            for (int i = 0; i < 30; i++) {
+                Thread.sleep(1000);
+                boolean finished = rec.transfers.size() == n
+                        && rec.transfers.values().stream().allMatch(t -> isFinished(t.getTransferState()));
+                for (int j = 0; j < n && finished; j++) {
+                    finished = isFinished(cfdpClient.getTransfer(tinfos.get(j).getId()).get().getState());
+                }
+                if (finished) {
+                    break;
+                }
+            }
+            for (TransferInfo tinf : tinfos) {
+                assertEquals(TransferState.COMPLETED, cfdpClient.getTransfer(tinf.getId()).get().getState());
+            }
+        } finally {
+            uploader.shutdown();
+            rec.shutdown();
+        }
+
+        assertEquals(n, rec.transfers.size());
+        assertTrue("file data sent out of order: " + rec.outOfOrder, rec.outOfOrder.isEmpty());
+        for (CfdpIncomingTransfer trsf : rec.transfers.values()) {
+            assertEquals(TransferState.COMPLETED, trsf.getTransferState());
+            byte[] data = files.remove(trsf.getObjectName());
+            assertNotNull("unexpected object " + trsf.getObjectName(), data);
+            assertArrayEquals(data, incomingBucket.getObject(trsf.getObjectName()));
+        }
+    }
+
     private void uploadAndCheck(String objName, byte[] data, boolean reliable, List<Integer> dropPackets,
             TransferState expectedSenderState, TransferState expectedReceiverState) throws Exception {
         uploadAndCheck(getConfig(), objName, data, reliable, dropPackets, expectedSenderState, expectedReceiverState);
@@ -195,6 +296,9 @@ public class CfdpIntegrationTest {
         }
         assertEquals(expectedSenderState, tinfo1.getState());
         assertEquals(expectedReceiverState, rec.trsf.getTransferState());
+        // the sender transfer is kept in memory for a while after finishing, so the statistics are still available
+        assertTrue(tinfo1.getPdusSent() > 0);
+        assertTrue(rec.trsf.getPdusReceived() > 0);
 
         if (expectedReceiverState == TransferState.COMPLETED) {
             byte[] recdata = incomingBucket.getObject(rec.trsf.getObjectName());
@@ -250,6 +354,7 @@ public class CfdpIntegrationTest {
                 @Override
                 public void onTuple(Stream stream, Tuple tuple) {
                     tcount++;
+                    packetListener.accept(tcount);
                     CfdpPacket packet = CfdpPacket.fromTuple(tuple);
                       // System.out.println("packet"+tcount+": "+packet);
                     if (dropPackets.contains(tcount)) {
@@ -272,4 +377,61 @@ public class CfdpIntegrationTest {
         public void stateChanged(FileTransfer cfdpTransfer) {
         }
     }
+
+    // receives several files at the same time, each transaction on one of a few threads
+    class MultiFileReceiver implements TransferMonitor {
+        Map<CfdpTransactionId, CfdpIncomingTransfer> transfers = new ConcurrentHashMap<>();
+        ScheduledThreadPoolExecutor[] executors = new ScheduledThreadPoolExecutor[4];
+        // offset of the last file data received for each transaction
+        Map<CfdpTransactionId, Long> lastOffsets = new ConcurrentHashMap<>();
+        List<CfdpTransactionId> outOfOrder = Collections.synchronizedList(new ArrayList<>());
+
+        MultiFileReceiver(YConfiguration config) {
+            YarchDatabaseInstance ydb = YarchDatabase.getInstance(yamcsInstance);
+            Stream cfdpIn = ydb.getStream("cfdp_in");
+            Stream cfdpOut = ydb.getStream("cfdp_out");
+            EventProducer eventProducer = EventProducerFactory.getEventProducer();
+            eventProducer.setSource("unit-test");
+            for (int i = 0; i < executors.length; i++) {
+                executors[i] = new ScheduledThreadPoolExecutor(1);
+            }
+
+            cfdpOut.addSubscriber(new StreamSubscriber() {
+                @Override
+                public void streamClosed(Stream stream) {
+                }
+
+                @Override
+                public void onTuple(Stream stream, Tuple tuple) {
+                    CfdpPacket packet = CfdpPacket.fromTuple(tuple);
+                    CfdpTransactionId id = packet.getHeader().getTransactionId();
+                    if (packet instanceof FileDataPacket) {
+                        // no packet is lost, so the data of each transaction has to be sent in order
+                        long offset = ((FileDataPacket) packet).getOffset();
+                        Long last = lastOffsets.put(id, offset);
+                        if (last != null && offset <= last) {
+                            outOfOrder.add(id);
+                        }
+                    }
+                    CfdpIncomingTransfer trsf = transfers.computeIfAbsent(id,
+                            k -> new CfdpIncomingTransfer("test", transfers.size() + 1,
+                                    TimeEncoding.getWallclockTime(),
+                                    executors[Math.floorMod(k.hashCode(), executors.length)], config,
+                                    packet.getHeader(), cfdpIn, incomingBucket, eventProducer,
+                                    MultiFileReceiver.this, Collections.emptyMap()));
+                    trsf.processPacket(packet);
+                }
+            });
+        }
+
+        void shutdown() {
+            for (ScheduledThreadPoolExecutor executor : executors) {
+                executor.shutdown();
+            }
+        }
+
+        @Override
+        public void stateChanged(FileTransfer cfdpTransfer) {
+        }
+    }
 }
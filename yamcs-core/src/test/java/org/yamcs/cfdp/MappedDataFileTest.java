@@ -0,0 +1,189 @@
+package org.yamcs.cfdp;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.yamcs.cfdp.pdu.SegmentRequest;
+import org.yamcs.utils.FileUtils;
+
+import com.google.common.io.ByteStreams;
+
+public class MappedDataFileTest {
+    static int n = 100;
+    Path dir;
+
+    @Before
+    public void before() throws IOException {
+        dir = Files.createTempDirectory("cfdp-test");
+    }
+
+    @After
+    public void after() throws IOException {
+        FileUtils.deleteRecursivelyIfExists(dir);
+    }
+
+    @Test
+    public void testGaps() throws IOException {
+        byte[] data = getData(n);
+        try (MappedDataFile df = new MappedDataFile(dir, n)) {
+            df.addSegment(getSegment(data, 0, 3));
+            df.addSegment(getSegment(data, 5, 5));
+
+            List<SegmentRequest> lmissing = df.getMissingChunks();
+            assertEquals(2, lmissing.size());
+            verifyEquals(3, 5, lmissing.get(0));
+            verifyEquals(10, n, lmissing.get(1));
+            assertFalse(df.isComplete());
+            assertEquals(8, df.getReceivedSize());
+            assertEquals(10, df.endOfFileOffset());
+
+            df.addSegment(getSegment(data, 3, 2));
+            df.addSegment(getSegment(data, 10, n - 10));
+            assertTrue(df.isComplete());
+            assertEquals(0, df.getMissingChunks().size());
+            verify(data, df);
+        }
+    }
+
+    @Test
+    public void testOverlaps() throws IOException {
+        byte[] data = getData(n);
+        try (MappedDataFile df = new MappedDataFile(dir, n)) {
+            df.addSegment(getSegment(data, 0, 10));
+            df.addSegment(getSegment(data, 20, 10));
+            df.addSegment(getSegment(data, 40, 10));
+            df.addSegment(getSegment(data, 0, 3));
+            df.addSegment(getSegment(data, 5, 40));
+
+            List<SegmentRequest> lmissing = df.getMissingChunks();
+            assertEquals(1, lmissing.size());
+            verifyEquals(50, n, lmissing.get(0));
+            assertEquals(50, df.getReceivedSize());
+
+            df.addSegment(getSegment(data, 50, 50));
+            assertTrue(df.isComplete());
+            assertEquals(ChecksumCalculator.calculateChecksum(data), df.getChecksum());
+            verify(data, df);
+        }
+    }
+
+    @Test
+    public void testRandomOrder() throws IOException {
+        int size = 4 * 1024 * 1024 + 12345;
+        byte[] data = getData(size);
+        Random r = new Random();
+
+        try (MappedDataFile df = new MappedDataFile(dir, -1)) {
+            int segSize = 1000;
+            int numSeg = (size + segSize - 1) / segSize;
+            // send the segments from the end, each one twice, with some random overlapping ones
+            for (int i = numSeg - 1; i >= 0; i--) {
+                int offset = i * segSize;
+                int length = Math.min(segSize, size - offset);
+                df.addSegment(getSegment(data, offset, length));
+                df.addSegment(getSegment(data, offset, length));
+                int x = r.nextInt(size);
+                df.addSegment(getSegment(data, x, Math.min(r.nextInt(3 * segSize), size - x)));
+            }
+            assertFalse(df.isComplete());
+            df.setSize(size);
+            assertTrue(df.isComplete());
+            assertEquals(size, df.getReceivedSize());
+            assertEquals(ChecksumCalculator.calculateChecksum(data), df.getChecksum());
+            verify(data, df);
+        }
+        try (Stream<Path> s = Files.list(dir)) {
+            assertEquals(0, s.count());
+        }
+    }
+
+    @Test
+    public void testOutOfOrderChecksum() throws IOException {
+        byte[] data = getData(n);
+        // segments with lengths and offsets not aligned to the 4 bytes words of the checksum, received out of order
+        // and partly overlapping the ones already received
+        int[][] segments = { { 61, 13 }, { 7, 9 }, { 90, 10 }, { 0, 5 }, { 3, 11 }, { 30, 35 }, { 14, 17 },
+                { 73, 18 }, { 5, 3 } };
+        byte[] expected = new byte[n];
+        try (MappedDataFile df = new MappedDataFile(dir, n)) {
+            for (int[] seg : segments) {
+                df.addSegment(getSegment(data, seg[0], seg[1]));
+                System.arraycopy(data, seg[0], expected, seg[0], seg[1]);
+                // the parts not received count as zeros in the checksum
+                assertEquals(ChecksumCalculator.calculateChecksum(expected), df.getChecksum());
+            }
+            assertTrue(df.isComplete());
+            assertEquals(n, df.getReceivedSize());
+            assertEquals(ChecksumCalculator.calculateChecksum(data), df.getChecksum());
+            verify(data, df);
+        }
+    }
+
+    @Test
+    public void testMissingEnd() throws IOException {
+        byte[] data = getData(n);
+        try (MappedDataFile df = new MappedDataFile(dir, n)) {
+            df.addSegment(getSegment(data, 10, 20));
+            byte[] expected = new byte[n];
+            System.arraycopy(data, 10, expected, 10, 20);
+            verify(expected, df);
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        MappedDataFile df = new MappedDataFile(dir, n);
+        df.addSegment(getSegment(getData(n), 0, 10));
+        df.close();
+        try (Stream<Path> s = Files.list(dir)) {
+            assertEquals(0, s.count());
+        }
+        try {
+            df.addSegment(getSegment(getData(n), 10, 10));
+            fail("should have thrown an exception");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBeyondEnd() throws IOException {
+        try (MappedDataFile df = new MappedDataFile(dir, n)) {
+            df.addSegment(new DataFileSegment(n - 1, new byte[2]));
+        }
+    }
+
+    private void verify(byte[] data, MappedDataFile df) throws IOException {
+        try (InputStream in = df.getInputStream()) {
+            assertArrayEquals(data, ByteStreams.toByteArray(in));
+        }
+    }
+
+    private byte[] getData(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    private DataFileSegment getSegment(byte[] data, int offset, int length) {
+        return new DataFileSegment(offset, Arrays.copyOfRange(data, offset, offset + length));
+    }
+
+    private void verifyEquals(long expectedStart, long expectedEnd, SegmentRequest sr) {
+        assertEquals(expectedStart, sr.getSegmentStart());
+        assertEquals(expectedEnd, sr.getSegmentEnd());
+    }
+}
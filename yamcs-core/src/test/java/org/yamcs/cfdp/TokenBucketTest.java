@@ -0,0 +1,61 @@
+package org.yamcs.cfdp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TokenBucketTest {
+    static final long SEC = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testDisabled() {
+        TokenBucket tb = new TokenBucket(0, 0);
+        assertFalse(tb.isEnabled());
+        tb.consume(100000, 0);
+        assertEquals(0, tb.getWaitNanos(0));
+    }
+
+    @Test
+    public void testRate() {
+        TokenBucket tb = new TokenBucket(1000, 0);
+        assertTrue(tb.isEnabled());
+
+        // starts empty
+        assertEquals(0, tb.getWaitNanos(0));
+        tb.consume(500, 0);
+        long wait = tb.getWaitNanos(0);
+        assertEquals(SEC / 2, wait, 1);
+
+        assertTrue(tb.getWaitNanos(SEC / 4) > 0);
+        assertEquals(0, tb.getWaitNanos(SEC / 2 + 1));
+    }
+
+    @Test
+    public void testBurst() {
+        TokenBucket tb = new TokenBucket(1000, 0);
+
+        // after a long idle period only BURST_MILLIS worth of data can be sent without waiting
+        long t = 10 * SEC;
+        tb.consume(100, t);
+        assertEquals(0, tb.getWaitNanos(t));
+        tb.consume(100, t);
+        assertEquals(SEC / 10, tb.getWaitNanos(t), 1);
+    }
+
+    @Test
+    public void testChangeRate() {
+        TokenBucket tb = new TokenBucket(1000, 0);
+        tb.consume(1000, 0);
+        assertEquals(SEC, tb.getWaitNanos(0), 1);
+
+        tb.setRate(2000, 0);
+        assertEquals(SEC / 2, tb.getWaitNanos(0), 1);
+
+        tb.setRate(0, 0);
+        assertEquals(0, tb.getWaitNanos(0));
+    }
+}
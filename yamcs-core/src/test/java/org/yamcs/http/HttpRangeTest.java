@@ -0,0 +1,46 @@
+package org.yamcs.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class HttpRangeTest {
+
+    @Test
+    public void testParse() {
+        HttpRange r = HttpRange.parse("bytes=10-19", 100);
+        assertEquals(10, r.getStart());
+        assertEquals(19, r.getEnd());
+        assertEquals(10, r.getLength());
+        assertEquals("bytes 10-19/100", r.toContentRange(100));
+
+        r = HttpRange.parse("bytes=90-", 100);
+        assertEquals(90, r.getStart());
+        assertEquals(99, r.getEnd());
+
+        r = HttpRange.parse("bytes=90-200", 100);
+        assertEquals(99, r.getEnd());
+
+        r = HttpRange.parse("bytes=-30", 100);
+        assertEquals(70, r.getStart());
+        assertEquals(99, r.getEnd());
+
+        r = HttpRange.parse("bytes=-300", 100);
+        assertEquals(0, r.getStart());
+    }
+
+    @Test
+    public void testIgnored() {
+        assertNull(HttpRange.parse(null, 100));
+        assertNull(HttpRange.parse("items=1-2", 100));
+        assertNull(HttpRange.parse("bytes=1-2,5-6", 100));
+        assertNull(HttpRange.parse("bytes=abc", 100));
+        assertNull(HttpRange.parse("bytes=20-10", 100));
+    }
+
+    @Test(expected = RangeNotSatisfiableException.class)
+    public void testNotSatisfiable() {
+        HttpRange.parse("bytes=100-", 100);
+    }
+}
@@ -0,0 +1,56 @@
+package org.yamcs.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayOutputStream;
+
+import org.junit.Test;
+import org.yamcs.parameter.ParameterValue;
+import org.yamcs.protobuf.Pvalue.AcquisitionStatus;
+import org.yamcs.protobuf.ServerMessage;
+import org.yamcs.protobuf.SubscribeParametersData;
+import org.yamcs.utils.TimeEncoding;
+import org.yamcs.utils.ValueUtility;
+import org.yamcs.xtce.Parameter;
+
+import com.google.protobuf.Any;
+
+public class SharedParameterValueTest {
+
+    @Test
+    public void testSameEncodingAsBuilder() throws Exception {
+        TimeEncoding.setUp();
+        ParameterValue pv1 = new ParameterValue(new Parameter("p1"));
+        pv1.setEngineeringValue(ValueUtility.getDoubleValue(3.14));
+        pv1.setGenerationTime(TimeEncoding.getWallclockTime());
+        ParameterValue pv2 = new ParameterValue(new Parameter("p2"));
+        pv2.setEngineeringValue(ValueUtility.getStringValue("bla"));
+        pv2.setAcquisitionStatus(AcquisitionStatus.EXPIRED);
+
+        SharedParameterValueCache cache = new SharedParameterValueCache();
+        SharedParameterValue spv1 = cache.get(pv1);
+        SharedParameterValue spv2 = cache.get(pv2);
+        assertSame(spv1, cache.get(pv1));
+        assertNotSame(spv1, new SharedParameterValueCache().get(pv1));
+
+        int[] numericIds = new int[] { 1, 300 };
+        SharedParameterValue[] values = new SharedParameterValue[] { spv1, spv2 };
+        ServerMessage expected = ServerMessage.newBuilder()
+                .setType("parameters")
+                .setCall(5)
+                .setSeq(1000)
+                .setData(Any.pack(SubscribeParametersData.newBuilder()
+                        .addValues(pv1.toGpb(1))
+                        .addValues(pv2.toGpb(300))
+                        .build(), HttpServer.TYPE_URL_PREFIX))
+                .build();
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        SharedParameterValue.writeServerMessage(bos, "parameters", 5, 1000, numericIds, values);
+        byte[] b = bos.toByteArray();
+        assertEquals(expected.getSerializedSize(), b.length);
+        assertEquals(expected, ServerMessage.parseFrom(b));
+    }
+}
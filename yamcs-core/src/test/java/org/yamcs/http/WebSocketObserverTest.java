@@ -0,0 +1,195 @@
+package org.yamcs.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yamcs.api.WebSocketTopic;
+import org.yamcs.protobuf.ClientMessage;
+import org.yamcs.protobuf.Pvalue.ParameterValue;
+import org.yamcs.protobuf.Reply;
+import org.yamcs.protobuf.ServerMessage;
+import org.yamcs.protobuf.SubscribeParametersData;
+import org.yamcs.protobuf.Yamcs.NamedObjectId;
+import org.yamcs.protobuf.Yamcs.Value;
+import org.yamcs.protobuf.Yamcs.Value.Type;
+import org.yamcs.security.User;
+import org.yamcs.utils.TimeEncoding;
+import org.yamcs.utils.ValueUtility;
+import org.yamcs.xtce.Parameter;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.util.JsonFormat;
+import com.google.protobuf.util.JsonFormat.TypeRegistry;
+
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+
+public class WebSocketObserverTest {
+    static final TypeRegistry TYPE_REGISTRY = TypeRegistry.newBuilder()
+            .add(SubscribeParametersData.getDescriptor())
+            .add(Reply.getDescriptor())
+            .build();
+
+    EmbeddedChannel channel;
+    WebSocketFrameHandler frameHandler;
+    WebSocketObserver observer;
+
+    @BeforeClass
+    public static void beforeClass() {
+        TimeEncoding.setUp();
+    }
+
+    @Before
+    public void before() {
+        HttpServer httpServer = new HttpServer() {
+            @Override
+            public JsonFormat.Parser getJsonParser() {
+                return JsonFormat.parser().usingTypeRegistry(TYPE_REGISTRY);
+            }
+
+            @Override
+            public JsonFormat.Printer getJsonPrinter() {
+                return JsonFormat.printer().usingTypeRegistry(TYPE_REGISTRY);
+            }
+        };
+        User user = new User("test", null);
+        frameHandler = new WebSocketFrameHandler(httpServer,
+                new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/api/websocket"), user, 10, WriteBufferWaterMark.DEFAULT);
+        channel = new EmbeddedChannel(frameHandler);
+
+        Topic topic = new Topic(null, WebSocketTopic.newBuilder().setTopic("parameters").build(), null);
+        TopicContext ctx = new TopicContext(httpServer, channel.pipeline().context(frameHandler), user,
+                ClientMessage.getDefaultInstance(), topic);
+        observer = new WebSocketObserver(ctx, frameHandler);
+        frameHandler.addObserver(observer);
+
+        observer.sendReply(Reply.getDefaultInstance());
+        assertEquals("reply", readMessage().getType());
+    }
+
+    @Test
+    public void testConflation() throws Exception {
+        setWritable(false);
+        observer.next(values(1, 10));
+        observer.next(values(1, 11, 2, 20));
+        observer.next(values(1, 12));
+        assertNull(channel.readOutbound());
+
+        setWritable(true);
+        ServerMessage msg = readMessage();
+        assertEquals(1, msg.getSeq());
+        Map<Integer, Integer> values = getValues(msg);
+        assertEquals(2, values.size());
+        assertEquals(12, values.get(1).intValue());
+        assertEquals(20, values.get(2).intValue());
+        assertNull(channel.readOutbound());
+        assertEquals(2, frameHandler.getClient().getConflatedValues());
+
+        observer.next(values(1, 13));
+        msg = readMessage();
+        assertEquals(2, msg.getSeq());
+        assertEquals(13, getValues(msg).get(1).intValue());
+    }
+
+    @Test
+    public void testMappingSupersedesConflatedValues() throws Exception {
+        setWritable(false);
+        observer.next(values(1, 10, 2, 20));
+        SubscribeParametersData mapping = SubscribeParametersData.newBuilder(values(1, 11))
+                .putMapping(1, NamedObjectId.newBuilder().setName("p1").build())
+                .build();
+        observer.next(mapping);
+
+        // the mapping is sent even if the channel is not writable
+        ServerMessage msg = readMessage();
+        assertEquals(1, msg.getSeq());
+        assertEquals(11, getValues(msg).get(1).intValue());
+        assertNull(channel.readOutbound());
+
+        setWritable(true);
+        msg = readMessage();
+        assertEquals(2, msg.getSeq());
+        Map<Integer, Integer> values = getValues(msg);
+        assertEquals(1, values.size());
+        assertEquals(20, values.get(2).intValue());
+    }
+
+    @Test
+    public void testDroppedMessagesAreCounted() throws Exception {
+        setWritable(false);
+        observer.next(Reply.getDefaultInstance());
+        assertNull(channel.readOutbound());
+
+        // the client detects the dropped message from the gap in the sequence numbers
+        setWritable(true);
+        observer.next(Reply.getDefaultInstance());
+        assertEquals(2, readMessage().getSeq());
+        assertEquals(1, frameHandler.getClient().getDroppedMessages());
+    }
+
+    @Test
+    public void testSharedValues() throws Exception {
+        SharedParameterValueObserver sharedValueObserver = observer
+                .getCapability(SharedParameterValueObserver.class);
+        assertSame(observer, sharedValueObserver);
+
+        SharedParameterValueCache cache = new SharedParameterValueCache();
+        org.yamcs.parameter.ParameterValue pv = new org.yamcs.parameter.ParameterValue(new Parameter("p1"));
+        pv.setEngineeringValue(ValueUtility.getSint32Value(10));
+        pv.setGenerationTime(TimeEncoding.getWallclockTime());
+        sharedValueObserver.nextParameterValues(new int[] { 3 }, new SharedParameterValue[] { cache.get(pv) });
+
+        ServerMessage msg = readMessage();
+        assertEquals(1, msg.getSeq());
+        assertEquals(SubscribeParametersData.newBuilder().addValues(pv.toGpb(3)).build(),
+                msg.getData().unpack(SubscribeParametersData.class));
+    }
+
+    private void setWritable(boolean writable) {
+        channel.unsafe().outboundBuffer().setUserDefinedWritability(1, writable);
+        channel.runPendingTasks();
+    }
+
+    private ServerMessage readMessage() {
+        TextWebSocketFrame frame = channel.readOutbound();
+        try {
+            ServerMessage.Builder msgb = ServerMessage.newBuilder();
+            JsonFormat.parser().usingTypeRegistry(TYPE_REGISTRY).merge(frame.text(), msgb);
+            return msgb.build();
+        } catch (InvalidProtocolBufferException e) {
+            throw new AssertionError(e);
+        } finally {
+            frame.release();
+        }
+    }
+
+    private static Map<Integer, Integer> getValues(ServerMessage msg) throws InvalidProtocolBufferException {
+        Map<Integer, Integer> r = new HashMap<>();
+        for (ParameterValue pv : msg.getData().unpack(SubscribeParametersData.class).getValuesList()) {
+            r.put(pv.getNumericId(), pv.getEngValue().getSint32Value());
+        }
+        return r;
+    }
+
+    // pairs of numeric id and value
+    private static SubscribeParametersData values(int... idValues) {
+        SubscribeParametersData.Builder datab = SubscribeParametersData.newBuilder();
+        for (int i = 0; i < idValues.length; i += 2) {
+            datab.addValues(ParameterValue.newBuilder()
+                    .setNumericId(idValues[i])
+                    .setEngValue(Value.newBuilder().setType(Type.SINT32).setSint32Value(idValues[i + 1])));
+        }
+        return datab.build();
+    }
+}
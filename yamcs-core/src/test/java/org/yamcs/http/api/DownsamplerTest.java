@@ -62,6 +62,44 @@ public class DownsamplerTest {
         assertEquals(1, samples.size());
     }
 
+    @Test
+    public void testSamplingAggregated() {
+        Downsampler sampler = new Downsampler(0, 100, 2);
+        sampler.process(10, 3, 1, 5, 9, -1);
+        sampler.process(20, 6, 2);
+        sampler.process(60, 2, -4, 4, 0, -1);
+
+        List<Sample> samples = sampler.collect();
+        assertEquals(2, samples.size());
+
+        Sample sample0 = samples.get(0);
+        assertEquals(4, sample0.n);
+        assertEquals(1, sample0.min, 1e-10);
+        assertEquals(6, sample0.max, 1e-10);
+        assertEquals((9 + 6) / 4., sample0.avg, 1e-10);
+
+        Sample sample1 = samples.get(1);
+        assertEquals(2, sample1.n);
+        assertEquals(0, sample1.avg, 1e-10);
+        assertEquals(-4, sample1.min, 1e-10);
+    }
+
+    @Test
+    public void testSamplingAggregatedGap() {
+        Downsampler sampler = new Downsampler(0, 60, 6);
+        sampler.process(10, 3, 1, 5, 9, 15);
+        sampler.process(50, 1, 2, 2, 2, 15);
+
+        // the expiration of the aggregated values is used to detect the gap between 10 and 50
+        List<Sample> samples = sampler.collect();
+        assertEquals(4, samples.size());
+        assertEquals(3, samples.get(0).n);
+        assertEquals(0, samples.get(1).n);
+        assertEquals(30, samples.get(1).t);
+        assertEquals(40, samples.get(2).t);
+        assertEquals(1, samples.get(3).n);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testSamplingInvalid() {
         new Downsampler(2, 1, 3);
@@ -0,0 +1,154 @@
+package org.yamcs.http.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yamcs.api.HttpBody;
+import org.yamcs.api.Observer;
+import org.yamcs.http.MediaType;
+import org.yamcs.parameter.ValueArray;
+import org.yamcs.parameterarchive.ParameterValueArray;
+import org.yamcs.protobuf.ParameterColumn;
+import org.yamcs.protobuf.Yamcs.Value.Type;
+import org.yamcs.utils.TimeEncoding;
+
+public class ParameterArchiveExporterTest {
+
+    @BeforeClass
+    public static void beforeClass() {
+        TimeEncoding.setUp();
+    }
+
+    @Test
+    public void testCsv() {
+        BodyCollector collector = new BodyCollector();
+        ParameterArchiveExporter exporter = new ParameterArchiveExporter(collector,
+                ParameterArchiveExporter.Format.CSV, true, "test.csv");
+        exporter.setParameter("/a/b");
+        long t0 = TimeEncoding.parse("2020-01-01T00:00:00Z");
+        exporter.accept(new ParameterValueArray(new long[] { t0, t0 + 1000 }, new ValueArray(new double[] { 1.5, 2 }),
+                new ValueArray(Type.UINT32, new int[] { 3, -1 }), null));
+
+        assertEquals(MediaType.CSV.toString(), collector.bodies.get(0).getContentType());
+        String[] lines = collector.getData().split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("Parameter\tGeneration Time\tEngineering Value\tRaw Value", lines[0]);
+        assertEquals("/a/b\t2020-01-01T00:00:00.000Z\t1.5\t3", lines[1]);
+        assertEquals("/a/b\t2020-01-01T00:00:01.000Z\t2.0\t4294967295", lines[2]);
+    }
+
+    @Test
+    public void testCsvTypes() {
+        BodyCollector collector = new BodyCollector();
+        ParameterArchiveExporter exporter = new ParameterArchiveExporter(collector,
+                ParameterArchiveExporter.Format.CSV, true, "test.csv");
+        exporter.setParameter("/a/b");
+        long t0 = TimeEncoding.parse("2020-01-01T00:00:00.005Z");
+        BitSet bits = new BitSet();
+        bits.set(1);
+        exporter.accept(new ParameterValueArray(new long[] { t0, t0 + 1020 }, new ValueArray(bits, 2),
+                new ValueArray(new byte[][] { { 0x0A, (byte) 0xFF }, {} }), null));
+        exporter.accept(new ParameterValueArray(new long[] { t0 },
+                new ValueArray(Type.TIMESTAMP, new long[] { t0 + 999 }), new ValueArray(Type.UINT64, new long[] { -2 }),
+                null));
+
+        String[] lines = collector.getData().split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("/a/b\t2020-01-01T00:00:00.005Z\tfalse\t0AFF", lines[1]);
+        assertEquals("/a/b\t2020-01-01T00:00:01.025Z\ttrue\t", lines[2]);
+        assertEquals("/a/b\t2020-01-01T00:00:00.005Z\t2020-01-01T00:00:01.004Z\t18446744073709551614", lines[3]);
+    }
+
+    @Test
+    public void testTimeFormatter() {
+        ParameterArchiveExporter.TimeFormatter formatter = new ParameterArchiveExporter.TimeFormatter();
+        long leap = TimeEncoding.parse("2016-12-31T23:59:60.000Z");
+        long[] instants = new long[] { leap - 1001, leap - 1, leap, leap + 999, leap + 1000, -1001, -1, 0, 1 };
+        StringBuilder sb = new StringBuilder();
+        for (long t : instants) {
+            sb.setLength(0);
+            formatter.append(sb, t);
+            assertEquals(TimeEncoding.toString(t), sb.toString());
+        }
+        Random random = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            long t = leap + random.nextInt(100_000) - 50_000;
+            sb.setLength(0);
+            formatter.append(sb, t);
+            assertEquals(TimeEncoding.toString(t), sb.toString());
+        }
+    }
+
+    @Test
+    public void testProtobuf() throws Exception {
+        BodyCollector collector = new BodyCollector();
+        ParameterArchiveExporter exporter = new ParameterArchiveExporter(collector,
+                ParameterArchiveExporter.Format.PROTOBUF, true, "test.pb");
+        long t0 = TimeEncoding.parse("2020-01-01T00:00:00Z");
+        exporter.setParameter("/a/b");
+        exporter.accept(new ParameterValueArray(new long[] { t0, t0 + 1000 },
+                new ValueArray(new String[] { "on", "off" }), new ValueArray(Type.SINT32, new int[] { -1, 1000 }),
+                null));
+        exporter.setParameter("/a/c");
+        exporter.accept(new ParameterValueArray(new long[] { t0 }, new ValueArray(new float[] { 3.5f }), null, null));
+
+        InputStream in = new ByteArrayInputStream(collector.getData().getBytes(StandardCharsets.ISO_8859_1));
+        ParameterColumn c1 = ParameterColumn.parseDelimitedFrom(in);
+        assertEquals("/a/b", c1.getParameter());
+        assertEquals(Type.STRING, c1.getType());
+        assertFalse(c1.getRaw());
+        assertEquals(2, c1.getTimeCount());
+        assertEquals(TimeEncoding.toUnixMillisec(t0) + 1000, c1.getTime(1));
+        assertEquals("off", c1.getStringValue(1));
+
+        ParameterColumn c2 = ParameterColumn.parseDelimitedFrom(in);
+        assertTrue(c2.getRaw());
+        assertEquals(Type.SINT32, c2.getType());
+        assertEquals(-1, c2.getSint64Value(0));
+        assertEquals(1000, c2.getSint64Value(1));
+
+        ParameterColumn c3 = ParameterColumn.parseDelimitedFrom(in);
+        assertEquals("/a/c", c3.getParameter());
+        assertEquals(3.5, c3.getDoubleValue(0), 1e-10);
+        assertNull(ParameterColumn.parseDelimitedFrom(in));
+    }
+
+    static class BodyCollector implements Observer<HttpBody> {
+        List<HttpBody> bodies = new ArrayList<>();
+
+        @Override
+        public void next(HttpBody message) {
+            bodies.add(message);
+        }
+
+        @Override
+        public void completeExceptionally(Throwable t) {
+        }
+
+        @Override
+        public void complete() {
+        }
+
+        String getData() {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            for (HttpBody body : bodies) {
+                byte[] b = body.getData().toByteArray();
+                bos.write(b, 0, b.length);
+            }
+            return new String(bos.toByteArray(), StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -200,6 +200,66 @@ public class ArrayParameterCacheTest {
 
     }
 
+    @Test
+    public void testOutOfOrder() {
+        ParameterCacheConfig pcc = new ParameterCacheConfig(true, true, 10000, 4096);
+        ArrayParameterCache pcache = new ArrayParameterCache("test", pcc);
+        long[] times = { 100, 300, 200, 500, 400, 0, 600 };
+        for (long t : times) {
+            pcache.update(Arrays.asList(getUint64ParameterValue(p1, t)));
+        }
+        TestUtils.checkEquals(getUint64ParameterValue(p1, 600), pcache.getLastValue(p1));
+
+        List<ParameterValue> pvlist = pcache.getAllValues(p1);
+        assertEquals(times.length, pvlist.size());
+        for (int i = 0; i < times.length; i++) {
+            assertEquals(600 - 100 * i, pvlist.get(i).getGenerationTime());
+        }
+
+        pvlist = pcache.getAllValues(p1, 200, 500);
+        assertEquals(3, pvlist.size());
+        assertEquals(500, pvlist.get(0).getGenerationTime());
+        assertEquals(300, pvlist.get(2).getGenerationTime());
+    }
+
+    @Test
+    public void testMultipleTimesInOneUpdate() {
+        ParameterCacheConfig pcc = new ParameterCacheConfig(true, true, 1000, 4096);
+        ArrayParameterCache pcache = new ArrayParameterCache("test", pcc);
+
+        ParameterValue p1v1 = getUint64ParameterValue(p1, 10);
+        ParameterValue p2v1 = getUint64ParameterValue(p2, 10);
+        ParameterValue p1v2 = getUint64ParameterValue(p1, 20);
+        pcache.update(Arrays.asList(p1v2, p2v1, p1v1));
+
+        TestUtils.checkEquals(p1v2, pcache.getLastValue(p1));
+        TestUtils.checkEquals(p2v1, pcache.getLastValue(p2));
+        List<ParameterValue> pvlist = pcache.getAllValues(p1);
+        checkEquals(pvlist, p1v2, p1v1);
+
+        pcache.clear();
+        assertNull(pcache.getLastValue(p1));
+    }
+
+    @Test
+    public void testBooleanCircularity() {
+        ParameterCacheConfig pcc = new ParameterCacheConfig(true, true, 100000, 4096);
+        ArrayParameterCache pcache = new ArrayParameterCache("test", pcc);
+        List<ParameterValue> expectedPVlist = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            ParameterValue pv = new ParameterValue(p1);
+            pv.setGenerationTime(i);
+            pv.setEngineeringValue(ValueUtility.getBooleanValue(i % 3 == 0));
+            expectedPVlist.add(pv);
+            pcache.update(Arrays.asList(pv));
+        }
+        List<ParameterValue> pvlist = pcache.getAllValues(p1);
+        assertEquals(40, pvlist.size());
+        for (int i = 0; i < 40; i++) {
+            TestUtils.checkEquals(expectedPVlist.get(39 - i), pvlist.get(i));
+        }
+    }
+
     ParameterValue getUint64ParameterValue(Parameter p, long t) {
         ParameterValue pv = new ParameterValue(p);
         pv.setGenerationTime(t);
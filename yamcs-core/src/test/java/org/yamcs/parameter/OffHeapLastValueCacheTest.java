@@ -0,0 +1,186 @@
+package org.yamcs.parameter;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yamcs.YConfiguration;
+import org.yamcs.protobuf.Pvalue.AcquisitionStatus;
+import org.yamcs.protobuf.Pvalue.MonitoringResult;
+import org.yamcs.protobuf.Pvalue.RangeCondition;
+import org.yamcs.utils.ValueUtility;
+import org.yamcs.xtce.Parameter;
+import org.yamcs.xtce.XtceDb;
+import org.yamcs.xtce.util.DoubleRange;
+import org.yamcs.xtceproc.XtceDbFactory;
+
+public class OffHeapLastValueCacheTest {
+    private static XtceDb xtcedb;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        YConfiguration.setupTest("refmdb");
+        XtceDbFactory.reset();
+        xtcedb = XtceDbFactory.createInstanceByConfig("refmdb");
+    }
+
+    @Test
+    public void testPutGet() {
+        OffHeapLastValueCache lvc = new OffHeapLastValueCache(xtcedb, 256);
+        Parameter p1 = xtcedb.getParameter("/REFMDB/SUBSYS1/IntegerPara1_1_6");
+        Parameter p2 = xtcedb.getParameter("/REFMDB/SUBSYS1/FloatPara1_1_2");
+        assertNull(lvc.getValue(p1));
+        assertEquals(0, lvc.size());
+
+        ParameterValue pv1 = getUint32ParameterValue(p1, 10, 1000);
+        pv1.setMonitoringResult(MonitoringResult.WARNING);
+        pv1.setWarningRange(new DoubleRange(0, 5));
+        pv1.setExpireMillis(1500);
+        assertNull(lvc.put(p1, pv1));
+
+        ParameterValue pv = lvc.getValue(p1);
+        assertEquals(p1, pv.getParameter());
+        assertEquals(10, pv.getEngValue().getUint32Value());
+        assertEquals(1000, pv.getGenerationTime());
+        assertEquals(MonitoringResult.WARNING, pv.getMonitoringResult());
+        assertEquals(5, pv.getWarningRange().getMax(), 1e-10);
+        assertEquals(1500, pv.getExpireMills());
+
+        ParameterValue pv2 = new ParameterValue(p2);
+        pv2.setEngineeringValue(ValueUtility.getFloatValue(3.5f));
+        pv2.setAcquisitionStatus(AcquisitionStatus.EXPIRED);
+        lvc.update(Arrays.asList(getUint32ParameterValue(p1, 20, 2000), pv2));
+
+        assertEquals(20, lvc.getValue(p1).getEngValue().getUint32Value());
+        assertEquals(3.5f, lvc.getValue(p2).getEngValue().getFloatValue(), 1e-10);
+        assertEquals(AcquisitionStatus.EXPIRED, lvc.getValue(p2).getAcquisitionStatus());
+        assertEquals(2, lvc.size());
+        assertEquals(2, lvc.getValues().size());
+    }
+
+    @Test
+    public void testRecordLayout() {
+        OffHeapLastValueCache lvc = new OffHeapLastValueCache(xtcedb, 256);
+        Parameter p1 = xtcedb.getParameter("/REFMDB/SUBSYS1/IntegerPara1_1_6");
+        ParameterValue pv1 = new ParameterValue(p1);
+        pv1.setEngineeringValue(new EnumeratedValue(3, "three"));
+        pv1.setRawValue(ValueUtility.getSint64Value(-3));
+        pv1.setAcquisitionTime(1234);
+        pv1.setProcessingStatus(false);
+        pv1.setRangeCondition(RangeCondition.HIGH);
+        pv1.setDeltaMonitoringResult(MonitoringResult.CRITICAL);
+        pv1.setSevereRange(new DoubleRange(-1, 1, false, true));
+        lvc.put(p1, pv1);
+
+        ParameterValue pv = lvc.getValue(p1);
+        assertEquals(pv1.getEngValue(), pv.getEngValue());
+        assertEquals(pv1.getRawValue(), pv.getRawValue());
+        assertEquals(1234, pv.getAcquisitionTime());
+        assertFalse(pv.getProcessingStatus());
+        assertEquals(RangeCondition.HIGH, pv.getRangeCondition());
+        assertEquals(MonitoringResult.CRITICAL, pv.getDeltaMonitoringResult());
+        assertNull(pv.getMonitoringResult());
+        assertNull(pv.getWatchRange());
+        assertFalse(pv.getSevereRange().isMinInclusive());
+        assertTrue(pv.getSevereRange().isMaxInclusive());
+        assertEquals(-1, pv.getSevereRange().getMin(), 0);
+
+        ParameterValue pv2 = new ParameterValue(p1);
+        pv2.setEngineeringValue(ValueUtility.getBinaryValue(new byte[] { 1, 2, 3 }));
+        lvc.put(p1, pv2);
+        pv = lvc.getValue(p1);
+        assertArrayEquals(new byte[] { 1, 2, 3 }, pv.getEngValue().getBinaryValue());
+        assertNull(pv.getRawValue());
+        // nothing set in the status, the nominal status is used
+        assertSame(ParameterStatus.NOMINAL, pv.getStatus());
+    }
+
+    @Test
+    public void testIdsSharedPerMdb() {
+        OffHeapLastValueCache lvc1 = new OffHeapLastValueCache(xtcedb, 256);
+        OffHeapLastValueCache lvc2 = new OffHeapLastValueCache(xtcedb, 128);
+        assertSame(lvc1.parameterIds, lvc2.parameterIds);
+    }
+
+    @Test
+    public void testOverflowAndUnknownParameter() {
+        OffHeapLastValueCache lvc = new OffHeapLastValueCache(xtcedb, 16);
+        Parameter p1 = xtcedb.getParameter("/REFMDB/SUBSYS1/IntegerPara1_1_6");
+        ParameterValue pv = new ParameterValue(p1);
+        pv.setEngineeringValue(ValueUtility.getStringValue("a string too long to fit into a 16 bytes slot"));
+        lvc.put(p1, pv);
+        assertEquals(pv, lvc.getValue(p1));
+
+        lvc.put(p1, getUint32ParameterValue(p1, 3, 0));
+        assertEquals(3, lvc.getValue(p1).getEngValue().getUint32Value());
+        assertEquals(1, lvc.size());
+
+        Parameter p2 = new Parameter("not-in-mdb");
+        ParameterValue pv2 = getUint32ParameterValue(p2, 7, 0);
+        lvc.put(p2, pv2);
+        assertEquals(pv2, lvc.getValue(p2));
+        assertEquals(2, lvc.size());
+    }
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        OffHeapLastValueCache lvc = new OffHeapLastValueCache(xtcedb, 64);
+        Parameter p1 = xtcedb.getParameter("/REFMDB/SUBSYS1/IntegerPara1_1_6");
+        int n = 20000;
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int k = 0; k < 3; k++) {
+            Thread t = new Thread(() -> {
+                try {
+                    long last = -1;
+                    while (last < n - 1) {
+                        ParameterValue pv = lvc.getValue(p1);
+                        if (pv == null) {
+                            continue;
+                        }
+                        long v = pv.getEngValue().getUint32Value();
+                        // the value and the generation time are written together so they have to be consistent
+                        assertEquals(v, pv.getGenerationTime());
+                        if (v < last) {
+                            throw new AssertionError("value went back in time: " + v + " < " + last);
+                        }
+                        last = v;
+                    }
+                } catch (Throwable e) {
+                    error.set(e);
+                }
+            });
+            t.start();
+            readers.add(t);
+        }
+        for (int i = 0; i < n; i++) {
+            lvc.update(listOf(getUint32ParameterValue(p1, i, i)));
+        }
+        for (Thread t : readers) {
+            t.join(10000);
+        }
+        assertNull(error.get());
+    }
+
+    private static Collection<ParameterValue> listOf(ParameterValue pv) {
+        return Arrays.asList(pv);
+    }
+
+    private static ParameterValue getUint32ParameterValue(Parameter p, int v, long genTime) {
+        ParameterValue pv = new ParameterValue(p);
+        pv.setEngineeringValue(ValueUtility.getUint32Value(v));
+        pv.setGenerationTime(genTime);
+        return pv;
+    }
+}
@@ -15,6 +15,8 @@ import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 import org.junit.After;
@@ -585,6 +587,52 @@ public class ParameterArchiveTest {
 
     }
 
+    @Test
+    public void testMultipleParametersParallel() throws Exception {
+        int p1id = parchive.getParameterIdDb().createAndGet(p1.getQualifiedName(), Type.SINT32);
+        int p2id = parchive.getParameterIdDb().createAndGet(p2.getQualifiedName(), Type.SINT32);
+        int p3id = parchive.getParameterIdDb().createAndGet(p3.getQualifiedName(), Type.SINT32);
+        int pg1id = parchive.getParameterGroupIdDb().createAndGet(IntArray.wrap(p1id, p2id));
+        int pg2id = parchive.getParameterGroupIdDb().createAndGet(IntArray.wrap(p3id));
+
+        long t0 = TimeEncoding.parse("2016-12-31T20:00:00");
+        long dt = ParameterArchive.getIntervalDuration() / 4;
+        for (int k = 0; k < 20; k++) {
+            long segStart = ParameterArchive.getIntervalStart(t0 + k * ParameterArchive.getIntervalDuration());
+            PGSegment pgs1 = new PGSegment(pg1id, segStart, IntArray.wrap(p1id, p2id));
+            PGSegment pgs2 = new PGSegment(pg2id, segStart, IntArray.wrap(p3id));
+            for (int i = 0; i < 4; i++) {
+                long t = segStart + i * dt;
+                pgs1.addRecord(t, Arrays.asList(TestUtils.getParameterValue(p1, t, k * 10 + i),
+                        TestUtils.getParameterValue(p2, t, -k * 10 - i)));
+                pgs2.addRecord(t + 1, Arrays.asList(TestUtils.getParameterValue(p3, t + 1, k)));
+            }
+            parchive.writeToArchive(pgs1);
+            parchive.writeToArchive(pgs2);
+        }
+
+        int[] pids = new int[] { p1id, p2id, p3id };
+        int[] pgids = new int[] { pg1id, pg1id, pg2id };
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (boolean ascending : new boolean[] { true, false }) {
+                for (int limit : new int[] { -1, 33 }) {
+                    List<ParameterIdValueList> seq = retrieveMultipleParametersWith(null, pids, pgids, ascending,
+                            limit);
+                    List<ParameterIdValueList> par = retrieveMultipleParametersWith(executor, pids, pgids,
+                            ascending, limit);
+                    assertEquals(limit > 0 ? limit : 160, seq.size());
+                    assertEquals(seq.size(), par.size());
+                    for (int i = 0; i < seq.size(); i++) {
+                        assertEquals(seq.get(i).toString(), par.get(i).toString());
+                    }
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testExpireMillis() throws Exception {
         long t = TimeEncoding.parse("2018-03-19T10:35:00");
@@ -610,6 +658,173 @@ public class ParameterArchiveTest {
 
     }
 
+    @Test
+    public void testSegmentCache() throws Exception {
+        long t = TimeEncoding.parse("2018-03-19T10:35:00");
+        ParameterValue pv1_0 = getParameterValue(p1, t, "blala0", 0);
+        int p1id = parchive.getParameterIdDb().createAndGet(p1.getQualifiedName(), pv1_0.getEngValue().getType(),
+                pv1_0.getRawValue().getType());
+        int pg1id = parchive.getParameterGroupIdDb().createAndGet(IntArray.wrap(p1id));
+        long segStart = ParameterArchive.getIntervalStart(t);
+
+        PGSegment pgSegment1 = new PGSegment(pg1id, segStart, IntArray.wrap(p1id));
+        pgSegment1.addRecord(t, Arrays.asList(pv1_0));
+        parchive.writeToArchive(pgSegment1);
+
+        SegmentCache cache = parchive.getSegmentCache();
+        List<ParameterValueArray> l0a = retrieveSingleParamSingleGroup(t, t + 1000, p1id, pg1id, true);
+        checkEquals(l0a.get(0), pv1_0);
+        long misses = cache.getMissCount();
+        long hits = cache.getHitCount();
+        assertTrue(misses > 0);
+
+        // the second retrieval should use the decoded segments from the cache
+        List<ParameterValueArray> l1a = retrieveSingleParamSingleGroup(t, t + 1000, p1id, pg1id, true);
+        checkEquals(l1a.get(0), pv1_0);
+        assertEquals(misses, cache.getMissCount());
+        assertTrue(cache.getHitCount() > hits);
+
+        // rewrite the segment with one more value, the cached segments should be invalidated
+        ParameterValue pv1_1 = getParameterValue(p1, t + 10, "blala1", 1);
+        PGSegment pgSegment2 = new PGSegment(pg1id, segStart, IntArray.wrap(p1id));
+        pgSegment2.addRecord(t, Arrays.asList(pv1_0));
+        pgSegment2.addRecord(t + 10, Arrays.asList(pv1_1));
+        parchive.writeToArchive(segStart, Arrays.asList(pgSegment2));
+
+        List<ParameterValueArray> l2a = retrieveSingleParamSingleGroup(t, t + 1000, p1id, pg1id, true);
+        checkEquals(l2a.get(0), pv1_0, pv1_1);
+        List<ParameterIdValueList> l2m = retrieveMultipleParameters(t, t + 1000, new int[] { p1id },
+                new int[] { pg1id }, true);
+        assertEquals(2, l2m.size());
+        checkEquals(l2m.get(1), t + 10, pv1_1);
+    }
+
+    @Test
+    public void testRollups() throws Exception {
+        ParameterArchive parchive = newArchive(true);
+        int p1id = parchive.getParameterIdDb().createAndGet(p1.getQualifiedName(), Type.SINT32);
+        int pg1id = parchive.getParameterGroupIdDb().createAndGet(IntArray.wrap(p1id));
+        List<long[]> values1 = writeRollupTestData(parchive, p1, p1id, pg1id);
+
+        // the second parameter is written without rollups, they will be computed at retrieval
+        ParameterArchive parchive1 = newArchive(false);
+        int p2id = parchive1.getParameterIdDb().createAndGet(p2.getQualifiedName(), Type.SINT32);
+        int pg2id = parchive1.getParameterGroupIdDb().createAndGet(IntArray.wrap(p2id));
+        List<long[]> values2 = writeRollupTestData(parchive1, p2, p2id, pg2id);
+
+        long t0 = TimeEncoding.parse("2016-12-31T20:00:00");
+        long[][] ranges = new long[][] { { 0, TimeEncoding.MAX_INSTANT }, { t0 + 1234567, t0 + 23456789 } };
+        for (long[] range : ranges) {
+            for (int level = 0; level < RollupSegment.LEVEL_BUCKET_BITS.length; level++) {
+                int bits = RollupSegment.LEVEL_BUCKET_BITS[level];
+                assertEquals(expectedRollup(values1, bits, range[0], range[1]),
+                        retrieveRollup(parchive, p1.getQualifiedName(), range[0], range[1], level));
+                assertEquals(expectedRollup(values2, bits, range[0], range[1]),
+                        retrieveRollup(parchive1, p2.getQualifiedName(), range[0], range[1], level));
+            }
+        }
+    }
+
+    @Test
+    public void testRollupsWrittenFlag() throws Exception {
+        // no rollups have been written, the segments are written without deleting them
+        assertFalse(newArchive(false).hasRollupsWritten());
+        assertTrue(newArchive(true).hasRollupsWritten());
+        // the flag is persisted
+        assertTrue(newArchive(false).hasRollupsWritten());
+    }
+
+    @Test
+    public void testOutdatedRollups() throws Exception {
+        ParameterArchive parchive1 = newArchive(true);
+        int p1id = parchive1.getParameterIdDb().createAndGet(p1.getQualifiedName(), Type.SINT32);
+        int pg1id = parchive1.getParameterGroupIdDb().createAndGet(IntArray.wrap(p1id));
+        long t = TimeEncoding.parse("2018-03-19T10:35:00");
+        long segStart = ParameterArchive.getIntervalStart(t);
+
+        PGSegment pgs = new PGSegment(pg1id, segStart, IntArray.wrap(p1id));
+        pgs.addRecord(t, Arrays.asList(TestUtils.getParameterValue(p1, t, 10)));
+        parchive1.writeToArchive(pgs);
+
+        // rewrite the segment with one more value with the rollups disabled; the old rollups are deleted
+        ParameterArchive parchive2 = newArchive(false);
+        assertTrue(parchive2.hasRollupsWritten());
+        pgs = new PGSegment(pg1id, segStart, IntArray.wrap(p1id));
+        pgs.addRecord(t, Arrays.asList(TestUtils.getParameterValue(p1, t, 10)));
+        pgs.addRecord(t + 1000, Arrays.asList(TestUtils.getParameterValue(p1, t + 1000, 20)));
+        parchive2.writeToArchive(segStart, Arrays.asList(pgs));
+
+        List<long[]> values = Arrays.asList(new long[] { t, 10 }, new long[] { t + 1000, 20 });
+        for (int level = 0; level < RollupSegment.LEVEL_BUCKET_BITS.length; level++) {
+            int bits = RollupSegment.LEVEL_BUCKET_BITS[level];
+            assertEquals(expectedRollup(values, bits, 0, TimeEncoding.MAX_INSTANT),
+                    retrieveRollup(parchive2, p1.getQualifiedName(), 0, TimeEncoding.MAX_INSTANT, level));
+        }
+    }
+
+    private ParameterArchive newArchive(boolean rollups) throws Exception {
+        Map<String, Object> conf = new HashMap<>();
+        if (partitioningSchema != null) {
+            conf.put("partitioningSchema", partitioningSchema);
+        }
+        conf.put("rollups", rollups);
+        ParameterArchive parchive = new ParameterArchive();
+        parchive.init(instance, "test", parchive.getSpec().validate(YConfiguration.wrap(conf)));
+        return parchive;
+    }
+
+    // writes values in 5 intervals crossing the year boundary
+    private List<long[]> writeRollupTestData(ParameterArchive parchive, Parameter p, int pid, int pgid)
+            throws Exception {
+        List<long[]> values = new ArrayList<>();
+        long t0 = TimeEncoding.parse("2016-12-31T20:00:00");
+        long dt = ParameterArchive.getIntervalDuration() / 100;
+        for (int k = 0; k < 5; k++) {
+            long segStart = ParameterArchive.getIntervalStart(t0 + k * ParameterArchive.getIntervalDuration());
+            PGSegment pgs = new PGSegment(pgid, segStart, IntArray.wrap(pid));
+            for (int i = 0; i < 100; i++) {
+                long t = segStart + i * dt + k;
+                int v = (i * 37 + k * 11) % 101 - 50;
+                pgs.addRecord(t, Arrays.asList(TestUtils.getParameterValue(p, t, v)));
+                values.add(new long[] { t, v });
+            }
+            parchive.writeToArchive(pgs);
+        }
+        return values;
+    }
+
+    // bucket start -> count, min, max, sum
+    private Map<Long, List<Double>> expectedRollup(List<long[]> values, int bits, long start, long stop) {
+        Map<Long, List<Double>> r = new HashMap<>();
+        for (long[] tv : values) {
+            if (tv[0] < start || tv[0] > stop) {
+                continue;
+            }
+            long bs = tv[0] & (-1L << bits);
+            List<Double> l = r.get(bs);
+            double v = tv[1];
+            if (l == null) {
+                r.put(bs, Arrays.asList(1.0, v, v, v));
+            } else {
+                r.put(bs, Arrays.asList(l.get(0) + 1, Math.min(l.get(1), v), Math.max(l.get(2), v), l.get(3) + v));
+            }
+        }
+        return r;
+    }
+
+    private Map<Long, List<Double>> retrieveRollup(ParameterArchive parchive, String fqn, long start, long stop,
+            int level) throws Exception {
+        Map<Long, List<Double>> r = new HashMap<>();
+        RollupRetrieval rr = new RollupRetrieval(parchive, fqn, start, stop, level);
+        rr.retrieve(rs -> {
+            for (int i = 0; i < rs.size(); i++) {
+                assertNull(r.put(rs.getBucketStart(i), Arrays.asList((double) rs.getCount(i), rs.getMin(i),
+                        rs.getMax(i), rs.getSum(i))));
+            }
+        });
+        return r;
+    }
+
     List<ParameterIdValueList> retrieveMultipleParameters(long start, long stop, int[] parameterIds,
             int[] parameterGroupIds, boolean ascending) throws Exception {
         return retrieveMultipleParameters(start, stop, parameterIds, parameterGroupIds, ascending, -1);
@@ -634,6 +849,25 @@ public class ParameterArchiveTest {
         return c.list;
     }
 
+    // retrieves with the given executor (null for sequential retrieval) instead of the one of the parameter archive
+    List<ParameterIdValueList> retrieveMultipleParametersWith(ExecutorService executor, int[] parameterIds,
+            int[] parameterGroupIds, boolean ascending, int limit) throws Exception {
+        String[] parameterNames = new String[parameterIds.length];
+        for (int i = 0; i < parameterIds.length; i++) {
+            parameterNames[i] = "p" + parameterIds[i];
+        }
+        BitSet retrieveRawValues = new BitSet();
+        retrieveRawValues.set(0, parameterIds.length);
+        MultipleParameterValueRequest mpvr = new MultipleParameterValueRequest(0, TimeEncoding.MAX_INSTANT,
+                parameterNames, parameterIds, parameterGroupIds, retrieveRawValues, ascending);
+        mpvr.setLimit(limit);
+
+        MultiParameterDataRetrieval mpdr = new MultiParameterDataRetrieval(parchive, mpvr, executor, 2);
+        MultiValueConsumer c = new MultiValueConsumer();
+        mpdr.retrieve(c);
+        return c.list;
+    }
+
     class SingleValueConsumer implements Consumer<ParameterValueArray> {
         List<ParameterValueArray> list = new ArrayList<>();
 
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.util.Arrays;
 
 import org.junit.Test;
 import org.yamcs.protobuf.Yamcs.Value;
@@ -47,6 +48,7 @@ public class ParameterIdMapTest {
         int p11 = pidMap.createAndGet("/test1/bla", Value.Type.DOUBLE, Value.Type.SINT32);
         assertEquals(p10, p11);
 
+        assertEquals(Arrays.asList("/test1/bla", "/test2/bla"), pidMap.getParameterFqns());
     }
 
 }
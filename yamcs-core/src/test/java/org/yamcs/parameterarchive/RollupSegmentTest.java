@@ -0,0 +1,82 @@
+package org.yamcs.parameterarchive;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yamcs.protobuf.Pvalue.ParameterStatus;
+import org.yamcs.utils.TimeEncoding;
+
+public class RollupSegmentTest {
+    long t0 = ParameterArchive.getIntervalStart(10 * 365 * 25 * 60 * 1000L);
+
+    @BeforeClass
+    public static void beforeClass() {
+        TimeEncoding.setUp();
+    }
+
+    @Test
+    public void testBuildAndEncode() throws Exception {
+        SortedTimeSegment ts = new SortedTimeSegment(t0);
+        double[] values = new double[] { 3, -1, 7, 2.5, 10 };
+        long[] times = new long[] { 10, 20, 16384, 16390, 3 * 16384 + 5 };
+        ParameterStatusSegment pss = new ParameterStatusSegment(true);
+        for (long t : times) {
+            ts.add(t0 + t);
+            pss.add(ParameterStatus.newBuilder().setExpireMillis(1000 + t).build());
+        }
+        RollupSegment rs = RollupSegment.build(0, ts, values, pss, Long.MIN_VALUE, Long.MAX_VALUE);
+        assertEquals(3, rs.size());
+        assertEquals(t0 + 3 * 16384 + 5, rs.getLastTime());
+
+        ByteBuffer bb = ByteBuffer.allocate(rs.getMaxSerializedSize());
+        rs.writeTo(bb);
+        bb.flip();
+        RollupSegment rs1 = RollupSegment.parseFrom(bb, t0);
+
+        assertEquals(3, rs1.size());
+        assertEquals(14, rs1.getBucketBits());
+        assertEquals(rs.getLastTime(), rs1.getLastTime());
+
+        assertEquals(t0, rs1.getBucketStart(0));
+        assertEquals(2, rs1.getCount(0));
+        assertEquals(-1, rs1.getMin(0), 0);
+        assertEquals(3, rs1.getMax(0), 0);
+        assertEquals(2, rs1.getSum(0), 0);
+        assertEquals(1020, rs1.getExpireMillis(0));
+
+        assertEquals(t0 + 16384, rs1.getBucketStart(1));
+        assertEquals(2, rs1.getCount(1));
+        assertEquals(9.5, rs1.getSum(1), 0);
+        assertEquals(1000 + 16390, rs1.getExpireMillis(1));
+
+        assertEquals(t0 + 3 * 16384, rs1.getBucketStart(2));
+        assertEquals(1, rs1.getCount(2));
+        assertEquals(10, rs1.getMax(2), 0);
+    }
+
+    @Test
+    public void testBuildRange() {
+        SortedTimeSegment ts = new SortedTimeSegment(t0);
+        double[] values = new double[] { 1, 2, 3, 4 };
+        for (int i = 0; i < values.length; i++) {
+            ts.add(t0 + i * 100);
+        }
+        RollupSegment rs = RollupSegment.build(2, ts, values, null, t0 + 100, t0 + 200);
+        assertEquals(1, rs.size());
+        assertEquals(-1, rs.getExpireMillis(0));
+        assertEquals(2, rs.getCount(0));
+        assertEquals(5, rs.getSum(0), 0);
+        assertEquals(t0 + 200, rs.getLastTime());
+    }
+
+    @Test
+    public void testGetLevel() {
+        assertEquals(-1, RollupSegment.getLevel(1000));
+        assertEquals(0, RollupSegment.getLevel(20000));
+        assertEquals(1, RollupSegment.getLevel(300000));
+        assertEquals(2, RollupSegment.getLevel(365 * 24 * 3600 * 1000L / 500));
+    }
+}
@@ -0,0 +1,108 @@
+package org.yamcs.parameterarchive;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yamcs.utils.TimeEncoding;
+
+public class SegmentCacheTest {
+    static final String PARTITION = "2018";
+    long t0 = ParameterArchive.getIntervalStart(10 * 365 * 25 * 60 * 1000L);
+    SegmentEncoderDecoder encoder = new SegmentEncoderDecoder();
+
+    @BeforeClass
+    public static void beforeClass() {
+        TimeEncoding.setUp();
+    }
+
+    @Test
+    public void testReadThrough() throws Exception {
+        SegmentCache cache = new SegmentCache(1024 * 1024);
+        SegmentKey key = new SegmentKey(0, 1, t0, SegmentKey.TYPE_ENG_VALUE);
+        byte[] encoded = encodedTimeSegment(10);
+
+        BaseSegment s1 = cache.get(PARTITION, key, () -> encoded);
+        assertEquals(10, s1.size());
+        assertEquals(1, cache.getMissCount());
+
+        BaseSegment s2 = cache.get(PARTITION, key, () -> {
+            throw new AssertionError("should not read the database");
+        });
+        assertSame(s1, s2);
+        assertEquals(1, cache.getHitCount());
+
+        // same key in a different partition
+        BaseSegment s3 = cache.get("2019", key, cache.getGeneration(), encoded);
+        assertNotSame(s1, s3);
+        assertEquals(2, cache.getMissCount());
+
+        assertNull(cache.get(PARTITION, new SegmentKey(0, 2, t0, SegmentKey.TYPE_ENG_VALUE), () -> null));
+    }
+
+    @Test
+    public void testInvalidate() throws Exception {
+        SegmentCache cache = new SegmentCache(1024 * 1024);
+        SegmentKey key = new SegmentKey(0, 1, t0, SegmentKey.TYPE_ENG_VALUE);
+        cache.get(PARTITION, key, () -> encodedTimeSegment(10));
+
+        cache.invalidate(PARTITION, Arrays.asList(new SegmentKey(0, 1, t0, SegmentKey.TYPE_ENG_VALUE)));
+        assertEquals(0, cache.size());
+        assertEquals(20, cache.get(PARTITION, key, () -> encodedTimeSegment(20)).size());
+    }
+
+    @Test
+    public void testStaleDataNotCached() throws Exception {
+        SegmentCache cache = new SegmentCache(1024 * 1024);
+        SegmentKey key = new SegmentKey(0, 1, t0, SegmentKey.TYPE_ENG_VALUE);
+
+        // data read before a rewrite and decoded after the invalidation
+        long gen = cache.getGeneration();
+        byte[] oldData = encodedTimeSegment(10);
+        cache.invalidate(PARTITION, Arrays.asList(key));
+
+        assertEquals(10, cache.get(PARTITION, key, gen, oldData).size());
+        assertEquals(0, cache.size());
+        assertEquals(20, cache.get(PARTITION, key, cache.getGeneration(), encodedTimeSegment(20)).size());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        int n = 1000;
+        int segmentSize = SegmentCache.estimateSize(new SortedTimeSegment(t0), 0) + 4 * n;
+        SegmentCache cache = new SegmentCache(10 * segmentSize);
+        byte[] encoded = encodedTimeSegment(n);
+        for (int i = 0; i < 100; i++) {
+            cache.get(PARTITION, new SegmentKey(i, 1, t0, SegmentKey.TYPE_ENG_VALUE), () -> encoded);
+        }
+        assertTrue(cache.size() <= 10);
+        assertTrue(cache.getEvictionCount() >= 90);
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        SegmentCache cache = new SegmentCache(0);
+        SegmentKey key = new SegmentKey(0, 1, t0, SegmentKey.TYPE_ENG_VALUE);
+        byte[] encoded = encodedTimeSegment(10);
+        BaseSegment s1 = cache.get(PARTITION, key, () -> encoded);
+        BaseSegment s2 = cache.get(PARTITION, key, () -> encoded);
+        assertNotSame(s1, s2);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    private byte[] encodedTimeSegment(int n) {
+        SortedTimeSegment ts = new SortedTimeSegment(t0);
+        for (int i = 0; i < n; i++) {
+            ts.add(t0 + i * 10);
+        }
+        return encoder.encode(ts);
+    }
+}
@@ -0,0 +1,117 @@
+package org.yamcs.replication;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.yamcs.replication.Message.BATCH;
+import static org.yamcs.replication.Message.DATA;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.yamcs.utils.DecodingException;
+import org.yamcs.utils.FileUtils;
+
+public class BatchMessageTest {
+    Path dir;
+
+    @Before
+    public void before() throws IOException {
+        dir = Files.createTempDirectory("repltest");
+    }
+
+    @After
+    public void after() throws IOException {
+        FileUtils.deleteRecursivelyIfExists(dir);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        ReplicationFile rf = ReplicationFile.newFile("test", dir.resolve("t1"), 100, 10, 10, 64 * 1024);
+        for (int i = 0; i < 50; i++) {
+            rf.writeData(new DataTransaction(i));
+        }
+        ByteBuffer tail = rf.tail(100).buf;
+        int rawLength = tail.remaining();
+        byte[] raw = new byte[rawLength];
+        tail.duplicate().get(raw);
+
+        Deflater deflater = new Deflater();
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] compressed = new byte[rawLength];
+        int length = deflater.deflate(compressed);
+        assertTrue(deflater.finished());
+        deflater.end();
+
+        ByteBuffer wire = Message.encodeBatch(rawLength, compressed, length);
+        assertEquals(length + 12, wire.remaining());
+        assertEquals(BATCH, wire.get(0));
+
+        BatchMessage bmsg = (BatchMessage) Message.decode(wire);
+        Inflater inflater = new Inflater();
+        ByteBuffer batch = bmsg.inflate(inflater);
+        inflater.end();
+        assertEquals(rawLength, batch.remaining());
+
+        long txId = 100;
+        while (batch.hasRemaining()) {
+            ByteBuffer msgBuf = batch.slice();
+            msgBuf.limit(4 + (msgBuf.getInt(0) & 0xFFFFFF));
+            batch.position(batch.position() + msgBuf.limit());
+            TransactionMessage tmsg = (TransactionMessage) Message.decode(msgBuf);
+            assertEquals(DATA, tmsg.type);
+            assertEquals(txId, tmsg.txId);
+            assertEquals(txId - 100, tmsg.buf.getInt());
+            txId++;
+        }
+        assertEquals(150, txId);
+        rf.close();
+    }
+
+    @Test(expected = DecodingException.class)
+    public void testWrongLength() throws Exception {
+        byte[] raw = new byte[100];
+        Deflater deflater = new Deflater();
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] compressed = new byte[100];
+        int length = deflater.deflate(compressed);
+        deflater.end();
+
+        BatchMessage bmsg = (BatchMessage) Message.decode(Message.encodeBatch(200, compressed, length));
+        bmsg.inflate(new Inflater());
+    }
+
+    static class DataTransaction implements Transaction {
+        final int k;
+
+        DataTransaction(int k) {
+            this.k = k;
+        }
+
+        @Override
+        public void marshall(ByteBuffer buf) {
+            buf.putInt(k);
+            for (int i = 0; i < 20; i++) {
+                buf.putInt(i);
+            }
+        }
+
+        @Override
+        public byte getType() {
+            return DATA;
+        }
+
+        @Override
+        public int getInstanceId() {
+            return 1;
+        }
+    }
+}
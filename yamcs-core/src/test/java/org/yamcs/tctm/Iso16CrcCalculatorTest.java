@@ -37,4 +37,10 @@ public class Iso16CrcCalculatorTest {
         byte[] b4 = StringConverter.hexStringToArray("1456F89A0001");
         assertEquals(0x24DC, crcCalculator.compute(b4, 0, b4.length));
     }
+
+    @Test
+    public void testOffset() {
+        byte[] b = StringConverter.hexStringToArray("00111456F89A0001");
+        assertEquals(0x24DC, crcCalculator.compute(b, 2, b.length - 2));
+    }
 }
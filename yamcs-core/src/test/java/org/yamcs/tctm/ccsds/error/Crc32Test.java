@@ -16,4 +16,36 @@ public class Crc32Test {
       ProximityCrc32 c = new ProximityCrc32();
        assertEquals(0x34D74CB3, c.compute(data, 0, data.length));
     }
+
+    @Test
+    public void testTableDriven() {
+        int polynomial = 0xA00805;
+        Crc32Calculator cc = new Crc32Calculator(polynomial);
+        Random r = new Random();
+        byte[] data = new byte[1000];
+        r.nextBytes(data);
+        for (int i = 0; i < 100; i++) {
+            int offset = r.nextInt(100);
+            int length = r.nextInt(data.length - offset);
+            int expected = bitwiseCrc(polynomial, data, offset, length);
+            assertEquals(expected, cc.compute(data, offset, length, 0));
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(length);
+            direct.put(data, offset, length);
+            direct.flip();
+            assertEquals(expected, cc.compute(direct, 0));
+            assertEquals(0, direct.position());
+        }
+    }
+
+    static int bitwiseCrc(int polynomial, byte[] data, int offset, int length) {
+        int crc = 0;
+        for (int i = offset; i < offset + length; i++) {
+            crc ^= data[i] << 24;
+            for (int j = 0; j < 8; j++) {
+                crc = (crc & 0x80000000) == 0 ? crc << 1 : (crc << 1) ^ polynomial;
+            }
+        }
+        return crc;
+    }
 }
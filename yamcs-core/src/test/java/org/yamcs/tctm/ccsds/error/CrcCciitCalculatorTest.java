@@ -2,6 +2,9 @@ package org.yamcs.tctm.ccsds.error;
 
 import static org.junit.Assert.assertEquals;
 
+import java.nio.ByteBuffer;
+import java.util.Random;
+
 import org.junit.Test;
 import org.yamcs.YConfiguration;
 import org.yamcs.tctm.ccsds.error.CrcCciitCalculator;
@@ -14,4 +17,35 @@ public class CrcCciitCalculatorTest {
         int x = c.compute(data, 0, data.length);
         assertEquals(0x75FB, x);
     }
+
+    @Test
+    public void testTableDriven() {
+        CrcCciitCalculator c = new CrcCciitCalculator();
+        Random r = new Random();
+        byte[] data = new byte[1000];
+        r.nextBytes(data);
+        for (int i = 0; i < 100; i++) {
+            int offset = r.nextInt(100);
+            int length = r.nextInt(data.length - offset);
+            int expected = bitwiseCrc(data, offset, length);
+            assertEquals(expected, c.compute(data, offset, length));
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(length);
+            direct.put(data, offset, length);
+            direct.flip();
+            assertEquals(expected, c.compute(direct));
+            assertEquals(expected, c.compute(ByteBuffer.wrap(data, offset, length)));
+        }
+    }
+
+    static int bitwiseCrc(byte[] data, int offset, int length) {
+        int crc = 0xFFFF;
+        for (int i = offset; i < offset + length; i++) {
+            crc ^= (data[i] & 0xFF) << 8;
+            for (int j = 0; j < 8; j++) {
+                crc = (crc & 0x8000) == 0 ? crc << 1 : (crc << 1) ^ 0x1021;
+            }
+        }
+        return crc & 0xFFFF;
+    }
 }
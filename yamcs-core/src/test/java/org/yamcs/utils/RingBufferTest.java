@@ -0,0 +1,70 @@
+package org.yamcs.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class RingBufferTest {
+
+    @Test
+    public void testFull() {
+        RingBuffer<Integer> rb = new RingBuffer<>(3);
+        assertEquals(4, rb.capacity());
+        assertNull(rb.poll());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(rb.offer(i));
+        }
+        assertFalse(rb.offer(4));
+        assertEquals(4, rb.size());
+
+        assertEquals(0, (int) rb.poll());
+        assertTrue(rb.offer(4));
+        for (int i = 1; i < 5; i++) {
+            assertEquals(i, (int) rb.poll());
+        }
+        assertNull(rb.poll());
+        assertTrue(rb.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        int n = 100_000;
+        int numProducers = 3;
+        RingBuffer<int[]> rb = new RingBuffer<>(64);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < numProducers; p++) {
+            int producerId = p;
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < n; i++) {
+                    int[] e = new int[] { producerId, i };
+                    while (!rb.offer(e)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producers.add(t);
+            t.start();
+        }
+
+        int[] next = new int[numProducers];
+        int count = 0;
+        while (count < n * numProducers) {
+            int[] e = rb.poll();
+            if (e == null) {
+                Thread.yield();
+                continue;
+            }
+            // the order of the elements from the same producer is kept
+            assertEquals(next[e[0]], e[1]);
+            next[e[0]]++;
+            count++;
+        }
+        for (Thread t : producers) {
+            t.join();
+        }
+        assertNull(rb.poll());
+    }
+}
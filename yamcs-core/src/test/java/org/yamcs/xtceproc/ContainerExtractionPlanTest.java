@@ -0,0 +1,157 @@
+package org.yamcs.xtceproc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yamcs.ContainerExtractionResult;
+import org.yamcs.ProcessorConfig;
+import org.yamcs.RefMdbPacketGenerator;
+import org.yamcs.YConfiguration;
+import org.yamcs.parameter.ParameterValue;
+import org.yamcs.utils.TimeEncoding;
+import org.yamcs.xtce.Comparison;
+import org.yamcs.xtce.OperatorType;
+import org.yamcs.xtce.Parameter;
+import org.yamcs.xtce.ParameterInstanceRef;
+import org.yamcs.xtce.SequenceContainer;
+import org.yamcs.xtce.XtceDb;
+
+public class ContainerExtractionPlanTest {
+    private static XtceDb xtcedb;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        YConfiguration.setupTest("refmdb");
+        XtceDbFactory.reset();
+        xtcedb = XtceDbFactory.createInstanceByConfig("refmdb");
+    }
+
+    @Test
+    public void testSameResultAsInterpreted() {
+        RefMdbPacketGenerator tmGenerator = new RefMdbPacketGenerator();
+        List<byte[]> packets = Arrays.asList(tmGenerator.generate_PKT1_1(), tmGenerator.generate_PKT1_2(),
+                tmGenerator.generate_PKT1_3(), tmGenerator.generate_PKT14(), tmGenerator.generate_PKT1_5(),
+                tmGenerator.generate_PKT1_6(3, 4), tmGenerator.generate_PKT1_7(), tmGenerator.generate_PKT1_8(1, 2),
+                tmGenerator.generate_PKT1_9(), tmGenerator.generate_PKT1_10(7, 1, 3.5f),
+                tmGenerator.generate_PKT1_11(), tmGenerator.generate_PKT1_12(), toArray(tmGenerator.generate_PKT1_List()),
+                toArray(tmGenerator.generate_PKT1_AND()), toArray(tmGenerator.generate_PKT1_OR_1()),
+                toArray(tmGenerator.generate_PKT1_AND_OR_1()), toArray(tmGenerator.generate_PKT1_AND_OR_2()),
+                tmGenerator.generate_PKT2(), tmGenerator.generate_PKT3(), tmGenerator.generate_PKT4(),
+                tmGenerator.generate_PKT5(), tmGenerator.generate_PKT6(), tmGenerator.generate_PKT7(),
+                tmGenerator.generate_PKT8());
+
+        XtceTmExtractor interpreted = new XtceTmExtractor(xtcedb);
+        interpreted.provideAll();
+        XtceTmExtractor compiled = new XtceTmExtractor(xtcedb, compiledPlanData());
+        compiled.provideAll();
+
+        for (byte[] pkt : packets) {
+            long t = TimeEncoding.getWallclockTime();
+            ContainerProcessingResult r1 = interpreted.processPacket(pkt, t, t);
+            ContainerProcessingResult r2 = compiled.processPacket(pkt, t, t);
+            assertEquals(toStrings(r1), toStrings(r2));
+            assertEquals(r1.expireMillis, r2.expireMillis);
+        }
+    }
+
+    @Test
+    public void testRecompileOnSubscriptionChange() {
+        RefMdbPacketGenerator tmGenerator = new RefMdbPacketGenerator();
+        Parameter p1 = xtcedb.getParameter("/REFMDB/SUBSYS1/IntegerPara1_1_6");
+        Parameter p2 = xtcedb.getParameter("/REFMDB/SUBSYS1/IntegerPara1_1_7");
+
+        XtceTmExtractor tmExtractor = new XtceTmExtractor(xtcedb, compiledPlanData());
+        tmExtractor.startProviding(p1);
+
+        byte[] pkt = tmGenerator.generate_PKT1_1();
+        ContainerProcessingResult cpr = tmExtractor.processPacket(pkt, 0, 0);
+        assertNotNull(cpr.getParameterResult().getLastInserted(p1));
+        assertNull(cpr.getParameterResult().getLastInserted(p2));
+        ContainerExtractionPlan plan = tmExtractor.extractionPlan;
+
+        tmExtractor.startProviding(p2);
+        assertTrue(plan.isOutdated());
+        cpr = tmExtractor.processPacket(pkt, 0, 0);
+        ParameterValue pv = cpr.getParameterResult().getLastInserted(p2);
+        assertNotNull(pv);
+        assertEquals(tmGenerator.pIntegerPara1_1_7, pv.getEngValue().getUint32Value());
+    }
+
+    @Test
+    public void testExplicitOptions() {
+        RefMdbPacketGenerator tmGenerator = new RefMdbPacketGenerator();
+        XtceTmExtractor tmExtractor = new XtceTmExtractor(xtcedb);
+        ContainerProcessingOptions options = new ContainerProcessingOptions();
+        options.setCompiledExtractionPlans(true);
+        tmExtractor.setOptions(options);
+        tmExtractor.provideAll();
+
+        tmExtractor.processPacket(tmGenerator.generate_PKT1_1(), 0, 0);
+        assertNotNull(tmExtractor.extractionPlan);
+    }
+
+    @Test
+    public void testDiscriminantNotAvailable() {
+        XtceDb db = XtceDbFactory.createInstanceByConfig("discriminant");
+        // c1 is discriminated on a parameter which has no value, c2 on a float parameter
+        SequenceContainer c2 = db.getSequenceContainer("/DISC/c2");
+        c2.setRestrictionCriteria(
+                new Comparison(new ParameterInstanceRef(db.getParameter("/DISC/fval")), 1, OperatorType.EQUALITY));
+
+        XtceTmExtractor interpreted = new XtceTmExtractor(db);
+        interpreted.provideAll();
+        XtceTmExtractor compiled = new XtceTmExtractor(db, compiledPlanData(db));
+        compiled.provideAll();
+
+        byte[] pkt = new byte[] { 1, 2, 3, 4, 5 };
+        for (String name : Arrays.asList("/DISC/base1", "/DISC/base2")) {
+            SequenceContainer sc = db.getSequenceContainer(name);
+            long t = TimeEncoding.getWallclockTime();
+            ContainerProcessingResult r1 = interpreted.processPacket(pkt, t, t, sc);
+            ContainerProcessingResult r2 = compiled.processPacket(pkt, t, t, sc);
+            // the criteria of the inheriting container is evaluated and not met
+            assertEquals(1, r2.getContainerResult().size());
+            assertEquals(toStrings(r1), toStrings(r2));
+        }
+    }
+
+    private static ProcessorData compiledPlanData() {
+        return compiledPlanData(xtcedb);
+    }
+
+    private static ProcessorData compiledPlanData(XtceDb db) {
+        ProcessorConfig pconf = new ProcessorConfig();
+        pconf.getContainerProcessingOptions().setCompiledExtractionPlans(true);
+        return new ProcessorData(null, "XTCEPROC", db, pconf);
+    }
+
+    private static byte[] toArray(ByteBuffer bb) {
+        byte[] b = new byte[bb.remaining()];
+        bb.get(b);
+        return b;
+    }
+
+    // the order of processing the inheriting containers is not defined so we compare the sorted results
+    private static List<String> toStrings(ContainerProcessingResult cpr) {
+        List<String> l = new ArrayList<>();
+        for (ParameterValue pv : cpr.getParameterResult()) {
+            l.add(pv.getParameterQualifiedNamed() + " " + pv.getRawValue() + " " + pv.getEngValue() + " "
+                    + pv.getAcquisitionStatus());
+        }
+        for (ContainerExtractionResult cer : cpr.getContainerResult()) {
+            l.add(cer.getContainer().getQualifiedName() + " " + cer.getLocationInContainerInBits());
+        }
+        Collections.sort(l);
+        return l;
+    }
+}
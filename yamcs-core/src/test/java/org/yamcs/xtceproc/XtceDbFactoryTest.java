@@ -2,6 +2,9 @@ package org.yamcs.xtceproc;
 
 import static org.junit.Assert.*;
 
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -9,9 +12,11 @@ import java.util.Map;
 
 import org.junit.Test;
 import org.yamcs.YConfiguration;
+import org.yamcs.xtce.IntegerParameterType;
 import org.yamcs.xtce.Parameter;
 import org.yamcs.xtce.SequenceContainer;
 import org.yamcs.xtce.SpaceSystem;
+import org.yamcs.xtce.SpaceSystemLoader;
 import org.yamcs.xtce.XtceDb;
 import org.yamcs.xtce.util.NameReference.Type;
 import org.yamcs.xtce.util.ReferenceFinder;
@@ -66,5 +71,130 @@ public class XtceDbFactoryTest {
         assertEquals("/REFMDB/SUBSYS1/IntegerPara1_1", rr.getNameDescription().getQualifiedName());
     }
 
-   
+    @Test
+    public void testLoaderCacheFiles() throws Exception {
+        YConfiguration.setupTest("refmdb");
+        XtceDbFactory.reset();
+        CountingLoader.reset();
+
+        List<YConfiguration> mdbConfigs = Arrays.asList(countingLoaderConfig("ssa"), countingLoaderConfig("ssb"));
+        XtceDb db = XtceDbFactory.createInstance(mdbConfigs, true, true);
+        assertNotNull(db.getParameter("/ssa/p1"));
+        assertEquals(1, CountingLoader.getLoadCount("ssa"));
+        assertEquals(1, CountingLoader.getLoadCount("ssb"));
+
+        // nothing changed, the whole MDB is loaded from the cache
+        db = XtceDbFactory.createInstance(mdbConfigs, true, true);
+        assertNotNull(db.getParameter("/ssb/p1"));
+        assertEquals(1, CountingLoader.getLoadCount("ssa"));
+        assertEquals(1, CountingLoader.getLoadCount("ssb"));
+
+        // only ssb changes, ssa is loaded from its own cache file
+        CountingLoader.versions.put("ssb", 2);
+        db = XtceDbFactory.createInstance(mdbConfigs, true, true);
+        assertEquals(1, CountingLoader.getLoadCount("ssa"));
+        assertEquals(2, CountingLoader.getLoadCount("ssb"));
+        assertNotNull(db.getParameter("/ssa/p1"));
+        assertNotNull(db.getParameter("/ssb/p2"));
+        assertEquals("/ssa", db.getParameter("/ssa/p1").getSubsystemName());
+    }
+
+    @Test
+    public void testLoaderArgsInCacheKey() throws Exception {
+        YConfiguration.setupTest("refmdb");
+        XtceDbFactory.reset();
+        CountingLoader.reset();
+
+        XtceDb db = XtceDbFactory.createInstance(Arrays.asList(countingLoaderConfig("ssc", "p")), true, true);
+        assertNotNull(db.getParameter("/ssc/p1"));
+
+        // same config name and consistency date but different arguments, the cache files are not used
+        db = XtceDbFactory.createInstance(Arrays.asList(countingLoaderConfig("ssc", "q")), true, true);
+        assertNotNull(db.getParameter("/ssc/q1"));
+        assertNull(db.getParameter("/ssc/p1"));
+        assertEquals(2, CountingLoader.getLoadCount("ssc"));
+    }
+
+    private static YConfiguration countingLoaderConfig(String name) {
+        return countingLoaderConfig(name, "p");
+    }
+
+    private static YConfiguration countingLoaderConfig(String name, String prefix) {
+        Map<String, Object> args = new HashMap<>();
+        args.put("name", name);
+        args.put("prefix", prefix);
+        Map<String, Object> m = new HashMap<>();
+        m.put("type", CountingLoader.class.getName());
+        m.put("args", args);
+        return YConfiguration.wrap(m);
+    }
+
+    /**
+     * Creates a space system with as many parameters (named with the prefix followed by a number) as the version number
+     * and keeps track of how many times it has been called. The prefix is not part of the config name.
+     */
+    public static class CountingLoader implements SpaceSystemLoader {
+        static Map<String, Integer> versions = new HashMap<>();
+        static Map<String, Integer> loadCounts = new HashMap<>();
+        // makes the config names unique for each test run, such that the cache files of the previous runs are not used
+        static long runId;
+        final String name;
+        final String prefix;
+
+        public CountingLoader(YConfiguration config) {
+            name = config.getString("name");
+            prefix = config.getString("prefix");
+        }
+
+        static void reset() {
+            versions.clear();
+            loadCounts.clear();
+            runId = System.nanoTime();
+        }
+
+        static int getLoadCount(String name) {
+            return loadCounts.getOrDefault(name, 0);
+        }
+
+        private String getConsistencyLine() {
+            return name + " " + versions.getOrDefault(name, 1);
+        }
+
+        @Override
+        public boolean needsUpdate(RandomAccessFile consistencyDateFile) throws IOException {
+            String line;
+            while ((line = consistencyDateFile.readLine()) != null) {
+                if (line.equals(getConsistencyLine())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String getConfigName() {
+            return "counting-" + name + "-" + runId;
+        }
+
+        @Override
+        public void writeConsistencyDate(FileWriter consistencyDateFile) throws IOException {
+            consistencyDateFile.write(getConsistencyLine() + "\n");
+        }
+
+        @Override
+        public SpaceSystem load() {
+            loadCounts.merge(name, 1, Integer::sum);
+            SpaceSystem ss = new SpaceSystem(name);
+            IntegerParameterType ptype = new IntegerParameterType.Builder().setName("uint32").setSizeInBits(32)
+                    .setSigned(false).build();
+            ss.addParameterType(ptype);
+            int n = versions.getOrDefault(name, 1);
+            for (int i = 1; i <= n; i++) {
+                Parameter p = new Parameter(prefix + i);
+                p.setParameterType(ptype);
+                ss.addParameter(p);
+            }
+            return ss;
+        }
+    }
 }
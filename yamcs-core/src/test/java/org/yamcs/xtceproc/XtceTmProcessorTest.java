@@ -0,0 +1,183 @@
+package org.yamcs.xtceproc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yamcs.ProcessorConfig;
+import org.yamcs.RefMdbPacketGenerator;
+import org.yamcs.TmPacket;
+import org.yamcs.YConfiguration;
+import org.yamcs.parameter.ParameterValue;
+import org.yamcs.utils.TimeEncoding;
+import org.yamcs.xtce.Parameter;
+import org.yamcs.xtce.ParameterEntry;
+import org.yamcs.xtce.SequenceContainer;
+import org.yamcs.xtce.XtceDb;
+
+public class XtceTmProcessorTest {
+    private static XtceDb xtcedb;
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        YConfiguration.setupTest("refmdb");
+        XtceDbFactory.reset();
+        xtcedb = XtceDbFactory.createInstanceByConfig("refmdb");
+    }
+
+    @Test
+    public void testParallelDecodingKeepsOrder() {
+        ProcessorConfig pconfig = new ProcessorConfig();
+        pconfig.getContainerProcessingOptions().setDecodingThreads(4);
+        XtceTmProcessor tmProcessor = new XtceTmProcessor(xtcedb, pconfig);
+
+        SequenceContainer sc = xtcedb.getSequenceContainer("/REFMDB/SUBSYS1/PKT1_6");
+        assertNotNull(sc);
+        Parameter p = ((ParameterEntry) sc.getEntryList().get(0)).getParameter();
+        tmProcessor.startProviding(p);
+
+        List<Integer> received = new ArrayList<>();
+        tmProcessor.setParameterListener(params -> {
+            for (ParameterValue pv : params) {
+                if (pv.getParameter() == p) {
+                    received.add(pv.getRawValue().getUint32Value());
+                }
+            }
+        });
+        tmProcessor.startAsync().awaitRunning();
+
+        RefMdbPacketGenerator tmGenerator = new RefMdbPacketGenerator();
+        int n = 2000;
+        for (int i = 0; i < n; i++) {
+            byte[] pkt = tmGenerator.generate_PKT1_6(i, 0);
+            tmProcessor.processPacket(new TmPacket(TimeEncoding.getWallclockTime(), pkt),
+                    xtcedb.getRootSequenceContainer());
+        }
+        tmProcessor.finished();
+        tmProcessor.awaitTerminated();
+
+        assertEquals(n, received.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, received.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testParallelDecodingPerSource() throws Exception {
+        ProcessorConfig pconfig = new ProcessorConfig();
+        pconfig.getContainerProcessingOptions().setDecodingThreads(2);
+        XtceTmProcessor tmProcessor = new XtceTmProcessor(xtcedb, pconfig);
+
+        SequenceContainer sc = xtcedb.getSequenceContainer("/REFMDB/SUBSYS1/PKT1_6");
+        Parameter p = ((ParameterEntry) sc.getEntryList().get(0)).getParameter();
+        tmProcessor.startProviding(p);
+
+        int numSources = 3;
+        int n = 1000;
+        List<List<Integer>> received = new ArrayList<>();
+        for (int k = 0; k < numSources; k++) {
+            received.add(Collections.synchronizedList(new ArrayList<>()));
+        }
+        tmProcessor.setParameterListener(params -> {
+            for (ParameterValue pv : params) {
+                if (pv.getParameter() == p) {
+                    int v = pv.getRawValue().getUint32Value();
+                    received.get(v / n).add(v % n);
+                }
+            }
+        });
+        tmProcessor.startAsync().awaitRunning();
+
+        // each source delivers its packets from its own thread, like the links do
+        List<Thread> sources = new ArrayList<>();
+        for (int k = 0; k < numSources; k++) {
+            int base = k * n;
+            Thread t = new Thread(() -> {
+                RefMdbPacketGenerator tmGenerator = new RefMdbPacketGenerator();
+                for (int i = 0; i < n; i++) {
+                    byte[] pkt = tmGenerator.generate_PKT1_6(base + i, 0);
+                    tmProcessor.processPacket(new TmPacket(TimeEncoding.getWallclockTime(), pkt),
+                            xtcedb.getRootSequenceContainer());
+                }
+            });
+            t.start();
+            sources.add(t);
+        }
+        for (Thread t : sources) {
+            t.join();
+        }
+        tmProcessor.finished();
+        tmProcessor.awaitTerminated();
+
+        for (int k = 0; k < numSources; k++) {
+            List<Integer> l = received.get(k);
+            assertEquals(n, l.size());
+            for (int i = 0; i < n; i++) {
+                assertEquals(i, l.get(i).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void testOneLanePerSource() throws Exception {
+        int numSources = 4;
+        ProcessorConfig pconfig = new ProcessorConfig();
+        pconfig.getContainerProcessingOptions().setDecodingThreads(numSources);
+        pconfig.getContainerProcessingOptions().setCompiledExtractionPlans(true);
+        XtceTmProcessor tmProcessor = new XtceTmProcessor(xtcedb, pconfig);
+
+        SequenceContainer sc = xtcedb.getSequenceContainer("/REFMDB/SUBSYS1/PKT1_6");
+        Parameter p = ((ParameterEntry) sc.getEntryList().get(0)).getParameter();
+        tmProcessor.startProviding(p);
+
+        int n = 1000;
+        // names of the decoding threads used for each source
+        List<Set<String>> lanes = new ArrayList<>();
+        for (int k = 0; k < numSources; k++) {
+            lanes.add(Collections.synchronizedSet(new HashSet<>()));
+        }
+        tmProcessor.setParameterListener(params -> {
+            for (ParameterValue pv : params) {
+                if (pv.getParameter() == p) {
+                    lanes.get(pv.getRawValue().getUint32Value() / n).add(Thread.currentThread().getName());
+                }
+            }
+        });
+        tmProcessor.startAsync().awaitRunning();
+
+        List<Thread> sources = new ArrayList<>();
+        for (int k = 0; k < numSources; k++) {
+            int base = k * n;
+            Thread t = new Thread(() -> {
+                RefMdbPacketGenerator tmGenerator = new RefMdbPacketGenerator();
+                for (int i = 0; i < n; i++) {
+                    byte[] pkt = tmGenerator.generate_PKT1_6(base + i, 0);
+                    tmProcessor.processPacket(new TmPacket(TimeEncoding.getWallclockTime(), pkt),
+                            xtcedb.getRootSequenceContainer());
+                }
+            });
+            t.start();
+            sources.add(t);
+        }
+        for (Thread t : sources) {
+            t.join();
+        }
+        tmProcessor.finished();
+        tmProcessor.awaitTerminated();
+
+        // the lanes are assigned in turn, so as many sources as lanes do not share any lane
+        Set<String> allLanes = new HashSet<>();
+        for (Set<String> l : lanes) {
+            assertEquals(1, l.size());
+            allLanes.addAll(l);
+        }
+        assertEquals(numSources, allLanes.size());
+    }
+}
@@ -0,0 +1,164 @@
+package org.yamcs.yarch;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.yamcs.yarch.AsyncSubscriber.OverflowPolicy;
+
+public class AsyncStreamTest extends YarchTestCase {
+    int n = 1000;
+
+    @Test
+    public void testBlock() throws Exception {
+        Stream s = createStream("test1", 16, OverflowPolicy.BLOCK);
+        CollectingSubscriber fast = new CollectingSubscriber(0);
+        CollectingSubscriber slow = new CollectingSubscriber(1);
+        s.addSubscriber(fast);
+        s.addSubscriber(slow);
+        emit(s);
+
+        fast.await();
+        slow.await();
+        checkAll(fast.received);
+        checkAll(slow.received);
+        assertNotSame(Thread.currentThread(), slow.thread);
+        assertNotSame(fast.thread, slow.thread);
+
+        AsyncSubscriber as = s.getAsyncSubscribers().get(1);
+        assertEquals(slow, as.getSubscriber());
+        assertEquals(n, as.getDeliveredCount());
+        assertEquals(0, as.getLag());
+        assertTrue(as.getMaxLag() > 0);
+    }
+
+    @Test
+    public void testDrop() throws Exception {
+        Stream s = createStream("test2", 16, OverflowPolicy.DROP);
+        CollectingSubscriber slow = new CollectingSubscriber(1);
+        s.addSubscriber(slow);
+        emit(s);
+        slow.await();
+
+        AsyncSubscriber as = s.getAsyncSubscribers().get(0);
+        assertTrue(as.getDroppedCount() > 0);
+        assertEquals(n, slow.received.size() + as.getDroppedCount());
+        for (int i = 1; i < slow.received.size(); i++) {
+            assertTrue(slow.received.get(i) > slow.received.get(i - 1));
+        }
+    }
+
+    @Test
+    public void testSpill() throws Exception {
+        Stream s = createStream("test3", 16, OverflowPolicy.SPILL);
+        CollectingSubscriber slow = new CollectingSubscriber(1);
+        s.addSubscriber(slow);
+        emit(s);
+        slow.await();
+        checkAll(slow.received);
+        assertTrue(s.getAsyncSubscribers().get(0).getSpilledCount() > 0);
+    }
+
+    @Test
+    public void testRemoveSubscriber() throws Exception {
+        Stream s = createStream("test4", 2048, OverflowPolicy.BLOCK);
+        CollectingSubscriber slow = new CollectingSubscriber(1);
+        s.addSubscriber(slow);
+        for (int i = 0; i < 100; i++) {
+            s.emitTuple(new Tuple(s.getDefinition(), new Object[] { i }));
+        }
+        s.removeSubscriber(slow);
+        assertEquals(100, slow.received.size());
+        assertTrue(s.getAsyncSubscribers().isEmpty());
+        s.close();
+        assertFalse(slow.closed.await(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testCloseWithFullQueue() throws Exception {
+        Stream s = createStream("test5", 4, OverflowPolicy.DROP);
+        CountDownLatch release = new CountDownLatch(1);
+        CollectingSubscriber stuck = new CollectingSubscriber(0) {
+            @Override
+            public void onTuple(Stream s, Tuple tuple) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onTuple(s, tuple);
+            }
+        };
+        s.addSubscriber(stuck);
+        for (int i = 0; i < 10; i++) {
+            s.emitTuple(new Tuple(s.getDefinition(), new Object[] { i }));
+        }
+        // does not wait for space in the queue
+        s.close();
+        assertEquals(1, stuck.closed.getCount());
+
+        release.countDown();
+        stuck.await();
+        AsyncSubscriber as = s.getAsyncSubscribers().get(0);
+        assertEquals(10, stuck.received.size() + as.getDroppedCount());
+    }
+
+    private Stream createStream(String name, int queueSize, OverflowPolicy policy) throws Exception {
+        execute("create stream " + name + " (x int)");
+        Stream s = ydb.getStream(name);
+        s.setAsyncDispatch(new AsyncSubscriber.Config(queueSize, policy));
+        return s;
+    }
+
+    private void emit(Stream s) {
+        for (int i = 0; i < n; i++) {
+            s.emitTuple(new Tuple(s.getDefinition(), new Object[] { i }));
+        }
+        s.close();
+    }
+
+    private void checkAll(List<Integer> l) {
+        assertEquals(n, l.size());
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, (int) l.get(i));
+        }
+    }
+
+    static class CollectingSubscriber implements StreamSubscriber {
+        final List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch closed = new CountDownLatch(1);
+        final long delayMillis;
+        volatile Thread thread;
+
+        CollectingSubscriber(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public void onTuple(Stream s, Tuple tuple) {
+            thread = Thread.currentThread();
+            received.add(tuple.getIntColumn("x"));
+            if (delayMillis > 0 && received.size() % 10 == 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void streamClosed(Stream s) {
+            closed.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue(closed.await(30, TimeUnit.SECONDS));
+        }
+    }
+}
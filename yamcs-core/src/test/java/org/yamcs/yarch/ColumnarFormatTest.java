@@ -0,0 +1,98 @@
+package org.yamcs.yarch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ColumnarFormatTest extends YarchTestCase {
+
+    @Test
+    public void testProjectionV4() throws Exception {
+        TableDefinition tblDef = new TableDefinition("test1", getTupleDefinition(), Arrays.asList("id"));
+        assertEquals(4, tblDef.getFormatVersion());
+        checkProjection(tblDef);
+    }
+
+    @Test
+    public void testProjectionV3() throws Exception {
+        TableDefinition tblDef = new TableDefinition(3,
+                Arrays.asList(new TableColumnDefinition("id", DataType.INT)),
+                Arrays.asList(new TableColumnDefinition("gentime", DataType.TIMESTAMP),
+                        new TableColumnDefinition("name", DataType.STRING),
+                        new TableColumnDefinition("packet", DataType.BINARY),
+                        new TableColumnDefinition("val", DataType.DOUBLE)));
+        checkProjection(tblDef);
+    }
+
+    @Test
+    public void testSelectProjected() throws Exception {
+        execute("create table test2 (id int, gentime timestamp, name string, packet binary, val double,"
+                + " primary key(id))");
+        execute("create stream test2_in (id int, gentime timestamp, name string, packet binary, val double)");
+        execute("insert into test2 select * from test2_in");
+        Stream s = ydb.getStream("test2_in");
+        for (int i = 0; i < 100; i++) {
+            s.emitTuple(new Tuple(s.getDefinition(), Arrays.asList(i, 1000L * i,
+                    (i % 2 == 0) ? null : "n" + i, new byte[] { (byte) i, 2, 3 }, i / 2.0)));
+        }
+        execute("close stream test2_in");
+
+        ydb.execute("create stream test2_out as select gentime, name from test2 where val >= 25");
+        List<Tuple> tlist = fetchAll("test2_out");
+        assertEquals(50, tlist.size());
+        for (int k = 0; k < 50; k++) {
+            Tuple t = tlist.get(k);
+            int i = 50 + k;
+            assertEquals(1000L * i, t.getLongColumn("gentime"));
+            assertEquals((i % 2 == 0) ? null : "n" + i, t.getColumn("name"));
+            assertFalse(t.hasColumn("packet"));
+        }
+
+        List<Tuple> all = fetchAllFromTable("test2");
+        assertEquals(100, all.size());
+        assertEquals(4, all.get(0).size());
+        assertEquals(5, all.get(1).size());
+    }
+
+    private void checkProjection(TableDefinition tblDef) throws YarchException {
+        TupleDefinition tdef = getTupleDefinition();
+        Tuple t = new Tuple(tdef, Arrays.asList(3, 1000L, null, new byte[] { 1, 2, 3 }, 3.14));
+        byte[] k = tblDef.generateRow(t).getKey();
+        byte[] v = tblDef.serializeValue(t, null);
+
+        Tuple t1 = tblDef.deserialize(k, v);
+        assertEquals(4, t1.size());
+        assertEquals(3, t1.getIntColumn("id"));
+        assertEquals(1000L, t1.getLongColumn("gentime"));
+        assertEquals(3.14, (Double) t1.getColumn("val"), 1e-10);
+        assertFalse(t1.hasColumn("name"));
+
+        Set<String> columns = new HashSet<>(Arrays.asList("gentime", "val", "name"));
+        Tuple t2 = tblDef.deserialize(k, v, columns);
+        assertEquals(2, t2.size());
+        assertEquals(1000L, t2.getLongColumn("gentime"));
+        assertEquals(3.14, (Double) t2.getColumn("val"), 1e-10);
+        assertNull(t2.getColumn("packet"));
+
+        Tuple t3 = tblDef.deserialize(k, v, new HashSet<>(Arrays.asList("id")));
+        assertEquals(1, t3.size());
+        assertEquals(3, t3.getIntColumn("id"));
+    }
+
+    private TupleDefinition getTupleDefinition() {
+        TupleDefinition tdef = new TupleDefinition();
+        tdef.addColumn("id", DataType.INT);
+        tdef.addColumn("gentime", DataType.TIMESTAMP);
+        tdef.addColumn("name", DataType.STRING);
+        tdef.addColumn("packet", DataType.BINARY);
+        tdef.addColumn("val", DataType.DOUBLE);
+        return tdef;
+    }
+}
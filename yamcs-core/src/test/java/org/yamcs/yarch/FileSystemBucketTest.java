@@ -0,0 +1,59 @@
+package org.yamcs.yarch;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.yamcs.utils.FileUtils;
+import org.yamcs.utils.TimeEncoding;
+import org.yamcs.yarch.rocksdb.protobuf.Tablespace.ObjectProperties;
+
+public class FileSystemBucketTest {
+
+    static Path testDir = Paths.get("/tmp/FileSystemBucketTest");
+
+    @BeforeClass
+    static public void beforeClass() {
+        TimeEncoding.setUp();
+    }
+
+    @Before
+    public void cleanup() throws Exception {
+        FileUtils.deleteRecursivelyIfExists(testDir);
+        Files.createDirectories(testDir);
+    }
+
+    @Test
+    public void testTempFilesNotListed() throws Exception {
+        FileSystemBucket bucket = new FileSystemBucket("test", testDir);
+        byte[] data = new byte[] { 1, 2, 3 };
+        bucket.putObject("dir/obj1", null, Collections.emptyMap(), data);
+
+        // left over by an upload in progress
+        Files.write(testDir.resolve("dir/.obj2.16a7c4e1f2b.tmp"), data);
+
+        List<ObjectProperties> objects = bucket.listObjects();
+        assertEquals(1, objects.size());
+        assertEquals("dir/obj1", objects.get(0).getName());
+        assertArrayEquals(data, bucket.getObject("dir/obj1"));
+    }
+
+    @Test
+    public void testIsTempFile() {
+        assertTrue(FileSystemBucket.isTempFile(Paths.get("a/.obj.5f3e2a.tmp")));
+        assertTrue(FileSystemBucket.isTempFile(Paths.get(".obj.x.5f3e2a.tmp")));
+        assertFalse(FileSystemBucket.isTempFile(Paths.get("obj.5f3e2a.tmp")));
+        assertFalse(FileSystemBucket.isTempFile(Paths.get(".obj.tmp")));
+        assertFalse(FileSystemBucket.isTempFile(Paths.get(".obj.data.tmp")));
+    }
+}
@@ -0,0 +1,122 @@
+package org.yamcs.yarch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.yamcs.yarch.streamsql.StreamSqlException;
+import org.yamcs.yarch.streamsql.StreamSqlResult;
+
+public class PredicatePushdownTest extends YarchTestCase {
+    int n = 10;
+
+    private void populate(String tblName) throws Exception {
+        execute("create table " + tblName + " (a int, b int, c string, d string, e int, primary key(a, b, c))");
+        execute("create stream " + tblName + "_in (a int, b int, c string, d string, e int)");
+        execute("insert into " + tblName + " select * from " + tblName + "_in");
+        Stream s = ydb.getStream(tblName + "_in");
+        for (int a = 0; a < n; a++) {
+            for (int b = 0; b < n; b++) {
+                for (int c = 0; c < n; c++) {
+                    s.emitTuple(new Tuple(s.getDefinition(),
+                            Arrays.asList(a, b, "c" + c, (c % 2 == 0) ? "even" : null, a * 100 + b * 10 + c)));
+                }
+            }
+        }
+        execute("close stream " + tblName + "_in");
+    }
+
+    @Test
+    public void testKeyPrefix() throws Exception {
+        populate("test1");
+        List<Tuple> l = select("select * from test1 where a = 3 and b = 5");
+        assertEquals(n, l.size());
+        for (int c = 0; c < n; c++) {
+            assertEquals(350 + c, l.get(c).getIntColumn("e"));
+        }
+        assertEquals("primary key prefix", explain("select * from test1 where a = 3 and b = 5").get("b == 5"));
+    }
+
+    @Test
+    public void testKeyPrefixRange() throws Exception {
+        populate("test2");
+        List<Tuple> l = select("select * from test2 where a = 3 and b >= 5 and b <= 6");
+        assertEquals(2 * n, l.size());
+        assertEquals(350, l.get(0).getIntColumn("e"));
+        assertEquals(369, l.get(2 * n - 1).getIntColumn("e"));
+
+        l = select("select * from test2 where a = 3 and b = 4 and c = 'c7'");
+        assertEquals(1, l.size());
+        assertEquals(347, l.get(0).getIntColumn("e"));
+
+        Map<String, String> explain = explain("select * from test2 where a = 3 and b >= 5 and b <= 6");
+        assertEquals("primary key range", explain.get("a == 3"));
+        assertEquals("primary key prefix", explain.get("b >= 5"));
+        assertEquals("primary key prefix", explain.get("b <= 6"));
+    }
+
+    @Test
+    public void testRawKeyFilter() throws Exception {
+        populate("test3");
+        List<Tuple> l = select("select a, b from test3 where c = 'c3'");
+        assertEquals(n * n, l.size());
+        for (int i = 0; i < n * n; i++) {
+            assertEquals(i / n, l.get(i).getIntColumn("a"));
+            assertEquals(i % n, l.get(i).getIntColumn("b"));
+        }
+
+        Map<String, String> explain = explain("select a, b from test3 where c = 'c3'");
+        assertEquals("raw key filter", explain.get("c == 'c3'"));
+        assertEquals("projection", explain.get("a, b, c"));
+    }
+
+    @Test
+    public void testRawValueFilter() throws Exception {
+        populate("test4");
+        List<Tuple> l = select("select e from test4 where d = 'even' and a = 2");
+        assertEquals(n * n / 2, l.size());
+        for (Tuple t : l) {
+            assertEquals(0, t.getIntColumn("e") % 2);
+        }
+        assertEquals(0, select("select e from test4 where d = 'odd'").size());
+        assertEquals(6, select("select e from test4 where e = 123 or d = 'even' and a = 2 and b = 3").size());
+
+        Map<String, String> explain = explain("select e from test4 where d = 'even' and a = 2");
+        assertEquals("raw value filter", explain.get("d == 'even'"));
+        assertEquals("primary key range", explain.get("a == 2"));
+    }
+
+    @Test(expected = StreamSqlException.class)
+    public void testExplainStream() throws Exception {
+        execute("create stream test5_in (a int)");
+        ydb.execute("explain select * from test5_in");
+    }
+
+    private List<Tuple> select(String query) throws Exception {
+        List<Tuple> l = new ArrayList<>();
+        StreamSqlResult r = ydb.execute(query);
+        while (r.hasNext()) {
+            l.add(r.next());
+        }
+        r.close();
+        return l;
+    }
+
+    private Map<String, String> explain(String query) throws Exception {
+        Map<String, String> m = new HashMap<>();
+        StreamSqlResult r = ydb.execute("explain " + query);
+        while (r.hasNext()) {
+            Tuple t = r.next();
+            m.put(t.getColumn("predicate"), t.getColumn("pushdown"));
+        }
+        r.close();
+        assertTrue(!m.isEmpty());
+        return m;
+    }
+}
@@ -2,10 +2,16 @@ package org.yamcs.yarch;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
+import org.yamcs.utils.ByteArrayUtils;
+import org.yamcs.yarch.rocksdb.RdbStorageEngine;
+import org.yamcs.yarch.rocksdb.Tablespace;
+import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TablespaceRecord;
+import org.yamcs.yarch.rocksdb.protobuf.Tablespace.TablespaceRecord.Type;
 import org.yamcs.yarch.streamsql.StreamSqlException;
 import org.yamcs.yarch.streamsql.StreamSqlResult;
 
@@ -17,9 +23,9 @@ public class SecondaryIndexTest extends YarchTestCase {
                 + "(a int, b int, c int, d string, "
                 + "primary key(a,b), index(c))");
         
-        ydb.execute("create stream abcd_in(a int, b int, c int, d int)");
-        ydb.execute("insert into " + tblName + " select * from abcd_in");
-        Stream s = ydb.getStream("abcd_in");
+        ydb.execute("create stream " + tblName + "_in(a int, b int, c int, d int)");
+        ydb.execute("insert into " + tblName + " select * from " + tblName + "_in");
+        Stream s = ydb.getStream(tblName + "_in");
 
         for (int a = 0; a < n; a++) {
             for (int b = 0; b <n; b++) {
@@ -27,7 +33,7 @@ public class SecondaryIndexTest extends YarchTestCase {
                 s.emitTuple(t);
             }
         }
-        execute("close stream abcd_in");
+        execute("close stream " + tblName + "_in");
     }
     
     
@@ -67,4 +73,187 @@ public class SecondaryIndexTest extends YarchTestCase {
         assertEquals("b", idx1.get(0));
     }
     
+    @Test
+    public void testInDescending() throws Exception {
+        populate("test2");
+        String query = "select * from test2 where c in (3, 5) and a >= 1 and a <= 4 order desc";
+        List<Tuple> l = select(query);
+        int[][] expected = { { 4, 1 }, { 3, 2 }, { 3, 0 }, { 2, 3 }, { 2, 1 }, { 1, 4 }, { 1, 2 } };
+        assertEquals(expected.length, l.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i][0], l.get(i).getIntColumn("a"));
+            assertEquals(expected[i][1], l.get(i).getIntColumn("b"));
+        }
+
+        StreamSqlResult res = ydb.execute("explain " + query);
+        boolean found = false;
+        while (res.hasNext()) {
+            Tuple t = res.next();
+            if ("secondary index".equals(t.getColumn("pushdown"))) {
+                assertEquals("c in [3, 5]", t.getColumn("predicate"));
+                found = true;
+            }
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void testEnumKeyColumn() throws Exception {
+        ydb.execute("create table test3 (t timestamp, s enum, n int, primary key(t, s, n), index(s))");
+        ydb.execute("create stream test3_in (t timestamp, s enum, n int)");
+        ydb.execute("insert into test3 select * from test3_in");
+        Stream s = ydb.getStream("test3_in");
+        for (int i = 0; i < 100; i++) {
+            s.emitTuple(new Tuple(s.getDefinition(), Arrays.asList(1000L * i, "src" + (i % 4), i)));
+        }
+        execute("close stream test3_in");
+
+        List<Tuple> l = select("select * from test3 where s in ('src1', 'src3', 'unknown') and t < 50000 order desc");
+        assertEquals(25, l.size());
+        for (int i = 0; i < l.size(); i++) {
+            int n = 49 - 2 * i;
+            assertEquals(n, l.get(i).getIntColumn("n"));
+            assertEquals("src" + (n % 4), l.get(i).getColumn("s"));
+        }
+        assertEquals(25, select("select * from test3 where s = 'src2'").size());
+        assertEquals(0, select("select * from test3 where s = 'unknown'").size());
+    }
+
+    @Test
+    public void testIndexUpdateDelete() throws Exception {
+        populate("test4");
+        execute("delete from test4 where c = 3");
+        assertEquals(0, select("select * from test4 where c = 3").size());
+        assertEquals(5, select("select * from test4 where c = 4").size());
+
+        execute("update test4 set c = 100 where a = 0 and b = 1");
+        List<Tuple> l = select("select * from test4 where c = 100");
+        assertEquals(1, l.size());
+        assertEquals(1, l.get(0).getIntColumn("b"));
+        l = select("select * from test4 where c = 1");
+        assertEquals(1, l.size());
+        assertEquals(1, l.get(0).getIntColumn("a"));
+    }
+
+    @Test
+    public void testOutdatedIndexEntry() throws Exception {
+        populate("test5");
+        // the upsert adds an index entry for the new value but leaves the one for the old value
+        ydb.execute("create stream test5_up(a int, b int, c int, d string)");
+        ydb.execute("upsert into test5 select * from test5_up");
+        Stream s = ydb.getStream("test5_up");
+        s.emitTuple(new Tuple(s.getDefinition(), Arrays.asList(1, 2, 100, "x")));
+        execute("close stream test5_up");
+
+        // the walker skips the outdated entry: the row is only visited for the new value
+        TableDefinition tblDef = ydb.getTable("test5");
+        TableWalker tw = ydb.getStorageEngine(tblDef).newSecondaryIndexTableWalker(ydb, tblDef, true, false);
+        tw.setSecondaryIndexRanges(Arrays.asList(skRange(tblDef, "c", 3), skRange(tblDef, "c", 100)));
+        int[] count = new int[1];
+        tw.walk((key, value) -> {
+            count[0]++;
+            return TableVisitor.ACTION_CONTINUE;
+        });
+        assertEquals(4, count[0]);
+
+        execute("delete from test5 where c = 3");
+        assertEquals(0, select("select * from test5 where c = 3").size());
+        List<Tuple> l = select("select * from test5 where c = 100");
+        assertEquals(1, l.size());
+        assertEquals(2, l.get(0).getIntColumn("b"));
+    }
+
+    @Test
+    public void testRangeNotIndexed() throws Exception {
+        populate("test6");
+        String query = "select * from test6 where c > 15";
+        assertEquals(6, select(query).size());
+
+        StreamSqlResult res = ydb.execute("explain " + query);
+        while (res.hasNext()) {
+            assertFalse(((String) res.next().getColumn("pushdown")).startsWith("secondary index"));
+        }
+    }
+
+    @Test
+    public void testCreateSecondaryIndex() throws Exception {
+        ydb.execute("create table test7(a int, b int, c int, d string, primary key(a,b))");
+        ydb.execute("create stream test7_in(a int, b int, c int, d string)");
+        ydb.execute("insert into test7 select * from test7_in");
+        Stream s = ydb.getStream("test7_in");
+        for (int a = 0; a < 10; a++) {
+            s.emitTuple(new Tuple(s.getDefinition(), Arrays.asList(a, 0, a % 3, "r" + a)));
+        }
+        execute("close stream test7_in");
+
+        ydb.createSecondaryIndex("test7", Arrays.asList("c"));
+        assertEquals(Arrays.asList("c"), ydb.getTable("test7").getSecondaryIndex());
+        assertTrue(isIndexed("select * from test7 where c = 1"));
+        assertEquals(3, select("select * from test7 where c = 1").size());
+
+        YarchDatabase.removeInstance(instance);
+        ydb = YarchDatabase.getInstance(instance);
+        assertEquals(Arrays.asList("c"), ydb.getTable("test7").getSecondaryIndex());
+        assertEquals(4, select("select * from test7 where c = 0").size());
+
+        // the index records are removed with the table
+        execute("drop table test7");
+        ydb.execute("create table test7(a int, b int, c int, primary key(a), index(c))");
+        assertEquals(0, select("select * from test7 where c = 0").size());
+    }
+
+    @Test
+    public void testRebuildOldIndex() throws Exception {
+        populate("test8");
+        Tablespace tablespace = RdbStorageEngine.getInstance().getTablespace(ydb);
+        TablespaceRecord tr = tablespace.filter(Type.SECONDARY_INDEX, instance,
+                trb -> trb.getTableName().equals("test8")).get(0);
+
+        // pretend the index has been written by a previous version, in the default column family
+        TablespaceRecord.Builder trb = tr.toBuilder();
+        trb.getSecondaryIndexBuilder().clearFormatVersion();
+        tablespace.updateRecord(instance, trb);
+        byte[] oldEntry = ByteArrayUtils.encodeInt(tr.getTbsIndex());
+        tablespace.putData(oldEntry, new byte[0]);
+
+        YarchDatabase.removeInstance(instance);
+        ydb = YarchDatabase.getInstance(instance);
+
+        tr = tablespace.filter(Type.SECONDARY_INDEX, instance, t -> t.getTableName().equals("test8")).get(0);
+        assertTrue(tr.getSecondaryIndex().hasFormatVersion());
+        assertNull(tablespace.getData(oldEntry));
+        assertEquals(4, select("select * from test8 where c = 3").size());
+    }
+
+    private boolean isIndexed(String query) throws Exception {
+        StreamSqlResult res = ydb.execute("explain " + query);
+        boolean found = false;
+        while (res.hasNext()) {
+            if ("secondary index".equals(res.next().getColumn("pushdown"))) {
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    private static DbRange skRange(TableDefinition tblDef, String column, Object value) {
+        TableColumnDefinition tcd = tblDef.getColumnDefinition(column);
+        byte[] v = tcd.getSerializer().toByteArray(value);
+        DbRange r = new DbRange();
+        r.rangeStart = new byte[v.length + 1];
+        r.rangeStart[0] = (byte) (0x70 | tcd.getType().getTypeId());
+        System.arraycopy(v, 0, r.rangeStart, 1, v.length);
+        r.rangeEnd = r.rangeStart;
+        return r;
+    }
+
+    private List<Tuple> select(String query) throws Exception {
+        List<Tuple> l = new ArrayList<>();
+        StreamSqlResult r = ydb.execute(query);
+        while (r.hasNext()) {
+            l.add(r.next());
+        }
+        r.close();
+        return l;
+    }
 }
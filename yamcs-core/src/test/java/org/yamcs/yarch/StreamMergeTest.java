@@ -149,6 +149,41 @@ public class StreamMergeTest extends YarchTestCase {
         execute("drop table tm3");
     }
 
+    @Test
+    public void testSmallReadAheadDescending() throws Exception {
+        populate("tm1", 0, 1000, 2, 1000);
+        populate("tm2", 1, 1000, 4, 2000);
+        populate("tm3", 3, 1000, 4, 3000);
+
+        Stream[] streams = new Stream[3];
+        for (int i = 0; i < 3; i++) {
+            ydb.execute("create stream s" + i + " as select * from tm" + (i + 1) + " order desc");
+            streams[i] = ydb.getStream("s" + i);
+        }
+        MergeStream ms = new MergeStream(ydb, streams, "time", false, 4);
+        AtomicInteger ai = new AtomicInteger(0);
+        Semaphore semaphore = new Semaphore(0);
+        ms.addSubscriber(new StreamSubscriber() {
+            @Override
+            public void streamClosed(Stream stream) {
+                semaphore.release();
+            }
+
+            @Override
+            public void onTuple(Stream stream, Tuple tuple) {
+                int i = ai.getAndIncrement();
+                assertEquals(1000 * (999 - i), (long) (Long) tuple.getColumn(0));
+            }
+        });
+        ms.start();
+        semaphore.tryAcquire(30, TimeUnit.SECONDS);
+        assertEquals(1000, ai.get());
+
+        execute("drop table tm1");
+        execute("drop table tm2");
+        execute("drop table tm3");
+    }
+
     interface Checker {
         public void check(int i, long time, int apidSeqCount);
     }
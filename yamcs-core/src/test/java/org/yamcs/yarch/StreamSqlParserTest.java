@@ -3,9 +3,11 @@ package org.yamcs.yarch;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 import org.yamcs.utils.parser.ParseException;
+import org.yamcs.yarch.streamsql.ExplainStatement;
 import org.yamcs.yarch.streamsql.StreamSqlException;
 
 public class StreamSqlParserTest extends YarchTestCase {
@@ -55,6 +57,20 @@ public class StreamSqlParserTest extends YarchTestCase {
         execute("drop table if exists sometablethatreallydoesntexist");
     }
 
+    @Test
+    public void testExplain() throws ParseException, StreamSqlException {
+        assertTrue(ydb.createStatement("EXPLAIN select * from explaintest_test1") instanceof ExplainStatement);
+
+        // only the select statements can be explained
+        ParseException e = null;
+        try {
+            ydb.createStatement("explain drop table explaintest_test1");
+        } catch (ParseException e1) {
+            e = e1;
+        }
+        assertNotNull(e);
+    }
+
     @Test
     public void testErrors() throws Exception {
         StreamSqlException e = null;
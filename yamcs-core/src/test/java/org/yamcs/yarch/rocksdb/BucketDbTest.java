@@ -6,12 +6,17 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -21,10 +26,13 @@ import org.yamcs.yarch.Bucket;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.BucketProperties;
 import org.yamcs.yarch.rocksdb.protobuf.Tablespace.ObjectProperties;
 
+import com.google.common.io.ByteStreams;
+
 public class BucketDbTest {
 
     static String testDir = "/tmp/BucketDbTest";
     Random random = new Random();
+    List<Tablespace> tablespaces = new ArrayList<>();
 
     @BeforeClass
     static public void beforeClass() {
@@ -36,6 +44,12 @@ public class BucketDbTest {
         FileUtils.deleteRecursivelyIfExists(Paths.get(testDir));
     }
 
+    @After
+    public void closeTablespaces() {
+        tablespaces.forEach(Tablespace::close);
+        tablespaces.clear();
+    }
+
     @Test
     public void test1() throws Exception {
         String dir = testDir + "/tablespace1";
@@ -176,11 +190,76 @@ public class BucketDbTest {
         b.putObject("newobj", null, null, new byte[1024 * 1024]);
     }
 
+    @Test
+    public void testStream() throws Exception {
+        RdbBucketDatabase bucketDb = createDb(5);
+        Bucket b = bucketDb.createBucket("bucket1");
+        byte[] objectData = new byte[3 * RdbBucket.CHUNK_SIZE + 123];
+        random.nextBytes(objectData);
+        b.putObject("obj1", null, null, new ByteArrayInputStream(objectData));
+
+        assertEquals(objectData.length, b.findObject("obj1").getSize());
+        assertArrayEquals(objectData, b.getObject("obj1"));
+        try (InputStream in = b.getObjectStream("obj1")) {
+            assertArrayEquals(objectData, ByteStreams.toByteArray(in));
+        }
+
+        int offset = RdbBucket.CHUNK_SIZE - 10;
+        try (InputStream in = b.getObjectStream("obj1", offset, 2 * RdbBucket.CHUNK_SIZE)) {
+            assertArrayEquals(Arrays.copyOfRange(objectData, offset, offset + 2 * RdbBucket.CHUNK_SIZE),
+                    ByteStreams.toByteArray(in));
+        }
+        try (InputStream in = b.getObjectStream("obj1", objectData.length - 5, 100)) {
+            assertEquals(5, ByteStreams.toByteArray(in).length);
+        }
+        assertNull(b.getObjectStream("obj2"));
+
+        // the stream keeps returning the data of the object existing when it was opened
+        InputStream in = b.getObjectStream("obj1");
+        b.putObject("obj1", null, null, new byte[10]);
+        assertArrayEquals(objectData, ByteStreams.toByteArray(in));
+        in.close();
+
+        assertEquals(10, b.getObject("obj1").length);
+        assertEquals(10, bucketDb.getBucket("bucket1").bucketProps.getSize());
+
+        b.deleteObject("obj1");
+        assertNull(b.getObject("obj1"));
+        assertEquals(0, bucketDb.getBucket("bucket1").bucketProps.getSize());
+    }
+
+    @Test
+    public void testStreamTooLarge() throws Exception {
+        RdbBucketDatabase bucketDb = createDb(6);
+        Bucket b = bucketDb.createBucket("bucket1");
+        InputStream in = ByteStreams.limit(new InputStream() {
+            @Override
+            public int read() {
+                return 0;
+            }
+
+            @Override
+            public int read(byte[] buf, int off, int len) {
+                return len;
+            }
+        }, RdbBucketDatabase.MAX_BUCKET_SIZE + 1);
+        Exception e = null;
+        try {
+            b.putObject("obj1", null, null, in);
+        } catch (Exception e1) {
+            e = e1;
+        }
+        assertNotNull(e);
+        assertNull(b.findObject("obj1"));
+        assertTrue(b.listObjects().isEmpty());
+    }
+
     private RdbBucketDatabase createDb(int n) throws Exception {
         String dir = testDir + "/tablespace" + n;
         Tablespace tablespace = new Tablespace("tablespace" + n);
         tablespace.setCustomDataDir(dir);
         tablespace.loadDb(false);
+        tablespaces.add(tablespace);
         return new RdbBucketDatabase("test", tablespace);
     }
 
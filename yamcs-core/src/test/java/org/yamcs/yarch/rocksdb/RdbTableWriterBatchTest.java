@@ -0,0 +1,139 @@
+package org.yamcs.yarch.rocksdb;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.yamcs.utils.TimeInterval;
+import org.yamcs.yarch.HistogramIterator;
+import org.yamcs.yarch.HistogramRecord;
+import org.yamcs.yarch.TableDefinition;
+import org.yamcs.yarch.TableWriter.InsertMode;
+import org.yamcs.yarch.Tuple;
+import org.yamcs.yarch.YarchTestCase;
+import org.yamcs.yarch.rocksdb.RdbConfig.WriteBatchConfig;
+import org.yamcs.yarch.streamsql.StreamSqlResult;
+
+public class RdbTableWriterBatchTest extends YarchTestCase {
+
+    @Test
+    public void testInsert() throws Exception {
+        TableDefinition tblDef = createTable("test_insert");
+        RdbTableWriter tw = newWriter(tblDef, InsertMode.INSERT, new WriteBatchConfig(10, 1024 * 1024, 10000, false, false));
+        assertTrue(tw.isBatching());
+
+        for (int i = 0; i < 25; i++) {
+            tw.onTuple(null, new Tuple(tblDef.getTupleDefinition(), new Object[] { 1000L * i, 1, "p" + (i % 2), i }));
+        }
+        // duplicate of a record already in the database and of one still in the batch
+        tw.onTuple(null, new Tuple(tblDef.getTupleDefinition(), new Object[] { 1000L, 1, "p1", 100 }));
+        tw.onTuple(null, new Tuple(tblDef.getTupleDefinition(), new Object[] { 22000L, 1, "p0", 100 }));
+        tw.close();
+
+        assertEquals(3, tw.getBatchSizeHistogram().getCount());
+        assertEquals(3, tw.getFlushTimer().getCount());
+
+        List<Tuple> tuples = fetchAllFromTable("test_insert");
+        assertEquals(25, tuples.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(i, (int) tuples.get(i).getColumn("c"));
+        }
+
+        assertEquals(25, histogramCount(tblDef));
+    }
+
+    @Test
+    public void testUpsert() throws Exception {
+        TableDefinition tblDef = createTable("test_upsert");
+        RdbTableWriter tw = newWriter(tblDef, InsertMode.UPSERT, new WriteBatchConfig(4, 1024 * 1024, 10000, false, false));
+
+        for (int i = 0; i < 10; i++) {
+            tw.onTuple(null, new Tuple(tblDef.getTupleDefinition(), new Object[] { 1000L * i, 1, "p1", i }));
+        }
+        tw.onTuple(null, new Tuple(tblDef.getTupleDefinition(), new Object[] { 1000L, 1, "p1", 100 }));
+        tw.onTuple(null, new Tuple(tblDef.getTupleDefinition(), new Object[] { 9000L, 1, "p1", 109 }));
+        tw.close();
+
+        List<Tuple> tuples = fetchAllFromTable("test_upsert");
+        assertEquals(10, tuples.size());
+        assertEquals(100, (int) tuples.get(1).getColumn("c"));
+        assertEquals(109, (int) tuples.get(9).getColumn("c"));
+
+        assertEquals(10, histogramCount(tblDef));
+    }
+
+    @Test
+    public void testSecondaryIndex() throws Exception {
+        ydb.execute("create table test_index(a int, b int, c int, primary key(a,b), index(c))");
+        TableDefinition tblDef = ydb.getTable("test_index");
+        RdbTableWriter tw = newWriter(tblDef, InsertMode.INSERT, new WriteBatchConfig(7, 1024 * 1024, 10000, false, false));
+        for (int a = 0; a < 10; a++) {
+            for (int b = 0; b < 10; b++) {
+                tw.onTuple(null, new Tuple(tblDef.getTupleDefinition(), new Object[] { a, b, a + b }));
+            }
+        }
+        tw.close();
+
+        StreamSqlResult res = ydb.execute("select * from test_index where c=3");
+        for (int i = 0; i < 4; i++) {
+            assertTrue(res.hasNext());
+            assertEquals(3, (int) res.next().getColumn("c"));
+        }
+        assertFalse(res.hasNext());
+        res.close();
+    }
+
+    @Test
+    public void testLatencyFlush() throws Exception {
+        TableDefinition tblDef = createTable("test_latency");
+        RdbTableWriter tw = newWriter(tblDef, InsertMode.INSERT, new WriteBatchConfig(1000, 1024 * 1024, 20, false, false));
+        for (int i = 0; i < 5; i++) {
+            tw.onTuple(null, new Tuple(tblDef.getTupleDefinition(), new Object[] { 1000L * i, 1, "p1", i }));
+        }
+        // the rows may be flushed in more than one batch if the inserts take longer than the latency
+        for (int i = 0; i < 100 && fetchAllFromTable("test_latency").size() < 5; i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(tw.getBatchSizeHistogram().getCount() > 0);
+        assertEquals(5, fetchAllFromTable("test_latency").size());
+        tw.close();
+    }
+
+    @Test
+    public void testLoadWriteOptions() throws Exception {
+        TableDefinition tblDef = createTable("test_load");
+        RdbTableWriter tw = newWriter(tblDef, InsertMode.LOAD, new WriteBatchConfig(10, 1024 * 1024, 10000, true, false));
+        assertTrue(tw.isBatching());
+        assertTrue(tw.wopt.sync());
+        assertFalse(tw.wopt.disableWAL());
+        for (int i = 0; i < 15; i++) {
+            tw.onTuple(null, new Tuple(tblDef.getTupleDefinition(), new Object[] { 1000L * i, 1, "p1", i }));
+        }
+        tw.close();
+        assertEquals(15, fetchAllFromTable("test_load").size());
+    }
+
+    private TableDefinition createTable(String name) throws Exception {
+        execute("create table " + name + "(gentime timestamp, seqNum int, name string, c int, "
+                + "primary key(gentime, seqNum)) histogram(name) partition by time(gentime) engine rocksdb2");
+        return ydb.getTable(name);
+    }
+
+    private RdbTableWriter newWriter(TableDefinition tblDef, InsertMode mode, WriteBatchConfig batchConfig) {
+        RdbStorageEngine rse = (RdbStorageEngine) ydb.getStorageEngine(tblDef);
+        return rse.getTablespace(ydb).newTableWriter(ydb, tblDef, mode, batchConfig);
+    }
+
+    private int histogramCount(TableDefinition tblDef) throws Exception {
+        RdbStorageEngine rse = (RdbStorageEngine) ydb.getStorageEngine(tblDef);
+        HistogramIterator iter = rse.getHistogramIterator(ydb, tblDef, "name", new TimeInterval());
+        int n = 0;
+        while (iter.hasNext()) {
+            HistogramRecord hr = iter.next();
+            n += hr.getNumTuples();
+        }
+        iter.close();
+        return n;
+    }
+}
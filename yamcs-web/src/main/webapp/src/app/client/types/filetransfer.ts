@@ -32,6 +32,10 @@ export interface Transfer {
   totalSize: number;
   sizeTransferred: number;
   failureReason?: string;
+  pdusSent?: number;
+  pdusReceived?: number;
+  throughput?: number;
+  pduRate?: number;
 }
 
 export interface UploadOptions {
@@ -18,6 +18,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.yamcs.protobuf.Yamcs.NamedObjectId;
+import org.yamcs.xtce.util.ParameterIds;
 import org.yamcs.xtce.xml.XtceAliasSet;
 
 /**
@@ -87,6 +88,9 @@ public class XtceDb implements Serializable {
      */
     private HashMap<SequenceContainer, ArrayList<SequenceContainer>> sequenceContainer2InheritingContainerMap;
 
+    // created at the first request
+    private transient volatile ParameterIds parameterIds;
+
     public XtceDb(SpaceSystem spaceSystem) {
         this.rootSystem = spaceSystem;
     }
@@ -212,6 +216,25 @@ public class XtceDb implements Serializable {
         }
     }
 
+    /**
+     * Returns dense numeric ids for the parameters existing at the moment of the first call. The ids are computed
+     * once and shared by all the users of this XtceDb (e.g. the last value caches of all processors); the parameters
+     * added afterwards do not have an id.
+     */
+    public ParameterIds getParameterIds() {
+        ParameterIds ids = parameterIds;
+        if (ids == null) {
+            synchronized (this) {
+                ids = parameterIds;
+                if (ids == null) {
+                    ids = new ParameterIds(getParameters());
+                    parameterIds = ids;
+                }
+            }
+        }
+        return ids;
+    }
+
     public Collection<ParameterType> getParameterTypes() {
         return parameterTypes.values();
     }
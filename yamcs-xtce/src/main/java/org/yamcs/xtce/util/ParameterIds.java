@@ -0,0 +1,46 @@
+package org.yamcs.xtce.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.yamcs.xtce.Parameter;
+
+/**
+ * Dense numeric ids (0, 1, ... size-1) assigned to a fixed set of parameters.
+ * <p>
+ * The object is immutable and can be shared between threads.
+ */
+public class ParameterIds {
+    private final Parameter[] parameters;
+    private final Map<Parameter, Integer> ids;
+
+    public ParameterIds(Collection<Parameter> plist) {
+        parameters = plist.toArray(new Parameter[0]);
+        ids = new HashMap<>(2 * parameters.length);
+        for (int i = 0; i < parameters.length; i++) {
+            ids.put(parameters[i], i);
+        }
+    }
+
+    /**
+     * 
+     * @return the id of the parameter or -1 if the parameter has no id
+     */
+    public int getId(Parameter p) {
+        Integer id = ids.get(p);
+        return id == null ? -1 : id;
+    }
+
+    public Parameter getParameter(int id) {
+        return parameters[id];
+    }
+
+    /**
+     * 
+     * @return the number of parameters having an id
+     */
+    public int size() {
+        return parameters.length;
+    }
+}